@@ -2,6 +2,8 @@ package org.opensearch.migrations;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Clock;
@@ -28,6 +30,7 @@ import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
 import org.opensearch.migrations.bulkload.common.FileSystemRepo;
 import org.opensearch.migrations.bulkload.common.GcsRepo;
 import org.opensearch.migrations.bulkload.common.GcsUri;
+import org.opensearch.migrations.bulkload.common.MultiNodeRestClient;
 import org.opensearch.migrations.bulkload.common.OpenSearchClient;
 import org.opensearch.migrations.bulkload.common.OpenSearchClientFactory;
 import org.opensearch.migrations.bulkload.common.RepoUri;
@@ -35,10 +38,15 @@ import org.opensearch.migrations.bulkload.common.S3Repo;
 import org.opensearch.migrations.bulkload.common.S3Uri;
 import org.opensearch.migrations.bulkload.common.SnapshotReadFailures;
 import org.opensearch.migrations.bulkload.common.SourceRepo;
+import org.opensearch.migrations.bulkload.common.TargetShardRouter;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
 import org.opensearch.migrations.bulkload.lucene.FieldMappingContext;
 import org.opensearch.migrations.bulkload.pipeline.DocumentMigrationBootstrap;
+import org.opensearch.migrations.bulkload.pipeline.DocumentSorter;
 import org.opensearch.migrations.bulkload.pipeline.adapter.LuceneSnapshotSource;
+import org.opensearch.migrations.bulkload.pipeline.ndjson.NdjsonFileDocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.ndjson.NdjsonFileFormat;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
 import org.opensearch.migrations.bulkload.solr.SolrBackupLayout;
 import org.opensearch.migrations.bulkload.solr.SolrMultiCollectionSource;
 import org.opensearch.migrations.bulkload.solr.SolrShardPartition;
@@ -50,6 +58,7 @@ import org.opensearch.migrations.bulkload.workcoordination.LeaseExpireTrigger;
 import org.opensearch.migrations.bulkload.workcoordination.OpenSearchWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.ScopedWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.WorkCoordinatorFactory;
+import org.opensearch.migrations.bulkload.workcoordination.WorkItemSchedulingPolicy;
 import org.opensearch.migrations.bulkload.workcoordination.WorkItemTimeProvider;
 import org.opensearch.migrations.bulkload.worker.CompletionStatus;
 import org.opensearch.migrations.bulkload.worker.ShardWorkPreparer;
@@ -57,6 +66,7 @@ import org.opensearch.migrations.bulkload.worker.WorkItemCursor;
 import org.opensearch.migrations.cluster.SnapshotReaderRegistry;
 import org.opensearch.migrations.jcommander.EnvVarParameterPuller;
 import org.opensearch.migrations.jcommander.JsonCommandLineParser;
+import org.opensearch.migrations.reindexer.FailedRequestsLogger;
 import org.opensearch.migrations.reindexer.faileddocumentstream.FailedDocumentStreamSink;
 import org.opensearch.migrations.reindexer.faileddocumentstream.S3FailedDocumentStreamSink;
 import org.opensearch.migrations.reindexer.tracing.RootDocumentMigrationContext;
@@ -207,6 +217,15 @@ public class RfsMigrateDocuments {
                 "Useful for preventing disk overflow.  Default: 80 * 1024 * 1024 * 1024 (80 GB)"))
         public long maxShardSizeBytes = 80 * 1024 * 1024 * 1024L;
 
+        @Parameter(required = false,
+            names = { "--sub-shard-split-bytes", "--subShardSplitBytes" },
+            description = ("Optional. When set, shards larger than this many bytes are split into work items " +
+                "that each cover a contiguous range of the shard's Lucene segments of about this size, so that " +
+                "several workers can migrate one large shard in parallel.  Each worker downloads only its range's " +
+                "segment files, and --max-shard-size-bytes applies to those.  Not supported with delta snapshots.  " +
+                "Default: 0 (disabled)"))
+        public long subShardSplitBytes = 0;
+
         @Parameter(required = false,
             names = { "--initial-lease-duration", "--initialLeaseDuration" },
             converter = DurationConverter.class,
@@ -412,6 +431,124 @@ public class RfsMigrateDocuments {
                 "Default: 'a'."
         )
         public String positionGapStopword = "a";
+
+        @Parameter(required = false,
+            names = { "--experimental-resident-worker" },
+            description = "Keep acquiring and migrating work items in this process until no work is left (or none " +
+                "is available to this worker), instead of exiting after one.  While a work item keeps making " +
+                "progress its lease is renewed rather than checkpointed, and the snapshot source and unpacked " +
+                "shard files are reused across work items.",
+            arity = 0
+        )
+        public boolean residentWorker = false;
+
+        @Parameter(required = false,
+            names = { "--experimental-snapshot-manifest-path" },
+            description = "Optional. Path of a compact binary manifest of the snapshot's shard metadata, on storage " +
+                "shared by all workers.  The worker that sets up the shard work items writes it; the others read " +
+                "only their own shard's entry from it instead of loading the repository data and snap-*.dat " +
+                "files from the snapshot repository.  Workers fall back to the repository if it is missing."
+        )
+        public String snapshotManifestPath = null;
+
+        @Parameter(required = false,
+            names = { "--experimental-work-item-priority-classes" },
+            description = "Optional. Index-name patterns ('*' wildcards), most important first, e.g. " +
+                "'orders-*,customers'.  Workers pick up work items for indices matching an earlier pattern before " +
+                "those matching a later one, and indices matching none come last.  Only takes effect for work " +
+                "items created while it is set.")
+        public List<String> workItemPriorityClasses = List.of();
+
+        @Parameter(required = false,
+            names = { "--experimental-largest-shards-first" },
+            description = "Within a priority class, start the work items with the most source data first, so that " +
+                "a large shard isn't left to a single worker at the end of the migration.  Only takes effect for " +
+                "work items created while it is set.",
+            arity = 0
+        )
+        public boolean largestShardsFirst = false;
+
+        @Parameter(required = false,
+            names = { "--experimental-max-leased-work-items-per-index" },
+            description = "Optional. How many work items of one index may be in progress at once across all " +
+                "workers, so that an index with many shards doesn't take every worker.  The limit is best-effort " +
+                "and can be briefly exceeded when workers acquire at the same moment.  Default: 0 (no limit).")
+        public int maxLeasedWorkItemsPerIndex = 0;
+
+        @Parameter(required = false,
+            names = { "--experimental-target-shard-routing" },
+            description = "Split each bulk request by the target node holding each document's primary shard (as " +
+                "computed from its _routing or _id) and send the parts to those nodes directly, rather than " +
+                "letting a coordinating node fan them out.  The worker must be able to reach the nodes' http " +
+                "publish addresses; documents for unreachable nodes go to --target-host.  Since every part is a " +
+                "separate request, consider raising the batch size along with it.  Has no effect on batches " +
+                "rewritten by a doc transformer or sent with server-generated ids.",
+            arity = 0
+        )
+        public boolean targetShardRouting = false;
+
+        @Parameter(required = false,
+            names = { "--experimental-target-node-balancing" },
+            description = "Discover the target's nodes with _nodes/http, warm a connection pool for each and send " +
+                "every bulk request to the node with the fewest request bytes outstanding, rather than all of " +
+                "them to --target-host.  The worker must be able to reach the nodes' http publish addresses; " +
+                "nodes it can't reach are left out, and if none can be reached everything goes to --target-host.",
+            arity = 0
+        )
+        public boolean targetNodeBalancing = false;
+
+        @Parameter(required = false,
+            names = { "--experimental-bulk-hedge-percentile" },
+            description = "Optional. With --experimental-target-node-balancing, send a bulk request to a second " +
+                "node as well when it has taken longer than this percentile of recent bulk requests (e.g. 95), " +
+                "and use whichever answer comes first.  Only requests that only index documents by id, with no " +
+                "creates, deletes or version checks, are hedged, and at most a fifth of all requests.  " +
+                "Default: 0 (no hedging)")
+        public double bulkHedgePercentile = 0;
+
+        @Parameter(required = false,
+            names = { "--experimental-sort-documents-by" },
+            description = "Optional. _source fields ('.' for nesting), each optionally followed by ':asc' or " +
+                "':desc', e.g. '@timestamp:desc,host'.  Each work item's documents are sorted by them before they " +
+                "are sent, so that a target with a matching index.sort, or a time-based rollover alias, receives " +
+                "them in order.  Documents are only sent once the whole work item has been read and sorted, " +
+                "spilling to --experimental-sort-spill-dir, and an interrupted work item restarts from its " +
+                "beginning rather than from its last checkpoint.")
+        public List<String> sortDocumentsBy = List.of();
+
+        @Parameter(required = false,
+            names = { "--experimental-sort-memory-bytes" },
+            description = "Optional. How much document data to sort in memory before spilling a sorted run to " +
+                "disk.  Default: 268435456 (256 MiB).")
+        public long sortMemoryBytes = 256L * 1024 * 1024;
+
+        @Parameter(required = false,
+            names = { "--experimental-sort-spill-dir" },
+            description = "Optional. Where sorted runs are spilled; needs about as much space as the largest " +
+                "shard's sources.  Default: a directory next to --lucene-dir.")
+        public String sortSpillDir = null;
+
+        @Parameter(required = false,
+            names = { "--experimental-write-documents-to-directory" },
+            description = "Optional. Instead of sending documents to the target cluster, write them as bulk " +
+                "request NDJSON files under this directory, one subdirectory per index, with a manifest per file " +
+                "so that the files can be read back in parallel and from any document.  Every worker writes its " +
+                "own files, so workers may share a (mounted) directory.  The target cluster is still used for " +
+                "work coordination unless --coordinator-host is set.  Documents are written as they were read, " +
+                "so this can't be combined with a doc transformer, --server-generated-ids ALWAYS, " +
+                "--allowed-doc-exception-types or --experimental-target-shard-routing.")
+        public String writeDocumentsToDirectory = null;
+
+        @Parameter(required = false,
+            names = { "--experimental-documents-file-compression" },
+            description = "Optional. NONE or GZIP, for --experimental-write-documents-to-directory.  Default: GZIP")
+        public NdjsonFileFormat.Compression documentsFileCompression = NdjsonFileFormat.Compression.GZIP;
+
+        @Parameter(required = false,
+            names = { "--experimental-documents-file-max-bytes" },
+            description = "Optional. Size at which --experimental-write-documents-to-directory starts a new file.  " +
+                "Default: 268435456 (256 MiB)")
+        public long documentsFileMaxBytes = NdjsonFileDocumentSink.DEFAULT_MAX_FILE_BYTES;
     }
 
 
@@ -468,6 +605,32 @@ public class RfsMigrateDocuments {
         }
     }
 
+    /**
+     * The files hold each document as it was read from the snapshot, so the options that change what is
+     * sent to a target, or how its answers are judged, would be ignored; they apply when the files are
+     * sent on instead.
+     */
+    private static void validateDocumentsDirectoryArgs(Args args) {
+        var docParams = args.docTransformationParams;
+        if (docParams.getTransformerConfig() != null || docParams.getTransformerConfigEncoded() != null
+            || docParams.getTransformerConfigFile() != null) {
+            throw new ParameterException(
+                "--experimental-write-documents-to-directory can't be combined with a doc transformer config.");
+        }
+        if (args.serverGeneratedIds == ServerGeneratedIdMode.ALWAYS) {
+            throw new ParameterException(
+                "--experimental-write-documents-to-directory can't be combined with --server-generated-ids ALWAYS.");
+        }
+        if (!args.allowedDocExceptionTypes.isEmpty()) {
+            throw new ParameterException(
+                "--experimental-write-documents-to-directory can't be combined with --allowed-doc-exception-types.");
+        }
+        if (args.experimental.targetShardRouting) {
+            throw new ParameterException("--experimental-write-documents-to-directory can't be combined with " +
+                "--experimental-target-shard-routing.");
+        }
+    }
+
     public static void validateArgs(Args args) {
         // Solr backup path
         if (args.sourceVersion != null && args.sourceVersion.getFlavor() == Flavor.SOLR) {
@@ -490,6 +653,33 @@ public class RfsMigrateDocuments {
             return;
         }
 
+        if (args.experimental.maxLeasedWorkItemsPerIndex < 0) {
+            throw new ParameterException("--experimental-max-leased-work-items-per-index must not be negative.");
+        }
+        if (!args.experimental.sortDocumentsBy.isEmpty()) {
+            if (args.experimental.sortMemoryBytes < 1) {
+                throw new ParameterException("--experimental-sort-memory-bytes must be positive.");
+            }
+            try {
+                args.experimental.sortDocumentsBy.forEach(DocumentSorter.SortField::parse);
+            } catch (IllegalArgumentException e) {
+                throw new ParameterException("--experimental-sort-documents-by: " + e.getMessage());
+            }
+        }
+        if (args.experimental.bulkHedgePercentile < 0 || args.experimental.bulkHedgePercentile >= 100) {
+            throw new ParameterException("--experimental-bulk-hedge-percentile must be at least 0 and below 100.");
+        }
+        if (args.experimental.bulkHedgePercentile > 0 && !args.experimental.targetNodeBalancing) {
+            throw new ParameterException(
+                "--experimental-bulk-hedge-percentile requires --experimental-target-node-balancing.");
+        }
+        if (args.experimental.documentsFileMaxBytes < 1) {
+            throw new ParameterException("--experimental-documents-file-max-bytes must be positive.");
+        }
+        if (args.experimental.writeDocumentsToDirectory != null) {
+            validateDocumentsDirectoryArgs(args);
+        }
+
         if (args.snapshotName == null) {
             throw new ParameterException("--snapshot-name is required when --source-type is SNAPSHOT.");
         }
@@ -590,7 +780,15 @@ public class RfsMigrateDocuments {
 
         var targetConnectionContext = arguments.targetArgs.toConnectionContext();
         var targetClientFactory = new OpenSearchClientFactory(targetConnectionContext, arguments.maxConnections);
-        OpenSearchClient targetClient = targetClientFactory.determineVersionAndCreate();
+        OpenSearchClient targetClient;
+        if (arguments.experimental.targetNodeBalancing) {
+            var multiNodeClient = new MultiNodeRestClient(targetConnectionContext, arguments.maxConnections,
+                arguments.experimental.bulkHedgePercentile);
+            multiNodeClient.discoverNodes();
+            targetClient = targetClientFactory.determineVersionAndCreate(multiNodeClient, new FailedRequestsLogger());
+        } else {
+            targetClient = targetClientFactory.determineVersionAndCreate();
+        }
         var targetVersion = targetClient.getClusterVersion();
 
         // Build the failed document stream sink and attach it to the target client. The sink is closed in
@@ -615,6 +813,10 @@ public class RfsMigrateDocuments {
             case ALWAYS -> true;
             case NEVER -> false;
             case AUTO -> {
+                // documents written to a directory keep their ids, whatever the target cluster is
+                if (arguments.experimental.writeDocumentsToDirectory != null) {
+                    yield false;
+                }
                 var collectionType = targetClientFactory.detectServerlessCollectionType();
                 if (collectionType.requiresServerGeneratedIds()) {
                     log.atInfo().setMessage("Auto-enabling server-generated IDs for {} serverless collection").addArgument(collectionType).log();
@@ -665,15 +867,25 @@ public class RfsMigrateDocuments {
         var workItemTimeProvider = new WorkItemTimeProvider();
         var completionRetryConfig = buildCompletionRetryConfig(arguments);
         var coordinatorFactory = new WorkCoordinatorFactory(
-            coordinatorInfo.version(), arguments.indexNameSuffix, completionRetryConfig);
+            coordinatorInfo.version(), arguments.indexNameSuffix, completionRetryConfig,
+            buildSchedulingPolicy(arguments));
         var cleanShutdownCompleted = new AtomicBoolean(false);
 
+        Consumer<IWorkCoordinator.WorkItemAndDuration> onWorkItemAcquired = workItemRef::set;
+        if (arguments.experimental.residentWorker) {
+            var luceneDirPath = Paths.get(arguments.luceneDir);
+            onWorkItemAcquired = workItemAndDuration -> {
+                deleteOtherUnpackedShards(luceneDirPath, workItemAndDuration.getWorkItem());
+                workItemRef.set(workItemAndDuration);
+            };
+        }
+
         try (var workCoordinator = coordinatorFactory.get(
                  new CoordinateWorkHttpClient(coordinatorInfo.connectionContext()),
                  TOLERABLE_CLIENT_SERVER_CLOCK_DIFFERENCE_SECONDS,
                  workerId,
                 Clock.systemUTC(),
-                workItemRef::set);
+                onWorkItemAcquired);
              var processManager = new LeaseExpireTrigger(
                 w -> exitOnLeaseTimeout(
                         workItemRef,
@@ -720,6 +932,20 @@ public class RfsMigrateDocuments {
 
             var status = sourceFactory.buildAndRun(
                 workCoordinator, processManager, progressCursor, cancellationRunnableRef, workItemTimeProvider);
+            for (int itemsCompleted = 1;
+                 arguments.experimental.residentWorker && status == CompletionStatus.WORK_COMPLETED;
+                 itemsCompleted++) {
+                logResidentWorkItemCompleted(workItemRef.get(), workItemTimeProvider, itemsCompleted);
+                // Back to the state a freshly started process would be in, so that the shutdown hook and
+                // lease-timeout handling only ever see the work item that is currently being migrated
+                workItemRef.set(null);
+                progressCursor.set(null);
+                cancellationRunnableRef.set(null);
+                workItemTimeProvider.getLeaseAcquisitionTimeRef().set(null);
+                workItemTimeProvider.getDocumentMigraionStartTimeRef().set(null);
+                status = sourceFactory.buildAndRun(
+                    workCoordinator, processManager, progressCursor, cancellationRunnableRef, workItemTimeProvider);
+            }
             cleanShutdownCompleted.set(true);
             // Close the failed document stream sink on the normal (WORK_COMPLETED) path too. This flushes
             // any buffered records and shuts down the sink's worker thread. The shutdown hook also closes
@@ -758,6 +984,49 @@ public class RfsMigrateDocuments {
         }
     }
 
+    private static void logResidentWorkItemCompleted(
+        IWorkCoordinator.WorkItemAndDuration workItemAndDuration,
+        WorkItemTimeProvider workItemTimeProvider,
+        int itemsCompleted
+    ) {
+        var leaseAcquisitionTime = workItemTimeProvider.getLeaseAcquisitionTimeRef().get();
+        var documentMigrationStartTime = workItemTimeProvider.getDocumentMigraionStartTimeRef().get();
+        log.atInfo().setMessage("Resident worker completed work item {} ({} so far); setup before migrating took {}")
+            .addArgument(() -> workItemAndDuration == null ? null : workItemAndDuration.getWorkItem())
+            .addArgument(itemsCompleted)
+            .addArgument(() -> leaseAcquisitionTime == null || documentMigrationStartTime == null
+                ? "unknown"
+                : Duration.between(leaseAcquisitionTime, documentMigrationStartTime))
+            .log();
+    }
+
+    /**
+     * Frees the disk used by shards that earlier work items of a resident worker unpacked, keeping the shard
+     * of the newly acquired item so that a successor item of the same shard doesn't unpack it again.
+     */
+    static void deleteOtherUnpackedShards(Path luceneDirPath, IWorkCoordinator.WorkItemAndDuration.WorkItem keep) {
+        var keepPath = luceneDirPath.resolve(keep.getIndexName()).resolve(String.valueOf(keep.getShardNumber()));
+        try (var indexDirs = Files.list(luceneDirPath)) {
+            for (var indexDir : indexDirs.toList()) {
+                if (!Files.isDirectory(indexDir)) {
+                    continue;
+                }
+                try (var shardDirs = Files.list(indexDir)) {
+                    for (var shardDir : shardDirs.toList()) {
+                        if (!shardDir.equals(keepPath)) {
+                            FileSystemUtils.deleteTree(shardDir, true);
+                        }
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // nothing unpacked yet
+        } catch (IOException e) {
+            log.atWarn().setCause(e).setMessage("Could not clean up previously unpacked shards under {}")
+                .addArgument(luceneDirPath).log();
+        }
+    }
+
     /**
      * If {@code e} (or a wrapped cause) is a non-retriable snapshot read failure, log a labeled ERROR
      * line naming the reason, snapshot path, and context, then return the dedicated
@@ -788,60 +1057,19 @@ public class RfsMigrateDocuments {
         boolean emitDocType,
         RootDocumentMigrationContext context
     ) {
+        // A resident worker reuses one source (and with it the repo, its downloaded blobs, and the snapshot
+        // metadata) for every work item; otherwise each process only ever builds one.
+        var residentDocumentSource = new AtomicReference<org.opensearch.migrations.bulkload.pipeline.source.DocumentSource>();
         return (workCoordinator, processManager, progressCursor, cancellationRunnableRef, workItemTimeProvider) -> {
             DocumentExceptionAllowlist allowlist = buildDocumentExceptionAllowlist(arguments);
 
-            var luceneDirPath = Paths.get(arguments.luceneDir);
-
-            var finder = SnapshotReaderRegistry.getSnapshotFileFinder(
-                    arguments.sourceVersion,
-                    arguments.versionStrictness.allowLooseVersionMatches);
-
-            var parsedUri = RepoUri.parse(arguments.repoUri);
-            SourceRepo sourceRepo = switch (parsedUri) {
-                case RepoUri.FileRepoUri f -> new FileSystemRepo(Paths.get(f.path()), finder);
-                case RepoUri.GcsRepoUri g -> GcsRepo.create(
-                    Paths.get(arguments.localDir),
-                    new GcsUri(g.rawUri()),
-                    arguments.endpoint,
-                    finder);
-                case RepoUri.S3RepoUri s -> S3Repo.create(
-                    Paths.get(arguments.localDir),
-                    s.s3Uri(),
-                    arguments.s3Region,
-                    Optional.ofNullable(arguments.endpoint).map(URI::create).orElse(null),
-                    finder);
-            };
-
-            var sourceResourceProvider = SnapshotReaderRegistry.getSnapshotReader(
-                arguments.sourceVersion, sourceRepo, arguments.versionStrictness.allowLooseVersionMatches);
-
-            var extractor = SnapshotExtractor.create(
-                arguments.sourceVersion, sourceResourceProvider, sourceRepo);
-
-            var sourceBuilder = LuceneSnapshotSource.builder(extractor, arguments.snapshotName, luceneDirPath)
-                .maxShardSizeBytes(arguments.maxShardSizeBytes)
-                .useRecoverySource(arguments.experimental.useRecoverySource)
-                .emitDocType(emitDocType);
-            if (arguments.experimental.previousSnapshotName != null && arguments.experimental.experimentalDeltaMode != null) {
-                sourceBuilder.delta(arguments.experimental.previousSnapshotName,
-                    arguments.experimental.experimentalDeltaMode,
-                    () -> new RfsContexts.DeltaStreamContext(context, null));
-            }
-            if (arguments.experimental.enableSourcelessMigrations) {
-                var indexMetadataFactory = sourceResourceProvider.getIndexMetadata();
-                Map<String, Optional<FieldMappingContext>> cache = new java.util.concurrent.ConcurrentHashMap<>();
-                sourceBuilder.sourcelessMappingContextProvider(indexName -> cache.computeIfAbsent(indexName, name -> {
-                    try {
-                        var meta = indexMetadataFactory.fromRepo(arguments.snapshotName, name);
-                        if (!meta.needsSourceReconstruction()) return Optional.empty();
-                        return Optional.of(new FieldMappingContext(meta.getMappings()));
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to read metadata for index " + name, e);
-                    }
-                }).orElse(null));
+            var documentSource = residentDocumentSource.get();
+            if (documentSource == null) {
+                documentSource = buildLuceneDocumentSource(arguments, emitDocType, context);
+                if (arguments.experimental.residentWorker) {
+                    residentDocumentSource.set(documentSource);
+                }
             }
-            var documentSource = sourceBuilder.build();
 
             return prepareAndMigrate(documentSource,
                 workCoordinator, processManager, targetClient, docTransformerSupplier,
@@ -850,6 +1078,67 @@ public class RfsMigrateDocuments {
         };
     }
 
+    private static org.opensearch.migrations.bulkload.pipeline.source.DocumentSource buildLuceneDocumentSource(
+        Args arguments,
+        boolean emitDocType,
+        RootDocumentMigrationContext context
+    ) {
+        var luceneDirPath = Paths.get(arguments.luceneDir);
+
+        var finder = SnapshotReaderRegistry.getSnapshotFileFinder(
+                arguments.sourceVersion,
+                arguments.versionStrictness.allowLooseVersionMatches);
+
+        var parsedUri = RepoUri.parse(arguments.repoUri);
+        SourceRepo sourceRepo = switch (parsedUri) {
+            case RepoUri.FileRepoUri f -> new FileSystemRepo(Paths.get(f.path()), finder);
+            case RepoUri.GcsRepoUri g -> GcsRepo.create(
+                Paths.get(arguments.localDir),
+                new GcsUri(g.rawUri()),
+                arguments.endpoint,
+                finder);
+            case RepoUri.S3RepoUri s -> S3Repo.create(
+                Paths.get(arguments.localDir),
+                s.s3Uri(),
+                arguments.s3Region,
+                Optional.ofNullable(arguments.endpoint).map(URI::create).orElse(null),
+                finder);
+        };
+
+        var sourceResourceProvider = SnapshotReaderRegistry.getSnapshotReader(
+            arguments.sourceVersion, sourceRepo, arguments.versionStrictness.allowLooseVersionMatches);
+
+        var extractor = SnapshotExtractor.create(
+            arguments.sourceVersion, sourceResourceProvider, sourceRepo);
+
+        var sourceBuilder = LuceneSnapshotSource.builder(extractor, arguments.snapshotName, luceneDirPath)
+            .maxShardSizeBytes(arguments.maxShardSizeBytes)
+            .useRecoverySource(arguments.experimental.useRecoverySource)
+            .emitDocType(emitDocType);
+        if (arguments.experimental.snapshotManifestPath != null) {
+            sourceBuilder.manifestPath(Paths.get(arguments.experimental.snapshotManifestPath));
+        }
+        if (arguments.experimental.previousSnapshotName != null && arguments.experimental.experimentalDeltaMode != null) {
+            sourceBuilder.delta(arguments.experimental.previousSnapshotName,
+                arguments.experimental.experimentalDeltaMode,
+                () -> new RfsContexts.DeltaStreamContext(context, null));
+        }
+        if (arguments.experimental.enableSourcelessMigrations) {
+            var indexMetadataFactory = sourceResourceProvider.getIndexMetadata();
+            Map<String, Optional<FieldMappingContext>> cache = new java.util.concurrent.ConcurrentHashMap<>();
+            sourceBuilder.sourcelessMappingContextProvider(indexName -> cache.computeIfAbsent(indexName, name -> {
+                try {
+                    var meta = indexMetadataFactory.fromRepo(arguments.snapshotName, name);
+                    if (!meta.needsSourceReconstruction()) return Optional.empty();
+                    return Optional.of(new FieldMappingContext(meta.getMappings()));
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to read metadata for index " + name, e);
+                }
+            }).orElse(null));
+        }
+        return sourceBuilder.build();
+    }
+
     private static CompletionStatus prepareAndMigrate(
         org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
         IWorkCoordinator workCoordinator,
@@ -864,9 +1153,19 @@ public class RfsMigrateDocuments {
         Args arguments,
         RootDocumentMigrationContext context
     ) throws IOException, InterruptedException, NoWorkLeftException {
+        ShardWorkPreparer.ShardsListedListener shardsListedListener = indexNames -> {};
+        if (documentSource instanceof LuceneSnapshotSource luceneSnapshotSource) {
+            shardsListedListener = indexNames -> writeSnapshotManifest(luceneSnapshotSource, indexNames);
+        }
         var scopedWorkCoordinator = prepareWorkCoordination(
             workCoordinator, processManager, documentSource,
-            arguments.indexAllowlist, context);
+            arguments.indexAllowlist, arguments.subShardSplitBytes, shardsListedListener,
+            buildSchedulingPolicy(arguments), context);
+        if (arguments.experimental.residentWorker) {
+            scopedWorkCoordinator = scopedWorkCoordinator.withLeaseRenewal(
+                progressCursor::get,
+                context.getWorkCoordinationContext()::createAcquireSpecificItemContext);
+        }
 
         var runner = DocumentMigrationBootstrap.builder()
             .documentSource(documentSource)
@@ -877,6 +1176,9 @@ public class RfsMigrateDocuments {
             .transformerSupplier(docTransformerSupplier)
             .allowServerGeneratedIds(useServerGeneratedIds)
             .allowlist(allowlist)
+            .targetShardRouter(arguments.experimental.targetShardRouting ? new TargetShardRouter(targetClient) : null)
+            .documentSorter(buildDocumentSorter(arguments))
+            .documentSinkFactory(buildDocumentSinkFactory(arguments))
             .workCoordinator(scopedWorkCoordinator)
             .workItemTimeProvider(workItemTimeProvider)
             .maxInitialLeaseDuration(arguments.initialLeaseDuration)
@@ -887,6 +1189,16 @@ public class RfsMigrateDocuments {
         return runner.migrateOneShard(context::createReindexContext);
     }
 
+    /** A manifest that can't be written only costs the other workers their shortcut, so don't fail setup. */
+    private static void writeSnapshotManifest(LuceneSnapshotSource documentSource, List<String> indexNames) {
+        try {
+            documentSource.writeManifest(indexNames);
+        } catch (IOException | RuntimeException e) {
+            log.atWarn().setCause(e).setMessage("Could not write the snapshot manifest; " +
+                "workers will read shard metadata from the repository").log();
+        }
+    }
+
     @SuppressWarnings({"java:S100", "java:S1172", "java:S1186"})
     private record CoordinatorInfo(ConnectionContext connectionContext, Version version) {}
 
@@ -930,6 +1242,46 @@ public class RfsMigrateDocuments {
         return completionRetryConfig;
     }
 
+    /**
+     * Build the work item scheduling policy from CLI args.  Every worker passes it to its coordinator, and
+     * the one that sets up the shard work items uses it to rank them.
+     */
+    static WorkItemSchedulingPolicy buildSchedulingPolicy(Args arguments) {
+        return new WorkItemSchedulingPolicy(
+            arguments.experimental.workItemPriorityClasses,
+            arguments.experimental.largestShardsFirst,
+            arguments.experimental.maxLeasedWorkItemsPerIndex);
+    }
+
+    static DocumentSorter buildDocumentSorter(Args arguments) {
+        if (arguments.experimental.sortDocumentsBy.isEmpty()) {
+            return null;
+        }
+        Path spillDir;
+        if (arguments.experimental.sortSpillDir != null) {
+            spillDir = Paths.get(arguments.experimental.sortSpillDir);
+        } else if (arguments.luceneDir != null) {
+            var luceneDirPath = Paths.get(arguments.luceneDir).toAbsolutePath();
+            spillDir = luceneDirPath.resolveSibling(luceneDirPath.getFileName() + "-sort");
+        } else {
+            spillDir = Paths.get(System.getProperty("java.io.tmpdir"), "rfs-sort");
+        }
+        return new DocumentSorter(
+            arguments.experimental.sortDocumentsBy.stream().map(DocumentSorter.SortField::parse).toList(),
+            arguments.experimental.sortMemoryBytes,
+            spillDir);
+    }
+
+    static Supplier<DocumentSink> buildDocumentSinkFactory(Args arguments) {
+        if (arguments.experimental.writeDocumentsToDirectory == null) {
+            return null;
+        }
+        var directory = Paths.get(arguments.experimental.writeDocumentsToDirectory);
+        var writerId = ProcessHelpers.getNodeInstanceName();
+        return () -> new NdjsonFileDocumentSink(directory, writerId,
+            arguments.experimental.documentsFileCompression, arguments.experimental.documentsFileMaxBytes);
+    }
+
     /**
      * Resolve the failed document stream session id, preferring an explicit CLI/env override, then the
      * Argo workflow UID, then a worker-scoped fallback. The result drives the S3
@@ -1325,9 +1677,7 @@ public class RfsMigrateDocuments {
         // Set successor as same last checkpoint Num, this will ensure we process every document fully in cases where there is a 1:many doc split
         // Re-process same checkpoint to handle 1:many doc splits correctly
         var successorStartingCheckpointNum = progressCursor.getProgressCheckpointNum();
-        var successorWorkItem = new IWorkCoordinator.WorkItemAndDuration
-                .WorkItem(workItem.getIndexName(), workItem.getShardNumber(),
-                successorStartingCheckpointNum);
+        var successorWorkItem = workItem.withStartingDocId(successorStartingCheckpointNum);
         ArrayList<String> successorWorkItemIds = new ArrayList<>();
         successorWorkItemIds.add(successorWorkItem.toString());
         return successorWorkItemIds;
@@ -1425,10 +1775,61 @@ public class RfsMigrateDocuments {
         org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
         List<String> indexAllowlist,
         RootDocumentMigrationContext rootDocumentContext
+    ) throws IOException, InterruptedException, NoWorkLeftException {
+        return prepareWorkCoordination(workCoordinator, leaseExpireTrigger, documentSource,
+            indexAllowlist, 0, rootDocumentContext);
+    }
+
+    /**
+     * As {@link #prepareWorkCoordination(IWorkCoordinator, LeaseExpireTrigger,
+     * org.opensearch.migrations.bulkload.pipeline.source.DocumentSource, List, RootDocumentMigrationContext)},
+     * splitting shards larger than {@code subShardSplitBytes} into segment-range work items (0 disables).
+     */
+    public static ScopedWorkCoordinator prepareWorkCoordination(
+        IWorkCoordinator workCoordinator,
+        LeaseExpireTrigger leaseExpireTrigger,
+        org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
+        List<String> indexAllowlist,
+        long subShardSplitBytes,
+        RootDocumentMigrationContext rootDocumentContext
+    ) throws IOException, InterruptedException, NoWorkLeftException {
+        return prepareWorkCoordination(workCoordinator, leaseExpireTrigger, documentSource,
+            indexAllowlist, subShardSplitBytes, indexNames -> {}, rootDocumentContext);
+    }
+
+    /**
+     * As above, calling {@code shardsListedListener} if this worker is the one that sets up the shard
+     * work items (see {@link ShardWorkPreparer.ShardsListedListener}).
+     */
+    public static ScopedWorkCoordinator prepareWorkCoordination(
+        IWorkCoordinator workCoordinator,
+        LeaseExpireTrigger leaseExpireTrigger,
+        org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
+        List<String> indexAllowlist,
+        long subShardSplitBytes,
+        ShardWorkPreparer.ShardsListedListener shardsListedListener,
+        RootDocumentMigrationContext rootDocumentContext
+    ) throws IOException, InterruptedException, NoWorkLeftException {
+        return prepareWorkCoordination(workCoordinator, leaseExpireTrigger, documentSource, indexAllowlist,
+            subShardSplitBytes, shardsListedListener, WorkItemSchedulingPolicy.NONE, rootDocumentContext);
+    }
+
+    /**
+     * As above, ranking the shard work items by {@code schedulingPolicy} if this worker creates them.
+     */
+    public static ScopedWorkCoordinator prepareWorkCoordination(
+        IWorkCoordinator workCoordinator,
+        LeaseExpireTrigger leaseExpireTrigger,
+        org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
+        List<String> indexAllowlist,
+        long subShardSplitBytes,
+        ShardWorkPreparer.ShardsListedListener shardsListedListener,
+        WorkItemSchedulingPolicy schedulingPolicy,
+        RootDocumentMigrationContext rootDocumentContext
     ) throws IOException, InterruptedException, NoWorkLeftException {
         var scopedWorkCoordinator = new ScopedWorkCoordinator(workCoordinator, leaseExpireTrigger);
-        confirmShardPrepIsComplete(documentSource, indexAllowlist,
-            scopedWorkCoordinator, rootDocumentContext);
+        confirmShardPrepIsComplete(documentSource, indexAllowlist, subShardSplitBytes, shardsListedListener,
+            schedulingPolicy, scopedWorkCoordinator, rootDocumentContext);
         if (!workCoordinator.workItemsNotYetComplete(
             rootDocumentContext.getWorkCoordinationContext()::createItemsPendingContext
         )) {
@@ -1440,6 +1841,9 @@ public class RfsMigrateDocuments {
     private static void confirmShardPrepIsComplete(
         org.opensearch.migrations.bulkload.pipeline.source.DocumentSource documentSource,
         List<String> indexAllowlist,
+        long subShardSplitBytes,
+        ShardWorkPreparer.ShardsListedListener shardsListedListener,
+        WorkItemSchedulingPolicy schedulingPolicy,
         ScopedWorkCoordinator scopedWorkCoordinator,
         RootDocumentMigrationContext rootContext
     ) throws IOException, InterruptedException {
@@ -1449,7 +1853,7 @@ public class RfsMigrateDocuments {
         long lockRenegotiationMillis = 1000;
         for (int shardSetupAttemptNumber = 0;; ++shardSetupAttemptNumber) {
             try {
-                new ShardWorkPreparer().run(
+                new ShardWorkPreparer(subShardSplitBytes, shardsListedListener, schedulingPolicy).run(
                     scopedWorkCoordinator,
                     documentSource,
                     indexAllowlist,
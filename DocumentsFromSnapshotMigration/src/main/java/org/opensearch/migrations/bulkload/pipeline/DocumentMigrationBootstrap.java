@@ -13,7 +13,11 @@ import java.util.function.Supplier;
 import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
 import org.opensearch.migrations.bulkload.common.OpenSearchClient;
 import org.opensearch.migrations.bulkload.common.RfsException;
+import org.opensearch.migrations.bulkload.common.TargetShardRouter;
+import org.opensearch.migrations.bulkload.pipeline.adapter.EsSegmentRangePartition;
+import org.opensearch.migrations.bulkload.pipeline.adapter.EsShardPartition;
 import org.opensearch.migrations.bulkload.pipeline.adapter.OpenSearchDocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
 import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
 import org.opensearch.migrations.bulkload.workcoordination.IWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.ScopedWorkCoordinator;
@@ -65,6 +69,15 @@ public class DocumentMigrationBootstrap {
     private final boolean allowServerGeneratedIds = false;
     @Builder.Default
     private final DocumentExceptionAllowlist allowlist = DocumentExceptionAllowlist.empty();
+    /** If set, bulk requests are split by and sent to the nodes holding the documents' primaries */
+    @Builder.Default
+    private final TargetShardRouter targetShardRouter = null;
+    /** If set, each partition's documents are written in this order rather than the source's */
+    @Builder.Default
+    private final DocumentSorter documentSorter = null;
+    /** If set, documents are written to the sinks it creates instead of to {@code targetClient} */
+    @Builder.Default
+    private final Supplier<DocumentSink> documentSinkFactory = null;
 
     @Builder.Default
     private final ScopedWorkCoordinator workCoordinator = null;
@@ -92,15 +105,20 @@ public class DocumentMigrationBootstrap {
         }
         var source = documentSource;
         var contextRef = new AtomicReference<IDocumentMigrationContexts.IDocumentReindexContext>();
-        var sink = new OpenSearchDocumentSink(
+        var stageMetrics = new PipelineStageMetrics(new StageMetricsExporter(contextRef::get));
+        DocumentSink sink = documentSinkFactory != null ? documentSinkFactory.get() : new OpenSearchDocumentSink(
             targetClient, transformerSupplier, allowServerGeneratedIds, allowlist,
             () -> {
                 var ctx = contextRef.get();
                 return ctx != null ? ctx.createBulkRequest() : null;
-            }
+            },
+            targetShardRouter,
+            stageMetrics
         );
+        targetClient.setPipelineStageMetrics(stageMetrics);
         try {
-            var pipelineConfig = new PipelineConfig(source, sink, maxDocsPerBatch, maxBytesPerBatch, batchConcurrency);
+            var pipelineConfig = new PipelineConfig(source, sink, maxDocsPerBatch, maxBytesPerBatch, batchConcurrency,
+                documentSorter, stageMetrics);
             Supplier<IDocumentMigrationContexts.IDocumentReindexContext> wrappedContextSupplier = () -> {
                 var ctx = contextSupplier.get();
                 contextRef.set(ctx);
@@ -134,11 +152,33 @@ public class DocumentMigrationBootstrap {
                 }, context::createCloseContext);
             }
         } finally {
+            targetClient.setPipelineStageMetrics(null);
             closeQuietly(source);
             closeQuietly(sink);
         }
     }
 
+    /** Exports the pipeline's stage timings and buffer occupancy through the current reindex context. */
+    private record StageMetricsExporter(Supplier<IDocumentMigrationContexts.IDocumentReindexContext> contextSupplier)
+        implements PipelineStageMetrics.Listener {
+        @Override
+        public void stageCompleted(PipelineStageMetrics.Stage stage, long nanos) {
+            var context = contextSupplier.get();
+            if (context != null) {
+                context.recordStageDuration(stage.name(), nanos);
+            }
+        }
+
+        @Override
+        public void batchStarted(PipelineStageMetrics.Occupancy occupancy) {
+            var context = contextSupplier.get();
+            if (context != null) {
+                context.recordBufferOccupancy(occupancy.bufferedDocs(), occupancy.activeBatches(),
+                    occupancy.unorderedBatches());
+            }
+        }
+    }
+
     // Package-private for end-to-end testing of the per-batch failed document stream flush gating (see
     // DocumentMigrationBootstrapFailedDocumentStreamE2ETest); the public entry point is migrateOneShard.
     CompletionStatus runPartitionMigration(
@@ -164,7 +204,8 @@ public class DocumentMigrationBootstrap {
         var pipeline = new DocumentMigrationPipeline(
             pipelineConfig.source(), pipelineConfig.sink(),
             pipelineConfig.maxDocsPerBatch(), pipelineConfig.maxBytesPerBatch(),
-            1, pipelineConfig.batchConcurrency()
+            1, pipelineConfig.batchConcurrency(), pipelineConfig.documentSorter(),
+            pipelineConfig.stageMetrics() != null ? pipelineConfig.stageMetrics() : new PipelineStageMetrics()
         );
         var progressMonitor = new PipelineProgressMonitor(pipeline);
         progressMonitor.start();
@@ -191,7 +232,9 @@ public class DocumentMigrationBootstrap {
             .doFinally(s -> finishScheduler.dispose())
             .subscribe(
                 cursor -> {
-                    batchCount.incrementAndGet();
+                    if (cursor.docsInBatch() > 0) {
+                        batchCount.incrementAndGet();
+                    }
                     totalDocsMigrated.addAndGet(cursor.docsInBatch());
                     totalBytesMigrated.addAndGet(cursor.bytesInBatch());
                     cursorConsumer.accept(new WorkItemCursor(cursor.lastDocProcessed()));
@@ -262,7 +305,15 @@ public class DocumentMigrationBootstrap {
         var partitions = documentSource.listPartitions(wi.getIndexName());
         int shardIdx = wi.getShardNumber();
         if (shardIdx < partitions.size()) {
-            return partitions.get(shardIdx);
+            var partition = partitions.get(shardIdx);
+            if (!wi.hasSegmentRange()) {
+                return partition;
+            }
+            if (partition instanceof EsShardPartition shard) {
+                return new EsSegmentRangePartition(shard, wi.getFirstSegment(), wi.getLastSegment());
+            }
+            throw new IllegalStateException("Work item " + wi + " has a segment range, but " +
+                partition + " can't be read by segment");
         }
         throw new IllegalStateException("Shard index " + shardIdx + " out of range for " +
             wi.getIndexName() + " (has " + partitions.size() + " partitions)");
@@ -333,6 +333,27 @@ class RfsMigrateDocumentsHelpersTest {
             org.hamcrest.Matchers.containsString("--experimental-previous-snapshot-name"));
     }
 
+    @Test
+    void validateArgs_rejectsOptionsTheDocumentsDirectoryWouldIgnore() {
+        var args = validEsArgs();
+        args.experimental.writeDocumentsToDirectory = "/tmp/documents";
+        assertDoesNotThrow(() -> RfsMigrateDocuments.validateArgs(args));
+
+        args.serverGeneratedIds = RfsMigrateDocuments.ServerGeneratedIdMode.ALWAYS;
+        var thrown = assertThrows(ParameterException.class, () -> RfsMigrateDocuments.validateArgs(args));
+        assertThat(thrown.getMessage(), org.hamcrest.Matchers.containsString("--server-generated-ids"));
+
+        args.serverGeneratedIds = RfsMigrateDocuments.ServerGeneratedIdMode.NEVER;
+        args.allowedDocExceptionTypes = java.util.List.of("version_conflict_engine_exception");
+        thrown = assertThrows(ParameterException.class, () -> RfsMigrateDocuments.validateArgs(args));
+        assertThat(thrown.getMessage(), org.hamcrest.Matchers.containsString("--allowed-doc-exception-types"));
+
+        args.allowedDocExceptionTypes = java.util.List.of();
+        args.experimental.targetShardRouting = true;
+        thrown = assertThrows(ParameterException.class, () -> RfsMigrateDocuments.validateArgs(args));
+        assertThat(thrown.getMessage(), org.hamcrest.Matchers.containsString("--experimental-target-shard-routing"));
+    }
+
     @Test
     void validateArgs_solr_rejectsMissingCoordinatorHost() {
         // Solr-flavored runs always need a separate coordinator cluster because
@@ -1,15 +1,20 @@
 package org.opensearch.migrations;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.OptionalInt;
 import java.util.stream.Stream;
 
 import org.opensearch.migrations.bulkload.common.SnapshotRepo;
+import org.opensearch.migrations.bulkload.workcoordination.IWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.WorkItemTimeProvider;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.*;
 
@@ -112,4 +117,35 @@ class RfsMigrateDocumentsTest {
             OptionalInt.empty(), RfsMigrateDocuments.classifySnapshotReadFailure(unrelated, args));
     }
 
+    private static Path unpackedFile(Path luceneDir, String index, int shard) throws IOException {
+        var shardDir = Files.createDirectories(luceneDir.resolve(index).resolve(String.valueOf(shard)));
+        return Files.writeString(shardDir.resolve("_0.cfs"), "segment");
+    }
+
+    @Test
+    void deleteOtherUnpackedShards_keepsOnlyTheAcquiredShard(@TempDir Path luceneDir) throws IOException {
+        var kept = unpackedFile(luceneDir, "logs", 0);
+        unpackedFile(luceneDir, "logs", 1);
+        unpackedFile(luceneDir, "metrics", 0);
+        var notAShard = Files.writeString(luceneDir.resolve("notes.txt"), "left alone");
+
+        RfsMigrateDocuments.deleteOtherUnpackedShards(luceneDir,
+            new IWorkCoordinator.WorkItemAndDuration.WorkItem("logs", 0, 500L));
+
+        Assertions.assertTrue(Files.exists(kept));
+        Assertions.assertFalse(Files.exists(luceneDir.resolve("logs").resolve("1")));
+        Assertions.assertFalse(Files.exists(luceneDir.resolve("metrics").resolve("0")));
+        Assertions.assertTrue(Files.exists(notAShard));
+
+        // the next item is of another shard, so the one kept above goes too
+        RfsMigrateDocuments.deleteOtherUnpackedShards(luceneDir,
+            new IWorkCoordinator.WorkItemAndDuration.WorkItem("metrics", 0, 0L));
+        Assertions.assertFalse(Files.exists(luceneDir.resolve("logs").resolve("0")));
+    }
+
+    @Test
+    void deleteOtherUnpackedShards_toleratesAMissingLuceneDir(@TempDir Path tempDir) {
+        Assertions.assertDoesNotThrow(() -> RfsMigrateDocuments.deleteOtherUnpackedShards(tempDir.resolve("absent"),
+            new IWorkCoordinator.WorkItemAndDuration.WorkItem("logs", 0, 0L)));
+    }
 }
@@ -14,7 +14,7 @@ import org.opensearch.migrations.bulkload.common.RestClient;
 import org.opensearch.migrations.bulkload.common.RfsException;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
-import org.opensearch.migrations.bulkload.common.http.HttpResponse;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.pipeline.adapter.OpenSearchDocumentSink;
 import org.opensearch.migrations.bulkload.pipeline.source.SyntheticDocumentSource;
 import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
@@ -65,8 +65,8 @@ class DocumentMigrationBootstrapFailedDocumentStreamE2ETest {
         var response = "{\"took\":1,\"errors\":true,\"items\":[{\"index\":{\"_index\":\"" + INDEX
             + "\",\"_id\":\"bad-doc\",\"status\":400,\"error\":{\"type\":\"mapper_parsing_exception\","
             + "\"reason\":\"bad\"}}}]}";
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, response)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, response)));
         return new OpenSearchClient_OS_2_11(restClient, mock(FailedRequestsLogger.class),
             Version.fromString("OS 2.11"), CompressionMode.UNCOMPRESSED);
     }
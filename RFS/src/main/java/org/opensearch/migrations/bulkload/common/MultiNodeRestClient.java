@@ -0,0 +1,424 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
+import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
+import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link RestClient} that spreads bulk requests over every node of the target instead of sending them
+ * all to the configured host, and optionally hedges the slow ones.
+ * <p>
+ * Nodes are discovered with {@code _nodes/http} by {@link #discoverNodes()} and again every
+ * {@link #NODE_REFRESH_INTERVAL} in the background.  Each node gets a connection pool of its own, which
+ * is warmed with a few concurrent requests before the node is used; a node whose publish address
+ * can't be reached is left out.  Each bulk request goes to the node with the fewest request bytes
+ * outstanding, so a slow node gets less work as soon as its requests start piling up.  A node that fails
+ * a request outright (connection refused, reset, timed out) is left out for {@link #EJECTION_PERIOD}.
+ * <p>
+ * With a hedge percentile, a bulk request that may be sent twice (see
+ * {@link #postAsyncBytesRaw(String, byte[], Map, IRfsContexts.IRequestContext, boolean)}) and that is still
+ * unanswered after that percentile of recent bulk response times is sent to a second node as well, and
+ * whichever answers first is used.  The other request is left to finish rather than cancelled, so its
+ * connection goes back to the pool and its node keeps counting as busy until it actually is not.
+ * Hedges are capped at {@link #HEDGE_BUDGET} of all bulk requests.
+ * <p>
+ * Every other request (and bulk requests while no node is known) goes to the configured host as before.
+ */
+@Slf4j
+public class MultiNodeRestClient extends RestClient {
+    static final Duration NODE_REFRESH_INTERVAL = Duration.ofMinutes(5);
+    static final Duration EJECTION_PERIOD = Duration.ofSeconds(30);
+    static final Duration DEFAULT_MIN_HEDGE_DELAY = Duration.ofMillis(50);
+    /** Never hedge more than this fraction of bulk requests, however slow the target gets */
+    static final double HEDGE_BUDGET = 0.2;
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.createDefaultMapper();
+
+    /** Counts since the client was created. */
+    public record Stats(int nodes, long bulkRequests, long hedgesSent, long hedgesWon) {}
+
+    /** One target node and what is outstanding on it. */
+    static class Endpoint {
+        final String name;
+        final URI uri;
+        final RestClient client;
+        final AtomicLong outstandingBytes = new AtomicLong();
+        volatile long ejectedUntilNanos;
+
+        Endpoint(String name, URI uri, RestClient client) {
+            this.name = name;
+            this.uri = uri;
+            this.client = client;
+        }
+
+        boolean isEjected(long nowNanos) {
+            return ejectedUntilNanos - nowNanos > 0;
+        }
+    }
+
+    private final int maxConnections;
+    private final double hedgePercentile;
+    private final Duration minHedgeDelay;
+    private final Duration refreshInterval;
+    private final LatencyWindow latencies = new LatencyWindow();
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong bulkRequests = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private volatile List<Endpoint> endpoints = List.of();
+    private volatile long lastRefreshNanos;
+
+    /**
+     * @param maxConnections  the most bulk requests in flight at once; every node's pool may hold this
+     *                        many connections, and the pools are warmed with a share of it each
+     * @param hedgePercentile hedge bulk requests slower than this percentile (e.g. 95) of recent ones,
+     *                        or 0 not to hedge
+     */
+    public MultiNodeRestClient(ConnectionContext connectionContext, int maxConnections, double hedgePercentile) {
+        this(connectionContext, maxConnections, hedgePercentile, DEFAULT_MIN_HEDGE_DELAY, NODE_REFRESH_INTERVAL);
+    }
+
+    MultiNodeRestClient(ConnectionContext connectionContext, int maxConnections, double hedgePercentile,
+                        Duration minHedgeDelay, Duration refreshInterval) {
+        super(connectionContext, maxConnections);
+        if (hedgePercentile < 0 || hedgePercentile >= 100) {
+            throw new IllegalArgumentException("hedgePercentile must be in [0, 100), got " + hedgePercentile);
+        }
+        this.maxConnections = maxConnections;
+        this.hedgePercentile = hedgePercentile;
+        this.minHedgeDelay = minHedgeDelay;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Reads the nodes' http publish addresses and warms a connection pool for each new one; nodes that
+     * have left are dropped and their pools closed.  Blocks, so call it off the event loop.  Bulk requests
+     * go to the configured host until this has found a node.
+     */
+    public void discoverNodes() {
+        lastRefreshNanos = System.nanoTime();
+        var addresses = new HashMap<String, URI>();
+        try {
+            var response = get("_nodes/http?filter_path=nodes.*.name,nodes.*.http.publish_address", null);
+            if (response.statusCode != HttpURLConnection.HTTP_OK) {
+                throw new IllegalStateException("GET _nodes/http returned " + response.statusCode + ": " + response.body);
+            }
+            var scheme = getConnectionContext().getUri().getScheme();
+            OBJECT_MAPPER.readTree(response.body).path("nodes").forEach(node -> {
+                var address = TargetShardRouter.parsePublishAddress(scheme,
+                    node.path("http").path("publish_address").asText(""));
+                if (address != null) {
+                    addresses.put(node.path("name").asText(), address);
+                }
+            });
+        } catch (Exception e) {
+            log.atWarn().setCause(e).setMessage("Could not read the target nodes' http publish addresses, " +
+                "keeping the {} nodes already known").addArgument(endpoints.size()).log();
+            return;
+        }
+
+        var known = new HashMap<String, Endpoint>();
+        endpoints.forEach(e -> known.put(e.name, e));
+        var warmConnections = Math.max(1, (maxConnections + addresses.size() - 1) / Math.max(1, addresses.size()));
+        var updated = new ArrayList<Endpoint>(addresses.size());
+        addresses.forEach((name, uri) -> {
+            var existing = known.get(name);
+            if (existing != null && existing.uri.equals(uri)) {
+                updated.add(existing);
+                return;
+            }
+            var nodeClient = maxConnections > 0 ? forUri(uri, maxConnections) : forUri(uri);
+            var warmed = warmUp(nodeClient, warmConnections);
+            if (warmed > 0) {
+                log.atInfo().setMessage("Sending bulk requests to node {} at {} ({} connections warmed)")
+                    .addArgument(name).addArgument(uri).addArgument(warmed).log();
+                updated.add(new Endpoint(name, uri, nodeClient));
+            } else {
+                log.atWarn().setMessage("Node {} is not reachable at {}, not sending bulk requests to it")
+                    .addArgument(name).addArgument(uri).log();
+                nodeClient.dispose();
+            }
+        });
+        endpoints = List.copyOf(updated);
+        known.values().stream().filter(e -> !updated.contains(e)).forEach(dropped -> {
+            log.atInfo().setMessage("Node {} at {} is no longer listed, closing its connections")
+                .addArgument(dropped.name).addArgument(dropped.uri).log();
+            dropped.client.dispose();
+        });
+    }
+
+    /** The nodes bulk requests are sent to, for tests. */
+    List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /** Closes every node's connection pool as well as this client's own. */
+    @Override
+    public void dispose() {
+        var current = endpoints;
+        endpoints = List.of();
+        current.forEach(e -> e.client.dispose());
+        super.dispose();
+    }
+
+    /** Opens up to {@code connections} pooled connections to a node; returns how many requests succeeded. */
+    private static long warmUp(RestClient nodeClient, int connections) {
+        try {
+            var succeeded = Flux.range(0, connections)
+                .flatMap(i -> nodeClient.getAsync("", null)
+                    .map(response -> response.statusCode == HttpURLConnection.HTTP_OK)
+                    .onErrorReturn(false), connections)
+                .filter(ok -> ok)
+                .count()
+                .block(WARM_UP_TIMEOUT);
+            return succeeded == null ? 0 : succeeded;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(endpoints.size(), bulkRequests.get(), hedgesSent.get(), hedgesWon.get());
+    }
+
+    @Override
+    public Mono<ByteArrayHttpResponse> postAsyncBytesRaw(String path, byte[] body,
+                                                         Map<String, List<String>> additionalHeaders,
+                                                         IRfsContexts.IRequestContext context) {
+        return postAsyncBytesRaw(path, body, additionalHeaders, context, false);
+    }
+
+    /**
+     * Posts to the least loaded node.
+     *
+     * @param idempotent the request may be sent twice, e.g. a bulk request whose items all have ids and
+     *                   none is a delete, so it may be hedged
+     */
+    public Mono<ByteArrayHttpResponse> postAsyncBytesRaw(String path, byte[] body,
+                                                         Map<String, List<String>> additionalHeaders,
+                                                         IRfsContexts.IRequestContext context,
+                                                         boolean idempotent) {
+        return Mono.defer(() -> {
+            refreshIfDue();
+            var first = pick(null);
+            if (first == null) {
+                return super.postAsyncBytesRaw(path, body, additionalHeaders, context);
+            }
+            var requestNumber = bulkRequests.incrementAndGet();
+            var hedgeDelayNanos = idempotent ? hedgeDelayNanos(requestNumber) : -1;
+            if (hedgeDelayNanos < 0) {
+                return send(first, path, body, additionalHeaders, context);
+            }
+            return Mono.create(sink -> new HedgedRequest(sink, path, body, additionalHeaders)
+                .start(first, context, hedgeDelayNanos));
+        });
+    }
+
+    /** How long to wait before hedging, or -1 not to. */
+    private long hedgeDelayNanos(long requestNumber) {
+        if (hedgePercentile <= 0 || endpoints.size() < 2 || hedgesSent.get() >= requestNumber * HEDGE_BUDGET) {
+            return -1;
+        }
+        var threshold = latencies.percentileNanos();
+        return threshold < 0 ? -1 : Math.max(threshold, minHedgeDelay.toNanos());
+    }
+
+    /** The node with the fewest bytes outstanding, starting from a rotating one to break ties, or null. */
+    private Endpoint pick(Endpoint excluded) {
+        var current = endpoints;
+        var now = System.nanoTime();
+        var count = current.size();
+        var start = count == 0 ? 0 : Math.floorMod(nextStart.getAndIncrement(), count);
+        Endpoint best = null;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            var candidate = current.get((start + i) % count);
+            if (candidate == excluded || candidate.isEjected(now)) {
+                continue;
+            }
+            var bytes = candidate.outstandingBytes.get();
+            if (bytes < bestBytes) {
+                best = candidate;
+                bestBytes = bytes;
+            }
+        }
+        return best;
+    }
+
+    private void refreshIfDue() {
+        if (System.nanoTime() - lastRefreshNanos > refreshInterval.toNanos() && refreshing.compareAndSet(false, true)) {
+            Mono.fromRunnable(this::discoverNodes)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(s -> refreshing.set(false))
+                .subscribe(v -> {}, e -> log.atWarn().setCause(e).setMessage("Refreshing the target nodes failed").log());
+        }
+    }
+
+    private Mono<ByteArrayHttpResponse> send(Endpoint endpoint, String path, byte[] body,
+                                             Map<String, List<String>> additionalHeaders,
+                                             IRfsContexts.IRequestContext context) {
+        var bytes = body == null ? 0 : body.length;
+        return Mono.defer(() -> {
+            endpoint.outstandingBytes.addAndGet(bytes);
+            var start = System.nanoTime();
+            return endpoint.client.postAsyncBytesRaw(path, body, additionalHeaders, context)
+                .doOnNext(response -> latencies.record(System.nanoTime() - start))
+                .doOnError(e -> {
+                    endpoint.ejectedUntilNanos = System.nanoTime() + EJECTION_PERIOD.toNanos();
+                    log.atWarn().setMessage("Bulk request to node {} failed ({}), leaving it out for {}")
+                        .addArgument(endpoint.name).addArgument(e.getMessage()).addArgument(EJECTION_PERIOD).log();
+                })
+                .doFinally(s -> endpoint.outstandingBytes.addAndGet(-bytes));
+        });
+    }
+
+    /**
+     * A request sent to one node and, if that hasn't answered within the hedge delay, to a second one.
+     * The first answer wins; an error is only passed on once every attempt has failed.
+     */
+    private class HedgedRequest {
+        private final MonoSink<ByteArrayHttpResponse> sink;
+        private final String path;
+        private final byte[] body;
+        private final Map<String, List<String>> additionalHeaders;
+        private final List<Disposable> attempts = new ArrayList<>(2);
+        private Disposable hedgeTimer;
+        private int running;
+        private boolean done;
+
+        HedgedRequest(MonoSink<ByteArrayHttpResponse> sink, String path, byte[] body,
+                      Map<String, List<String>> additionalHeaders) {
+            this.sink = sink;
+            this.path = path;
+            this.body = body;
+            this.additionalHeaders = additionalHeaders;
+        }
+
+        void start(Endpoint first, IRfsContexts.IRequestContext context, long hedgeDelayNanos) {
+            sink.onCancel(this::cancel);
+            attempt(first, context, false);
+            var timer = Mono.delay(Duration.ofNanos(hedgeDelayNanos)).subscribe(t -> hedge(first));
+            synchronized (this) {
+                if (!done) {
+                    hedgeTimer = timer;
+                    return;
+                }
+            }
+            timer.dispose();
+        }
+
+        private void hedge(Endpoint first) {
+            var second = pick(first);
+            if (second == null) {
+                return;
+            }
+            hedgesSent.incrementAndGet();
+            log.atDebug().setMessage("Bulk request to node {} is slow, sending it to node {} as well")
+                .addArgument(first.name).addArgument(second.name).log();
+            // The request context is only for the first attempt, which closes it
+            attempt(second, null, true);
+        }
+
+        private void attempt(Endpoint endpoint, IRfsContexts.IRequestContext context, boolean isHedge) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                running++;
+            }
+            var attempt = send(endpoint, path, body, additionalHeaders, context)
+                .subscribe(response -> succeed(response, isHedge), this::fail);
+            synchronized (this) {
+                attempts.add(attempt);
+            }
+        }
+
+        private void succeed(ByteArrayHttpResponse response, boolean isHedge) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                disposeHedgeTimer();
+            }
+            if (isHedge) {
+                hedgesWon.incrementAndGet();
+            }
+            sink.success(response);
+        }
+
+        private void fail(Throwable error) {
+            synchronized (this) {
+                if (done || --running > 0) {
+                    return;
+                }
+                done = true;
+                disposeHedgeTimer();
+            }
+            sink.error(error);
+        }
+
+        private void disposeHedgeTimer() {
+            if (hedgeTimer != null) {
+                hedgeTimer.dispose();
+            }
+        }
+
+        private void cancel() {
+            List<Disposable> toCancel;
+            synchronized (this) {
+                done = true;
+                disposeHedgeTimer();
+                toCancel = List.copyOf(attempts);
+            }
+            toCancel.forEach(Disposable::dispose);
+        }
+    }
+
+    /** The last {@link #SIZE} bulk response times, with a percentile recomputed every {@link #RECOMPUTE_EVERY}. */
+    private class LatencyWindow {
+        static final int SIZE = 256;
+        static final int MIN_SAMPLES = 20;
+        static final int RECOMPUTE_EVERY = 16;
+        private final long[] samples = new long[SIZE];
+        private long recorded;
+        private volatile long percentileNanos = -1;
+
+        synchronized void record(long nanos) {
+            samples[(int) (recorded % SIZE)] = nanos;
+            recorded++;
+            if (recorded >= MIN_SAMPLES && recorded % RECOMPUTE_EVERY == 0) {
+                var sorted = Arrays.copyOf(samples, (int) Math.min(recorded, SIZE));
+                Arrays.sort(sorted);
+                var index = (int) Math.ceil(hedgePercentile / 100 * sorted.length) - 1;
+                percentileNanos = sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+            }
+        }
+
+        /** The percentile, or -1 until there have been enough responses. */
+        long percentileNanos() {
+            return percentileNanos;
+        }
+    }
+}
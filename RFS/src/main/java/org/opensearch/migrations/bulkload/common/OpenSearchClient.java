@@ -11,8 +11,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.opensearch.migrations.AwarenessAttributeSettings;
@@ -22,10 +20,14 @@ import org.opensearch.migrations.bulkload.common.bulk.BulkNdjson;
 import org.opensearch.migrations.bulkload.common.bulk.BulkOperationConverter;
 import org.opensearch.migrations.bulkload.common.bulk.BulkOperationSpec;
 import org.opensearch.migrations.bulkload.common.bulk.IndexOp;
+import org.opensearch.migrations.bulkload.common.bulk.enums.IndexOpType;
+import org.opensearch.migrations.bulkload.common.bulk.metadata.VersionControlMetadata;
 import org.opensearch.migrations.bulkload.common.bulk.operations.IndexOperationMeta;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
 import org.opensearch.migrations.bulkload.common.http.HttpResponse;
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics;
 import org.opensearch.migrations.bulkload.pipeline.model.Document;
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 import org.opensearch.migrations.parsing.BulkResponseParser;
@@ -66,6 +68,13 @@ public abstract class OpenSearchClient {
     private static final Retry BULK_RETRY_STRATEGY = Retry.backoff(BULK_MAX_RETRY_ATTEMPTS, BULK_BACKOFF)
         .maxBackoff(BULK_MAX_BACKOFF);
     public static final int BULK_TRUNCATED_RESPONSE_MAX_LENGTH = 1500;
+    /**
+     * Trims each bulk item down to what the retry and failed-document logic reads, dropping
+     * {@code _index}, {@code _version}, {@code _seq_no}, {@code _shards} and the like from every
+     * successful item. {@code result} stays so that success is still told apart from a bare status.
+     */
+    static final String BULK_RESPONSE_FILTER_PATH =
+        "errors,items.*._id,items.*.result,items.*.status,items.*.error";
     public static final String SNAPSHOT_PREFIX_STR = "_snapshot/";
 
     protected final RestClient client;
@@ -84,6 +93,9 @@ public abstract class OpenSearchClient {
     // Canonical work-item id (index + shard + checkpoint) for the work item currently being
     // processed. Updated per work item via setFailedDocumentStreamWorkItem; null until the first work item starts.
     private volatile String failedDocumentStreamWorkItemId;
+    // Where bulk body rendering and response times are recorded — null unless the bootstrap installs metrics
+    // via setPipelineStageMetrics. volatile for the same reason as the failed document stream fields.
+    private volatile PipelineStageMetrics pipelineStageMetrics;
 
     protected OpenSearchClient(ConnectionContext connectionContext, Version version, CompressionMode compressionMode) {
         this(new RestClient(connectionContext), new FailedRequestsLogger(), version, compressionMode);
@@ -119,6 +131,15 @@ public abstract class OpenSearchClient {
         this.failedDocumentStreamWorkItemId = workItemId;
     }
 
+    /**
+     * Record how long each bulk request took to render ({@link PipelineStageMetrics.Stage#ENCODE}) and
+     * how long the target took to answer it ({@link PipelineStageMetrics.Stage#TARGET_RESPONSE}), per
+     * attempt, into {@code stageMetrics}; null stops recording.
+     */
+    public void setPipelineStageMetrics(PipelineStageMetrics stageMetrics) {
+        this.pipelineStageMetrics = stageMetrics;
+    }
+
     public FailedDocumentStreamSink getFailedDocumentStreamSink() {
         return failedDocumentStreamSink;
     }
@@ -522,10 +543,30 @@ public abstract class OpenSearchClient {
             pendingDocs,
             () -> {},
             context,
-            allowlist
+            allowlist,
+            client,
+            !allowServerGeneratedIds && isSafeToSendTwice(pendingDocs)
         );
     }
 
+    /**
+     * Whether every operation is a plain index of a document with an id, which leaves the target the same
+     * however often it is applied.  A delete or a create fails the second time, a document without an id
+     * would be indexed twice, and versioning metadata makes the second attempt conflict with the first.
+     */
+    static boolean isSafeToSendTwice(List<? extends BulkOperationSpec> operations) {
+        return operations.stream().allMatch(op -> op instanceof IndexOp indexOp
+            && indexOp.getOperation() != null
+            && indexOp.getOperation().getId() != null
+            && (indexOp.getOperation().getOpType() == null || indexOp.getOperation().getOpType() == IndexOpType.INDEX)
+            && isUnversioned(indexOp.getOperation().getVersioning()));
+    }
+
+    private static boolean isUnversioned(VersionControlMetadata versioning) {
+        return versioning == null || (versioning.getIfSeqNo() == null && versioning.getIfPrimaryTerm() == null
+            && versioning.getVersion() == null && versioning.getVersionType() == null);
+    }
+
     /**
      * Send a bulk request using raw document bytes, skipping the BulkOperationSpec deserialization.
      * Builds NDJSON directly from Document raw source bytes — avoids byte[]→Map→byte[] round-trip.
@@ -534,6 +575,19 @@ public abstract class OpenSearchClient {
                                                   IRfsContexts.IRequestContext context,
                                                   boolean allowServerGeneratedIds,
                                                   DocumentExceptionAllowlist allowlist) {
+        return sendBulkRequestRaw(indexName, docs, context, allowServerGeneratedIds, allowlist, client);
+    }
+
+    /**
+     * As {@link #sendBulkRequestRaw(String, List, IRfsContexts.IRequestContext, boolean, DocumentExceptionAllowlist)},
+     * but posted through {@code via}, e.g. a client for the node holding the documents' primary shard
+     * (see {@link TargetShardRouter}).
+     */
+    public Mono<BulkResponse> sendBulkRequestRaw(String indexName, List<Document> docs,
+                                                  IRfsContexts.IRequestContext context,
+                                                  boolean allowServerGeneratedIds,
+                                                  DocumentExceptionAllowlist allowlist,
+                                                  RestClient via) {
         final var pendingRawDocs = new ArrayList<>(docs);
         final var pendingOps = new ArrayList<BulkOperationSpec>();
 
@@ -561,7 +615,9 @@ public abstract class OpenSearchClient {
             pendingOps,
             lazyConvert,
             context,
-            allowlist
+            allowlist,
+            via,
+            !allowServerGeneratedIds && docs.stream().noneMatch(doc -> doc.operation() == Document.Operation.DELETE)
         );
     }
 
@@ -574,6 +630,9 @@ public abstract class OpenSearchClient {
      * @param preCompactHook    called before compaction to allow lazy initialization of pendingOps
      * @param context           request context for metrics
      * @param allowlist         exception types to treat as success
+     * @param via               the client the request is posted through
+     * @param idempotent        every item is a plain index by id (see {@link #isSafeToSendTwice}), so the
+     *                          request may be sent twice
      */
     private Mono<BulkResponse> executeBulkWithRetry(
         String indexName,
@@ -581,23 +640,38 @@ public abstract class OpenSearchClient {
         ArrayList<BulkOperationSpec> pendingOps,
         Runnable preCompactHook,
         IRfsContexts.IRequestContext context,
-        DocumentExceptionAllowlist allowlist
+        DocumentExceptionAllowlist allowlist,
+        RestClient via,
+        boolean idempotent
     ) {
         final AtomicInteger attemptCounter = new AtomicInteger(0);
 
         return Mono.defer(() -> {
+            var stageMetrics = pipelineStageMetrics;
+            var encodeStart = System.nanoTime();
             var bodyBytes = bodyBuilder.get();
-            return postBulkRequest(indexName, bodyBytes, context)
+            var postStart = System.nanoTime();
+            var posted = postBulkRequest(indexName, bodyBytes, context, via, idempotent);
+            if (stageMetrics != null) {
+                stageMetrics.record(PipelineStageMetrics.Stage.ENCODE, postStart - encodeStart);
+                posted = posted.doOnEach(signal -> {
+                    if (signal.isOnNext() || signal.isOnError()) {
+                        stageMetrics.record(PipelineStageMetrics.Stage.TARGET_RESPONSE, System.nanoTime() - postStart);
+                    }
+                });
+            }
+            return posted
                 .flatMap(response -> {
                     var resp = new BulkResponse(response.statusCode, response.statusText, response.headers, response.body);
 
                     if (!resp.hasBadStatusCode() && !resp.hasFailedOperations()) {
                         return Mono.just(resp);
                     }
+                    var responseBody = resp.bodyAsString();
                     log.atInfo()
                         .setMessage("Bulk response on index '{}' contains errors: {}")
                         .addArgument(indexName)
-                        .addArgument(() -> truncateMessageIfNeeded(response.body, BULK_TRUNCATED_RESPONSE_MAX_LENGTH))
+                        .addArgument(() -> truncateMessageIfNeeded(responseBody, BULK_TRUNCATED_RESPONSE_MAX_LENGTH))
                         .log();
 
                     // Allow lazy initialization of pendingOps (e.g., raw→ops conversion)
@@ -614,9 +688,9 @@ public abstract class OpenSearchClient {
                         .addArgument(indexName)
                         .addArgument(successCount)
                         .addArgument(pendingOps::size)
-                        .addArgument(truncateMessageIfNeeded(response.body, BULK_TRUNCATED_RESPONSE_MAX_LENGTH))
+                        .addArgument(truncateMessageIfNeeded(responseBody, BULK_TRUNCATED_RESPONSE_MAX_LENGTH))
                         .log();
-                    return Mono.error(new OperationFailed(resp.getFailureMessage(), resp));
+                    return Mono.error(new OperationFailed(resp.getFailureMessage(), resp.toHttpResponse()));
                 });
         })
         .retryWhen(getBulkRetryStrategy())
@@ -639,14 +713,20 @@ public abstract class OpenSearchClient {
         });
     }
 
-    private Mono<HttpResponse> postBulkRequest(String indexName, byte[] bodyBytes,
-                                                       IRfsContexts.IRequestContext context) {
+    private Mono<ByteArrayHttpResponse> postBulkRequest(String indexName, byte[] bodyBytes,
+                                                        IRfsContexts.IRequestContext context,
+                                                        RestClient via,
+                                                        boolean idempotent) {
         var additionalHeaders = new HashMap<String, List<String>>();
         if (CompressionMode.GZIP_BODY_COMPRESSION.equals(compressionMode)) {
             RestClient.addGzipRequestHeaders(additionalHeaders);
             RestClient.addGzipResponseHeaders(additionalHeaders);
         }
-        return client.postAsyncBytes(getBulkRequestPath(indexName), bodyBytes, additionalHeaders, context);
+        var path = getBulkRequestPath(indexName) + "?filter_path=" + BULK_RESPONSE_FILTER_PATH;
+        if (idempotent && via instanceof MultiNodeRestClient multiNodeClient) {
+            return multiNodeClient.postAsyncBytesRaw(path, bodyBytes, additionalHeaders, context, true);
+        }
+        return via.postAsyncBytesRaw(path, bodyBytes, additionalHeaders, context);
     }
 
     private byte[] buildRawNdjsonBytes(List<Document> docs, String indexName, boolean stripIds) {
@@ -848,7 +928,16 @@ public abstract class OpenSearchClient {
         return client.get(targetPath, context);
     }
 
-    public static class BulkResponse extends HttpResponse {
+    /**
+     * A {@code _bulk} response, kept as the bytes read off the wire. The clean path only reads the
+     * top-level {@code errors} flag; the body is decoded to a {@code String} only for logs and
+     * failure messages.
+     */
+    public static class BulkResponse extends ByteArrayHttpResponse {
+        public BulkResponse(int statusCode, String statusText, Map<String, String> headers, byte[] body) {
+            super(statusCode, statusText, headers, body);
+        }
+
         public BulkResponse(int statusCode, String statusText, Map<String, String> headers, String body) {
             super(statusCode, statusText, headers, body);
         }
@@ -859,13 +948,9 @@ public abstract class OpenSearchClient {
 
         public boolean hasFailedOperations() {
             // The OpenSearch Bulk API response body is JSON and contains a top-level "errors" field that indicates
-            // whether any of the individual operations in the bulk request failed. Rather than marshalling the entire
-            // response as JSON, just check for the string value.
-
-            String regexPattern = "\"errors\"\\s*:\\s*true";
-            Pattern pattern = Pattern.compile(regexPattern);
-            Matcher matcher = pattern.matcher(body);
-            return matcher.find();
+            // whether any of the individual operations in the bulk request failed. It precedes "items", so only
+            // the first few tokens are read.
+            return BulkResponseParser.hasErrors(body);
         }
 
         public List<String> getSuccessfulDocs() {
@@ -874,7 +959,7 @@ public abstract class OpenSearchClient {
 
         public List<String> getSuccessfulDocs(DocumentExceptionAllowlist allowlist) {
             try {
-                return BulkResponseParser.findSuccessDocs(body, allowlist);
+                return BulkResponseParser.findSuccessDocs(bodyAsString(), allowlist);
             } catch (IOException ioe) {
                 log.warn("Unable to process bulk request for success", ioe);
                 return List.of();
@@ -884,9 +969,9 @@ public abstract class OpenSearchClient {
         public String getFailureMessage() {
             String failureMessage;
             if (hasBadStatusCode()) {
-                failureMessage = "Bulk request failed.  Status code: " + statusCode + ", Response body: " + body;
+                failureMessage = "Bulk request failed.  Status code: " + statusCode + ", Response body: " + bodyAsString();
             } else {
-                failureMessage = "Bulk request succeeded, but some operations failed.  Response body: " + body;
+                failureMessage = "Bulk request succeeded, but some operations failed.  Response body: " + bodyAsString();
             }
 
             return failureMessage;
@@ -0,0 +1,335 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Splits a bulk batch by the target node that holds each document's primary shard, so that each
+ * sub-request can be posted straight to that node.
+ * <p>
+ * A bulk request sent to an arbitrary node is split there into one shard-level request per target
+ * shard, and every shard whose primary lives elsewhere costs an extra hop and a coordinating-node
+ * wait on the slowest of them.  Computing the shard on the client side the way the target does
+ * ({@code murmur3(_routing or _id) mod routing_num_shards / routing_factor}) and grouping by the
+ * primary's node removes those hops.
+ * <p>
+ * Routing tables are discovered with {@code _settings}, {@code _cluster/state/metadata},
+ * {@code _cat/shards} and {@code _nodes/http} and cached per index for {@link #ROUTING_TABLE_TTL}.
+ * Anything that can't be routed (unknown index layout, a {@code routing_partition_size} above 1,
+ * a primary that isn't started, a node whose publish address the worker can't reach) goes through
+ * the default client, as it would without the router.  Routing is an optimization only: a request
+ * that reaches the wrong node is still forwarded by the cluster.
+ * <p>
+ * Those failures are often transient (an index that is still being created, a node that is restarting),
+ * so they aren't cached for good: an index without a routing table is looked up again after
+ * {@link #UNROUTABLE_RETRY_INTERVAL}, and every time a routing table is loaded, the nodes found
+ * unreachable so far are probed again, with freshly read publish addresses.
+ */
+@Slf4j
+public class TargetShardRouter {
+    static final Duration ROUTING_TABLE_TTL = Duration.ofMinutes(5);
+    static final Duration UNROUTABLE_RETRY_INTERVAL = Duration.ofSeconds(30);
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.createDefaultMapper();
+
+    /** A part of a batch and the client to post it through. */
+    public record NodeBatch(RestClient client, String nodeName, List<Document> documents) {}
+
+    /**
+     * What's needed to route documents of one index.
+     *
+     * @param routingNumShards   the index's {@code routing_num_shards}
+     * @param primaryNodeByShard the node name holding each shard's primary, null where unknown
+     */
+    record IndexRouting(int routingNumShards, String[] primaryNodeByShard) {
+        int numberOfShards() {
+            return primaryNodeByShard.length;
+        }
+    }
+
+    /** An index's routing, null if its documents go unrouted, and when to load it again. */
+    private record CachedRouting(IndexRouting routing, Instant expiresAt) {}
+
+    private final RestClient defaultClient;
+    private final Clock clock;
+    private final Map<String, CachedRouting> routingByIndex = new ConcurrentHashMap<>();
+    /** Node name to a client for its http publish address, empty if it couldn't be reached */
+    private final Map<String, Optional<RestClient>> clientByNode = new ConcurrentHashMap<>();
+    private volatile Map<String, URI> publishAddressByNode;
+
+    public TargetShardRouter(OpenSearchClient targetClient) {
+        this(targetClient.client, Clock.systemUTC());
+    }
+
+    TargetShardRouter(RestClient defaultClient, Clock clock) {
+        this.defaultClient = defaultClient;
+        this.clock = clock;
+    }
+
+    /**
+     * Groups {@code documents} by the node holding their primary shard, keeping their relative order.
+     * Blocks while a routing table is (re)loaded, so call it off the event loop.
+     *
+     * @param serverGeneratedIds if the target will assign ids, in which case documents can't be routed
+     */
+    public List<NodeBatch> groupByPrimaryNode(String indexName, List<Document> documents, boolean serverGeneratedIds) {
+        var routing = serverGeneratedIds ? null : routingFor(indexName);
+        if (routing == null) {
+            return List.of(new NodeBatch(defaultClient, null, documents));
+        }
+        var documentsByNode = new LinkedHashMap<String, List<Document>>();
+        var unrouted = new ArrayList<Document>();
+        for (var doc : documents) {
+            var routingValue = doc.hints().getOrDefault(Document.HINT_ROUTING, doc.id());
+            var node = routing.primaryNodeByShard()[
+                shardId(routingValue, routing.routingNumShards(), routing.numberOfShards())];
+            if (node == null) {
+                unrouted.add(doc);
+            } else {
+                documentsByNode.computeIfAbsent(node, n -> new ArrayList<>()).add(doc);
+            }
+        }
+        var batches = new ArrayList<NodeBatch>(documentsByNode.size() + 1);
+        documentsByNode.forEach((node, docs) -> clientFor(node).ifPresentOrElse(
+            nodeClient -> batches.add(new NodeBatch(nodeClient, node, docs)),
+            () -> unrouted.addAll(docs)));
+        if (!unrouted.isEmpty()) {
+            batches.add(new NodeBatch(defaultClient, null, unrouted));
+        }
+        return batches;
+    }
+
+    private IndexRouting routingFor(String indexName) {
+        var cached = routingByIndex.get(indexName);
+        if (cached != null && cached.expiresAt().isAfter(clock.instant())) {
+            return cached.routing();
+        }
+        // A node that was unreachable may be back, possibly at another address
+        if (clientByNode.values().removeIf(Optional::isEmpty)) {
+            publishAddressByNode = null;
+        }
+        // Racing loaders may both fetch; the last one wins, which is fine for a cache
+        IndexRouting loaded;
+        try {
+            loaded = loadRouting(indexName);
+        } catch (Exception e) {
+            log.atWarn().setCause(e)
+                .setMessage("Could not load the routing table of index {}, sending its documents unrouted")
+                .addArgument(indexName)
+                .log();
+            loaded = null;
+        }
+        var ttl = loaded == null ? UNROUTABLE_RETRY_INTERVAL : ROUTING_TABLE_TTL;
+        routingByIndex.put(indexName, new CachedRouting(loaded, clock.instant().plus(ttl)));
+        return loaded;
+    }
+
+    private IndexRouting loadRouting(String indexName) {
+        var settings = firstIndexEntry(getJson(indexName + "/_settings?flat_settings=true")).path("settings");
+        var numberOfShards = settings.path("index.number_of_shards").asInt(0);
+        if (numberOfShards <= 0) {
+            return null;
+        }
+        if (settings.path("index.routing_partition_size").asInt(1) > 1) {
+            log.atInfo().setMessage("Index {} uses a routing partition size, sending its documents unrouted")
+                .addArgument(indexName).log();
+            return null;
+        }
+        var routingNumShards = readRoutingNumShards(indexName)
+            .orElseGet(() -> settings.path("index.number_of_routing_shards").asInt(defaultRoutingNumShards(numberOfShards)));
+
+        var primaryNodeByShard = new String[numberOfShards];
+        for (var shard : getJson("_cat/shards/" + indexName + "?format=json&h=shard,prirep,state,node")) {
+            var shardId = shard.path("shard").asInt(-1);
+            if ("p".equals(shard.path("prirep").asText()) && "STARTED".equals(shard.path("state").asText())
+                && shardId >= 0 && shardId < numberOfShards) {
+                primaryNodeByShard[shardId] = shard.path("node").asText(null);
+            }
+        }
+        log.atInfo().setMessage("Routing documents of index {} over {} shards (routing_num_shards={}) to nodes {}")
+            .addArgument(indexName)
+            .addArgument(numberOfShards)
+            .addArgument(routingNumShards)
+            .addArgument(() -> String.join(",", primaryNodeByShard))
+            .log();
+        return new IndexRouting(routingNumShards, primaryNodeByShard);
+    }
+
+    private Optional<Integer> readRoutingNumShards(String indexName) {
+        try {
+            var value = firstIndexEntry(getJson("_cluster/state/metadata/" + indexName
+                + "?filter_path=metadata.indices.*.routing_num_shards").path("metadata").path("indices"))
+                .path("routing_num_shards");
+            return value.isNumber() ? Optional.of(value.asInt()) : Optional.empty();
+        } catch (Exception e) {
+            // e.g. managed services that don't expose the cluster state; fall back to the settings
+            log.atDebug().setCause(e).setMessage("Could not read routing_num_shards of index {}")
+                .addArgument(indexName).log();
+            return Optional.empty();
+        }
+    }
+
+    private Optional<RestClient> clientFor(String nodeName) {
+        return clientByNode.computeIfAbsent(nodeName, name -> {
+            var uri = publishAddresses().get(name);
+            if (uri == null) {
+                return Optional.empty();
+            }
+            var nodeClient = defaultClient.forUri(uri);
+            try {
+                var response = nodeClient.get("", null);
+                if (response.statusCode == HttpURLConnection.HTTP_OK) {
+                    log.atInfo().setMessage("Sending bulk requests for primaries on node {} to {}")
+                        .addArgument(name).addArgument(uri).log();
+                    return Optional.of(nodeClient);
+                }
+                log.atWarn().setMessage("Node {} at {} answered {}, sending its documents unrouted")
+                    .addArgument(name).addArgument(uri).addArgument(response.statusCode).log();
+            } catch (Exception e) {
+                log.atWarn().setMessage("Node {} is not reachable at {} ({}), sending its documents unrouted")
+                    .addArgument(name).addArgument(uri).addArgument(e.getMessage()).log();
+            }
+            return Optional.empty();
+        });
+    }
+
+    private Map<String, URI> publishAddresses() {
+        if (publishAddressByNode == null) {
+            var addresses = new HashMap<String, URI>();
+            try {
+                var scheme = defaultClient.getConnectionContext().getUri().getScheme();
+                getJson("_nodes/http?filter_path=nodes.*.name,nodes.*.http.publish_address").path("nodes")
+                    .forEach(node -> {
+                        var address = parsePublishAddress(scheme, node.path("http").path("publish_address").asText(""));
+                        if (address != null) {
+                            addresses.put(node.path("name").asText(), address);
+                        }
+                    });
+            } catch (Exception e) {
+                log.atWarn().setCause(e).setMessage("Could not read the nodes' http publish addresses").log();
+            }
+            publishAddressByNode = addresses;
+        }
+        return publishAddressByNode;
+    }
+
+    /** Publish addresses are {@code ip:port} or {@code hostname/ip:port}; the hostname is preferred for TLS. */
+    static URI parsePublishAddress(String scheme, String publishAddress) {
+        var colon = publishAddress.lastIndexOf(':');
+        if (colon <= 0) {
+            return null;
+        }
+        var host = publishAddress.substring(0, colon);
+        var port = publishAddress.substring(colon + 1);
+        var slash = host.indexOf('/');
+        if (slash == 0) {
+            host = host.substring(1);
+        } else if (slash > 0) {
+            host = host.substring(0, slash);
+        }
+        if (host.contains(":") && !host.startsWith("[")) {
+            host = "[" + host + "]";
+        }
+        return URI.create(scheme + "://" + host + ":" + port);
+    }
+
+    private JsonNode getJson(String path) {
+        var response = defaultClient.get(path, null);
+        if (response.statusCode != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode + ": " + response.body);
+        }
+        try {
+            return OBJECT_MAPPER.readTree(response.body);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not parse the response to GET " + path, e);
+        }
+    }
+
+    private static JsonNode firstIndexEntry(JsonNode byIndex) {
+        var entries = byIndex.fields();
+        return entries.hasNext() ? entries.next().getValue() : OBJECT_MAPPER.missingNode();
+    }
+
+    /**
+     * The shard a routing value maps to, as computed by {@code OperationRouting} on the target
+     * (without a routing partition).
+     */
+    public static int shardId(String routing, int routingNumShards, int numberOfShards) {
+        var routingFactor = routingNumShards / numberOfShards;
+        return Math.floorMod(hash(routing), routingNumShards) / routingFactor;
+    }
+
+    /**
+     * The {@code routing_num_shards} an index gets when it isn't set explicitly on ES 7+ and OpenSearch:
+     * the number of shards doubled until just above 1024 (but at least once), so indices can be split.
+     * On ES 6 it was the number of shards itself, which the cluster state lookup returns for those.
+     */
+    static int defaultRoutingNumShards(int numberOfShards) {
+        var log2NumShards = 32 - Integer.numberOfLeadingZeros(numberOfShards - 1);
+        return numberOfShards << Math.max(1, 10 - log2NumShards);
+    }
+
+    /** {@code Murmur3HashFunction.hash(String)}: murmur3 x86 32-bit, seed 0, over the UTF-16LE code units. */
+    static int hash(String routing) {
+        var bytes = new byte[routing.length() * 2];
+        for (int i = 0; i < routing.length(); i++) {
+            var c = routing.charAt(i);
+            bytes[i * 2] = (byte) c;
+            bytes[i * 2 + 1] = (byte) (c >>> 8);
+        }
+        return murmur3x86_32(bytes, 0);
+    }
+
+    static int murmur3x86_32(byte[] data, int seed) {
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+        int h1 = seed;
+        int roundedEnd = data.length & 0xfffffffc;
+        for (int i = 0; i < roundedEnd; i += 4) {
+            int k1 = (data[i] & 0xff) | ((data[i + 1] & 0xff) << 8) | ((data[i + 2] & 0xff) << 16) | (data[i + 3] << 24);
+            k1 *= c1;
+            k1 = Integer.rotateLeft(k1, 15);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Integer.rotateLeft(h1, 13);
+            h1 = h1 * 5 + 0xe6546b64;
+        }
+        int k1 = 0;
+        int tail = data.length & 0x03;
+        if (tail == 3) {
+            k1 = (data[roundedEnd + 2] & 0xff) << 16;
+        }
+        if (tail >= 2) {
+            k1 |= (data[roundedEnd + 1] & 0xff) << 8;
+        }
+        if (tail >= 1) {
+            k1 |= data[roundedEnd] & 0xff;
+            k1 *= c1;
+            k1 = Integer.rotateLeft(k1, 15);
+            k1 *= c2;
+            h1 ^= k1;
+        }
+        h1 ^= data.length;
+        h1 ^= h1 >>> 16;
+        h1 *= 0x85ebca6b;
+        h1 ^= h1 >>> 13;
+        h1 *= 0xc2b2ae35;
+        h1 ^= h1 >>> 16;
+        return h1;
+    }
+}
@@ -12,11 +12,26 @@ import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
  * @param maxDocsPerBatch  max documents per bulk batch
  * @param maxBytesPerBatch max bytes per bulk batch
  * @param batchConcurrency max concurrent bulk writes in flight
+ * @param documentSorter   reorders each partition's documents before batching, or null
+ * @param stageMetrics     where the pipeline records its stage timings, shared with the sink, or null for
+ *                         metrics of the pipeline's own
  */
 public record PipelineConfig(
     DocumentSource source,
     DocumentSink sink,
     int maxDocsPerBatch,
     long maxBytesPerBatch,
-    int batchConcurrency
-) {}
+    int batchConcurrency,
+    DocumentSorter documentSorter,
+    PipelineStageMetrics stageMetrics
+) {
+    public PipelineConfig(DocumentSource source, DocumentSink sink, int maxDocsPerBatch, long maxBytesPerBatch,
+                          int batchConcurrency, DocumentSorter documentSorter) {
+        this(source, sink, maxDocsPerBatch, maxBytesPerBatch, batchConcurrency, documentSorter, null);
+    }
+
+    public PipelineConfig(DocumentSource source, DocumentSink sink, int maxDocsPerBatch, long maxBytesPerBatch,
+                          int batchConcurrency) {
+        this(source, sink, maxDocsPerBatch, maxBytesPerBatch, batchConcurrency, null, null);
+    }
+}
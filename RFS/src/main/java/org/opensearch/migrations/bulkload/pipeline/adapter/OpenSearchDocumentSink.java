@@ -9,8 +9,10 @@ import java.util.stream.Collectors;
 import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
 import org.opensearch.migrations.bulkload.common.ObjectMapperFactory;
 import org.opensearch.migrations.bulkload.common.OpenSearchClient;
+import org.opensearch.migrations.bulkload.common.TargetShardRouter;
 import org.opensearch.migrations.bulkload.common.bulk.BulkOperationConverter;
 import org.opensearch.migrations.bulkload.common.bulk.BulkOperationSpec;
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics;
 import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
 import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
 import org.opensearch.migrations.bulkload.pipeline.model.Document;
@@ -20,6 +22,7 @@ import org.opensearch.migrations.transform.IJsonTransformer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -32,6 +35,12 @@ import reactor.core.scheduler.Schedulers;
  *
  * <p>Supports optional document transformation via {@link IJsonTransformer} and
  * configurable exception allowlisting for idempotent migrations.
+ *
+ * <p>With a {@link TargetShardRouter}, untransformed batches are split by the node holding each
+ * document's primary shard and the parts are posted to those nodes concurrently.
+ *
+ * <p>With {@link PipelineStageMetrics}, the time spent transforming each batch is recorded as
+ * {@link PipelineStageMetrics.Stage#TRANSFORM}.
  */
 @Slf4j
 public class OpenSearchDocumentSink implements DocumentSink {
@@ -43,6 +52,8 @@ public class OpenSearchDocumentSink implements DocumentSink {
     private final boolean allowServerGeneratedIds;
     private final DocumentExceptionAllowlist allowlist;
     private final Supplier<IRfsContexts.IRequestContext> requestContextSupplier;
+    private final TargetShardRouter shardRouter;
+    private final PipelineStageMetrics stageMetrics;
 
     public OpenSearchDocumentSink(
         OpenSearchClient client,
@@ -51,6 +62,38 @@ public class OpenSearchDocumentSink implements DocumentSink {
         DocumentExceptionAllowlist allowlist,
         Supplier<IRfsContexts.IRequestContext> requestContextSupplier
     ) {
+        this(client, transformerSupplier, allowServerGeneratedIds, allowlist, requestContextSupplier, null);
+    }
+
+    /**
+     * @param shardRouter if not null, untransformed batches are sent to the nodes holding their primaries
+     */
+    public OpenSearchDocumentSink(
+        OpenSearchClient client,
+        Supplier<IJsonTransformer> transformerSupplier,
+        boolean allowServerGeneratedIds,
+        DocumentExceptionAllowlist allowlist,
+        Supplier<IRfsContexts.IRequestContext> requestContextSupplier,
+        TargetShardRouter shardRouter
+    ) {
+        this(client, transformerSupplier, allowServerGeneratedIds, allowlist, requestContextSupplier, shardRouter, null);
+    }
+
+    /**
+     * @param shardRouter  if not null, untransformed batches are sent to the nodes holding their primaries
+     * @param stageMetrics if not null, where transformation time is recorded
+     */
+    public OpenSearchDocumentSink(
+        OpenSearchClient client,
+        Supplier<IJsonTransformer> transformerSupplier,
+        boolean allowServerGeneratedIds,
+        DocumentExceptionAllowlist allowlist,
+        Supplier<IRfsContexts.IRequestContext> requestContextSupplier,
+        TargetShardRouter shardRouter,
+        PipelineStageMetrics stageMetrics
+    ) {
+        this.shardRouter = shardRouter;
+        this.stageMetrics = stageMetrics;
         this.client = client;
         this.transformer = transformerSupplier != null ? transformerSupplier.get() : null;
         this.allowServerGeneratedIds = allowServerGeneratedIds;
@@ -93,18 +136,30 @@ public class OpenSearchDocumentSink implements DocumentSink {
         long bytesInBatch = batch.stream()
             .mapToLong(Document::sourceLength)
             .sum();
-        var requestContext = requestContextSupplier != null ? requestContextSupplier.get() : null;
 
-        Mono<OpenSearchClient.BulkResponse> bulkMono;
-        if (transformer == null) {
+        Mono<?> bulkMono;
+        if (transformer == null && shardRouter != null) {
+            // One bulk request per primary node, each with its own request context
+            bulkMono = Mono.fromCallable(() -> shardRouter.groupByPrimaryNode(collectionName, batch, allowServerGeneratedIds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .flatMap(part -> client.sendBulkRequestRaw(collectionName, part.documents(),
+                    nextRequestContext(), allowServerGeneratedIds, allowlist, part.client()))
+                .then();
+        } else if (transformer == null) {
             // Fast path: skip byte[]→Map→byte[] round-trip, write raw source bytes directly
             bulkMono = client.sendBulkRequestRaw(collectionName, batch,
-                requestContext, allowServerGeneratedIds, allowlist);
+                nextRequestContext(), allowServerGeneratedIds, allowlist);
         } else {
+            var requestContext = nextRequestContext();
+            var transformStart = System.nanoTime();
             var bulkOps = batch.stream()
                 .map(doc -> BulkOperationConverter.fromDocument(doc, collectionName))
                 .collect(Collectors.toList());
             List<BulkOperationSpec> opsToSend = applyTransformation(bulkOps);
+            if (stageMetrics != null) {
+                stageMetrics.record(PipelineStageMetrics.Stage.TRANSFORM, System.nanoTime() - transformStart);
+            }
             bulkMono = client.sendBulkRequest(collectionName, opsToSend,
                 requestContext, allowServerGeneratedIds, allowlist);
         }
@@ -112,6 +167,10 @@ public class OpenSearchDocumentSink implements DocumentSink {
         return bulkMono.then(Mono.just(new BatchResult(batch.size(), bytesInBatch)));
     }
 
+    private IRfsContexts.IRequestContext nextRequestContext() {
+        return requestContextSupplier != null ? requestContextSupplier.get() : null;
+    }
+
     @SuppressWarnings("unchecked")
     private List<BulkOperationSpec> applyTransformation(List<BulkOperationSpec> ops) {
         if (transformer == null) {
@@ -62,6 +62,13 @@ public class OpenSearchWorkCoordinator_ES_6_8 extends OpenSearchWorkCoordinator
             + "       \"" + SUCCESSOR_ITEMS_FIELD_NAME + "\": {\n"
             + "         \"type\": \"keyword\",\n"
             + "          \"norms\": false\n"
+            + "        },\n"
+            + "        \"" + INDEX_NAME_FIELD_NAME + "\": {\n"
+            + "          \"type\": \"keyword\",\n"
+            + "          \"norms\": false\n"
+            + "        },\n"
+            + "        \"" + SCHEDULING_RANK_FIELD_NAME + "\": {\n"
+            + "          \"type\": \"long\"\n"
             + "        }\n"
             + "      }\n"
             + "    }\n"
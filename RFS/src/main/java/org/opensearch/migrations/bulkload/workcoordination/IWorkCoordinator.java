@@ -9,6 +9,7 @@ import java.time.Instant;
 import java.util.Base64;
 import java.util.List;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import org.opensearch.migrations.bulkload.tracing.IWorkCoordinationContexts;
 
@@ -57,6 +58,19 @@ public interface IWorkCoordinator extends AutoCloseable {
         Supplier<IWorkCoordinationContexts.ICreateUnassignedWorkItemContext> contextSupplier
     ) throws IOException;
 
+    /**
+     * Same as {@link #createUnassignedWorkItem(String, Supplier)}, but records a rank that a
+     * {@link WorkItemSchedulingPolicy} uses to order acquisitions.  Coordinators that don't schedule
+     * by rank ignore it, which is the default.
+     */
+    default boolean createUnassignedWorkItem(
+        String workItemId,
+        long schedulingRank,
+        Supplier<IWorkCoordinationContexts.ICreateUnassignedWorkItemContext> contextSupplier
+    ) throws IOException {
+        return createUnassignedWorkItem(workItemId, contextSupplier);
+    }
+
     /**
      * @param workItemId the item that the caller is trying to take ownership of
      * @param leaseDuration the initial amount of time that the caller would like to own the lease for.
@@ -74,6 +88,21 @@ public interface IWorkCoordinator extends AutoCloseable {
         Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier
     ) throws IOException, InterruptedException;
     
+    /**
+     * Extend this worker's current, unexpired lease on a work item so that it runs until
+     * {@code leaseDuration} from now (it is never shortened).  Unlike re-acquisition, renewal doesn't
+     * grow the item's lease exponent — it is a heartbeat for a worker that is still making progress.
+     * @return the new expiration time of the lease
+     * @throws IOException if there was an error renewing the lease
+     * @throws LeaseLockHeldElsewhereException if this worker no longer holds an unexpired lease on the
+     * work item (it expired, was released, or the item was completed)
+     */
+    Instant renewLease(
+        String workItemId,
+        Duration leaseDuration,
+        Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier
+    ) throws IOException, InterruptedException;
+
     /**
      * Scan the created work items that have not yet had leases acquired and have not yet finished.
      * One of those work items will be returned along with a lease for how long this process may continue
@@ -226,17 +255,54 @@ public interface IWorkCoordinator extends AutoCloseable {
         public static class WorkItem implements Serializable {
             private static final String SEPARATOR = "__";
             private static final String SHARD_SETUP_SENTINEL = "shard_setup";
+            private static final String SEGMENT_RANGE_SEPARATOR = "-";
+            /** Lucene segment names are {@code _} followed by a base-36 counter. */
+            private static final Pattern SEGMENT_NAME = Pattern.compile("_[0-9a-z]+");
             private static final Base64.Encoder INDEX_NAME_ENCODER = Base64.getUrlEncoder().withoutPadding();
             private static final Base64.Decoder INDEX_NAME_DECODER = Base64.getUrlDecoder();
 
             String indexName;
             Integer shardNumber;
             Long startingDocId;
+            /**
+             * First and last (inclusive) Lucene segment names of a sub-shard work item, or null when
+             * the work item covers the whole shard.  For a sub-shard item, {@link #startingDocId}
+             * counts documents from the start of the first segment rather than from the start of
+             * the shard.
+             */
+            String firstSegment;
+            String lastSegment;
 
             public WorkItem(String indexName, Integer shardNumber, Long startingDocId) {
+                this(indexName, shardNumber, startingDocId, null, null);
+            }
+
+            public WorkItem(String indexName, Integer shardNumber, Long startingDocId,
+                            String firstSegment, String lastSegment) {
+                if ((firstSegment == null) != (lastSegment == null)) {
+                    throw new IllegalArgumentException("Both or neither of firstSegment and lastSegment must be set");
+                }
+                if (firstSegment != null && !(isSegmentName(firstSegment) && isSegmentName(lastSegment))) {
+                    throw new IllegalArgumentException("Illegal segment range: " + firstSegment + ".." + lastSegment);
+                }
                 this.indexName = indexName;
                 this.shardNumber = shardNumber;
                 this.startingDocId = startingDocId;
+                this.firstSegment = firstSegment;
+                this.lastSegment = lastSegment;
+            }
+
+            public static boolean isSegmentName(String name) {
+                return name != null && SEGMENT_NAME.matcher(name).matches();
+            }
+
+            public boolean hasSegmentRange() {
+                return firstSegment != null;
+            }
+
+            /** The same work item (and segment range, if any) resumed from {@code newStartingDocId}. */
+            public WorkItem withStartingDocId(long newStartingDocId) {
+                return new WorkItem(indexName, shardNumber, newStartingDocId, firstSegment, lastSegment);
             }
 
             /**
@@ -244,7 +310,9 @@ public interface IWorkCoordinator extends AutoCloseable {
              * The index name is base64url-encoded (no padding) so it cannot collide with the
              * {@link #SEPARATOR} regardless of what characters the source index name contains
              * (see opensearch-project/opensearch-migrations#2880).  The {@code shard_setup}
-             * sentinel is preserved verbatim so existing bootstrap logic is unaffected.
+             * sentinel is preserved verbatim so existing bootstrap logic is unaffected.  A
+             * sub-shard work item appends its segment range as a fourth component, e.g.
+             * {@code a-f} for segments {@code _a} through {@code _f}.
              */
             @Override
             public String toString() {
@@ -258,6 +326,9 @@ public interface IWorkCoordinator extends AutoCloseable {
                 if (startingDocId != null) {
                     name += SEPARATOR + startingDocId;
                 }
+                if (firstSegment != null) {
+                    name += SEPARATOR + firstSegment.substring(1) + SEGMENT_RANGE_SEPARATOR + lastSegment.substring(1);
+                }
                 return name;
             }
 
@@ -266,7 +337,7 @@ public interface IWorkCoordinator extends AutoCloseable {
                     return new WorkItem(input, null, null);
                 }
                 var components = input.split(SEPARATOR + "+");
-                if (components.length != 3) {
+                if (components.length != 3 && components.length != 4) {
                     throw new IllegalArgumentException("Illegal work item: '" + input + "'");
                 }
                 final String indexName;
@@ -276,7 +347,17 @@ public interface IWorkCoordinator extends AutoCloseable {
                     throw new IllegalArgumentException("Illegal work item: '" + input
                             + "' (index name segment is not valid base64url)", e);
                 }
-                return new WorkItem(indexName, Integer.parseInt(components[1]), Long.parseLong(components[2]));
+                var shardNumber = Integer.parseInt(components[1]);
+                var startingDocId = Long.parseLong(components[2]);
+                if (components.length == 3) {
+                    return new WorkItem(indexName, shardNumber, startingDocId);
+                }
+                var range = components[3].split(SEGMENT_RANGE_SEPARATOR, -1);
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("Illegal work item: '" + input
+                            + "' (segment range must be <first>" + SEGMENT_RANGE_SEPARATOR + "<last>)");
+                }
+                return new WorkItem(indexName, shardNumber, startingDocId, "_" + range[0], "_" + range[1]);
             }
         }
     }
@@ -49,8 +49,26 @@ public class LeaseExpireTrigger implements AutoCloseable {
 
     public void registerExpiration(String workItemId, Instant killTime) {
         workItemToLeaseMap.put(workItemId, killTime);
+        schedule(workItemId, killTime);
+    }
+
+    /**
+     * Moves the expiration of a work item that is still registered (not yet marked as completed) to
+     * {@code newKillTime}, e.g. after its lease was renewed.  The previously scheduled expiration
+     * becomes a no-op.  Returns false, and registers nothing, if the work item is no longer tracked.
+     */
+    public boolean extendExpiration(String workItemId, Instant newKillTime) {
+        if (workItemToLeaseMap.computeIfPresent(workItemId, (id, oldKillTime) -> newKillTime) == null) {
+            return false;
+        }
+        schedule(workItemId, newKillTime);
+        return true;
+    }
+
+    private void schedule(String workItemId, Instant killTime) {
+        // Only the most recent registration for a work item may fire
         final Runnable expirationRunnable = () -> {
-            if (workItemToLeaseMap.containsKey(workItemId)) {
+            if (killTime.equals(workItemToLeaseMap.get(workItemId))) {
                 onLeaseExpired.accept(workItemId);
             }
         };
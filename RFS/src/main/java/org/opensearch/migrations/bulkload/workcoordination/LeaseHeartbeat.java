@@ -0,0 +1,117 @@
+package org.opensearch.migrations.bulkload.workcoordination;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.opensearch.migrations.bulkload.tracing.IWorkCoordinationContexts;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically renews the lease on a work item for as long as the worker keeps making progress on it,
+ * so that a long-lived worker isn't forced to checkpoint and exit just because a lease ran out.
+ * <p>
+ * Every {@code leaseDuration / 3} the progress token is sampled.  If it has changed (by identity) since
+ * the previous sample the lease is renewed and the {@link LeaseExpireTrigger}'s early trigger is moved
+ * out accordingly; if it hasn't, nothing is renewed and the existing trigger fires as it would have
+ * without a heartbeat.  A stalled worker therefore still gets its lease reclaimed.  Once the lease is
+ * found to be held elsewhere, or a renewal fails, the heartbeat stops.
+ */
+@Slf4j
+public class LeaseHeartbeat implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+    private final IWorkCoordinator workCoordinator;
+    private final LeaseExpireTrigger leaseExpireTrigger;
+    private final String workItemId;
+    private final Duration leaseDuration;
+    private final Supplier<?> progressToken;
+    private final Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier;
+    private final Function<Instant, Instant> earlyTriggerForExpiration;
+    private final Clock clock;
+    private Object lastProgress;
+
+    /**
+     * @param earlyTriggerForExpiration maps a renewed lease expiration to the time at which the
+     *                                  {@link LeaseExpireTrigger} should fire for it
+     */
+    public LeaseHeartbeat(
+        IWorkCoordinator workCoordinator,
+        LeaseExpireTrigger leaseExpireTrigger,
+        String workItemId,
+        Duration leaseDuration,
+        Supplier<?> progressToken,
+        Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier,
+        Function<Instant, Instant> earlyTriggerForExpiration,
+        Clock clock
+    ) {
+        this.workCoordinator = workCoordinator;
+        this.leaseExpireTrigger = leaseExpireTrigger;
+        this.workItemId = workItemId;
+        this.leaseDuration = leaseDuration;
+        this.progressToken = progressToken;
+        this.contextSupplier = contextSupplier;
+        this.earlyTriggerForExpiration = earlyTriggerForExpiration;
+        this.clock = clock;
+        this.lastProgress = progressToken.get();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("leaseHeartbeatThread"));
+    }
+
+    public LeaseHeartbeat start() {
+        var period = Math.max(1, leaseDuration.toMillis() / 3);
+        scheduler.scheduleWithFixedDelay(this::beat, period, period, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    void beat() {
+        var progress = progressToken.get();
+        if (progress == lastProgress) {
+            log.atInfo().setMessage("No progress on work item {} since the last heartbeat; not renewing its lease")
+                .addArgument(workItemId).log();
+            return;
+        }
+        lastProgress = progress;
+        try {
+            var requestTime = clock.instant();
+            var newExpiration = workCoordinator.renewLease(workItemId, leaseDuration, contextSupplier);
+            var newTrigger = earlyTriggerForExpiration.apply(newExpiration);
+            if (leaseExpireTrigger.extendExpiration(workItemId, newTrigger)) {
+                log.atInfo().setMessage("Renewed lease on work item {} until {} ({} after request); trigger moved to {}")
+                    .addArgument(workItemId)
+                    .addArgument(newExpiration)
+                    .addArgument(() -> Duration.between(requestTime, newExpiration))
+                    .addArgument(newTrigger)
+                    .log();
+            } else {
+                scheduler.shutdown();
+            }
+        } catch (IWorkCoordinator.LeaseLockHeldElsewhereException e) {
+            log.atWarn().setMessage("Lease on work item {} is no longer held by this worker; stopping heartbeat")
+                .addArgument(workItemId).log();
+            scheduler.shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The existing expiration trigger still stands, so the worker checkpoints as it would without renewal
+            log.atWarn().setCause(e).setMessage("Could not renew lease on work item {}; stopping heartbeat")
+                .addArgument(workItemId).log();
+            scheduler.shutdown();
+        }
+    }
+
+    /** Whether renewals have stopped, because the lease was lost, a renewal failed or the heartbeat was closed. */
+    boolean isStopped() {
+        return scheduler.isShutdown();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
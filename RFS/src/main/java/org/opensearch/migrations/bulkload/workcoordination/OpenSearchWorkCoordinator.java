@@ -8,9 +8,12 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -91,6 +94,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     public static final String VERSION_CONFLICTS_FIELD_NAME = "version_conflicts";
     public static final String COMPLETED_AT_FIELD_NAME = "completedAt";
     public static final String INDEX_NAME_FIELD_NAME = "indexName";
+    public static final String SCHEDULING_RANK_FIELD_NAME = "schedulingRank";
     public static final String SOURCE_FIELD_NAME = "_source";
     public static final String SUCCESSOR_ITEMS_FIELD_NAME = "successor_items";
     public static final String SUCCESSOR_ITEM_DELIMITER = ",";
@@ -158,6 +162,9 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     private final Clock clock;
     private final Consumer<WorkItemAndDuration> workItemConsumer;
     private CompletionRetryConfig completionRetryConfig = CompletionRetryConfig.DEFAULT;
+    private WorkItemSchedulingPolicy schedulingPolicy = WorkItemSchedulingPolicy.NONE;
+    /** Ranks of the items this worker has acquired, so that their successors are scheduled like them */
+    private final Map<String, Long> schedulingRankByAcquiredItem = new ConcurrentHashMap<>();
 
     protected OpenSearchWorkCoordinator(
         AbstractedHttpClient httpClient,
@@ -194,6 +201,10 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         this.completionRetryConfig = config;
     }
 
+    void setSchedulingPolicy(WorkItemSchedulingPolicy schedulingPolicy) {
+        this.schedulingPolicy = schedulingPolicy;
+    }
+
     public static String getFinalIndexName(String indexNameAppendage) {
         return INDEX_BASENAME + Optional.ofNullable(indexNameAppendage)
             .filter(s->!s.isEmpty())
@@ -359,6 +370,17 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     AbstractedHttpClient.AbstractHttpResponse createOrUpdateLeaseForDocument(
         String workItemId,
         long expirationWindowSeconds
+    ) throws IOException {
+        return createOrUpdateLeaseForDocument(workItemId, expirationWindowSeconds, null);
+    }
+
+    /**
+     * @param schedulingRank stored on the document if this call creates it; null to leave it unranked
+     */
+    AbstractedHttpClient.AbstractHttpResponse createOrUpdateLeaseForDocument(
+        String workItemId,
+        long expirationWindowSeconds,
+        Long schedulingRank
     ) throws IOException {
         // Store the plaintext index name alongside the lease metadata so operators can audit
         // the work-coordination index without having to reverse the id encoding.  The id itself
@@ -382,6 +404,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
             + "  \"upsert\": {\n"
             + "    \"scriptVersion\": \"" + SCRIPT_VERSION_TEMPLATE + "\",\n"
             + indexNameField
+            + (schedulingRank == null ? "" : "    \"" + SCHEDULING_RANK_FIELD_NAME + "\": " + schedulingRank + ",\n")
             + "    \"" + EXPIRATION_FIELD_NAME + "\": 0,\n"
             + "    \"creatorId\": \"" + WORKER_ID_TEMPLATE + "\",\n"
             + "    \"nextAcquisitionLeaseExponent\": 0\n"
@@ -557,6 +580,23 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     public boolean createUnassignedWorkItem(
         String workItemId,
         Supplier<IWorkCoordinationContexts.ICreateUnassignedWorkItemContext> contextSupplier
+    ) throws IOException {
+        return createUnassignedWorkItemWithRank(workItemId, null, contextSupplier);
+    }
+
+    @Override
+    public boolean createUnassignedWorkItem(
+        String workItemId,
+        long schedulingRank,
+        Supplier<IWorkCoordinationContexts.ICreateUnassignedWorkItemContext> contextSupplier
+    ) throws IOException {
+        return createUnassignedWorkItemWithRank(workItemId, schedulingRank, contextSupplier);
+    }
+
+    private boolean createUnassignedWorkItemWithRank(
+        String workItemId,
+        Long schedulingRank,
+        Supplier<IWorkCoordinationContexts.ICreateUnassignedWorkItemContext> contextSupplier
     ) throws IOException {
         try (var ctx = contextSupplier.get()) {
             try {
@@ -564,7 +604,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
                     "createUnassignedWorkItem[" + workItemId + "]",
                     ctx,
                     () -> {
-                        var response = createOrUpdateLeaseForDocument(workItemId, 0);
+                        var response = createOrUpdateLeaseForDocument(workItemId, 0, schedulingRank);
                         return getResult(response) == DocumentModificationResult.CREATED;
                     }
                 );
@@ -635,6 +675,86 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         }
     }
 
+    @Override
+    public Instant renewLease(
+        String workItemId,
+        Duration leaseDuration,
+        Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier
+    ) throws IOException, InterruptedException {
+        try (var ctx = contextSupplier.get()) {
+            return retryWorkCoordinationUpdate(
+                "renewLease[" + workItemId + "]",
+                ctx,
+                () -> renewLeaseWithoutRetry(workItemId, leaseDuration)
+            );
+        }
+    }
+
+    private Instant renewLeaseWithoutRetry(String workItemId, Duration leaseDuration) throws IOException {
+        // Painless script:
+        //   - throws on scriptVersion mismatch or client/server clock drift, like lease acquisition
+        //   - no-op unless this worker holds an unexpired lease on an incomplete item, so a renewal
+        //     that races against expiry can never take the item back from a new owner
+        //   - otherwise moves the expiration forward (never backward); nextAcquisitionLeaseExponent
+        //     is left alone since the lease wasn't lost
+        final var renewLeaseBodyTemplate = "{\n"
+            + "  \"script\": {\n"
+            + "    \"lang\": \"painless\",\n"
+            + "    \"params\": { \n"
+            + "      \"clientTimestamp\": " + CLIENT_TIMESTAMP_TEMPLATE + ",\n"
+            + "      \"expirationWindow\": " + EXPIRATION_WINDOW_TEMPLATE + ",\n"
+            + "      \"workerId\": \"" + WORKER_ID_TEMPLATE + "\"\n"
+            + "    },\n"
+            + "    \"source\": \""
+            + "      if (ctx._source.scriptVersion != \\\"" + SCRIPT_VERSION_TEMPLATE + "\\\") {"
+            + "        throw new IllegalArgumentException(\\\"scriptVersion mismatch.  Not all participants are using the same script: sourceVersion=\\\" + ctx._source.scriptVersion);"
+            + "      }"
+            + "      long serverTimeSeconds = System.currentTimeMillis() / 1000;"
+            + "      if (Math.abs(params.clientTimestamp - serverTimeSeconds) > {CLOCK_DEVIATION_SECONDS_THRESHOLD}) {"
+            + "        throw new IllegalArgumentException(\\\"The current times indicated between the client and server are too different.\\\");"
+            + "      }"
+            + "      long newExpiration = params.clientTimestamp + params.expirationWindow;"
+            + "      if (ctx._source." + COMPLETED_AT_FIELD_NAME + " != null ||"
+            + "          ctx._source." + LEASE_HOLDER_ID_FIELD_NAME + " != params.workerId ||"
+            + "          ctx._source." + EXPIRATION_FIELD_NAME + " <= serverTimeSeconds) {"
+            + "        ctx.op = \\\"noop\\\";"
+            + "      } else if (ctx._source." + EXPIRATION_FIELD_NAME + " < newExpiration) {"
+            + "        ctx._source." + EXPIRATION_FIELD_NAME + " = newExpiration;"
+            + "      }"
+            + "\"\n"
+            + "  }\n"
+            + "}";
+
+        long clientTimestampSeconds = clock.instant().toEpochMilli() / 1000;
+        var body = renewLeaseBodyTemplate.replace(SCRIPT_VERSION_TEMPLATE, SCRIPT_VERSION)
+            .replace(WORKER_ID_TEMPLATE, workerId)
+            .replace(CLIENT_TIMESTAMP_TEMPLATE, Long.toString(clientTimestampSeconds))
+            .replace(EXPIRATION_WINDOW_TEMPLATE, Long.toString(leaseDuration.toSeconds()))
+            .replace(
+                CLOCK_DEVIATION_SECONDS_THRESHOLD_TEMPLATE,
+                Long.toString(tolerableClientServerClockDifferenceSeconds)
+            );
+
+        var response = httpClient.makeJsonRequest(
+            AbstractedHttpClient.POST_METHOD,
+            getPathForUpdates(workItemId),
+            null,
+            body
+        );
+        var result = getResult(response);
+        if (result == DocumentModificationResult.IGNORED) {
+            throw new LeaseLockHeldElsewhereException();
+        }
+        if (result != DocumentModificationResult.UPDATED) {
+            throw new IllegalStateException(
+                "Unexpected response renewing lease for workItemId: " + workItemId
+                    + ".  Response: " + response.toDiagnosticString()
+            );
+        }
+        // If the stored expiration was already later, the lease runs at least this long
+        return Instant.ofEpochSecond(clientTimestampSeconds + leaseDuration.toSeconds());
+    }
+
     private static <T> T retryWorkCoordinationUpdate(
         String operationName,
         IWorkCoordinationContexts.IRetryableActivityContext context,
@@ -899,11 +1019,13 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
      * @throws IOException if the request couldn't be made
      */
     UpdateResult assignOneWorkItem(long expirationWindowSeconds) throws IOException {
+        final var timestampEpochSeconds = clock.instant().toEpochMilli() / 1000;
+        final var selection = schedulingPolicy.isEnabled() ? selectSchedulingTier(timestampEpochSeconds) : null;
         // the random_score reduces the number of version conflicts from ~1200 for 40 concurrent requests
         // to acquire 40 units of work to around 800
         final var queryUpdateTemplate = "{\n"
             + "\"query\": {"
-            + "  \"function_score\": {\n" + QUERY_INCOMPLETE_EXPIRED_ITEMS_STR + ","
+            + "  \"function_score\": {\n" + incompleteExpiredItemsQuery(selection) + ","
             + "    \"random_score\": {},\n"
             + "    \"boost_mode\": \"replace\"\n" + // Try to avoid the workers fighting for the same work items
             "  }"
@@ -939,7 +1061,6 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
             +    // end of script block
             "}";
 
-        final var timestampEpochSeconds = clock.instant().toEpochMilli() / 1000;
         final var body = queryUpdateTemplate.replace(SCRIPT_VERSION_TEMPLATE, SCRIPT_VERSION)
             .replace(WORKER_ID_TEMPLATE, workerId)
             .replace(CLIENT_TIMESTAMP_TEMPLATE, Long.toString(timestampEpochSeconds))
@@ -970,6 +1091,10 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         } else if (resultTree.path(VERSION_CONFLICTS_FIELD_NAME).longValue() > 0) {
             return UpdateResult.VERSION_CONFLICT;
         } else if (resultTree.path("total").longValue() == 0) {
+            if (selection != null && selection.minimumRank() != null) {
+                // the items of that rank were taken since we looked; look again for the next rank down
+                return UpdateResult.VERSION_CONFLICT;
+            }
             return UpdateResult.NOTHING_TO_ACQUIRE;
         } else if (noops > 0) {
             throw new PotentialClockDriftDetectedException(
@@ -981,6 +1106,102 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         }
     }
 
+    /**
+     * Narrows {@link #QUERY_INCOMPLETE_EXPIRED_ITEMS_STR} to the items that the scheduling policy allows next.
+     */
+    private String incompleteExpiredItemsQuery(WorkItemSchedulingPolicy.Selection selection) throws IOException {
+        if (selection == null) {
+            return QUERY_INCOMPLETE_EXPIRED_ITEMS_STR;
+        }
+        return "    \"query\": {\n"
+            + "      \"bool\": {"
+            + "        \"must\": ["
+            + "          {"
+            + "            \"range\": {"
+            + "              \"" + EXPIRATION_FIELD_NAME + "\": { \"lt\": " + OLD_EXPIRATION_THRESHOLD_TEMPLATE + " }"
+            + "            }"
+            + "          }"
+            + (selection.minimumRank() == null ? "" :
+                "        , {"
+                + "          \"range\": {"
+                + "            \"" + SCHEDULING_RANK_FIELD_NAME + "\": { \"gte\": " + selection.minimumRank() + " }"
+                + "          }"
+                + "        }")
+            + "        ],"
+            + "        \"must_not\": ["
+            + "          { \"exists\":"
+            + "            { \"field\": \"" + COMPLETED_AT_FIELD_NAME + "\"}"
+            + "          }"
+            + (selection.excludedIndices().isEmpty() ? "" :
+                "        , {"
+                + "          \"terms\": { \"" + INDEX_NAME_FIELD_NAME + "\": "
+                + objectMapper.writeValueAsString(selection.excludedIndices()) + " }"
+                + "        }")
+            + "        ]"
+            + "      }"
+            + "    }";
+    }
+
+    /**
+     * Reads how many items each index has leased and the highest rank each still has available, and asks
+     * the scheduling policy what may be acquired.  Returns null, so that acquisition goes ahead unrestricted,
+     * if the coordination index can't answer (e.g. it was created before these fields were mapped).
+     */
+    private WorkItemSchedulingPolicy.Selection selectSchedulingTier(long nowEpochSeconds) throws IOException {
+        // bucket counts are bounded by the number of indices being migrated
+        final var byIndexTemplate = "\"byIndex\": { \"terms\": { \"field\": \"" + INDEX_NAME_FIELD_NAME + "\", \"size\": 10000 }";
+        final var body = "{\n"
+            + "  \"size\": 0,\n"
+            + "  \"aggs\": {\n"
+            + "    \"leased\": {\n"
+            + "      \"filter\": { \"bool\": {"
+            + "        \"must\": [ { \"range\": { \"" + EXPIRATION_FIELD_NAME + "\": { \"gte\": " + nowEpochSeconds + " } } } ],"
+            + "        \"must_not\": [ { \"exists\": { \"field\": \"" + COMPLETED_AT_FIELD_NAME + "\" } } ]"
+            + "      } },\n"
+            + "      \"aggs\": { " + byIndexTemplate + " } }\n"
+            + "    },\n"
+            + "    \"available\": {\n"
+            + "      \"filter\": { \"bool\": {"
+            + "        \"must\": [ { \"range\": { \"" + EXPIRATION_FIELD_NAME + "\": { \"lt\": " + nowEpochSeconds + " } } } ],"
+            + "        \"must_not\": [ { \"exists\": { \"field\": \"" + COMPLETED_AT_FIELD_NAME + "\" } } ]"
+            + "      } },\n"
+            + "      \"aggs\": { " + byIndexTemplate + ","
+            + "        \"aggs\": { \"topRank\": { \"max\": { \"field\": \"" + SCHEDULING_RANK_FIELD_NAME + "\" } } } } }\n"
+            + "    }\n"
+            + "  }\n"
+            + "}";
+        var response = httpClient.makeJsonRequest(
+            AbstractedHttpClient.POST_METHOD,
+            getPathForSearches(),
+            null,
+            body
+        );
+        if (response.getStatusCode() >= 400) {
+            log.atWarn().setMessage("Couldn't read work item state for scheduling; acquiring without the scheduling policy: {}")
+                .addArgument(response::toDiagnosticString).log();
+            return null;
+        }
+        var aggregations = objectMapper.readTree(response.getPayloadBytes()).path("aggregations");
+        var leasedItemsByIndex = new HashMap<String, Long>();
+        aggregations.path("leased").path("byIndex").path("buckets").forEach(bucket ->
+            leasedItemsByIndex.put(bucket.path("key").asText(), bucket.path("doc_count").longValue()));
+        var topAvailableRankByIndex = new HashMap<String, Long>();
+        aggregations.path("available").path("byIndex").path("buckets").forEach(bucket -> {
+            // null when none of the index's available items has a rank
+            var topRank = bucket.path("topRank").path("value");
+            if (topRank.isNumber()) {
+                topAvailableRankByIndex.put(bucket.path("key").asText(), topRank.longValue());
+            }
+        });
+        var selection = schedulingPolicy.select(leasedItemsByIndex, topAvailableRankByIndex);
+        log.atDebug().setMessage("Scheduling selection {} from leased items {} and top available ranks {}")
+            .addArgument(selection)
+            .addArgument(leasedItemsByIndex)
+            .addArgument(topAvailableRankByIndex)
+            .log();
+        return selection;
+    }
+
     private WorkItemWithPotentialSuccessors getAssignedWorkItemUnsafe()
         throws IOException, AssignedWorkDocumentNotFoundException, MalformedAssignedWorkDocumentException {
         final var queryWorkersAssignedItemsTemplate = "{\n"
@@ -1032,6 +1253,10 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
 
         var responseDoc = resultHitInner.get(SOURCE_FIELD_NAME);
         var successorItems = getSuccessorItemsIfPresent(responseDoc);
+        if (responseDoc.has(SCHEDULING_RANK_FIELD_NAME)) {
+            schedulingRankByAcquiredItem.put(resultHitInner.get("_id").asText(),
+                responseDoc.get(SCHEDULING_RANK_FIELD_NAME).longValue());
+        }
         var rval = new WorkItemWithPotentialSuccessors(resultHitInner.get("_id").asText(), Instant.ofEpochMilli(1000 * expiration), successorItems);
         log.atInfo().setMessage("Returning work item and lease: {}").addArgument(rval).log();
         return rval;
@@ -1146,15 +1371,18 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     // API which creates a document only if the specified ID doesn't yet exist. It is distinct from createUnassignedWorkItem
     // because it is an expected outcome of this function that sometimes the work item is already created. That function
     // uses `createOrUpdateLease`, whereas this function deliberately never modifies an already-existing work item.
-    private void createUnassignedWorkItemsIfNonexistent(List<String> workItemIds, int nextAcquisitionLeaseExponent) throws IOException, IllegalStateException {
+    private void createUnassignedWorkItemsIfNonexistent(String parentWorkItemId, List<String> workItemIds, int nextAcquisitionLeaseExponent) throws IOException, IllegalStateException {
+        // successors hold the rest of their parent's work, so they're scheduled as their parent was
+        var parentRank = schedulingRankByAcquiredItem.get(parentWorkItemId);
         String workItemBodyTemplate = "{\"nextAcquisitionLeaseExponent\":" + nextAcquisitionLeaseExponent + ", \"scriptVersion\":\"" + SCRIPT_VERSION_TEMPLATE + "\", " +
+            (parentRank == null ? "" : "\"" + SCHEDULING_RANK_FIELD_NAME + "\":" + parentRank + ", ") +
             "\"creatorId\":\"" + WORKER_ID_TEMPLATE + "\", \"" + EXPIRATION_FIELD_NAME + "\":0 }";
         String workItemBody = workItemBodyTemplate.replace(SCRIPT_VERSION_TEMPLATE, SCRIPT_VERSION).replace(WORKER_ID_TEMPLATE, workerId);
 
         StringBuilder body = new StringBuilder();
         for (var workItemId : workItemIds) {
             body.append("{\"create\":{\"_id\":\"").append(workItemId).append("\"}}\n");
-            body.append(workItemBody).append("\n");
+            body.append(withIndexNameField(workItemId, workItemBody)).append("\n");
         }
         log.atInfo().setMessage("Calling createUnassignedWorkItemsIfNonexistent with workItemIds {}")
                 .addArgument(String.join(", ", workItemIds)).log();
@@ -1202,6 +1430,23 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
 
     }
 
+    /**
+     * Adds the plaintext index name to a successor's document, as {@link #createOrUpdateLeaseForDocument} does,
+     * so that per-index scheduling sees successors too.
+     */
+    private String withIndexNameField(String workItemId, String workItemBody) throws IOException {
+        try {
+            var parsed = IWorkCoordinator.WorkItemAndDuration.WorkItem.valueFromWorkItemString(workItemId);
+            if (parsed.getShardNumber() != null) {
+                return "{\"" + INDEX_NAME_FIELD_NAME + "\":" + objectMapper.writeValueAsString(parsed.getIndexName())
+                    + ", " + workItemBody.substring(1);
+            }
+        } catch (IllegalArgumentException e) {
+            // not a decodable work-item id; leave the body as it is
+        }
+        return workItemBody;
+    }
+
     @Override
     public void createSuccessorWorkItemsAndMarkComplete(
             String workItemId,
@@ -1238,7 +1483,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
                     e -> ctx.addTraceException(e, true)
             );
             retryWithExponentialBackoff(
-                    () -> createUnassignedWorkItemsIfNonexistent(successorWorkItemIds, successorNextAcquisitionLeaseExponent),
+                    () -> createUnassignedWorkItemsIfNonexistent(workItemId, successorWorkItemIds, successorNextAcquisitionLeaseExponent),
                     MAX_CREATE_UNASSIGNED_SUCCESSOR_WORK_ITEM_RETRIES,
                     CREATE_SUCCESSOR_WORK_ITEMS_RETRY_BASE_MS,
                     Long.MAX_VALUE,
@@ -1,6 +1,7 @@
 package org.opensearch.migrations.bulkload.workcoordination;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.function.Supplier;
@@ -16,10 +17,44 @@ public class ScopedWorkCoordinator {
 
     public final IWorkCoordinator workCoordinator;
     final LeaseExpireTrigger leaseExpireTrigger;
+    private final Supplier<?> progressToken;
+    private final Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> renewalContextSupplier;
 
     public ScopedWorkCoordinator(IWorkCoordinator workCoordinator, LeaseExpireTrigger leaseExpireTrigger) {
+        this(workCoordinator, leaseExpireTrigger, null, null);
+    }
+
+    private ScopedWorkCoordinator(
+        IWorkCoordinator workCoordinator,
+        LeaseExpireTrigger leaseExpireTrigger,
+        Supplier<?> progressToken,
+        Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> renewalContextSupplier
+    ) {
         this.workCoordinator = workCoordinator;
         this.leaseExpireTrigger = leaseExpireTrigger;
+        this.progressToken = progressToken;
+        this.renewalContextSupplier = renewalContextSupplier;
+    }
+
+    /**
+     * Returns a coordinator that keeps renewing the lease on an acquired work item (see {@link LeaseHeartbeat})
+     * while {@code progressToken} keeps changing, instead of letting the early trigger fire at the end of the
+     * originally acquired lease.
+     */
+    public ScopedWorkCoordinator withLeaseRenewal(
+        Supplier<?> progressToken,
+        Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> renewalContextSupplier
+    ) {
+        return new ScopedWorkCoordinator(workCoordinator, leaseExpireTrigger, progressToken, renewalContextSupplier);
+    }
+
+    /** When to fire the timeout callback before hard expiry: max(lease*0.75, lease-4.5min) into the lease. */
+    static Instant earlyTriggerTime(Instant leaseStart, Instant leaseExpiration) {
+        var leaseDuration = Duration.between(leaseStart, leaseExpiration);
+        var threeQuarters = leaseDuration.multipliedBy(3).dividedBy(4);
+        var minusMargin = leaseDuration.minus(Duration.ofMinutes(4).plusSeconds(30));
+        var earlyTriggerOffset = threeQuarters.compareTo(minusMargin) > 0 ? threeQuarters : minusMargin;
+        return leaseStart.plus(earlyTriggerOffset.isNegative() ? Duration.ZERO : earlyTriggerOffset);
     }
 
     public interface WorkItemGetter {
@@ -53,17 +88,22 @@ public class ScopedWorkCoordinator {
                 log.info("Acquired work item: {} with lease expiration at {}", workItemId, workItem.leaseExpirationTime);
                 var acquisitionTime = Instant.now();
                 var leaseDuration = Duration.between(acquisitionTime, workItem.leaseExpirationTime);
-                // Fire timeout callback before hard expiry: max(lease*0.75, lease-4.5min).
-                var earlyTriggerOffset = leaseDuration.multipliedBy(3).dividedBy(4)
-                    .compareTo(leaseDuration.minus(Duration.ofMinutes(4).plusSeconds(30))) > 0
-                    ? leaseDuration.multipliedBy(3).dividedBy(4)
-                    : leaseDuration.minus(Duration.ofMinutes(4).plusSeconds(30));
-                var earlyTriggerTime = acquisitionTime.plus(earlyTriggerOffset.isNegative() ? Duration.ZERO : earlyTriggerOffset);
-                log.info("Scheduling early checkpoint trigger at {} ({}s into lease)", earlyTriggerTime, earlyTriggerOffset.toSeconds());
+                var earlyTriggerTime = earlyTriggerTime(acquisitionTime, workItem.leaseExpirationTime);
+                log.info("Scheduling early checkpoint trigger at {} ({}s into lease)", earlyTriggerTime,
+                    Duration.between(acquisitionTime, earlyTriggerTime).toSeconds());
                 leaseExpireTrigger.registerExpiration(workItemId, earlyTriggerTime);
+                var heartbeat = startHeartbeat(workItemId, leaseDuration);
                 long startTime = System.currentTimeMillis();
                 try {
-                    T result = visitor.onAcquiredWork(workItem);
+                    T result;
+                    try {
+                        result = visitor.onAcquiredWork(workItem);
+                    } finally {
+                        // No renewal may race with completion (or with a checkpoint's lease handoff)
+                        if (heartbeat != null) {
+                            heartbeat.close();
+                        }
+                    }
                     long duration = System.currentTimeMillis() - startTime;
                     log.info("Finished onAcquiredWork for work item: {} in {} ms", workItemId, duration);
                     workCoordinator.completeWorkItem(workItemId, contextSupplier);
@@ -77,4 +117,21 @@ public class ScopedWorkCoordinator {
             }
         });
     }
+
+    private LeaseHeartbeat startHeartbeat(String workItemId, Duration leaseDuration) {
+        if (progressToken == null || leaseDuration.isNegative() || leaseDuration.isZero()) {
+            return null;
+        }
+        return new LeaseHeartbeat(
+            workCoordinator,
+            leaseExpireTrigger,
+            workItemId,
+            leaseDuration,
+            progressToken,
+            renewalContextSupplier,
+            // each renewal is a fresh lease of leaseDuration that ends at newExpiration
+            newExpiration -> earlyTriggerTime(newExpiration.minus(leaseDuration), newExpiration),
+            Clock.systemUTC()
+        ).start();
+    }
 }
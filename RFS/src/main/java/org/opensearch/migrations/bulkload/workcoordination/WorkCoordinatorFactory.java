@@ -16,6 +16,7 @@ public class WorkCoordinatorFactory {
     private final Version version;
     private final String indexNameSuffix;
     private final OpenSearchWorkCoordinator.CompletionRetryConfig completionRetryConfig;
+    private final WorkItemSchedulingPolicy schedulingPolicy;
 
     public WorkCoordinatorFactory(Version version) {
         this(version, "", OpenSearchWorkCoordinator.CompletionRetryConfig.DEFAULT);
@@ -27,9 +28,16 @@ public class WorkCoordinatorFactory {
 
     public WorkCoordinatorFactory(Version version, String indexNameSuffix,
                                   OpenSearchWorkCoordinator.CompletionRetryConfig completionRetryConfig) {
+        this(version, indexNameSuffix, completionRetryConfig, WorkItemSchedulingPolicy.NONE);
+    }
+
+    public WorkCoordinatorFactory(Version version, String indexNameSuffix,
+                                  OpenSearchWorkCoordinator.CompletionRetryConfig completionRetryConfig,
+                                  WorkItemSchedulingPolicy schedulingPolicy) {
         this.version = version;
         this.indexNameSuffix = indexNameSuffix;
         this.completionRetryConfig = completionRetryConfig;
+        this.schedulingPolicy = schedulingPolicy;
     }
 
     public OpenSearchWorkCoordinator get(
@@ -52,6 +60,7 @@ public class WorkCoordinatorFactory {
 
     private OpenSearchWorkCoordinator applyConfig(OpenSearchWorkCoordinator coordinator) {
         coordinator.setCompletionRetryConfig(completionRetryConfig);
+        coordinator.setSchedulingPolicy(schedulingPolicy);
         return coordinator;
     }
 
@@ -0,0 +1,112 @@
+package org.opensearch.migrations.bulkload.workcoordination;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+/**
+ * Decides the order in which workers pick up document work items across indices.
+ * <p>
+ * Each work item is given a {@code schedulingRank} when it is created and workers acquire from
+ * the highest rank that is still available.  The rank combines
+ * <ul>
+ *   <li>a priority class: index-name patterns ({@code *} wildcards) listed from most to least
+ *   important, with indices matching none of them coming last, and</li>
+ *   <li>within a class, the size of the item's shard as a power-of-two bucket, so that the largest
+ *   shards start first (longest-processing-time-first).  A big shard picked up last would otherwise
+ *   leave one worker running long after the rest have nothing to do.</li>
+ * </ul>
+ * Items of the same rank are still picked at random, as without a policy, so that workers don't all
+ * contend for the same document.  An index can also be capped at a number of items leased at once,
+ * so that a single index with many shards doesn't take every worker (and all of one target index's
+ * indexing capacity) while others wait.  The cap is checked just before acquisition and is not
+ * transactional: two workers racing for the last slot may both get it.
+ */
+public class WorkItemSchedulingPolicy {
+    public static final WorkItemSchedulingPolicy NONE = new WorkItemSchedulingPolicy(List.of(), false, 0);
+
+    /** One size bucket per bit of a {@code long} byte count. */
+    static final int SIZE_BUCKETS = 64;
+
+    private final List<Pattern> priorityClasses;
+    @Getter
+    private final boolean largestFirst;
+    @Getter
+    private final int maxLeasedItemsPerIndex;
+
+    /**
+     * @param priorityClassPatterns  index-name patterns, most important first; {@code *} matches any run of characters
+     * @param largestFirst           order items of one priority class by decreasing shard size
+     * @param maxLeasedItemsPerIndex how many of an index's items may be leased at once, 0 for no limit
+     */
+    public WorkItemSchedulingPolicy(List<String> priorityClassPatterns, boolean largestFirst, int maxLeasedItemsPerIndex) {
+        if (maxLeasedItemsPerIndex < 0) {
+            throw new IllegalArgumentException("maxLeasedItemsPerIndex must be >= 0, got " + maxLeasedItemsPerIndex);
+        }
+        this.priorityClasses = priorityClassPatterns.stream().map(WorkItemSchedulingPolicy::globToPattern).toList();
+        this.largestFirst = largestFirst;
+        this.maxLeasedItemsPerIndex = maxLeasedItemsPerIndex;
+    }
+
+    private static Pattern globToPattern(String glob) {
+        return Pattern.compile(Arrays.stream(glob.split("\\*", -1))
+            .map(Pattern::quote)
+            .collect(Collectors.joining(".*")));
+    }
+
+    /** True if work items should carry a rank and be acquired by it. */
+    public boolean isEnabled() {
+        return !priorityClasses.isEmpty() || largestFirst || maxLeasedItemsPerIndex > 0;
+    }
+
+    /** 0 for indices that match no pattern, up to the number of patterns for those that match the first. */
+    int priorityClass(String indexName) {
+        for (int i = 0; i < priorityClasses.size(); i++) {
+            if (priorityClasses.get(i).matcher(indexName).matches()) {
+                return priorityClasses.size() - i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param sizeBytes the size of the item's source data, or a negative value if it isn't known
+     * @return the rank to store on the work item; items with a higher rank are acquired first
+     */
+    public long rank(String indexName, long sizeBytes) {
+        int sizeBucket = largestFirst && sizeBytes > 0 ? SIZE_BUCKETS - Long.numberOfLeadingZeros(sizeBytes) : 0;
+        return (long) priorityClass(indexName) * SIZE_BUCKETS + sizeBucket;
+    }
+
+    /**
+     * What a worker may acquire next.
+     *
+     * @param minimumRank     only items of at least this rank, or null for any item
+     * @param excludedIndices indices whose items must not be acquired because they are at their cap
+     */
+    public record Selection(Long minimumRank, Set<String> excludedIndices) {}
+
+    /**
+     * @param leasedItemsByIndex      how many unexpired, incomplete items each index has leased
+     * @param topAvailableRankByIndex the highest rank among each index's acquirable items
+     */
+    public Selection select(Map<String, Long> leasedItemsByIndex, Map<String, Long> topAvailableRankByIndex) {
+        var excluded = maxLeasedItemsPerIndex <= 0
+            ? Set.<String>of()
+            : leasedItemsByIndex.entrySet().stream()
+                .filter(e -> e.getValue() >= maxLeasedItemsPerIndex)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toUnmodifiableSet());
+        var minimumRank = topAvailableRankByIndex.entrySet().stream()
+            .filter(e -> !excluded.contains(e.getKey()))
+            .map(Map.Entry::getValue)
+            .max(Long::compare)
+            .orElse(null);
+        return new Selection(minimumRank, excluded);
+    }
+}
@@ -2,13 +2,17 @@ package org.opensearch.migrations.bulkload.worker;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.IntStream;
 
 import org.opensearch.migrations.bulkload.common.FilterScheme;
+import org.opensearch.migrations.bulkload.pipeline.adapter.EsSegmentRangePartition;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
 import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
 import org.opensearch.migrations.bulkload.workcoordination.IWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.ScopedWorkCoordinator;
+import org.opensearch.migrations.bulkload.workcoordination.WorkItemSchedulingPolicy;
 import org.opensearch.migrations.reindexer.tracing.IDocumentMigrationContexts;
 import org.opensearch.migrations.reindexer.tracing.IRootDocumentMigrationContext;
 
@@ -26,6 +30,45 @@ public class ShardWorkPreparer {
 
     public static final String SHARD_SETUP_WORK_ITEM_ID = "shard_setup";
 
+    /**
+     * Shards larger than this are split into segment-range work items of about this size, so that
+     * several workers can migrate one shard side by side.  0 disables splitting.
+     */
+    private final long subShardSplitBytes;
+
+    /** Called once every selected index's shards are listed, before any work item is created. */
+    private final ShardsListedListener shardsListedListener;
+
+    /** Ranks each work item, by its index and size, when the policy is enabled. */
+    private final WorkItemSchedulingPolicy schedulingPolicy;
+
+    @FunctionalInterface
+    public interface ShardsListedListener {
+        void onShardsListed(List<String> indexNames) throws IOException;
+    }
+
+    public ShardWorkPreparer() {
+        this(0);
+    }
+
+    public ShardWorkPreparer(long subShardSplitBytes) {
+        this(subShardSplitBytes, indexNames -> {});
+    }
+
+    public ShardWorkPreparer(long subShardSplitBytes, ShardsListedListener shardsListedListener) {
+        this(subShardSplitBytes, shardsListedListener, WorkItemSchedulingPolicy.NONE);
+    }
+
+    public ShardWorkPreparer(
+        long subShardSplitBytes,
+        ShardsListedListener shardsListedListener,
+        WorkItemSchedulingPolicy schedulingPolicy
+    ) {
+        this.subShardSplitBytes = subShardSplitBytes;
+        this.shardsListedListener = shardsListedListener;
+        this.schedulingPolicy = schedulingPolicy;
+    }
+
     public void run(
         ScopedWorkCoordinator scopedWorkCoordinator,
         DocumentSource documentSource,
@@ -87,7 +130,7 @@ public class ShardWorkPreparer {
     }
 
     @SneakyThrows
-    private static void prepareShardWorkItems(
+    private void prepareShardWorkItems(
         IWorkCoordinator workCoordinator,
         DocumentSource documentSource,
         List<String> indexAllowlist,
@@ -101,6 +144,7 @@ public class ShardWorkPreparer {
         if (collections.isEmpty()) {
             log.atWarn().setMessage("After filtering the snapshot no indices were found.").log();
         }
+        var partitionsByIndex = new LinkedHashMap<String, List<Partition>>();
         collections
             .stream()
             .filter(indexName -> {
@@ -114,8 +158,12 @@ public class ShardWorkPreparer {
                 }
                 return accepted;
             })
-            .forEach(indexName -> {
-                var partitions = documentSource.listPartitions(indexName);
+            .forEach(indexName -> partitionsByIndex.put(indexName, documentSource.listPartitions(indexName)));
+        // e.g. to save the shard metadata that was just read, before any worker can go looking for it
+        shardsListedListener.onShardsListed(List.copyOf(partitionsByIndex.keySet()));
+
+        partitionsByIndex
+            .forEach((indexName, partitions) -> {
                 var shardCount = partitions.size();
                 log.atInfo()
                     .setMessage("Index {} has {} shards")
@@ -123,18 +171,33 @@ public class ShardWorkPreparer {
                     .addArgument(shardCount)
                     .log();
                 IntStream.range(0, shardCount).forEach(shardId -> {
-                    log.atInfo()
-                        .setMessage("Creating Documents Work Item for index: {}, shard: {}")
-                        .addArgument(indexName)
-                        .addArgument(shardId)
-                        .log();
-                    try (var shardSetupContext = context.createShardWorkItemContext()) {
-                        workCoordinator.createUnassignedWorkItem(
-                            new IWorkCoordinator.WorkItemAndDuration.WorkItem(indexName, shardId, 0L).toString(),
-                            shardSetupContext::createUnassignedWorkItemContext
-                        );
-                    } catch (IOException e) {
-                        throw Lombok.sneakyThrow(e);
+                    for (var shardWorkItem : workItemsForShard(documentSource, partitions.get(shardId), indexName, shardId)) {
+                        var workItem = shardWorkItem.workItem();
+                        log.atInfo()
+                            .setMessage("Creating Documents Work Item for index: {}, shard: {}{}")
+                            .addArgument(indexName)
+                            .addArgument(shardId)
+                            .addArgument(() -> workItem.hasSegmentRange()
+                                ? ", segments: " + workItem.getFirstSegment() + ".." + workItem.getLastSegment()
+                                : "")
+                            .log();
+                        try (var shardSetupContext = context.createShardWorkItemContext()) {
+                            if (schedulingPolicy.isEnabled()) {
+                                var sizeBytes = documentSource.partitionSizeBytes(shardWorkItem.partition());
+                                workCoordinator.createUnassignedWorkItem(
+                                    workItem.toString(),
+                                    schedulingPolicy.rank(indexName, sizeBytes),
+                                    shardSetupContext::createUnassignedWorkItemContext
+                                );
+                            } else {
+                                workCoordinator.createUnassignedWorkItem(
+                                    workItem.toString(),
+                                    shardSetupContext::createUnassignedWorkItemContext
+                                );
+                            }
+                        } catch (IOException e) {
+                            throw Lombok.sneakyThrow(e);
+                        }
                     }
                 });
             });
@@ -143,4 +206,33 @@ public class ShardWorkPreparer {
             .setMessage("Finished setting up the Documents Work Items.")
             .log();
     }
+
+    private record ShardWorkItem(IWorkCoordinator.WorkItemAndDuration.WorkItem workItem, Partition partition) {}
+
+    /** One work item for the whole shard, or one per segment range when the source splits it. */
+    private List<ShardWorkItem> workItemsForShard(
+        DocumentSource documentSource,
+        Partition partition,
+        String indexName,
+        int shardId
+    ) {
+        var wholeShard = List.of(new ShardWorkItem(
+            new IWorkCoordinator.WorkItemAndDuration.WorkItem(indexName, shardId, 0L), partition));
+        if (subShardSplitBytes <= 0) {
+            return wholeShard;
+        }
+        var subPartitions = documentSource.splitPartition(partition, subShardSplitBytes);
+        if (subPartitions.size() <= 1) {
+            return wholeShard;
+        }
+        return subPartitions.stream()
+            .map(p -> {
+                if (!(p instanceof EsSegmentRangePartition range)) {
+                    throw new IllegalStateException("Unsupported sub-shard partition type: " + p.getClass().getName());
+                }
+                return new ShardWorkItem(new IWorkCoordinator.WorkItemAndDuration.WorkItem(
+                    indexName, shardId, 0L, range.firstSegment(), range.lastSegment()), p);
+            })
+            .toList();
+    }
 }
@@ -1,9 +1,11 @@
 package org.opensearch.migrations.parsing;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.opensearch.migrations.BulkDocErrorTypes;
 import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
@@ -22,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 public class BulkResponseParser {
     private static final JsonFactory jsonFactory = new JsonFactory();
     private static final String ITEMS_FIELD = "items";
+    private static final String ERRORS_FIELD = "errors";
     private static final String MALFORMED_RESPONSE_ITEM = "malformed_response_item";
 
     /**
@@ -266,6 +269,19 @@ public class BulkResponseParser {
      *         (caller should fall back to retrying all docs).
      */
     public static ItemPartition partitionItems(String bulkResponse, DocumentExceptionAllowlist allowlist) {
+        return bulkResponse == null ? null
+            : partitionItems(bulkResponse.getBytes(StandardCharsets.UTF_8), allowlist);
+    }
+
+    /**
+     * {@link #partitionItems(String, DocumentExceptionAllowlist)} over the raw response bytes, in a
+     * single pass: each item is classified as it streams by, and only failed items are sliced out
+     * of {@code bulkResponse} (verbatim, by byte offset) for their {@code responseItemJson}.
+     */
+    public static ItemPartition partitionItems(byte[] bulkResponse, DocumentExceptionAllowlist allowlist) {
+        if (bulkResponse == null) {
+            return null;
+        }
         var partition = ItemPartition.builder();
         boolean foundItems = false;
         try (var parser = jsonFactory.createParser(bulkResponse)) {
@@ -274,7 +290,7 @@ public class BulkResponseParser {
             }
             while (parser.nextToken() != JsonToken.END_OBJECT) {
                 if (ITEMS_FIELD.equals(parser.currentName())) {
-                    scanItemsPartitioned(parser, partition, allowlist);
+                    scanItemsPartitioned(parser, bulkResponse, partition, allowlist);
                     foundItems = true;
                 } else {
                     parser.skipChildren();
@@ -290,8 +306,39 @@ public class BulkResponseParser {
         return partition.build();
     }
 
+    /**
+     * Reads a bulk response only as far as its top-level {@code "errors"} field. The cluster writes
+     * that field ahead of {@code items}, so when it is {@code false} the item array is never
+     * tokenized at all.
+     *
+     * @return the value of {@code errors}; {@code false} when the body is empty, isn't a JSON object
+     *         or has no {@code errors} field, as the text scan this replaces did
+     */
+    public static boolean hasErrors(byte[] bulkResponse) {
+        if (bulkResponse == null || bulkResponse.length == 0) {
+            return false;
+        }
+        try (var parser = jsonFactory.createParser(bulkResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var fieldName = parser.currentName();
+                var value = parser.nextToken();
+                if (ERRORS_FIELD.equals(fieldName)) {
+                    return value == JsonToken.VALUE_TRUE;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read the errors field of a bulk response", e);
+        }
+        return false;
+    }
+
     private static void scanItemsPartitioned(
         JsonParser parser,
+        byte[] bulkResponse,
         ItemPartition.ItemPartitionBuilder partition,
         DocumentExceptionAllowlist allowlist
     ) throws IOException {
@@ -300,40 +347,51 @@ public class BulkResponseParser {
         }
         int position = 0;
         while (parser.nextToken() != JsonToken.END_ARRAY) {
-            if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
                 continue;
             }
-            classifyItemFromRaw(copyCurrentStructure(parser), position, partition, allowlist);
+            int itemStart = (int) parser.currentTokenLocation().getByteOffset();
+            var parsed = readItem(parser);
+            int itemEnd = (int) parser.currentLocation().getByteOffset();
+            classifyParsed(parsed,
+                () -> new String(bulkResponse, itemStart, itemEnd - itemStart, StandardCharsets.UTF_8),
+                position, partition, allowlist);
             position++;
         }
     }
 
-    private static String copyCurrentStructure(JsonParser parser) throws IOException {
-        var sw = new java.io.StringWriter();
-        try (var gen = jsonFactory.createGenerator(sw)) {
-            gen.copyCurrentStructure(parser);
+    /**
+     * Reads one {@code {"<action>": {...}}} item, leaving the parser on the item's closing brace.
+     *
+     * @return the action's fields, or {@code null} if the item doesn't have that shape
+     */
+    private static DocInfo readItem(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.FIELD_NAME) {
+            return null;
         }
-        return sw.toString();
-    }
-
-    private static void classifyItemFromRaw(
-        String rawJson,
-        int position,
-        ItemPartition.ItemPartitionBuilder partition,
-        DocumentExceptionAllowlist allowlist
-    ) throws IOException {
-        classifyParsed(parseItemFields(rawJson), rawJson, position, partition, allowlist);
+        DocInfo parsed = null;
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            parsed = extractDocInfo(parser);
+        } else {
+            parser.skipChildren();
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return parsed;
     }
 
     private static void classifyParsed(
         DocInfo parsed,
-        String rawJson,
+        Supplier<String> rawJson,
         int position,
         ItemPartition.ItemPartitionBuilder partition,
         DocumentExceptionAllowlist allowlist
     ) {
         if (parsed == null) {
-            partition.retryableFailure(new ItemFailure(position, null, MALFORMED_RESPONSE_ITEM, rawJson));
+            partition.retryableFailure(new ItemFailure(position, null, MALFORMED_RESPONSE_ITEM, rawJson.get()));
             return;
         }
         if (parsed.getResult() != null
@@ -342,20 +400,11 @@ public class BulkResponseParser {
             return;
         }
         if (parsed.getErrorType() != null && BulkDocErrorTypes.NON_RETRYABLE.contains(parsed.getErrorType())) {
-            partition.nonRetryableFailure(new ItemFailure(position, parsed.getId(), parsed.getErrorType(), rawJson));
+            partition.nonRetryableFailure(
+                new ItemFailure(position, parsed.getId(), parsed.getErrorType(), rawJson.get()));
         } else {
-            partition.retryableFailure(new ItemFailure(position, parsed.getId(), parsed.getErrorType(), rawJson));
-        }
-    }
-
-    private static DocInfo parseItemFields(String rawJson) throws IOException {
-        try (var p = jsonFactory.createParser(rawJson)) {
-            if (p.nextToken() != JsonToken.START_OBJECT
-                || p.nextToken() != JsonToken.FIELD_NAME
-                || p.nextToken() != JsonToken.START_OBJECT) {
-                return null;
-            }
-            return extractDocInfo(p);
+            partition.retryableFailure(
+                new ItemFailure(position, parsed.getId(), parsed.getErrorType(), rawJson.get()));
         }
     }
 
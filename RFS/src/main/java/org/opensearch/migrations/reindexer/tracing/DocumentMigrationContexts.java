@@ -9,6 +9,8 @@ import org.opensearch.migrations.tracing.BaseSpanContext;
 import org.opensearch.migrations.tracing.CommonScopedMetricInstruments;
 import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
@@ -123,6 +125,9 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
 
     class DocumentReindexContext extends BaseDocumentMigrationContext implements IDocumentReindexContext {
 
+        public static final AttributeKey<String> PIPELINE_STAGE_ATTR = AttributeKey.stringKey("pipelineStage");
+        public static final AttributeKey<String> PIPELINE_BUFFER_ATTR = AttributeKey.stringKey("pipelineBuffer");
+
         protected DocumentReindexContext(RootDocumentMigrationContext rootScope) {
             super(rootScope);
             initializeSpan(rootScope);
@@ -143,6 +148,8 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
             public final LongCounter docsMigrated;
             public final LongCounter bytesMigrated;
             public final LongCounter pipelineErrors;
+            public final DoubleHistogram stageDuration;
+            public final DoubleHistogram bufferOccupancy;
 
             private MetricInstruments(Meter meter, String activityName) {
                 super(meter, fromActivityName(activityName));
@@ -150,6 +157,8 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
                 docsMigrated = meter.counterBuilder(MetricNames.DOCS_MIGRATED).setUnit("count").build();
                 bytesMigrated = meter.counterBuilder(MetricNames.BYTES_MIGRATED).setUnit("bytes").build();
                 pipelineErrors = meter.counterBuilder(MetricNames.PIPELINE_ERRORS).setUnit("count").build();
+                stageDuration = meter.histogramBuilder(MetricNames.STAGE_DURATION).setUnit("ms").build();
+                bufferOccupancy = meter.histogramBuilder(MetricNames.BUFFER_OCCUPANCY).setUnit("count").build();
             }
         }
 
@@ -184,6 +193,21 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
             meterIncrementEvent(getMetrics().pipelineErrors);
         }
 
+        @Override
+        public void recordStageDuration(String stage, long nanos) {
+            meterHistogram(getMetrics().stageDuration, nanos / 1_000_000.0,
+                Attributes.builder().put(PIPELINE_STAGE_ATTR, stage));
+        }
+
+        @Override
+        public void recordBufferOccupancy(long bufferedDocs, int activeBatches, int unorderedBatches) {
+            var histogram = getMetrics().bufferOccupancy;
+            meterHistogram(histogram, bufferedDocs, Attributes.builder().put(PIPELINE_BUFFER_ATTR, "bufferedDocs"));
+            meterHistogram(histogram, activeBatches, Attributes.builder().put(PIPELINE_BUFFER_ATTR, "activeBatches"));
+            meterHistogram(histogram, unorderedBatches,
+                Attributes.builder().put(PIPELINE_BUFFER_ATTR, "unorderedBatches"));
+        }
+
         @Override
         public IRfsContexts.IRequestContext createBulkRequest() {
             return new RfsContexts.GenericRequestContext(
@@ -21,6 +21,8 @@ public interface IDocumentMigrationContexts {
         public static final String DOCS_MIGRATED = "pipelineDocsMigrated";
         public static final String BYTES_MIGRATED = "pipelineBytesMigrated";
         public static final String PIPELINE_ERRORS = "pipelineErrors";
+        public static final String STAGE_DURATION = "pipelineStageDuration";
+        public static final String BUFFER_OCCUPANCY = "pipelineBufferOccupancy";
     }
 
     interface IShardSetupAttemptContext extends IScopedInstrumentationAttributes {
@@ -60,5 +62,10 @@ public interface IDocumentMigrationContexts {
 
         void recordPipelineError();
 
+        /** One batch's (or one bulk attempt's) time in a {@code PipelineStageMetrics.Stage}. */
+        void recordStageDuration(String stage, long nanos);
+
+        /** How full the pipeline's buffers were as a batch started writing. */
+        void recordBufferOccupancy(long bufferedDocs, int activeBatches, int unorderedBatches);
     }
 }
@@ -0,0 +1,195 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensearch.migrations.Version;
+import org.opensearch.migrations.bulkload.common.http.CompressionMode;
+import org.opensearch.migrations.bulkload.common.http.ConnectionContextTestParams;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
+import org.opensearch.migrations.reindexer.FailedRequestsLogger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class MultiNodeRestClientTest {
+    private static final String INDEX = "logs";
+    private static final Duration SLOW_NODE_DELAY = Duration.ofSeconds(1);
+
+    private StubCluster cluster;
+
+    @AfterEach
+    void stopCluster() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    private List<StubCluster.Node> startCluster(int nodeCount) throws IOException {
+        cluster = new StubCluster(nodeCount, INDEX);
+        return cluster.nodes();
+    }
+
+    private static MultiNodeRestClient clientFor(StubCluster.Node seed, int maxConnections, double hedgePercentile) {
+        return new MultiNodeRestClient(
+            ConnectionContextTestParams.builder().host(seed.uri()).build().toConnectionContext(),
+            maxConnections, hedgePercentile, Duration.ofMillis(20), MultiNodeRestClient.NODE_REFRESH_INTERVAL);
+    }
+
+    private static OpenSearchClient targetClient(RestClient restClient) {
+        return new OpenSearchClient_OS_2_11(restClient, new FailedRequestsLogger(), Version.fromString("OS 2.11"),
+            CompressionMode.UNCOMPRESSED);
+    }
+
+    private static List<Document> documents(int batch) {
+        var docs = new ArrayList<Document>();
+        for (int i = 0; i < 5; i++) {
+            docs.add(new Document("doc-" + batch + "-" + i, "{\"n\":1}".getBytes(StandardCharsets.UTF_8),
+                Document.Operation.UPSERT, Map.of(), Map.of()));
+        }
+        return docs;
+    }
+
+    /** Sends enough bulk requests, a few at a time, for the client to have a response time percentile. */
+    private static void warmUp(OpenSearchClient targetClient) {
+        Flux.range(0, 40)
+            .flatMap(b -> targetClient.sendBulkRequestRaw(INDEX, documents(b), null, false,
+                DocumentExceptionAllowlist.empty()), 4)
+            .blockLast();
+    }
+
+    @Test
+    void discoveryWarmsAPoolForEveryReachableNode() throws IOException {
+        var nodes = startCluster(3);
+        try (var closed = new ServerSocket(0)) {
+            nodes.get(2).publishAddress = "127.0.0.1:" + closed.getLocalPort();
+        }
+        var client = clientFor(nodes.get(0), 6, 0);
+
+        client.discoverNodes();
+
+        assertEquals(2, client.getStats().nodes());
+        // 6 connections over the 3 nodes listed
+        assertTrue(nodes.get(0).rootRequests.get() >= 2, "node-0 got " + nodes.get(0).rootRequests.get());
+        assertTrue(nodes.get(1).rootRequests.get() >= 2, "node-1 got " + nodes.get(1).rootRequests.get());
+        assertEquals(0, nodes.get(2).rootRequests.get());
+
+        var targetClient = targetClient(client);
+        for (int b = 0; b < 10; b++) {
+            targetClient.sendBulkRequestRaw(INDEX, documents(b), null, false, DocumentExceptionAllowlist.empty()).block();
+        }
+        assertEquals(5, nodes.get(0).bulkRequests.get());
+        assertEquals(5, nodes.get(1).bulkRequests.get());
+    }
+
+    @Test
+    void slowNodeIsAvoidedAndHedgedAround() throws IOException {
+        var nodes = startCluster(3);
+        var slowNode = nodes.get(1);
+        slowNode.bulkDelay = SLOW_NODE_DELAY;
+        var client = clientFor(nodes.get(0), 6, 90);
+        client.discoverNodes();
+        var targetClient = targetClient(client);
+        warmUp(targetClient);
+        var hedgesWonBefore = client.getStats().hedgesWon();
+
+        var slowest = Duration.ZERO;
+        for (int b = 0; b < 60; b++) {
+            var start = System.nanoTime();
+            targetClient.sendBulkRequestRaw(INDEX, documents(100 + b), null, false,
+                DocumentExceptionAllowlist.empty()).block();
+            var took = Duration.ofNanos(System.nanoTime() - start);
+            slowest = took.compareTo(slowest) > 0 ? took : slowest;
+        }
+
+        var stats = client.getStats();
+        log.atInfo().setMessage("Slowest bulk request {}, {}, bulk requests per node {}")
+            .addArgument(slowest)
+            .addArgument(stats)
+            .addArgument(() -> nodes.stream().map(n -> n.bulkRequests.get()).toList())
+            .log();
+        assertTrue(slowest.compareTo(SLOW_NODE_DELAY.dividedBy(2)) < 0, "slowest request took " + slowest);
+        assertTrue(stats.hedgesWon() > hedgesWonBefore, stats.toString());
+        assertTrue(stats.hedgesSent() <= stats.bulkRequests() * MultiNodeRestClient.HEDGE_BUDGET + 1, stats.toString());
+        assertTrue(slowNode.bulkRequests.get() < nodes.get(0).bulkRequests.get());
+        assertTrue(slowNode.bulkRequests.get() < nodes.get(2).bulkRequests.get());
+    }
+
+    @Test
+    void requestsThatMayNotBeSentTwiceAreNotHedged() throws IOException {
+        var nodes = startCluster(3);
+        nodes.get(1).bulkDelay = SLOW_NODE_DELAY;
+        var client = clientFor(nodes.get(0), 6, 90);
+        client.discoverNodes();
+        var targetClient = targetClient(client);
+        warmUp(targetClient);
+        var hedgesBefore = client.getStats().hedgesSent();
+        var slowNodeBefore = nodes.get(1).bulkRequests.get();
+
+        // every node is idle, so one of the first three goes to the slow node
+        for (int b = 0; b < 3; b++) {
+            targetClient.sendBulkRequestRaw(INDEX, documents(100 + b), null, true,
+                DocumentExceptionAllowlist.empty()).block();
+        }
+        var deletes = List.of(new Document("doc-0-0", null, Document.Operation.DELETE, Map.of(), Map.of()));
+        targetClient.sendBulkRequestRaw(INDEX, deletes, null, false, DocumentExceptionAllowlist.empty()).block();
+
+        assertEquals(hedgesBefore, client.getStats().hedgesSent());
+        assertTrue(nodes.get(1).bulkRequests.get() > slowNodeBefore, "the slow node was never picked");
+    }
+
+    @Test
+    void nodeThatFailsIsLeftOut() throws IOException {
+        var nodes = startCluster(3);
+        var client = clientFor(nodes.get(0), 3, 0);
+        client.discoverNodes();
+        nodes.get(2).stop();
+
+        var failures = new AtomicInteger();
+        for (int i = 0; i < 12; i++) {
+            client.postAsyncBytesRaw(INDEX + "/_bulk", "{}\n".getBytes(StandardCharsets.UTF_8), Map.of(), null)
+                .doOnError(e -> failures.incrementAndGet())
+                .onErrorResume(e -> Mono.empty())
+                .block();
+        }
+
+        assertEquals(1, failures.get());
+        assertEquals(11, nodes.get(0).bulkRequests.get() + nodes.get(1).bulkRequests.get());
+    }
+
+    @Test
+    void nodesThatLeaveOrCannotBeReachedHaveTheirPoolsClosed() throws IOException {
+        var nodes = startCluster(3);
+        var client = clientFor(nodes.get(0), 3, 0);
+        client.discoverNodes();
+        var before = client.getEndpoints();
+        assertEquals(3, before.size());
+
+        nodes.get(1).listed = false;
+        try (var closed = new ServerSocket(0)) {
+            nodes.get(2).publishAddress = "127.0.0.1:" + closed.getLocalPort();
+        }
+        client.discoverNodes();
+
+        assertEquals(List.of("node-0"), client.getEndpoints().stream().map(e -> e.name).toList());
+        before.forEach(e -> assertEquals(!e.name.equals("node-0"), e.client.isDisposed(), e.name));
+
+        client.dispose();
+        before.forEach(e -> assertTrue(e.client.isDisposed(), e.name));
+        assertEquals(0, client.getStats().nodes());
+    }
+}
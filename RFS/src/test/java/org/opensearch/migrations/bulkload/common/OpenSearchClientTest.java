@@ -8,11 +8,17 @@ import java.util.Optional;
 
 import org.opensearch.migrations.Version;
 import org.opensearch.migrations.bulkload.common.bulk.BulkOperationSpec;
+import org.opensearch.migrations.bulkload.common.bulk.DeleteOp;
 import org.opensearch.migrations.bulkload.common.bulk.IndexOp;
+import org.opensearch.migrations.bulkload.common.bulk.enums.IndexOpType;
 import org.opensearch.migrations.bulkload.common.bulk.enums.OperationType;
+import org.opensearch.migrations.bulkload.common.bulk.enums.VersionType;
+import org.opensearch.migrations.bulkload.common.bulk.metadata.VersionControlMetadata;
+import org.opensearch.migrations.bulkload.common.bulk.operations.DeleteOperationMeta;
 import org.opensearch.migrations.bulkload.common.bulk.operations.IndexOperationMeta;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.common.http.HttpResponse;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator.BulkItemResponseEntry;
@@ -176,9 +182,9 @@ class OpenSearchClientTest {
             List.of(itemEntry(docId1), itemEntryRetryableFailure(docId2))
         );
         var finalDocSuccess = bulkItemResponse(false, List.of(itemEntry(docId2)));
-        var server500 = new HttpResponse(500, "", null, "{\"error\":\"Cannot Process Error!\"}");
+        var server500 = new ByteArrayHttpResponse(500, "", null, "{\"error\":\"Cannot Process Error!\"}");
 
-        when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(bothDocsFail))
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(bothDocsFail))
             .thenReturn(Mono.just(oneFailure))
             .thenReturn(Mono.just(server500))
             .thenReturn(Mono.just(finalDocSuccess));
@@ -199,7 +205,7 @@ class OpenSearchClientTest {
         // Assertions
         // StepVerifier.create(responseMono).expectComplete().verify();
 
-        verify(restClient, times(4)).postAsyncBytes(any(), any(), any(), any());
+        verify(restClient, times(4)).postAsyncBytesRaw(any(), any(), any(), any());
         verifyNoInteractions(failedRequestLogger);
     }
 
@@ -210,7 +216,7 @@ class OpenSearchClientTest {
         // NON_RETRYABLE type would skip retries entirely.
         var docFails = bulkItemResponse(true, List.of(itemEntryRetryableFailure(docId1)));
 
-        when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
 
         var maxRetries = 6;
         doReturn(Retry.fixedDelay(maxRetries, Duration.ofMillis(10))).when(openSearchClient).getBulkRetryStrategy();
@@ -232,14 +238,14 @@ class OpenSearchClientTest {
         assertThat(exception.getMessage(), containsString("Retries exhausted"));
 
         var maxAttempts = maxRetries + 1;
-        verify(restClient, times(maxAttempts)).postAsyncBytes(any(), any(), any(), any());
+        verify(restClient, times(maxAttempts)).postAsyncBytesRaw(any(), any(), any(), any());
         verify(failedRequestLogger).logBulkFailure(any(), any(), any(), any());
         verifyNoMoreInteractions(failedRequestLogger);
     }
 
-    private HttpResponse bulkItemResponse(boolean hasErrors, List<BulkItemResponseEntry> entries) {
+    private ByteArrayHttpResponse bulkItemResponse(boolean hasErrors, List<BulkItemResponseEntry> entries) {
         var responseBody = BulkRequestGenerator.bulkItemResponse(hasErrors, entries);
-        return new HttpResponse(200, "", null, responseBody);
+        return new ByteArrayHttpResponse(200, "", null, responseBody);
     }
 
     private BulkOperationSpec createBulkDoc(String docId) {
@@ -264,7 +270,7 @@ class OpenSearchClientTest {
         var docId = "tt1979320";
         var bulkSuccess = bulkItemResponse(false, List.of(itemEntry(docId)));
 
-        when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
         openSearchClient = spy(new OpenSearchClient_OS_2_11(restClient, failedRequestLogger, Version.fromString("OS 2.11"),
                 CompressionMode.GZIP_BODY_COMPRESSION));
 
@@ -282,7 +288,7 @@ class OpenSearchClientTest {
 
         // Assertions
         ArgumentCaptor<Map<String, List<String>>> headersCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(restClient).postAsyncBytes(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
+        verify(restClient).postAsyncBytesRaw(eq(indexName + "/_bulk?filter_path=" + OpenSearchClient.BULK_RESPONSE_FILTER_PATH), any(), headersCaptor.capture(), any());
 
         Map<String, List<String>> capturedHeaders = headersCaptor.getValue();
         assertThat(capturedHeaders.get("accept-encoding"), equalTo(List.of("gzip")));
@@ -296,7 +302,7 @@ class OpenSearchClientTest {
 
         openSearchClient = spy(new OpenSearchClient_OS_2_11(restClient, failedRequestLogger, Version.fromString("OS 2.11"),
                 CompressionMode.UNCOMPRESSED));
-        when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
 
         var bulkDoc = createBulkDoc(docId);
         var indexName = "testIndex";
@@ -312,7 +318,7 @@ class OpenSearchClientTest {
 
         // Assertions
         ArgumentCaptor<Map<String, List<String>>> headersCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(restClient).postAsyncBytes(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
+        verify(restClient).postAsyncBytesRaw(eq(indexName + "/_bulk?filter_path=" + OpenSearchClient.BULK_RESPONSE_FILTER_PATH), any(), headersCaptor.capture(), any());
 
         Map<String, List<String>> capturedHeaders = headersCaptor.getValue();
         assertThat(capturedHeaders.get("accept-encoding"), equalTo(null));
@@ -328,7 +334,7 @@ class OpenSearchClientTest {
             // the helper's response body.
             var docFails = bulkItemResponse(true, List.of(itemEntryRetryableFailure(docId1)));
 
-            when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
+            when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
 
             var maxRetries = 1;
             doReturn(Retry.fixedDelay(maxRetries, Duration.ofMillis(10))).when(openSearchClient).getBulkRetryStrategy();
@@ -373,7 +379,7 @@ class OpenSearchClientTest {
             var largeResponse = BulkItemResponseEntry.builder().raw(jsonString).build();
             var docFails = bulkItemResponse(true, List.of(largeResponse));
 
-            when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
+            when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
 
             var maxRetries = 1;
             doReturn(Retry.fixedDelay(maxRetries, Duration.ofMillis(10))).when(openSearchClient).getBulkRetryStrategy();
@@ -416,4 +422,25 @@ class OpenSearchClientTest {
         verify(restClient).putAsync(any(), any(), any());
         verifyNoMoreInteractions(restClient);
     }
+
+    @Test
+    void onlyPlainIndexOperationsWithIdsAreSafeToSendTwice() {
+        var plain = IndexOp.builder().operation(IndexOperationMeta.builder().id("1").build()).build();
+        var explicitIndex = IndexOp.builder()
+            .operation(IndexOperationMeta.builder().id("2").opType(IndexOpType.INDEX).build()).build();
+        assertThat(OpenSearchClient.isSafeToSendTwice(List.of(plain, explicitIndex)), equalTo(true));
+
+        var withoutId = IndexOp.builder().operation(IndexOperationMeta.builder().build()).build();
+        var create = IndexOp.builder()
+            .operation(IndexOperationMeta.builder().id("3").opType(IndexOpType.CREATE).build()).build();
+        var conditional = IndexOp.builder().operation(IndexOperationMeta.builder().id("4")
+            .versioning(VersionControlMetadata.builder().ifSeqNo(7L).ifPrimaryTerm(1L).build()).build()).build();
+        var externallyVersioned = IndexOp.builder().operation(IndexOperationMeta.builder().id("5")
+            .versioning(VersionControlMetadata.builder().version(3L).versionType(VersionType.EXTERNAL).build())
+            .build()).build();
+        var delete = DeleteOp.builder().operation(DeleteOperationMeta.builder().id("6").build()).build();
+        for (var unsafe : List.<BulkOperationSpec>of(withoutId, create, conditional, externallyVersioned, delete)) {
+            assertThat(unsafe.toString(), OpenSearchClient.isSafeToSendTwice(List.of(plain, unsafe)), equalTo(false));
+        }
+    }
 }
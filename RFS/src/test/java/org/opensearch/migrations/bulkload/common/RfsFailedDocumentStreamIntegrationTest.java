@@ -19,7 +19,7 @@ import org.opensearch.migrations.bulkload.common.bulk.enums.OperationType;
 import org.opensearch.migrations.bulkload.common.bulk.operations.IndexOperationMeta;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
-import org.opensearch.migrations.bulkload.common.http.HttpResponse;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
 import org.opensearch.migrations.reindexer.FailedRequestsLogger;
@@ -121,9 +121,9 @@ class RfsFailedDocumentStreamIntegrationTest {
         ));
         var subsequentResponse = buildBulkResponse(List.of(retryableItem("throttled")));
 
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, firstResponse)))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, subsequentResponse)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, firstResponse)))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, subsequentResponse)));
 
         // Capture every S3 PutObject so we can reconstruct what was persisted.
         var s3Captured = new S3Capture();
@@ -173,7 +173,7 @@ class RfsFailedDocumentStreamIntegrationTest {
         // re-sent on retry — together with the negative assertion below that ok-1
         // never lands in the failed document stream, that's end-to-end "successful docs migrate".
         ArgumentCaptor<byte[]> bodyCaptor = ArgumentCaptor.forClass(byte[].class);
-        verify(restClient, atLeast(2)).postAsyncBytes(any(), bodyCaptor.capture(), any(), any());
+        verify(restClient, atLeast(2)).postAsyncBytesRaw(any(), bodyCaptor.capture(), any(), any());
         var capturedBodies = bodyCaptor.getAllValues();
         var firstAttemptIds = extractDocIds(capturedBodies.get(0));
         assertThat("first attempt should send all four docs", firstAttemptIds,
@@ -231,8 +231,8 @@ class RfsFailedDocumentStreamIntegrationTest {
             successItem("ok-3"),
             nonRetryableItem("new-bad")
         ));
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, sessionBResponse)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, sessionBResponse)));
 
         var failedDocumentStreamSinkB = S3FailedDocumentStreamSink.builder()
             .bucket("rfs-bucket")
@@ -306,8 +306,8 @@ class RfsFailedDocumentStreamIntegrationTest {
             allowlistedItem("dup-1"),
             retryableItem("throttled-1")
         ));
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, response)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, response)));
 
         var s3Captured = new S3Capture();
         var failedDocumentStreamSink = S3FailedDocumentStreamSink.builder()
@@ -386,8 +386,8 @@ class RfsFailedDocumentStreamIntegrationTest {
             nonRetryableItem("bad-map-1"),
             retryableItem("throttled-1")
         ));
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, response)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, response)));
 
         var s3Captured = new S3Capture();
         var failedDocumentStreamSink = S3FailedDocumentStreamSink.builder()
@@ -449,8 +449,8 @@ class RfsFailedDocumentStreamIntegrationTest {
             retryableItem("gen-1"),
             retryableItem("gen-2")
         ));
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, response)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, response)));
 
         var s3Captured = new S3Capture();
         var failedDocumentStreamSink = S3FailedDocumentStreamSink.builder()
@@ -15,7 +15,7 @@ import org.opensearch.migrations.bulkload.common.bulk.enums.OperationType;
 import org.opensearch.migrations.bulkload.common.bulk.operations.IndexOperationMeta;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
-import org.opensearch.migrations.bulkload.common.http.HttpResponse;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
 import org.opensearch.migrations.reindexer.FailedRequestsLogger;
@@ -125,9 +125,9 @@ class RfsFailedDocumentStreamLocalStackIntegrationTest {
             retryableItem("throttled")
         ));
         var subsequentResponse = buildBulkResponse(List.of(retryableItem("throttled")));
-        when(restClient.postAsyncBytes(any(), any(), any(), any()))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, firstResponse)))
-            .thenReturn(Mono.just(new HttpResponse(200, "", null, subsequentResponse)));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any()))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, firstResponse)))
+            .thenReturn(Mono.just(new ByteArrayHttpResponse(200, "", null, subsequentResponse)));
 
         var sink = S3FailedDocumentStreamSink.builder()
             .bucket(BUCKET)
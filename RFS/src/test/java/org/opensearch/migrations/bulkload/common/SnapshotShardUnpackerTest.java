@@ -1,20 +1,30 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Set;
 
 import org.opensearch.migrations.bulkload.models.ShardFileInfo;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import shadow.lucene9.org.apache.lucene.codecs.CodecUtil;
+import shadow.lucene9.org.apache.lucene.store.FSDirectory;
+import shadow.lucene9.org.apache.lucene.store.IOContext;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SnapshotShardUnpackerTest {
@@ -62,4 +72,86 @@ public class SnapshotShardUnpackerTest {
         assertInstanceOf(Exception.class, exception.getCause(),
             "Exception should have a cause");
     }
+
+    /** Writes a small file with a Lucene header and checksum footer, as every segment file has, and returns it. */
+    private static byte[] luceneFile(Path scratch, String name) throws IOException {
+        try (var directory = FSDirectory.open(scratch)) {
+            try (var out = directory.createOutput(name, IOContext.DEFAULT)) {
+                CodecUtil.writeHeader(out, "test", 0);
+                for (int i = 0; i < 100; i++) {
+                    out.writeInt(i);
+                }
+                CodecUtil.writeFooter(out);
+            }
+        }
+        return Files.readAllBytes(scratch.resolve(name));
+    }
+
+    private static String checksumOf(Path scratch, String name) throws IOException {
+        try (var directory = FSDirectory.open(scratch);
+             var in = directory.openInput(name, IOContext.READONCE)) {
+            return Long.toString(CodecUtil.retrieveChecksum(in), Character.MAX_RADIX);
+        }
+    }
+
+    private static ShardFileInfo fileInfo(String blobName, String physicalName, long length, String checksum) {
+        var fileInfo = mock(ShardFileInfo.class);
+        when(fileInfo.getName()).thenReturn(blobName);
+        when(fileInfo.getPhysicalName()).thenReturn(physicalName);
+        when(fileInfo.getLength()).thenReturn(length);
+        when(fileInfo.getChecksum()).thenReturn(checksum);
+        when(fileInfo.getNumberOfParts()).thenReturn(1L);
+        when(fileInfo.partName(0L)).thenReturn(blobName);
+        return fileInfo;
+    }
+
+    @Test
+    void testUnpack_ReusesMatchingFilesAndRewritesChangedOnes(@TempDir Path scratch, @TempDir Path target)
+        throws Exception {
+        var content = luceneFile(scratch, "_0.cfs");
+        var fileInfo = fileInfo("__blob0", "_0.cfs", content.length, checksumOf(scratch, "_0.cfs"));
+        var repoAccessor = mock(SourceRepoAccessor.class);
+        when(repoAccessor.getBlobFile("index-id", 0, "__blob0"))
+            .thenAnswer(invocation -> new ByteArrayInputStream(content));
+        var unpackedFile = target.resolve("_0.cfs");
+
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        assertArrayEquals(content, Files.readAllBytes(unpackedFile));
+        verify(repoAccessor, times(1)).getBlobFile("index-id", 0, "__blob0");
+
+        // A second unpack into the same directory, e.g. by the successor of a checkpointed work item
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        verify(repoAccessor, times(1)).getBlobFile("index-id", 0, "__blob0");
+
+        // Same length, different bytes: the footer checksum no longer matches, so the file is fetched again
+        var changed = content.clone();
+        changed[CodecUtil.headerLength("test") + 3] ^= 0x7f;
+        Files.write(unpackedFile, changed);
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        verify(repoAccessor, times(2)).getBlobFile("index-id", 0, "__blob0");
+        assertArrayEquals(content, Files.readAllBytes(unpackedFile));
+
+        // A truncated file is fetched again too
+        Files.write(unpackedFile, Arrays.copyOf(content, content.length / 2));
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        verify(repoAccessor, times(3)).getBlobFile("index-id", 0, "__blob0");
+        assertArrayEquals(content, Files.readAllBytes(unpackedFile));
+    }
+
+    @Test
+    void testUnpack_RewritesVirtualFilesWhoseContentChanged(@TempDir Path target) throws Exception {
+        var hash = new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 };
+        var fileInfo = fileInfo("v__virtual", "_0.si", hash.length, "unused");
+        when(fileInfo.getMetaHash()).thenReturn(new BytesRef(hash));
+        var repoAccessor = mock(SourceRepoAccessor.class);
+        var unpackedFile = target.resolve("_0.si");
+
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        assertArrayEquals(hash, Files.readAllBytes(unpackedFile));
+
+        // createOutput won't overwrite a file, so this only succeeds if the stale file was deleted first
+        Files.write(unpackedFile, new byte[] { 1, 2, 3, 4, 5, 6, 7, 0 });
+        new SnapshotShardUnpacker(repoAccessor, Set.of(fileInfo), target, "index-id", 0).unpack();
+        assertArrayEquals(hash, Files.readAllBytes(unpackedFile));
+    }
 }
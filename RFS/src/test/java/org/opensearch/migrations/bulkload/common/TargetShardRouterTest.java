@@ -0,0 +1,297 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+
+import org.opensearch.migrations.Version;
+import org.opensearch.migrations.bulkload.common.http.CompressionMode;
+import org.opensearch.migrations.bulkload.common.http.ConnectionContextTestParams;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
+import org.opensearch.migrations.reindexer.FailedRequestsLogger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class TargetShardRouterTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String INDEX = "logs";
+    private static final int SHARDS = 6;
+
+    private StubCluster cluster;
+    private List<StubCluster.Node> nodes;
+    private AtomicIntegerArray documents;
+    private AtomicIntegerArray remoteShardRequests;
+    private volatile boolean indexCreated = true;
+
+    /** A clock that only moves when told to. */
+    private static class ManualClock extends Clock {
+        private volatile Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /**
+     * Starts a stand-in cluster whose node {@code id} holds the primaries {@code shard % nodeCount == id}
+     * and counts, for each bulk request it coordinates, the shard-level requests it would have to forward
+     * to other nodes.
+     */
+    private void startCluster(int nodeCount) throws IOException {
+        documents = new AtomicIntegerArray(nodeCount);
+        remoteShardRequests = new AtomicIntegerArray(nodeCount);
+        cluster = new StubCluster(nodeCount, INDEX).onBulk(this::coordinateBulk).respondTo(this::respond);
+        nodes = cluster.nodes();
+    }
+
+    @AfterEach
+    void stopCluster() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    private String respond(StubCluster.Node node, String path) {
+        if (path.equals("/" + INDEX + "/_settings")) {
+            return !indexCreated ? null : "{\"" + INDEX + "\":{\"settings\":{\"index.number_of_shards\":\"" + SHARDS + "\"}}}";
+        } else if (path.equals("/_cluster/state/metadata/" + INDEX)) {
+            return "{\"metadata\":{\"indices\":{\"" + INDEX + "\":{\"routing_num_shards\":"
+                + TargetShardRouter.defaultRoutingNumShards(SHARDS) + "}}}}";
+        } else if (path.equals("/_cat/shards/" + INDEX)) {
+            var shards = new ArrayList<String>();
+            for (int shard = 0; shard < SHARDS; shard++) {
+                shards.add("{\"shard\":\"" + shard + "\",\"prirep\":\"p\",\"state\":\"STARTED\",\"node\":\"node-"
+                    + primaryNode(shard) + "\"}");
+                shards.add("{\"shard\":\"" + shard + "\",\"prirep\":\"r\",\"state\":\"STARTED\",\"node\":\"node-"
+                    + (primaryNode(shard) + 1) % nodes.size() + "\"}");
+            }
+            return "[" + String.join(",", shards) + "]";
+        }
+        return null;
+    }
+
+    private void coordinateBulk(StubCluster.Node node, String ndjson) throws IOException {
+        var lines = ndjson.split("\n");
+        var shardsTouched = new HashSet<Integer>();
+        for (int i = 0; i < lines.length; i += 2) {
+            var action = OBJECT_MAPPER.readTree(lines[i]).fields().next().getValue();
+            var routing = action.has("routing") ? action.path("routing").asText() : action.path("_id").asText();
+            shardsTouched.add(TargetShardRouter.shardId(routing, TargetShardRouter.defaultRoutingNumShards(SHARDS), SHARDS));
+            documents.incrementAndGet(node.id);
+        }
+        remoteShardRequests.addAndGet(node.id,
+            (int) shardsTouched.stream().filter(s -> primaryNode(s) != node.id).count());
+    }
+
+    private int primaryNode(int shard) {
+        return shard % nodes.size();
+    }
+
+    private static RestClient clientFor(StubCluster.Node node) {
+        return new RestClient(ConnectionContextTestParams.builder().host(node.uri()).build().toConnectionContext());
+    }
+
+    private static List<Document> documents(int count, IntUnaryOperator idOf) {
+        var docs = new ArrayList<Document>(count);
+        for (int i = 0; i < count; i++) {
+            docs.add(new Document("doc-" + idOf.applyAsInt(i), "{\"n\":1}".getBytes(StandardCharsets.UTF_8),
+                Document.Operation.UPSERT, Map.of(), Map.of()));
+        }
+        return docs;
+    }
+
+    @Test
+    void hashMatchesTheReferenceMurmur3() {
+        assertEquals(0, TargetShardRouter.murmur3x86_32(new byte[0], 0));
+        assertEquals(0xba6bd213, TargetShardRouter.murmur3x86_32("test".getBytes(StandardCharsets.UTF_8), 0));
+        assertEquals(0xc0363e43, TargetShardRouter.murmur3x86_32("Hello, world!".getBytes(StandardCharsets.UTF_8), 0));
+        assertEquals(0x2e4ff723, TargetShardRouter.murmur3x86_32(
+            "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8), 0));
+        // Murmur3HashFunction hashes the UTF-16 code units of the routing value
+        assertEquals(0x5a0cb7c3, TargetShardRouter.hash("hell"));
+        assertEquals(0xd7c31989, TargetShardRouter.hash("hello"));
+        assertEquals(0x22ab2984, TargetShardRouter.hash("hello w"));
+        assertEquals(0xdf0ca123, TargetShardRouter.hash("hello wo"));
+        assertEquals(0xe7744d61, TargetShardRouter.hash("hello wor"));
+        assertEquals(0xe07db09c, TargetShardRouter.hash("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void defaultRoutingNumShardsAllowsSplittingToAboutAThousandShards() {
+        assertEquals(1024, TargetShardRouter.defaultRoutingNumShards(1));
+        assertEquals(640, TargetShardRouter.defaultRoutingNumShards(5));
+        assertEquals(768, TargetShardRouter.defaultRoutingNumShards(6));
+        assertEquals(2048, TargetShardRouter.defaultRoutingNumShards(1024));
+    }
+
+    @Test
+    void publishAddressesAreParsedWithAndWithoutHostnames() {
+        assertEquals("https://node1.internal:9200",
+            TargetShardRouter.parsePublishAddress("https", "node1.internal/10.0.0.1:9200").toString());
+        assertEquals("http://10.0.0.1:9201", TargetShardRouter.parsePublishAddress("http", "10.0.0.1:9201").toString());
+        assertEquals("http://[::1]:9200", TargetShardRouter.parsePublishAddress("http", "/::1:9200").toString());
+        assertNull(TargetShardRouter.parsePublishAddress("http", "garbage"));
+    }
+
+    @Test
+    void routedBatchesReachOnlyThePrimariesNodes() throws IOException {
+        startCluster(3);
+        var defaultClient = clientFor(nodes.get(0));
+        var targetClient = new OpenSearchClient_OS_2_11(defaultClient, new FailedRequestsLogger(),
+            Version.fromString("OS 2.11"), CompressionMode.UNCOMPRESSED);
+        var router = new TargetShardRouter(defaultClient, Clock.systemUTC());
+        var batches = 20;
+        var batchSize = 500;
+
+        for (int b = 0; b < batches; b++) {
+            var base = b * batchSize;
+            targetClient.sendBulkRequestRaw(INDEX, documents(batchSize, i -> base + i), null, false,
+                DocumentExceptionAllowlist.empty()).block();
+        }
+        var unroutedRemote = nodes.stream().mapToInt(n -> remoteShardRequests.getAndSet(n.id, 0)).sum();
+        var unroutedRequests = nodes.stream().mapToInt(n -> n.bulkRequests.getAndSet(0)).sum();
+        nodes.forEach(n -> documents.set(n.id, 0));
+
+        for (int b = 0; b < batches; b++) {
+            var base = b * batchSize;
+            for (var part : router.groupByPrimaryNode(INDEX, documents(batchSize, i -> base + i), false)) {
+                targetClient.sendBulkRequestRaw(INDEX, part.documents(), null, false,
+                    DocumentExceptionAllowlist.empty(), part.client()).block();
+            }
+        }
+        var routedRemote = nodes.stream().mapToInt(n -> remoteShardRequests.get(n.id)).sum();
+        log.atInfo().setMessage("Shard-level forwards over {} batches: unrouted={} in {} requests, routed={} in {} " +
+                "requests, documents per node {}")
+            .addArgument(batches)
+            .addArgument(unroutedRemote)
+            .addArgument(unroutedRequests)
+            .addArgument(routedRemote)
+            .addArgument(() -> nodes.stream().mapToInt(n -> n.bulkRequests.get()).sum())
+            .addArgument(documents)
+            .log();
+
+        // every batch touches all 6 shards, 4 of which are elsewhere
+        assertEquals(batches * 4, unroutedRemote);
+        assertEquals(0, routedRemote);
+        assertEquals(batches * batchSize, nodes.stream().mapToInt(n -> documents.get(n.id)).sum());
+        nodes.forEach(n -> assertEquals(batches, n.bulkRequests.get(), n.name()));
+    }
+
+    @Test
+    void routingHintTakesPrecedenceOverTheId() throws IOException {
+        startCluster(3);
+        var router = new TargetShardRouter(clientFor(nodes.get(0)), Clock.systemUTC());
+        var routed = new ArrayList<Document>();
+        for (int i = 0; i < 50; i++) {
+            routed.add(new Document("doc-" + i, "{}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+                Map.of(Document.HINT_ROUTING, "tenant-7"), Map.of()));
+        }
+        var parts = router.groupByPrimaryNode(INDEX, routed, false);
+        assertEquals(1, parts.size());
+        var expectedNode = TargetShardRouter.shardId("tenant-7", TargetShardRouter.defaultRoutingNumShards(SHARDS), SHARDS)
+            % nodes.size();
+        assertEquals("node-" + expectedNode, parts.get(0).nodeName());
+    }
+
+    @Test
+    void unreachableNodesAndServerGeneratedIdsFallBackToTheDefaultClient() throws IOException {
+        startCluster(3);
+        try (var closed = new ServerSocket(0)) {
+            nodes.get(2).publishAddress = "127.0.0.1:" + closed.getLocalPort();
+        }
+        var defaultClient = clientFor(nodes.get(0));
+        var router = new TargetShardRouter(defaultClient, Clock.systemUTC());
+        var docs = documents(300, i -> i);
+
+        var parts = router.groupByPrimaryNode(INDEX, docs, false);
+        assertEquals(3, parts.size());
+        assertSame(defaultClient, parts.get(2).client());
+        assertNull(parts.get(2).nodeName());
+        assertEquals(docs.size(), parts.stream().mapToInt(p -> p.documents().size()).sum());
+        assertTrue(parts.stream().limit(2).allMatch(p -> p.client() != defaultClient));
+
+        var unrouted = router.groupByPrimaryNode(INDEX, docs, true);
+        assertEquals(1, unrouted.size());
+        assertSame(defaultClient, unrouted.get(0).client());
+        assertEquals(docs, unrouted.get(0).documents());
+    }
+
+    @Test
+    void anIndexWithoutARoutingTableIsLookedUpAgainAfterTheRetryInterval() throws IOException {
+        startCluster(3);
+        indexCreated = false;
+        var defaultClient = clientFor(nodes.get(0));
+        var clock = new ManualClock();
+        var router = new TargetShardRouter(defaultClient, clock);
+        var docs = documents(300, i -> i);
+
+        assertEquals(1, router.groupByPrimaryNode(INDEX, docs, false).size());
+        indexCreated = true;
+        assertEquals(1, router.groupByPrimaryNode(INDEX, docs, false).size());
+
+        clock.advance(TargetShardRouter.UNROUTABLE_RETRY_INTERVAL);
+        var parts = router.groupByPrimaryNode(INDEX, docs, false);
+        assertEquals(3, parts.size());
+        assertTrue(parts.stream().noneMatch(p -> p.client() == defaultClient));
+    }
+
+    @Test
+    void unreachableNodesAreProbedAgainWhenTheRoutingTableIsReloaded() throws IOException {
+        startCluster(3);
+        var address = nodes.get(2).publishAddress;
+        try (var closed = new ServerSocket(0)) {
+            nodes.get(2).publishAddress = "127.0.0.1:" + closed.getLocalPort();
+        }
+        var defaultClient = clientFor(nodes.get(0));
+        var clock = new ManualClock();
+        var router = new TargetShardRouter(defaultClient, clock);
+        var docs = documents(300, i -> i);
+
+        assertSame(defaultClient, router.groupByPrimaryNode(INDEX, docs, false).get(2).client());
+        // back at its old address, but the router doesn't look until the table is reloaded
+        nodes.get(2).publishAddress = address;
+        assertSame(defaultClient, router.groupByPrimaryNode(INDEX, docs, false).get(2).client());
+
+        clock.advance(TargetShardRouter.ROUTING_TABLE_TTL);
+        var parts = router.groupByPrimaryNode(INDEX, docs, false);
+        assertEquals(List.of("node-0", "node-1", "node-2"),
+            parts.stream().map(TargetShardRouter.NodeBatch::nodeName).sorted().toList());
+        assertTrue(parts.stream().noneMatch(p -> p.client() == defaultClient));
+    }
+}
@@ -0,0 +1,238 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.common.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares per-document sourceless reconstruction with {@link ColumnarPrefetchReader} over a
+ * synthetic 100-field segment: 50 long fields with doc_values and 50 long fields that are only
+ * indexed as points ({@code "doc_values": false}).
+ * <p>
+ * Points are modelled the way the Lucene 6+ readers visit them: a per-document read walks every
+ * point of the field (a full BKD {@code intersect}), while a range read walks them once for the
+ * whole window. That walk is what dominates the per-document path; the doc_values half shows the
+ * cost of the extra column bookkeeping when the per-document read is already cheap.
+ * <p>
+ * Run with {@code ./gradlew :RFS:jmh -Pjmh.includes=ColumnarPrefetchBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class ColumnarPrefetchBenchmark {
+    private static final ObjectMapper MAPPER = ObjectMapperFactory.createDefaultMapper();
+    private static final int FIELD_COUNT = 100;
+    private static final int DOCS_PER_SEGMENT = 2048;
+    private static final int WINDOW_SIZE = 256;
+
+    private SyntheticSegment segment;
+    private FieldMappingContext mappingContext;
+    private LuceneDocument emptyDocument;
+
+    @Setup
+    public void setUp() throws IOException {
+        segment = new SyntheticSegment();
+        mappingContext = new FieldMappingContext(MAPPER.readTree(segment.mappingJson()));
+        emptyDocument = List::of;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long reconstructPerDocument() {
+        return reconstructAll(segment);
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long reconstructColumnar() {
+        return reconstructAll(new ColumnarPrefetchReader(segment, WINDOW_SIZE));
+    }
+
+    private long reconstructAll(LuceneLeafReader reader) {
+        long totalBytes = 0;
+        for (int docId = 0; docId < DOCS_PER_SEGMENT; docId++) {
+            totalBytes += SourceReconstructor.reconstructSourceBytes(
+                reader, docId, emptyDocument, mappingContext, null).length;
+        }
+        return totalBytes;
+    }
+
+    @Test
+    void columnarOutputMatchesPerDocumentOutput() throws IOException {
+        setUp();
+        var columnar = new ColumnarPrefetchReader(segment, WINDOW_SIZE);
+        for (int docId = 0; docId < DOCS_PER_SEGMENT; docId += 7) {
+            Assertions.assertArrayEquals(
+                SourceReconstructor.reconstructSourceBytes(segment, docId, emptyDocument, mappingContext, null),
+                SourceReconstructor.reconstructSourceBytes(columnar, docId, emptyDocument, mappingContext, null));
+        }
+        Assertions.assertEquals(reconstructPerDocument(), reconstructColumnar());
+    }
+
+    /** Even fields ({@code dvN}) have doc_values; odd fields ({@code ptN}) are point-only. */
+    private static class SyntheticSegment implements LuceneLeafReader {
+        private final List<DocValueFieldInfo> docValueFields = new ArrayList<>();
+        /** Per point field: one packed value per doc that has a point, in BKD (value) order. */
+        private final Map<String, int[]> pointDocIds = new HashMap<>();
+        private final Map<String, byte[][]> pointValues = new HashMap<>();
+
+        SyntheticSegment() {
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                if (i % 2 == 0) {
+                    docValueFields.add(new DocValueFieldInfo.Simple(fieldName(i), DocValueFieldInfo.DocValueType.NUMERIC, false));
+                } else {
+                    buildPoints(fieldName(i), i);
+                }
+            }
+        }
+
+        private static String fieldName(int i) {
+            return (i % 2 == 0 ? "dv" : "pt") + i;
+        }
+
+        private void buildPoints(String field, int salt) {
+            // Every fifth doc has no value; visit order is by value, not by docId.
+            var docs = new ArrayList<Integer>();
+            for (int docId = 0; docId < DOCS_PER_SEGMENT; docId++) {
+                if (docId % 5 != salt % 5) {
+                    docs.add(docId);
+                }
+            }
+            docs.sort((a, b) -> Long.compare(pointValue(a, salt), pointValue(b, salt)));
+            int[] ids = new int[docs.size()];
+            byte[][] packed = new byte[docs.size()][];
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = docs.get(j);
+                packed[j] = encodeLongPoint(pointValue(ids[j], salt));
+            }
+            pointDocIds.put(field, ids);
+            pointValues.put(field, packed);
+        }
+
+        private static long pointValue(int docId, int salt) {
+            return ((long) docId * 2_654_435_761L + salt) % 1_000_000_007L;
+        }
+
+        private static byte[] encodeLongPoint(long value) {
+            long sortable = value ^ 0x8000000000000000L;
+            byte[] packed = new byte[Long.BYTES];
+            for (int b = 0; b < Long.BYTES; b++) {
+                packed[b] = (byte) (sortable >>> (56 - 8 * b));
+            }
+            return packed;
+        }
+
+        String mappingJson() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            for (int i = 0; i < FIELD_COUNT; i++) {
+                properties.put(fieldName(i), i % 2 == 0
+                    ? Map.of("type", "long")
+                    : Map.of("type", "long", "doc_values", false));
+            }
+            try {
+                return MAPPER.writeValueAsString(Map.of("properties", properties));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public Iterable<DocValueFieldInfo> getDocValueFields() {
+            return docValueFields;
+        }
+
+        @Override
+        public Object getNumericValue(int docId, String fieldName) {
+            return (long) docId * 1_000_003L + fieldName.length();
+        }
+
+        @Override
+        public List<byte[]> getPointValues(int docId, String fieldName) {
+            int[] ids = pointDocIds.get(fieldName);
+            if (ids == null) {
+                return null;
+            }
+            byte[][] packed = pointValues.get(fieldName);
+            List<byte[]> result = new ArrayList<>();
+            for (int j = 0; j < ids.length; j++) {
+                if (ids[j] == docId) {
+                    result.add(packed[j].clone());
+                }
+            }
+            return result.isEmpty() ? null : result;
+        }
+
+        @Override
+        public void collectPointValuesForDocRange(String fieldName, int minDocId, int maxDocId,
+                List<byte[]>[] bySlot) {
+            int[] ids = pointDocIds.get(fieldName);
+            if (ids == null) {
+                return;
+            }
+            byte[][] packed = pointValues.get(fieldName);
+            for (int j = 0; j < ids.length; j++) {
+                if (ids[j] >= minDocId && ids[j] < maxDocId) {
+                    int slot = ids[j] - minDocId;
+                    if (bySlot[slot] == null) {
+                        bySlot[slot] = new ArrayList<>();
+                    }
+                    bySlot[slot].add(packed[j].clone());
+                }
+            }
+        }
+
+        @Override
+        public LuceneDocument document(int luceneDocId) {
+            return List::of;
+        }
+
+        @Override
+        public BitSetConverter.FixedLengthBitSet getLiveDocs() {
+            return null;
+        }
+
+        @Override
+        public int maxDoc() {
+            return DOCS_PER_SEGMENT;
+        }
+
+        @Override
+        public String getContextString() {
+            return "synthetic";
+        }
+
+        @Override
+        public String getSegmentName() {
+            return "_synthetic";
+        }
+
+        @Override
+        public String getSegmentInfoString() {
+            return "synthetic segment";
+        }
+
+        @Override
+        public LuceneLeafReader newView() {
+            return this;
+        }
+    }
+}
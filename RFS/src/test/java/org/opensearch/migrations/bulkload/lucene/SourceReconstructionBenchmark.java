@@ -0,0 +1,187 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.common.ObjectMapperFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares sourceless {@code _source} reconstruction that goes through a {@code String} (the previous
+ * {@code writeValueAsString(...).getBytes(UTF_8)} path) with serializing straight to bytes through
+ * {@link SourceJsonWriter}, over a synthetic doc_values-only segment with 10, 100 and 1000 mapped
+ * fields.  A fifth of the fields are object subfields ({@code groupN.fieldM}) so nesting is exercised.
+ * <p>
+ * Run with {@code ./gradlew :RFS:jmh -Pjmh.includes=SourceReconstructionBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class SourceReconstructionBenchmark {
+    private static final ObjectMapper MAPPER = ObjectMapperFactory.createDefaultMapper();
+    private static final int DOCS_PER_SEGMENT = 64;
+
+    @Param({"10", "100", "1000"})
+    public int fieldCount;
+
+    private SyntheticSegment segment;
+    private FieldMappingContext mappingContext;
+    private LuceneDocument emptyDocument;
+    private Map<String, Object> prebuiltTree;
+
+    @Setup
+    public void setUp() throws IOException {
+        segment = new SyntheticSegment(fieldCount);
+        mappingContext = new FieldMappingContext(MAPPER.readTree(segment.mappingJson()));
+        emptyDocument = List::of;
+        prebuiltTree = MAPPER.readValue(
+            SourceReconstructor.reconstructSourceBytes(segment, 0, emptyDocument, mappingContext, null),
+            new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int serializeViaString() throws IOException {
+        return MAPPER.writeValueAsString(prebuiltTree).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public int serializeViaWriter() throws IOException {
+        return SourceJsonWriter.toJsonBytes(MAPPER, prebuiltTree).length;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long reconstructSegment() {
+        long totalBytes = 0;
+        for (int docId = 0; docId < DOCS_PER_SEGMENT; docId++) {
+            totalBytes += SourceReconstructor.reconstructSourceBytes(
+                segment, docId, emptyDocument, mappingContext, null).length;
+        }
+        return totalBytes;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void writerMatchesStringSerialization(int fields) throws IOException {
+        fieldCount = fields;
+        setUp();
+        Assertions.assertEquals(
+            MAPPER.writeValueAsString(prebuiltTree),
+            new String(SourceJsonWriter.toJsonBytes(MAPPER, prebuiltTree), StandardCharsets.UTF_8));
+        Assertions.assertTrue(reconstructSegment() > 0);
+    }
+
+    /** A segment where every mapped field has doc_values: even fields are longs, odd fields keywords. */
+    private static class SyntheticSegment implements LuceneLeafReader {
+        private final List<DocValueFieldInfo> docValueFields = new ArrayList<>();
+
+        SyntheticSegment(int fieldCount) {
+            for (int i = 0; i < fieldCount; i++) {
+                var type = i % 2 == 0 ? DocValueFieldInfo.DocValueType.NUMERIC : DocValueFieldInfo.DocValueType.SORTED;
+                docValueFields.add(new DocValueFieldInfo.Simple(fieldName(i), type, false));
+            }
+        }
+
+        private static String fieldName(int i) {
+            return i % 5 == 4 ? "group" + (i / 25) + ".field" + i : "field" + i;
+        }
+
+        String mappingJson() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            for (int i = 0; i < docValueFields.size(); i++) {
+                Map<String, Object> leaf = Map.of("type", i % 2 == 0 ? "long" : "keyword");
+                var name = fieldName(i);
+                int dot = name.indexOf('.');
+                if (dot < 0) {
+                    properties.put(name, leaf);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    var group = (Map<String, Object>) properties.computeIfAbsent(name.substring(0, dot),
+                        k -> new LinkedHashMap<>(Map.of("properties", new LinkedHashMap<String, Object>())));
+                    @SuppressWarnings("unchecked")
+                    var groupProperties = (Map<String, Object>) group.get("properties");
+                    groupProperties.put(name.substring(dot + 1), leaf);
+                }
+            }
+            try {
+                return MAPPER.writeValueAsString(Map.of("properties", properties));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public Iterable<DocValueFieldInfo> getDocValueFields() {
+            return docValueFields;
+        }
+
+        @Override
+        public Object getNumericValue(int docId, String fieldName) {
+            return (long) docId * 1_000_003L + fieldName.length();
+        }
+
+        @Override
+        public Object getSortedValue(int docId, String fieldName) {
+            return "value-" + docId + "-" + fieldName;
+        }
+
+        @Override
+        public LuceneDocument document(int luceneDocId) {
+            return List::of;
+        }
+
+        @Override
+        public BitSetConverter.FixedLengthBitSet getLiveDocs() {
+            return null;
+        }
+
+        @Override
+        public int maxDoc() {
+            return DOCS_PER_SEGMENT;
+        }
+
+        @Override
+        public String getContextString() {
+            return "synthetic";
+        }
+
+        @Override
+        public String getSegmentName() {
+            return "_synthetic";
+        }
+
+        @Override
+        public String getSegmentInfoString() {
+            return "synthetic segment";
+        }
+
+        @Override
+        public LuceneLeafReader newView() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streams a synthetic high-cardinality text field through {@link GenericStreamingFieldPostings}
+ * for several segments in a row, the way sourceless reconstruction does for one shard.
+ * <p>
+ * Every segment has {@code TERMS_PER_SEGMENT} unique terms (ids, hashes, URLs — the case where
+ * most terms appear in only one or two docs), so building and tearing down the per-field heap is
+ * a large part of the work. {@code pooled=true} is the production path: term bytes go into the
+ * arena and the heap's arrays come from one {@link StreamingPostingsPool} shared by the segments.
+ * {@code pooled=false} is the previous shape: every term is decoded to a {@code String} up front
+ * and every segment allocates its own arrays. Run it with {@code -prof gc} to see the allocation
+ * difference alongside the throughput.
+ * <p>
+ * Run with {@code ./gradlew :RFS:jmh -Pjmh.includes=StreamingPostingsHeapBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class StreamingPostingsHeapBenchmark {
+    private static final int SEGMENTS = 4;
+    private static final int DOCS_PER_SEGMENT = 4096;
+    private static final int TERMS_PER_SEGMENT = 100_000;
+
+    @Param({ "true", "false" })
+    public boolean pooled;
+
+    private SyntheticSegment[] segments;
+    private StreamingPostingsPool pool;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(1);
+        segments = new SyntheticSegment[SEGMENTS];
+        for (int s = 0; s < SEGMENTS; s++) {
+            segments[s] = new SyntheticSegment(random, TERMS_PER_SEGMENT, DOCS_PER_SEGMENT);
+        }
+        pool = new StreamingPostingsPool();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long streamShard() throws IOException {
+        long tokens = 0;
+        for (var segment : segments) {
+            try (var postings = open(segment)) {
+                for (int docId = 0; docId < segment.docCount; docId++) {
+                    tokens += postings.advance(docId).size();
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private GenericStreamingFieldPostings open(SyntheticSegment segment) throws IOException {
+        if (pooled) {
+            var arena = new TermPostingsArena(pool, segment.termBytes.length);
+            for (int t = 0; t < segment.termBytes.length; t++) {
+                var cursor = segment.cursor(t);
+                arena.add(segment.termBytes[t], 0, segment.termBytes[t].length, cursor, cursor.nextDoc());
+            }
+            return GenericStreamingFieldPostings.build(arena, false);
+        }
+        var terms = new ArrayList<GenericStreamingFieldPostings.TermPostings>(segment.termBytes.length);
+        for (int t = 0; t < segment.termBytes.length; t++) {
+            var cursor = segment.cursor(t);
+            terms.add(new GenericStreamingFieldPostings.TermPostings(
+                new String(segment.termBytes[t], StandardCharsets.UTF_8), cursor, cursor.nextDoc()));
+        }
+        return GenericStreamingFieldPostings.build(terms, false);
+    }
+
+    /** One field of one segment: each term's UTF-8 bytes and its (doc, position) postings. */
+    static final class SyntheticSegment {
+        final int docCount;
+        final byte[][] termBytes;
+        final int[][] docs;
+        final int[][] positions;
+
+        SyntheticSegment(Random random, int termCount, int docCount) {
+            this.docCount = docCount;
+            this.termBytes = new byte[termCount][];
+            this.docs = new int[termCount][];
+            this.positions = new int[termCount][];
+            int[] nextPosition = new int[docCount];
+            for (int t = 0; t < termCount; t++) {
+                termBytes[t] = ("req-" + Long.toHexString(random.nextLong()) + "-" + t)
+                    .getBytes(StandardCharsets.UTF_8);
+                // mostly singletons, with a few terms that recur across docs
+                int postingCount = random.nextInt(10) == 0 ? 2 + random.nextInt(8) : 1;
+                int[] termDocs = random.ints(postingCount, 0, docCount).sorted().distinct().toArray();
+                docs[t] = termDocs;
+                positions[t] = new int[termDocs.length];
+                for (int i = 0; i < termDocs.length; i++) {
+                    positions[t][i] = nextPosition[termDocs[i]]++;
+                }
+            }
+        }
+
+        GenericStreamingFieldPostings.PostingsCursor cursor(int term) {
+            return new ArrayPostingsCursor(docs[term], positions[term]);
+        }
+    }
+
+    /** One position per (term, doc), like a keyword-ish analyzed field. */
+    private static final class ArrayPostingsCursor implements GenericStreamingFieldPostings.PostingsCursor {
+        private final int[] docs;
+        private final int[] positions;
+        private int index = -1;
+
+        ArrayPostingsCursor(int[] docs, int[] positions) {
+            this.docs = docs;
+            this.positions = positions;
+        }
+
+        @Override
+        public int nextDoc() {
+            index++;
+            return index < docs.length ? docs[index] : NO_MORE_DOCS;
+        }
+
+        @Override
+        public int advance(int target) {
+            int doc;
+            do {
+                doc = nextDoc();
+            } while (doc < target);
+            return doc;
+        }
+
+        @Override
+        public int freq() {
+            return 1;
+        }
+
+        @Override
+        public int nextPosition() {
+            return positions[index];
+        }
+
+        @Override
+        public int startOffset() {
+            return TermEntry.NO_OFFSET;
+        }
+
+        @Override
+        public int endOffset() {
+            return TermEntry.NO_OFFSET;
+        }
+    }
+
+    @Test
+    void pooledAndUnpooledHeapsEmitTheSameTerms() throws IOException {
+        var random = new Random(2);
+        var segmentsUnderTest = List.of(new SyntheticSegment(random, 5_000, 256),
+            new SyntheticSegment(random, 3_000, 128));
+        var pooledBenchmark = new StreamingPostingsHeapBenchmark();
+        pooledBenchmark.pooled = true;
+        pooledBenchmark.pool = new StreamingPostingsPool();
+        var unpooledBenchmark = new StreamingPostingsHeapBenchmark();
+        unpooledBenchmark.pooled = false;
+
+        // twice, so that the second pass runs on recycled arrays
+        for (int pass = 0; pass < 2; pass++) {
+            for (var segment : segmentsUnderTest) {
+                try (var pooledPostings = pooledBenchmark.open(segment);
+                     var unpooledPostings = unpooledBenchmark.open(segment)) {
+                    for (int docId = 0; docId < segment.docCount; docId++) {
+                        Assertions.assertEquals(unpooledPostings.advance(docId), pooledPostings.advance(docId));
+                    }
+                }
+            }
+        }
+    }
+}
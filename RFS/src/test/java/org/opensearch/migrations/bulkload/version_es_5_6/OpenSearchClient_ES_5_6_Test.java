@@ -13,6 +13,7 @@ import org.opensearch.migrations.bulkload.common.bulk.enums.OperationType;
 import org.opensearch.migrations.bulkload.common.bulk.operations.IndexOperationMeta;
 import org.opensearch.migrations.bulkload.common.http.CompressionMode;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.common.http.HttpResponse;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator.BulkItemResponseEntry;
@@ -48,6 +49,9 @@ import static org.opensearch.migrations.bulkload.http.BulkRequestGenerator.itemE
 
 @ExtendWith(MockitoExtension.class)
 class OpenSearchClient_ES_5_6_Test {
+    private static final String BULK_FILTER_PATH =
+        "?filter_path=errors,items.*._id,items.*.result,items.*.status,items.*.error";
+
     private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
         .enable(StreamReadFeature.INCLUDE_SOURCE_IN_LOCATION)
         .build();
@@ -99,18 +103,18 @@ class OpenSearchClient_ES_5_6_Test {
 
         var successResponse = bulkItemResponse(false, List.of(itemEntry(docId1), itemEntry(docId2)));
         var bulkDocs = List.of(createBulkDoc(docId1), createBulkDoc(docId2));
-        when(restClient.postAsyncBytes(any(), any(), any(), any())).thenReturn(Mono.just(successResponse));
+        when(restClient.postAsyncBytesRaw(any(), any(), any(), any())).thenReturn(Mono.just(successResponse));
 
         var result = openSearchClient.sendBulkRequest("indexName", bulkDocs, mock(IRfsContexts.IRequestContext.class), false, DocumentExceptionAllowlist.empty()).block();
 
-        Mockito.verify(restClient).postAsyncBytes(eq("indexName/doc/_bulk"), any(), any(), any());
+        Mockito.verify(restClient).postAsyncBytesRaw(eq("indexName/doc/_bulk" + BULK_FILTER_PATH), any(), any(), any());
 
         verifyNoInteractions(failedRequestLogger);
     }
 
-    private HttpResponse bulkItemResponse(boolean hasErrors, List<BulkItemResponseEntry> entries) {
+    private ByteArrayHttpResponse bulkItemResponse(boolean hasErrors, List<BulkItemResponseEntry> entries) {
         var responseBody = BulkRequestGenerator.bulkItemResponse(hasErrors, entries);
-        return new HttpResponse(200, "", null, responseBody);
+        return new ByteArrayHttpResponse(200, "", null, responseBody);
     }
 
     private BulkOperationSpec createBulkDoc(String docId) {
@@ -0,0 +1,110 @@
+package org.opensearch.migrations.bulkload.workcoordination;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.opensearch.migrations.bulkload.tracing.IWorkCoordinationContexts;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaseHeartbeatTest {
+    private static final String WORK_ITEM = "logs__0__0";
+    private static final Duration LEASE = Duration.ofMinutes(30);
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant RENEWED_UNTIL = NOW.plus(LEASE);
+    private static final Duration EARLY_TRIGGER = Duration.ofMinutes(3);
+
+    private final AtomicReference<Object> progress = new AtomicReference<>(new Object());
+    private final Supplier<IWorkCoordinationContexts.IAcquireSpecificWorkContext> contextSupplier = () -> null;
+    private IWorkCoordinator workCoordinator;
+    private LeaseExpireTrigger leaseExpireTrigger;
+    private LeaseHeartbeat heartbeat;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        workCoordinator = mock(IWorkCoordinator.class);
+        when(workCoordinator.renewLease(WORK_ITEM, LEASE, contextSupplier)).thenReturn(RENEWED_UNTIL);
+        leaseExpireTrigger = mock(LeaseExpireTrigger.class);
+        when(leaseExpireTrigger.extendExpiration(eq(WORK_ITEM), any())).thenReturn(true);
+        // not started, so beats only happen when the test calls beat()
+        heartbeat = new LeaseHeartbeat(workCoordinator, leaseExpireTrigger, WORK_ITEM, LEASE, progress::get,
+            contextSupplier, expiration -> expiration.minus(EARLY_TRIGGER), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        heartbeat.close();
+    }
+
+    @Test
+    void renewsTheLeaseAndMovesTheTriggerWhenProgressWasMade() throws Exception {
+        progress.set(new Object());
+        heartbeat.beat();
+
+        verify(workCoordinator).renewLease(WORK_ITEM, LEASE, contextSupplier);
+        verify(leaseExpireTrigger).extendExpiration(WORK_ITEM, RENEWED_UNTIL.minus(EARLY_TRIGGER));
+        Assertions.assertFalse(heartbeat.isStopped());
+
+        progress.set(new Object());
+        heartbeat.beat();
+        verify(workCoordinator, times(2)).renewLease(WORK_ITEM, LEASE, contextSupplier);
+    }
+
+    @Test
+    void skipsRenewalWhileTheProgressTokenIsUnchanged() throws Exception {
+        heartbeat.beat();
+        verify(workCoordinator, never()).renewLease(any(), any(), any());
+
+        progress.set(new Object());
+        heartbeat.beat();
+        heartbeat.beat();
+        verify(workCoordinator, times(1)).renewLease(WORK_ITEM, LEASE, contextSupplier);
+        verify(leaseExpireTrigger, times(1)).extendExpiration(eq(WORK_ITEM), any());
+        Assertions.assertFalse(heartbeat.isStopped());
+    }
+
+    @Test
+    void stopsOnceTheLeaseIsHeldElsewhere() throws Exception {
+        when(workCoordinator.renewLease(WORK_ITEM, LEASE, contextSupplier))
+            .thenThrow(new IWorkCoordinator.LeaseLockHeldElsewhereException());
+        progress.set(new Object());
+        heartbeat.beat();
+
+        Assertions.assertTrue(heartbeat.isStopped());
+        verify(leaseExpireTrigger, never()).extendExpiration(any(), any());
+    }
+
+    @Test
+    void stopsWhenARenewalFailsOrTheWorkItemIsNoLongerTracked() throws Exception {
+        when(workCoordinator.renewLease(WORK_ITEM, LEASE, contextSupplier)).thenThrow(new IOException("boom"));
+        progress.set(new Object());
+        heartbeat.beat();
+        Assertions.assertTrue(heartbeat.isStopped());
+
+        var untracked = new LeaseHeartbeat(mock(IWorkCoordinator.class), leaseExpireTrigger, "other", LEASE,
+            Object::new, contextSupplier, expiration -> expiration, Clock.fixed(NOW, ZoneOffset.UTC));
+        try {
+            when(leaseExpireTrigger.extendExpiration(eq("other"), any())).thenReturn(false);
+            untracked.beat();
+            Assertions.assertTrue(untracked.isStopped());
+        } finally {
+            untracked.close();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -329,4 +330,41 @@ class OpenSearchWorkCoodinatorTest {
             Assertions.assertTrue(logEvents.stream().anyMatch(e -> e.contains(THROTTLE_RESULT_VALUE)));
         }
     }
+
+    @ParameterizedTest
+    @MethodSource("provideTestedVersions")
+    public void testSchedulingPolicyNarrowsAcquisitionToTheTopRankOfUncappedIndices(Version version) throws Exception {
+        var aggregations = "{\"aggregations\": {"
+            + "\"leased\": {\"byIndex\": {\"buckets\": [{\"key\": \"capped\", \"doc_count\": 2}]}},"
+            + "\"available\": {\"byIndex\": {\"buckets\": ["
+            + "{\"key\": \"capped\", \"doc_count\": 5, \"topRank\": {\"value\": 140.0}},"
+            + "{\"key\": \"open\", \"doc_count\": 3, \"topRank\": {\"value\": 130.0}},"
+            + "{\"key\": \"unranked\", \"doc_count\": 1, \"topRank\": {\"value\": null}}]}}}}";
+        var payloads = new ArrayList<String>();
+        var client = new SequenceMockHttpClient(
+            new TestResponse(200, "ok", aggregations),
+            new TestResponse(200, "ok", "{\"total\": 1, \"updated\": 1, \"noops\": 0}")) {
+            @Override
+            public AbstractHttpResponse makeRequest(String method, String path, Map<String, String> headers, String payload) {
+                payloads.add(payload);
+                return super.makeRequest(method, path, headers, payload);
+            }
+        };
+        var factory = new WorkCoordinatorFactory(version, "", OpenSearchWorkCoordinator.CompletionRetryConfig.DEFAULT,
+            new WorkItemSchedulingPolicy(List.of(), true, 2));
+
+        try (var workCoordinator = factory.get(client, 2, "testWorker")) {
+            Assertions.assertEquals(OpenSearchWorkCoordinator.UpdateResult.SUCCESSFUL_ACQUISITION,
+                workCoordinator.assignOneWorkItem(60));
+        }
+        Assertions.assertEquals(2, payloads.size());
+        var objectMapper = new ObjectMapper();
+        Assertions.assertEquals(0, objectMapper.readTree(payloads.get(0)).path("size").asInt());
+        var bool = objectMapper.readTree(payloads.get(1))
+            .path("query").path("function_score").path("query").path("bool");
+        Assertions.assertEquals(130, bool.path("must").path(1).path("range")
+            .path(OpenSearchWorkCoordinator.SCHEDULING_RANK_FIELD_NAME).path("gte").asLong());
+        Assertions.assertEquals("capped", bool.path("must_not").path(1).path("terms")
+            .path(OpenSearchWorkCoordinator.INDEX_NAME_FIELD_NAME).path(0).asText());
+    }
 }
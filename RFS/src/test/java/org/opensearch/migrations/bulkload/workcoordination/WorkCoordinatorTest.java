@@ -357,6 +357,48 @@ public class WorkCoordinatorTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("containerVersions")
+    public void testRenewLeaseExtendsOnlyTheHoldersUnexpiredLease(SearchClusterContainer.ContainerVersion version) throws Exception {
+        // A worker that keeps making progress renews its lease instead of checkpointing.  Renewal must keep
+        // the item away from other workers past the original expiration, and must never succeed for a
+        // worker that doesn't hold the lease or whose lease has already lapsed.
+        setupOpenSearchContainer(version);
+        var testContext = WorkCoordinationTestContext.factory().withAllTracking();
+        var workItemId = workId("R", 0, 0L);
+
+        try (var creator = factory.get(httpClientSupplier.get(), 3600, "creator")) {
+            creator.createUnassignedWorkItem(workItemId, testContext::createUnassignedWorkContext);
+        }
+
+        var shortLease = Duration.ofSeconds(4);
+
+        try (var workerA = factory.get(httpClientSupplier.get(), 3600, "workerA");
+             var workerB = factory.get(httpClientSupplier.get(), 3600, "workerB")) {
+            workerA.acquireNextWorkItem(shortLease, testContext::createAcquireNextItemContext);
+
+            Assertions.assertThrows(IWorkCoordinator.LeaseLockHeldElsewhereException.class,
+                () -> workerB.renewLease(workItemId, Duration.ofSeconds(600), testContext::createAcquireSpecificItemContext));
+
+            var renewedUntil = workerA.renewLease(workItemId, Duration.ofSeconds(600), testContext::createAcquireSpecificItemContext);
+            Assertions.assertTrue(renewedUntil.isAfter(Instant.now().plusSeconds(500)));
+
+            // Past the originally acquired lease, the item is still held by workerA
+            Thread.sleep(shortLease.plusSeconds(1).toMillis());
+            Assertions.assertInstanceOf(IWorkCoordinator.NoAvailableWorkToBeDone.class,
+                workerB.acquireNextWorkItem(Duration.ofSeconds(600), testContext::createAcquireNextItemContext));
+        }
+
+        try (var workerC = factory.get(httpClientSupplier.get(), 3600, "workerC")) {
+            workerC.createUnassignedWorkItem(workId("R", 1, 0L), testContext::createUnassignedWorkContext);
+            workerC.acquireNextWorkItem(Duration.ofSeconds(2), testContext::createAcquireNextItemContext);
+            Thread.sleep(3000);
+            // An expired lease can't be renewed, even by its last holder; it has to be re-acquired
+            Assertions.assertThrows(IWorkCoordinator.LeaseLockHeldElsewhereException.class,
+                () -> workerC.renewLease(workId("R", 1, 0L), Duration.ofSeconds(600), testContext::createAcquireSpecificItemContext));
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("containerVersions")
     public void testAddSuccessorWorkItems(SearchClusterContainer.ContainerVersion version) throws Exception {
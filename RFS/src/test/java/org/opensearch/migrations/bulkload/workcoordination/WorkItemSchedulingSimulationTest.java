@@ -0,0 +1,186 @@
+package org.opensearch.migrations.bulkload.workcoordination;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Discrete-event simulation of a fleet of workers acquiring shard work items, comparing the
+ * acquisition order a {@link WorkItemSchedulingPolicy} produces with the policy-less random order.
+ * <p>
+ * Each worker, when it becomes free, picks an item the way {@link OpenSearchWorkCoordinator} does:
+ * it asks the policy for a {@link WorkItemSchedulingPolicy.Selection} given what is leased and what
+ * is left, then takes a random item among those the selection allows.  An item takes time
+ * proportional to its size.  Shard sizes are log-normal across indices of very different sizes,
+ * which is what snapshots of real clusters look like: most shards are a few GB, a few are 50+ GB.
+ */
+@Slf4j
+class WorkItemSchedulingSimulationTest {
+    private static final int WORKERS = 16;
+    private static final int INDICES = 12;
+    private static final long GB = 1L << 30;
+    /** Bytes a worker migrates per simulated second */
+    private static final double THROUGHPUT = 20.0 * (1 << 20);
+
+    private record Item(String indexName, long sizeBytes, long rank) {}
+
+    private record Run(double makespanSeconds, Map<String, Double> lastCompletionByIndex, Map<String, Integer> peakLeasedByIndex) {}
+
+    private static List<Item> shards(Random random, WorkItemSchedulingPolicy policy) {
+        var items = new ArrayList<Item>();
+        for (int i = 0; i < INDICES; i++) {
+            var indexName = (i == 0 ? "orders-" : "logs-") + i;
+            // a few indices with many shards, most with a handful
+            int shardCount = random.nextInt(10) == 0 ? 40 + random.nextInt(40) : 1 + random.nextInt(12);
+            // every index has its own typical shard size
+            double indexMedianGb = Math.exp(random.nextGaussian() * 1.2);
+            for (int s = 0; s < shardCount; s++) {
+                var sizeBytes = (long) (indexMedianGb * GB * Math.exp(random.nextGaussian() * 0.8));
+                items.add(new Item(indexName, Math.max(1, sizeBytes), policy.rank(indexName, sizeBytes)));
+            }
+        }
+        return items;
+    }
+
+    private static Run simulate(List<Item> items, WorkItemSchedulingPolicy policy, Random random) {
+        var remaining = new ArrayList<>(items);
+        var leased = new HashMap<String, Long>();
+        var peakLeased = new HashMap<String, Integer>();
+        var lastCompletion = new HashMap<String, Double>();
+        // (time the worker becomes free, the item it was working on or null)
+        record Event(double time, Item finished) {}
+        var events = new PriorityQueue<Event>((a, b) -> Double.compare(a.time(), b.time()));
+        for (int w = 0; w < WORKERS; w++) {
+            events.add(new Event(0, null));
+        }
+        var idleWorkers = 0;
+        double now = 0;
+        while (!events.isEmpty()) {
+            var event = events.poll();
+            now = event.time();
+            if (event.finished() != null) {
+                leased.merge(event.finished().indexName(), -1L, Long::sum);
+                lastCompletion.merge(event.finished().indexName(), now, Math::max);
+            }
+            // a finished item may let idle workers (held back by a cap) pick something up
+            var freeWorkers = 1 + (event.finished() != null ? idleWorkers : 0);
+            idleWorkers = event.finished() != null ? 0 : idleWorkers;
+            for (int w = 0; w < freeWorkers; w++) {
+                var next = acquire(remaining, leased, policy, random);
+                if (next == null) {
+                    idleWorkers++;
+                    continue;
+                }
+                remaining.remove(next);
+                var nowLeased = leased.merge(next.indexName(), 1L, Long::sum);
+                peakLeased.merge(next.indexName(), nowLeased.intValue(), Math::max);
+                events.add(new Event(now + next.sizeBytes() / THROUGHPUT, next));
+            }
+        }
+        Assertions.assertTrue(remaining.isEmpty(), "every item is eventually acquired");
+        return new Run(now, lastCompletion, peakLeased);
+    }
+
+    private static Item acquire(List<Item> remaining, Map<String, Long> leased,
+                                WorkItemSchedulingPolicy policy, Random random) {
+        List<Item> eligible = remaining;
+        if (policy.isEnabled()) {
+            var topRanks = new HashMap<String, Long>();
+            remaining.forEach(item -> topRanks.merge(item.indexName(), item.rank(), Math::max));
+            var selection = policy.select(leased, topRanks);
+            eligible = remaining.stream()
+                .filter(item -> selection.minimumRank() == null || item.rank() >= selection.minimumRank())
+                .filter(item -> !selection.excludedIndices().contains(item.indexName()))
+                .toList();
+        }
+        return eligible.isEmpty() ? null : eligible.get(random.nextInt(eligible.size()));
+    }
+
+    private static double lowerBound(List<Item> items) {
+        var totalSeconds = items.stream().mapToDouble(i -> i.sizeBytes() / THROUGHPUT).sum();
+        var longestSeconds = items.stream().mapToDouble(i -> i.sizeBytes() / THROUGHPUT).max().orElse(0);
+        return Math.max(totalSeconds / WORKERS, longestSeconds);
+    }
+
+    @Test
+    void largestFirstFinishesCloseToTheLowerBoundAndBeforeRandomOrder() {
+        var largestFirst = new WorkItemSchedulingPolicy(List.of(), true, 0);
+        double randomTotal = 0;
+        double largestFirstTotal = 0;
+        double worstLargestFirstRatio = 0;
+        for (int seed = 0; seed < 30; seed++) {
+            var items = shards(new Random(seed), largestFirst);
+            var bound = lowerBound(items);
+            var random = simulate(items, WorkItemSchedulingPolicy.NONE, new Random(seed)).makespanSeconds();
+            var lpt = simulate(items, largestFirst, new Random(seed)).makespanSeconds();
+            randomTotal += random / bound;
+            largestFirstTotal += lpt / bound;
+            worstLargestFirstRatio = Math.max(worstLargestFirstRatio, lpt / bound);
+        }
+        log.atInfo().setMessage("Mean makespan over lower bound: random={}, largest first={}, worst largest first={}")
+            .addArgument(randomTotal / 30)
+            .addArgument(largestFirstTotal / 30)
+            .addArgument(worstLargestFirstRatio)
+            .log();
+        Assertions.assertTrue(largestFirstTotal < randomTotal,
+            "largest first " + largestFirstTotal / 30 + " vs random " + randomTotal / 30);
+        // sizes are only ordered to within a factor of two, but with many more items than workers that's enough
+        Assertions.assertTrue(worstLargestFirstRatio < 1.2, "worst ratio " + worstLargestFirstRatio);
+    }
+
+    @Test
+    void priorityClassesFinishFirstWithoutLengtheningTheMigration() {
+        var withPriority = new WorkItemSchedulingPolicy(List.of("orders-*"), true, 0);
+        var largestFirst = new WorkItemSchedulingPolicy(List.of(), true, 0);
+        for (int seed = 0; seed < 10; seed++) {
+            var items = shards(new Random(seed), withPriority);
+            var prioritized = simulate(items, withPriority, new Random(seed));
+            var ordersDone = prioritized.lastCompletionByIndex().get("orders-0");
+            var unprioritized = simulate(shards(new Random(seed), largestFirst), largestFirst, new Random(seed));
+            Assertions.assertTrue(ordersDone <= unprioritized.lastCompletionByIndex().get("orders-0"),
+                "seed " + seed);
+            Assertions.assertTrue(prioritized.makespanSeconds() < 1.2 * lowerBound(items), "seed " + seed);
+        }
+    }
+
+    @Test
+    void perIndexCapLimitsConcurrencyAndStillDrainsEveryIndex() {
+        var capped = new WorkItemSchedulingPolicy(List.of(), true, 3);
+        for (int seed = 0; seed < 10; seed++) {
+            var items = shards(new Random(seed), capped);
+            var run = simulate(items, capped, new Random(seed));
+            run.peakLeasedByIndex().forEach((indexName, peak) ->
+                Assertions.assertTrue(peak <= 3, indexName + " peaked at " + peak));
+            Assertions.assertEquals(items.stream().map(Item::indexName).distinct().count(),
+                run.lastCompletionByIndex().size());
+        }
+    }
+
+    @Test
+    void rankOrdersClassesBeforeSizes() {
+        var policy = new WorkItemSchedulingPolicy(List.of("orders-*", "customers"), true, 0);
+        Assertions.assertTrue(policy.rank("orders-2024", 1) > policy.rank("customers", 100 * GB));
+        Assertions.assertTrue(policy.rank("customers", 1) > policy.rank("logs", 100 * GB));
+        Assertions.assertTrue(policy.rank("logs", 2 * GB) > policy.rank("logs", GB));
+        Assertions.assertEquals(policy.rank("logs", GB), policy.rank("logs", GB + GB / 2));
+        Assertions.assertEquals(0, policy.rank("customers-archive", -1));
+        Assertions.assertEquals(0, WorkItemSchedulingPolicy.NONE.rank("orders-2024", 100 * GB));
+    }
+
+    @Test
+    void selectionSkipsCappedIndices() {
+        var policy = new WorkItemSchedulingPolicy(List.of(), true, 2);
+        var selection = policy.select(Map.of("a", 2L, "b", 1L), Map.of("a", 40L, "b", 30L));
+        Assertions.assertEquals(30L, selection.minimumRank());
+        Assertions.assertEquals(Set.of("a"), selection.excludedIndices());
+        Assertions.assertNull(policy.select(Map.of("a", 2L), Map.of("a", 40L)).minimumRank());
+    }
+}
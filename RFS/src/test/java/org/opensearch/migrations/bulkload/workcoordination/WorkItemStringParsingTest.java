@@ -106,6 +106,48 @@ class WorkItemStringParsingTest {
             () -> IWorkCoordinator.WorkItemAndDuration.WorkItem.valueFromWorkItemString(malformed));
     }
 
+    @Test
+    void segmentRange_roundTrips() {
+        var original = new IWorkCoordinator.WorkItemAndDuration.WorkItem("my__index", 3, 1500L, "_a", "_1f");
+        var serialized = original.toString();
+
+        Assertions.assertTrue(serialized.endsWith("__3__1500__a-1f"), serialized);
+        var parsed = IWorkCoordinator.WorkItemAndDuration.WorkItem.valueFromWorkItemString(serialized);
+        Assertions.assertEquals(original, parsed);
+        Assertions.assertTrue(parsed.hasSegmentRange());
+        Assertions.assertEquals("_a", parsed.getFirstSegment());
+        Assertions.assertEquals("_1f", parsed.getLastSegment());
+    }
+
+    @Test
+    void withStartingDocId_keepsSegmentRange() {
+        var successor = new IWorkCoordinator.WorkItemAndDuration.WorkItem("idx", 0, 0L, "_0", "_9")
+            .withStartingDocId(77L);
+        Assertions.assertEquals(77L, successor.getStartingDocId());
+        Assertions.assertEquals("_0", successor.getFirstSegment());
+        Assertions.assertEquals("_9", successor.getLastSegment());
+        Assertions.assertFalse(wi("idx", 0, 0L).withStartingDocId(5L).hasSegmentRange());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "aWR4__0__0__a",
+        "aWR4__0__0__a-b-c",
+        "aWR4__0__0__-b",
+        "aWR4__0__0__A-B",
+        "aWR4__0__0__a-b__extra"
+    })
+    void malformedSegmentRanges_throwIllegalArgumentException(String malformed) {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> IWorkCoordinator.WorkItemAndDuration.WorkItem.valueFromWorkItemString(malformed));
+    }
+
+    @Test
+    void constructor_rejectsHalfOpenSegmentRange() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new IWorkCoordinator.WorkItemAndDuration.WorkItem("idx", 0, 0L, "_0", null));
+    }
+
     @Test
     void constructor_acceptsIndexNameContainingSeparator() {
         // The pre-fix constructor rejected any name containing "__".  The base64 encoding
@@ -1,5 +1,6 @@
 package org.opensearch.migrations.parsing;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
 import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
@@ -162,4 +163,44 @@ class BulkResponseParserPartitionTest {
         assertThat(partition.getNonRetryableFailures(), hasSize(1));
         assertThat(partition.getRetryableFailures(), hasSize(1));
     }
+
+    @Test
+    void filteredResponseBytesPartitionLikeTheFullResponse() {
+        // What filter_path=errors,items.*._id,items.*.result,items.*.status,items.*.error leaves behind.
+        var filtered = "{\"errors\":true,\"items\":["
+            + "{\"index\":{\"_id\":\"a\",\"result\":\"created\",\"status\":201}},"
+            + "{\"index\":{\"_id\":\"b\",\"status\":400,\"error\":{\"type\":\"mapper_parsing_exception\","
+            + "\"reason\":\"bad doc\"}}},"
+            + "{\"index\":{\"_id\":\"c\",\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\","
+            + "\"reason\":\"queue full\"}}}]}";
+        var full = response(
+            String.format(SUCCESS_ITEM, "a"),
+            String.format(NON_RETRYABLE_ITEM, "b"),
+            String.format(RETRYABLE_ITEM, "c")
+        );
+
+        var fromFiltered = BulkResponseParser.partitionItems(
+            filtered.getBytes(StandardCharsets.UTF_8), DocumentExceptionAllowlist.empty());
+        var fromFull = BulkResponseParser.partitionItems(full, DocumentExceptionAllowlist.empty());
+
+        assertThat(fromFiltered.getSuccessPositions(), equalTo(fromFull.getSuccessPositions()));
+        assertThat(fromFiltered.getNonRetryableFailures().get(0).getDocumentId(), equalTo("b"));
+        assertThat(fromFiltered.getRetryableFailures().get(0).getErrorType(),
+            equalTo(fromFull.getRetryableFailures().get(0).getErrorType()));
+    }
+
+    @Test
+    void failedItemsAreSlicedVerbatimFromMultiByteBodies() {
+        var item = "{\"index\":{\"_id\":\"caf\u00e9-\u65e5\u672c\",\"status\":400,"
+            + "\"error\":{\"type\":\"mapper_parsing_exception\",\"reason\":\"\u00fcber\"}}}";
+        var body = ("{\"took\":1,\"errors\":true,\"items\":[ " + String.format(SUCCESS_ITEM, "\u00e9") + " , "
+            + item + " ]}").getBytes(StandardCharsets.UTF_8);
+
+        var partition = BulkResponseParser.partitionItems(body, DocumentExceptionAllowlist.empty());
+
+        assertThat(partition.getSuccessPositions(), contains(0));
+        var failure = partition.getNonRetryableFailures().get(0);
+        assertThat(failure.getDocumentId(), equalTo("caf\u00e9-\u65e5\u672c"));
+        assertThat(failure.getResponseItemJson(), equalTo(item));
+    }
 }
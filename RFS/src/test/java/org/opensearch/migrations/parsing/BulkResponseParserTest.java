@@ -1,6 +1,7 @@
 package org.opensearch.migrations.parsing;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -117,4 +118,23 @@ class BulkResponseParserTest {
         assertThat(failed.cardinality(), equalTo(1));
         assertThat(failed.nextSetBit(0), equalTo(0));
     }
+
+    @Test
+    void testHasErrors_readsOnlyTheTopLevelFlag() {
+        // Nothing after "errors" is tokenized, so a clean response's items are never parsed.
+        var cleanWithUnparsedItems = "{\"took\":3,\"errors\":false,\"items\":[{\"index\": <not json";
+        assertThat(BulkResponseParser.hasErrors(cleanWithUnparsedItems.getBytes(StandardCharsets.UTF_8)), equalTo(false));
+
+        var failed = BulkRequestGenerator.bulkItemResponse(true, List.of(itemEntryFailure("x")));
+        assertThat(BulkResponseParser.hasErrors(failed.getBytes(StandardCharsets.UTF_8)), equalTo(true));
+    }
+
+    @Test
+    void testHasErrors_withoutAnErrorsFieldIsFalse() {
+        assertThat(BulkResponseParser.hasErrors(null), equalTo(false));
+        assertThat(BulkResponseParser.hasErrors(new byte[0]), equalTo(false));
+        assertThat(BulkResponseParser.hasErrors("{\"error\":\"Cannot Process Error!\"}"
+            .getBytes(StandardCharsets.UTF_8)), equalTo(false));
+        assertThat(BulkResponseParser.hasErrors("not json".getBytes(StandardCharsets.UTF_8)), equalTo(false));
+    }
 }
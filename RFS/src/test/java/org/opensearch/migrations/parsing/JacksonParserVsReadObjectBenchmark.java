@@ -1,12 +1,15 @@
 package org.opensearch.migrations.parsing;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator;
 import org.opensearch.migrations.bulkload.http.BulkRequestGenerator.BulkItemResponseEntry;
 
@@ -14,6 +17,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.StreamReadFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -22,11 +26,27 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Warmup;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 
+/**
+ * Compares ways of reading a 1000-item {@code _bulk} response: databind vs. the streaming
+ * {@link BulkResponseParser}, a {@code String} body vs. the raw bytes the client now keeps, the
+ * old regex scan for {@code "errors":true} vs. reading only the top-level flag, and a full
+ * response vs. one trimmed by {@code filter_path}.
+ * <p>
+ * Run with {@code ./gradlew :RFS:jmh -Pjmh.includes=JacksonParserVsReadObjectBenchmark}.
+ */
 public class JacksonParserVsReadObjectBenchmark {
 
+    private static final Pattern ERRORS_TRUE = Pattern.compile("\"errors\"\\s*:\\s*true");
+
     private static final String bulkResponse;
+    private static final byte[] bulkResponseBytes;
+    /** {@link #bulkResponse} as the cluster returns it for {@code OpenSearchClient}'s {@code filter_path}. */
+    private static final byte[] filteredBulkResponseBytes;
+    /** A response where every item succeeded, the common case. */
+    private static final byte[] cleanBulkResponseBytes;
     private static final int expectedSuccesses;
     static {
         var random = new Random(22L);
@@ -45,7 +65,32 @@ public class JacksonParserVsReadObjectBenchmark {
             docs.add(doc);
         }
         bulkResponse = BulkRequestGenerator.bulkItemResponse(true, docs);
+        bulkResponseBytes = bulkResponse.getBytes(StandardCharsets.UTF_8);
+        filteredBulkResponseBytes = filterItems(bulkResponse);
         expectedSuccesses = successes;
+
+        var cleanDocs = new ArrayList<BulkItemResponseEntry>(docsCount);
+        for (int i = 0; i < docsCount; i++) {
+            cleanDocs.add(BulkRequestGenerator.itemEntry(UUID.randomUUID() + ""));
+        }
+        cleanBulkResponseBytes = BulkRequestGenerator.bulkItemResponse(false, cleanDocs)
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Keeps what {@code filter_path=errors,items.*._id,items.*.result,items.*.status,items.*.error} keeps. */
+    private static byte[] filterItems(String response) {
+        try {
+            var mapper = JsonMapper.builder().build();
+            var root = (ObjectNode) mapper.readTree(response);
+            root.remove("took");
+            for (var item : root.get("items")) {
+                var action = (ObjectNode) item.elements().next();
+                action.retain("_id", "result", "status", "error");
+            }
+            return mapper.writeValueAsBytes(root);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     @Test
@@ -77,6 +122,59 @@ public class JacksonParserVsReadObjectBenchmark {
         assertThat(successfulItems, hasSize(expectedSuccesses));
     }
 
+    /** How the client used to get there: decode the body, then parse the {@code String}. */
+    @Test
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public void testPartitionDecodedString() {
+        var body = new String(bulkResponseBytes, StandardCharsets.UTF_8);
+        var partition = BulkResponseParser.partitionItems(body, DocumentExceptionAllowlist.empty());
+        assertThat(partition.getSuccessPositions(), hasSize(expectedSuccesses));
+    }
+
+    @Test
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public void testPartitionRawBytes() {
+        var partition = BulkResponseParser.partitionItems(bulkResponseBytes, DocumentExceptionAllowlist.empty());
+        assertThat(partition.getSuccessPositions(), hasSize(expectedSuccesses));
+    }
+
+    @Test
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public void testPartitionFilteredRawBytes() {
+        var partition = BulkResponseParser.partitionItems(filteredBulkResponseBytes,
+            DocumentExceptionAllowlist.empty());
+        assertThat(partition.getSuccessPositions(), hasSize(expectedSuccesses));
+    }
+
+    /** The old {@code hasFailedOperations}: decode, then regex-scan the whole body. */
+    @Test
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public void testErrorsFlagRegexOverString() {
+        var body = new String(cleanBulkResponseBytes, StandardCharsets.UTF_8);
+        assertThat(ERRORS_TRUE.matcher(body).find(), equalTo(false));
+    }
+
+    @Test
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2)
+    public void testErrorsFlagFastPath() {
+        assertThat(BulkResponseParser.hasErrors(cleanBulkResponseBytes), equalTo(false));
+    }
+
     public static class BulkResponse {
         public int took;
         public boolean errors;
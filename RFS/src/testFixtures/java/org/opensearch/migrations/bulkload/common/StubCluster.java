@@ -0,0 +1,155 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A stand-in cluster of nodes on local ports, for clients that send requests to more than one node.
+ * Every node answers {@code GET /} with its name, {@code _nodes/http} with the publish address of each
+ * listed node, and bulk requests to the cluster's index with an empty success; anything else goes to
+ * the {@link Responder}.
+ */
+public class StubCluster implements AutoCloseable {
+    private static final String EMPTY_BULK_RESPONSE = "{\"took\":1,\"errors\":false,\"items\":[]}";
+
+    /** Sees the body of each bulk request a node receives, before the node answers it. */
+    @FunctionalInterface
+    public interface BulkListener {
+        void onBulk(Node node, String ndjson) throws IOException;
+    }
+
+    /** Answers a path the cluster doesn't; returns the JSON body, or null for a 404. */
+    @FunctionalInterface
+    public interface Responder {
+        String respond(Node node, String path);
+    }
+
+    private final String index;
+    private final List<Node> nodes = new ArrayList<>();
+    private volatile BulkListener bulkListener = (node, ndjson) -> {};
+    private volatile Responder responder = (node, path) -> null;
+
+    /** One node, named {@code node-<id>}, answering bulk requests after {@code bulkDelay}. */
+    public class Node {
+        public final int id;
+        public final AtomicInteger rootRequests = new AtomicInteger();
+        public final AtomicInteger bulkRequests = new AtomicInteger();
+        public volatile Duration bulkDelay = Duration.ZERO;
+        /** What {@code _nodes/http} reports as this node's address */
+        public volatile String publishAddress;
+        /** Whether {@code _nodes/http} lists this node */
+        public volatile boolean listed = true;
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private Node(int id) throws IOException {
+            this.id = id;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            this.publishAddress = "localhost/127.0.0.1:" + server.getAddress().getPort();
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        public String name() {
+            return "node-" + id;
+        }
+
+        public String uri() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        public void stop() {
+            if (stopped.compareAndSet(false, true)) {
+                server.stop(0);
+                executor.shutdownNow();
+            }
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            var path = exchange.getRequestURI().getPath();
+            String body;
+            if (path.equals("/")) {
+                rootRequests.incrementAndGet();
+                body = "{\"name\":\"" + name() + "\"}";
+            } else if (path.equals("/_nodes/http")) {
+                var entries = nodes.stream().filter(n -> n.listed).map(n -> "\"id" + n.id + "\":{\"name\":\""
+                    + n.name() + "\",\"http\":{\"publish_address\":\"" + n.publishAddress + "\"}}").toList();
+                body = "{\"nodes\":{" + String.join(",", entries) + "}}";
+            } else if (path.equals("/" + index + "/_bulk")) {
+                bulkListener.onBulk(this, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                bulkRequests.incrementAndGet();
+                try {
+                    Thread.sleep(bulkDelay.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                body = EMPTY_BULK_RESPONSE;
+            } else {
+                body = responder.respond(this, path);
+            }
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+    }
+
+    /** Starts {@code nodeCount} nodes taking bulk requests for {@code index}. */
+    public StubCluster(int nodeCount, String index) throws IOException {
+        this.index = index;
+        try {
+            for (int i = 0; i < nodeCount; i++) {
+                nodes.add(new Node(i));
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public StubCluster onBulk(BulkListener bulkListener) {
+        this.bulkListener = bulkListener;
+        return this;
+    }
+
+    public StubCluster respondTo(Responder responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    public List<Node> nodes() {
+        return nodes;
+    }
+
+    public Node node(int id) {
+        return nodes.get(id);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void close() {
+        nodes.forEach(Node::stop);
+    }
+}
@@ -0,0 +1,339 @@
+package org.opensearch.migrations;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.opensearch.migrations.benchmark.AllocationProfiler;
+import org.opensearch.migrations.benchmark.AllocationProfiler.AllocationSite;
+import org.opensearch.migrations.benchmark.DiscardingDocumentSink;
+import org.opensearch.migrations.benchmark.RepeatedDocumentSource;
+import org.opensearch.migrations.benchmark.Scenario;
+import org.opensearch.migrations.benchmark.SerializingDocumentSink;
+import org.opensearch.migrations.benchmark.ShapedDocumentSource;
+import org.opensearch.migrations.benchmark.SnapshotFixture;
+import org.opensearch.migrations.benchmark.SourcelessIndexSource;
+import org.opensearch.migrations.benchmark.Stage;
+import org.opensearch.migrations.benchmark.StageResult;
+import org.opensearch.migrations.benchmark.StoredSourceIndexSource;
+import org.opensearch.migrations.benchmark.StubBulkTarget;
+import org.opensearch.migrations.bulkload.SnapshotExtractor;
+import org.opensearch.migrations.bulkload.common.DocumentExceptionAllowlist;
+import org.opensearch.migrations.bulkload.common.OpenSearchClient;
+import org.opensearch.migrations.bulkload.common.RestClient;
+import org.opensearch.migrations.bulkload.common.http.CompressionMode;
+import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
+import org.opensearch.migrations.bulkload.pipeline.DocumentMigrationPipeline;
+import org.opensearch.migrations.bulkload.pipeline.adapter.LuceneSnapshotSource;
+import org.opensearch.migrations.bulkload.pipeline.adapter.OpenSearchDocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+import org.opensearch.migrations.bulkload.version_os_2_11.OpenSearchClient_OS_2_11;
+import org.opensearch.migrations.reindexer.FailedRequestsLogger;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times the document migration path offline: each scenario's documents are run through
+ * {@link DocumentMigrationPipeline} into sinks that stop after reading, after rendering bulk bodies, and
+ * after posting them to an in-process {@link StubBulkTarget}.  Every stage is run a few times and the
+ * median run is reported, with the difference to the previous stage as that stage's cost, so a change to
+ * the reader, the bulk rendering or the client shows up in its own column.
+ */
+@Slf4j
+public class RfsBenchmark {
+    public static final int REGRESSION_EXIT_CODE = 3;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Version TARGET_VERSION = Version.fromString("OS 2.11");
+
+    /** What a run wrote to {@code --report-file}, and what {@code --baseline-file} is read as. */
+    public record Report(String javaVersion, int availableProcessors, List<StageResult> results) {}
+
+    public static void main(String[] args) throws Exception {
+        var arguments = new RfsBenchmarkArgs();
+        var jCommander = JCommander.newBuilder()
+            .addObject(arguments)
+            .build();
+        jCommander.parse(args);
+
+        if (arguments.help) {
+            jCommander.usage();
+            return;
+        }
+
+        var results = new RfsBenchmark(arguments).run();
+        log.atInfo().setMessage("{}").addArgument(() -> formatResults(results)).log();
+
+        var report = new Report(System.getProperty("java.version"), Runtime.getRuntime().availableProcessors(), results);
+        if (arguments.reportFile != null) {
+            OBJECT_MAPPER.writeValue(arguments.reportFile.toFile(), report);
+            log.atInfo().setMessage("Wrote the results to {}").addArgument(arguments.reportFile).log();
+        }
+        if (arguments.baselineFile != null) {
+            var baseline = OBJECT_MAPPER.readValue(arguments.baselineFile.toFile(), Report.class);
+            var regressions = findRegressions(baseline.results(), results, arguments.maxRegressionPercent);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(r -> log.atError().setMessage("Regression: {}").addArgument(r).log());
+                System.exit(REGRESSION_EXIT_CODE);
+            }
+            log.atInfo().setMessage("No scenario is more than {}% slower than in {}")
+                .addArgument(arguments.maxRegressionPercent)
+                .addArgument(arguments.baselineFile)
+                .log();
+        }
+    }
+
+    private final RfsBenchmarkArgs arguments;
+
+    public RfsBenchmark(RfsBenchmarkArgs arguments) {
+        if (arguments.iterations < 1 || arguments.warmupIterations < 0) {
+            throw new ParameterException("--iterations must be >= 1 and --warmup-iterations >= 0");
+        }
+        this.arguments = arguments;
+    }
+
+    /** Runs every scenario up to every stage, in that order. */
+    public List<StageResult> run() throws Exception {
+        var scenarios = scenarios();
+        var stages = arguments.stages();
+        var results = new ArrayList<StageResult>();
+        try (var stub = new StubBulkTarget(new StubBulkTarget.Settings(
+            Duration.ofMillis(arguments.targetLatencyMs),
+            Duration.ofMillis(arguments.targetLatencyJitterMs),
+            arguments.targetItemErrorRate,
+            arguments.targetIoThreads
+        ))) {
+            var target = new Target(stub, createClient(stub));
+            for (var scenario : scenarios) {
+                for (var stage : stages) {
+                    results.add(measure(scenario, stage, target));
+                }
+            }
+        }
+        return results;
+    }
+
+    /** The stub target, and the client every {@link Stage#BULK} run posts to it with. */
+    record Target(StubBulkTarget stub, OpenSearchClient client) {}
+
+    private OpenSearchClient createClient(StubBulkTarget stub) {
+        var targetArgs = new ConnectionContext.TargetArgs();
+        targetArgs.host = stub.endpoint().toString();
+        var restClient = new RestClient(targetArgs.toConnectionContext(),
+            arguments.partitionConcurrency * arguments.batchConcurrency);
+        return new OpenSearchClient_OS_2_11(restClient, new FailedRequestsLogger(), TARGET_VERSION,
+            arguments.targetCompression ? CompressionMode.GZIP_BODY_COMPRESSION : CompressionMode.UNCOMPRESSED);
+    }
+
+    List<Scenario> scenarios() {
+        var scenarios = new ArrayList<Scenario>();
+        for (var shape : arguments.shapes()) {
+            scenarios.add(new Scenario("shape-" + shape.name().toLowerCase(),
+                workDir -> new ShapedDocumentSource(shape, arguments.partitions, arguments.docsPerPartition,
+                    arguments.distinctDocs, arguments.largeDocBytes),
+                arguments.partitionConcurrency));
+        }
+        if (arguments.storedSourceBytesPerPartition > 0) {
+            for (var shape : arguments.shapes()) {
+                scenarios.add(new Scenario("stored-lucene9-" + shape.name().toLowerCase(),
+                    workDir -> new StoredSourceIndexSource(workDir, shape, arguments.partitions,
+                        arguments.storedSourceBytesPerPartition, arguments.distinctDocs, arguments.largeDocBytes),
+                    arguments.partitionConcurrency));
+            }
+        }
+        if (arguments.sourcelessDocsPerPartition > 0) {
+            scenarios.add(new Scenario("sourceless-lucene9",
+                workDir -> new SourcelessIndexSource(workDir, arguments.partitions,
+                    arguments.sourcelessDocsPerPartition),
+                arguments.partitionConcurrency));
+        }
+        var fixtures = arguments.snapshots();
+        if (!fixtures.isEmpty()) {
+            var fixturesDir = SnapshotFixture.fixturesDirectory(arguments.fixturesDir);
+            for (var fixture : fixtures) {
+                scenarios.add(snapshotScenario("snapshot-" + fixture.name().toLowerCase(),
+                    fixturesDir.resolve(fixture.directoryName), fixture.snapshotName, fixture.version));
+            }
+        }
+        if (arguments.snapshotDir != null) {
+            if (arguments.snapshotName == null || arguments.snapshotVersion == null) {
+                throw new ParameterException("--snapshot-dir needs --snapshot-name and --snapshot-version");
+            }
+            scenarios.add(snapshotScenario("snapshot-" + arguments.snapshotName, arguments.snapshotDir,
+                arguments.snapshotName, Version.fromString(arguments.snapshotVersion)));
+        }
+        return scenarios;
+    }
+
+    private Scenario snapshotScenario(String name, Path repositoryDir, String snapshotName, Version version) {
+        return new Scenario(name,
+            workDir -> new RepeatedDocumentSource(
+                LuceneSnapshotSource.builder(SnapshotExtractor.forLocalSnapshot(repositoryDir, version),
+                    snapshotName, workDir).build(),
+                arguments.snapshotRepeat),
+            1);
+    }
+
+    /**
+     * Warms up, then times the scenario up to the stage {@code --iterations} times and keeps the median
+     * run.  If allocation sites are asked for, one more run is made with JFR sampling and their sites are
+     * added to the result; that run isn't timed, so the sampling doesn't skew the numbers.
+     */
+    StageResult measure(Scenario scenario, Stage stage, Target target) throws Exception {
+        log.atInfo().setMessage("Running {} up to {}").addArgument(scenario.name()).addArgument(stage).log();
+        for (int i = 0; i < arguments.warmupIterations; i++) {
+            runOnce(scenario, stage, target);
+        }
+        var runs = new ArrayList<StageResult>();
+        for (int i = 0; i < arguments.iterations; i++) {
+            runs.add(runOnce(scenario, stage, target));
+        }
+        runs.sort(Comparator.comparingLong(StageResult::wallNanos));
+        var median = runs.get(runs.size() / 2);
+
+        List<AllocationSite> sites = List.of();
+        if (arguments.allocationSites > 0) {
+            var profiler = new AllocationProfiler();
+            profiler.start();
+            runOnce(scenario, stage, target);
+            var keepAs = arguments.jfrDir == null ? null
+                : Files.createDirectories(arguments.jfrDir).resolve(scenario.name() + "-" + stage.name().toLowerCase() + ".jfr");
+            sites = profiler.stop(arguments.allocationSites, keepAs);
+        }
+        return new StageResult(median.scenario(), median.stage(), median.docs(), median.sourceBytes(),
+            median.wallNanos(), median.allocatedBytes(), median.gcCount(), median.gcMillis(), median.target(), sites);
+    }
+
+    private StageResult runOnce(Scenario scenario, Stage stage, Target target) throws Exception {
+        var workDir = Files.createTempDirectory("rfs-benchmark");
+        try (var source = scenario.sourceFactory().apply(workDir);
+             var sink = createSink(stage, target)) {
+            var pipeline = new DocumentMigrationPipeline(source, sink, arguments.docsPerBatch,
+                arguments.bytesPerBatch, scenario.partitionConcurrency(), arguments.batchConcurrency);
+            target.stub().resetStats();
+            System.gc();
+
+            var gcBefore = gcTotals();
+            var allocatedBefore = allocatedBytes();
+            var start = System.nanoTime();
+            pipeline.migrateAll().blockLast();
+            var wallNanos = System.nanoTime() - start;
+            var allocated = allocatedBytes() - allocatedBefore;
+            var gcAfter = gcTotals();
+
+            var progress = pipeline.getProgressSnapshot();
+            return new StageResult(scenario.name(), stage, progress.totalDocs(), progress.totalBytes(), wallNanos,
+                allocated, gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1],
+                stage == Stage.BULK ? target.stub().stats() : null, List.of());
+        } finally {
+            deleteTree(workDir);
+        }
+    }
+
+    private static DocumentSink createSink(Stage stage, Target target) {
+        return switch (stage) {
+            case READ -> new DiscardingDocumentSink();
+            case SERIALIZE -> new SerializingDocumentSink();
+            case BULK -> new OpenSearchDocumentSink(target.client(), null, false, DocumentExceptionAllowlist.empty(), null);
+        };
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getTotalThreadAllocatedBytes();
+    }
+
+    /** Collections and collection milliseconds of all collectors so far. */
+    private static long[] gcTotals() {
+        long count = 0;
+        long millis = 0;
+        for (var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[] { count, millis };
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * The results as a table per scenario.  The {@code +ns/doc} and {@code +B/doc} columns are what a stage
+     * adds to the one before it.
+     */
+    static String formatResults(List<StageResult> results) {
+        var out = new StringBuilder();
+        String scenario = null;
+        double previousNanosPerDoc = 0;
+        double previousBytesPerDoc = 0;
+        for (var result : results) {
+            if (!result.scenario().equals(scenario)) {
+                scenario = result.scenario();
+                previousNanosPerDoc = 0;
+                previousBytesPerDoc = 0;
+                out.append(String.format("%n%s%n%-14s %10s %12s %9s %10s %10s %10s %10s %6s %8s%n", scenario,
+                    "stage", "docs", "docs/s", "MiB/s", "ns/doc", "+ns/doc", "B/doc", "+B/doc", "GCs", "GC ms"));
+            }
+            out.append(String.format("%-14s %10d %12.0f %9.1f %10.0f %10.0f %10.0f %10.0f %6d %8d%n",
+                result.stage().label, result.docs(), result.docsPerSecond(), result.megabytesPerSecond(),
+                result.nanosPerDoc(), result.nanosPerDoc() - previousNanosPerDoc,
+                result.allocatedBytesPerDoc(), result.allocatedBytesPerDoc() - previousBytesPerDoc,
+                result.gcCount(), result.gcMillis()));
+            if (result.target() != null) {
+                var stats = result.target();
+                out.append(String.format("    target: %d bulk requests, %d items (%d rejected), %.1f MiB received, "
+                        + "%.0f ms parsing%n", stats.bulkRequests(), stats.items(), stats.rejectedItems(),
+                    stats.requestBytes() / (1024.0 * 1024), stats.parseNanos() / 1e6));
+            }
+            for (var site : result.allocationSites()) {
+                out.append(String.format("    %10.1f MiB  %s  (%s)%n", site.sampledBytes() / (1024.0 * 1024),
+                    site.site(), site.objectClass()));
+            }
+            previousNanosPerDoc = result.nanosPerDoc();
+            previousBytesPerDoc = result.allocatedBytesPerDoc();
+        }
+        return out.toString();
+    }
+
+    /**
+     * Describes every scenario and stage in both runs whose documents per second dropped by more than
+     * {@code maxRegressionPercent}.
+     */
+    static List<String> findRegressions(List<StageResult> baseline, List<StageResult> current,
+                                        double maxRegressionPercent) {
+        var baselineByKey = new HashMap<String, StageResult>();
+        baseline.forEach(r -> baselineByKey.put(r.scenario() + "/" + r.stage(), r));
+        return current.stream()
+            .map(result -> {
+                var before = baselineByKey.get(result.scenario() + "/" + result.stage());
+                if (before == null || before.docsPerSecond() == 0) {
+                    return null;
+                }
+                var changePercent = (result.docsPerSecond() / before.docsPerSecond() - 1) * 100;
+                if (changePercent >= -maxRegressionPercent) {
+                    return null;
+                }
+                return String.format("%s up to %s: %.0f docs/s, %.1f%% below the baseline's %.0f",
+                    result.scenario(), result.stage(), result.docsPerSecond(), -changePercent,
+                    before.docsPerSecond());
+            })
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
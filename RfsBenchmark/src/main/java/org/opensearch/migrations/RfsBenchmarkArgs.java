@@ -0,0 +1,166 @@
+package org.opensearch.migrations;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.opensearch.migrations.benchmark.DocumentShape;
+import org.opensearch.migrations.benchmark.SnapshotFixture;
+import org.opensearch.migrations.benchmark.Stage;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+
+public class RfsBenchmarkArgs {
+    @Parameter(names = {"--help", "-h"}, help = true, description = "Displays information about how to use this tool")
+    public boolean help;
+
+    // Synthetic scenarios
+    @Parameter(names = { "--shapes" },
+        description = "Synthetic document shapes to run, comma separated (LOGS, NESTED, LARGE); empty for none")
+    public List<String> shapes = names(DocumentShape.values());
+
+    @Parameter(names = { "--partitions" }, description = "Partitions of each synthetic scenario")
+    public int partitions = 4;
+
+    @Parameter(names = { "--docs-per-partition" }, description = "Documents in each synthetic partition")
+    public int docsPerPartition = 25_000;
+
+    @Parameter(names = { "--distinct-docs" },
+        description = "Distinct document bodies generated per shape and cycled through")
+    public int distinctDocs = 1_000;
+
+    @Parameter(names = { "--large-doc-bytes" }, description = "Approximate size of a LARGE document")
+    public int largeDocBytes = 64 * 1024;
+
+    @Parameter(names = { "--sourceless-docs-per-partition" },
+        description = "Documents in each of --partitions generated Lucene 9 indices with _source disabled, read "
+            + "by reconstructing every source from doc values; 0 for none")
+    public int sourcelessDocsPerPartition = 25_000;
+
+    @Parameter(names = { "--stored-source-bytes-per-partition" },
+        description = "Approximate _source bytes in each of --partitions generated Lucene 9 indices per shape, read "
+            + "through the stored-fields path like a real shard; 0 for none")
+    public long storedSourceBytesPerPartition = 32L * 1024 * 1024;
+
+    // Snapshot scenarios
+    @Parameter(names = { "--snapshots" },
+        description = "Checked-in snapshot fixtures to run, comma separated (ES_5_6, ES_6_8, ES_7_10); empty for none")
+    public List<String> snapshots = names(SnapshotFixture.values());
+
+    @Parameter(names = { "--snapshot-repeat" },
+        description = "How many times each snapshot's shards are read in a run; the fixtures are small")
+    public int snapshotRepeat = 200;
+
+    @Parameter(names = { "--fixtures-dir" },
+        description = "Directory holding the snapshot fixtures.  Default: RFS/test-resources/snapshots")
+    public Path fixturesDir = null;
+
+    @Parameter(names = { "--snapshot-dir" },
+        description = "A local snapshot repository to run in addition to the fixtures")
+    public Path snapshotDir = null;
+
+    @Parameter(names = { "--snapshot-name" }, description = "Snapshot to read from --snapshot-dir")
+    public String snapshotName = null;
+
+    @Parameter(names = { "--snapshot-version" },
+        description = "Version of the cluster that took the --snapshot-dir snapshot, e.g. 'ES 7.10'")
+    public String snapshotVersion = null;
+
+    // Pipeline
+    @Parameter(names = { "--stages" },
+        description = "How far down the migration path to time each scenario, comma separated (READ, SERIALIZE, BULK)")
+    public List<String> stages = names(Stage.values());
+
+    @Parameter(names = { "--docs-per-batch" }, description = "Maximum documents in a bulk request")
+    public int docsPerBatch = Integer.MAX_VALUE;
+
+    @Parameter(names = { "--bytes-per-batch" }, description = "Maximum source bytes in a bulk request")
+    public long bytesPerBatch = 10 * 1024 * 1024;
+
+    @Parameter(names = { "--partition-concurrency" },
+        description = "Synthetic partitions migrated at once; snapshot partitions are always migrated one at a time")
+    public int partitionConcurrency = 4;
+
+    @Parameter(names = { "--batch-concurrency" }, description = "Bulk requests in flight per partition")
+    public int batchConcurrency = 10;
+
+    // Stub target
+    @Parameter(names = { "--target-latency-ms" }, description = "Time the stub target holds back every response")
+    public long targetLatencyMs = 0;
+
+    @Parameter(names = { "--target-latency-jitter-ms" },
+        description = "Up to how much longer the stub target holds back a response, uniformly at random")
+    public long targetLatencyJitterMs = 0;
+
+    @Parameter(names = { "--target-item-error-rate" },
+        description = "Fraction of bulk items the stub target rejects with a retryable 429")
+    public double targetItemErrorRate = 0;
+
+    @Parameter(names = { "--target-io-threads" }, description = "Event loop threads of the stub target")
+    public int targetIoThreads = 2;
+
+    @Parameter(names = { "--target-compression" }, description = "Gzip bulk request bodies")
+    public boolean targetCompression = false;
+
+    // Measurement
+    @Parameter(names = { "--warmup-iterations" }, description = "Untimed runs of each scenario and stage")
+    public int warmupIterations = 1;
+
+    @Parameter(names = { "--iterations" },
+        description = "Timed runs of each scenario and stage; the median run is reported")
+    public int iterations = 3;
+
+    @Parameter(names = { "--allocation-sites" },
+        description = "Top allocation sites to report per scenario and stage, sampled with JFR; 0 to skip sampling")
+    public int allocationSites = 10;
+
+    @Parameter(names = { "--jfr-dir" },
+        description = "Directory to keep the allocation recordings in, one per scenario and stage")
+    public Path jfrDir = null;
+
+    // Reporting
+    @Parameter(names = { "--report-file" }, description = "File to write the results to as JSON")
+    public Path reportFile = null;
+
+    @Parameter(names = { "--baseline-file" },
+        description = "Report of an earlier run to compare with; the run fails if any scenario and stage got slower "
+            + "than --max-regression-percent allows")
+    public Path baselineFile = null;
+
+    @Parameter(names = { "--max-regression-percent" },
+        description = "How much lower a scenario's documents per second may be than the baseline's")
+    public double maxRegressionPercent = 10;
+
+    // Enum lists are taken as names so that an empty argument can turn a kind of scenario off
+    public List<DocumentShape> shapes() {
+        return valuesOf(DocumentShape.class, "--shapes", shapes);
+    }
+
+    public List<SnapshotFixture> snapshots() {
+        return valuesOf(SnapshotFixture.class, "--snapshots", snapshots);
+    }
+
+    public List<Stage> stages() {
+        return valuesOf(Stage.class, "--stages", stages);
+    }
+
+    private static List<String> names(Enum<?>[] values) {
+        return Arrays.stream(values).map(Enum::name).toList();
+    }
+
+    private static <E extends Enum<E>> List<E> valuesOf(Class<E> type, String option, List<String> names) {
+        return names.stream()
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .map(name -> {
+                try {
+                    return Enum.valueOf(type, name.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new ParameterException("Invalid value for " + option + ": " + name + ". Valid values are: "
+                        + String.join(", ", names(type.getEnumConstants())));
+                }
+            })
+            .toList();
+    }
+}
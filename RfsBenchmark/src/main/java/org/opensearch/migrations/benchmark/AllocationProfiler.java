@@ -0,0 +1,88 @@
+package org.opensearch.migrations.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Samples allocations with JFR ({@code jdk.ObjectAllocationSample}) while a stage runs, and sums the
+ * sampled weights by the first frame outside the JDK that allocated them.  The weights are JFR's
+ * estimates of the bytes allocated since the previous sample on the thread, so they add up to roughly
+ * the stage's total allocation.
+ */
+public class AllocationProfiler {
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+
+    /**
+     * @param site         {@code Type.method} of the frame the allocation is charged to
+     * @param objectClass  the class of the objects allocated there
+     * @param sampledBytes estimated bytes allocated
+     */
+    public record AllocationSite(String site, String objectClass, long sampledBytes) {}
+
+    private final Recording recording = new Recording();
+
+    public AllocationProfiler() {
+        recording.enable(ALLOCATION_SAMPLE).with("throttle", "2000/s").withStackTrace();
+        recording.setToDisk(true);
+    }
+
+    public void start() {
+        recording.start();
+    }
+
+    /**
+     * Stops sampling and returns the {@code top} allocation sites by sampled bytes.
+     *
+     * @param keepAs where to keep the recording for later inspection (e.g. with JDK Mission Control), or
+     *               null to discard it
+     */
+    public List<AllocationSite> stop(int top, Path keepAs) throws IOException {
+        recording.stop();
+        var file = keepAs != null ? keepAs : Files.createTempFile("rfs-benchmark", ".jfr");
+        try {
+            recording.dump(file);
+            var bytesBySite = new HashMap<Map.Entry<String, String>, Long>();
+            for (var event : RecordingFile.readAllEvents(file)) {
+                if (ALLOCATION_SAMPLE.equals(event.getEventType().getName())) {
+                    bytesBySite.merge(Map.entry(siteOf(event), event.getClass("objectClass").getName()),
+                        event.getLong("weight"), Long::sum);
+                }
+            }
+            return bytesBySite.entrySet().stream()
+                .sorted(Map.Entry.<Map.Entry<String, String>, Long>comparingByValue().reversed())
+                .limit(top)
+                .map(e -> new AllocationSite(e.getKey().getKey(), e.getKey().getValue(), e.getValue()))
+                .toList();
+        } finally {
+            recording.close();
+            if (keepAs == null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static String siteOf(RecordedEvent event) {
+        var stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        RecordedFrame site = stackTrace.getFrames().get(0);
+        for (var frame : stackTrace.getFrames()) {
+            var type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                site = frame;
+                break;
+            }
+        }
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName();
+    }
+}
@@ -0,0 +1,31 @@
+package org.opensearch.migrations.benchmark;
+
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+
+import reactor.core.publisher.Mono;
+
+/** Accepts every batch without looking at it, so that a run times only the source and batching. */
+public class DiscardingDocumentSink implements DocumentSink {
+    @Override
+    public Mono<Void> createCollection(CollectionMetadata metadata) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+        return Mono.fromSupplier(() -> new BatchResult(batch.size(), sourceBytes(batch)));
+    }
+
+    static long sourceBytes(List<Document> batch) {
+        long bytes = 0;
+        for (var doc : batch) {
+            bytes += doc.sourceLength();
+        }
+        return bytes;
+    }
+}
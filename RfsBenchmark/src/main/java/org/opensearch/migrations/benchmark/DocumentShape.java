@@ -0,0 +1,99 @@
+package org.opensearch.migrations.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The kinds of documents {@link ShapedDocumentSource} generates.  Each shape renders a document from a
+ * seeded random generator, so a given seed always yields the same bytes.
+ */
+public enum DocumentShape {
+    /** A flat web server log line of about 250 bytes, like the http_logs workload. */
+    LOGS {
+        @Override
+        void write(JsonGenerator json, SplittableRandom random, int largeDocBytes) throws IOException {
+            json.writeNumberField("@timestamp", 893_964_617L + random.nextInt(86_400 * 90));
+            json.writeStringField("clientip", random.nextInt(256) + "." + random.nextInt(256) + "."
+                + random.nextInt(256) + "." + random.nextInt(256));
+            json.writeStringField("request", "GET /english/" + word(random) + "/" + word(random) + "_"
+                + random.nextInt(10_000) + ".html HTTP/1.0");
+            json.writeNumberField("status", random.nextInt(20) == 0 ? 404 : 200);
+            json.writeNumberField("size", random.nextInt(50_000));
+        }
+    },
+    /** A question with one to eight answer objects, about 1 KiB, like the nested workload. */
+    NESTED {
+        @Override
+        void write(JsonGenerator json, SplittableRandom random, int largeDocBytes) throws IOException {
+            json.writeStringField("title", sentence(random, 3 + random.nextInt(8)));
+            json.writeStringField("user", word(random) + " (" + (1000 + random.nextInt(100)) + ")");
+            json.writeNumberField("creationDate", 1_600_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+            json.writeArrayFieldStart("tag");
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                json.writeString(word(random));
+            }
+            json.writeEndArray();
+            json.writeArrayFieldStart("answers");
+            for (int i = random.nextInt(8); i >= 0; i--) {
+                json.writeStartObject();
+                json.writeStringField("user", word(random) + " (" + (1000 + random.nextInt(100)) + ")");
+                json.writeNumberField("date", 1_600_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+                json.writeStringField("text", sentence(random, 5 + random.nextInt(20)));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    },
+    /** A document whose {@code body} text makes it about {@code --large-doc-bytes} long. */
+    LARGE {
+        @Override
+        void write(JsonGenerator json, SplittableRandom random, int largeDocBytes) throws IOException {
+            json.writeStringField("title", sentence(random, 8));
+            json.writeNumberField("published", 1_600_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+            var body = new StringBuilder(largeDocBytes + 16);
+            while (body.length() < largeDocBytes) {
+                body.append(word(random)).append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            json.writeStringField("body", body.toString());
+        }
+    };
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String[] WORDS = {
+        "migration", "snapshot", "shard", "segment", "cluster", "replica", "lucene", "mapping", "search",
+        "index", "bulk", "document", "routing", "analyzer", "tokenizer", "field", "keyword", "aggregation",
+        "query", "filter", "score", "merge", "refresh", "translog", "primary", "node", "heap", "cache"
+    };
+
+    abstract void write(JsonGenerator json, SplittableRandom random, int largeDocBytes) throws IOException;
+
+    /** The {@code _source} of the document for {@code seed}. */
+    public byte[] render(long seed, int largeDocBytes) {
+        var bytes = new ByteArrayOutputStream(this == LARGE ? largeDocBytes + 256 : 1024);
+        try (var json = JSON_FACTORY.createGenerator(bytes)) {
+            json.writeStartObject();
+            write(json, new SplittableRandom(seed), largeDocBytes);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String sentence(SplittableRandom random, int words) {
+        var sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i == 0 ? "" : " ").append(word(random));
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package org.opensearch.migrations.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Lists every partition of another source {@code repeat} times, so that a small snapshot is read (and
+ * unpacked) often enough to be timed.  Each copy's documents get the copy number appended to their ids.
+ */
+public class RepeatedDocumentSource implements DocumentSource {
+    private final DocumentSource delegate;
+    private final int repeat;
+
+    public RepeatedDocumentSource(DocumentSource delegate, int repeat) {
+        if (repeat < 1) {
+            throw new IllegalArgumentException("repeat must be >= 1, got " + repeat);
+        }
+        this.delegate = delegate;
+        this.repeat = repeat;
+    }
+
+    public record RepeatedPartition(Partition original, int copy) implements Partition {
+        @Override
+        public String name() {
+            return original.name() + "#" + copy;
+        }
+
+        @Override
+        public String collectionName() {
+            return original.collectionName();
+        }
+    }
+
+    @Override
+    public List<String> listCollections() {
+        return delegate.listCollections();
+    }
+
+    @Override
+    public List<Partition> listPartitions(String collectionName) {
+        var partitions = new ArrayList<Partition>();
+        for (int copy = 0; copy < repeat; copy++) {
+            for (var partition : delegate.listPartitions(collectionName)) {
+                partitions.add(new RepeatedPartition(partition, copy));
+            }
+        }
+        return partitions;
+    }
+
+    @Override
+    public CollectionMetadata readCollectionMetadata(String collectionName) {
+        return delegate.readCollectionMetadata(collectionName);
+    }
+
+    @Override
+    public long partitionSizeBytes(Partition partition) {
+        return delegate.partitionSizeBytes(((RepeatedPartition) partition).original());
+    }
+
+    @Override
+    public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        var repeated = (RepeatedPartition) partition;
+        var suffix = "~" + repeated.copy();
+        return delegate.readDocuments(repeated.original(), startingDocOffset)
+            .map(doc -> new Document(doc.id() + suffix, doc.source(), doc.operation(), doc.hints(),
+                doc.sourceMetadata()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        delegate.close();
+    }
+}
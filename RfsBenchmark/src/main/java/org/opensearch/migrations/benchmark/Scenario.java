@@ -0,0 +1,16 @@
+package org.opensearch.migrations.benchmark;
+
+import java.nio.file.Path;
+import java.util.function.Function;
+
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+/**
+ * A source of documents to time the migration path with.
+ *
+ * @param name                 how the scenario is reported
+ * @param sourceFactory        creates a fresh source for one run, given an empty scratch directory for it
+ * @param partitionConcurrency partitions read at once; snapshot sources unpack every copy of a shard into
+ *                             the same place, so they have to be read one partition at a time
+ */
+public record Scenario(String name, Function<Path, DocumentSource> sourceFactory, int partitionConcurrency) {}
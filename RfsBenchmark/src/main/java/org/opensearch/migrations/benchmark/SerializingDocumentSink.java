@@ -0,0 +1,41 @@
+package org.opensearch.migrations.benchmark;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.opensearch.migrations.bulkload.common.ObjectMapperFactory;
+import org.opensearch.migrations.bulkload.common.bulk.BulkNdjson;
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+/**
+ * Renders every batch as the bulk body the client would send for it, on the thread that emitted the
+ * batch as the client does, and then drops it.  The rendered size is kept so that the work can't be optimized away.
+ */
+public class SerializingDocumentSink implements DocumentSink {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.createDefaultMapper();
+
+    private final LongAdder renderedBytes = new LongAdder();
+
+    @Override
+    public Mono<Void> createCollection(CollectionMetadata metadata) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+        return Mono.fromSupplier(() -> {
+            renderedBytes.add(BulkNdjson.toRawNdjsonBytes(batch, collectionName, false, OBJECT_MAPPER).length);
+            return new BatchResult(batch.size(), DiscardingDocumentSink.sourceBytes(batch));
+        });
+    }
+
+    public long renderedBytes() {
+        return renderedBytes.sum();
+    }
+}
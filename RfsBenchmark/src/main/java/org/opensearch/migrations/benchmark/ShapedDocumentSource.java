@@ -0,0 +1,82 @@
+package org.opensearch.migrations.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link DocumentSource} of one collection of {@link DocumentShape} documents.  A fixed pool of distinct
+ * sources is rendered up front and cycled through under unique ids, so reading costs next to nothing and
+ * the stages after the source dominate what is measured; the pool is the same on every run.
+ */
+public class ShapedDocumentSource implements DocumentSource {
+    private final String collectionName;
+    private final int partitionCount;
+    private final int docsPerPartition;
+    private final byte[][] sources;
+
+    public ShapedDocumentSource(DocumentShape shape, int partitionCount, int docsPerPartition, int distinctDocs,
+                                int largeDocBytes) {
+        if (partitionCount < 1 || docsPerPartition < 0 || distinctDocs < 1) {
+            throw new IllegalArgumentException("partitionCount and distinctDocs must be >= 1 and docsPerPartition >= 0");
+        }
+        this.collectionName = "bench-" + shape.name().toLowerCase();
+        this.partitionCount = partitionCount;
+        this.docsPerPartition = docsPerPartition;
+        this.sources = IntStream.range(0, distinctDocs)
+            .mapToObj(i -> shape.render(i, largeDocBytes))
+            .toArray(byte[][]::new);
+    }
+
+    public record ShapedPartition(String collectionName, int index) implements Partition {
+        @Override
+        public String name() {
+            return "shaped/" + collectionName + "/" + index;
+        }
+    }
+
+    @Override
+    public List<String> listCollections() {
+        return List.of(collectionName);
+    }
+
+    @Override
+    public List<Partition> listPartitions(String collectionName) {
+        return IntStream.range(0, partitionCount)
+            .mapToObj(i -> (Partition) new ShapedPartition(collectionName, i))
+            .toList();
+    }
+
+    @Override
+    public CollectionMetadata readCollectionMetadata(String collectionName) {
+        return new CollectionMetadata(collectionName, partitionCount, Map.of());
+    }
+
+    @Override
+    public long partitionSizeBytes(Partition partition) {
+        long poolBytes = 0;
+        for (var source : sources) {
+            poolBytes += source.length;
+        }
+        return poolBytes * docsPerPartition / sources.length;
+    }
+
+    @Override
+    public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        var index = ((ShapedPartition) partition).index();
+        return Flux.range((int) startingDocOffset, Math.max(0, docsPerPartition - (int) startingDocOffset))
+            .map(docNum -> new Document(
+                index + "-" + docNum,
+                sources[(int) (((long) index * docsPerPartition + docNum) % sources.length)],
+                Document.Operation.UPSERT,
+                Map.of(),
+                Map.of()));
+    }
+}
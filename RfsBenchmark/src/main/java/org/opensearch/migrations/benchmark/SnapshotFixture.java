@@ -0,0 +1,51 @@
+package org.opensearch.migrations.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.opensearch.migrations.Version;
+
+/**
+ * The checked-in snapshot repositories (see {@code RFS/test-resources/inventory.md}) that the benchmark
+ * reads, one per Lucene format.  They hold the same index of updated and deleted documents, so their
+ * results are comparable with each other.
+ */
+public enum SnapshotFixture {
+    /** Lucene 6 */
+    ES_5_6("ES_5_6_Updates_Deletes", "rfs_snapshot", "ES 5.6"),
+    /** Lucene 7 */
+    ES_6_8("ES_6_8_Updates_Deletes_Native", "rfs_snapshot", "ES 6.8"),
+    /** Lucene 8, with soft deletes */
+    ES_7_10("ES_7_10_Updates_Deletes_w_Soft", "rfs_snapshot", "ES 7.10");
+
+    private static final Path FIXTURES = Paths.get("RFS", "test-resources", "snapshots");
+
+    public final String directoryName;
+    public final String snapshotName;
+    public final Version version;
+
+    SnapshotFixture(String directoryName, String snapshotName, String version) {
+        this.directoryName = directoryName;
+        this.snapshotName = snapshotName;
+        this.version = Version.fromString(version);
+    }
+
+    /**
+     * The fixtures directory, found from the repository root or any module directory under it unless
+     * given explicitly.
+     */
+    public static Path fixturesDirectory(Path explicitDirectory) {
+        if (explicitDirectory != null) {
+            return explicitDirectory;
+        }
+        var cwd = Paths.get("").toAbsolutePath();
+        for (var candidate : new Path[] { cwd.resolve(FIXTURES), cwd.resolveSibling(FIXTURES) }) {
+            if (Files.isDirectory(candidate)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("Could not find " + FIXTURES + " from " + cwd
+            + "; run from the repository root or pass --fixtures-dir");
+    }
+}
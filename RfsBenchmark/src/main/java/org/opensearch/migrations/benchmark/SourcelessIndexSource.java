@@ -0,0 +1,144 @@
+package org.opensearch.migrations.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.opensearch.migrations.bulkload.common.Uid;
+import org.opensearch.migrations.bulkload.lucene.FieldMappingContext;
+import org.opensearch.migrations.bulkload.lucene.LuceneReader;
+import org.opensearch.migrations.bulkload.lucene.version_9.IndexReader9;
+import org.opensearch.migrations.bulkload.pipeline.adapter.LuceneAdapter;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Flux;
+import shadow.lucene9.org.apache.lucene.analysis.core.KeywordAnalyzer;
+import shadow.lucene9.org.apache.lucene.document.SortedNumericDocValuesField;
+import shadow.lucene9.org.apache.lucene.document.SortedSetDocValuesField;
+import shadow.lucene9.org.apache.lucene.document.StoredField;
+import shadow.lucene9.org.apache.lucene.index.IndexWriter;
+import shadow.lucene9.org.apache.lucene.index.IndexWriterConfig;
+import shadow.lucene9.org.apache.lucene.index.SegmentInfos;
+import shadow.lucene9.org.apache.lucene.store.FSDirectory;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
+
+/**
+ * {@link DocumentSource} over Lucene 9 indices of logs-like documents that were indexed with
+ * {@code _source} disabled, so every field is only in doc values and each document's source is
+ * reconstructed from them when it is read.  The indices are written, one per partition, when the source
+ * is created; the checked-in fixtures all keep {@code _source}, and are too small to time reading by.
+ */
+public class SourcelessIndexSource implements DocumentSource {
+    public static final String COLLECTION_NAME = "bench-sourceless";
+
+    private static final String MAPPINGS = """
+        {"_source":{"enabled":false},"properties":{
+          "@timestamp":{"type":"date"},
+          "host":{"type":"keyword"},
+          "status":{"type":"long"},
+          "bytes":{"type":"long"}}}""";
+    private static final long START_MILLIS = 1_700_000_000_000L;
+    private static final int HOSTS = 50;
+    private static final long[] STATUSES = { 200, 200, 200, 201, 304, 404, 500 };
+
+    private final Path directory;
+    private final int docsPerPartition;
+    private final String[] segmentsFileNames;
+    private final FieldMappingContext mappingContext;
+    private final LuceneAdapter luceneAdapter = new LuceneAdapter();
+
+    /**
+     * @param directory        an empty directory to write the indices to; deleting it is left to the caller
+     * @param partitionCount   indices to write
+     * @param docsPerPartition documents in each index
+     */
+    public SourcelessIndexSource(Path directory, int partitionCount, int docsPerPartition) {
+        if (partitionCount < 1 || docsPerPartition < 1) {
+            throw new IllegalArgumentException("partitionCount and docsPerPartition must be >= 1");
+        }
+        this.directory = directory;
+        this.docsPerPartition = docsPerPartition;
+        this.segmentsFileNames = new String[partitionCount];
+        try {
+            this.mappingContext = new FieldMappingContext(new ObjectMapper().readTree(MAPPINGS));
+            for (int partition = 0; partition < partitionCount; partition++) {
+                segmentsFileNames[partition] = writeIndex(indexDirectory(partition), partition);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the sourceless indices to " + directory, e);
+        }
+    }
+
+    public record IndexPartition(String collectionName, int index) implements Partition {
+        @Override
+        public String name() {
+            return "sourceless/" + collectionName + "/" + index;
+        }
+    }
+
+    private Path indexDirectory(int partition) {
+        return directory.resolve(String.valueOf(partition));
+    }
+
+    /** Writes one partition's documents and returns the name of its commit's segments file. */
+    private String writeIndex(Path indexDirectory, int partition) throws IOException {
+        try (var luceneDirectory = FSDirectory.open(Files.createDirectories(indexDirectory));
+             var writer = new IndexWriter(luceneDirectory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+            for (int docNum = 0; docNum < docsPerPartition; docNum++) {
+                long seed = (long) partition * docsPerPartition + docNum;
+                var doc = new shadow.lucene9.org.apache.lucene.document.Document();
+                doc.add(new StoredField("_id", new BytesRef(encodeId(partition + "-" + docNum))));
+                doc.add(new SortedNumericDocValuesField("@timestamp", START_MILLIS + seed * 1_000));
+                doc.add(new SortedSetDocValuesField("host", new BytesRef("host-" + (seed % HOSTS) + ".example.com")));
+                doc.add(new SortedNumericDocValuesField("status", STATUSES[(int) (seed % STATUSES.length)]));
+                doc.add(new SortedNumericDocValuesField("bytes", 200 + (seed * 7919) % 50_000));
+                writer.addDocument(doc);
+            }
+            writer.commit();
+            return SegmentInfos.readLatestCommit(luceneDirectory).getSegmentsFileName();
+        }
+    }
+
+    /** The UTF-8 form of {@link Uid}'s id encoding, which is what Elasticsearch stores in {@code _id}. */
+    static byte[] encodeId(String id) {
+        var utf8 = id.getBytes(StandardCharsets.UTF_8);
+        var encoded = new byte[utf8.length + 1];
+        encoded[0] = (byte) Uid.UTF8;
+        System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+        return encoded;
+    }
+
+    @Override
+    public List<String> listCollections() {
+        return List.of(COLLECTION_NAME);
+    }
+
+    @Override
+    public List<Partition> listPartitions(String collectionName) {
+        return IntStream.range(0, segmentsFileNames.length)
+            .mapToObj(i -> (Partition) new IndexPartition(collectionName, i))
+            .toList();
+    }
+
+    @Override
+    public CollectionMetadata readCollectionMetadata(String collectionName) {
+        return new CollectionMetadata(collectionName, segmentsFileNames.length, Map.of());
+    }
+
+    @Override
+    public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        var index = ((IndexPartition) partition).index();
+        return LuceneReader.streamDocumentChanges(new IndexReader9(indexDirectory(index), false, null),
+                segmentsFileNames[index], Math.toIntExact(startingDocOffset), mappingContext)
+            .map(luceneAdapter::fromLucene);
+    }
+}
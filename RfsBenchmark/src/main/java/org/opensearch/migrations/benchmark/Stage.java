@@ -0,0 +1,20 @@
+package org.opensearch.migrations.benchmark;
+
+/**
+ * How far down the migration path a benchmark run goes.  Each stage includes the ones before it, so the
+ * cost of a stage is the difference between its time and the previous stage's.
+ */
+public enum Stage {
+    /** Reading documents from the source (for snapshots: blob fetch, unpack and Lucene read) and batching. */
+    READ("read + batch"),
+    /** Rendering each batch as a bulk NDJSON body, as the client does before sending it. */
+    SERIALIZE("+ NDJSON"),
+    /** Sending the batches to the stub target and parsing its bulk responses, retries included. */
+    BULK("+ HTTP/bulk");
+
+    public final String label;
+
+    Stage(String label) {
+        this.label = label;
+    }
+}
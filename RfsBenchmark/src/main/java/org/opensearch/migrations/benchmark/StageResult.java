@@ -0,0 +1,48 @@
+package org.opensearch.migrations.benchmark;
+
+import java.util.List;
+
+import org.opensearch.migrations.benchmark.AllocationProfiler.AllocationSite;
+
+/**
+ * One timed run of a scenario up to a stage.
+ *
+ * @param scenario        the scenario's name
+ * @param stage           how far down the migration path the run went
+ * @param docs            documents that reached the sink
+ * @param sourceBytes     source bytes of those documents
+ * @param wallNanos       time from subscribing to the pipeline until it completed
+ * @param allocatedBytes  bytes allocated by all threads of the JVM (stub target included) during the run
+ * @param gcCount         garbage collections during the run
+ * @param gcMillis        time the collectors reported spending during the run
+ * @param target          what the stub target received, or null for stages that don't send anything
+ * @param allocationSites where most of the allocation happened, if sampled
+ */
+public record StageResult(
+    String scenario,
+    Stage stage,
+    long docs,
+    long sourceBytes,
+    long wallNanos,
+    long allocatedBytes,
+    long gcCount,
+    long gcMillis,
+    StubBulkTarget.Stats target,
+    List<AllocationSite> allocationSites
+) {
+    public double docsPerSecond() {
+        return wallNanos == 0 ? 0 : docs * 1e9 / wallNanos;
+    }
+
+    public double megabytesPerSecond() {
+        return wallNanos == 0 ? 0 : sourceBytes * 1e9 / wallNanos / (1024 * 1024);
+    }
+
+    public double nanosPerDoc() {
+        return docs == 0 ? 0 : (double) wallNanos / docs;
+    }
+
+    public double allocatedBytesPerDoc() {
+        return docs == 0 ? 0 : (double) allocatedBytes / docs;
+    }
+}
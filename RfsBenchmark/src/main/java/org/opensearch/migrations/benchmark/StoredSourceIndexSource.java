@@ -0,0 +1,125 @@
+package org.opensearch.migrations.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.opensearch.migrations.bulkload.lucene.LuceneReader;
+import org.opensearch.migrations.bulkload.lucene.version_9.IndexReader9;
+import org.opensearch.migrations.bulkload.pipeline.adapter.LuceneAdapter;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+import reactor.core.publisher.Flux;
+import shadow.lucene9.org.apache.lucene.analysis.core.KeywordAnalyzer;
+import shadow.lucene9.org.apache.lucene.document.StoredField;
+import shadow.lucene9.org.apache.lucene.index.IndexWriter;
+import shadow.lucene9.org.apache.lucene.index.IndexWriterConfig;
+import shadow.lucene9.org.apache.lucene.index.SegmentInfos;
+import shadow.lucene9.org.apache.lucene.store.FSDirectory;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
+
+/**
+ * {@link DocumentSource} over Lucene 9 indices of {@link DocumentShape} documents stored the way
+ * Elasticsearch stores them, with {@code _id} and {@code _source} as stored fields, so reading goes
+ * through {@link LuceneReader}'s stored-fields path and {@link LuceneAdapter} like a real shard does.
+ * The indices are written, one per partition, when the source is created, cycling through the same pool
+ * of distinct sources as {@link ShapedDocumentSource}.  Each partition holds as many documents as fit in
+ * its byte budget, so the LARGE shape doesn't need gigabytes of disk to be timed.
+ */
+public class StoredSourceIndexSource implements DocumentSource {
+    private final Path directory;
+    private final String collectionName;
+    private final int docsPerPartition;
+    private final String[] segmentsFileNames;
+    private final LuceneAdapter luceneAdapter = new LuceneAdapter();
+
+    /**
+     * @param directory         an empty directory to write the indices to; deleting it is left to the caller
+     * @param partitionCount    indices to write
+     * @param bytesPerPartition approximate {@code _source} bytes in each index; at least one document is written
+     */
+    public StoredSourceIndexSource(Path directory, DocumentShape shape, int partitionCount, long bytesPerPartition,
+                                   int distinctDocs, int largeDocBytes) {
+        if (partitionCount < 1 || bytesPerPartition < 1 || distinctDocs < 1) {
+            throw new IllegalArgumentException("partitionCount, bytesPerPartition and distinctDocs must be >= 1");
+        }
+        this.directory = directory;
+        this.collectionName = "bench-stored-" + shape.name().toLowerCase();
+        this.segmentsFileNames = new String[partitionCount];
+        var sources = IntStream.range(0, distinctDocs)
+            .mapToObj(i -> shape.render(i, largeDocBytes))
+            .toArray(byte[][]::new);
+        long poolBytes = 0;
+        for (var source : sources) {
+            poolBytes += source.length;
+        }
+        this.docsPerPartition = (int) Math.min(Integer.MAX_VALUE,
+            Math.max(1, bytesPerPartition * sources.length / poolBytes));
+        try {
+            for (int partition = 0; partition < partitionCount; partition++) {
+                segmentsFileNames[partition] = writeIndex(indexDirectory(partition), partition, sources);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the stored-source indices to " + directory, e);
+        }
+    }
+
+    public record IndexPartition(String collectionName, int index) implements Partition {
+        @Override
+        public String name() {
+            return "stored/" + collectionName + "/" + index;
+        }
+    }
+
+    private Path indexDirectory(int partition) {
+        return directory.resolve(String.valueOf(partition));
+    }
+
+    /** Writes one partition's documents and returns the name of its commit's segments file. */
+    private String writeIndex(Path indexDirectory, int partition, byte[][] sources) throws IOException {
+        try (var luceneDirectory = FSDirectory.open(Files.createDirectories(indexDirectory));
+             var writer = new IndexWriter(luceneDirectory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+            for (int docNum = 0; docNum < docsPerPartition; docNum++) {
+                var source = sources[(int) (((long) partition * docsPerPartition + docNum) % sources.length)];
+                var doc = new shadow.lucene9.org.apache.lucene.document.Document();
+                doc.add(new StoredField("_id", new BytesRef(SourcelessIndexSource.encodeId(partition + "-" + docNum))));
+                doc.add(new StoredField("_source", new BytesRef(source)));
+                writer.addDocument(doc);
+            }
+            writer.commit();
+            return SegmentInfos.readLatestCommit(luceneDirectory).getSegmentsFileName();
+        }
+    }
+
+    @Override
+    public List<String> listCollections() {
+        return List.of(collectionName);
+    }
+
+    @Override
+    public List<Partition> listPartitions(String collectionName) {
+        return IntStream.range(0, segmentsFileNames.length)
+            .mapToObj(i -> (Partition) new IndexPartition(collectionName, i))
+            .toList();
+    }
+
+    @Override
+    public CollectionMetadata readCollectionMetadata(String collectionName) {
+        return new CollectionMetadata(collectionName, segmentsFileNames.length, Map.of());
+    }
+
+    @Override
+    public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        var index = ((IndexPartition) partition).index();
+        return LuceneReader.streamDocumentChanges(new IndexReader9(indexDirectory(index), false, null),
+                segmentsFileNames[index], Math.toIntExact(startingDocOffset))
+            .map(luceneAdapter::fromLucene);
+    }
+}
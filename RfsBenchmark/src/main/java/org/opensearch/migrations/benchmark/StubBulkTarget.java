@@ -0,0 +1,283 @@
+package org.opensearch.migrations.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An in-process stand-in for a target cluster's {@code _bulk} API.  Bulk bodies are parsed for their
+ * action lines, and each item is answered as a real cluster would: created, or (at
+ * {@link Settings#itemErrorRate}) rejected with a retryable 429 {@code es_rejected_execution_exception}.
+ * Responses are held back for {@link Settings#latency} plus up to {@link Settings#latencyJitter} without
+ * tying up an event loop thread.  Other requests succeed with an empty object, so index existence checks
+ * pass and nothing else needs to be stubbed.
+ */
+@Slf4j
+public class StubBulkTarget implements AutoCloseable {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_REQUEST_BYTES = 512 * 1024 * 1024;
+    private static final byte[] EMPTY_OBJECT = "{}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * @param latency       time every response is held back for
+     * @param latencyJitter up to how much longer a response is held back, uniformly at random
+     * @param itemErrorRate fraction of bulk items rejected with a 429
+     * @param ioThreads     event loop threads serving requests
+     */
+    public record Settings(Duration latency, Duration latencyJitter, double itemErrorRate, int ioThreads) {
+        public Settings {
+            if (itemErrorRate < 0 || itemErrorRate >= 1) {
+                throw new IllegalArgumentException("itemErrorRate must be in [0, 1), got " + itemErrorRate);
+            }
+        }
+    }
+
+    /** What the target has been sent since it started or was last {@link #resetStats reset}. */
+    public record Stats(long bulkRequests, long items, long rejectedItems, long requestBytes, long parseNanos) {}
+
+    private final Settings settings;
+    private final EventLoopGroup bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("stubTargetBoss"));
+    private final EventLoopGroup workerGroup;
+    private final Channel serverChannel;
+
+    private final AtomicLong bulkRequests = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong rejectedItems = new AtomicLong();
+    private final AtomicLong requestBytes = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+
+    public StubBulkTarget(Settings settings) throws InterruptedException {
+        this.settings = settings;
+        this.workerGroup = new NioEventLoopGroup(settings.ioThreads(), new DefaultThreadFactory("stubTargetIo"));
+        this.serverChannel = new ServerBootstrap()
+            .group(bossGroup, workerGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline()
+                        .addLast(new HttpServerCodec())
+                        .addLast(new HttpContentDecompressor())
+                        .addLast(new HttpObjectAggregator(MAX_REQUEST_BYTES))
+                        .addLast(new RequestHandler());
+                }
+            })
+            .bind("localhost", 0)
+            .sync()
+            .channel();
+        log.atInfo().setMessage("Stub target listening on {}").addArgument(this::endpoint).log();
+    }
+
+    public URI endpoint() {
+        var address = (InetSocketAddress) serverChannel.localAddress();
+        return URI.create("http://localhost:" + address.getPort());
+    }
+
+    public Stats stats() {
+        return new Stats(bulkRequests.get(), items.get(), rejectedItems.get(), requestBytes.get(), parseNanos.get());
+    }
+
+    public void resetStats() {
+        bulkRequests.set(0);
+        items.set(0);
+        rejectedItems.set(0);
+        requestBytes.set(0);
+        parseNanos.set(0);
+    }
+
+    private class RequestHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) throws IOException {
+            var keepAlive = HttpUtil.isKeepAlive(request);
+            byte[] body;
+            if (request.method().equals(HttpMethod.POST) && request.uri().contains("_bulk")) {
+                var start = System.nanoTime();
+                var bytes = ByteBufUtil.getBytes(request.content());
+                body = answerBulk(bytes, request.uri().contains("filter_path="));
+                parseNanos.addAndGet(System.nanoTime() - start);
+                requestBytes.addAndGet(bytes.length);
+                bulkRequests.incrementAndGet();
+            } else if (request.method().equals(HttpMethod.HEAD)) {
+                body = new byte[0];
+            } else {
+                body = EMPTY_OBJECT;
+            }
+            var response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(body));
+            response.headers()
+                .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                .setInt(HttpHeaderNames.CONTENT_LENGTH, body.length);
+            HttpUtil.setKeepAlive(response, keepAlive);
+
+            var delayMillis = settings.latency().toMillis();
+            if (!settings.latencyJitter().isZero()) {
+                delayMillis += ThreadLocalRandom.current().nextLong(settings.latencyJitter().toMillis() + 1);
+            }
+            Runnable send = () -> {
+                var written = ctx.writeAndFlush(response);
+                if (!keepAlive) {
+                    written.addListener(f -> ctx.close());
+                }
+            };
+            if (delayMillis > 0) {
+                ctx.executor().schedule(send, delayMillis, TimeUnit.MILLISECONDS);
+            } else {
+                send.run();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.atWarn().setMessage("Closing a stub target connection").setCause(cause).log();
+            ctx.close();
+        }
+    }
+
+    /** The response to a bulk request body, trimmed as for {@code filter_path} if {@code filtered}. */
+    byte[] answerBulk(byte[] ndjson, boolean filtered) throws IOException {
+        var random = ThreadLocalRandom.current();
+        var actions = new ArrayList<Action>();
+        var anyRejected = false;
+        int position = 0;
+        while (position < ndjson.length) {
+            var lineEnd = lineEnd(ndjson, position);
+            if (lineEnd == position) {
+                position++;
+                continue;
+            }
+            var action = readAction(ndjson, position, lineEnd - position, random.nextDouble() < settings.itemErrorRate());
+            position = lineEnd + 1;
+            if (!"delete".equals(action.operation)) {
+                position = lineEnd(ndjson, position) + 1;
+            }
+            anyRejected |= action.rejected;
+            actions.add(action);
+        }
+
+        var out = new ByteArrayOutputStream(256 + actions.size() * (filtered ? 64 : 160));
+        try (var json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("took", settings.latency().toMillis());
+            json.writeBooleanField("errors", anyRejected);
+            json.writeArrayFieldStart("items");
+            for (var action : actions) {
+                writeItem(json, action, filtered);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        items.addAndGet(actions.size());
+        return out.toByteArray();
+    }
+
+    private void writeItem(JsonGenerator json, Action action, boolean filtered) throws IOException {
+        var isDelete = "delete".equals(action.operation);
+        json.writeStartObject();
+        json.writeFieldName(action.operation);
+        json.writeStartObject();
+        if (!filtered) {
+            json.writeStringField("_index", action.index);
+        }
+        json.writeStringField("_id", action.id);
+        if (action.rejected) {
+            rejectedItems.incrementAndGet();
+            json.writeNumberField("status", 429);
+            json.writeObjectFieldStart("error");
+            json.writeStringField("type", "es_rejected_execution_exception");
+            json.writeStringField("reason", "rejected execution of coordinating operation [stub target]");
+            json.writeEndObject();
+        } else {
+            json.writeStringField("result", isDelete ? "not_found" : "created");
+            if (!filtered) {
+                json.writeNumberField("_version", 1);
+                json.writeObjectFieldStart("_shards");
+                json.writeNumberField("total", 2);
+                json.writeNumberField("successful", 1);
+                json.writeNumberField("failed", 0);
+                json.writeEndObject();
+                json.writeNumberField("_seq_no", 0);
+                json.writeNumberField("_primary_term", 1);
+            }
+            json.writeNumberField("status", isDelete ? 404 : 201);
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private record Action(String operation, String index, String id, boolean rejected) {}
+
+    private static Action readAction(byte[] bytes, int offset, int length, boolean rejected) throws IOException {
+        try (var parser = JSON_FACTORY.createParser(bytes, offset, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                throw new IOException("Malformed bulk action line at byte " + offset);
+            }
+            var operation = parser.currentName();
+            String index = null;
+            String id = null;
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                parser.nextToken();
+                if ("_index".equals(field)) {
+                    index = parser.getText();
+                } else if ("_id".equals(field)) {
+                    id = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new Action(operation, index,
+                id != null ? id : Long.toHexString(ThreadLocalRandom.current().nextLong()), rejected);
+        }
+    }
+
+    private static int lineEnd(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return bytes.length;
+    }
+
+    @Override
+    public void close() {
+        serverChannel.close().syncUninterruptibly();
+        workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,146 @@
+package org.opensearch.migrations;
+
+import java.util.List;
+
+import org.opensearch.migrations.benchmark.DocumentShape;
+import org.opensearch.migrations.benchmark.Stage;
+import org.opensearch.migrations.benchmark.StageResult;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RfsBenchmarkTest {
+
+    private static RfsBenchmarkArgs quickArgs() {
+        var args = new RfsBenchmarkArgs();
+        args.shapes = List.of();
+        args.snapshots = List.of();
+        args.sourcelessDocsPerPartition = 0;
+        args.storedSourceBytesPerPartition = 0;
+        args.warmupIterations = 0;
+        args.iterations = 1;
+        args.allocationSites = 0;
+        return args;
+    }
+
+    @Test
+    void runsShapedDocumentsThroughEveryStage() throws Exception {
+        var args = quickArgs();
+        args.shapes = List.of("logs");
+        args.partitions = 2;
+        args.docsPerPartition = 300;
+        args.distinctDocs = 10;
+        args.docsPerBatch = 50;
+
+        var results = new RfsBenchmark(args).run();
+
+        assertEquals(List.of(Stage.READ, Stage.SERIALIZE, Stage.BULK), results.stream().map(StageResult::stage).toList());
+        for (var result : results) {
+            assertEquals("shape-logs", result.scenario());
+            assertEquals(600, result.docs());
+            assertTrue(result.sourceBytes() > 0);
+            assertTrue(result.wallNanos() > 0);
+        }
+        assertNull(results.get(0).target());
+        var target = results.get(2).target();
+        assertNotNull(target);
+        assertEquals(12, target.bulkRequests());
+        assertEquals(600, target.items());
+        assertEquals(0, target.rejectedItems());
+        assertTrue(RfsBenchmark.formatResults(results).contains("shape-logs"));
+    }
+
+    @Test
+    void readsEveryCopyOfASnapshotFixture() throws Exception {
+        var args = quickArgs();
+        args.snapshots = List.of("ES_7_10");
+        args.stages = List.of("READ");
+        args.snapshotRepeat = 1;
+        var once = new RfsBenchmark(args).run();
+        args.snapshotRepeat = 3;
+        var thrice = new RfsBenchmark(args).run();
+
+        assertEquals("snapshot-es_7_10", once.get(0).scenario());
+        assertTrue(once.get(0).docs() > 0);
+        assertEquals(3 * once.get(0).docs(), thrice.get(0).docs());
+    }
+
+    @Test
+    void reconstructsTheSourceOfEveryGeneratedSourcelessDocument() throws Exception {
+        var args = quickArgs();
+        args.sourcelessDocsPerPartition = 500;
+        args.partitions = 2;
+        args.stages = List.of("READ");
+
+        var result = new RfsBenchmark(args).run().get(0);
+
+        assertEquals("sourceless-lucene9", result.scenario());
+        assertEquals(1_000, result.docs());
+        // every document has a timestamp, a host, a status and a size
+        assertTrue(result.sourceBytes() > 1_000 * 60, "source bytes " + result.sourceBytes());
+    }
+
+    @Test
+    void everyShapeIsAlsoReadBackFromALucene9IndexOfStoredSources() throws Exception {
+        var args = quickArgs();
+        args.stages = List.of("READ");
+        args.partitions = 2;
+        args.distinctDocs = 10;
+        args.largeDocBytes = 8 * 1024;
+        args.docsPerPartition = 30;
+
+        for (var shape : List.of(DocumentShape.LOGS, DocumentShape.NESTED, DocumentShape.LARGE)) {
+            long poolBytes = 0;
+            for (int i = 0; i < args.distinctDocs; i++) {
+                poolBytes += shape.render(i, args.largeDocBytes).length;
+            }
+            args.shapes = List.of(shape.name());
+            // a budget of three pools is exactly --docs-per-partition documents
+            args.storedSourceBytesPerPartition = 3 * poolBytes;
+            var results = new RfsBenchmark(args).run();
+
+            assertEquals(List.of("shape-" + shape.name().toLowerCase(), "stored-lucene9-" + shape.name().toLowerCase()),
+                results.stream().map(StageResult::scenario).toList());
+            var inMemory = results.get(0);
+            var stored = results.get(1);
+            assertEquals(60, stored.docs());
+            assertEquals(inMemory.docs(), stored.docs());
+            assertEquals(inMemory.sourceBytes(), stored.sourceBytes());
+        }
+    }
+
+    @Test
+    void sampledAllocationSitesAreReported() throws Exception {
+        var args = quickArgs();
+        args.shapes = List.of("nested");
+        args.stages = List.of("SERIALIZE");
+        args.partitions = 1;
+        args.docsPerPartition = 20_000;
+        args.allocationSites = 5;
+
+        var result = new RfsBenchmark(args).run().get(0);
+
+        assertTrue(result.allocatedBytes() > 0);
+        assertTrue(!result.allocationSites().isEmpty() && result.allocationSites().size() <= 5);
+    }
+
+    @Test
+    void slowerScenariosAreRegressions() {
+        var baseline = List.of(result("a", Stage.READ, 1_000_000_000L), result("b", Stage.READ, 1_000_000_000L));
+        var current = List.of(result("a", Stage.READ, 1_050_000_000L), result("b", Stage.READ, 1_200_000_000L),
+            result("c", Stage.READ, 9_000_000_000L));
+
+        var regressions = RfsBenchmark.findRegressions(baseline, current, 10);
+
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("b up to READ"), regressions.get(0));
+    }
+
+    private static StageResult result(String scenario, Stage stage, long wallNanos) {
+        return new StageResult(scenario, stage, 1_000, 1_000_000, wallNanos, 0, 0, 0, null, List.of());
+    }
+}
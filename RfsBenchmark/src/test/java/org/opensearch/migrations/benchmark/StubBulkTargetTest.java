@@ -0,0 +1,68 @@
+package org.opensearch.migrations.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StubBulkTargetTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BODY = """
+        {"index":{"_index":"idx","_id":"1"}}
+        {"title":"one","tags":["a","b"]}
+        {"delete":{"_index":"idx","_id":"2"}}
+        {"index":{"_index":"idx"}}
+        {"title":"no id"}
+        """;
+
+    @Test
+    void answersEveryItemInOrder() throws Exception {
+        try (var target = new StubBulkTarget(new StubBulkTarget.Settings(Duration.ZERO, Duration.ZERO, 0, 1))) {
+            var response = MAPPER.readTree(target.answerBulk(BODY.getBytes(StandardCharsets.UTF_8), false));
+
+            assertFalse(response.get("errors").asBoolean());
+            var items = response.get("items");
+            assertEquals(3, items.size());
+            assertEquals("1", items.get(0).get("index").get("_id").asText());
+            assertEquals(201, items.get(0).get("index").get("status").asInt());
+            assertEquals("idx", items.get(0).get("index").get("_index").asText());
+            assertEquals(404, items.get(1).get("delete").get("status").asInt());
+            assertTrue(items.get(2).get("index").hasNonNull("_id"));
+            assertEquals(3, target.stats().items());
+        }
+    }
+
+    @Test
+    void rejectsItemsAtTheErrorRateAndFlagsTheResponse() throws Exception {
+        var body = BODY.repeat(200).getBytes(StandardCharsets.UTF_8);
+        try (var target = new StubBulkTarget(new StubBulkTarget.Settings(Duration.ZERO, Duration.ZERO, 0.5, 1))) {
+            var response = MAPPER.readTree(target.answerBulk(body, true));
+
+            assertTrue(response.get("errors").asBoolean());
+            long rejected = 0;
+            for (var item : response.get("items")) {
+                var result = item.elements().next();
+                assertFalse(result.has("_index"), "filtered responses leave out _index");
+                if (result.get("status").asInt() == 429) {
+                    assertEquals("es_rejected_execution_exception", result.get("error").get("type").asText());
+                    rejected++;
+                }
+            }
+            assertEquals(target.stats().rejectedItems(), rejected);
+            assertTrue(rejected > 150 && rejected < 450, "rejected " + rejected + " of 600");
+        }
+    }
+
+    @Test
+    void errorRateMustBeBelowOne() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new StubBulkTarget.Settings(Duration.ZERO, Duration.ZERO, 1, 1));
+    }
+}
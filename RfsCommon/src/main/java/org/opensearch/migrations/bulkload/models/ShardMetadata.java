@@ -4,6 +4,8 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.opensearch.migrations.bulkload.common.RfsException;
 import org.opensearch.migrations.bulkload.common.SnapshotMetadataLoader;
@@ -49,6 +51,37 @@ public interface ShardMetadata {
         return segmentFiles.get(0).getPhysicalName();
     }
 
+    /**
+     * Total file bytes per Lucene segment, keyed and ordered by segment name.  Files that don't
+     * belong to a single segment (the {@code segments_N} commit point, lock files) are left out.
+     */
+    default SortedMap<String, Long> getBytesBySegment() {
+        var bytesBySegment = new TreeMap<String, Long>();
+        for (var file : getFiles()) {
+            var segmentName = segmentNameOf(file.getPhysicalName());
+            if (segmentName != null) {
+                bytesBySegment.merge(segmentName, file.getLength(), Long::sum);
+            }
+        }
+        return bytesBySegment;
+    }
+
+    /**
+     * The segment a Lucene file belongs to (e.g. {@code _4} for {@code _4.cfs}, {@code _4_1.liv}
+     * and {@code _4_Lucene90_0.dvd}), or null for files that aren't per-segment.  Mirrors Lucene's
+     * {@code IndexFileNames.parseSegmentName}.
+     */
+    static String segmentNameOf(String physicalName) {
+        if (physicalName == null || !physicalName.startsWith("_")) {
+            return null;
+        }
+        int end = physicalName.indexOf('_', 1);
+        if (end == -1) {
+            end = physicalName.indexOf('.');
+        }
+        return end == -1 ? physicalName : physicalName.substring(0, end);
+    }
+
     /**
     * Defines the behavior required to read a snapshot's shard metadata as JSON and convert it into a Data object
     */
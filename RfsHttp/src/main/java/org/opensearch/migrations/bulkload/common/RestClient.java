@@ -4,6 +4,7 @@ import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLParameters;
 
+import java.net.URI;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -14,6 +15,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
+import org.opensearch.migrations.bulkload.common.http.ByteArrayHttpResponse;
 import org.opensearch.migrations.bulkload.common.http.CompositeTransformer;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
 import org.opensearch.migrations.bulkload.common.http.GzipPayloadRequestTransformer;
@@ -36,9 +38,11 @@ import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufMono;
 import reactor.netty.Connection;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.tcp.SslProvider;
 import reactor.util.annotation.Nullable;
@@ -48,6 +52,8 @@ public class RestClient {
     @Getter
     private final ConnectionContext connectionContext;
     private final HttpClient client;
+    /** The pool this client created for itself, or null if it uses the one it was given or Reactor's */
+    private final ConnectionProvider connectionProvider;
 
     public static final String READ_METERING_HANDLER_NAME = "REST_CLIENT_READ_METERING_HANDLER";
     public static final String WRITE_METERING_HANDLER_NAME = "REST_CLIENT_WRITE_METERING_HANDLER";
@@ -78,13 +84,23 @@ public class RestClient {
      *                       will be created with default values provided by Reactor.
      */
     public RestClient(ConnectionContext connectionContext, int maxConnections) {
-        this(connectionContext, maxConnections <= 0
-            ? HttpClient.create()
-            : HttpClient.create(ConnectionProvider.create("RestClient", maxConnections)));
+        this(connectionContext, maxConnections <= 0 ? null : ConnectionProvider.create("RestClient", maxConnections));
+    }
+
+    private RestClient(ConnectionContext connectionContext, ConnectionProvider connectionProvider) {
+        this(connectionContext,
+            connectionProvider == null ? HttpClient.create() : HttpClient.create(connectionProvider),
+            connectionProvider);
     }
 
     protected RestClient(ConnectionContext connectionContext, HttpClient httpClient) {
+        this(connectionContext, httpClient, null);
+    }
+
+    private RestClient(ConnectionContext connectionContext, HttpClient httpClient,
+                       ConnectionProvider connectionProvider) {
         this.connectionContext = connectionContext;
+        this.connectionProvider = connectionProvider;
         TlsCredentialsProvider tlsCredentialsProvider = connectionContext.getTlsCredentialsProvider();
 
         SslProvider sslProvider;
@@ -106,6 +122,34 @@ public class RestClient {
             .keepAlive(true);
     }
 
+    /** A client for another host of the same cluster, with this client's credentials and TLS settings. */
+    public RestClient forUri(URI uri) {
+        return new RestClient(connectionContext.withUri(uri));
+    }
+
+    /**
+     * As {@link #forUri(URI)}, with a connection pool of its own of up to {@code maxConnections}, which
+     * {@link #dispose()} closes.
+     */
+    public RestClient forUri(URI uri, int maxConnections) {
+        return new RestClient(connectionContext.withUri(uri), maxConnections);
+    }
+
+    /**
+     * Closes the connection pool this client was created with, if it has one of its own; a client on
+     * Reactor's shared pool has nothing to close.  A client whose pool is closed can't send requests.
+     */
+    public void dispose() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    /** Whether {@link #dispose()} has closed this client's own connection pool. */
+    public boolean isDisposed() {
+        return connectionProvider != null && connectionProvider.isDisposed();
+    }
+
     public static String getHostHeaderValue(ConnectionContext connectionContext) {
         String host = connectionContext.getUri().getHost();
         int port = connectionContext.getUri().getPort();
@@ -142,6 +186,40 @@ public class RestClient {
 
     public Mono<HttpResponse> asyncRequestBytes(HttpMethod method, String path, byte[] body, Map<String, List<String>> additionalHeaders,
                                                 @Nullable IRfsContexts.IRequestContext context) {
+        return exchange(method, path, body, additionalHeaders, context,
+            (response, bytes) -> bytes.asString()
+                .singleOptional()
+                .map(bodyOp -> new HttpResponse(
+                    response.status().code(),
+                    response.status().reasonPhrase(),
+                    extractHeaders(response.responseHeaders()),
+                    bodyOp.orElse(null)
+                    ))
+        );
+    }
+
+    /**
+     * Same request as {@link #asyncRequestBytes}, but the response body is handed back as the
+     * aggregated bytes rather than decoded to a {@code String}, for callers that only stream-parse it.
+     */
+    public Mono<ByteArrayHttpResponse> asyncRequestBytesRaw(HttpMethod method, String path, byte[] body,
+                                                            Map<String, List<String>> additionalHeaders,
+                                                            @Nullable IRfsContexts.IRequestContext context) {
+        return exchange(method, path, body, additionalHeaders, context,
+            (response, bytes) -> bytes.asByteArray()
+                .singleOptional()
+                .map(bodyOp -> new ByteArrayHttpResponse(
+                    response.status().code(),
+                    response.status().reasonPhrase(),
+                    extractHeaders(response.responseHeaders()),
+                    bodyOp.orElse(null)
+                    ))
+        );
+    }
+
+    private <T> Mono<T> exchange(HttpMethod method, String path, byte[] body, Map<String, List<String>> additionalHeaders,
+                                 @Nullable IRfsContexts.IRequestContext context,
+                                 BiFunction<HttpClientResponse, ByteBufMono, Mono<T>> responseReader) {
         assert connectionContext.getUri() != null;
         Map<String, List<String>> headers = new HashMap<>();
         headers.put(USER_AGENT_HEADER_NAME, List.of(USER_AGENT));
@@ -174,16 +252,7 @@ public class RestClient {
                 .request(method)
                 .uri("/" + path)
                 .send(transformedRequest.getBody().map(Unpooled::wrappedBuffer))
-                .responseSingle(
-                    (response, bytes) -> bytes.asString()
-                        .singleOptional()
-                        .map(bodyOp -> new HttpResponse(
-                            response.status().code(),
-                            response.status().reasonPhrase(),
-                            extractHeaders(response.responseHeaders()),
-                            bodyOp.orElse(null)
-                            ))
-                )
+                .responseSingle(responseReader)
             )
             .doOnError(t -> {
                 if (context != null) {
@@ -240,6 +309,16 @@ public class RestClient {
         return asyncRequestBytes(HttpMethod.POST, path, body, additionalHeaders, context);
     }
 
+    /** {@link #postAsyncBytes} whose response body stays as bytes; see {@link #asyncRequestBytesRaw}. */
+    public Mono<ByteArrayHttpResponse> postAsyncBytesRaw(
+        String path,
+        byte[] body,
+        Map<String, List<String>> additionalHeaders,
+        IRfsContexts.IRequestContext context
+    ) {
+        return asyncRequestBytesRaw(HttpMethod.POST, path, body, additionalHeaders, context);
+    }
+
     public Mono<HttpResponse> postAsync(String path, String body, IRfsContexts.IRequestContext context) {
         return asyncRequest(HttpMethod.POST, path, body, null, context);
     }
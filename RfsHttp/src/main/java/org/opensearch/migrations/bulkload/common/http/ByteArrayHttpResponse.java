@@ -0,0 +1,40 @@
+package org.opensearch.migrations.bulkload.common.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * An HTTP response whose body is kept as the aggregated bytes off the wire instead of being
+ * decoded to a {@code String}. Useful for large responses (e.g. {@code _bulk}) that are only
+ * scanned by a streaming parser and are decoded, if at all, on an error path.
+ */
+@AllArgsConstructor
+public class ByteArrayHttpResponse {
+    public final int statusCode;
+    public final String statusText;
+    public final Map<String, String> headers;
+    public final byte[] body;
+
+    public ByteArrayHttpResponse(int statusCode, String statusText, Map<String, String> headers, String body) {
+        this(statusCode, statusText, headers, body != null ? body.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /** Decodes the body as UTF-8; each call decodes again. */
+    public String bodyAsString() {
+        return body != null ? new String(body, StandardCharsets.UTF_8) : null;
+    }
+
+    public HttpResponse toHttpResponse() {
+        return new HttpResponse(statusCode, statusText, headers, bodyAsString());
+    }
+
+    @Override
+    public String toString() {
+        return "ByteArrayHttpResponse(statusCode=" + statusCode
+            + ", statusText=" + statusText
+            + ", headers=" + headers
+            + ", body=" + bodyAsString() + ")";
+    }
+}
@@ -110,6 +110,27 @@ public class ConnectionContext {
         this.disableCompression = params.isDisableCompression();
     }
 
+    /**
+     * The same credentials, TLS settings and request transformer, addressed to another host of the same
+     * cluster (e.g. one node).  The scheme must match this context's.
+     */
+    public ConnectionContext withUri(URI otherUri) {
+        if (!uri.getScheme().equals(otherUri.getScheme())) {
+            throw new IllegalArgumentException("Expected a " + uri.getScheme() + " uri, got " + otherUri);
+        }
+        return new ConnectionContext(this, otherUri);
+    }
+
+    private ConnectionContext(ConnectionContext original, URI uri) {
+        this.uri = uri;
+        this.protocol = original.protocol;
+        this.insecure = original.insecure;
+        this.requestTransformer = original.requestTransformer;
+        this.awsSpecificAuthentication = original.awsSpecificAuthentication;
+        this.disableCompression = original.disableCompression;
+        this.tlsCredentialsProvider = original.tlsCredentialsProvider;
+    }
+
     // Used for presentation to user facing output
     public Map<String, String> toUserFacingData() {
         var dataBuilder = new LinkedHashMap<String, String>();
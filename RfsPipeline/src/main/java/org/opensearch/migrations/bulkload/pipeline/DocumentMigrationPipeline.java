@@ -35,6 +35,18 @@ import reactor.core.scheduler.Schedulers;
  * </ul>
  * Within a single partition, batch results are emitted in order (via {@code flatMapSequential})
  * even when multiple writes are in flight.
+ *
+ * <h3>Sorted partitions</h3>
+ * With a {@link DocumentSorter}, each partition's documents are reordered before batching.  Their
+ * write order then no longer follows the source offsets, so the cursors of a sorted partition keep
+ * the starting offset until every batch has been written, after which one more cursor (with no
+ * documents) carries the partition's final offset.  An interrupted sorted partition is redone from
+ * its starting offset.
+ *
+ * <h3>Stage metrics</h3>
+ * The time each batch took to come out of the source and to be written, and how many documents and
+ * batches sit in the batcher and in {@code flatMapSequential}, are recorded into a
+ * {@link PipelineStageMetrics} that the sink can share, and are part of every {@link ProgressSnapshot}.
  */
 @Slf4j
 public class DocumentMigrationPipeline {
@@ -45,6 +57,8 @@ public class DocumentMigrationPipeline {
     private final long maxBytesPerBatch;
     private final int partitionConcurrency;
     private final int batchConcurrency;
+    private final DocumentSorter sorter;
+    private final PipelineStageMetrics stageMetrics;
 
     // Observable state — polled by PipelineProgressMonitor
     private final AtomicLong totalDocs = new AtomicLong();
@@ -76,6 +90,45 @@ public class DocumentMigrationPipeline {
         long maxBytesPerBatch,
         int partitionConcurrency,
         int batchConcurrency
+    ) {
+        this(source, sink, maxDocsPerBatch, maxBytesPerBatch, partitionConcurrency, batchConcurrency, null);
+    }
+
+    /**
+     * Create a pipeline with configurable concurrency that writes each partition's documents in
+     * sorted order.
+     *
+     * @param sorter reorders each partition's documents before batching, or null to keep source order
+     */
+    public DocumentMigrationPipeline(
+        DocumentSource source,
+        DocumentSink sink,
+        int maxDocsPerBatch,
+        long maxBytesPerBatch,
+        int partitionConcurrency,
+        int batchConcurrency,
+        DocumentSorter sorter
+    ) {
+        this(source, sink, maxDocsPerBatch, maxBytesPerBatch, partitionConcurrency, batchConcurrency, sorter,
+            new PipelineStageMetrics());
+    }
+
+    /**
+     * Create a pipeline that records its stage timings and buffer occupancy into metrics shared with the
+     * sink, so that the sink's own stages can be compared with the pipeline's.
+     *
+     * @param stageMetrics where the pipeline records {@link PipelineStageMetrics.Stage#SOURCE_READ} and
+     *                     {@link PipelineStageMetrics.Stage#BATCH_WRITE} timings and its buffer occupancy
+     */
+    public DocumentMigrationPipeline(
+        DocumentSource source,
+        DocumentSink sink,
+        int maxDocsPerBatch,
+        long maxBytesPerBatch,
+        int partitionConcurrency,
+        int batchConcurrency,
+        DocumentSorter sorter,
+        PipelineStageMetrics stageMetrics
     ) {
         this.source = Objects.requireNonNull(source, "source must not be null");
         this.sink = Objects.requireNonNull(sink, "sink must not be null");
@@ -95,6 +148,9 @@ public class DocumentMigrationPipeline {
         this.maxBytesPerBatch = maxBytesPerBatch;
         this.partitionConcurrency = partitionConcurrency;
         this.batchConcurrency = batchConcurrency;
+        this.sorter = sorter;
+        this.stageMetrics = Objects.requireNonNull(stageMetrics, "stageMetrics must not be null");
+        stageMetrics.setWriteSlots(partitionConcurrency * batchConcurrency);
     }
 
     /** Snapshot of pipeline progress, safe to read from any thread. */
@@ -103,7 +159,8 @@ public class DocumentMigrationPipeline {
         long totalDocs,
         long totalBytes,
         int activeBatches,
-        int batchConcurrency
+        int batchConcurrency,
+        PipelineStageMetrics.Snapshot stages
     ) {}
 
     /** Returns a point-in-time snapshot of pipeline progress for external monitoring. */
@@ -113,7 +170,8 @@ public class DocumentMigrationPipeline {
             totalDocs.get(),
             totalBytes.get(),
             activeBatches.get(),
-            batchConcurrency
+            batchConcurrency,
+            stageMetrics.snapshot()
         );
     }
 
@@ -129,25 +187,46 @@ public class DocumentMigrationPipeline {
         final long[] cumulativeOffset = { startingDocOffset };
         return Flux.defer(() -> {
             currentPartition.set(partition);
-            return source.readDocuments(partition, startingDocOffset)
-                .subscribeOn(Schedulers.boundedElastic())
-                .bufferUntil(new BatchPredicate(maxDocsPerBatch, maxBytesPerBatch))
+            final long[] lastBatchFormed = { System.nanoTime() };
+            var documents = source.readDocuments(partition, startingDocOffset)
+                .subscribeOn(Schedulers.boundedElastic());
+            if (sorter != null) {
+                documents = sorter.sort(documents);
+            }
+            return documents
+                .bufferUntil(new BatchPredicate(maxDocsPerBatch, maxBytesPerBatch, stageMetrics))
+                .doOnNext(batch -> {
+                    var now = System.nanoTime();
+                    stageMetrics.record(PipelineStageMetrics.Stage.SOURCE_READ, now - lastBatchFormed[0]);
+                    lastBatchFormed[0] = now;
+                })
                 .flatMapSequential(batch -> {
                     activeBatches.incrementAndGet();
+                    stageMetrics.batchStarted(batch.size());
+                    var writeStart = System.nanoTime();
                     return sink.writeBatch(collectionName, batch)
                         .map(result -> {
+                            stageMetrics.record(PipelineStageMetrics.Stage.BATCH_WRITE, System.nanoTime() - writeStart);
+                            stageMetrics.batchWritten();
                             cumulativeOffset[0] += result.docsInBatch();
                             totalDocs.addAndGet(result.docsInBatch());
                             totalBytes.addAndGet(result.bytesInBatch());
                             return new ProgressCursor(
                                 partition,
-                                cumulativeOffset[0],
+                                sorter == null ? cumulativeOffset[0] : startingDocOffset,
                                 result.docsInBatch(),
                                 result.bytesInBatch()
                             );
                         })
-                        .doFinally(s -> activeBatches.decrementAndGet());
+                        .doFinally(s -> {
+                            activeBatches.decrementAndGet();
+                            stageMetrics.batchFinished();
+                        });
                 }, batchConcurrency)
+                .doOnNext(cursor -> stageMetrics.batchReleased())
+                .concatWith(sorter == null
+                    ? Flux.empty()
+                    : Flux.defer(() -> Flux.just(new ProgressCursor(partition, cumulativeOffset[0], 0, 0))))
                 .onErrorMap(e -> !(e instanceof PipelineException),
                     e -> new PipelineException("Failed migrating partition " + partition, e));
         });
@@ -190,16 +269,19 @@ public class DocumentMigrationPipeline {
     static class BatchPredicate implements java.util.function.Predicate<Document> {
         private final int maxDocs;
         private final long maxBytes;
+        private final PipelineStageMetrics stageMetrics;
         private int currentCount;
         private long currentBytes;
 
-        BatchPredicate(int maxDocs, long maxBytes) {
+        BatchPredicate(int maxDocs, long maxBytes, PipelineStageMetrics stageMetrics) {
             this.maxDocs = maxDocs;
             this.maxBytes = maxBytes;
+            this.stageMetrics = stageMetrics;
         }
 
         @Override
         public boolean test(Document doc) {
+            stageMetrics.documentsBuffered(1);
             currentCount++;
             currentBytes += doc.sourceLength();
 
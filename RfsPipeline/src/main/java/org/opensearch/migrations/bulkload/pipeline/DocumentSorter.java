@@ -0,0 +1,508 @@
+package org.opensearch.migrations.bulkload.pipeline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Optional pipeline stage that reorders the documents of a partition by fields of their
+ * {@code _source}, so that they reach the target in the order of its index sort (or in time order
+ * for time-series data) instead of the source's Lucene doc id order.
+ * <p>
+ * This is a bounded external merge sort: documents are buffered until {@code maxBytesInMemory},
+ * then sorted and spilled to a run file under {@code spillDirectory}; at the end of the partition the
+ * runs are merged.  Nothing is emitted before the whole partition has been read, and the spill files
+ * take about as much disk as the partition's sources.
+ * <p>
+ * Sort values are compared as the target would for the common cases: numbers numerically, strings
+ * (including formatted dates) lexicographically, multi-valued fields by their smallest value
+ * ascending and largest descending, and documents missing a field after those that have it.  Documents
+ * with equal keys keep their source order.  {@link Document.Operation#DELETE DELETE}s carry no source and
+ * are all emitted first, in source order, so that a delta's deletions still precede its additions.
+ * Sourceless documents are sorted by the {@code _source} the source adapter reconstructed for them.
+ */
+@Slf4j
+public class DocumentSorter {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /** Rough heap cost of a buffered document beyond its source and id */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+    private static final int SPILL_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * One sort criterion.
+     *
+     * @param path       a field of the {@code _source}, with dots for object nesting
+     * @param descending sort from the largest value to the smallest
+     */
+    public record SortField(String path, boolean descending) {
+        public SortField {
+            Objects.requireNonNull(path, "path must not be null");
+        }
+
+        /** Parses {@code field}, {@code field:asc} or {@code field:desc}. */
+        public static SortField parse(String spec) {
+            var colon = spec.lastIndexOf(':');
+            if (colon < 0) {
+                return new SortField(spec, false);
+            }
+            var order = spec.substring(colon + 1);
+            if (!order.equals("asc") && !order.equals("desc")) {
+                throw new IllegalArgumentException("Sort order must be 'asc' or 'desc', got '" + order + "' in " + spec);
+            }
+            return new SortField(spec.substring(0, colon), order.equals("desc"));
+        }
+    }
+
+    private final List<SortField> fields;
+    private final String[][] pathSegments;
+    private final long maxBytesInMemory;
+    private final Path spillDirectory;
+    private final Comparator<Entry> entryOrder;
+
+    /**
+     * @param fields           the sort criteria, most significant first
+     * @param maxBytesInMemory how much document data to buffer before spilling a sorted run to disk
+     * @param spillDirectory   where run files are written; each sort uses its own subdirectory
+     */
+    public DocumentSorter(List<SortField> fields, long maxBytesInMemory, Path spillDirectory) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one sort field is required");
+        }
+        if (maxBytesInMemory < 1) {
+            throw new IllegalArgumentException("maxBytesInMemory must be >= 1, got " + maxBytesInMemory);
+        }
+        this.fields = List.copyOf(fields);
+        this.pathSegments = fields.stream().map(f -> f.path().split("\\.")).toArray(String[][]::new);
+        this.maxBytesInMemory = maxBytesInMemory;
+        this.spillDirectory = Objects.requireNonNull(spillDirectory, "spillDirectory must not be null");
+        this.entryOrder = Comparator.<Entry, Object[]>comparing(Entry::key, this::compareKeys)
+            .thenComparingLong(Entry::sequence);
+    }
+
+    public List<SortField> getFields() {
+        return fields;
+    }
+
+    /** The documents of {@code documents} in sort order, once all of them have been read. */
+    public Flux<Document> sort(Flux<Document> documents) {
+        return Flux.using(
+            Session::new,
+            session -> documents
+                .doOnNext(session::add)
+                .thenMany(Flux.defer(() -> Flux.fromIterable(session::finish))),
+            Session::close
+        );
+    }
+
+    /** A document and where it goes: {@code key[0]} is 0 for deletions and 1 otherwise, then one value per field. */
+    record Entry(Object[] key, long sequence, Document document) {}
+
+    Object[] sortKey(Document document) {
+        var key = new Object[fields.size() + 1];
+        if (document.operation() == Document.Operation.DELETE || document.source() == null) {
+            key[0] = 0L;
+            return key;
+        }
+        key[0] = 1L;
+        JsonNode source;
+        try {
+            source = OBJECT_MAPPER.readTree(document.source());
+        } catch (IOException e) {
+            // unparseable sources sort as if they had none of the fields; the target will reject them anyway
+            return key;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            key[i + 1] = sortValue(resolve(source, pathSegments[i], 0), fields.get(i).descending());
+        }
+        return key;
+    }
+
+    /** Follows {@code segments} through objects, also accepting keys that themselves contain dots. */
+    private static JsonNode resolve(JsonNode node, String[] segments, int from) {
+        if (from == segments.length) {
+            return node;
+        }
+        if (node == null || !node.isObject()) {
+            return null;
+        }
+        var name = new StringBuilder();
+        for (int to = from; to < segments.length; to++) {
+            if (to > from) {
+                name.append('.');
+            }
+            name.append(segments[to]);
+            var child = node.get(name.toString());
+            if (child != null) {
+                var resolved = resolve(child, segments, to + 1);
+                if (resolved != null) {
+                    return resolved;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Object sortValue(JsonNode node, boolean descending) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isArray()) {
+            Object selected = null;
+            for (var element : node) {
+                var value = sortValue(element, descending);
+                if (value != null && (selected == null || (compareValues(value, selected) < 0) != descending)) {
+                    selected = value;
+                }
+            }
+            return selected;
+        }
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return node.longValue();
+        }
+        if (node.isNumber()) {
+            return node.doubleValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue() ? 1L : 0L;
+        }
+        if (node.isTextual()) {
+            return node.textValue();
+        }
+        return null;
+    }
+
+    int compareKeys(Object[] a, Object[] b) {
+        var byOperation = Long.compare((Long) a[0], (Long) b[0]);
+        if (byOperation != 0) {
+            return byOperation;
+        }
+        for (int i = 1; i < a.length; i++) {
+            if (a[i] == null || b[i] == null) {
+                // missing values last, whatever the order
+                if (a[i] != b[i]) {
+                    return a[i] == null ? 1 : -1;
+                }
+                continue;
+            }
+            var c = compareValues(a[i], b[i]);
+            if (c != 0) {
+                return fields.get(i - 1).descending() ? -c : c;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof Long x && b instanceof Long y) {
+            return Long.compare(x, y);
+        }
+        if (a instanceof Number x && b instanceof Number y) {
+            return Double.compare(x.doubleValue(), y.doubleValue());
+        }
+        if (a instanceof String x && b instanceof String y) {
+            return x.compareTo(y);
+        }
+        // a field that holds numbers in some documents and strings in others: numbers first
+        return a instanceof Number ? -1 : 1;
+    }
+
+    private static long estimatedBytes(Document document) {
+        return document.sourceLength() + 2L * document.id().length() + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /** The buffer and run files of one {@link #sort} call. */
+    private class Session implements Closeable {
+        private final List<Entry> buffer = new ArrayList<>();
+        private final List<Path> runs = new ArrayList<>();
+        private final List<RunReader> readers = new ArrayList<>();
+        private Path directory;
+        private long bufferedBytes;
+        private long sequence;
+
+        void add(Document document) {
+            buffer.add(new Entry(sortKey(document), sequence++, document));
+            bufferedBytes += estimatedBytes(document);
+            if (bufferedBytes >= maxBytesInMemory) {
+                spill();
+            }
+        }
+
+        private void spill() {
+            buffer.sort(entryOrder);
+            try {
+                if (directory == null) {
+                    Files.createDirectories(spillDirectory);
+                    directory = Files.createTempDirectory(spillDirectory, "sort-");
+                }
+                var run = directory.resolve("run-" + runs.size());
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), SPILL_BUFFER_BYTES))) {
+                    for (var entry : buffer) {
+                        writeEntry(out, entry);
+                    }
+                }
+                runs.add(run);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not spill sorted documents to " + spillDirectory, e);
+            }
+            log.atDebug().setMessage("Spilled {} documents ({} bytes) to sorted run {}")
+                .addArgument(buffer.size()).addArgument(bufferedBytes).addArgument(runs.size()).log();
+            buffer.clear();
+            bufferedBytes = 0;
+        }
+
+        Iterator<Document> finish() {
+            buffer.sort(entryOrder);
+            if (runs.isEmpty()) {
+                return buffer.stream().map(Entry::document).iterator();
+            }
+            log.atInfo().setMessage("Merging {} spilled runs and {} buffered documents of {} in total")
+                .addArgument(runs.size()).addArgument(buffer.size()).addArgument(sequence).log();
+            var heads = new PriorityQueue<RunReader>(Comparator.comparing(RunReader::head, entryOrder));
+            try {
+                for (var run : runs) {
+                    var reader = new RunReader(run);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read sorted runs from " + directory, e);
+            }
+            var inMemory = new RunReader(buffer.iterator());
+            if (inMemory.advance()) {
+                heads.add(inMemory);
+            }
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return !heads.isEmpty();
+                }
+
+                @Override
+                public Document next() {
+                    var reader = heads.poll();
+                    if (reader == null) {
+                        throw new NoSuchElementException();
+                    }
+                    var document = reader.head().document();
+                    if (reader.advance()) {
+                        heads.add(reader);
+                    }
+                    return document;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            for (var reader : readers) {
+                reader.close();
+            }
+            buffer.clear();
+            if (directory != null) {
+                for (var run : runs) {
+                    try {
+                        Files.deleteIfExists(run);
+                    } catch (IOException e) {
+                        log.atWarn().setCause(e).setMessage("Could not delete sort run {}").addArgument(run).log();
+                    }
+                }
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (IOException e) {
+                    log.atWarn().setCause(e).setMessage("Could not delete sort directory {}").addArgument(directory).log();
+                }
+            }
+        }
+    }
+
+    /** Reads entries back one at a time, from a run file or from the final in-memory buffer. */
+    private static class RunReader implements Closeable {
+        private final DataInputStream in;
+        private final Iterator<Entry> entries;
+        private Entry head;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), SPILL_BUFFER_BYTES));
+            this.entries = null;
+        }
+
+        RunReader(Iterator<Entry> entries) {
+            this.in = null;
+            this.entries = entries;
+        }
+
+        Entry head() {
+            return head;
+        }
+
+        boolean advance() {
+            if (entries != null) {
+                head = entries.hasNext() ? entries.next() : null;
+                return head != null;
+            }
+            try {
+                head = readEntry(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read a sorted run", e);
+            }
+            if (head == null) {
+                close();
+            }
+            return head != null;
+        }
+
+        @Override
+        public void close() {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    log.atDebug().setCause(e).setMessage("Could not close a sorted run").log();
+                }
+            }
+        }
+    }
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte LONG_VALUE = 1;
+    private static final byte DOUBLE_VALUE = 2;
+    private static final byte STRING_VALUE = 3;
+
+    static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        var doc = entry.document();
+        out.writeLong(entry.sequence());
+        out.writeByte(entry.key().length);
+        for (var value : entry.key()) {
+            writeValue(out, value);
+        }
+        writeString(out, doc.id());
+        out.writeByte(doc.operation().ordinal());
+        out.writeInt(doc.hints().size());
+        for (var hint : doc.hints().entrySet()) {
+            writeString(out, hint.getKey());
+            writeString(out, hint.getValue());
+        }
+        // only scalar diagnostics survive a spill
+        var scalarMetadata = doc.sourceMetadata().entrySet().stream()
+            .filter(e -> e.getValue() instanceof Integer || e.getValue() instanceof Long || e.getValue() instanceof String)
+            .toList();
+        out.writeInt(scalarMetadata.size());
+        for (var metadata : scalarMetadata) {
+            writeString(out, metadata.getKey());
+            var value = metadata.getValue();
+            out.writeByte(value instanceof Integer ? 0 : value instanceof Long ? 1 : 2);
+            if (value instanceof Integer i) {
+                out.writeInt(i);
+            } else if (value instanceof Long l) {
+                out.writeLong(l);
+            } else {
+                writeString(out, (String) value);
+            }
+        }
+        if (doc.source() == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(doc.source().length);
+            out.write(doc.source());
+        }
+    }
+
+    /** @return the next entry, or null at the end of the run */
+    static Entry readEntry(DataInputStream in) throws IOException {
+        long sequence;
+        try {
+            sequence = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        var key = new Object[in.readByte()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = readValue(in);
+        }
+        var id = readString(in);
+        var operation = Document.Operation.values()[in.readByte()];
+        var hintCount = in.readInt();
+        var hints = new HashMap<String, String>(hintCount * 2);
+        for (int i = 0; i < hintCount; i++) {
+            hints.put(readString(in), readString(in));
+        }
+        var metadataCount = in.readInt();
+        var sourceMetadata = new HashMap<String, Object>(metadataCount * 2);
+        for (int i = 0; i < metadataCount; i++) {
+            var name = readString(in);
+            var type = in.readByte();
+            sourceMetadata.put(name, type == 0 ? (Object) in.readInt() : type == 1 ? (Object) in.readLong() : readString(in));
+        }
+        var sourceLength = in.readInt();
+        byte[] source = null;
+        if (sourceLength >= 0) {
+            source = new byte[sourceLength];
+            in.readFully(source);
+        }
+        return new Entry(key, sequence, new Document(id, source, operation, hints, sourceMetadata));
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble(d);
+        } else {
+            out.writeByte(STRING_VALUE);
+            writeString(out, (String) value);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        var type = in.readByte();
+        return switch (type) {
+            case NULL_VALUE -> null;
+            case LONG_VALUE -> in.readLong();
+            case DOUBLE_VALUE -> in.readDouble();
+            case STRING_VALUE -> readString(in);
+            default -> throw new IOException("Unknown sort value type " + type);
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -12,6 +12,9 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Follows the replayer's {@code ActiveContextMonitor} pattern: a {@link ScheduledExecutorService}
  * runs at a fixed rate, independent of pipeline throughput. This keeps logging deterministic
  * and out of the reactive chain.
+ *
+ * <p>Each heartbeat also names the stage that limited throughput since the previous one (see
+ * {@link PipelineStageMetrics.Bottleneck}), with the mean time per batch of every stage in that interval.
  */
 @Slf4j
 public class PipelineProgressMonitor implements AutoCloseable {
@@ -21,6 +24,7 @@ public class PipelineProgressMonitor implements AutoCloseable {
     private final DocumentMigrationPipeline pipeline;
     private final ScheduledExecutorService scheduler;
     private final long intervalMs;
+    private PipelineStageMetrics.Snapshot previousStages;
 
     public PipelineProgressMonitor(DocumentMigrationPipeline pipeline) {
         this(pipeline, DEFAULT_INTERVAL_MS);
@@ -53,11 +57,45 @@ public class PipelineProgressMonitor implements AutoCloseable {
                 snapshot.totalBytes() / (1024 * 1024),
                 snapshot.activeBatches(),
                 snapshot.batchConcurrency());
+            logBottleneck(snapshot.stages());
         } catch (Exception e) {
             log.debug("Error in progress monitor heartbeat", e);
         }
     }
 
+    private void logBottleneck(PipelineStageMetrics.Snapshot stages) {
+        var previous = previousStages;
+        previousStages = stages;
+        if (previous == null) {
+            return;
+        }
+        var bottleneck = PipelineStageMetrics.Bottleneck.between(previous, stages);
+        var occupancy = stages.occupancy();
+        log.info("Pipeline bottleneck: {}{}, writeSlotsSaturated={}%, bufferedDocs={}, unorderedBatches={}, "
+                + "meanMsPerBatch={}",
+            bottleneck.stage() == null ? "idle" : bottleneck.stage(),
+            bottleneck.stalled() && bottleneck.stage() != null ? " (stalled)" : "",
+            Math.round(bottleneck.saturation() * 100),
+            occupancy.bufferedDocs(),
+            occupancy.unorderedBatches(),
+            meanMillisPerStage(previous, stages));
+    }
+
+    static String meanMillisPerStage(PipelineStageMetrics.Snapshot from, PipelineStageMetrics.Snapshot to) {
+        var out = new StringBuilder("{");
+        for (var stage : PipelineStageMetrics.Stage.values()) {
+            var count = to.stageCounts().get(stage) - from.stageCounts().get(stage);
+            if (count > 0) {
+                var nanos = to.stageNanos().get(stage) - from.stageNanos().get(stage);
+                out.append(out.length() > 1 ? ", " : "")
+                    .append(stage)
+                    .append('=')
+                    .append(String.format("%.1f", nanos / 1e6 / count));
+            }
+        }
+        return out.append('}').toString();
+    }
+
     @Override
     public void close() {
         scheduler.shutdown();
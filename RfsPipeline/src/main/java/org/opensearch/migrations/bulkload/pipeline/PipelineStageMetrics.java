@@ -0,0 +1,232 @@
+package org.opensearch.migrations.bulkload.pipeline;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in each stage of moving a batch from source to target, and how full the buffers between
+ * the stages are.  {@link DocumentMigrationPipeline} records the source and batch stages, and sinks (and
+ * the clients they use) record their own; {@link PipelineProgressMonitor} diffs two {@link #snapshot()}s
+ * to name the {@link Bottleneck} of the interval between them.
+ *
+ * <p>Recording is a handful of uncontended adds per batch plus one per document, so this is always on.
+ * An optional {@link Listener} gets every stage timing (for export as a histogram) and, as each batch
+ * starts writing, the buffer occupancy at that moment.
+ */
+public class PipelineStageMetrics {
+
+    public enum Stage {
+        /**
+         * Waiting for the source to produce a batch's documents (reading, decoding, rebuilding sources,
+         * sorting).  This includes any time the source is held back because every write slot is busy,
+         * which is why the {@link Bottleneck} looks at write slot saturation first.
+         */
+        SOURCE_READ,
+        /** Running the document transformer over a batch. */
+        TRANSFORM,
+        /** Rendering a batch as a bulk request body. */
+        ENCODE,
+        /** From sending a bulk request until its response has arrived, for each attempt. */
+        TARGET_RESPONSE,
+        /** A sink's whole write of a batch: the three stages above plus retry backoff and scheduling. */
+        BATCH_WRITE
+    }
+
+    /**
+     * How full the buffers between the stages are.
+     *
+     * @param bufferedDocs      documents read into batches that haven't started writing yet
+     * @param activeBatches     batches being written
+     * @param unorderedBatches  written batches held back until the batches before them are written
+     */
+    public record Occupancy(long bufferedDocs, int activeBatches, int unorderedBatches) {}
+
+    /** Receives measurements as they are recorded; must be cheap and must not block. */
+    public interface Listener {
+        void stageCompleted(Stage stage, long nanos);
+
+        void batchStarted(Occupancy occupancy);
+    }
+
+    /**
+     * Cumulative totals at one moment.
+     *
+     * @param nanoTime        {@link System#nanoTime()} when taken
+     * @param stageNanos      total time recorded per stage
+     * @param stageCounts     number of timings recorded per stage
+     * @param occupancy       the buffers at that moment
+     * @param writeSlots      how many batches may be written at once
+     * @param saturatedNanos  total time during which every write slot was busy
+     */
+    public record Snapshot(
+        long nanoTime,
+        Map<Stage, Long> stageNanos,
+        Map<Stage, Long> stageCounts,
+        Occupancy occupancy,
+        int writeSlots,
+        long saturatedNanos
+    ) {}
+
+    /**
+     * The stage that limited throughput over an interval.
+     *
+     * @param stage           the limiting stage, or null if nothing moved and nothing was being written
+     * @param saturation      fraction of the interval during which every write slot was busy
+     * @param stageShare      fraction of the sink's time spent in {@code stage}, when the sink is the limit
+     * @param stalled         no batch completed in the interval
+     */
+    public record Bottleneck(Stage stage, double saturation, double stageShare, boolean stalled) {
+        /** Above this fraction of time with every write slot busy, the writes are what the source waits for */
+        static final double SATURATED = 0.8;
+
+        /** Classifies the interval between two snapshots of the same metrics. */
+        public static Bottleneck between(Snapshot from, Snapshot to) {
+            var elapsed = to.nanoTime() - from.nanoTime();
+            var saturation = elapsed <= 0 ? 0
+                : Math.min(1.0, (double) (to.saturatedNanos() - from.saturatedNanos()) / elapsed);
+            var stalled = delta(from.stageCounts(), to.stageCounts(), Stage.BATCH_WRITE) == 0;
+            var writing = to.occupancy().activeBatches() > 0;
+            if (stalled && !writing
+                && delta(from.stageCounts(), to.stageCounts(), Stage.SOURCE_READ) == 0
+                && to.occupancy().bufferedDocs() == from.occupancy().bufferedDocs()) {
+                return new Bottleneck(null, saturation, 0, true);
+            }
+            var writeBound = saturation >= SATURATED || (stalled && writing);
+            if (!writeBound) {
+                return new Bottleneck(Stage.SOURCE_READ, saturation, 0, stalled);
+            }
+            // The writes are the limit: blame whichever part of them took the most time, with what isn't
+            // accounted for by the parts (retry backoff, scheduling) counted against the write itself
+            var writeNanos = delta(from.stageNanos(), to.stageNanos(), Stage.BATCH_WRITE);
+            var unaccounted = writeNanos;
+            var worst = Stage.BATCH_WRITE;
+            var worstNanos = 0L;
+            for (var part : new Stage[] { Stage.TRANSFORM, Stage.ENCODE, Stage.TARGET_RESPONSE }) {
+                var partNanos = delta(from.stageNanos(), to.stageNanos(), part);
+                unaccounted -= partNanos;
+                if (partNanos > worstNanos) {
+                    worst = part;
+                    worstNanos = partNanos;
+                }
+            }
+            if (unaccounted > worstNanos) {
+                worst = Stage.BATCH_WRITE;
+                worstNanos = unaccounted;
+            }
+            var share = writeNanos <= 0 ? 0 : Math.min(1.0, (double) worstNanos / writeNanos);
+            return new Bottleneck(worst, saturation, share, stalled);
+        }
+
+        private static long delta(Map<Stage, Long> from, Map<Stage, Long> to, Stage stage) {
+            return to.getOrDefault(stage, 0L) - from.getOrDefault(stage, 0L);
+        }
+    }
+
+    private final Listener listener;
+    private final LongAdder[] stageNanos = newAdders();
+    private final LongAdder[] stageCounts = newAdders();
+    private final LongAdder bufferedDocs = new LongAdder();
+    private final AtomicInteger unorderedBatches = new AtomicInteger();
+
+    // Write slot accounting, updated together under the lock once per batch start and end
+    private final Object slotLock = new Object();
+    private int writeSlots = 1;
+    private int activeBatches;
+    private long saturatedSince = -1;
+    private long saturatedNanos;
+
+    public PipelineStageMetrics() {
+        this(null);
+    }
+
+    /** @param listener receives every measurement as it is recorded, or null */
+    public PipelineStageMetrics(Listener listener) {
+        this.listener = listener;
+    }
+
+    private static LongAdder[] newAdders() {
+        var adders = new LongAdder[Stage.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /** Records that a stage took {@code nanos} for one batch (or one attempt at it). */
+    public void record(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()].add(nanos);
+        stageCounts[stage.ordinal()].increment();
+        if (listener != null) {
+            listener.stageCompleted(stage, nanos);
+        }
+    }
+
+    /** Sets how many batches the pipeline writes at once, across all its partitions. */
+    void setWriteSlots(int writeSlots) {
+        synchronized (slotLock) {
+            this.writeSlots = writeSlots;
+        }
+    }
+
+    /** Documents entered the batcher. */
+    void documentsBuffered(long count) {
+        bufferedDocs.add(count);
+    }
+
+    /** A batch of {@code docs} documents left the batcher and took a write slot. */
+    void batchStarted(int docs) {
+        bufferedDocs.add(-docs);
+        Occupancy occupancy;
+        synchronized (slotLock) {
+            activeBatches++;
+            if (activeBatches >= writeSlots && saturatedSince < 0) {
+                saturatedSince = System.nanoTime();
+            }
+            occupancy = occupancyLocked();
+        }
+        if (listener != null) {
+            listener.batchStarted(occupancy);
+        }
+    }
+
+    /** A batch's write succeeded; it is held until {@link #batchReleased} in case earlier batches haven't. */
+    void batchWritten() {
+        unorderedBatches.incrementAndGet();
+    }
+
+    /** A batch's write ended, successfully or not. */
+    void batchFinished() {
+        synchronized (slotLock) {
+            if (activeBatches >= writeSlots && saturatedSince >= 0) {
+                saturatedNanos += System.nanoTime() - saturatedSince;
+                saturatedSince = -1;
+            }
+            activeBatches--;
+        }
+    }
+
+    /** A written batch's cursor was passed on. */
+    void batchReleased() {
+        unorderedBatches.decrementAndGet();
+    }
+
+    public Snapshot snapshot() {
+        var nanos = new EnumMap<Stage, Long>(Stage.class);
+        var counts = new EnumMap<Stage, Long>(Stage.class);
+        for (var stage : Stage.values()) {
+            nanos.put(stage, stageNanos[stage.ordinal()].sum());
+            counts.put(stage, stageCounts[stage.ordinal()].sum());
+        }
+        synchronized (slotLock) {
+            var now = System.nanoTime();
+            var saturated = saturatedNanos + (saturatedSince >= 0 ? now - saturatedSince : 0);
+            return new Snapshot(now, nanos, counts, occupancyLocked(), writeSlots, saturated);
+        }
+    }
+
+    private Occupancy occupancyLocked() {
+        return new Occupancy(Math.max(0, bufferedDocs.sum()), activeBatches, Math.max(0, unorderedBatches.get()));
+    }
+}
@@ -0,0 +1,56 @@
+package org.opensearch.migrations.bulkload.pipeline.adapter;
+
+import java.util.Objects;
+
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+
+/**
+ * ES-specific sub-shard partition — a contiguous, name-ordered range of Lucene segments within
+ * one shard.  Lets several workers migrate a single large shard side by side.
+ *
+ * <p>Document offsets for this partition count from the start of {@code firstSegment}, not from
+ * the start of the shard.
+ *
+ * @param shard        the shard the segments belong to, must not be null
+ * @param firstSegment the first segment name of the range (inclusive), must not be null
+ * @param lastSegment  the last segment name of the range (inclusive), must not be null or sort
+ *                     before {@code firstSegment}
+ */
+public record EsSegmentRangePartition(
+    EsShardPartition shard,
+    String firstSegment,
+    String lastSegment
+) implements Partition {
+
+    public EsSegmentRangePartition {
+        Objects.requireNonNull(shard, "shard must not be null");
+        Objects.requireNonNull(firstSegment, "firstSegment must not be null");
+        Objects.requireNonNull(lastSegment, "lastSegment must not be null");
+        if (firstSegment.compareTo(lastSegment) > 0) {
+            throw new IllegalArgumentException(
+                "firstSegment must not sort after lastSegment, got " + firstSegment + ".." + lastSegment);
+        }
+    }
+
+    /** True if {@code segmentName} falls within this range, using the same ordering as the segment readers. */
+    public boolean containsSegment(String segmentName) {
+        return segmentName != null
+            && firstSegment.compareTo(segmentName) <= 0
+            && segmentName.compareTo(lastSegment) <= 0;
+    }
+
+    @Override
+    public String name() {
+        return shard.name() + "[" + firstSegment + ".." + lastSegment + "]";
+    }
+
+    @Override
+    public String collectionName() {
+        return shard.collectionName();
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,233 @@
+package org.opensearch.migrations.bulkload.pipeline.ndjson;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link DocumentSink} that writes bulk-ready NDJSON files instead of sending them to a cluster, in
+ * the layout described by {@link NdjsonFileFormat}, for migrations that read the snapshot in one place
+ * and index somewhere (or some time) else.  {@link NdjsonFileDocumentSource} reads them back.
+ * <p>
+ * Batches are encoded and compressed on the caller's thread, so concurrent {@link #writeBatch} calls
+ * compress in parallel; only the append to the collection's current file is serialized.  A file is
+ * rolled over once it reaches {@code maxFileBytes}, and each file becomes one partition when read back.
+ * Every sink instance writes its own files (named after its {@code writerId}), so several workers can
+ * share a directory.  A batch is acknowledged only once its data and manifest line have been forced to
+ * the device, since the work item's progress is recorded from that acknowledgement and nothing would
+ * notice a batch lost afterwards.  The forcing is a group commit: it happens outside the append lock, and
+ * one force makes every batch appended before it durable, so batches that were appended while another
+ * batch's force ran are acknowledged by the next single force rather than one each.
+ */
+@Slf4j
+public class NdjsonFileDocumentSink implements DocumentSink {
+    public static final long DEFAULT_MAX_FILE_BYTES = 256L * 1024 * 1024;
+
+    private final Path rootDirectory;
+    private final String writerId;
+    private final NdjsonFileFormat.Compression compression;
+    private final long maxFileBytes;
+    private final Map<String, CollectionWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * @param rootDirectory where each collection gets a subdirectory
+     * @param writerId      distinguishes this sink's files from those of other writers of the same directory
+     * @param compression   whether each batch is gzip-compressed
+     * @param maxFileBytes  size after which a new file is started
+     */
+    public NdjsonFileDocumentSink(Path rootDirectory, String writerId, NdjsonFileFormat.Compression compression,
+                                  long maxFileBytes) {
+        this.rootDirectory = Objects.requireNonNull(rootDirectory, "rootDirectory must not be null");
+        this.writerId = Objects.requireNonNull(writerId, "writerId must not be null");
+        if (writerId.isEmpty() || writerId.contains("/") || writerId.contains("\\")) {
+            throw new IllegalArgumentException("writerId must be a non-empty file name, got '" + writerId + "'");
+        }
+        this.compression = Objects.requireNonNull(compression, "compression must not be null");
+        if (maxFileBytes < 1) {
+            throw new IllegalArgumentException("maxFileBytes must be >= 1, got " + maxFileBytes);
+        }
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    @Override
+    public Mono<Void> createCollection(CollectionMetadata metadata) {
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                NdjsonFileFormat.writeCollectionMetadata(
+                    Files.createDirectories(rootDirectory.resolve(metadata.name())), metadata);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write the metadata of collection " + metadata.name(), e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+        return Mono.fromCallable(() -> {
+            var encoded = NdjsonFileFormat.encode(collectionName, batch, compression);
+            long sourceBytes = batch.stream().mapToLong(Document::sourceLength).sum();
+            var writer = writer(collectionName);
+            writer.awaitDurable(writer.append(encoded, batch.size(), sourceBytes));
+            return new BatchResult(batch.size(), sourceBytes);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    CollectionWriter writer(String collectionName) {
+        return writers.computeIfAbsent(collectionName, this::openWriter);
+    }
+
+    private CollectionWriter openWriter(String collectionName) {
+        try {
+            return new CollectionWriter(Files.createDirectories(rootDirectory.resolve(collectionName)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the directory of collection " + collectionName, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (var writer : writers.values()) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        writers.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * The file a collection's batches are currently appended to.  Batches are numbered as they are
+     * appended, and {@link #awaitDurable} forces the file up to the last batch appended so far.
+     */
+    class CollectionWriter {
+        private final Path directory;
+        private final Object syncLock = new Object();
+        /** Number of the last batch known to be on the device */
+        private final AtomicLong durableBatches = new AtomicLong();
+        private int fileNumber;
+        private FileChannel data;
+        private FileChannel manifest;
+        private long fileBytes;
+        private long fileDocs;
+        private long appendedBatches;
+        private long syncs;
+
+        CollectionWriter(Path directory) {
+            this.directory = directory;
+        }
+
+        /** Appends a batch without forcing it and returns its number, to pass to {@link #awaitDurable}. */
+        synchronized long append(byte[] encoded, int docs, long sourceBytes) throws IOException {
+            if (data == null || fileBytes >= maxFileBytes) {
+                roll();
+            }
+            var entry = new NdjsonFileFormat.BatchEntry(fileBytes, fileBytes + encoded.length, fileDocs, docs, sourceBytes);
+            writeFully(data, ByteBuffer.wrap(encoded));
+            writeFully(manifest, ByteBuffer.wrap(NdjsonFileFormat.manifestLine(entry).getBytes(StandardCharsets.UTF_8)));
+            fileBytes = entry.endOffset();
+            fileDocs = entry.endDoc();
+            return ++appendedBatches;
+        }
+
+        /**
+         * Returns once the batch is on the device.  One caller at a time forces the current file, covering
+         * every batch appended up to then; the callers queued behind it find their batch already covered
+         * and return without forcing again.
+         */
+        void awaitDurable(long batch) throws IOException {
+            synchronized (syncLock) {
+                if (durableBatches.get() >= batch) {
+                    return;
+                }
+                long upTo;
+                FileChannel dataToSync;
+                FileChannel manifestToSync;
+                synchronized (this) {
+                    upTo = appendedBatches;
+                    dataToSync = data;
+                    manifestToSync = manifest;
+                }
+                try {
+                    if (dataToSync == null) {
+                        throw new ClosedChannelException();
+                    }
+                    dataToSync.force(true);
+                    manifestToSync.force(true);
+                    syncs++;
+                } catch (ClosedChannelException e) {
+                    // rolling over or closing forces the file before closing it, and records that
+                    if (durableBatches.get() >= batch) {
+                        return;
+                    }
+                    throw e;
+                }
+                durableBatches.accumulateAndGet(upTo, Math::max);
+            }
+        }
+
+        /** Forces made by {@link #awaitDurable}, not counting those made when a file is closed. */
+        long syncs() {
+            synchronized (syncLock) {
+                return syncs;
+            }
+        }
+
+        private void roll() throws IOException {
+            close();
+            Path file;
+            // skip numbers used by an earlier run of the same writer
+            do {
+                file = directory.resolve(writerId + "-" + String.format("%05d", fileNumber++) + compression.suffix);
+            } while (Files.exists(file));
+            data = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            manifest = FileChannel.open(NdjsonFileFormat.manifestOf(file),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            fileBytes = 0;
+            fileDocs = 0;
+            log.atInfo().setMessage("Writing documents to {}").addArgument(file).log();
+        }
+
+        synchronized void close() throws IOException {
+            if (data != null) {
+                data.force(true);
+                manifest.force(true);
+                durableBatches.accumulateAndGet(appendedBatches, Math::max);
+                data.close();
+                manifest.close();
+                data = null;
+                manifest = null;
+            }
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
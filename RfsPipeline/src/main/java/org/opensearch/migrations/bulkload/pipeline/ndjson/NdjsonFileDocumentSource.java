@@ -0,0 +1,141 @@
+package org.opensearch.migrations.bulkload.pipeline.ndjson;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link DocumentSource} over the files written by {@link NdjsonFileDocumentSink}.  Each data file is a
+ * {@link NdjsonFilePartition}, so partitions can be read in parallel (see the pipeline's
+ * {@code partitionConcurrency}).  A document offset within a file is resumed from by looking up the
+ * batch that holds it in the file's manifest and reading from there, without reading what precedes it.
+ * <p>
+ * Document sources are passed on as the bytes that were written; nothing is re-serialized.  The
+ * {@code _type} and {@code routing} hints survive the round trip, {@link Document#sourceMetadata()} does not.
+ */
+public class NdjsonFileDocumentSource implements DocumentSource {
+    private final Path rootDirectory;
+
+    public NdjsonFileDocumentSource(Path rootDirectory) {
+        this.rootDirectory = Objects.requireNonNull(rootDirectory, "rootDirectory must not be null");
+    }
+
+    /**
+     * One data file of a collection.
+     *
+     * @param file the data file; its manifest is next to it
+     */
+    public record NdjsonFilePartition(String collectionName, Path file) implements Partition {
+        @Override
+        public String name() {
+            return "ndjson/" + collectionName + "/" + file.getFileName();
+        }
+    }
+
+    @Override
+    public List<String> listCollections() {
+        try (Stream<Path> entries = Files.list(rootDirectory)) {
+            return entries.filter(Files::isDirectory)
+                .map(dir -> dir.getFileName().toString())
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list collections under " + rootDirectory, e);
+        }
+    }
+
+    @Override
+    public List<Partition> listPartitions(String collectionName) {
+        try (Stream<Path> entries = Files.list(rootDirectory.resolve(collectionName))) {
+            return entries.filter(NdjsonFileFormat::isDataFile)
+                .sorted()
+                .map(file -> (Partition) new NdjsonFilePartition(collectionName, file))
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the files of collection " + collectionName, e);
+        }
+    }
+
+    @Override
+    public CollectionMetadata readCollectionMetadata(String collectionName) {
+        try {
+            return NdjsonFileFormat.readCollectionMetadata(rootDirectory.resolve(collectionName), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the metadata of collection " + collectionName, e);
+        }
+    }
+
+    @Override
+    public long partitionSizeBytes(Partition partition) {
+        try {
+            var batches = NdjsonFileFormat.readManifest(((NdjsonFilePartition) partition).file());
+            return batches.stream().mapToLong(NdjsonFileFormat.BatchEntry::sourceBytes).sum();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        var filePartition = (NdjsonFilePartition) partition;
+        var compression = NdjsonFileFormat.Compression.ofFile(filePartition.file());
+        return Flux.defer(() -> {
+            List<NdjsonFileFormat.BatchEntry> batches;
+            try {
+                batches = NdjsonFileFormat.readManifest(filePartition.file());
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+            var remaining = batches.stream().filter(b -> b.endDoc() > startingDocOffset).toList();
+            return Flux.using(
+                () -> FileChannel.open(filePartition.file(), StandardOpenOption.READ),
+                channel -> Flux.fromIterable(remaining)
+                    .concatMapIterable(batch -> {
+                        var documents = readBatch(channel, batch, compression, filePartition);
+                        var skip = (int) Math.max(0, startingDocOffset - batch.firstDoc());
+                        return skip == 0 ? documents : documents.subList(skip, documents.size());
+                    }),
+                channel -> {
+                    try {
+                        channel.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        });
+    }
+
+    private static List<Document> readBatch(FileChannel channel, NdjsonFileFormat.BatchEntry batch,
+                                            NdjsonFileFormat.Compression compression, NdjsonFilePartition partition) {
+        try {
+            var buffer = ByteBuffer.allocate(Math.toIntExact(batch.endOffset() - batch.startOffset()));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, batch.startOffset() + buffer.position()) < 0) {
+                    throw new IOException("File ends before its manifest says at byte " + batch.endOffset());
+                }
+            }
+            var documents = NdjsonFileFormat.decode(buffer.array(), compression);
+            if (documents.size() != batch.docs()) {
+                throw new IOException("Expected " + batch.docs() + " documents at byte " + batch.startOffset()
+                    + ", found " + documents.size());
+            }
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + partition.name(), e);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.opensearch.migrations.bulkload.pipeline.ndjson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * On-disk layout shared by {@link NdjsonFileDocumentSink} and {@link NdjsonFileDocumentSource}.
+ *
+ * <pre>
+ * &lt;root&gt;/&lt;collection&gt;/collection.json                 collection metadata
+ * &lt;root&gt;/&lt;collection&gt;/&lt;writer&gt;-&lt;n&gt;.ndjson[.gz]          bulk request bodies, one per batch
+ * &lt;root&gt;/&lt;collection&gt;/&lt;writer&gt;-&lt;n&gt;.ndjson[.gz].manifest one JSON line per batch
+ * </pre>
+ *
+ * Data files hold bulk API NDJSON ({@code {"index":{"_index":..,"_id":..}}} then the source, or a
+ * {@code delete} action alone), so that they can be posted to {@code _bulk} as they are.  Each batch
+ * is appended as its own gzip member, so a compressed file is still a valid gzip file and any batch
+ * can be decompressed on its own.  A batch's manifest line is written only after its data, and
+ * readers ignore anything past the last manifest line, so a file cut short by a crash is still
+ * readable up to its last complete batch.
+ */
+public final class NdjsonFileFormat {
+    static final String COLLECTION_METADATA_FILE = "collection.json";
+    static final String MANIFEST_SUFFIX = ".manifest";
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte NEWLINE = '\n';
+
+    private NdjsonFileFormat() {}
+
+    public enum Compression {
+        NONE(".ndjson"),
+        GZIP(".ndjson.gz");
+
+        final String suffix;
+
+        Compression(String suffix) {
+            this.suffix = suffix;
+        }
+
+        static Compression ofFile(Path file) {
+            return file.getFileName().toString().endsWith(GZIP.suffix) ? GZIP : NONE;
+        }
+    }
+
+    /**
+     * Where one batch is in a data file.
+     *
+     * @param startOffset the batch's first byte in the data file
+     * @param endOffset   one past its last byte
+     * @param firstDoc    how many documents precede it in the file
+     * @param docs        how many documents it holds
+     * @param sourceBytes the total size of their sources
+     */
+    record BatchEntry(long startOffset, long endOffset, long firstDoc, int docs, long sourceBytes) {
+        long endDoc() {
+            return firstDoc + docs;
+        }
+    }
+
+    static boolean isDataFile(Path file) {
+        var name = file.getFileName().toString();
+        return name.endsWith(Compression.NONE.suffix) || name.endsWith(Compression.GZIP.suffix);
+    }
+
+    static Path manifestOf(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    /** The bulk NDJSON of {@code batch}, compressed as one gzip member if asked to. */
+    static byte[] encode(String collectionName, List<Document> batch, Compression compression) {
+        try {
+            var bytes = new ByteArrayOutputStream(batch.stream().mapToInt(Document::sourceLength).sum() + batch.size() * 96);
+            try (OutputStream out = compression == Compression.GZIP ? new GZIPOutputStream(bytes, 1 << 16) : bytes) {
+                for (var doc : batch) {
+                    writeOperation(collectionName, doc, out);
+                }
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeOperation(String collectionName, Document doc, OutputStream out) throws IOException {
+        var meta = OBJECT_MAPPER.createObjectNode();
+        meta.put("_index", collectionName);
+        meta.put("_id", doc.id());
+        var type = doc.hints().get(Document.HINT_TYPE);
+        if (type != null) {
+            meta.put("_type", type);
+        }
+        var routing = doc.hints().get(Document.HINT_ROUTING);
+        if (routing != null) {
+            meta.put("routing", routing);
+        }
+        var isDelete = doc.operation() == Document.Operation.DELETE;
+        var action = OBJECT_MAPPER.createObjectNode();
+        action.set(isDelete ? "delete" : "index", meta);
+        out.write(OBJECT_MAPPER.writeValueAsBytes(action));
+        out.write(NEWLINE);
+        if (!isDelete) {
+            out.write(singleLine(doc.source()));
+            out.write(NEWLINE);
+        }
+    }
+
+    /** Sources are written as they are unless they span lines, which NDJSON can't hold. */
+    private static byte[] singleLine(byte[] source) throws IOException {
+        if (source == null || source.length == 0) {
+            return "{}".getBytes(StandardCharsets.UTF_8);
+        }
+        for (var b : source) {
+            if (b == '\n' || b == '\r') {
+                return OBJECT_MAPPER.writeValueAsBytes(OBJECT_MAPPER.readTree(source));
+            }
+        }
+        return source;
+    }
+
+    /** Parses the documents out of one batch as written by {@link #encode}. */
+    static List<Document> decode(byte[] batchBytes, Compression compression) throws IOException {
+        var ndjson = compression == Compression.GZIP
+            ? new GZIPInputStream(new ByteArrayInputStream(batchBytes), 1 << 16).readAllBytes()
+            : batchBytes;
+        var documents = new ArrayList<Document>();
+        int position = 0;
+        while (position < ndjson.length) {
+            var actionEnd = lineEnd(ndjson, position);
+            var action = OBJECT_MAPPER.readTree(ndjson, position, actionEnd - position);
+            position = actionEnd + 1;
+            var entry = action.fields().next();
+            var meta = entry.getValue();
+            var hints = new HashMap<String, String>();
+            if (meta.hasNonNull("_type")) {
+                hints.put(Document.HINT_TYPE, meta.get("_type").asText());
+            }
+            if (meta.hasNonNull("routing")) {
+                hints.put(Document.HINT_ROUTING, meta.get("routing").asText());
+            }
+            byte[] source = null;
+            var operation = Document.Operation.DELETE;
+            if (!"delete".equals(entry.getKey())) {
+                operation = Document.Operation.UPSERT;
+                var sourceEnd = lineEnd(ndjson, position);
+                source = Arrays.copyOfRange(ndjson, position, sourceEnd);
+                position = sourceEnd + 1;
+            }
+            documents.add(new Document(meta.get("_id").asText(), source, operation, hints, null));
+        }
+        return documents;
+    }
+
+    private static int lineEnd(byte[] bytes, int from) throws IOException {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == NEWLINE) {
+                return i;
+            }
+        }
+        throw new IOException("Truncated bulk line at byte " + from);
+    }
+
+    static String manifestLine(BatchEntry entry) throws IOException {
+        var node = OBJECT_MAPPER.createObjectNode()
+            .put("startOffset", entry.startOffset())
+            .put("endOffset", entry.endOffset())
+            .put("firstDoc", entry.firstDoc())
+            .put("docs", entry.docs())
+            .put("sourceBytes", entry.sourceBytes());
+        return OBJECT_MAPPER.writeValueAsString(node) + "\n";
+    }
+
+    /** The batches of a data file; a last line cut short by a crash is ignored. */
+    static List<BatchEntry> readManifest(Path dataFile) throws IOException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(manifestOf(dataFile), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        var entries = new ArrayList<BatchEntry>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                var node = (ObjectNode) OBJECT_MAPPER.readTree(lines.get(i));
+                entries.add(new BatchEntry(node.get("startOffset").asLong(), node.get("endOffset").asLong(),
+                    node.get("firstDoc").asLong(), node.get("docs").asInt(), node.get("sourceBytes").asLong()));
+            } catch (IOException | RuntimeException e) {
+                if (i == lines.size() - 1) {
+                    break;
+                }
+                throw new IOException("Corrupt manifest line " + (i + 1) + " for " + dataFile, e);
+            }
+        }
+        return entries;
+    }
+
+    static void writeCollectionMetadata(Path collectionDirectory, CollectionMetadata metadata) throws IOException {
+        var node = OBJECT_MAPPER.createObjectNode();
+        node.put("name", metadata.name());
+        node.put("partitionCount", metadata.partitionCount());
+        var sourceConfig = node.putObject("sourceConfig");
+        metadata.sourceConfig().forEach((key, value) -> sourceConfig.set(key, OBJECT_MAPPER.valueToTree(value)));
+        var temp = Files.createTempFile(collectionDirectory, COLLECTION_METADATA_FILE, ".tmp");
+        Files.write(temp, OBJECT_MAPPER.writeValueAsBytes(node));
+        Files.move(temp, collectionDirectory.resolve(COLLECTION_METADATA_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads back what {@link #writeCollectionMetadata} wrote.  Scalars come back as Java values and
+     * objects (e.g. mappings and settings) as {@link JsonNode}s, as the snapshot source produces them.
+     */
+    static CollectionMetadata readCollectionMetadata(Path collectionDirectory, int partitionCountIfMissing)
+        throws IOException {
+        var file = collectionDirectory.resolve(COLLECTION_METADATA_FILE);
+        if (!Files.exists(file)) {
+            return new CollectionMetadata(collectionDirectory.getFileName().toString(), partitionCountIfMissing, Map.of());
+        }
+        var node = OBJECT_MAPPER.readTree(file.toFile());
+        var sourceConfig = new HashMap<String, Object>();
+        node.path("sourceConfig").fields().forEachRemaining(field -> {
+            var value = field.getValue();
+            Object converted = value;
+            if (value.isInt()) {
+                converted = value.intValue();
+            } else if (value.isNumber()) {
+                converted = value.numberValue();
+            } else if (value.isTextual()) {
+                converted = value.textValue();
+            } else if (value.isBoolean()) {
+                converted = value.booleanValue();
+            }
+            sourceConfig.put(field.getKey(), converted);
+        });
+        return new CollectionMetadata(node.path("name").asText(), node.path("partitionCount").asInt(0), sourceConfig);
+    }
+}
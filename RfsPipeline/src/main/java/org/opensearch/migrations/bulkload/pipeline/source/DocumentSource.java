@@ -41,6 +41,29 @@ public interface DocumentSource extends AutoCloseable {
      */
     Flux<Document> readDocuments(Partition partition, long startingDocOffset);
 
+    /**
+     * Split a partition into smaller partitions that can be migrated independently, each holding
+     * roughly {@code targetBytes} of source data.  Sources that can't split a partition return it
+     * unchanged, which is the default.
+     *
+     * @param partition   a partition returned by {@link #listPartitions}
+     * @param targetBytes the approximate size of each resulting partition
+     * @return the sub-partitions in read order, or a single-element list holding {@code partition}
+     */
+    default List<Partition> splitPartition(Partition partition, long targetBytes) {
+        return List.of(partition);
+    }
+
+    /**
+     * The approximate size of a partition's source data, used to start the largest partitions first.
+     *
+     * @param partition a partition returned by {@link #listPartitions} or {@link #splitPartition}
+     * @return the size in bytes, or -1 if the source doesn't know it, which is the default
+     */
+    default long partitionSizeBytes(Partition partition) {
+        return -1;
+    }
+
     @Override
     default void close() throws Exception {
         // Default no-op for sources that don't hold resources
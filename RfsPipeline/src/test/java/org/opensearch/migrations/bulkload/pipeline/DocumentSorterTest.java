@@ -0,0 +1,146 @@
+package org.opensearch.migrations.bulkload.pipeline;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.ProgressCursor;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.source.SyntheticDocumentSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentSorterTest {
+
+    @TempDir
+    Path spillDir;
+
+    private static Document doc(String id, String source) {
+        return new Document(id, source.getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+            Map.of(Document.HINT_ROUTING, "r-" + id), Map.of(Document.SOURCE_META_LUCENE_DOC_NUMBER, id.length()));
+    }
+
+    private static Document delete(String id) {
+        return new Document(id, null, Document.Operation.DELETE, Map.of(), Map.of());
+    }
+
+    private List<String> sortedIds(DocumentSorter sorter, List<Document> documents) {
+        return sorter.sort(Flux.fromIterable(documents)).map(Document::id).collectList().block();
+    }
+
+    @Test
+    void sortsByFieldsWithMissingValuesLastAndTiesInSourceOrder() {
+        var sorter = new DocumentSorter(
+            List.of(DocumentSorter.SortField.parse("host"), DocumentSorter.SortField.parse("ts:desc")),
+            Long.MAX_VALUE, spillDir);
+        var docs = List.of(
+            doc("a", "{\"host\":\"b\",\"ts\":1}"),
+            doc("b", "{\"ts\":5}"),
+            doc("c", "{\"host\":\"a\",\"ts\":2}"),
+            doc("d", "{\"host\":\"b\",\"ts\":3.5}"),
+            doc("e", "{\"host\":\"a\",\"ts\":2}"),
+            doc("f", "{\"host\":\"a\"}"),
+            doc("g", "not json"));
+        assertEquals(List.of("c", "e", "f", "d", "a", "b", "g"), sortedIds(sorter, docs));
+    }
+
+    @Test
+    void deletionsComeFirstAndNestedOrMultiValuedFieldsAreResolved() {
+        var ascending = new DocumentSorter(List.of(DocumentSorter.SortField.parse("event.time:asc")), Long.MAX_VALUE, spillDir);
+        var descending = new DocumentSorter(List.of(DocumentSorter.SortField.parse("event.time:desc")), Long.MAX_VALUE, spillDir);
+        var docs = List.of(
+            doc("nested", "{\"event\":{\"time\":20}}"),
+            delete("gone-1"),
+            doc("dotted", "{\"event.time\":15}"),
+            doc("multi", "{\"event\":{\"time\":[30,10]}}"),
+            delete("gone-2"));
+        assertEquals(List.of("gone-1", "gone-2", "multi", "dotted", "nested"), sortedIds(ascending, docs));
+        assertEquals(List.of("gone-1", "gone-2", "multi", "nested", "dotted"), sortedIds(descending, docs));
+    }
+
+    @Test
+    void badSortSpecsAreRejected() {
+        assertEquals(new DocumentSorter.SortField("@timestamp", true), DocumentSorter.SortField.parse("@timestamp:desc"));
+        assertThrows(IllegalArgumentException.class, () -> DocumentSorter.SortField.parse("ts:up"));
+        assertThrows(IllegalArgumentException.class, () -> new DocumentSorter(List.of(), 1, spillDir));
+    }
+
+    @Test
+    void largePartitionsAreSpilledMergedAndCleanedUp() throws IOException {
+        var random = new Random(46);
+        var docs = new ArrayList<Document>();
+        for (int i = 0; i < 20_000; i++) {
+            docs.add(doc("doc-" + i, "{\"@timestamp\":" + random.nextInt(1_000_000) + ",\"message\":\"m" + i + "\"}"));
+        }
+        var sorter = new DocumentSorter(List.of(DocumentSorter.SortField.parse("@timestamp")), 256 * 1024, spillDir);
+
+        var sorted = sorter.sort(Flux.fromIterable(docs)).collectList().block();
+
+        var expected = new ArrayList<>(docs);
+        expected.sort(Comparator.comparingInt(DocumentSorterTest::timestamp));
+        assertEquals(expected.stream().map(Document::id).toList(), sorted.stream().map(Document::id).toList());
+        // spilled documents come back whole, routing hints and diagnostics included
+        var first = sorted.get(0);
+        assertEquals(new String(expected.get(0).source(), StandardCharsets.UTF_8),
+            new String(first.source(), StandardCharsets.UTF_8));
+        assertEquals(Map.of(Document.HINT_ROUTING, "r-" + first.id()), first.hints());
+        assertEquals(Map.of(Document.SOURCE_META_LUCENE_DOC_NUMBER, first.id().length()), first.sourceMetadata());
+        try (var leftovers = Files.list(spillDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    private static int timestamp(Document doc) {
+        var source = new String(doc.source(), StandardCharsets.UTF_8);
+        return Integer.parseInt(source.substring(source.indexOf(':') + 1, source.indexOf(',')));
+    }
+
+    @Test
+    void sortedPartitionsOnlyCheckpointOnceEveryBatchIsWritten() {
+        var written = Collections.synchronizedList(new ArrayList<String>());
+        var sink = new DocumentSink() {
+            @Override
+            public Mono<Void> createCollection(CollectionMetadata metadata) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+                batch.forEach(d -> written.add(d.id()));
+                return Mono.just(new BatchResult(batch.size(), batch.stream().mapToLong(Document::sourceLength).sum()));
+            }
+        };
+        var source = new SyntheticDocumentSource("logs", 1, 25);
+        var sorter = new DocumentSorter(List.of(DocumentSorter.SortField.parse("field:desc")), 512, spillDir);
+        var pipeline = new DocumentMigrationPipeline(source, sink, 10, Long.MAX_VALUE, 1, 2, sorter);
+
+        var cursors = pipeline.migratePartition(source.listPartitions("logs").get(0), "logs", 5)
+            .collectList().block();
+
+        assertEquals(List.of(5L, 5L, 25L), cursors.stream().map(ProgressCursor::lastDocProcessed).toList());
+        assertEquals(List.of(10L, 10L, 0L), cursors.stream().map(ProgressCursor::docsInBatch).toList());
+        assertEquals(20, written.size());
+        // descending keyword order is lexicographic: value-9, value-8, ..., value-5, value-24, ..., value-10
+        var expected = new ArrayList<>(written);
+        expected.sort(Comparator.comparing((String id) -> "value-" + id.substring(id.lastIndexOf('-') + 1)).reversed());
+        assertEquals(expected, written);
+        assertTrue(written.get(0).endsWith("-9"));
+    }
+}
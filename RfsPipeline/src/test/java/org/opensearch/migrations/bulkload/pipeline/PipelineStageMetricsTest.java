@@ -0,0 +1,172 @@
+package org.opensearch.migrations.bulkload.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics.Bottleneck;
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics.Occupancy;
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics.Snapshot;
+import org.opensearch.migrations.bulkload.pipeline.PipelineStageMetrics.Stage;
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.source.DocumentSource;
+import org.opensearch.migrations.bulkload.pipeline.source.SyntheticDocumentSource;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineStageMetricsTest {
+
+    /** Takes {@code delay} to answer every batch, recorded as the target's response time like a client would. */
+    private static class SlowSink implements DocumentSink {
+        private final PipelineStageMetrics stageMetrics;
+        private final Duration delay;
+
+        SlowSink(PipelineStageMetrics stageMetrics, Duration delay) {
+            this.stageMetrics = stageMetrics;
+            this.delay = delay;
+        }
+
+        @Override
+        public Mono<Void> createCollection(CollectionMetadata metadata) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+            var start = System.nanoTime();
+            return Mono.delay(delay)
+                .doOnNext(t -> stageMetrics.record(Stage.TARGET_RESPONSE, System.nanoTime() - start))
+                .thenReturn(new BatchResult(batch.size(), batch.stream().mapToLong(Document::sourceLength).sum()));
+        }
+    }
+
+    /** Emits the documents of another source {@code delay} apart. */
+    private record SlowSource(DocumentSource delegate, Duration delay) implements DocumentSource {
+        @Override
+        public List<String> listCollections() {
+            return delegate.listCollections();
+        }
+
+        @Override
+        public List<Partition> listPartitions(String collectionName) {
+            return delegate.listPartitions(collectionName);
+        }
+
+        @Override
+        public CollectionMetadata readCollectionMetadata(String collectionName) {
+            return delegate.readCollectionMetadata(collectionName);
+        }
+
+        @Override
+        public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+            return delegate.readDocuments(partition, startingDocOffset).delayElements(delay);
+        }
+    }
+
+    @Test
+    void slowTargetIsTheBottleneck() {
+        var occupancies = Collections.synchronizedList(new ArrayList<Occupancy>());
+        var metrics = new PipelineStageMetrics(new PipelineStageMetrics.Listener() {
+            @Override
+            public void stageCompleted(Stage stage, long nanos) {
+                // only the occupancy is checked here
+            }
+
+            @Override
+            public void batchStarted(Occupancy occupancy) {
+                occupancies.add(occupancy);
+            }
+        });
+        var pipeline = new DocumentMigrationPipeline(new SyntheticDocumentSource("idx", 1, 400),
+            new SlowSink(metrics, Duration.ofMillis(25)), 10, Long.MAX_VALUE, 1, 2, null, metrics);
+
+        var before = metrics.snapshot();
+        pipeline.migrateAll().blockLast();
+        var after = pipeline.getProgressSnapshot().stages();
+
+        assertEquals(40, after.stageCounts().get(Stage.SOURCE_READ));
+        assertEquals(40, after.stageCounts().get(Stage.BATCH_WRITE));
+        assertEquals(40, after.stageCounts().get(Stage.TARGET_RESPONSE));
+        assertEquals(new Occupancy(0, 0, 0), after.occupancy());
+        assertEquals(40, occupancies.size());
+        assertTrue(occupancies.stream().allMatch(o -> o.activeBatches() >= 1 && o.activeBatches() <= 2));
+
+        var bottleneck = Bottleneck.between(before, after);
+        assertEquals(Stage.TARGET_RESPONSE, bottleneck.stage());
+        assertTrue(bottleneck.saturation() > PipelineStageMetrics.Bottleneck.SATURATED, "saturation " + bottleneck);
+        assertTrue(bottleneck.stageShare() > 0.5, "share " + bottleneck);
+    }
+
+    @Test
+    void slowSourceIsTheBottleneck() {
+        var metrics = new PipelineStageMetrics();
+        var source = new SlowSource(new SyntheticDocumentSource("idx", 1, 100), Duration.ofMillis(2));
+        var pipeline = new DocumentMigrationPipeline(source, new SlowSink(metrics, Duration.ZERO), 10, Long.MAX_VALUE,
+            1, 4, null, metrics);
+
+        var before = metrics.snapshot();
+        pipeline.migrateAll().blockLast();
+        var bottleneck = Bottleneck.between(before, metrics.snapshot());
+
+        assertEquals(Stage.SOURCE_READ, bottleneck.stage());
+        assertTrue(bottleneck.saturation() < 0.1, "saturation " + bottleneck);
+    }
+
+    @Test
+    void nothingMovingIsIdle() {
+        var metrics = new PipelineStageMetrics();
+        var bottleneck = Bottleneck.between(metrics.snapshot(), metrics.snapshot());
+
+        assertNull(bottleneck.stage());
+        assertTrue(bottleneck.stalled());
+    }
+
+    @Test
+    void writeTimeNotSpentInItsPartsIsCountedAgainstTheWrite() {
+        var from = snapshot(0, Map.of(), 0, 0);
+        var to = snapshot(1_000, Map.of(Stage.BATCH_WRITE, 4_000L, Stage.ENCODE, 400L, Stage.TARGET_RESPONSE, 1_000L),
+            2, 950);
+
+        var bottleneck = Bottleneck.between(from, to);
+
+        assertEquals(Stage.BATCH_WRITE, bottleneck.stage());
+        assertEquals(0.95, bottleneck.saturation(), 1e-9);
+        assertEquals(0.65, bottleneck.stageShare(), 1e-9);
+    }
+
+    @Test
+    void writesHangingOnTheTargetAreAStall() {
+        var from = snapshot(0, Map.of(), 0, 0);
+        var to = snapshot(1_000, Map.of(Stage.TARGET_RESPONSE, 900L), 1, 0);
+
+        var bottleneck = Bottleneck.between(from, to);
+
+        assertEquals(Stage.TARGET_RESPONSE, bottleneck.stage());
+        assertTrue(bottleneck.stalled());
+    }
+
+    /** A snapshot with one timing of each stage in {@code nanosByStage} and {@code activeBatches} of 2 slots busy. */
+    private static Snapshot snapshot(long nanoTime, Map<Stage, Long> nanosByStage, int activeBatches,
+                                     long saturatedNanos) {
+        var nanos = new EnumMap<Stage, Long>(Stage.class);
+        var counts = new EnumMap<Stage, Long>(Stage.class);
+        for (var stage : Stage.values()) {
+            nanos.put(stage, nanosByStage.getOrDefault(stage, 0L));
+            counts.put(stage, nanosByStage.containsKey(stage) ? 1L : 0L);
+        }
+        return new Snapshot(nanoTime, nanos, counts, new Occupancy(0, activeBatches, 0), 2, saturatedNanos);
+    }
+}
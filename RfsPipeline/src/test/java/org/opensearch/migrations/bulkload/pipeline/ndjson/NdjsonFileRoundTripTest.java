@@ -0,0 +1,229 @@
+package org.opensearch.migrations.bulkload.pipeline.ndjson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.bulkload.pipeline.DocumentMigrationPipeline;
+import org.opensearch.migrations.bulkload.pipeline.model.BatchResult;
+import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.sink.DocumentSink;
+import org.opensearch.migrations.bulkload.pipeline.source.SyntheticDocumentSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NdjsonFileRoundTripTest {
+
+    @TempDir
+    Path root;
+
+    /** Keeps every document it is given, by collection. */
+    private static class CollectingSink implements DocumentSink {
+        final Map<String, List<Document>> documents = new ConcurrentHashMap<>();
+        final List<CollectionMetadata> collections = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public Mono<Void> createCollection(CollectionMetadata metadata) {
+            collections.add(metadata);
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<BatchResult> writeBatch(String collectionName, List<Document> batch) {
+            documents.computeIfAbsent(collectionName, c -> Collections.synchronizedList(new ArrayList<>())).addAll(batch);
+            return Mono.just(new BatchResult(batch.size(), batch.stream().mapToLong(Document::sourceLength).sum()));
+        }
+    }
+
+    private static String source(Document doc) {
+        return doc.source() == null ? null : new String(doc.source(), StandardCharsets.UTF_8);
+    }
+
+    @ParameterizedTest
+    @EnumSource(NdjsonFileFormat.Compression.class)
+    void pipelineOutputIsReadBackInParallelFromRolledFiles(NdjsonFileFormat.Compression compression) throws Exception {
+        var synthetic = new SyntheticDocumentSource("logs", 4, 2_500);
+        try (var fileSink = new NdjsonFileDocumentSink(root, "writer-1", compression, 64 * 1024)) {
+            new DocumentMigrationPipeline(synthetic, fileSink, 100, Long.MAX_VALUE, 4, 4).migrateAll().blockLast();
+        }
+
+        var fileSource = new NdjsonFileDocumentSource(root);
+        assertEquals(List.of("logs"), fileSource.listCollections());
+        assertEquals(new CollectionMetadata("logs", 4, Map.of()), fileSource.readCollectionMetadata("logs"));
+        var partitions = fileSource.listPartitions("logs");
+        assertTrue(partitions.size() > 1, "expected the writer to roll over to several files");
+
+        var collected = new CollectingSink();
+        new DocumentMigrationPipeline(fileSource, collected, 500, Long.MAX_VALUE, 4, 2).migrateAll().blockLast();
+        var readBack = collected.documents.get("logs");
+
+        var expected = new ArrayList<Document>();
+        for (var partition : synthetic.listPartitions("logs")) {
+            expected.addAll(synthetic.readDocuments(partition, 0).collectList().block());
+        }
+        assertEquals(
+            expected.stream().collect(Collectors.toMap(Document::id, NdjsonFileRoundTripTest::source)),
+            readBack.stream().collect(Collectors.toMap(Document::id, NdjsonFileRoundTripTest::source)));
+        assertEquals(expected.size(), readBack.size());
+        assertEquals(expected.stream().mapToLong(Document::sourceLength).sum(),
+            partitions.stream().mapToLong(fileSource::partitionSizeBytes).sum());
+    }
+
+    @Test
+    void deletionsHintsAndMultiLineSourcesSurviveTheRoundTrip() throws Exception {
+        var docs = List.of(
+            new Document("1", "{\"a\":1}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+                Map.of(Document.HINT_ROUTING, "user-7", Document.HINT_TYPE, "_doc"), Map.of()),
+            new Document("2", null, Document.Operation.DELETE, Map.of(Document.HINT_ROUTING, "user-8"), Map.of()),
+            new Document("3", "{\n  \"b\" : \"x\\ny\"\n}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+                Map.of(), Map.of()));
+        var metadata = new CollectionMetadata("orders", 2, Map.of(CollectionMetadata.ES_NUMBER_OF_SHARDS, 2,
+            CollectionMetadata.ES_MAPPINGS,
+            NdjsonFileFormat.OBJECT_MAPPER.readTree("{\"properties\":{\"a\":{\"type\":\"long\"}}}")));
+        try (var sink = new NdjsonFileDocumentSink(root, "w", NdjsonFileFormat.Compression.NONE, Long.MAX_VALUE)) {
+            sink.createCollection(metadata).block();
+            sink.writeBatch("orders", docs).block();
+        }
+
+        var dataFile = root.resolve("orders").resolve("w-00000.ndjson");
+        assertEquals(
+            "{\"index\":{\"_index\":\"orders\",\"_id\":\"1\",\"_type\":\"_doc\",\"routing\":\"user-7\"}}\n"
+                + "{\"a\":1}\n"
+                + "{\"delete\":{\"_index\":\"orders\",\"_id\":\"2\",\"routing\":\"user-8\"}}\n"
+                + "{\"index\":{\"_index\":\"orders\",\"_id\":\"3\"}}\n"
+                + "{\"b\":\"x\\ny\"}\n",
+            Files.readString(dataFile));
+
+        var source = new NdjsonFileDocumentSource(root);
+        assertEquals(metadata, source.readCollectionMetadata("orders"));
+        var readBack = source.readDocuments(source.listPartitions("orders").get(0), 0).collectList().block();
+        assertEquals(List.of("1", "2", "3"), readBack.stream().map(Document::id).toList());
+        assertEquals(List.of(Document.Operation.UPSERT, Document.Operation.DELETE, Document.Operation.UPSERT),
+            readBack.stream().map(Document::operation).toList());
+        assertEquals(docs.stream().map(Document::hints).toList(), readBack.stream().map(Document::hints).toList());
+        assertEquals("{\"a\":1}", source(readBack.get(0)));
+        assertNull(readBack.get(1).source());
+    }
+
+    @Test
+    void readsResumeFromAnOffsetAndStopAtTheLastCompleteBatch() throws Exception {
+        var synthetic = new SyntheticDocumentSource("logs", 1, 95);
+        try (var sink = new NdjsonFileDocumentSink(root, "w", NdjsonFileFormat.Compression.GZIP, Long.MAX_VALUE)) {
+            new DocumentMigrationPipeline(synthetic, sink, 10, Long.MAX_VALUE, 1, 1).migrateAll().blockLast();
+        }
+        var source = new NdjsonFileDocumentSource(root);
+        var partition = source.listPartitions("logs").get(0);
+
+        var resumed = source.readDocuments(partition, 37).map(Document::id).collectList().block();
+        assertEquals(58, resumed.size());
+        assertEquals("logs-0-37", resumed.get(0));
+        assertEquals("logs-0-94", resumed.get(resumed.size() - 1));
+        assertEquals(0, source.readDocuments(partition, 95).count().block());
+
+        // a crash after the last batch's data was partly written and its manifest line half written
+        var file = ((NdjsonFileDocumentSource.NdjsonFilePartition) partition).file();
+        Files.write(file, new byte[] { 0x1f, (byte) 0x8b, 0 }, StandardOpenOption.APPEND);
+        Files.writeString(NdjsonFileFormat.manifestOf(file), "{\"startOffset\":", StandardOpenOption.APPEND);
+        assertEquals(95, source.readDocuments(partition, 0).count().block());
+
+        var cursors = new DocumentMigrationPipeline(source, new CollectingSink(), 10, Long.MAX_VALUE)
+            .migratePartition(partition, "logs", 90).collectList().block();
+        assertEquals(95, cursors.get(cursors.size() - 1).lastDocProcessed());
+    }
+
+    @Test
+    void oneForceAcknowledgesEveryBatchAppendedBeforeIt() throws Exception {
+        var batch = List.of(new Document("x", "{}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+            Map.of(), Map.of()));
+        var encoded = NdjsonFileFormat.encode("idx", batch, NdjsonFileFormat.Compression.NONE);
+        try (var sink = new NdjsonFileDocumentSink(root, "w", NdjsonFileFormat.Compression.NONE, Long.MAX_VALUE)) {
+            var writer = sink.writer("idx");
+            var first = writer.append(encoded, 1, 2);
+            var second = writer.append(encoded, 1, 2);
+            var third = writer.append(encoded, 1, 2);
+
+            writer.awaitDurable(second);
+            writer.awaitDurable(first);
+            writer.awaitDurable(third);
+            assertEquals(1, writer.syncs());
+
+            writer.awaitDurable(writer.append(encoded, 1, 2));
+            assertEquals(2, writer.syncs());
+        }
+        var source = new NdjsonFileDocumentSource(root);
+        assertEquals(4, source.readDocuments(source.listPartitions("idx").get(0), 0).count().block());
+    }
+
+    @Test
+    void batchesInAFileThatWasRolledOverAreDurableWithoutAnotherForce() throws Exception {
+        var batch = List.of(new Document("x", "{}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+            Map.of(), Map.of()));
+        var encoded = NdjsonFileFormat.encode("idx", batch, NdjsonFileFormat.Compression.NONE);
+        try (var sink = new NdjsonFileDocumentSink(root, "w", NdjsonFileFormat.Compression.NONE, 1)) {
+            var writer = sink.writer("idx");
+            var first = writer.append(encoded, 1, 2);
+            // the second batch goes to a new file, and the first file is forced as it is closed
+            var second = writer.append(encoded, 1, 2);
+
+            writer.awaitDurable(first);
+            assertEquals(0, writer.syncs());
+            writer.awaitDurable(second);
+            assertEquals(1, writer.syncs());
+        }
+    }
+
+    @Test
+    void concurrentBatchesAreAllWrittenAndAcknowledged() throws Exception {
+        var batch = List.of(new Document("x", "{}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+            Map.of(), Map.of()));
+        try (var sink = new NdjsonFileDocumentSink(root, "w", NdjsonFileFormat.Compression.GZIP, 4 * 1024)) {
+            var acknowledged = Flux.range(0, 200)
+                .flatMap(i -> sink.writeBatch("idx", batch), 16)
+                .count()
+                .block();
+            assertEquals(200, acknowledged);
+        }
+        var source = new NdjsonFileDocumentSource(root);
+        assertEquals(200, Flux.fromIterable(source.listPartitions("idx"))
+            .flatMap(partition -> source.readDocuments(partition, 0))
+            .count()
+            .block());
+    }
+
+    @Test
+    void writersSharingADirectoryDoNotOverwriteEachOther() throws IOException {
+        var batch = List.of(new Document("x", "{}".getBytes(StandardCharsets.UTF_8), Document.Operation.UPSERT,
+            Map.of(), Map.of()));
+        for (var writer : List.of("a", "b", "a")) {
+            try (var sink = new NdjsonFileDocumentSink(root, writer, NdjsonFileFormat.Compression.GZIP, Long.MAX_VALUE)) {
+                Flux.range(0, 3).concatMap(i -> sink.writeBatch("idx", batch)).blockLast();
+            }
+        }
+        var source = new NdjsonFileDocumentSource(root);
+        assertEquals(List.of("a-00000.ndjson.gz", "a-00001.ndjson.gz", "b-00000.ndjson.gz"),
+            source.listPartitions("idx").stream()
+                .map(p -> ((NdjsonFileDocumentSource.NdjsonFilePartition) p).file().getFileName().toString())
+                .toList());
+        for (var partition : source.listPartitions("idx")) {
+            assertEquals(3, source.readDocuments(partition, 0).count().block());
+        }
+    }
+}
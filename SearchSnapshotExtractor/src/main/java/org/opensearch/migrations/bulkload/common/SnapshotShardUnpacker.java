@@ -1,7 +1,9 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Set;
 
 import org.opensearch.migrations.bulkload.models.ShardFileInfo;
@@ -11,8 +13,10 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import shadow.lucene9.org.apache.lucene.codecs.CodecUtil;
 import shadow.lucene9.org.apache.lucene.store.FSDirectory;
 import shadow.lucene9.org.apache.lucene.store.IOContext;
+import shadow.lucene9.org.apache.lucene.store.IndexInput;
 import shadow.lucene9.org.apache.lucene.store.IndexOutput;
 import shadow.lucene9.org.apache.lucene.store.InputStreamDataInput;
 import shadow.lucene9.org.apache.lucene.store.NativeFSLockFactory;
@@ -63,6 +67,13 @@ public class SnapshotShardUnpacker {
     private Mono<Void> unpackFile(FSDirectory primaryDirectory, ShardFileInfo fileMetadata) {
         return Mono.fromRunnable(() -> {
             try {
+                if (isAlreadyUnpacked(primaryDirectory, fileMetadata)) {
+                    log.atInfo().setMessage("Already unpacked - Blob Name: {}, Lucene Name: {}")
+                        .addArgument(fileMetadata::getName)
+                        .addArgument(fileMetadata::getPhysicalName)
+                        .log();
+                    return;
+                }
                 log.atInfo().setMessage("Unpacking - Blob Name: {}, Lucene Name: {}")
                     .addArgument(fileMetadata::getName)
                     .addArgument(fileMetadata::getPhysicalName)
@@ -103,6 +114,41 @@ public class SnapshotShardUnpacker {
         });
     }
 
+    /**
+     * A worker that stays up across work items can be handed a shard it (or a previous run on the same volume)
+     * already unpacked, e.g. the successor of a checkpointed item.  A file is reused only if its length matches
+     * and its Lucene footer checksum (or, for {@code v__} files, its content) matches the snapshot metadata;
+     * anything else is deleted so that it is written again, since {@link FSDirectory#createOutput} won't
+     * overwrite an existing file.
+     */
+    private static boolean isAlreadyUnpacked(FSDirectory directory, ShardFileInfo fileMetadata) throws IOException {
+        var path = directory.getDirectory().resolve(fileMetadata.getPhysicalName());
+        if (!Files.exists(path)) {
+            return false;
+        }
+        if (Files.size(path) == fileMetadata.getLength() && contentMatches(directory, fileMetadata)) {
+            return true;
+        }
+        Files.delete(path);
+        return false;
+    }
+
+    private static boolean contentMatches(FSDirectory directory, ShardFileInfo fileMetadata) {
+        try (IndexInput in = directory.openInput(fileMetadata.getPhysicalName(), IOContext.READONCE)) {
+            if (fileMetadata.getName().startsWith("v__")) {
+                final BytesRef hash = fileMetadata.getMetaHash();
+                var existing = new byte[hash.length];
+                in.readBytes(existing, 0, existing.length);
+                return Arrays.equals(existing, 0, existing.length, hash.bytes, hash.offset, hash.offset + hash.length);
+            }
+            var checksum = Long.toString(CodecUtil.retrieveChecksum(in), Character.MAX_RADIX);
+            return checksum.equals(fileMetadata.getChecksum());
+        } catch (IOException e) {
+            // e.g. a truncated file, or a legacy file without a codec footer; just unpack it again
+            return false;
+        }
+    }
+
     public Path unpack() {
         try {
             // Some constants
@@ -2,26 +2,29 @@ package org.opensearch.migrations.bulkload.lucene;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
  * Shared min-heap skeleton for streaming postings cursors, version-independent.
  *
- * <p>Owns the heap of per-term {@link Cursor}s, the {@link #skipToDoc(int)} loop,
- * the lifecycle state ({@code closed}, {@code lastAdvancedDoc}), and the
- * {@link #close()} cleanup. Subclasses provide only the per-doc emission strategy
- * via {@link #drainAtDoc(int)} — what type to return and how to arrange the
- * drained terms.
+ * <p>Owns the heap of per-term slots, the {@link #skipToDoc(int)} loop, the lifecycle
+ * state ({@code closed}, {@code lastAdvancedDoc}), and the {@link #close()} cleanup.
+ * Subclasses provide only the per-doc emission strategy via {@link #drainAtDoc(int)} —
+ * what type to return and how to arrange the drained terms.
  *
  * <h3>Heap-memory profile</h3>
  *
- * <p>Per-segment, per-field cost is {@code O(uniqueTerms)} — one {@link Cursor}
- * per term, each holding a single decoded {@code String} reference and its
- * version-specific {@link GenericStreamingFieldPostings.PostingsCursor}. The
- * dictionary is paid once at build time and reused across all docs in the
- * segment via reference equality. {@link #close()} nulls every slot, so the
- * dictionary plus all postings state become GC-eligible immediately even if a
- * caller leaks the closed instance.
+ * <p>Per-segment, per-field cost is {@code O(uniqueTerms)}, laid out as parallel arrays
+ * indexed by term slot rather than one object per term: the term's UTF-8 bytes in a
+ * shared arena (see {@link TermPostingsArena}), its current docId, and its
+ * version-specific {@link GenericStreamingFieldPostings.PostingsCursor}. A term's
+ * {@code String} is decoded the first time it is emitted and reused via reference
+ * equality for every later doc, then dropped with the cursor once its postings are
+ * exhausted. Exhausted cursors go back to the {@link StreamingPostingsPool} for enum
+ * reuse, and {@link #close()} nulls every slot and returns the arrays to the pool, so the
+ * dictionary plus all postings state become GC-eligible (or recyclable) immediately even
+ * if a caller leaks the closed instance.
  *
  * <h3>Call discipline</h3>
  *
@@ -29,30 +32,17 @@ import java.util.List;
  * {@link StreamingMultiTermPostings} interface that the subclass implements)
  * must be called with strictly non-decreasing {@code docId}s. Regressions throw
  * {@link IllegalStateException}; calls after {@link #close()} throw
- * {@link IOException}.
+ * {@link IOException}. Instances are single-owner and unsynchronized, like the Lucene
+ * enums they wrap.
  *
  * @param <R> result type of {@link #drainAtDoc(int)}
  */
 abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
 
-    /** A single per-term entry in the streaming heap. */
-    static final class Cursor {
-        final String term;
-        final GenericStreamingFieldPostings.PostingsCursor postings;
-        int currentDoc;
-
-        Cursor(String term, GenericStreamingFieldPostings.PostingsCursor postings, int currentDoc) {
-            this.term = term;
-            this.postings = postings;
-            this.currentDoc = currentDoc;
-        }
-    }
-
     /**
-     * Adapter shape for builder inputs — both
+     * Adapter shape for list-based builder inputs — both
      * {@link GenericStreamingFieldPostings.TermPostings} and
-     * {@link GenericStreamingMultiTermPostings.TermPostings} implement this so
-     * the abstract constructor can build the heap without copying records.
+     * {@link GenericStreamingMultiTermPostings.TermPostings} implement this.
      */
     interface TermEntrySource {
         String term();
@@ -60,28 +50,49 @@ abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
         int firstDoc();
     }
 
-    final Cursor[] heap;
+    final StreamingPostingsPool pool;
+    private byte[] termBytes;
+    private int[] termStart;
+    private String[] decoded;
+    private GenericStreamingFieldPostings.PostingsCursor[] cursors;
+    private int[] docs;
+    /** Min-heap of slot indices, keyed by {@code docs[slot]}. */
+    private int[] heap;
     int heapSize;
     private int lastAdvancedDoc = -1;
     private boolean closed;
 
     /**
-     * Builds the min-heap from a list of {@code (term, cursor, firstDoc)} triples.
-     * Each cursor must already be advanced to {@code firstDoc} (or be excluded if
-     * it has no docs).
+     * Builds the min-heap from an arena of {@code (term, cursor, firstDoc)} slots, taking
+     * ownership of the arena's arrays. Each cursor must already be advanced to
+     * {@code firstDoc} (or be excluded if it has no docs).
      */
-    AbstractStreamingPostingsHeap(List<? extends TermEntrySource> termPostings) {
-        this.heap = new Cursor[termPostings.size()];
-        for (int i = 0; i < termPostings.size(); i++) {
-            TermEntrySource tp = termPostings.get(i);
-            heap[i] = new Cursor(tp.term(), tp.cursor(), tp.firstDoc());
+    AbstractStreamingPostingsHeap(TermPostingsArena arena) {
+        this.pool = arena.pool;
+        this.termBytes = arena.termBytes;
+        this.termStart = arena.termStart;
+        this.decoded = arena.decoded;
+        this.cursors = arena.cursors;
+        this.docs = arena.firstDocs;
+        this.heapSize = arena.size;
+        this.heap = pool.takeInts(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            heap[i] = i;
         }
-        this.heapSize = heap.length;
         for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
             siftDown(i);
         }
     }
 
+    /** Copies list-based builder input into an arena backed by a private pool. */
+    static TermPostingsArena toArena(List<? extends TermEntrySource> termPostings) {
+        var arena = new TermPostingsArena(new StreamingPostingsPool(), termPostings.size());
+        for (TermEntrySource tp : termPostings) {
+            arena.add(tp.term(), tp.cursor(), tp.firstDoc());
+        }
+        return arena;
+    }
+
     /**
      * Common entry point invoked by subclasses' typed {@code advance} methods.
      * Validates lifecycle, walks cursors forward to {@code docId}, and delegates
@@ -101,7 +112,7 @@ abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
             return emptyResult;
         }
         skipToDoc(docId);
-        if (heapSize == 0 || heap[0].currentDoc != docId) {
+        if (heapSize == 0 || headDoc() != docId) {
             return emptyResult;
         }
         return drainAtDoc(docId);
@@ -117,14 +128,13 @@ abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
 
     /** Advances all heap cursors that are behind {@code docId}, dropping exhausted ones. */
     private void skipToDoc(int docId) throws IOException {
-        while (heapSize > 0 && heap[0].currentDoc < docId) {
-            Cursor c = heap[0];
-            int next = c.postings.advance(docId);
+        while (heapSize > 0 && docs[heap[0]] < docId) {
+            int slot = heap[0];
+            int next = cursors[slot].advance(docId);
             if (next == GenericStreamingFieldPostings.PostingsCursor.NO_MORE_DOCS) {
-                heap[0] = heap[--heapSize];
-                heap[heapSize] = null;
+                dropHead();
             } else {
-                c.currentDoc = next;
+                docs[slot] = next;
             }
             if (heapSize > 0) {
                 siftDown(0);
@@ -137,29 +147,72 @@ abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
      * re-heapifies. Called by subclasses after consuming the head's data.
      */
     protected final void advanceHeapHead() throws IOException {
-        int next = heap[0].postings.nextDoc();
+        int slot = heap[0];
+        int next = cursors[slot].nextDoc();
         if (next == GenericStreamingFieldPostings.PostingsCursor.NO_MORE_DOCS) {
-            heap[0] = heap[--heapSize];
-            heap[heapSize] = null;
+            dropHead();
         } else {
-            heap[0].currentDoc = next;
+            docs[slot] = next;
         }
         if (heapSize > 0) {
             siftDown(0);
         }
     }
 
+    /** The docId that the heap head is positioned on; only valid while {@code heapSize > 0}. */
+    final int headDoc() {
+        return docs[heap[0]];
+    }
+
+    final GenericStreamingFieldPostings.PostingsCursor headCursor() {
+        return cursors[heap[0]];
+    }
+
+    /** The head's term, decoded from the arena on first use and cached until it's exhausted. */
+    final String headTerm() {
+        int slot = heap[0];
+        String term = decoded[slot];
+        if (term == null) {
+            int start = termStart[slot];
+            term = new String(termBytes, start, termStart[slot + 1] - start, StandardCharsets.UTF_8);
+            decoded[slot] = term;
+        }
+        return term;
+    }
+
+    /** Removes an exhausted head, releasing its String and recycling its cursor. */
+    private void dropHead() {
+        int slot = heap[0];
+        pool.recycle(cursors[slot]);
+        cursors[slot] = null;
+        decoded[slot] = null;
+        heap[0] = heap[--heapSize];
+    }
+
     @Override
     public final void close() {
         if (closed) return;
         closed = true;
-        // Null every cursor slot so per-term String + PostingsEnum state become
-        // GC-eligible immediately, regardless of whether the caller keeps a
-        // reference to the closed instance.
-        for (int i = 0; i < heap.length; i++) {
-            heap[i] = null;
+        // Null every live slot so per-term String + PostingsEnum state become GC-eligible
+        // immediately, regardless of whether the caller keeps a reference to the closed
+        // instance; exhausted slots were already nulled as they dropped out of the heap.
+        for (int i = 0; i < heapSize; i++) {
+            cursors[heap[i]] = null;
+            decoded[heap[i]] = null;
         }
         heapSize = 0;
+        pool.give(termBytes);
+        pool.give(termStart);
+        pool.give(decoded);
+        pool.give(cursors);
+        pool.give(docs);
+        pool.give(heap);
+        termBytes = null;
+        termStart = null;
+        decoded = null;
+        cursors = null;
+        docs = null;
+        heap = null;
         onClose();
     }
 
@@ -174,10 +227,10 @@ abstract class AbstractStreamingPostingsHeap<R> implements Closeable {
             int l = (i << 1) + 1;
             int r = l + 1;
             int smallest = i;
-            if (l < n && heap[l].currentDoc < heap[smallest].currentDoc) smallest = l;
-            if (r < n && heap[r].currentDoc < heap[smallest].currentDoc) smallest = r;
+            if (l < n && docs[heap[l]] < docs[heap[smallest]]) smallest = l;
+            if (r < n && docs[heap[r]] < docs[heap[smallest]]) smallest = r;
             if (smallest == i) return;
-            Cursor tmp = heap[i];
+            int tmp = heap[i];
             heap[i] = heap[smallest];
             heap[smallest] = tmp;
             i = smallest;
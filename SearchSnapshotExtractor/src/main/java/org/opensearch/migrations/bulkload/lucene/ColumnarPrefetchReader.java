@@ -0,0 +1,308 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link LuceneLeafReader} for sourceless reconstruction that reads doc_values and points
+ * column by column over a window of consecutive docIds instead of one document at a time.
+ * <p>
+ * Documents are reconstructed in ascending docId order, so the first time a field is asked for
+ * inside a window, the whole window {@code [windowStart, windowStart + windowSize)} is decoded for
+ * that field in one forward pass: NUMERIC values into a {@code long[]}, other doc_values types into
+ * an {@code Object[]}, and points with a single {@link #collectPointValuesForDocRange} call (one BKD
+ * {@code intersect} per window rather than one per document). Later documents in the window are
+ * assembled from those arrays. Fields that reconstruction never touches are never decoded, and
+ * each column's arrays are reused from window to window, so retained memory is bounded by
+ * {@code windowSize × touched fields}.
+ * <p>
+ * Columns are decoded through a separate {@link #newView()} of the segment with its DocValues
+ * iterators cached via {@link #initDocValueIterators}. A request for a docId before the current
+ * window (which ascending reconstruction never makes) is answered by the wrapped reader directly.
+ * Everything other than doc_values and points is delegated unchanged.
+ */
+@Slf4j
+public class ColumnarPrefetchReader implements LuceneLeafReader {
+    private final LuceneLeafReader delegate;
+    private final int windowSize;
+    /** Opened on the first column load, so segments that never read doc_values or points don't pay for it. */
+    private LuceneLeafReader columnView;
+
+    private final Map<String, DocValueColumn> docValueColumns = new HashMap<>();
+    private final Map<String, PointColumn> pointColumns = new HashMap<>();
+    private int windowStart = -1;
+    private int windowEnd = -1;
+    /** Set if a column failed part way through, after which its iterators can't be trusted. */
+    private boolean columnsDisabled;
+
+    public ColumnarPrefetchReader(LuceneLeafReader delegate, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive, but was " + windowSize);
+        }
+        this.delegate = delegate;
+        this.windowSize = windowSize;
+    }
+
+    /** Wraps {@code reader} when {@code windowSize > 0}, otherwise returns it unchanged. */
+    public static LuceneLeafReader wrap(LuceneLeafReader reader, int windowSize) {
+        return windowSize > 0 ? new ColumnarPrefetchReader(reader, windowSize) : reader;
+    }
+
+    @Override
+    public synchronized Object getDocValue(int docId, DocValueFieldInfo fieldInfo) throws IOException {
+        if (!moveWindowTo(docId)) {
+            return delegate.getDocValue(docId, fieldInfo);
+        }
+        var column = docValueColumns.computeIfAbsent(fieldInfo.name(), k -> new DocValueColumn(windowSize));
+        if (column.loadedFor != windowStart) {
+            try {
+                column.load(columnView(), fieldInfo, windowStart, windowEnd);
+            } catch (IOException | RuntimeException e) {
+                disableColumns(fieldInfo.name(), e);
+                return delegate.getDocValue(docId, fieldInfo);
+            }
+        }
+        return column.get(docId - windowStart);
+    }
+
+    @Override
+    public synchronized List<byte[]> getPointValues(int docId, String fieldName) throws IOException {
+        if (!moveWindowTo(docId)) {
+            return delegate.getPointValues(docId, fieldName);
+        }
+        var column = pointColumns.computeIfAbsent(fieldName, k -> new PointColumn(windowSize));
+        if (column.loadedFor != windowStart) {
+            try {
+                column.load(columnView(), fieldName, windowStart, windowEnd);
+            } catch (IOException | RuntimeException e) {
+                disableColumns(fieldName, e);
+                return delegate.getPointValues(docId, fieldName);
+            }
+        }
+        return column.get(docId - windowStart);
+    }
+
+    private void disableColumns(String fieldName, Exception cause) {
+        columnsDisabled = true;
+        log.atWarn().setMessage("Columnar prefetch failed for field {} in {}, reading per document from now on")
+            .addArgument(fieldName)
+            .addArgument(delegate::getSegmentName)
+            .setCause(cause)
+            .log();
+    }
+
+    private LuceneLeafReader columnView() throws IOException {
+        if (columnView == null) {
+            var view = delegate.newView();
+            view.initDocValueIterators(view.getDocValueFields());
+            columnView = view;
+        }
+        return columnView;
+    }
+
+    /**
+     * Slide the window forward so that it contains {@code docId}. Returns false when the columns
+     * can't answer for {@code docId} and the caller should read from the wrapped reader instead.
+     */
+    private boolean moveWindowTo(int docId) {
+        if (columnsDisabled || docId < windowStart) {
+            return false;
+        }
+        if (docId >= windowEnd) {
+            windowStart = docId;
+            windowEnd = (int) Math.min((long) docId + windowSize, delegate.maxDoc());
+        }
+        return true;
+    }
+
+    int getWindowStart() {
+        return windowStart;
+    }
+
+    int getWindowEnd() {
+        return windowEnd;
+    }
+
+    /** One doc_values field over the current window; NUMERIC longs are kept unboxed. */
+    private static final class DocValueColumn {
+        private final long[] longs;
+        private final BitSet hasLong;
+        private final Object[] values;
+        private int loadedFor = -1;
+
+        DocValueColumn(int windowSize) {
+            this.longs = new long[windowSize];
+            this.hasLong = new BitSet(windowSize);
+            this.values = new Object[windowSize];
+        }
+
+        void load(LuceneLeafReader reader, DocValueFieldInfo fieldInfo, int start, int end) throws IOException {
+            loadedFor = -1;
+            hasLong.clear();
+            boolean numeric = fieldInfo.docValueType() == DocValueFieldInfo.DocValueType.NUMERIC;
+            for (int docId = start; docId < end; docId++) {
+                int slot = docId - start;
+                Object value = reader.getDocValue(docId, fieldInfo);
+                if (numeric && value instanceof Long l) {
+                    longs[slot] = l;
+                    hasLong.set(slot);
+                    values[slot] = null;
+                } else {
+                    values[slot] = value;
+                }
+            }
+            for (int slot = end - start; slot < values.length; slot++) {
+                values[slot] = null;
+            }
+            loadedFor = start;
+        }
+
+        Object get(int slot) {
+            return hasLong.get(slot) ? Long.valueOf(longs[slot]) : values[slot];
+        }
+    }
+
+    /** One point field over the current window, indexed by {@code docId - windowStart}. */
+    private static final class PointColumn {
+        private final List<byte[]>[] bySlot;
+        private int loadedFor = -1;
+
+        @SuppressWarnings("unchecked")
+        PointColumn(int windowSize) {
+            this.bySlot = new List[windowSize];
+        }
+
+        void load(LuceneLeafReader reader, String fieldName, int start, int end) throws IOException {
+            loadedFor = -1;
+            Arrays.fill(bySlot, null);
+            reader.collectPointValuesForDocRange(fieldName, start, end, bySlot);
+            loadedFor = start;
+        }
+
+        List<byte[]> get(int slot) {
+            return bySlot[slot];
+        }
+    }
+
+    // --- Delegated unchanged ---
+
+    @Override
+    public LuceneDocument document(int luceneDocId) throws IOException {
+        return delegate.document(luceneDocId);
+    }
+
+    @Override
+    public StoredFieldsCursor openStoredFieldsCursor(Set<String> fieldNames) throws IOException {
+        return delegate.openStoredFieldsCursor(fieldNames);
+    }
+
+    @Override
+    public BitSetConverter.FixedLengthBitSet getLiveDocs() {
+        return delegate.getLiveDocs();
+    }
+
+    @Override
+    public int maxDoc() {
+        return delegate.maxDoc();
+    }
+
+    @Override
+    public String getContextString() {
+        return delegate.getContextString();
+    }
+
+    @Override
+    public String getSegmentName() {
+        return delegate.getSegmentName();
+    }
+
+    @Override
+    public String getSegmentInfoString() {
+        return delegate.getSegmentInfoString();
+    }
+
+    @Override
+    public LuceneLeafReader newView() {
+        return new ColumnarPrefetchReader(delegate.newView(), windowSize);
+    }
+
+    @Override
+    public Iterable<DocValueFieldInfo> getDocValueFields() {
+        return delegate.getDocValueFields();
+    }
+
+    @Override
+    public Object getNumericValue(int docId, String fieldName) throws IOException {
+        return delegate.getNumericValue(docId, fieldName);
+    }
+
+    @Override
+    public Object getSortedValue(int docId, String fieldName) throws IOException {
+        return delegate.getSortedValue(docId, fieldName);
+    }
+
+    @Override
+    public Object getSortedSetValues(int docId, String fieldName) throws IOException {
+        return delegate.getSortedSetValues(docId, fieldName);
+    }
+
+    @Override
+    public Object getSortedNumericValues(int docId, String fieldName) throws IOException {
+        return delegate.getSortedNumericValues(docId, fieldName);
+    }
+
+    @Override
+    public Object getBinaryValue(int docId, String fieldName) throws IOException {
+        return delegate.getBinaryValue(docId, fieldName);
+    }
+
+    @Override
+    public void collectPointValuesForDocRange(String fieldName, int minDocId, int maxDocId, List<byte[]>[] bySlot)
+            throws IOException {
+        delegate.collectPointValuesForDocRange(fieldName, minDocId, maxDocId, bySlot);
+    }
+
+    @Override
+    public String getValueFromTerms(int docId, String fieldName) throws IOException {
+        return delegate.getValueFromTerms(docId, fieldName);
+    }
+
+    @Override
+    public StreamingFieldPostings openStreamingFieldPostings(String fieldName) throws IOException {
+        return delegate.openStreamingFieldPostings(fieldName);
+    }
+
+    @Override
+    public StreamingFieldPostings openStreamingFieldPostings(String fieldName, StreamingPostingsPool pool)
+            throws IOException {
+        return delegate.openStreamingFieldPostings(fieldName, pool);
+    }
+
+    @Override
+    public StreamingMultiTermPostings openStreamingMultiTermPostings(String fieldName) throws IOException {
+        return delegate.openStreamingMultiTermPostings(fieldName);
+    }
+
+    @Override
+    public StreamingMultiTermPostings openStreamingMultiTermPostings(String fieldName, StreamingPostingsPool pool)
+            throws IOException {
+        return delegate.openStreamingMultiTermPostings(fieldName, pool);
+    }
+
+    @Override
+    public Map<Integer, Long> buildNumericTermIndex(String fieldName) throws IOException {
+        return delegate.buildNumericTermIndex(fieldName);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
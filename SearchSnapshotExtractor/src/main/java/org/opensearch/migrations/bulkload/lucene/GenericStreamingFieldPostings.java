@@ -43,10 +43,12 @@ public final class GenericStreamingFieldPostings
 
     private final boolean fieldHasOffsets;
 
-    private long[] scratchSortKey = new long[64];
-    private String[] scratchTerm = new String[64];
+    private long[] scratchSortKey;
+    private String[] scratchTerm;
     private int[] scratchStart;
     private int[] scratchEnd;
+    /** Entries of {@link #scratchTerm} written by the last doc, nulled before it goes back to the pool. */
+    private int scratchTermsUsed;
 
     /**
      * Builds a streaming field postings cursor.
@@ -55,15 +57,28 @@ public final class GenericStreamingFieldPostings
      * @param fieldHasOffsets whether the field was indexed with character offsets
      */
     public static GenericStreamingFieldPostings build(List<TermPostings> termPostings, boolean fieldHasOffsets) {
-        return new GenericStreamingFieldPostings(termPostings, fieldHasOffsets);
+        return new GenericStreamingFieldPostings(toArena(termPostings), fieldHasOffsets);
     }
 
-    private GenericStreamingFieldPostings(List<TermPostings> termPostings, boolean fieldHasOffsets) {
-        super(termPostings);
+    /**
+     * Builds a streaming field postings cursor from an arena filled by a version-specific
+     * reader, drawing the heap and scratch arrays from the arena's pool.
+     *
+     * @param terms           pre-advanced cursors, one per term in the dictionary
+     * @param fieldHasOffsets whether the field was indexed with character offsets
+     */
+    public static GenericStreamingFieldPostings build(TermPostingsArena terms, boolean fieldHasOffsets) {
+        return new GenericStreamingFieldPostings(terms, fieldHasOffsets);
+    }
+
+    private GenericStreamingFieldPostings(TermPostingsArena terms, boolean fieldHasOffsets) {
+        super(terms);
         this.fieldHasOffsets = fieldHasOffsets;
+        this.scratchSortKey = pool.takeLongs(64);
+        this.scratchTerm = pool.takeStrings(64);
         if (fieldHasOffsets) {
-            this.scratchStart = new int[64];
-            this.scratchEnd = new int[64];
+            this.scratchStart = pool.takeInts(64);
+            this.scratchEnd = pool.takeInts(64);
         }
     }
 
@@ -88,9 +103,9 @@ public final class GenericStreamingFieldPostings
         int[] startOff = scratchStart;
         int[] endOff = scratchEnd;
 
-        while (heapSize > 0 && heap[0].currentDoc == docId) {
-            Cursor c = heap[0];
-            int freq = c.postings.freq();
+        while (heapSize > 0 && headDoc() == docId) {
+            PostingsCursor postings = headCursor();
+            int freq = postings.freq();
             int need = n + freq;
             if (need > sortKey.length) {
                 int newLen = Math.max(need, sortKey.length << 1);
@@ -101,9 +116,10 @@ public final class GenericStreamingFieldPostings
                     endOff = Arrays.copyOf(endOff, newLen);
                 }
             }
-            n = drainPositions(c, sortKey, terms, startOff, endOff, n, freq);
+            n = drainPositions(postings, headTerm(), sortKey, terms, startOff, endOff, n, freq);
             advanceHeapHead();
         }
+        scratchTermsUsed = Math.max(scratchTermsUsed, n);
 
         scratchSortKey = sortKey;
         scratchTerm = terms;
@@ -114,16 +130,16 @@ public final class GenericStreamingFieldPostings
         return n;
     }
 
-    private int drainPositions(Cursor c, long[] sortKey, String[] terms,
+    private int drainPositions(PostingsCursor postings, String term, long[] sortKey, String[] terms,
             int[] startOff, int[] endOff, int n, int freq) throws IOException {
         for (int i = 0; i < freq; i++) {
-            int pos = c.postings.nextPosition();
+            int pos = postings.nextPosition();
             if (pos < 0) continue;
             sortKey[n] = ((long) pos << 32) | (n & 0xFFFFFFFFL);
-            terms[n] = c.term;
+            terms[n] = term;
             if (fieldHasOffsets) {
-                startOff[n] = c.postings.startOffset();
-                endOff[n] = c.postings.endOffset();
+                startOff[n] = postings.startOffset();
+                endOff[n] = postings.endOffset();
             }
             n++;
         }
@@ -151,4 +167,17 @@ public final class GenericStreamingFieldPostings
         }
         return ordered;
     }
+
+    @Override
+    protected void onClose() {
+        Arrays.fill(scratchTerm, 0, scratchTermsUsed, null);
+        pool.give(scratchSortKey);
+        pool.give(scratchTerm);
+        pool.give(scratchStart);
+        pool.give(scratchEnd);
+        scratchSortKey = null;
+        scratchTerm = null;
+        scratchStart = null;
+        scratchEnd = null;
+    }
 }
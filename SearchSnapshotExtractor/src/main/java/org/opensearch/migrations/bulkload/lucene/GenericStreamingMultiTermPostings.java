@@ -17,7 +17,7 @@ import lombok.extern.slf4j.Slf4j;
  * {@link AbstractStreamingPostingsHeap} skeleton — see that class for
  * heap-memory lifecycle, call discipline, and {@link #close()} semantics.
  *
- * <p>Per-doc work: drain every head at {@code docId}, repeat each cursor's
+ * <p>Per-doc work: drain every head at {@code docId}, repeat each term's
  * cached {@code String} reference {@code freq} times into the output list. No
  * sort, no scratch buffers — this path returns the per-doc <i>multiset</i> of
  * terms; the order across distinct terms is heap-internal and unspecified.
@@ -36,11 +36,16 @@ public final class GenericStreamingMultiTermPostings
 
     /** Builds a streaming multi-term cursor from pre-advanced term-postings pairs. */
     public static GenericStreamingMultiTermPostings build(List<TermPostings> termPostings) {
-        return new GenericStreamingMultiTermPostings(termPostings);
+        return new GenericStreamingMultiTermPostings(toArena(termPostings));
     }
 
-    private GenericStreamingMultiTermPostings(List<TermPostings> termPostings) {
-        super(termPostings);
+    /** Builds a streaming multi-term cursor from an arena filled by a version-specific reader. */
+    public static GenericStreamingMultiTermPostings build(TermPostingsArena terms) {
+        return new GenericStreamingMultiTermPostings(terms);
+    }
+
+    private GenericStreamingMultiTermPostings(TermPostingsArena terms) {
+        super(terms);
     }
 
     @Override
@@ -51,10 +56,9 @@ public final class GenericStreamingMultiTermPostings
     @Override
     protected List<String> drainAtDoc(int docId) throws IOException {
         ArrayList<String> out = new ArrayList<>();
-        while (heapSize > 0 && heap[0].currentDoc == docId) {
-            Cursor c = heap[0];
-            int freq = c.postings.freq();
-            String termStr = c.term;
+        while (heapSize > 0 && headDoc() == docId) {
+            int freq = headCursor().freq();
+            String termStr = headTerm();
             for (int i = 0; i < freq; i++) {
                 out.add(termStr);
             }
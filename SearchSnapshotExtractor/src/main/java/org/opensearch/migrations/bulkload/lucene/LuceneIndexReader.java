@@ -1,7 +1,9 @@
 package org.opensearch.migrations.bulkload.lucene;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.Predicate;
 
 import org.opensearch.migrations.bulkload.lucene.version_10.IndexReader10;
 import org.opensearch.migrations.bulkload.lucene.version_5.IndexReader5;
@@ -16,6 +18,24 @@ import lombok.extern.slf4j.Slf4j;
 public interface LuceneIndexReader {
     LuceneDirectoryReader getReader(String segmentsFileName) throws IOException;
 
+    /**
+     * Writes a commit holding only the segments of {@code segmentsFileName}'s commit whose names pass
+     * {@code keepSegment}, and returns its segments file name.  The new commit can be opened with just
+     * those segments' files present; writing it needs the original segments file and every segment's
+     * {@code .si} file.
+     */
+    String writeSegmentSubsetCommit(String segmentsFileName, Predicate<String> keepSegment) throws IOException;
+
+    /**
+     * Deletes the segments file of generation {@code generation} and its pending form, which an earlier
+     * {@link #writeSegmentSubsetCommit} in the same directory may have left behind.
+     */
+    static void deleteCommit(Path indexDirectoryPath, long generation) throws IOException {
+        var suffix = "segments_" + Long.toString(generation, Character.MAX_RADIX);
+        Files.deleteIfExists(indexDirectoryPath.resolve(suffix));
+        Files.deleteIfExists(indexDirectoryPath.resolve("pending_" + suffix));
+    }
+
     @Slf4j
     @AllArgsConstructor
     class Factory {
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 
 public interface LuceneLeafReader {
@@ -47,6 +48,19 @@ public interface LuceneLeafReader {
      */
     LuceneLeafReader newView();
 
+    /**
+     * Opens a {@link StoredFieldsCursor} that loads only {@code fieldNames} from each document.
+     * <p>
+     * Version readers back the cursor with a sequential (merge) instance of the segment's stored-fields
+     * reader, which decompresses each block once and serves every following doc of that block from the
+     * decompressed buffer, and with a visitor that skips the other fields and stops reading a document
+     * as soon as every selected field the segment knows about has been seen. The default reads the
+     * whole document through {@link #document(int)}.
+     */
+    default StoredFieldsCursor openStoredFieldsCursor(Set<String> fieldNames) throws IOException {
+        return this::document;
+    }
+
     /**
      * Returns field information for all fields with doc_values.
      * Default implementation returns empty iterable for backward compatibility.
@@ -91,6 +105,25 @@ public interface LuceneLeafReader {
      */
     default List<byte[]> getPointValues(int docId, String fieldName) throws IOException { return null; }
 
+    /**
+     * Collects point values for a field for every document in {@code [minDocId, maxDocId)} into
+     * {@code bySlot[docId - minDocId]}. Slots of documents without points are left untouched, so
+     * callers reusing the array clear it first.
+     *
+     * <p>The default calls {@link #getPointValues(int, String)} once per document. Readers backed
+     * by a BKD tree override this to collect the whole range in a single {@code intersect}, which
+     * is what makes {@link ColumnarPrefetchReader} worthwhile for points.
+     */
+    default void collectPointValuesForDocRange(String fieldName, int minDocId, int maxDocId, List<byte[]>[] bySlot)
+            throws IOException {
+        for (int docId = minDocId; docId < maxDocId; docId++) {
+            List<byte[]> points = getPointValues(docId, fieldName);
+            if (points != null && !points.isEmpty()) {
+                bySlot[docId - minDocId] = points;
+            }
+        }
+    }
+
     /**
      * Gets a field value by scanning the terms index. Very slow for fields with many unique values,
      * but viable for boolean fields (only 2 possible terms: T/F).
@@ -105,14 +138,24 @@ public interface LuceneLeafReader {
      * cursors in a single pass, producing position-ordered {@link TermEntry} lists
      * without any disk spill.
      *
-     * <p>The returned cursor caches one PostingsEnum per term and one decoded term
-     * string per term — implementations should bound memory by the field's term count
+     * <p>The returned cursor caches one PostingsEnum and the bytes of one term per term
+     * — implementations should bound memory by the field's term count
      * (not its posting count). Callers own the lifecycle and must close.
      */
     default StreamingFieldPostings openStreamingFieldPostings(String fieldName) throws IOException {
         return null;
     }
 
+    /**
+     * Same as {@link #openStreamingFieldPostings(String)}, drawing the cursor's arrays and
+     * reusable postings enums from {@code pool} so that they are recycled across fields and
+     * segments.
+     */
+    default StreamingFieldPostings openStreamingFieldPostings(String fieldName, StreamingPostingsPool pool)
+            throws IOException {
+        return openStreamingFieldPostings(fieldName);
+    }
+
     /**
      * Opens a forward-only streaming cursor over the (segment, field) postings that yields
      * the per-doc multiset of indexed terms (each term repeated by its per-doc frequency)
@@ -123,13 +166,19 @@ public interface LuceneLeafReader {
      * is an array of duplicates that SORTED_SET doc_values cannot reproduce.
      *
      * <p>Implementations bound memory by the field's unique-term count: one PostingsEnum +
-     * one term String per term lives in the heap. Per-segment cost stays O(uniqueTerms)
+     * one term's bytes per term lives in the heap. Per-segment cost stays O(uniqueTerms)
      * instead of O(docs &times; tokensPerDoc) for the previous eager-map path.
      */
     default StreamingMultiTermPostings openStreamingMultiTermPostings(String fieldName) throws IOException {
         return null;
     }
 
+    /** Pooled counterpart of {@link #openStreamingMultiTermPostings(String)}. */
+    default StreamingMultiTermPostings openStreamingMultiTermPostings(String fieldName, StreamingPostingsPool pool)
+            throws IOException {
+        return openStreamingMultiTermPostings(fieldName);
+    }
+
     /**
      * Version-specific hook: walk the terms dictionary for a trie-encoded numeric field (ES 1.x /
      * Lucene 4-5: long, int, double, float, date, ip) and return a docId -> decoded Long map.
@@ -5,6 +5,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
@@ -27,8 +28,10 @@ public class LuceneReader {
         100, Integer.MAX_VALUE, "lucene-io", 60, true
     );
 
-    /** Per-segment read concurrency for the bounded-elastic flatMap. */
-    private static final int SEGMENT_READ_CONCURRENCY = 100;
+    /** The stored fields {@link #getDocument} looks at, without and with {@code _recovery_source}. */
+    private static final Set<String> STORED_SOURCE_FIELDS = Set.of("_id", "_uid", "_source", "_routing");
+    private static final Set<String> STORED_SOURCE_FIELDS_WITH_RECOVERY =
+        Set.of("_id", "_uid", "_source", "_routing", "_recovery_source");
 
     private LuceneReader() {}
 
@@ -64,9 +67,9 @@ public class LuceneReader {
     /* Start reading docs from a specific segment and document id.
        If the startSegmentIndex is 0, it will start from the first segment.
        If the startDocId is 0, it will start from the first document in the segment.
-       Segments are read sequentially; within each segment, docs are read with bounded
-       concurrency (matching the Lucene I/O scheduler thread count) via flatMapSequential
-       to keep the source feeding batches fast enough.
+       Segments are read sequentially; within each segment, stored-source docs are read in
+       contiguous chunks, several chunks at a time, via flatMapSequential to keep the source
+       feeding batches fast enough (see readStoredSourceChunks).
      */
     public static Flux<LuceneDocumentChange> readDocsByLeavesFromStartingPosition(LuceneDirectoryReader reader, int startDocId, FieldMappingContext mappingContext, boolean useRecoverySource) {
         log.atInfo().setMessage("{} documents in {} leaves found in the current Lucene index")
@@ -74,13 +77,16 @@ public class LuceneReader {
             .addArgument(() -> reader.leaves().size())
             .log();
 
+        // Segments are read one at a time, so their term indexes can share (and recycle) one pool.
+        var postingsPool = new StreamingPostingsPool();
         return getSegmentsFromStartingSegment(reader.leaves(), startDocId)
             .concatMapDelayError(c -> readDocsFromSegment(c,
                     startDocId,
                     reader.getIndexDirectoryPath(),
                     DocumentChangeType.INDEX,
                     mappingContext,
-                    useRecoverySource)
+                    useRecoverySource,
+                    postingsPool)
             )
             .subscribeOn(LUCENE_IO_SCHEDULER);
     }
@@ -135,7 +141,25 @@ public class LuceneReader {
     public static Flux<LuceneDocumentChange> readDocsFromSegment(ReaderAndBase readerAndBase, int docStartingId,
                                                 Path indexDirectoryPath, DocumentChangeType operation,
                                                 FieldMappingContext mappingContext, boolean useRecoverySource) {
-        var segmentReader = readerAndBase.getReader();
+        return readDocsFromSegment(readerAndBase, docStartingId, indexDirectoryPath, operation, mappingContext,
+            useRecoverySource, new StreamingPostingsPool());
+    }
+
+    /**
+     * Same as above, with the segment's {@link SegmentTermIndex} drawing from {@code postingsPool}. The pool
+     * must not be shared with a segment that is read at the same time. The term index is opened on
+     * subscription and closed before the returned Flux terminates, so a segment read after this one (e.g.
+     * by {@code concatMap}) can take the pool over.
+     */
+    public static Flux<LuceneDocumentChange> readDocsFromSegment(ReaderAndBase readerAndBase, int docStartingId,
+                                                Path indexDirectoryPath, DocumentChangeType operation,
+                                                FieldMappingContext mappingContext, boolean useRecoverySource,
+                                                StreamingPostingsPool postingsPool) {
+        // Sourceless reconstruction walks docIds in ascending order (see innerConcurrency below), so
+        // doc_values and points can be decoded a window of docs at a time, column by column.
+        var segmentReader = (mappingContext != null)
+            ? ColumnarPrefetchReader.wrap(readerAndBase.getReader(), RfsTunables.prefetchWindow())
+            : readerAndBase.getReader();
         var liveDocs = readerAndBase.getLiveDocs();
 
         int segmentDocBase = readerAndBase.getDocBaseInParent();
@@ -143,8 +167,6 @@ public class LuceneReader {
         // Start at
         int startDocIdInSegment = (docStartingId <= segmentDocBase) ? 0 : docStartingId - segmentDocBase;
 
-        final SegmentTermIndex termIndex = new SegmentTermIndex();
-
         // For any errors, we want to log the segment reader debug info so we can see which segment is causing the issue.
         // This allows us to pass the supplier to getDocument without having to recompute the debug info
         // every time if requested multiple times.
@@ -161,31 +183,99 @@ public class LuceneReader {
 
         var idxStream = (liveDocs != null) ? liveDocs.stream().filter(idx -> idx >= startDocIdInSegment) :
             IntStream.range(startDocIdInSegment, segmentReader.maxDoc());
+        if (mappingContext == null) {
+            return readStoredSourceChunks(idxStream, segmentReader, segmentDocBase, getSegmentReaderDebugInfo,
+                indexDirectoryPath, operation, useRecoverySource);
+        }
         // When sourceless reconstruction is active (mappingContext != null), the per-segment
         // SegmentTermIndex holds forward-only streaming cursors that require monotonically
         // non-decreasing docIds. flatMapSequential preserves output ORDER but subscribes
         // inner publishers concurrently — concurrent advance from out-of-order docIds throws
         // IllegalStateException, which getDocument's catch (RuntimeException) swallows by
         // returning null, silently dropping documents. Serialize the inner pipeline when
-        // sourceless to honor the cursor's monotonic-docId contract. For stored-source
-        // (non-sourceless) reads the cursor is unused, so we keep the parallel fast path.
-        int innerConcurrency = (mappingContext != null) ? 1 : SEGMENT_READ_CONCURRENCY;
+        // sourceless to honor the cursor's monotonic-docId contract.
+        //
+        // Flux.using closes the term index before completion reaches the caller, which is what lets
+        // readDocsByLeavesFromStartingPosition hand its pool to the next segment (doFinally would run
+        // after concatMap had already subscribed to that segment).
+        return Flux.using(() -> new SegmentTermIndex(postingsPool),
+            termIndex -> Flux.fromStream(idxStream.boxed())
+                .flatMapSequential(docIdx -> Mono.defer(() -> {
+                        try {
+                            LuceneDocumentChange document = LuceneReader.getDocument(segmentReader, docIdx, true, segmentDocBase, getSegmentReaderDebugInfo, indexDirectoryPath, operation, mappingContext, termIndex, useRecoverySource);
+                            return Mono.justOrEmpty(document);
+                        } catch (Exception e) {
+                            return Mono.error(segmentReadError(e, docIdx, getSegmentReaderDebugInfo));
+                        }
+                    }).subscribeOn(LUCENE_IO_SCHEDULER), 1, 1),
+            SegmentTermIndex::close);
+    }
+
+    /**
+     * Stored-source read of a segment. Live docIds are cut into contiguous chunks of
+     * {@link RfsTunables#storedFieldsChunk()}; each chunk is read in ascending order through its own
+     * {@link StoredFieldsCursor}, so a worker decompresses a stored-fields block once for all of its
+     * docs in the chunk instead of once per doc, and only {@code _id}/{@code _uid}/{@code _source}/
+     * {@code _routing} (plus {@code _recovery_source} when enabled) are materialized. Up to
+     * {@link RfsTunables#storedFieldsStripes()} chunks run at once, and flatMapSequential puts their documents
+     * back in docId order.
+     * <p>
+     * A chunk is handed out in slices of about {@link RfsTunables#storedFieldsChunkBytes()} of source, and its
+     * next slice is only read once the previous one has been taken, so a chunk that is waiting for the ones
+     * before it holds one slice rather than all of its documents.
+     */
+    private static Flux<LuceneDocumentChange> readStoredSourceChunks(IntStream idxStream, LuceneLeafReader segmentReader,
+            int segmentDocBase, Supplier<String> getSegmentReaderDebugInfo, Path indexDirectoryPath,
+            DocumentChangeType operation, boolean useRecoverySource) {
+        var storedFields = useRecoverySource ? STORED_SOURCE_FIELDS_WITH_RECOVERY : STORED_SOURCE_FIELDS;
+        long maxSliceBytes = RfsTunables.storedFieldsChunkBytes();
         return Flux.fromStream(idxStream.boxed())
-            .flatMapSequential(docIdx -> Mono.defer(() -> {
-                    try {
-                        LuceneDocumentChange document = LuceneReader.getDocument(segmentReader, docIdx, true, segmentDocBase, getSegmentReaderDebugInfo, indexDirectoryPath, operation, mappingContext, termIndex, useRecoverySource);
-                        return Mono.justOrEmpty(document);
-                    } catch (Exception e) {
-                        log.atError().setMessage("Error reading document from reader {} with index: {}")
-                            .addArgument(getSegmentReaderDebugInfo)
-                            .addArgument(docIdx)
-                            .setCause(e)
-                            .log();
-                        return Mono.error(new RuntimeException("Error reading document from reader with index " + docIdx
-                            + " from segment " + getSegmentReaderDebugInfo.get(), e));
-                    }
-                }).subscribeOn(LUCENE_IO_SCHEDULER), innerConcurrency, 1)
-            .doFinally(sig -> termIndex.close());
+            .buffer(RfsTunables.storedFieldsChunk())
+            .flatMapSequential(chunk -> Flux.<List<LuceneDocumentChange>, ChunkPosition>generate(
+                    () -> new ChunkPosition(segmentReader.openStoredFieldsCursor(storedFields)),
+                    (position, sink) -> {
+                        var changes = new ArrayList<LuceneDocumentChange>();
+                        long sliceBytes = 0;
+                        while (position.next < chunk.size() && sliceBytes < maxSliceBytes) {
+                            int docIdx = chunk.get(position.next++);
+                            try {
+                                var change = getDocument(segmentReader, position.cursor, docIdx, true, segmentDocBase,
+                                    getSegmentReaderDebugInfo, indexDirectoryPath, operation, null, null, useRecoverySource);
+                                if (change != null) {
+                                    changes.add(change);
+                                    sliceBytes += change.source == null ? 0 : change.source.length;
+                                }
+                            } catch (Exception e) {
+                                throw segmentReadError(e, docIdx, getSegmentReaderDebugInfo);
+                            }
+                        }
+                        sink.next(changes);
+                        if (position.next == chunk.size()) {
+                            sink.complete();
+                        }
+                        return position;
+                    }).subscribeOn(LUCENE_IO_SCHEDULER), RfsTunables.storedFieldsStripes(), 1)
+            .flatMapIterable(changes -> changes, 1);
+    }
+
+    /** How far through its chunk a stored-source read has got. */
+    private static final class ChunkPosition {
+        final StoredFieldsCursor cursor;
+        int next;
+
+        ChunkPosition(StoredFieldsCursor cursor) {
+            this.cursor = cursor;
+        }
+    }
+
+    private static RuntimeException segmentReadError(Exception e, int docIdx, Supplier<String> getSegmentReaderDebugInfo) {
+        log.atError().setMessage("Error reading document from reader {} with index: {}")
+            .addArgument(getSegmentReaderDebugInfo)
+            .addArgument(docIdx)
+            .setCause(e)
+            .log();
+        return new RuntimeException("Error reading document from reader with index " + docIdx
+            + " from segment " + getSegmentReaderDebugInfo.get(), e);
     }
 
     /**
@@ -221,9 +311,22 @@ public class LuceneReader {
     public static LuceneDocumentChange getDocument(LuceneLeafReader reader, int luceneDocId, boolean isLive, int segmentDocBase,
             final Supplier<String> getSegmentReaderDebugInfo, Path indexDirectoryPath, DocumentChangeType operation,
             FieldMappingContext mappingContext, SegmentTermIndex termIndex, boolean useRecoverySource) {
+        return getDocument(reader, reader::document, luceneDocId, isLive, segmentDocBase, getSegmentReaderDebugInfo,
+            indexDirectoryPath, operation, mappingContext, termIndex, useRecoverySource);
+    }
+
+    /**
+     * Same as above, with the stored fields read through {@code storedFields} rather than
+     * {@link LuceneLeafReader#document(int)}. The cursor must return every stored field that
+     * {@code mappingContext} reconstruction needs, so a field-selecting cursor is only valid when it is null.
+     */
+    public static LuceneDocumentChange getDocument(LuceneLeafReader reader, StoredFieldsCursor storedFields,
+            int luceneDocId, boolean isLive, int segmentDocBase,
+            final Supplier<String> getSegmentReaderDebugInfo, Path indexDirectoryPath, DocumentChangeType operation,
+            FieldMappingContext mappingContext, SegmentTermIndex termIndex, boolean useRecoverySource) {
         LuceneDocument document;
         try {
-            document = reader.document(luceneDocId);
+            document = storedFields.document(luceneDocId);
         } catch (IOException e) {
             log.atError().setCause(e).setMessage("Failed to read document at Lucene index location {}")
                 .addArgument(luceneDocId).log();
@@ -332,9 +435,8 @@ public class LuceneReader {
                 openSearchDocId, getSegmentReaderDebugInfo, indexDirectoryPath, termIndex);
         }
         if (mappingContext != null) {
-            String merged = SourceReconstructor.mergeWithDocValues(
-                new String(sourceBytes, java.nio.charset.StandardCharsets.UTF_8), reader, luceneDocId, document, mappingContext, termIndex);
-            return merged.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            return SourceReconstructor.mergeWithDocValuesBytes(
+                sourceBytes, reader, luceneDocId, document, mappingContext, termIndex);
         }
         return sourceBytes;
     }
@@ -352,8 +454,8 @@ public class LuceneReader {
         }
         log.atDebug().setMessage("Document {} has no _source, attempting reconstruction from doc_values and stored fields")
             .addArgument(openSearchDocId).log();
-        String reconstructed = SourceReconstructor.reconstructSource(reader, luceneDocId, document, mappingContext, termIndex);
-        if (reconstructed == null || reconstructed.isEmpty()) {
+        byte[] reconstructed = SourceReconstructor.reconstructSourceBytes(reader, luceneDocId, document, mappingContext, termIndex);
+        if (reconstructed == null || reconstructed.length == 0) {
             log.atWarn().setMessage("Skipping document with index {} from segment {} from source {}, _source is missing and reconstruction failed.")
                 .addArgument(luceneDocId)
                 .addArgument(getSegmentReaderDebugInfo)
@@ -363,7 +465,7 @@ public class LuceneReader {
         }
         log.atDebug().setMessage("Successfully reconstructed _source for document {} from doc_values")
             .addArgument(openSearchDocId).log();
-        return reconstructed.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        return reconstructed;
     }
 
 }
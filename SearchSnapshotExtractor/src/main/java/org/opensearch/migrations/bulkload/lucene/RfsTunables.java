@@ -27,6 +27,115 @@ public final class RfsTunables {
     public static final String READER_PARALLELISM_PROP = "rfs.reader.parallelism";
     public static final String READER_PARALLELISM_ENV = "RFS_READER_PARALLELISM";
 
+    // --- Columnar prefetch window ---
+
+    /**
+     * Number of consecutive docIds that {@link ColumnarPrefetchReader} decodes per doc_values /
+     * points column at a time during sourceless reconstruction. Each field that reconstruction
+     * touches is read once per window into an array, so retained memory is bounded by
+     * {@code window × touched fields} values.
+     *
+     * <p>System property: {@code -Drfs.reconstruction.prefetch.window=<int>}
+     * <p>Env var fallback: {@code RFS_RECONSTRUCTION_PREFETCH_WINDOW}
+     * <p>Default: {@value #DEFAULT_PREFETCH_WINDOW}. {@code 0} disables the prefetch and reads
+     * every field for every document on demand.
+     */
+    public static final String PREFETCH_WINDOW_PROP = "rfs.reconstruction.prefetch.window";
+    public static final String PREFETCH_WINDOW_ENV = "RFS_RECONSTRUCTION_PREFETCH_WINDOW";
+    public static final int DEFAULT_PREFETCH_WINDOW = 256;
+
+    /** @return the configured prefetch window, {@link #DEFAULT_PREFETCH_WINDOW} when unset or unparseable. */
+    public static int prefetchWindow() {
+        String raw = System.getProperty(PREFETCH_WINDOW_PROP);
+        if (raw == null || raw.isBlank()) raw = System.getenv(PREFETCH_WINDOW_ENV);
+        if (raw == null || raw.isBlank()) return DEFAULT_PREFETCH_WINDOW;
+        try {
+            return Math.max(0, Integer.parseInt(raw.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PREFETCH_WINDOW;
+        }
+    }
+
+    // --- Stored-fields read chunk ---
+
+    /**
+     * Number of consecutive live docIds of a segment that one worker reads through a single
+     * {@link StoredFieldsCursor} when {@code _source} is stored. A chunk larger than a compressed
+     * stored-fields block (up to a few thousand small docs) lets each block be decompressed once.
+     * Memory is bounded by {@link #STORED_FIELDS_CHUNK_BYTES_PROP} rather than by this count.
+     *
+     * <p>System property: {@code -Drfs.reader.storedfields.chunk=<int>}
+     * <p>Env var fallback: {@code RFS_READER_STOREDFIELDS_CHUNK}
+     * <p>Default: {@value #DEFAULT_STORED_FIELDS_CHUNK}. {@code 1} reads every document with its own
+     * cursor, like the reader did before chunking.
+     */
+    public static final String STORED_FIELDS_CHUNK_PROP = "rfs.reader.storedfields.chunk";
+    public static final String STORED_FIELDS_CHUNK_ENV = "RFS_READER_STOREDFIELDS_CHUNK";
+    public static final int DEFAULT_STORED_FIELDS_CHUNK = 512;
+
+    /** @return the configured chunk size, {@link #DEFAULT_STORED_FIELDS_CHUNK} when unset or unparseable. */
+    public static int storedFieldsChunk() {
+        String raw = System.getProperty(STORED_FIELDS_CHUNK_PROP);
+        if (raw == null || raw.isBlank()) raw = System.getenv(STORED_FIELDS_CHUNK_ENV);
+        if (raw == null || raw.isBlank()) return DEFAULT_STORED_FIELDS_CHUNK;
+        try {
+            return Math.max(1, Integer.parseInt(raw.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_STORED_FIELDS_CHUNK;
+        }
+    }
+
+    /**
+     * Bytes of {@code _source} that a stored-fields chunk (see {@link #STORED_FIELDS_CHUNK_PROP}) reads before
+     * it waits for those documents to be taken downstream. Documents read ahead are held in memory, so they
+     * are bounded by about {@code (}{@link #storedFieldsStripes()}{@code  + 2) × chunk bytes}, plus one
+     * document per slice, however large the documents are.
+     *
+     * <p>System property: {@code -Drfs.reader.storedfields.chunk.bytes=<long>}
+     * <p>Env var fallback: {@code RFS_READER_STOREDFIELDS_CHUNK_BYTES}
+     * <p>Default: {@value #DEFAULT_STORED_FIELDS_CHUNK_BYTES} (4 MiB).
+     */
+    public static final String STORED_FIELDS_CHUNK_BYTES_PROP = "rfs.reader.storedfields.chunk.bytes";
+    public static final String STORED_FIELDS_CHUNK_BYTES_ENV = "RFS_READER_STOREDFIELDS_CHUNK_BYTES";
+    public static final long DEFAULT_STORED_FIELDS_CHUNK_BYTES = 4L * 1024 * 1024;
+
+    /** @return the configured chunk byte limit, {@link #DEFAULT_STORED_FIELDS_CHUNK_BYTES} when unset or unparseable. */
+    public static long storedFieldsChunkBytes() {
+        String raw = System.getProperty(STORED_FIELDS_CHUNK_BYTES_PROP);
+        if (raw == null || raw.isBlank()) raw = System.getenv(STORED_FIELDS_CHUNK_BYTES_ENV);
+        if (raw == null || raw.isBlank()) return DEFAULT_STORED_FIELDS_CHUNK_BYTES;
+        try {
+            return Math.max(1, Long.parseLong(raw.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_STORED_FIELDS_CHUNK_BYTES;
+        }
+    }
+
+    /**
+     * Number of stored-fields chunks (see {@link #STORED_FIELDS_CHUNK_PROP}) of one segment that are read
+     * at the same time, each by its own worker and {@link StoredFieldsCursor}. Reading a chunk is bound by
+     * decompression, so values past the core count mostly add documents held in memory.
+     *
+     * <p>System property: {@code -Drfs.reader.storedfields.stripes=<int>}
+     * <p>Env var fallback: {@code RFS_READER_STOREDFIELDS_STRIPES}
+     * <p>Default: availableProcessors (min 2).
+     */
+    public static final String STORED_FIELDS_STRIPES_PROP = "rfs.reader.storedfields.stripes";
+    public static final String STORED_FIELDS_STRIPES_ENV = "RFS_READER_STOREDFIELDS_STRIPES";
+
+    /** @return the configured stripe count, the processor-based default when unset or unparseable. */
+    public static int storedFieldsStripes() {
+        int defaultStripes = Math.max(2, Runtime.getRuntime().availableProcessors());
+        String raw = System.getProperty(STORED_FIELDS_STRIPES_PROP);
+        if (raw == null || raw.isBlank()) raw = System.getenv(STORED_FIELDS_STRIPES_ENV);
+        if (raw == null || raw.isBlank()) return defaultStripes;
+        try {
+            return Math.max(1, Integer.parseInt(raw.trim()));
+        } catch (NumberFormatException e) {
+            return defaultStripes;
+        }
+    }
+
     // --- Position-gap stopword filler ---
 
     /**
@@ -19,7 +19,7 @@ import lombok.extern.slf4j.Slf4j;
  * <ol>
  *   <li><b>{@link #streamingByField}</b>: fieldName &rarr; {@link StreamingFieldPostings}.
  *       Position-aware streaming cursor for analyzed-text fields. Holds one
- *       {@code PostingsEnum} + one term {@code String} per unique term in the field's
+ *       {@code PostingsEnum} + one term's UTF-8 bytes per unique term in the field's
  *       dictionary (heap is bounded by {@code uniqueTerms}, not by corpus size).</li>
  *
  *   <li><b>{@link #numericByField}</b>: fieldName &rarr; docId &rarr; decoded {@code Long}.
@@ -46,17 +46,22 @@ import lombok.extern.slf4j.Slf4j;
  *       {@link LuceneReader#readDocsFromSegment} per segment per worker, and flows down
  *       to {@link SourceReconstructor}. The Flux's {@code doFinally} hook
  *       {@code close()}s every {@code SegmentTermIndex} on success, error, or cancel.</li>
+ *   <li><b>Cross-segment recycling</b>: the cursors' arrays come from a
+ *       {@link StreamingPostingsPool} owned by the shard read, so the next segment reuses
+ *       them instead of reallocating. {@link #close()} returns them and drops the pool's
+ *       idle {@code PostingsEnum}s, which only Lucene's same-segment reuse can use.</li>
  *   <li><b>No JVM-wide retention</b>: nothing static, nothing in a thread-local. Every
- *       reference path roots to the segment-scoped Flux and dies with it.</li>
+ *       reference path roots to the shard-scoped Flux and dies with it.</li>
  * </ul>
  *
  * <h3>Thread-safety</h3>
  *
  * <p>Lucene {@code TermsEnum} / {@code PostingsEnum} instances are not safe for
- * concurrent access. All public methods are {@code synchronized} to serialize cursor
- * advance and lazy-build operations within a single {@code SegmentTermIndex}. With
- * {@code parallelism > 1}, each worker has its own instance, so contention on this
- * monitor is bounded to the per-worker pipeline.
+ * concurrent access, and neither is this class: an instance has a single owner at a
+ * time. {@link LuceneReader#readDocsFromSegment} runs the sourceless pipeline with an
+ * inner concurrency of 1, so calls are strictly sequential even when successive docs run
+ * on different scheduler threads (Reactor's hand-off between them provides the
+ * happens-before edge). Each worker has its own instance, so no lock is taken per call.
  */
 @Slf4j
 public class SegmentTermIndex implements AutoCloseable {
@@ -64,18 +69,30 @@ public class SegmentTermIndex implements AutoCloseable {
     private final Map<String, StreamingFieldPostings> streamingByField = new HashMap<>();
     private final Map<String, Map<Integer, Long>> numericByField = new HashMap<>();
     private final Map<String, StreamingMultiTermPostings> multiTermStreamingByField = new HashMap<>();
+    private final StreamingPostingsPool pool;
     private volatile boolean closed;
 
-    /** Creates an empty index; fields are populated lazily on first access. */
+    /** Creates an empty index with a private pool; fields are populated lazily on first access. */
     public SegmentTermIndex() {
-        // No eager work — all caches are demand-built.
+        this(new StreamingPostingsPool());
+    }
+
+    /**
+     * Creates an empty index whose cursors draw from {@code pool}, which must not be used
+     * by another {@code SegmentTermIndex} until this one is closed.
+     *
+     * @throws IllegalStateException if another index still holds {@code pool}
+     */
+    public SegmentTermIndex(StreamingPostingsPool pool) {
+        pool.claim();
+        this.pool = pool;
     }
 
     /**
      * Returns the position-ordered list of indexed terms for {@code docId} in
      * {@code fieldName}, building the per-field streaming cursor on first access.
      */
-    public synchronized List<String> getTermsForDocument(LuceneLeafReader reader, int docId, String fieldName)
+    public List<String> getTermsForDocument(LuceneLeafReader reader, int docId, String fieldName)
             throws IOException {
         List<TermEntry> entries = getTermEntriesForDocument(reader, docId, fieldName);
         List<String> strings = new ArrayList<>(entries.size());
@@ -88,14 +105,14 @@ public class SegmentTermIndex implements AutoCloseable {
      * including character start/end offsets when the field was indexed with
      * {@code index_options: offsets}. Opens a streaming cursor on first access.
      */
-    public synchronized List<TermEntry> getTermEntriesForDocument(
+    public List<TermEntry> getTermEntriesForDocument(
             LuceneLeafReader reader, int docId, String fieldName) throws IOException {
         if (closed) {
             throw new IOException("SegmentTermIndex has been closed");
         }
         StreamingFieldPostings cursor = streamingByField.get(fieldName);
         if (cursor == null && !streamingByField.containsKey(fieldName)) {
-            cursor = reader.openStreamingFieldPostings(fieldName);
+            cursor = reader.openStreamingFieldPostings(fieldName, pool);
             streamingByField.put(fieldName, cursor); // may be null — cached as negative answer
         }
         if (cursor != null) {
@@ -110,7 +127,7 @@ public class SegmentTermIndex implements AutoCloseable {
      * {@code null} if the field has no trie-encoded numeric terms or the doc was not
      * indexed with a value.
      */
-    public synchronized Long getNumericForDocument(LuceneLeafReader reader, int docId, String fieldName)
+    public Long getNumericForDocument(LuceneLeafReader reader, int docId, String fieldName)
             throws IOException {
         if (closed) {
             throw new IOException("SegmentTermIndex has been closed");
@@ -135,7 +152,7 @@ public class SegmentTermIndex implements AutoCloseable {
      * caller must access docs in ascending order — this matches the per-segment Flux
      * ordering. Regressions throw {@link IllegalStateException} from the cursor.
      */
-    public synchronized String getSingleTermForDocument(LuceneLeafReader reader, int docId, String fieldName)
+    public String getSingleTermForDocument(LuceneLeafReader reader, int docId, String fieldName)
             throws IOException {
         List<String> all = getMultiTermsForDocument(reader, docId, fieldName);
         return all.isEmpty() ? null : all.get(0);
@@ -152,18 +169,18 @@ public class SegmentTermIndex implements AutoCloseable {
      * consume the result as a multiset. The total count matches the original array
      * size, enabling exact-size distribution.
      *
-     * <p>Backed by {@link StreamingMultiTermPostings}: terms are decoded once at build
-     * time and reused via reference equality across docs and across the {@code freq}
+     * <p>Backed by {@link StreamingMultiTermPostings}: each term is decoded once, when it is
+     * first emitted, and reused via reference equality across docs and across the {@code freq}
      * repetitions per doc, so memory is bounded by unique-term count, not corpus size.
      */
-    public synchronized List<String> getMultiTermsForDocument(LuceneLeafReader reader, int docId, String fieldName)
+    public List<String> getMultiTermsForDocument(LuceneLeafReader reader, int docId, String fieldName)
             throws IOException {
         if (closed) {
             throw new IOException("SegmentTermIndex has been closed");
         }
         StreamingMultiTermPostings cursor = multiTermStreamingByField.get(fieldName);
         if (cursor == null && !multiTermStreamingByField.containsKey(fieldName)) {
-            cursor = reader.openStreamingMultiTermPostings(fieldName);
+            cursor = reader.openStreamingMultiTermPostings(fieldName, pool);
             multiTermStreamingByField.put(fieldName, cursor); // may be null — cached as negative answer
         }
         if (cursor == null) {
@@ -178,10 +195,11 @@ public class SegmentTermIndex implements AutoCloseable {
      * swallowed so one failing field doesn't leak the others.
      *
      * <p>After this returns, the maps hold no references and become eligible for GC
-     * along with the {@code SegmentTermIndex} once its caller releases it.
+     * along with the {@code SegmentTermIndex} once its caller releases it; the cursors'
+     * arrays are back in the pool for the next segment.
      */
     @Override
-    public synchronized void close() {
+    public void close() {
         if (closed) return;
         closed = true;
         for (Map.Entry<String, StreamingFieldPostings> e : streamingByField.entrySet()) {
@@ -206,5 +224,7 @@ public class SegmentTermIndex implements AutoCloseable {
         streamingByField.clear();
         numericByField.clear();
         multiTermStreamingByField.clear();
+        pool.releaseSegmentCursors();
+        pool.release();
     }
 }
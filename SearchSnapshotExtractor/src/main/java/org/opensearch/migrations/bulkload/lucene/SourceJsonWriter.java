@@ -0,0 +1,109 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializes reconstructed {@code _source} trees straight to UTF-8 JSON bytes.
+ * <p>
+ * Each thread keeps one {@link JsonGenerator} writing into a reusable {@link ByteArrayBuilder}, so
+ * reconstructing a document costs one right-sized {@code byte[]} copy instead of building a
+ * {@code String} with Jackson and then encoding it again with {@code getBytes(UTF_8)}.  The
+ * common value types that the reconstructor produces (maps, lists, strings, numbers, booleans)
+ * are written directly; anything else goes through the {@link ObjectMapper}, so the output is
+ * identical to {@code writeValueAsString}.
+ * <p>
+ * A writer whose buffer has grown past {@link #MAX_RETAINED_BUFFER_BYTES} for an unusually large
+ * document, or that failed part way through a document, is discarded rather than reused.
+ */
+final class SourceJsonWriter {
+    static final int INITIAL_BUFFER_BYTES = 8 * 1024;
+    static final int MAX_RETAINED_BUFFER_BYTES = 1024 * 1024;
+
+    private static final ThreadLocal<SourceJsonWriter> THREAD_WRITER = new ThreadLocal<>();
+
+    private final ObjectMapper mapper;
+    private final ByteArrayBuilder buffer;
+    private final JsonGenerator generator;
+
+    private SourceJsonWriter(ObjectMapper mapper) throws IOException {
+        this.mapper = mapper;
+        this.buffer = new ByteArrayBuilder(INITIAL_BUFFER_BYTES);
+        this.generator = mapper.getFactory().createGenerator(buffer);
+        // Every document is its own root value; don't separate consecutive documents with a space.
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /** Serialize {@code tree} as a standalone JSON document using the calling thread's writer. */
+    static byte[] toJsonBytes(ObjectMapper mapper, Map<String, Object> tree) throws IOException {
+        var writer = THREAD_WRITER.get();
+        if (writer == null || writer.mapper != mapper) {
+            writer = new SourceJsonWriter(mapper);
+        }
+        // Hold no reference while writing so that a failure leaves nothing half-written behind.
+        THREAD_WRITER.remove();
+        byte[] bytes = writer.write(tree);
+        if (bytes.length <= MAX_RETAINED_BUFFER_BYTES) {
+            THREAD_WRITER.set(writer);
+        }
+        return bytes;
+    }
+
+    private byte[] write(Map<String, Object> tree) throws IOException {
+        try {
+            writeMap(tree);
+            generator.flush();
+            return buffer.toByteArray();
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    private void writeMap(Map<?, ?> map) throws IOException {
+        generator.writeStartObject();
+        for (var entry : map.entrySet()) {
+            generator.writeFieldName(String.valueOf(entry.getKey()));
+            writeValue(entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String s) {
+            generator.writeString(s);
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(map);
+        } else if (value instanceof List<?> list) {
+            generator.writeStartArray();
+            for (Object element : list) {
+                writeValue(element);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Boolean b) {
+            generator.writeBoolean(b);
+        } else if (value instanceof Long l) {
+            generator.writeNumber(l);
+        } else if (value instanceof Integer i) {
+            generator.writeNumber(i);
+        } else if (value instanceof Double d) {
+            generator.writeNumber(d);
+        } else if (value instanceof Float f) {
+            generator.writeNumber(f);
+        } else if (value instanceof BigInteger bi) {
+            generator.writeNumber(bi);
+        } else if (value instanceof BigDecimal bd) {
+            generator.writeNumber(bd);
+        } else {
+            mapper.writeValue(generator, value);
+        }
+    }
+}
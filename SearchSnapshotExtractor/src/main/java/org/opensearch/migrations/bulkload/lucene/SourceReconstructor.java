@@ -3,6 +3,7 @@ package org.opensearch.migrations.bulkload.lucene;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.Base64;
@@ -381,6 +382,16 @@ public class SourceReconstructor {
      */
     public static String reconstructSource(LuceneLeafReader reader, int docId, LuceneDocument document,
             FieldMappingContext mappingContext, SegmentTermIndex termIndex) {
+        return toStringOrNull(reconstructSourceBytes(reader, docId, document, mappingContext, termIndex));
+    }
+
+    /**
+     * Same as {@link #reconstructSource(LuceneLeafReader, int, LuceneDocument, FieldMappingContext, SegmentTermIndex)}
+     * but returns the UTF-8 JSON bytes directly (see {@link SourceJsonWriter}), which is what the
+     * document readers hand on to the bulk loader.
+     */
+    public static byte[] reconstructSourceBytes(LuceneLeafReader reader, int docId, LuceneDocument document,
+            FieldMappingContext mappingContext, SegmentTermIndex termIndex) {
         try {
             Map<String, Object> reconstructed = new LinkedHashMap<>();
             populateFromSegment(reconstructed, reader, docId, document, mappingContext, termIndex);
@@ -390,7 +401,7 @@ public class SourceReconstructor {
                 return null;
             }
 
-            return OBJECT_MAPPER.writeValueAsString(reconstructed);
+            return SourceJsonWriter.toJsonBytes(OBJECT_MAPPER, reconstructed);
         } catch (IOException e) {
             log.atWarn().setCause(e).setMessage("Failed to reconstruct source for document {}").addArgument(docId).log();
             return null;
@@ -410,6 +421,12 @@ public class SourceReconstructor {
      */
     public static String reconstructSourceFlat(LuceneLeafReader reader, int docId, LuceneDocument document,
             FieldMappingContext mappingContext) {
+        return toStringOrNull(reconstructSourceFlatBytes(reader, docId, document, mappingContext));
+    }
+
+    /** Byte-returning variant of {@link #reconstructSourceFlat}. */
+    public static byte[] reconstructSourceFlatBytes(LuceneLeafReader reader, int docId, LuceneDocument document,
+            FieldMappingContext mappingContext) {
         try {
             Map<String, Object> reconstructed = new LinkedHashMap<>();
             populateFromSegmentFlat(reconstructed, reader, docId, document, mappingContext);
@@ -419,13 +436,17 @@ public class SourceReconstructor {
                 return null;
             }
 
-            return OBJECT_MAPPER.writeValueAsString(reconstructed);
+            return SourceJsonWriter.toJsonBytes(OBJECT_MAPPER, reconstructed);
         } catch (IOException e) {
             log.atWarn().setCause(e).setMessage("Failed to reconstruct source for document {}").addArgument(docId).log();
             return null;
         }
     }
 
+    private static String toStringOrNull(byte[] json) {
+        return json != null ? new String(json, StandardCharsets.UTF_8) : null;
+    }
+
     /**
      * Merges reconstructed fields into existing source JSON. Used when the snapshot still
      * holds a (possibly partial) _source — e.g. _source.includes/_source.excludes indices.
@@ -467,13 +488,26 @@ public class SourceReconstructor {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /** {@link #mergeWithDocValuesBytes} over a {@code String}, returned as is when nothing was recovered. */
     public static String mergeWithDocValues(String existingSource, LuceneLeafReader reader, int docId,
             LuceneDocument document, FieldMappingContext mappingContext, SegmentTermIndex termIndex) {
+        var existingBytes = existingSource.getBytes(StandardCharsets.UTF_8);
+        var merged = mergeWithDocValuesBytes(existingBytes, reader, docId, document, mappingContext, termIndex);
+        return merged == existingBytes ? existingSource : new String(merged, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Byte-oriented variant of {@link #mergeWithDocValues(String, LuceneLeafReader, int, LuceneDocument,
+     * FieldMappingContext, SegmentTermIndex)}: parses the existing _source straight from its UTF-8 bytes and
+     * returns the same array, untouched, when nothing was recovered.
+     */
+    @SuppressWarnings("unchecked")
+    public static byte[] mergeWithDocValuesBytes(byte[] existingSource, LuceneLeafReader reader, int docId,
+            LuceneDocument document, FieldMappingContext mappingContext, SegmentTermIndex termIndex) {
         try {
             Map<String, Object> existing = OBJECT_MAPPER.readValue(existingSource, Map.class);
             boolean modified = populateFromSegment(existing, reader, docId, document, mappingContext, termIndex);
-            return modified ? OBJECT_MAPPER.writeValueAsString(existing) : existingSource;
+            return modified ? SourceJsonWriter.toJsonBytes(OBJECT_MAPPER, existing) : existingSource;
         } catch (IOException e) {
             log.atWarn().setCause(e).setMessage("Failed to merge fields for document {}").addArgument(docId).log();
             return existingSource;
@@ -0,0 +1,18 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+
+/**
+ * Reads a fixed set of stored fields for docIds visited in ascending order.
+ * <p>
+ * Opened by {@link LuceneLeafReader#openStoredFieldsCursor}. A cursor is owned by one thread at a time
+ * and is cheapest when consecutive calls land in the same compressed stored-fields block, which is
+ * why {@link LuceneReader#readDocsFromSegment} hands each cursor a contiguous run of docIds rather
+ * than round-robin interleaving them across workers. Visiting docIds out of order is still correct,
+ * just slower.
+ */
+@FunctionalInterface
+public interface StoredFieldsCursor {
+    /** Returns a document holding only the selected stored fields that {@code luceneDocId} has. */
+    LuceneDocument document(int luceneDocId) throws IOException;
+}
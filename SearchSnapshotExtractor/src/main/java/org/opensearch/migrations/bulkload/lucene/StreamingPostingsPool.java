@@ -0,0 +1,186 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Recycles the working memory of streaming postings heaps across fields and segments.
+ *
+ * <p>Every {@link AbstractStreamingPostingsHeap} needs a handful of arrays sized by the
+ * field's unique-term count (term bytes, term offsets, slot docIds, slot cursors, the heap
+ * itself) plus per-doc scratch buffers. On high-cardinality fields these are large, and
+ * before pooling they were reallocated for every field of every segment. A pool hands
+ * back the smallest idle array that fits, and {@link AbstractStreamingPostingsHeap#close()}
+ * returns them once the heap is done.
+ *
+ * <p>Exhausted {@link GenericStreamingFieldPostings.PostingsCursor}s are also kept so the
+ * version-specific readers can pass their {@code PostingsEnum} back to Lucene as the
+ * {@code reuse} argument of {@code TermsEnum.postings}. Lucene only honours {@code reuse}
+ * for enums from the same segment, so {@link #releaseSegmentCursors()} drops idle cursors
+ * when a segment finishes rather than pinning the old segment's inputs.
+ *
+ * <h3>Ownership</h3>
+ *
+ * <p>Not thread-safe. One pool belongs to one shard read ({@link LuceneReader} creates it
+ * per {@code readDocsByLeavesFromStartingPosition} call) and is handed to each segment's
+ * {@link SegmentTermIndex} in turn; segments of a shard are read one after another, so
+ * there is never more than one user at a time. Each index {@linkplain #claim() claims} the
+ * pool when it is created and releases it when closed, which fails fast if two segments ever
+ * overlap and publishes the pool's state to the thread that reads the next segment. Nothing
+ * is static, and everything the pool holds is bounded by {@link #MAX_IDLE_ARRAYS_PER_KIND}
+ * arrays of at most {@link #MAX_POOLED_ARRAY_LENGTH} elements per kind, plus
+ * {@link #MAX_IDLE_CURSORS} cursors.
+ */
+public final class StreamingPostingsPool {
+    static final int MAX_IDLE_ARRAYS_PER_KIND = 8;
+    static final int MAX_POOLED_ARRAY_LENGTH = 1 << 22;
+    static final int MAX_IDLE_CURSORS = 4096;
+
+    private final Shelf<int[]> ints = new Shelf<>(int[]::new, a -> a.length);
+    private final Shelf<long[]> longs = new Shelf<>(long[]::new, a -> a.length);
+    private final Shelf<byte[]> bytes = new Shelf<>(byte[]::new, a -> a.length);
+    private final Shelf<String[]> strings = new Shelf<>(String[]::new, a -> a.length);
+    private final Shelf<GenericStreamingFieldPostings.PostingsCursor[]> cursorArrays =
+        new Shelf<>(GenericStreamingFieldPostings.PostingsCursor[]::new, a -> a.length);
+    private final ArrayDeque<GenericStreamingFieldPostings.PostingsCursor> idleCursors = new ArrayDeque<>();
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private long arraysAllocated;
+    private long arraysReused;
+
+    /** Taken by a {@link SegmentTermIndex} for as long as it may draw from the pool. */
+    void claim() {
+        if (!claimed.compareAndSet(false, true)) {
+            throw new IllegalStateException("StreamingPostingsPool is still in use by another segment");
+        }
+    }
+
+    void release() {
+        claimed.set(false);
+    }
+
+    int[] takeInts(int minLength) {
+        return ints.take(minLength);
+    }
+
+    long[] takeLongs(int minLength) {
+        return longs.take(minLength);
+    }
+
+    byte[] takeBytes(int minLength) {
+        return bytes.take(minLength);
+    }
+
+    /** Returned arrays are all-null; callers must null what they used before giving them back. */
+    String[] takeStrings(int minLength) {
+        return strings.take(minLength);
+    }
+
+    /** Returned arrays are all-null; callers must null what they used before giving them back. */
+    GenericStreamingFieldPostings.PostingsCursor[] takeCursors(int minLength) {
+        return cursorArrays.take(minLength);
+    }
+
+    void give(int[] array) {
+        ints.give(array);
+    }
+
+    void give(long[] array) {
+        longs.give(array);
+    }
+
+    void give(byte[] array) {
+        bytes.give(array);
+    }
+
+    void give(String[] array) {
+        strings.give(array);
+    }
+
+    void give(GenericStreamingFieldPostings.PostingsCursor[] array) {
+        cursorArrays.give(array);
+    }
+
+    /** Keeps an exhausted cursor so that its enum can be handed back to Lucene for reuse. */
+    void recycle(GenericStreamingFieldPostings.PostingsCursor cursor) {
+        if (cursor != null && idleCursors.size() < MAX_IDLE_CURSORS) {
+            idleCursors.push(cursor);
+        }
+    }
+
+    /**
+     * Returns an exhausted cursor from the current segment, or {@code null}. Version-specific
+     * readers ignore cursors that aren't their own adapter type.
+     */
+    public GenericStreamingFieldPostings.PostingsCursor pollIdleCursor() {
+        return idleCursors.poll();
+    }
+
+    /** Drops the idle cursors, which reference the inputs of a segment that is now done. */
+    void releaseSegmentCursors() {
+        idleCursors.clear();
+    }
+
+    long arraysAllocated() {
+        return arraysAllocated;
+    }
+
+    long arraysReused() {
+        return arraysReused;
+    }
+
+    /** Idle arrays of one element type; hands out the smallest one that's big enough. */
+    private final class Shelf<A> {
+        private final IntFunction<A> allocator;
+        private final ToIntFunction<A> length;
+        private final ArrayList<A> idle = new ArrayList<>(MAX_IDLE_ARRAYS_PER_KIND);
+
+        Shelf(IntFunction<A> allocator, ToIntFunction<A> length) {
+            this.allocator = allocator;
+            this.length = length;
+        }
+
+        A take(int minLength) {
+            int best = -1;
+            for (int i = 0; i < idle.size(); i++) {
+                int len = length.applyAsInt(idle.get(i));
+                if (len >= minLength && (best < 0 || len < length.applyAsInt(idle.get(best)))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                arraysAllocated++;
+                return allocator.apply(minLength);
+            }
+            arraysReused++;
+            A array = idle.get(best);
+            idle.set(best, idle.get(idle.size() - 1));
+            idle.remove(idle.size() - 1);
+            return array;
+        }
+
+        void give(A array) {
+            if (array == null || length.applyAsInt(array) > MAX_POOLED_ARRAY_LENGTH) {
+                return;
+            }
+            if (idle.size() < MAX_IDLE_ARRAYS_PER_KIND) {
+                idle.add(array);
+                return;
+            }
+            // Full: keep the larger arrays, which are the expensive ones to reallocate.
+            int smallest = 0;
+            for (int i = 1; i < idle.size(); i++) {
+                if (length.applyAsInt(idle.get(i)) < length.applyAsInt(idle.get(smallest))) {
+                    smallest = i;
+                }
+            }
+            if (length.applyAsInt(idle.get(smallest)) < length.applyAsInt(array)) {
+                idle.set(smallest, array);
+            }
+        }
+    }
+}
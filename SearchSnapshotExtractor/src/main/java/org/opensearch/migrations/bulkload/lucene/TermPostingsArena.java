@@ -0,0 +1,141 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.util.Arrays;
+
+/**
+ * Build-time input for the streaming postings heaps: one slot per term holding the term's
+ * UTF-8 bytes, its pre-advanced {@link GenericStreamingFieldPostings.PostingsCursor}, and the
+ * cursor's first docId.
+ *
+ * <p>Term bytes are copied from the {@code TermsEnum}'s {@code BytesRef} into one shared
+ * {@code byte[]} (slot {@code i} is {@code termBytes[termStart[i] .. termStart[i + 1])}) instead
+ * of being decoded to a {@code String} per term up-front. The heap decodes a term the first
+ * time it emits it and caches that {@code String} until the term's postings are exhausted,
+ * so terms that are never emitted (docs skipped on resume) never become Strings, and each
+ * emitted one is only live while its postings are.
+ *
+ * <p>All arrays come from the {@link StreamingPostingsPool} and are handed over to the heap
+ * built from this arena; call {@link #discard()} instead if no heap is built.
+ */
+public final class TermPostingsArena {
+    private static final int MIN_CAPACITY = 16;
+    private static final int AVERAGE_TERM_BYTES = 8;
+
+    final StreamingPostingsPool pool;
+    byte[] termBytes;
+    int[] termStart;
+    GenericStreamingFieldPostings.PostingsCursor[] cursors;
+    int[] firstDocs;
+    String[] decoded;
+    int size;
+    private int bytesUsed;
+
+    /**
+     * @param pool          source of the slot arrays
+     * @param termCountHint the dictionary size when known (Lucene's {@code Terms.size()}), or
+     *                      {@code -1}
+     */
+    public TermPostingsArena(StreamingPostingsPool pool, long termCountHint) {
+        this.pool = pool;
+        int capacity = (int) Math.max(MIN_CAPACITY, Math.min(termCountHint, 1 << 20));
+        this.termBytes = pool.takeBytes(capacity * AVERAGE_TERM_BYTES);
+        this.termStart = pool.takeInts(capacity + 1);
+        this.cursors = pool.takeCursors(capacity);
+        this.firstDocs = pool.takeInts(capacity);
+        this.decoded = pool.takeStrings(capacity);
+    }
+
+    /**
+     * Appends a term whose cursor is already positioned on {@code firstDoc}. The bytes are
+     * copied, so the caller may pass the {@code TermsEnum}'s reused {@code BytesRef} buffer.
+     */
+    public void add(byte[] bytes, int offset, int length,
+                    GenericStreamingFieldPostings.PostingsCursor cursor, int firstDoc) {
+        ensureSlot();
+        if (bytesUsed + length > termBytes.length) {
+            termBytes = grow(termBytes, Math.max(bytesUsed + length, termBytes.length << 1));
+        }
+        System.arraycopy(bytes, offset, termBytes, bytesUsed, length);
+        termStart[size] = bytesUsed;
+        bytesUsed += length;
+        cursors[size] = cursor;
+        firstDocs[size] = firstDoc;
+        size++;
+        termStart[size] = bytesUsed;
+    }
+
+    /** Appends an already-decoded term; used by the {@code TermPostings} list builders. */
+    void add(String term, GenericStreamingFieldPostings.PostingsCursor cursor, int firstDoc) {
+        ensureSlot();
+        termStart[size] = bytesUsed;
+        cursors[size] = cursor;
+        firstDocs[size] = firstDoc;
+        decoded[size] = term;
+        size++;
+        termStart[size] = bytesUsed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Returns every array to the pool without building a heap. */
+    public void discard() {
+        Arrays.fill(cursors, 0, size, null);
+        Arrays.fill(decoded, 0, size, null);
+        pool.give(termBytes);
+        pool.give(termStart);
+        pool.give(cursors);
+        pool.give(firstDocs);
+        pool.give(decoded);
+        termBytes = null;
+        termStart = null;
+        cursors = null;
+        firstDocs = null;
+        decoded = null;
+        size = 0;
+    }
+
+    private void ensureSlot() {
+        // pooled arrays may be longer than requested, so each one is checked on its own
+        if (size + 1 < termStart.length && size < firstDocs.length && size < cursors.length
+                && size < decoded.length) {
+            return;
+        }
+        int newCapacity = Math.max(MIN_CAPACITY, size << 1);
+        if (termStart.length < newCapacity + 1) {
+            termStart = grow(termStart, newCapacity + 1);
+        }
+        if (firstDocs.length < newCapacity) {
+            firstDocs = grow(firstDocs, newCapacity);
+        }
+        if (cursors.length < newCapacity) {
+            var newCursors = pool.takeCursors(newCapacity);
+            System.arraycopy(cursors, 0, newCursors, 0, size);
+            Arrays.fill(cursors, 0, size, null);
+            pool.give(cursors);
+            cursors = newCursors;
+        }
+        if (decoded.length < newCapacity) {
+            var newDecoded = pool.takeStrings(newCapacity);
+            System.arraycopy(decoded, 0, newDecoded, 0, size);
+            Arrays.fill(decoded, 0, size, null);
+            pool.give(decoded);
+            decoded = newDecoded;
+        }
+    }
+
+    private byte[] grow(byte[] old, int minLength) {
+        var grown = pool.takeBytes(minLength);
+        System.arraycopy(old, 0, grown, 0, bytesUsed);
+        pool.give(old);
+        return grown;
+    }
+
+    private int[] grow(int[] old, int minLength) {
+        var grown = pool.takeInts(minLength);
+        System.arraycopy(old, 0, grown, 0, Math.min(old.length, size + 1));
+        pool.give(old);
+        return grown;
+    }
+}
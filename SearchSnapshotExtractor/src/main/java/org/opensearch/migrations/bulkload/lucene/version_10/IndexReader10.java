@@ -2,6 +2,7 @@ package org.opensearch.migrations.bulkload.lucene.version_10;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.Predicate;
 
 import org.opensearch.migrations.bulkload.lucene.LuceneDirectoryReader;
 import org.opensearch.migrations.bulkload.lucene.LuceneIndexReader;
@@ -9,6 +10,7 @@ import org.opensearch.migrations.bulkload.lucene.LuceneIndexReader;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import shadow.lucene10.org.apache.lucene.index.DirectoryReader;
+import shadow.lucene10.org.apache.lucene.index.SegmentInfos;
 import shadow.lucene10.org.apache.lucene.index.SoftDeletesDirectoryReaderWrapper;
 import shadow.lucene10.org.apache.lucene.store.Directory;
 import shadow.lucene10.org.apache.lucene.store.FSDirectory;
@@ -47,4 +49,22 @@ public class IndexReader10 implements LuceneIndexReader {
         }
         return new DirectoryReader10(reader, indexDirectoryPath);
     }
+
+    @Override
+    public String writeSegmentSubsetCommit(String segmentsFileName, Predicate<String> keepSegment) throws IOException {
+        try (var directory = FSDirectory.open(indexDirectoryPath)) {
+            var infos = SegmentInfos.readCommit(directory, segmentsFileName, 0);
+            var subset = infos.clone();
+            subset.clear();
+            for (var segment : infos) {
+                if (keepSegment.test(segment.info.name)) {
+                    subset.add(segment);
+                }
+            }
+            LuceneIndexReader.deleteCommit(indexDirectoryPath, infos.getGeneration() + 1);
+            subset.changed();
+            subset.commit(directory);
+            return subset.getSegmentsFileName();
+        }
+    }
 }
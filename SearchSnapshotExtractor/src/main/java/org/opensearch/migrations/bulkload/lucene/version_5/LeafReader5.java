@@ -7,16 +7,23 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.opensearch.migrations.bulkload.lucene.BitSetConverter;
 import org.opensearch.migrations.bulkload.lucene.DocValueFieldInfo;
 import org.opensearch.migrations.bulkload.lucene.GenericStreamingFieldPostings;
 import org.opensearch.migrations.bulkload.lucene.GenericStreamingMultiTermPostings;
 import org.opensearch.migrations.bulkload.lucene.LuceneLeafReader;
+import org.opensearch.migrations.bulkload.lucene.StoredFieldsCursor;
+import org.opensearch.migrations.bulkload.lucene.StreamingPostingsPool;
+import org.opensearch.migrations.bulkload.lucene.TermPostingsArena;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import shadow.lucene5.org.apache.lucene.codecs.StoredFieldsReader;
+import shadow.lucene5.org.apache.lucene.document.DocumentStoredFieldVisitor;
 import shadow.lucene5.org.apache.lucene.index.BinaryDocValues;
+import shadow.lucene5.org.apache.lucene.index.CodecReader;
 import shadow.lucene5.org.apache.lucene.index.FieldInfo;
 import shadow.lucene5.org.apache.lucene.index.IndexOptions;
 import shadow.lucene5.org.apache.lucene.index.LeafReader;
@@ -83,6 +90,25 @@ public class LeafReader5 implements LuceneLeafReader {
         return new Document5(wrapped.document(luceneDocId));
     }
 
+    @Override
+    public StoredFieldsCursor openStoredFieldsCursor(Set<String> fieldNames) throws IOException {
+        var fieldInfos = wrapped.getFieldInfos();
+        int presentFields = (int) fieldNames.stream().filter(name -> fieldInfos.fieldInfo(name) != null).count();
+        // The merge instance keeps the last decompressed block, so ascending docIds decompress each block once.
+        StoredFieldsReader sequential = (wrapped instanceof CodecReader && ((CodecReader) wrapped).getFieldsReader() != null)
+            ? ((CodecReader) wrapped).getFieldsReader().getMergeInstance()
+            : null;
+        return luceneDocId -> {
+            var visitor = new SelectedFieldsVisitor(fieldNames, presentFields);
+            if (sequential != null) {
+                sequential.visitDocument(luceneDocId, visitor);
+            } else {
+                wrapped.document(luceneDocId, visitor);
+            }
+            return new Document5(visitor.getDocument());
+        };
+    }
+
     public int maxDoc() {
         return wrapped.maxDoc();
     }
@@ -334,6 +360,12 @@ public class LeafReader5 implements LuceneLeafReader {
     @Override
     public org.opensearch.migrations.bulkload.lucene.StreamingFieldPostings openStreamingFieldPostings(
             String fieldName) throws IOException {
+        return openStreamingFieldPostings(fieldName, new StreamingPostingsPool());
+    }
+
+    @Override
+    public org.opensearch.migrations.bulkload.lucene.StreamingFieldPostings openStreamingFieldPostings(
+            String fieldName, StreamingPostingsPool pool) throws IOException {
         Terms terms = wrapped.terms(fieldName);
         if (terms == null || !terms.hasPositions()) {
             return null;
@@ -343,47 +375,81 @@ public class LeafReader5 implements LuceneLeafReader {
             && fi.getIndexOptions().compareTo(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS) >= 0;
         int postingsFlags = fieldHasOffsets ? PostingsEnum.OFFSETS : PostingsEnum.POSITIONS;
 
-        ArrayList<GenericStreamingFieldPostings.TermPostings> built = new ArrayList<>();
-        TermsEnum te = terms.iterator();
-        BytesRef term;
-        while ((term = te.next()) != null) {
-            String termStr = term.utf8ToString();
-            PostingsEnum postings = te.postings(null, postingsFlags);
-            int firstDoc = postings.nextDoc();
-            if (firstDoc == PostingsEnum.NO_MORE_DOCS) continue;
-            built.add(new GenericStreamingFieldPostings.TermPostings(
-                termStr, LuceneStreamingAdapters.wrap(postings), firstDoc));
-        }
-        if (built.isEmpty()) return null;
-        return GenericStreamingFieldPostings.build(built, fieldHasOffsets);
+        TermPostingsArena built = buildTermPostings(terms, postingsFlags, pool);
+        return built == null ? null : GenericStreamingFieldPostings.build(built, fieldHasOffsets);
     }
 
     @Override
     public org.opensearch.migrations.bulkload.lucene.StreamingMultiTermPostings openStreamingMultiTermPostings(
             String fieldName) throws IOException {
+        return openStreamingMultiTermPostings(fieldName, new StreamingPostingsPool());
+    }
+
+    @Override
+    public org.opensearch.migrations.bulkload.lucene.StreamingMultiTermPostings openStreamingMultiTermPostings(
+            String fieldName, StreamingPostingsPool pool) throws IOException {
         Terms terms = wrapped.terms(fieldName);
         if (terms == null) {
             return null;
         }
-        // Eager-String dictionary: decode each term once at build time and cache it on
-        // the cursor. Per-doc emission reuses the cached reference (zero String alloc on
-        // repeats); on close() each cursor is nulled, releasing the entire dictionary.
-        ArrayList<GenericStreamingMultiTermPostings.TermPostings> built = new ArrayList<>();
+        TermPostingsArena built = buildTermPostings(terms, PostingsEnum.FREQS, pool);
+        return built == null ? null : GenericStreamingMultiTermPostings.build(built);
+    }
+
+    /**
+     * Walks the dictionary once, copying each term's bytes into the arena and opening its
+     * postings (reusing idle enums from the pool), or returns {@code null} if no term has docs.
+     */
+    private static TermPostingsArena buildTermPostings(Terms terms, int postingsFlags, StreamingPostingsPool pool)
+            throws IOException {
+        TermPostingsArena built = new TermPostingsArena(pool, terms.size());
         TermsEnum te = terms.iterator();
         BytesRef term;
         while ((term = te.next()) != null) {
-            String termStr = term.utf8ToString();
-            PostingsEnum postings = te.postings(null, PostingsEnum.FREQS);
+            GenericStreamingFieldPostings.PostingsCursor postings = LuceneStreamingAdapters.open(te, postingsFlags, pool);
             int firstDoc = postings.nextDoc();
-            if (firstDoc == PostingsEnum.NO_MORE_DOCS) continue;
-            built.add(new GenericStreamingMultiTermPostings.TermPostings(
-                termStr, LuceneStreamingAdapters.wrap(postings), firstDoc));
+            if (firstDoc == PostingsEnum.NO_MORE_DOCS) {
+                pool.recycle(postings);
+                continue;
+            }
+            built.add(term.bytes, term.offset, term.length, postings, firstDoc);
+        }
+        if (built.size() == 0) {
+            built.discard();
+            return null;
         }
-        if (built.isEmpty()) return null;
-        return GenericStreamingMultiTermPostings.build(built);
+        return built;
     }
 
     public String toString() {
         return wrapped.toString();
     }
+
+    /**
+     * Collects the selected fields and stops reading the document once each of the {@code presentFields}
+     * selected fields that exist in the segment has been seen. Selected fields are assumed single-valued,
+     * which holds for the metadata fields this is used for.
+     */
+    private static final class SelectedFieldsVisitor extends DocumentStoredFieldVisitor {
+        private final Set<String> fieldNames;
+        private int remaining;
+
+        SelectedFieldsVisitor(Set<String> fieldNames, int presentFields) {
+            super(fieldNames);
+            this.fieldNames = fieldNames;
+            this.remaining = presentFields;
+        }
+
+        @Override
+        public Status needsField(FieldInfo fieldInfo) {
+            if (remaining == 0) {
+                return Status.STOP;
+            }
+            if (fieldNames.contains(fieldInfo.name)) {
+                remaining--;
+                return Status.YES;
+            }
+            return Status.NO;
+        }
+    }
 }
@@ -3,8 +3,10 @@ package org.opensearch.migrations.bulkload.lucene.version_5;
 import java.io.IOException;
 
 import org.opensearch.migrations.bulkload.lucene.GenericStreamingFieldPostings;
+import org.opensearch.migrations.bulkload.lucene.StreamingPostingsPool;
 
 import shadow.lucene5.org.apache.lucene.index.PostingsEnum;
+import shadow.lucene5.org.apache.lucene.index.TermsEnum;
 
 /**
  * Bridges Lucene-5's shadowed {@link PostingsEnum} to the version-independent
@@ -15,14 +17,27 @@ final class LuceneStreamingAdapters {
 
     private LuceneStreamingAdapters() {}
 
-    static GenericStreamingFieldPostings.PostingsCursor wrap(final PostingsEnum pe) {
-        return new GenericStreamingFieldPostings.PostingsCursor() {
-            @Override public int nextDoc() throws IOException { return pe.nextDoc(); }
-            @Override public int advance(int target) throws IOException { return pe.advance(target); }
-            @Override public int freq() throws IOException { return pe.freq(); }
-            @Override public int nextPosition() throws IOException { return pe.nextPosition(); }
-            @Override public int startOffset() throws IOException { return pe.startOffset(); }
-            @Override public int endOffset() throws IOException { return pe.endOffset(); }
-        };
+    /**
+     * Opens the postings of {@code te}'s current term, handing an exhausted cursor from the
+     * pool back to Lucene as {@code reuse} when there is one.
+     */
+    static GenericStreamingFieldPostings.PostingsCursor open(TermsEnum te, int flags, StreamingPostingsPool pool)
+            throws IOException {
+        ReusablePostingsCursor cursor = pool.pollIdleCursor() instanceof ReusablePostingsCursor idle
+            ? idle
+            : new ReusablePostingsCursor();
+        cursor.pe = te.postings(cursor.pe, flags);
+        return cursor;
+    }
+
+    private static final class ReusablePostingsCursor implements GenericStreamingFieldPostings.PostingsCursor {
+        private PostingsEnum pe;
+
+        @Override public int nextDoc() throws IOException { return pe.nextDoc(); }
+        @Override public int advance(int target) throws IOException { return pe.advance(target); }
+        @Override public int freq() throws IOException { return pe.freq(); }
+        @Override public int nextPosition() throws IOException { return pe.nextPosition(); }
+        @Override public int startOffset() throws IOException { return pe.startOffset(); }
+        @Override public int endOffset() throws IOException { return pe.endOffset(); }
     }
 }
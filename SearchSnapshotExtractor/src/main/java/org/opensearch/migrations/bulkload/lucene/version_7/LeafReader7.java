@@ -7,15 +7,22 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.opensearch.migrations.bulkload.lucene.BitSetConverter;
 import org.opensearch.migrations.bulkload.lucene.DocValueFieldInfo;
 import org.opensearch.migrations.bulkload.lucene.GenericStreamingFieldPostings;
 import org.opensearch.migrations.bulkload.lucene.GenericStreamingMultiTermPostings;
 import org.opensearch.migrations.bulkload.lucene.LuceneLeafReader;
+import org.opensearch.migrations.bulkload.lucene.StoredFieldsCursor;
+import org.opensearch.migrations.bulkload.lucene.StreamingPostingsPool;
+import org.opensearch.migrations.bulkload.lucene.TermPostingsArena;
 
 import lombok.Getter;
+import shadow.lucene7.org.apache.lucene.codecs.StoredFieldsReader;
+import shadow.lucene7.org.apache.lucene.document.DocumentStoredFieldVisitor;
 import shadow.lucene7.org.apache.lucene.index.BinaryDocValues;
+import shadow.lucene7.org.apache.lucene.index.CodecReader;
 import shadow.lucene7.org.apache.lucene.index.FieldInfo;
 import shadow.lucene7.org.apache.lucene.index.FilterCodecReader;
 import shadow.lucene7.org.apache.lucene.index.IndexOptions;
@@ -87,6 +94,25 @@ public class LeafReader7 implements LuceneLeafReader {
         return new Document7(wrapped.document(luceneDocId));
     }
 
+    @Override
+    public StoredFieldsCursor openStoredFieldsCursor(Set<String> fieldNames) throws IOException {
+        var fieldInfos = wrapped.getFieldInfos();
+        int presentFields = (int) fieldNames.stream().filter(name -> fieldInfos.fieldInfo(name) != null).count();
+        // The merge instance keeps the last decompressed block, so ascending docIds decompress each block once.
+        StoredFieldsReader sequential = (wrapped instanceof CodecReader && ((CodecReader) wrapped).getFieldsReader() != null)
+            ? ((CodecReader) wrapped).getFieldsReader().getMergeInstance()
+            : null;
+        return luceneDocId -> {
+            var visitor = new SelectedFieldsVisitor(fieldNames, presentFields);
+            if (sequential != null) {
+                sequential.visitDocument(luceneDocId, visitor);
+            } else {
+                wrapped.document(luceneDocId, visitor);
+            }
+            return new Document7(visitor.getDocument());
+        };
+    }
+
     public int maxDoc() {
         return wrapped.maxDoc();
     }
@@ -318,6 +344,39 @@ public class LeafReader7 implements LuceneLeafReader {
         return result.isEmpty() ? null : result;
     }
 
+    /** Collects the whole docId range with one BKD {@code intersect} instead of one per document. */
+    @Override
+    public void collectPointValuesForDocRange(String fieldName, int minDocId, int maxDocId,
+            List<byte[]>[] bySlot) throws IOException {
+        PointValues pointValues = wrapped.getPointValues(fieldName);
+        if (pointValues == null) {
+            return;
+        }
+
+        PointValues.IntersectVisitor visitor = new PointValues.IntersectVisitor() {
+            @Override
+            public void visit(int visitDocId) {
+            }
+
+            @Override
+            public void visit(int visitDocId, byte[] packedValue) {
+                if (visitDocId >= minDocId && visitDocId < maxDocId) {
+                    int slot = visitDocId - minDocId;
+                    if (bySlot[slot] == null) {
+                        bySlot[slot] = new ArrayList<>();
+                    }
+                    bySlot[slot].add(packedValue.clone());
+                }
+            }
+
+            @Override
+            public PointValues.Relation compare(byte[] minPackedValue, byte[] maxPackedValue) {
+                return PointValues.Relation.CELL_CROSSES_QUERY;
+            }
+        };
+        pointValues.intersect(visitor);
+    }
+
     @Override
     public String getValueFromTerms(int docId, String fieldName) throws IOException {
         Terms terms = wrapped.terms(fieldName);
@@ -338,6 +397,12 @@ public class LeafReader7 implements LuceneLeafReader {
     @Override
     public org.opensearch.migrations.bulkload.lucene.StreamingFieldPostings openStreamingFieldPostings(
             String fieldName) throws IOException {
+        return openStreamingFieldPostings(fieldName, new StreamingPostingsPool());
+    }
+
+    @Override
+    public org.opensearch.migrations.bulkload.lucene.StreamingFieldPostings openStreamingFieldPostings(
+            String fieldName, StreamingPostingsPool pool) throws IOException {
         Terms terms = wrapped.terms(fieldName);
         if (terms == null || !terms.hasPositions()) {
             return null;
@@ -347,40 +412,77 @@ public class LeafReader7 implements LuceneLeafReader {
             && fi.getIndexOptions().compareTo(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS) >= 0;
         int postingsFlags = fieldHasOffsets ? PostingsEnum.OFFSETS : PostingsEnum.POSITIONS;
 
-        ArrayList<GenericStreamingFieldPostings.TermPostings> built = new ArrayList<>();
-        TermsEnum te = terms.iterator();
-        BytesRef term;
-        while ((term = te.next()) != null) {
-            String termStr = term.utf8ToString();
-            PostingsEnum postings = te.postings(null, postingsFlags);
-            int firstDoc = postings.nextDoc();
-            if (firstDoc == PostingsEnum.NO_MORE_DOCS) continue;
-            built.add(new GenericStreamingFieldPostings.TermPostings(
-                termStr, LuceneStreamingAdapters.wrap(postings), firstDoc));
-        }
-        if (built.isEmpty()) return null;
-        return GenericStreamingFieldPostings.build(built, fieldHasOffsets);
+        TermPostingsArena built = buildTermPostings(terms, postingsFlags, pool);
+        return built == null ? null : GenericStreamingFieldPostings.build(built, fieldHasOffsets);
     }
 
     @Override
     public org.opensearch.migrations.bulkload.lucene.StreamingMultiTermPostings openStreamingMultiTermPostings(
             String fieldName) throws IOException {
+        return openStreamingMultiTermPostings(fieldName, new StreamingPostingsPool());
+    }
+
+    @Override
+    public org.opensearch.migrations.bulkload.lucene.StreamingMultiTermPostings openStreamingMultiTermPostings(
+            String fieldName, StreamingPostingsPool pool) throws IOException {
         Terms terms = wrapped.terms(fieldName);
         if (terms == null) {
             return null;
         }
-        ArrayList<GenericStreamingMultiTermPostings.TermPostings> built = new ArrayList<>();
+        TermPostingsArena built = buildTermPostings(terms, PostingsEnum.FREQS, pool);
+        return built == null ? null : GenericStreamingMultiTermPostings.build(built);
+    }
+
+    /**
+     * Walks the dictionary once, copying each term's bytes into the arena and opening its
+     * postings (reusing idle enums from the pool), or returns {@code null} if no term has docs.
+     */
+    private static TermPostingsArena buildTermPostings(Terms terms, int postingsFlags, StreamingPostingsPool pool)
+            throws IOException {
+        TermPostingsArena built = new TermPostingsArena(pool, terms.size());
         TermsEnum te = terms.iterator();
         BytesRef term;
         while ((term = te.next()) != null) {
-            String termStr = term.utf8ToString();
-            PostingsEnum postings = te.postings(null, PostingsEnum.FREQS);
+            GenericStreamingFieldPostings.PostingsCursor postings = LuceneStreamingAdapters.open(te, postingsFlags, pool);
             int firstDoc = postings.nextDoc();
-            if (firstDoc == PostingsEnum.NO_MORE_DOCS) continue;
-            built.add(new GenericStreamingMultiTermPostings.TermPostings(
-                termStr, LuceneStreamingAdapters.wrap(postings), firstDoc));
+            if (firstDoc == PostingsEnum.NO_MORE_DOCS) {
+                pool.recycle(postings);
+                continue;
+            }
+            built.add(term.bytes, term.offset, term.length, postings, firstDoc);
+        }
+        if (built.size() == 0) {
+            built.discard();
+            return null;
+        }
+        return built;
+    }
+
+    /**
+     * Collects the selected fields and stops reading the document once each of the {@code presentFields}
+     * selected fields that exist in the segment has been seen. Selected fields are assumed single-valued,
+     * which holds for the metadata fields this is used for.
+     */
+    private static final class SelectedFieldsVisitor extends DocumentStoredFieldVisitor {
+        private final Set<String> fieldNames;
+        private int remaining;
+
+        SelectedFieldsVisitor(Set<String> fieldNames, int presentFields) {
+            super(fieldNames);
+            this.fieldNames = fieldNames;
+            this.remaining = presentFields;
+        }
+
+        @Override
+        public Status needsField(FieldInfo fieldInfo) {
+            if (remaining == 0) {
+                return Status.STOP;
+            }
+            if (fieldNames.contains(fieldInfo.name)) {
+                remaining--;
+                return Status.YES;
+            }
+            return Status.NO;
         }
-        if (built.isEmpty()) return null;
-        return GenericStreamingMultiTermPostings.build(built);
     }
 }
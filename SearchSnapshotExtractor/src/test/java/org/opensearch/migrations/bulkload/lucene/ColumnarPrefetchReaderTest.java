@@ -0,0 +1,255 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link ColumnarPrefetchReader}: values read through the window match the
+ * wrapped reader, each touched column is decoded once per window through a forward-only view,
+ * and out-of-order reads fall back to the wrapped reader.
+ */
+class ColumnarPrefetchReaderTest {
+
+    private static final DocValueFieldInfo COUNT =
+        new DocValueFieldInfo.Simple("count", DocValueFieldInfo.DocValueType.NUMERIC, false);
+    private static final DocValueFieldInfo TAG =
+        new DocValueFieldInfo.Simple("tag", DocValueFieldInfo.DocValueType.SORTED, false);
+    private static final DocValueFieldInfo UNUSED =
+        new DocValueFieldInfo.Simple("unused", DocValueFieldInfo.DocValueType.NUMERIC, false);
+
+    /** Shared call counters for a stub segment and all of its views. */
+    private static final class Counters {
+        final Map<String, Integer> docValueReads = new HashMap<>();
+        int pointRangeReads;
+        int pointDocReads;
+        int viewsOpened;
+        /** Makes every range point read throw, as a corrupt BKD tree would. */
+        boolean failRangeReads;
+    }
+
+    /**
+     * Every doc except multiples of 7 has {@code count = docId * 10}; odd docs have a tag; docs
+     * divisible by 3 have one point. Views opened with {@code initDocValueIterators} enforce the
+     * forward-only contract of cached iterators.
+     */
+    private static final class StubSegment implements LuceneLeafReader {
+        private final int maxDoc;
+        private final Counters counters;
+        private boolean forwardOnly;
+        /** When false, range point reads use the interface's per-document default. */
+        boolean overrideRangeRead = true;
+        private final Map<String, Integer> lastDocId = new HashMap<>();
+
+        StubSegment(int maxDoc, Counters counters) {
+            this.maxDoc = maxDoc;
+            this.counters = counters;
+        }
+
+        @Override
+        public Iterable<DocValueFieldInfo> getDocValueFields() {
+            return List.of(COUNT, TAG, UNUSED);
+        }
+
+        @Override
+        public void initDocValueIterators(Iterable<DocValueFieldInfo> fields) {
+            forwardOnly = true;
+        }
+
+        private void recordRead(int docId, String fieldName) {
+            counters.docValueReads.merge(fieldName, 1, Integer::sum);
+            Integer last = lastDocId.put(fieldName, docId);
+            if (forwardOnly && last != null && docId <= last) {
+                throw new IllegalStateException("cached iterator for " + fieldName + " moved backwards");
+            }
+        }
+
+        @Override
+        public Object getNumericValue(int docId, String fieldName) {
+            recordRead(docId, fieldName);
+            return docId % 7 == 0 ? null : (long) docId * 10;
+        }
+
+        @Override
+        public Object getSortedValue(int docId, String fieldName) {
+            recordRead(docId, fieldName);
+            return docId % 2 == 1 ? "tag-" + docId : null;
+        }
+
+        @Override
+        public List<byte[]> getPointValues(int docId, String fieldName) {
+            counters.pointDocReads++;
+            return docId % 3 == 0 ? List.of(new byte[] {(byte) docId}) : null;
+        }
+
+        @Override
+        public void collectPointValuesForDocRange(String fieldName, int minDocId, int maxDocId,
+                List<byte[]>[] bySlot) throws IOException {
+            if (!overrideRangeRead) {
+                LuceneLeafReader.super.collectPointValuesForDocRange(fieldName, minDocId, maxDocId, bySlot);
+                return;
+            }
+            counters.pointRangeReads++;
+            if (counters.failRangeReads) {
+                throw new IOException("checksum failed reading points of " + fieldName);
+            }
+            for (int docId = minDocId; docId < maxDocId; docId++) {
+                if (docId % 3 == 0) {
+                    bySlot[docId - minDocId] = List.of(new byte[] {(byte) docId});
+                }
+            }
+        }
+
+        @Override
+        public LuceneDocument document(int luceneDocId) {
+            return List::of;
+        }
+
+        @Override
+        public BitSetConverter.FixedLengthBitSet getLiveDocs() {
+            return null;
+        }
+
+        @Override
+        public int maxDoc() {
+            return maxDoc;
+        }
+
+        @Override
+        public String getContextString() {
+            return "stub";
+        }
+
+        @Override
+        public String getSegmentName() {
+            return "_stub";
+        }
+
+        @Override
+        public String getSegmentInfoString() {
+            return "stub segment";
+        }
+
+        @Override
+        public LuceneLeafReader newView() {
+            counters.viewsOpened++;
+            return new StubSegment(maxDoc, counters);
+        }
+    }
+
+    @Test
+    void valuesMatchTheWrappedReaderAcrossWindows() throws IOException {
+        var counters = new Counters();
+        var segment = new StubSegment(100, counters);
+        var reader = new ColumnarPrefetchReader(segment, 16);
+
+        for (int docId = 0; docId < 100; docId += 3) {
+            assertEquals(segment.getNumericValue(docId, "count"), reader.getDocValue(docId, COUNT));
+            assertEquals(segment.getSortedValue(docId, "tag"), reader.getDocValue(docId, TAG));
+        }
+        assertEquals(1, counters.viewsOpened);
+    }
+
+    @Test
+    void eachTouchedColumnIsDecodedOncePerWindow() throws IOException {
+        var counters = new Counters();
+        var reader = new ColumnarPrefetchReader(new StubSegment(64, counters), 16);
+
+        for (int docId = 0; docId < 64; docId++) {
+            reader.getDocValue(docId, COUNT);
+            reader.getDocValue(docId, TAG);
+            reader.getPointValues(docId, "location");
+        }
+
+        assertEquals(64, counters.docValueReads.get("count"));
+        assertEquals(64, counters.docValueReads.get("tag"));
+        assertNull(counters.docValueReads.get("unused"));
+        assertEquals(4, counters.pointRangeReads);
+        assertEquals(0, counters.pointDocReads);
+    }
+
+    @Test
+    void pointsComeFromTheRangeRead() throws IOException {
+        var reader = new ColumnarPrefetchReader(new StubSegment(40, new Counters()), 8);
+
+        assertArrayEquals(new byte[] {3}, reader.getPointValues(3, "location").get(0));
+        assertNull(reader.getPointValues(4, "location"));
+        assertArrayEquals(new byte[] {9}, reader.getPointValues(9, "location").get(0));
+        assertEquals(3, reader.getWindowStart());
+        assertEquals(11, reader.getWindowEnd());
+    }
+
+    @Test
+    void lastWindowIsClampedToMaxDoc() throws IOException {
+        var reader = new ColumnarPrefetchReader(new StubSegment(20, new Counters()), 16);
+
+        reader.getDocValue(0, COUNT);
+        assertEquals(160L, reader.getDocValue(16, COUNT));
+        assertEquals(16, reader.getWindowStart());
+        assertEquals(20, reader.getWindowEnd());
+    }
+
+    @Test
+    void readsBeforeTheWindowFallBackToTheWrappedReader() throws IOException {
+        var counters = new Counters();
+        var reader = new ColumnarPrefetchReader(new StubSegment(100, counters), 16);
+
+        assertEquals(500L, reader.getDocValue(50, COUNT));
+        assertEquals(100L, reader.getDocValue(10, COUNT));
+        assertArrayEquals(new byte[] {3}, reader.getPointValues(3, "location").get(0));
+        assertEquals(1, counters.pointDocReads);
+        assertEquals(510L, reader.getDocValue(51, COUNT));
+    }
+
+    @Test
+    void wrapIsANoOpWhenDisabled() {
+        var segment = new StubSegment(10, new Counters());
+        assertSame(segment, ColumnarPrefetchReader.wrap(segment, 0));
+        assertEquals(ColumnarPrefetchReader.class, ColumnarPrefetchReader.wrap(segment, 8).getClass());
+        assertThrows(IllegalArgumentException.class, () -> new ColumnarPrefetchReader(segment, 0));
+    }
+
+    @Test
+    void failedPointReadFallsBackToTheWrappedReader() throws IOException {
+        var counters = new Counters();
+        counters.failRangeReads = true;
+        var reader = new ColumnarPrefetchReader(new StubSegment(40, counters), 8);
+
+        assertArrayEquals(new byte[] {3}, reader.getPointValues(3, "location").get(0));
+        assertNull(reader.getPointValues(4, "location"));
+        assertEquals(60L, reader.getDocValue(6, COUNT));
+        assertEquals(1, counters.pointRangeReads);
+        assertEquals(2, counters.pointDocReads);
+        // doc_values are read per document too once the columns are off
+        assertEquals(1, counters.docValueReads.get("count"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void defaultRangeReadCollectsPerDocumentPoints() throws IOException {
+        var counters = new Counters();
+        var perDocOnly = new StubSegment(10, counters);
+        perDocOnly.overrideRangeRead = false;
+
+        List<byte[]>[] bySlot = new List[6];
+        perDocOnly.collectPointValuesForDocRange("location", 2, 8, bySlot);
+        var withPoints = new TreeSet<Integer>();
+        for (int slot = 0; slot < bySlot.length; slot++) {
+            if (bySlot[slot] != null) {
+                withPoints.add(slot + 2);
+            }
+        }
+        assertEquals(new TreeSet<>(List.of(3, 6)), withPoints);
+        assertEquals(6, counters.pointDocReads);
+    }
+}
@@ -0,0 +1,126 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.common.LuceneDocumentChange;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link LuceneReader} over stub segments: a shard's segments are read one after
+ * another, each handing the shared {@link StreamingPostingsPool} to the next only once its
+ * {@link SegmentTermIndex} is closed.
+ */
+class LuceneReaderTest {
+
+    private static final int DOCS_PER_SEGMENT = 50;
+
+    private record StubField(String name, String value) implements LuceneField {
+        @Override
+        public String asUid() {
+            return value;
+        }
+
+        @Override
+        public String stringValue() {
+            return value;
+        }
+
+        @Override
+        public byte[] utf8Value() {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String utf8ToStringValue() {
+            return value;
+        }
+    }
+
+    /** Every doc has an {@code _id} of {@code <segment>-<docId>} and a small {@code _source}. */
+    private record StubSegment(String name) implements LuceneLeafReader {
+        @Override
+        public LuceneDocument document(int luceneDocId) {
+            return () -> List.of(
+                new StubField("_id", name + "-" + luceneDocId),
+                new StubField("_source", "{\"title\":\"doc " + luceneDocId + "\"}"));
+        }
+
+        @Override
+        public BitSetConverter.FixedLengthBitSet getLiveDocs() {
+            return null;
+        }
+
+        @Override
+        public int maxDoc() {
+            return DOCS_PER_SEGMENT;
+        }
+
+        @Override
+        public String getContextString() {
+            return name;
+        }
+
+        @Override
+        public String getSegmentName() {
+            return name;
+        }
+
+        @Override
+        public String getSegmentInfoString() {
+            return name;
+        }
+
+        @Override
+        public LuceneLeafReader newView() {
+            return this;
+        }
+    }
+
+    private record StubDirectoryReader(List<StubSegment> segments) implements LuceneDirectoryReader {
+        @Override
+        public int maxDoc() {
+            return segments.size() * DOCS_PER_SEGMENT;
+        }
+
+        @Override
+        public List<? extends LuceneLeafReaderContext> leaves() {
+            return segments.stream().map(s -> (LuceneLeafReaderContext) () -> s).toList();
+        }
+
+        @Override
+        public Path getIndexDirectoryPath() {
+            return Path.of("stub");
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+
+    @Test
+    void sourcelessSegmentsHandThePostingsPoolOverOneAfterAnother() throws Exception {
+        var segments = List.of(new StubSegment("_0"), new StubSegment("_1"), new StubSegment("_2"),
+            new StubSegment("_3"));
+        var mappingContext = new FieldMappingContext(
+            new ObjectMapper().readTree("{\"properties\":{\"title\":{\"type\":\"keyword\"}}}"));
+
+        // A segment whose term index was created before the previous one closed fails to claim the
+        // pool, and concatMapDelayError would surface that as an error once every segment is read.
+        var changes = LuceneReader.readDocsByLeavesFromStartingPosition(
+                new StubDirectoryReader(segments), 0, mappingContext, false)
+            .collectList()
+            .block();
+
+        assertEquals(segments.size() * DOCS_PER_SEGMENT, changes.size());
+        assertEquals("_0-0", changes.get(0).getId());
+        assertEquals("_3-" + (DOCS_PER_SEGMENT - 1), changes.get(changes.size() - 1).getId());
+        assertEquals(changes.size(), changes.stream().map(LuceneDocumentChange::getId).distinct().count());
+    }
+}
@@ -9,8 +9,12 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 class RfsTunablesTest {
 
     @AfterEach
-    void clearStopwordProp() {
+    void clearTunableProps() {
         System.clearProperty(RfsTunables.POSITION_GAP_STOPWORD_PROP);
+        System.clearProperty(RfsTunables.PREFETCH_WINDOW_PROP);
+        System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP);
+        System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP);
+        System.clearProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP);
     }
 
     @Test
@@ -45,4 +49,72 @@ class RfsTunablesTest {
         System.setProperty(RfsTunables.POSITION_GAP_STOPWORD_PROP, "   ");
         assertNull(RfsTunables.positionGapStopword());
     }
+
+    @Test
+    void prefetchWindowPropAndEnvHaveExpectedNames() {
+        assertEquals("rfs.reconstruction.prefetch.window", RfsTunables.PREFETCH_WINDOW_PROP);
+        assertEquals("RFS_RECONSTRUCTION_PREFETCH_WINDOW", RfsTunables.PREFETCH_WINDOW_ENV);
+    }
+
+    @Test
+    void prefetchWindowDefaultsWhenUnsetOrUnparseable() {
+        assertEquals(RfsTunables.DEFAULT_PREFETCH_WINDOW, RfsTunables.prefetchWindow());
+        System.setProperty(RfsTunables.PREFETCH_WINDOW_PROP, "lots");
+        assertEquals(RfsTunables.DEFAULT_PREFETCH_WINDOW, RfsTunables.prefetchWindow());
+    }
+
+    @Test
+    void prefetchWindowReadsSystemPropertyAndClampsNegativeToZero() {
+        System.setProperty(RfsTunables.PREFETCH_WINDOW_PROP, " 64 ");
+        assertEquals(64, RfsTunables.prefetchWindow());
+        System.setProperty(RfsTunables.PREFETCH_WINDOW_PROP, "-5");
+        assertEquals(0, RfsTunables.prefetchWindow());
+    }
+
+    @Test
+    void storedFieldsChunkDefaultsWhenUnsetOrUnparseable() {
+        assertEquals(RfsTunables.DEFAULT_STORED_FIELDS_CHUNK, RfsTunables.storedFieldsChunk());
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, "big");
+        assertEquals(RfsTunables.DEFAULT_STORED_FIELDS_CHUNK, RfsTunables.storedFieldsChunk());
+    }
+
+    @Test
+    void storedFieldsChunkReadsSystemPropertyAndClampsToOne() {
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, " 64 ");
+        assertEquals(64, RfsTunables.storedFieldsChunk());
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, "0");
+        assertEquals(1, RfsTunables.storedFieldsChunk());
+    }
+
+    @Test
+    void storedFieldsChunkBytesDefaultsWhenUnsetOrUnparseable() {
+        assertEquals(RfsTunables.DEFAULT_STORED_FIELDS_CHUNK_BYTES, RfsTunables.storedFieldsChunkBytes());
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP, "4MB");
+        assertEquals(RfsTunables.DEFAULT_STORED_FIELDS_CHUNK_BYTES, RfsTunables.storedFieldsChunkBytes());
+    }
+
+    @Test
+    void storedFieldsChunkBytesReadsSystemPropertyAndClampsToOne() {
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP, " 65536 ");
+        assertEquals(65_536L, RfsTunables.storedFieldsChunkBytes());
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP, "-1");
+        assertEquals(1L, RfsTunables.storedFieldsChunkBytes());
+    }
+
+    @Test
+    void storedFieldsStripesDefaultsToTheProcessorCountWhenUnsetOrUnparseable() {
+        var expected = Math.max(2, Runtime.getRuntime().availableProcessors());
+        assertEquals(expected, RfsTunables.storedFieldsStripes());
+        System.setProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP, "many");
+        assertEquals(expected, RfsTunables.storedFieldsStripes());
+    }
+
+    @Test
+    void storedFieldsStripesReadsSystemPropertyAndClampsToOne() {
+        assertEquals("rfs.reader.storedfields.stripes", RfsTunables.STORED_FIELDS_STRIPES_PROP);
+        System.setProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP, " 3 ");
+        assertEquals(3, RfsTunables.storedFieldsStripes());
+        System.setProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP, "0");
+        assertEquals(1, RfsTunables.storedFieldsStripes());
+    }
 }
@@ -0,0 +1,80 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.common.ObjectMapperFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SourceJsonWriterTest {
+
+    private static final ObjectMapper MAPPER = ObjectMapperFactory.createDefaultMapper();
+
+    private static Map<String, Object> sampleTree() {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", "Seattle \"WA\" é中");
+        address.put("zip", 98101);
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("title", "hello\nworld");
+        tree.put("count", 42L);
+        tree.put("ratio", 0.25d);
+        tree.put("half", 1.5f);
+        tree.put("nan", Double.NaN);
+        tree.put("big", new BigInteger("18446744073709551615"));
+        tree.put("scaled", new BigDecimal("12.340"));
+        tree.put("flag", true);
+        tree.put("missing", null);
+        tree.put("short", (short) 7);
+        tree.put("tags", List.of("a", "b", 3, false));
+        tree.put("files", List.of(Map.of("name", "a.txt"), Map.of("name", "b.txt")));
+        tree.put("address", address);
+        tree.put("location", Map.of("lat", 47.6, "lon", -122.3));
+        tree.put("empty", Map.of());
+        tree.put("emptyList", List.of());
+        return tree;
+    }
+
+    @Test
+    void matchesObjectMapperOutput() throws Exception {
+        var tree = sampleTree();
+        var expected = MAPPER.writeValueAsString(tree);
+        assertEquals(expected, new String(SourceJsonWriter.toJsonBytes(MAPPER, tree), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void reusedWriterProducesIndependentDocuments() throws Exception {
+        var first = SourceJsonWriter.toJsonBytes(MAPPER, Map.of("a", 1));
+        var second = SourceJsonWriter.toJsonBytes(MAPPER, Map.of("b", "two"));
+        var third = SourceJsonWriter.toJsonBytes(MAPPER, sampleTree());
+        var fourth = SourceJsonWriter.toJsonBytes(MAPPER, Map.of("a", 1));
+
+        assertEquals("{\"a\":1}", new String(first, StandardCharsets.UTF_8));
+        assertEquals("{\"b\":\"two\"}", new String(second, StandardCharsets.UTF_8));
+        assertEquals(MAPPER.writeValueAsString(sampleTree()), new String(third, StandardCharsets.UTF_8));
+        assertEquals("{\"a\":1}", new String(fourth, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void documentsLargerThanTheRetainedBufferStillSerializeCompletely() throws Exception {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            values.add("value-" + i);
+        }
+        Map<String, Object> tree = Map.of("values", values);
+        var bytes = SourceJsonWriter.toJsonBytes(MAPPER, tree);
+        assertEquals(MAPPER.writeValueAsString(tree), new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(true, bytes.length > SourceJsonWriter.MAX_RETAINED_BUFFER_BYTES / 2);
+
+        assertEquals("{\"a\":1}", new String(SourceJsonWriter.toJsonBytes(MAPPER, Map.of("a", 1)),
+            StandardCharsets.UTF_8));
+    }
+}
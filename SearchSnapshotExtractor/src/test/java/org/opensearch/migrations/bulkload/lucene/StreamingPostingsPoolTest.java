@@ -0,0 +1,136 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.lucene.GenericStreamingFieldPostings.PostingsCursor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link StreamingPostingsPool} and {@link TermPostingsArena}: terms stored as
+ * arena bytes decode correctly (and once), heap arrays are recycled across the heaps of
+ * successive fields/segments, exhausted cursors are offered back for enum reuse only
+ * until the segment is released, and only one segment's term index holds the pool at a time.
+ */
+class StreamingPostingsPoolTest {
+
+    /** Single-position-per-doc cursor over a fixed doc list; position is always 0. */
+    private static final class DocsCursor implements PostingsCursor {
+        private final int[] docs;
+        private int idx = -1;
+
+        DocsCursor(int... docs) {
+            this.docs = docs;
+        }
+
+        @Override public int nextDoc() {
+            idx++;
+            return idx >= docs.length ? NO_MORE_DOCS : docs[idx];
+        }
+
+        @Override public int advance(int target) {
+            int doc;
+            do {
+                doc = nextDoc();
+            } while (doc < target);
+            return doc;
+        }
+
+        @Override public int freq() { return 1; }
+        @Override public int nextPosition() { return 0; }
+        @Override public int startOffset() { return TermEntry.NO_OFFSET; }
+        @Override public int endOffset() { return TermEntry.NO_OFFSET; }
+    }
+
+    private static void addTerm(TermPostingsArena arena, String term, PostingsCursor cursor) throws IOException {
+        // surround the term with junk so that offset/length handling is exercised like a BytesRef slice
+        byte[] bytes = ("<<" + term + ">>").getBytes(StandardCharsets.UTF_8);
+        arena.add(bytes, 2, bytes.length - 4, cursor, cursor.nextDoc());
+    }
+
+    private static GenericStreamingMultiTermPostings buildMultiTerm(StreamingPostingsPool pool, int termCount)
+            throws IOException {
+        var arena = new TermPostingsArena(pool, -1);
+        for (int t = 0; t < termCount; t++) {
+            addTerm(arena, "term-" + t, new DocsCursor(t % 10, 10 + t % 10));
+        }
+        return GenericStreamingMultiTermPostings.build(arena);
+    }
+
+    @Test
+    void arenaTermsDecodeFromTheirSliceAndAreReusedAcrossDocs() throws IOException {
+        var arena = new TermPostingsArena(new StreamingPostingsPool(), 2);
+        addTerm(arena, "café", new DocsCursor(0, 2));
+        addTerm(arena, "日本", new DocsCursor(1));
+        try (var postings = GenericStreamingMultiTermPostings.build(arena)) {
+            String first = postings.advance(0).get(0);
+            assertEquals("café", first);
+            assertEquals(List.of("日本"), postings.advance(1));
+            assertSame(first, postings.advance(2).get(0));
+        }
+    }
+
+    @Test
+    void arenaGrowsPastItsSizeHint() throws IOException {
+        var pool = new StreamingPostingsPool();
+        try (var postings = buildMultiTerm(pool, 5000)) {
+            assertEquals(500, postings.advance(3).size());
+            assertEquals(500, postings.advance(13).size());
+            assertTrue(postings.advance(19).contains("term-4999"));
+        }
+    }
+
+    @Test
+    void closedHeapsHandTheirArraysToTheNextHeap() throws IOException {
+        var pool = new StreamingPostingsPool();
+        buildMultiTerm(pool, 1000).close();
+        long allocatedByFirstSegment = pool.arraysAllocated();
+
+        for (int segment = 0; segment < 5; segment++) {
+            try (var postings = buildMultiTerm(pool, 1000)) {
+                assertEquals(100, postings.advance(7).size());
+            }
+            pool.releaseSegmentCursors();
+        }
+        assertEquals(allocatedByFirstSegment, pool.arraysAllocated());
+        assertTrue(pool.arraysReused() > 0);
+    }
+
+    @Test
+    void exhaustedCursorsAreOfferedForReuseUntilTheSegmentIsReleased() throws IOException {
+        var pool = new StreamingPostingsPool();
+        var shortLived = new DocsCursor(0);
+        var longLived = new DocsCursor(0, 5);
+        var arena = new TermPostingsArena(pool, 2);
+        addTerm(arena, "a", shortLived);
+        addTerm(arena, "b", longLived);
+        try (var postings = GenericStreamingMultiTermPostings.build(arena)) {
+            postings.advance(0);
+            assertSame(shortLived, pool.pollIdleCursor());
+            assertNull(pool.pollIdleCursor());
+
+            postings.advance(6);
+            pool.releaseSegmentCursors();
+            assertNull(pool.pollIdleCursor());
+        }
+    }
+
+    @Test
+    void onlyOneSegmentTermIndexHoldsThePoolAtATime() {
+        var pool = new StreamingPostingsPool();
+        var first = new SegmentTermIndex(pool);
+        assertThrows(IllegalStateException.class, () -> new SegmentTermIndex(pool));
+
+        first.close();
+        first.close();
+        new SegmentTermIndex(pool).close();
+    }
+}
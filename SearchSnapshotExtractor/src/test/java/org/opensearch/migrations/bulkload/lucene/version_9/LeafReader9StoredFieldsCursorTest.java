@@ -0,0 +1,141 @@
+package org.opensearch.migrations.bulkload.lucene.version_9;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.opensearch.migrations.bulkload.common.Uid;
+import org.opensearch.migrations.bulkload.lucene.LuceneField;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import shadow.lucene9.org.apache.lucene.analysis.core.KeywordAnalyzer;
+import shadow.lucene9.org.apache.lucene.document.Document;
+import shadow.lucene9.org.apache.lucene.document.StoredField;
+import shadow.lucene9.org.apache.lucene.index.DirectoryReader;
+import shadow.lucene9.org.apache.lucene.index.FieldInfo;
+import shadow.lucene9.org.apache.lucene.index.IndexWriter;
+import shadow.lucene9.org.apache.lucene.index.IndexWriterConfig;
+import shadow.lucene9.org.apache.lucene.store.FSDirectory;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeafReader9StoredFieldsCursorTest {
+    private static final Set<String> SELECTED = Set.of("_id", "_uid", "_source", "_routing");
+    private static final int DOCS = 300;
+
+    @TempDir
+    Path indexDir;
+
+    private static byte[] source(int docNum) {
+        return ("{\"n\":" + docNum + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** The UTF-8 form of {@link Uid}'s id encoding, which is what Elasticsearch stores in {@code _id}. */
+    private static BytesRef encodedId(String id) {
+        var utf8 = id.getBytes(StandardCharsets.UTF_8);
+        var encoded = new byte[utf8.length + 1];
+        encoded[0] = (byte) Uid.UTF8;
+        System.arraycopy(utf8, 0, encoded, 1, utf8.length);
+        return new BytesRef(encoded);
+    }
+
+    /**
+     * Writes one segment whose documents store unselected fields before, between and after the selected
+     * ones; every tenth document also has a routing.
+     */
+    private void writeSegment() throws IOException {
+        try (var directory = FSDirectory.open(indexDir);
+             var writer = new IndexWriter(directory, new IndexWriterConfig(new KeywordAnalyzer()))) {
+            for (int docNum = 0; docNum < DOCS; docNum++) {
+                var doc = new Document();
+                doc.add(new StoredField("_id", encodedId("doc-" + docNum)));
+                doc.add(new StoredField("title", "title " + docNum));
+                doc.add(new StoredField("_source", new BytesRef(source(docNum))));
+                if (docNum % 10 == 0) {
+                    doc.add(new StoredField("_routing", "r" + docNum));
+                }
+                doc.add(new StoredField("after", "after " + docNum));
+                doc.add(new StoredField("last", "last " + docNum));
+                writer.addDocument(doc);
+            }
+            writer.forceMerge(1);
+            writer.commit();
+        }
+    }
+
+    @Test
+    void cursorReturnsOnlyTheSelectedFieldsOfEachDocument() throws IOException {
+        writeSegment();
+        try (var directory = FSDirectory.open(indexDir);
+             var reader = DirectoryReader.open(directory)) {
+            assertEquals(1, reader.leaves().size());
+            var cursor = new LeafReader9(reader.leaves().get(0).reader()).openStoredFieldsCursor(SELECTED);
+
+            for (int docNum = 0; docNum < DOCS; docNum++) {
+                var fields = cursor.document(docNum).getFields();
+                var names = fields.stream().map(LuceneField::name).toList();
+                var expectedNames = docNum % 10 == 0
+                    ? List.of("_id", "_source", "_routing")
+                    : List.of("_id", "_source");
+                assertEquals(expectedNames, names, "doc " + docNum);
+                assertEquals("doc-" + docNum, fields.get(0).asUid());
+                assertArrayEquals(source(docNum), fields.get(1).utf8Value());
+                if (docNum % 10 == 0) {
+                    assertEquals("r" + docNum, fields.get(2).stringValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    void visitorStopsOnceEverySelectedFieldInTheSegmentHasBeenSeen() throws IOException {
+        writeSegment();
+        try (var directory = FSDirectory.open(indexDir);
+             var reader = DirectoryReader.open(directory)) {
+            var storedFields = reader.leaves().get(0).reader().storedFields();
+            var asked = new ArrayList<String>();
+            // _id, _source and _routing are in the segment; _uid isn't
+            var visitor = new LeafReader9.SelectedFieldsVisitor(SELECTED, 3) {
+                @Override
+                public Status needsField(FieldInfo fieldInfo) {
+                    var status = super.needsField(fieldInfo);
+                    asked.add(fieldInfo.name + ":" + status);
+                    return status;
+                }
+            };
+            storedFields.document(10, visitor);
+
+            assertEquals(List.of("_id:YES", "title:NO", "_source:YES", "_routing:YES", "after:STOP"), asked);
+            assertEquals(3, visitor.getDocument().getFields().size());
+        }
+    }
+
+    @Test
+    void visitorReadsToTheEndOfADocumentMissingASelectedField() throws IOException {
+        writeSegment();
+        try (var directory = FSDirectory.open(indexDir);
+             var reader = DirectoryReader.open(directory)) {
+            var storedFields = reader.leaves().get(0).reader().storedFields();
+            var asked = new ArrayList<String>();
+            var visitor = new LeafReader9.SelectedFieldsVisitor(SELECTED, 3) {
+                @Override
+                public Status needsField(FieldInfo fieldInfo) {
+                    var status = super.needsField(fieldInfo);
+                    asked.add(fieldInfo.name + ":" + status);
+                    return status;
+                }
+            };
+            // doc 11 has no _routing, so the visitor can't know it has seen everything until the end
+            storedFields.document(11, visitor);
+
+            assertEquals(List.of("_id:YES", "title:NO", "_source:YES", "after:NO", "last:NO"), asked);
+            assertEquals(2, visitor.getDocument().getFields().size());
+        }
+    }
+}
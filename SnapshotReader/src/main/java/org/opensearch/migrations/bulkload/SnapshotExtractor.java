@@ -1,12 +1,14 @@
 package org.opensearch.migrations.bulkload;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -182,6 +184,51 @@ public class SnapshotExtractor {
         return LuceneReader.streamDocumentChanges(indexReader, shard.metadata().getSegmentFileName(), startDocIdx, mappingContext, useRecoverySource);
     }
 
+    /**
+     * Reads documents from only the segments of a shard whose names pass {@code keepSegment}.  Only
+     * those segments' files are unpacked, along with the shard's segments file and every segment's
+     * {@code .si} file, and are read through a commit of just those segments written beside the
+     * snapshot's; {@code startDocIdx} counts documents across the selected segments.
+     *
+     * @param keepSegment segment names to read (e.g. {@code _4})
+     */
+    public Flux<LuceneDocumentChange> readSegmentRange(ShardEntry shard, Path workDir, int startDocIdx,
+                                                        FieldMappingContext mappingContext, boolean useRecoverySource,
+                                                        Predicate<String> keepSegment) {
+        var repoAccessor = new SourceRepoAccessor(sourceRepo);
+        var unpackerFactory = new SnapshotShardUnpacker.Factory(repoAccessor, workDir);
+        var readerFactory = new LuceneIndexReader.Factory(snapshotReader);
+
+        var filesToUnpack = shard.metadata().getFiles().stream()
+            .filter(file -> isNeededForSegments(file.getPhysicalName(), keepSegment))
+            .collect(Collectors.toCollection(HashSet::new));
+        var unpacker = unpackerFactory.create(filesToUnpack, shard.indexName(), shard.indexId(), shard.shardId());
+        unpacker.unpack();
+
+        Path shardPath = workDir.resolve(shard.indexName()).resolve(String.valueOf(shard.shardId()));
+        LuceneIndexReader indexReader = readerFactory.getReader(shardPath);
+        String rangeSegmentsFileName;
+        try {
+            rangeSegmentsFileName = indexReader.writeSegmentSubsetCommit(
+                shard.metadata().getSegmentFileName(), keepSegment);
+        } catch (IOException e) {
+            return Flux.error(new UncheckedIOException("Could not write a commit of the selected segments of shard "
+                + shard.shardId() + " of index " + shard.indexName(), e));
+        }
+        return LuceneReader.streamDocumentChanges(indexReader, rangeSegmentsFileName, startDocIdx, mappingContext,
+            useRecoverySource);
+    }
+
+    /**
+     * Whether a shard file is needed to open a commit of the segments passing {@code keepSegment}: their
+     * own files, plus the files that aren't per-segment (the {@code segments_N} commit point) and every
+     * segment's {@code .si}, which reading that commit point opens.
+     */
+    static boolean isNeededForSegments(String physicalName, Predicate<String> keepSegment) {
+        var segmentName = ShardMetadata.segmentNameOf(physicalName);
+        return segmentName == null || physicalName.endsWith(".si") || keepSegment.test(segmentName);
+    }
+
     /**
      * Reads delta documents between a previous and current shard. Returns deletions first,
      * then additions — matching the ordering used by {@code MigrationPipeline}.
@@ -0,0 +1,369 @@
+package org.opensearch.migrations.bulkload;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.opensearch.migrations.bulkload.models.ShardFileInfo;
+import org.opensearch.migrations.bulkload.models.ShardMetadata;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
+
+/**
+ * A compact binary copy of the shard metadata of one snapshot, written once while the shard work
+ * items are set up so that each worker can read just its own shard instead of loading the
+ * repository data, the index metadata and every {@code snap-*.dat} of the index (each one fetched,
+ * decompressed, checksummed and SMILE-decoded) through the version-specific factories.
+ *
+ * <h3>Layout</h3>
+ * All numbers are big-endian, strings are modified UTF-8 ({@link DataOutputStream#writeUTF}).
+ * <pre>
+ *   int    MAGIC, int FORMAT_VERSION, int headerLength
+ *   header:     snapshotName, int indexCount, per index { name, indexId, int shardCount }
+ *   directory:  one fixed-size entry per shard, indices in header order and shards in id order:
+ *               { long sliceOffset, int sliceLength, int sliceCrc32 }
+ *   slices:     one per shard (see {@link #writeSlice})
+ * </pre>
+ * The directory entry of shard {@code s} of the {@code i}th index is at
+ * {@code 12 + headerLength + (shardsBefore(i) + s) * 16}, so opening the manifest reads only the
+ * header, and a shard lookup reads one directory entry and one slice.
+ *
+ * <p>The segment a file belongs to isn't stored: it is derived from the physical file name, as for
+ * metadata read from the repository ({@link ShardMetadata#getBytesBySegment()}).
+ */
+@Slf4j
+public class SnapshotManifest implements AutoCloseable {
+    static final int MAGIC = 0x5246534D; // "RFSM"
+    static final int FORMAT_VERSION = 1;
+    private static final int PREAMBLE_BYTES = 12;
+    private static final int DIRECTORY_ENTRY_BYTES = 16;
+
+    @Getter
+    private final String snapshotName;
+    private final FileChannel channel;
+    private final long directoryOffset;
+    /** Index name to its header entry, in manifest order. */
+    private final Map<String, IndexEntry> indices;
+
+    private record IndexEntry(String indexId, int shardCount, int firstOrdinal) {}
+
+    private SnapshotManifest(String snapshotName, FileChannel channel, long directoryOffset,
+                             Map<String, IndexEntry> indices) {
+        this.snapshotName = snapshotName;
+        this.channel = channel;
+        this.directoryOffset = directoryOffset;
+        this.indices = indices;
+    }
+
+    /**
+     * Writes the manifest for {@code shardsByIndex} (every shard of each index, in shard id order).
+     * The file is written next to {@code path} and moved into place, so readers never see a partial
+     * manifest.
+     */
+    public static void write(Path path, String snapshotName,
+                             Map<String, List<SnapshotExtractor.ShardEntry>> shardsByIndex) throws IOException {
+        var header = new ByteArrayOutputStream();
+        var headerOut = new DataOutputStream(header);
+        headerOut.writeUTF(snapshotName);
+        headerOut.writeInt(shardsByIndex.size());
+        int shardCount = 0;
+        for (var index : shardsByIndex.entrySet()) {
+            var shards = index.getValue();
+            for (int i = 0; i < shards.size(); i++) {
+                if (shards.get(i).shardId() != i) {
+                    throw new IllegalArgumentException("Shards of index " + index.getKey()
+                        + " must be complete and in shard id order");
+                }
+            }
+            headerOut.writeUTF(index.getKey());
+            headerOut.writeUTF(shards.isEmpty() ? "" : shards.get(0).indexId());
+            headerOut.writeInt(shards.size());
+            shardCount += shards.size();
+        }
+        headerOut.flush();
+
+        var slices = new ByteArrayOutputStream();
+        var slice = new ByteArrayOutputStream();
+        var sliceOut = new DataOutputStream(slice);
+        var directory = ByteBuffer.allocate(shardCount * DIRECTORY_ENTRY_BYTES);
+        long slicesStart = (long) PREAMBLE_BYTES + header.size() + directory.capacity();
+        var crc = new CRC32();
+        for (var shards : shardsByIndex.values()) {
+            for (var shard : shards) {
+                slice.reset();
+                writeSlice(sliceOut, shard.metadata());
+                sliceOut.flush();
+                var sliceBytes = slice.toByteArray();
+                crc.reset();
+                crc.update(sliceBytes);
+                directory.putLong(slicesStart + slices.size()).putInt(sliceBytes.length).putInt((int) crc.getValue());
+                slices.write(sliceBytes);
+            }
+        }
+
+        var tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (var out = new DataOutputStream(Files.newOutputStream(tmp))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(header.size());
+            header.writeTo(out);
+            out.write(directory.array());
+            slices.writeTo(out);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.atInfo().setMessage("Wrote snapshot manifest for {} ({} indices, {} shards, {} bytes) to {}")
+            .addArgument(snapshotName)
+            .addArgument(shardsByIndex.size())
+            .addArgument(shardCount)
+            .addArgument(() -> slicesStart + slices.size())
+            .addArgument(path)
+            .log();
+    }
+
+    /** Opens a manifest, reading only its header. */
+    public static SnapshotManifest open(Path path) throws IOException {
+        var channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            var preamble = readFully(channel, 0, PREAMBLE_BYTES);
+            if (preamble.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot manifest: " + path);
+            }
+            int formatVersion = preamble.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot manifest format " + formatVersion + " in " + path);
+            }
+            int headerLength = preamble.getInt();
+            var header = new DataInputStream(
+                new ByteArrayInputStream(readFully(channel, PREAMBLE_BYTES, headerLength).array()));
+            var snapshotName = header.readUTF();
+            int indexCount = header.readInt();
+            var indices = new LinkedHashMap<String, IndexEntry>();
+            int ordinal = 0;
+            for (int i = 0; i < indexCount; i++) {
+                var name = header.readUTF();
+                var indexId = header.readUTF();
+                int shardCount = header.readInt();
+                indices.put(name, new IndexEntry(indexId, shardCount, ordinal));
+                ordinal += shardCount;
+            }
+            return new SnapshotManifest(snapshotName, channel, PREAMBLE_BYTES + (long) headerLength,
+                Collections.unmodifiableMap(indices));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> listIndices() {
+        return List.copyOf(indices.keySet());
+    }
+
+    /** The number of shards of an index, or -1 if the index isn't in the manifest. */
+    public int shardCount(String indexName) {
+        var index = indices.get(indexName);
+        return index == null ? -1 : index.shardCount();
+    }
+
+    /** Every shard of an index, or an empty list if the index isn't in the manifest. */
+    public List<SnapshotExtractor.ShardEntry> listShards(String indexName) {
+        var index = indices.get(indexName);
+        if (index == null) {
+            return List.of();
+        }
+        var shards = new ArrayList<SnapshotExtractor.ShardEntry>(index.shardCount());
+        for (int shardId = 0; shardId < index.shardCount(); shardId++) {
+            shards.add(readShard(indexName, index, shardId));
+        }
+        return shards;
+    }
+
+    /** One shard of an index, read from its slice alone; null if it isn't in the manifest. */
+    public SnapshotExtractor.ShardEntry getShard(String indexName, int shardId) {
+        var index = indices.get(indexName);
+        if (index == null || shardId < 0 || shardId >= index.shardCount()) {
+            return null;
+        }
+        return readShard(indexName, index, shardId);
+    }
+
+    private SnapshotExtractor.ShardEntry readShard(String indexName, IndexEntry index, int shardId) {
+        try {
+            var entry = readFully(channel,
+                directoryOffset + (long) (index.firstOrdinal() + shardId) * DIRECTORY_ENTRY_BYTES,
+                DIRECTORY_ENTRY_BYTES);
+            long offset = entry.getLong();
+            int length = entry.getInt();
+            int expectedCrc = entry.getInt();
+            var slice = readFully(channel, offset, length).array();
+            var crc = new CRC32();
+            crc.update(slice);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Checksum mismatch in snapshot manifest for index " + indexName
+                    + ", shard " + shardId);
+            }
+            var metadata = readSlice(new DataInputStream(new ByteArrayInputStream(slice)),
+                snapshotName, indexName, index.indexId(), shardId);
+            return new SnapshotExtractor.ShardEntry(snapshotName, indexName, index.indexId(), shardId, metadata);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Snapshot manifest is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * One shard: its snapshot bookkeeping fields, then per file the blob name, physical name,
+     * length, checksum, part size, Lucene version, meta hash and part count.
+     */
+    static void writeSlice(DataOutputStream out, ShardMetadata metadata) throws IOException {
+        out.writeInt(metadata.getIndexVersion());
+        out.writeLong(metadata.getStartTime());
+        out.writeLong(metadata.getTime());
+        out.writeInt(metadata.getNumberOfFiles());
+        out.writeLong(metadata.getTotalSizeBytes());
+        var files = metadata.getFiles();
+        out.writeInt(files.size());
+        for (var file : files) {
+            out.writeUTF(file.getName());
+            out.writeUTF(file.getPhysicalName());
+            out.writeLong(file.getLength());
+            writeNullableUTF(out, file.getChecksum());
+            out.writeLong(file.getPartSize());
+            writeNullableUTF(out, file.getWrittenBy());
+            var metaHash = file.getMetaHash();
+            if (metaHash == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(metaHash.length);
+                out.write(metaHash.bytes, metaHash.offset, metaHash.length);
+            }
+            out.writeLong(file.getNumberOfParts());
+        }
+    }
+
+    static ShardMetadata readSlice(DataInputStream in, String snapshotName, String indexName,
+                                   String indexId, int shardId) throws IOException {
+        int indexVersion = in.readInt();
+        long startTime = in.readLong();
+        long time = in.readLong();
+        int numberOfFiles = in.readInt();
+        long totalSizeBytes = in.readLong();
+        int fileCount = in.readInt();
+        var files = new ArrayList<ShardFileInfo>(fileCount);
+        for (int i = 0; i < fileCount; i++) {
+            var name = in.readUTF();
+            var physicalName = in.readUTF();
+            long length = in.readLong();
+            var checksum = readNullableUTF(in);
+            long partSize = in.readLong();
+            var writtenBy = readNullableUTF(in);
+            int metaHashLength = in.readInt();
+            BytesRef metaHash = null;
+            if (metaHashLength >= 0) {
+                var bytes = new byte[metaHashLength];
+                in.readFully(bytes);
+                metaHash = new BytesRef(bytes);
+            }
+            long numberOfParts = in.readLong();
+            files.add(new FileInfo(name, physicalName, length, checksum, partSize, writtenBy, metaHash, numberOfParts));
+        }
+        return new Shard(snapshotName, indexName, indexId, shardId, indexVersion, startTime, time,
+            numberOfFiles, totalSizeBytes, List.copyOf(files));
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @SuppressWarnings({"java:S100", "java:S1186"})
+    private record Shard(
+        String snapshotName,
+        String indexName,
+        String indexId,
+        int shardId,
+        int indexVersion,
+        long startTime,
+        long time,
+        int numberOfFiles,
+        long totalSizeBytes,
+        List<ShardFileInfo> files
+    ) implements ShardMetadata {
+        @Override public String getSnapshotName() { return snapshotName; }
+        @Override public String getIndexName() { return indexName; }
+        @Override public String getIndexId() { return indexId; }
+        @Override public int getShardId() { return shardId; }
+        @Override public int getIndexVersion() { return indexVersion; }
+        @Override public long getStartTime() { return startTime; }
+        @Override public long getTime() { return time; }
+        @Override public int getNumberOfFiles() { return numberOfFiles; }
+        @Override public long getTotalSizeBytes() { return totalSizeBytes; }
+        @Override public List<ShardFileInfo> getFiles() { return files; }
+    }
+
+    @SuppressWarnings({"java:S100", "java:S1186"})
+    private record FileInfo(
+        String name,
+        String physicalName,
+        long length,
+        String checksum,
+        long partSize,
+        String writtenBy,
+        BytesRef metaHash,
+        long numberOfParts
+    ) implements ShardFileInfo {
+        @Override public String getName() { return name; }
+        @Override public String getPhysicalName() { return physicalName; }
+        @Override public long getLength() { return length; }
+        @Override public String getChecksum() { return checksum; }
+        @Override public long getPartSize() { return partSize; }
+        @Override public String getWrittenBy() { return writtenBy; }
+        @Override public BytesRef getMetaHash() { return metaHash; }
+        @Override public long getNumberOfParts() { return numberOfParts; }
+
+        /** Same naming as the repository's own file info of every supported version. */
+        @Override
+        public String partName(long part) {
+            return numberOfParts > 1 ? name + ".part" + part : name;
+        }
+    }
+}
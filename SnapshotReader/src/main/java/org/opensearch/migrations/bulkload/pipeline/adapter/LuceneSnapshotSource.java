@@ -1,13 +1,20 @@
 package org.opensearch.migrations.bulkload.pipeline.adapter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import org.opensearch.migrations.bulkload.SnapshotExtractor;
+import org.opensearch.migrations.bulkload.SnapshotManifest;
 import org.opensearch.migrations.bulkload.common.DeltaMode;
 import org.opensearch.migrations.bulkload.lucene.FieldMappingContext;
 import org.opensearch.migrations.bulkload.pipeline.model.CollectionMetadata;
@@ -29,11 +36,17 @@ import reactor.core.publisher.Flux;
  * <p>Supports optional delta mode: when {@code previousSnapshotName} and {@code deltaMode}
  * are set, reads delta changes between two snapshots.
  *
+ * <p>When a {@link SnapshotManifest} path is configured and the manifest exists, shard metadata of
+ * the current snapshot is read from it instead of the repository; {@link #writeManifest} creates it.
+ *
  * <p>Use {@link #builder(SnapshotExtractor, String, Path)} to construct instances.
  */
 @Slf4j
 public class LuceneSnapshotSource implements DocumentSource {
 
+    /** Lucene segment names are {@code _} followed by a base-36 counter. */
+    private static final Pattern SEGMENT_NAME = Pattern.compile("_[0-9a-z]+");
+
     private final SnapshotExtractor extractor;
     private final String snapshotName;
     private final Path workDir;
@@ -58,6 +71,10 @@ public class LuceneSnapshotSource implements DocumentSource {
 
     private final LuceneAdapter luceneAdapter;
 
+    // Precomputed shard metadata (null = always read from the repository), opened under this source's lock
+    private final Path manifestPath;
+    private volatile SnapshotManifest manifest;
+    private volatile boolean manifestChecked;
 
     private LuceneSnapshotSource(Builder builder) {
         this.extractor = builder.extractor;
@@ -70,6 +87,7 @@ public class LuceneSnapshotSource implements DocumentSource {
         this.sourcelessMappingContextProvider = builder.sourcelessMappingContextProvider;
         this.useRecoverySource = builder.useRecoverySource;
         this.luceneAdapter = new LuceneAdapter(builder.emitDocType);
+        this.manifestPath = builder.manifestPath;
     }
 
     public static Builder builder(SnapshotExtractor extractor, String snapshotName, Path workDir) {
@@ -87,6 +105,7 @@ public class LuceneSnapshotSource implements DocumentSource {
         private Function<String, FieldMappingContext> sourcelessMappingContextProvider;
         private boolean useRecoverySource;
         private boolean emitDocType;
+        private Path manifestPath;
 
         private Builder(SnapshotExtractor extractor, String snapshotName, Path workDir) {
             this.extractor = extractor;
@@ -127,6 +146,15 @@ public class LuceneSnapshotSource implements DocumentSource {
             return this;
         }
 
+        /**
+         * Where the {@link SnapshotManifest} of this snapshot is (or will be) kept.  If there is no
+         * usable manifest at that path when metadata is first needed, the repository is read instead.
+         */
+        public Builder manifestPath(Path manifestPath) {
+            this.manifestPath = manifestPath;
+            return this;
+        }
+
 
         public LuceneSnapshotSource build() {
             return new LuceneSnapshotSource(this);
@@ -139,19 +167,30 @@ public class LuceneSnapshotSource implements DocumentSource {
 
     @Override
     public List<String> listCollections() {
-        return extractor.listIndices(snapshotName);
+        var snapshotManifest = manifest();
+        return snapshotManifest != null ? snapshotManifest.listIndices() : extractor.listIndices(snapshotName);
     }
 
     @Override
     public List<Partition> listPartitions(String collectionName) {
-        var entries = extractor.listShards(snapshotName, collectionName);
-        var result = entries.stream()
-            .map(entry -> {
-                var partition = new EsShardPartition(snapshotName, collectionName, entry.shardId());
-                shardEntryCache.put(partition, entry);
-                return (Partition) partition;
-            })
-            .toList();
+        var snapshotManifest = manifest();
+        int manifestShardCount = snapshotManifest != null ? snapshotManifest.shardCount(collectionName) : -1;
+        List<Partition> result;
+        if (manifestShardCount >= 0) {
+            // Shard entries are read from the manifest one at a time, when they're resolved
+            result = new ArrayList<>(manifestShardCount);
+            for (int shardId = 0; shardId < manifestShardCount; shardId++) {
+                result.add(new EsShardPartition(snapshotName, collectionName, shardId));
+            }
+        } else {
+            result = extractor.listShards(snapshotName, collectionName).stream()
+                .map(entry -> {
+                    var partition = new EsShardPartition(snapshotName, collectionName, entry.shardId());
+                    shardEntryCache.put(partition, entry);
+                    return (Partition) partition;
+                })
+                .toList();
+        }
 
         // Pre-cache previous snapshot shard entries for delta mode
         if (isDeltaMode()) {
@@ -185,8 +224,77 @@ public class LuceneSnapshotSource implements DocumentSource {
         return IndexMetadataConverter.convert(collectionName, meta);
     }
 
+    /**
+     * Splits a large shard into {@link EsSegmentRangePartition}s: contiguous runs of segments, in
+     * the same name order the readers use, each holding at most {@code targetBytes} of segment files
+     * (a single segment larger than that gets a range of its own).  Shards that fit in
+     * {@code targetBytes}, have a single segment, or have segment names we don't recognise are
+     * returned unchanged.
+     */
+    @Override
+    public List<Partition> splitPartition(Partition partition, long targetBytes) {
+        if (targetBytes <= 0 || !(partition instanceof EsShardPartition esPartition)) {
+            return List.of(partition);
+        }
+        var entry = resolveShardEntry(esPartition, shardEntryCache);
+        if (entry == null) {
+            return List.of(partition);
+        }
+        var bytesBySegment = entry.metadata().getBytesBySegment();
+        long totalBytes = bytesBySegment.values().stream().mapToLong(Long::longValue).sum();
+        if (totalBytes <= targetBytes
+            || !bytesBySegment.keySet().stream().allMatch(name -> SEGMENT_NAME.matcher(name).matches())) {
+            return List.of(partition);
+        }
+
+        var ranges = new ArrayList<Partition>();
+        String first = null;
+        String last = null;
+        long rangeBytes = 0;
+        for (var segment : bytesBySegment.entrySet()) {
+            if (first != null && rangeBytes + segment.getValue() > targetBytes) {
+                ranges.add(new EsSegmentRangePartition(esPartition, first, last));
+                first = null;
+                rangeBytes = 0;
+            }
+            if (first == null) {
+                first = segment.getKey();
+            }
+            last = segment.getKey();
+            rangeBytes += segment.getValue();
+        }
+        ranges.add(new EsSegmentRangePartition(esPartition, first, last));
+        if (ranges.size() == 1) {
+            return List.of(partition);
+        }
+        log.info("Split {} ({} bytes in {} segments) into {} segment ranges",
+            partition, totalBytes, bytesBySegment.size(), ranges.size());
+        return ranges;
+    }
+
+    /** The snapshot's file sizes for the shard, or for just the range's segments. */
+    @Override
+    public long partitionSizeBytes(Partition partition) {
+        var esPartition = partition instanceof EsSegmentRangePartition range ? range.shard()
+            : partition instanceof EsShardPartition shard ? shard : null;
+        var entry = esPartition == null ? null : resolveShardEntry(esPartition, shardEntryCache);
+        if (entry == null) {
+            return -1;
+        }
+        if (partition instanceof EsSegmentRangePartition range) {
+            return entry.metadata().getBytesBySegment().entrySet().stream()
+                .filter(segment -> range.containsSegment(segment.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        }
+        return entry.metadata().getTotalSizeBytes();
+    }
+
     @Override
     public Flux<Document> readDocuments(Partition partition, long startingDocOffset) {
+        if (partition instanceof EsSegmentRangePartition range) {
+            return readSegmentRange(range, startingDocOffset);
+        }
         var esPartition = (EsShardPartition) partition;
         var entry = resolveShardEntry(esPartition, shardEntryCache);
         if (entry == null) {
@@ -221,17 +329,64 @@ public class LuceneSnapshotSource implements DocumentSource {
     ) {
         log.info("Reading documents from {} starting at docIdx {}", partition, startingDocOffset);
         var esPartition = (EsShardPartition) partition;
-        FieldMappingContext mappingContext = sourcelessMappingContextProvider != null
-            ? sourcelessMappingContextProvider.apply(esPartition.indexName())
-            : null;
-        return extractor.readDocuments(entry, workDir, Math.toIntExact(startingDocOffset), mappingContext, useRecoverySource)
+        return extractor.readDocuments(entry, workDir, Math.toIntExact(startingDocOffset),
+                mappingContextFor(esPartition), useRecoverySource)
             .map(luceneAdapter::fromLucene);
     }
 
+    /**
+     * Reads one segment range of a shard.  Only the range's segment files are unpacked, so the size
+     * limit applies to those rather than to the whole shard.
+     */
+    private Flux<Document> readSegmentRange(EsSegmentRangePartition range, long startingDocOffset) {
+        var entry = resolveShardEntry(range.shard(), shardEntryCache);
+        if (entry == null) {
+            return Flux.error(new IllegalArgumentException("Partition not found: " + range));
+        }
+        if (maxShardSizeBytes > 0) {
+            long rangeSize = partitionSizeBytes(range);
+            if (rangeSize > maxShardSizeBytes) {
+                return Flux.error(new ShardTooLargeException(range, rangeSize, maxShardSizeBytes));
+            }
+        }
+        if (isDeltaMode()) {
+            return Flux.error(new UnsupportedOperationException(
+                "Segment range partitions are not supported in delta mode: " + range));
+        }
+
+        log.info("Reading documents from {} starting at docIdx {}", range, startingDocOffset);
+        return extractor.readSegmentRange(entry, workDir, Math.toIntExact(startingDocOffset),
+                mappingContextFor(range.shard()), useRecoverySource, range::containsSegment)
+            .map(luceneAdapter::fromLucene);
+    }
+
+    private FieldMappingContext mappingContextFor(EsShardPartition partition) {
+        return sourcelessMappingContextProvider != null
+            ? sourcelessMappingContextProvider.apply(partition.indexName())
+            : null;
+    }
+
     private SnapshotExtractor.ShardEntry resolveShardEntry(
         EsShardPartition partition, Map<EsShardPartition, SnapshotExtractor.ShardEntry> cache
     ) {
         var entry = cache.get(partition);
+        var snapshotManifest = entry == null && cache == shardEntryCache ? manifest() : null;
+        if (snapshotManifest != null) {
+            try {
+                entry = snapshotManifest.getShard(partition.indexName(), partition.shardNumber());
+            } catch (UncheckedIOException e) {
+                // listPartitions still trusts the manifest's shard count, so it wouldn't read this shard
+                log.warn("Could not read {} from manifest {}; reading its shard metadata from the repository",
+                    partition, manifestPath, e);
+                extractor.listShards(snapshotName, partition.indexName()).forEach(shard -> cache.put(
+                    new EsShardPartition(snapshotName, partition.indexName(), shard.shardId()), shard));
+                return cache.get(partition);
+            }
+            if (entry != null) {
+                cache.put(partition, entry);
+                return entry;
+            }
+        }
         if (entry == null) {
             listPartitions(partition.indexName());
             entry = cache.get(partition);
@@ -239,9 +394,67 @@ public class LuceneSnapshotSource implements DocumentSource {
         return entry;
     }
 
+    /**
+     * Writes a {@link SnapshotManifest} of every shard of {@code indexNames} to the configured manifest
+     * path, reading from the repository whatever {@link #listPartitions} hasn't already loaded.  Does
+     * nothing if no manifest path is configured.
+     */
+    public void writeManifest(List<String> indexNames) throws IOException {
+        if (manifestPath == null) {
+            return;
+        }
+        var shardsByIndex = new LinkedHashMap<String, List<SnapshotExtractor.ShardEntry>>();
+        for (var indexName : indexNames) {
+            var shards = new ArrayList<SnapshotExtractor.ShardEntry>();
+            for (var partition : listPartitions(indexName)) {
+                shards.add(resolveShardEntry((EsShardPartition) partition, shardEntryCache));
+            }
+            shardsByIndex.put(indexName, shards);
+        }
+        SnapshotManifest.write(manifestPath, snapshotName, shardsByIndex);
+    }
+
+    /** The manifest for this snapshot, opened on first use; null if there isn't a usable one. */
+    private SnapshotManifest manifest() {
+        if (manifestChecked || manifestPath == null) {
+            return manifest;
+        }
+        synchronized (this) {
+            if (!manifestChecked && Files.exists(manifestPath)) {
+                manifestChecked = true;
+                try {
+                    var opened = SnapshotManifest.open(manifestPath);
+                    if (snapshotName.equals(opened.getSnapshotName())) {
+                        manifest = opened;
+                        log.info("Reading shard metadata for snapshot {} from manifest {}", snapshotName, manifestPath);
+                    } else {
+                        log.warn("Ignoring manifest {}: it is for snapshot {}, not {}",
+                            manifestPath, opened.getSnapshotName(), snapshotName);
+                        opened.close();
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    log.warn("Ignoring unreadable manifest {}; reading shard metadata from the repository",
+                        manifestPath, e);
+                }
+            }
+            return manifest;
+        }
+    }
+
     @Override
     public void close() {
         shardEntryCache.clear();
         previousShardEntryCache.clear();
+        synchronized (this) {
+            if (manifest != null) {
+                try {
+                    manifest.close();
+                } catch (IOException e) {
+                    log.warn("Could not close manifest {}", manifestPath, e);
+                }
+                manifest = null;
+                manifestChecked = false;
+            }
+        }
     }
 }
@@ -0,0 +1,128 @@
+package org.opensearch.migrations.bulkload;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.models.ShardFileInfo;
+import org.opensearch.migrations.bulkload.models.ShardMetadata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import shadow.lucene9.org.apache.lucene.util.BytesRef;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnapshotManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static ShardFileInfo file(String name, String physicalName, long length, long parts, BytesRef metaHash) {
+        var file = mock(ShardFileInfo.class);
+        when(file.getName()).thenReturn(name);
+        when(file.getPhysicalName()).thenReturn(physicalName);
+        when(file.getLength()).thenReturn(length);
+        when(file.getChecksum()).thenReturn("1x2y3z");
+        when(file.getPartSize()).thenReturn(length / Math.max(1, parts) + 1);
+        when(file.getWrittenBy()).thenReturn(metaHash == null ? "9.12.0" : null);
+        when(file.getMetaHash()).thenReturn(metaHash);
+        when(file.getNumberOfParts()).thenReturn(parts);
+        return file;
+    }
+
+    private static SnapshotExtractor.ShardEntry shard(String indexName, String indexId, int shardId,
+                                                      List<ShardFileInfo> files) {
+        long totalSizeBytes = files.stream().mapToLong(ShardFileInfo::getLength).sum();
+        var meta = mock(ShardMetadata.class);
+        when(meta.getIndexVersion()).thenReturn(3);
+        when(meta.getStartTime()).thenReturn(1000L + shardId);
+        when(meta.getTime()).thenReturn(20L);
+        when(meta.getNumberOfFiles()).thenReturn(files.size());
+        when(meta.getTotalSizeBytes()).thenReturn(totalSizeBytes);
+        when(meta.getFiles()).thenReturn(files);
+        return new SnapshotExtractor.ShardEntry("snap-1", indexName, indexId, shardId, meta);
+    }
+
+    private Map<String, List<SnapshotExtractor.ShardEntry>> twoIndices() {
+        var shards = new LinkedHashMap<String, List<SnapshotExtractor.ShardEntry>>();
+        shards.put("logs", List.of(
+            shard("logs", "id-logs", 0, List.of(
+                file("__a", "_0.cfs", 5000, 3, null),
+                file("v__b", "_0.si", 4, 1, new BytesRef(new byte[] {1, 2, 3, 4})),
+                file("__c", "segments_2", 100, 1, null))),
+            shard("logs", "id-logs", 1, List.of(
+                file("__d", "_1_Lucene90_0.dvd", 42, 1, null)))));
+        shards.put("empty", List.of());
+        shards.put("metrics", List.of(shard("metrics", "id-metrics", 0, List.of())));
+        return shards;
+    }
+
+    @Test
+    void shardsRoundTripThroughTheirSlices() throws IOException {
+        var path = tempDir.resolve("manifests/snap-1.manifest");
+        var original = twoIndices();
+        SnapshotManifest.write(path, "snap-1", original);
+
+        try (var manifest = SnapshotManifest.open(path)) {
+            assertEquals("snap-1", manifest.getSnapshotName());
+            assertEquals(List.of("logs", "empty", "metrics"), manifest.listIndices());
+            assertEquals(2, manifest.shardCount("logs"));
+            assertEquals(0, manifest.shardCount("empty"));
+            assertEquals(-1, manifest.shardCount("missing"));
+
+            var shard = manifest.getShard("logs", 0);
+            var expected = original.get("logs").get(0).metadata();
+            assertEquals("id-logs", shard.indexId());
+            assertEquals(expected.getTotalSizeBytes(), shard.metadata().getTotalSizeBytes());
+            assertEquals(expected.getStartTime(), shard.metadata().getStartTime());
+            // derived from the file names, as for metadata read from the repository
+            assertEquals("segments_2", shard.metadata().getSegmentFileName());
+            assertEquals(Map.of("_0", 5004L), shard.metadata().getBytesBySegment());
+
+            var multipart = shard.metadata().getFiles().get(0);
+            assertEquals("__a.part2", multipart.partName(2));
+            assertEquals("1x2y3z", multipart.getChecksum());
+            assertEquals("9.12.0", multipart.getWrittenBy());
+            assertNull(multipart.getMetaHash());
+
+            var hashed = shard.metadata().getFiles().get(1);
+            assertEquals("v__b", hashed.partName(0));
+            assertNull(hashed.getWrittenBy());
+            assertEquals(new BytesRef(new byte[] {1, 2, 3, 4}), hashed.getMetaHash());
+
+            assertEquals("_1_Lucene90_0.dvd",
+                manifest.getShard("logs", 1).metadata().getFiles().get(0).getPhysicalName());
+            assertEquals("id-metrics", manifest.listShards("metrics").get(0).indexId());
+            assertNull(manifest.getShard("logs", 2));
+        }
+    }
+
+    @Test
+    void corruptSliceIsDetected() throws IOException {
+        var path = tempDir.resolve("snap-1.manifest");
+        SnapshotManifest.write(path, "snap-1", twoIndices());
+        var bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(path, bytes);
+
+        try (var manifest = SnapshotManifest.open(path)) {
+            assertEquals(2, manifest.listShards("logs").size());
+            assertThrows(java.io.UncheckedIOException.class, () -> manifest.getShard("metrics", 0));
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        var path = tempDir.resolve("not-a-manifest");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> SnapshotManifest.open(path));
+    }
+}
@@ -16,6 +16,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.opensearch.migrations.Version;
@@ -26,6 +27,8 @@ import org.opensearch.migrations.bulkload.lucene.LuceneIndexReader;
 import org.opensearch.migrations.bulkload.lucene.LuceneLeafReader;
 import org.opensearch.migrations.bulkload.lucene.LuceneLeafReaderContext;
 import org.opensearch.migrations.bulkload.lucene.LuceneReader;
+import org.opensearch.migrations.bulkload.lucene.RfsTunables;
+import org.opensearch.migrations.bulkload.lucene.StoredFieldsCursor;
 import org.opensearch.migrations.bulkload.lucene.version_9.IndexReader9;
 import org.opensearch.migrations.bulkload.models.ShardFileInfo;
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
@@ -43,12 +46,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -229,7 +236,9 @@ public class LuceneDocumentsReaderTest {
         var concurrentDocReads = new AtomicInteger(0);
         var segmentReadTracker = new ConcurrentHashMap<String, AtomicBoolean>();
         var concurrentSegmentReads = new AtomicInteger(0);
-        var expectedConcurrentDocReads = 100;
+        // One doc per chunk, so every concurrently read chunk is one concurrent doc read
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, "1");
+        var expectedConcurrentDocReads = RfsTunables.storedFieldsStripes();
 
         var allReadsStarted = new CountDownLatch(expectedConcurrentDocReads);
 
@@ -242,6 +251,7 @@ public class LuceneDocumentsReaderTest {
             segmentReadTracker.put(segmentName, new AtomicBoolean(false));
             when(leafReader.maxDoc()).thenReturn(docsPerSegment);
             when(leafReader.getLiveDocs()).thenReturn(null); // Assume all docs are live
+            when(leafReader.openStoredFieldsCursor(any())).thenReturn(leafReader::document);
 
             // Wrap the document method to track concurrency
             when(leafReader.document(anyInt())).thenAnswer(invocation -> {
@@ -294,17 +304,149 @@ public class LuceneDocumentsReaderTest {
         }, 0, TimeUnit.MILLISECONDS);
 
         // Read documents
-        List<LuceneDocumentChange> actualDocuments = LuceneReader.streamDocumentChanges(reader, "dummy")
-            .subscribeOn(Schedulers.parallel())
-            .collectList()
-            .block(Duration.ofSeconds(10));
+        List<LuceneDocumentChange> actualDocuments;
+        try {
+            actualDocuments = LuceneReader.streamDocumentChanges(reader, "dummy")
+                .subscribeOn(Schedulers.parallel())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        } finally {
+            System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP);
+        }
 
         // Verify results
         var expectedConcurrentSegments = 1; // Segment concurrency disabled for preserved ordering
         assertNotNull(actualDocuments);
         assertEquals(numSegments * docsPerSegment, actualDocuments.size());
         assertEquals(expectedConcurrentSegments, observedConcurrentSegments.get(), "Expected concurrent open segments equal to " + expectedConcurrentSegments);
-        assertEquals(expectedConcurrentDocReads, observedConcurrentDocReads.get(), "Expected concurrent document reads to equal DEFAULT_BOUNDED_ELASTIC_SIZE");
+        assertEquals(expectedConcurrentDocReads, observedConcurrentDocReads.get(), "Expected concurrent document reads to equal the stored-fields stripe count");
+    }
+
+    /**
+     * A reader over one segment of {@code docs} live documents with {@code sourceBytes}-byte sources. Every
+     * cursor it opens fails the read if it is asked for docIds out of order.
+     */
+    private LuceneIndexReader singleSegmentReader(int docs, int sourceBytes, AtomicInteger cursorsOpened,
+                                                  AtomicInteger docsRead) throws IOException {
+        var source = "x".repeat(sourceBytes).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        var storedDocs = new ArrayList<LuceneDocument>();
+        for (int docId = 0; docId < docs; docId++) {
+            var doc = mock(LuceneDocument.class);
+            var idField = mock(LuceneField.class);
+            when(idField.name()).thenReturn("_id");
+            when(idField.asUid()).thenReturn("doc" + docId);
+            var sourceField = mock(LuceneField.class);
+            when(sourceField.name()).thenReturn("_source");
+            when(sourceField.utf8Value()).thenReturn(source);
+            when(doc.getFields()).thenAnswer(inv -> List.of(idField, sourceField));
+            storedDocs.add(doc);
+        }
+
+        var leafReader = mock(LuceneLeafReader.class);
+        when(leafReader.getSegmentName()).thenReturn("_0");
+        when(leafReader.maxDoc()).thenReturn(docs);
+        when(leafReader.getLiveDocs()).thenReturn(null);
+        when(leafReader.openStoredFieldsCursor(any())).thenAnswer(invocation -> {
+            cursorsOpened.incrementAndGet();
+            var lastDocId = new AtomicInteger(-1);
+            return (StoredFieldsCursor) docId -> {
+                Assertions.assertTrue(docId > lastDocId.getAndSet(docId), "cursor visited docIds out of order");
+                docsRead.incrementAndGet();
+                return storedDocs.get(docId);
+            };
+        });
+        var context = mock(LuceneLeafReaderContext.class);
+        when(context.reader()).thenAnswer(invocation -> leafReader);
+        var mockReader = mock(LuceneDirectoryReader.class);
+        when(mockReader.leaves()).thenAnswer(inv -> List.of(context));
+        when(mockReader.maxDoc()).thenReturn(docs);
+        when(mockReader.getIndexDirectoryPath()).thenReturn(tempDirectory);
+        return new IndexReader9(Paths.get("dummy"), false, "dummy_field") {
+            @Override
+            public LuceneDirectoryReader getReader(String ignoredSegmentName) {
+                return mockReader;
+            }
+        };
+    }
+
+    @Test
+    void testChunkedReadingOpensOneCursorPerChunkAndKeepsDocIdOrder() throws IOException {
+        var cursorsOpened = new AtomicInteger();
+        var reader = singleSegmentReader(300, 20, cursorsOpened, new AtomicInteger());
+
+        List<String> ids;
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, "64");
+        try {
+            ids = LuceneReader.streamDocumentChanges(reader, "dummy")
+                .map(LuceneDocumentChange::getId)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        } finally {
+            System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP);
+        }
+
+        assertEquals(IntStream.range(0, 300).mapToObj(i -> "doc" + i).toList(), ids);
+        assertEquals(5, cursorsOpened.get(), "300 docs in chunks of 64");
+    }
+
+    @Test
+    void testChunkedReadingBoundsTheSourceBytesReadAhead() throws Exception {
+        var docsRead = new AtomicInteger();
+        // 100-byte sources against a 250-byte limit: a chunk is read three documents at a time
+        var reader = singleSegmentReader(400, 100, new AtomicInteger(), docsRead);
+        var received = new AtomicInteger();
+        var done = new CountDownLatch(1);
+        var subscriber = new BaseSubscriber<LuceneDocumentChange>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(LuceneDocumentChange value) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            protected void hookFinally(SignalType type) {
+                done.countDown();
+            }
+        };
+
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP, "100");
+        System.setProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP, "250");
+        System.setProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP, "2");
+        try {
+            LuceneReader.streamDocumentChanges(reader, "dummy").subscribe(subscriber);
+
+            // With one document requested, reading stops once each of the two chunks in flight has a slice
+            // waiting (plus one more slice queued downstream) rather than after both 100-doc chunks.
+            int readAhead = awaitStable(docsRead);
+            Assertions.assertTrue(readAhead <= 4 * 3, "read " + readAhead + " documents ahead of one requested");
+            assertEquals(1, received.get());
+
+            subscriber.requestUnbounded();
+            Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_PROP);
+            System.clearProperty(RfsTunables.STORED_FIELDS_CHUNK_BYTES_PROP);
+            System.clearProperty(RfsTunables.STORED_FIELDS_STRIPES_PROP);
+        }
+        assertEquals(400, received.get());
+        assertEquals(400, docsRead.get());
+    }
+
+    /** Waits until {@code counter} has stopped changing for a while and returns its value. */
+    private static int awaitStable(AtomicInteger counter) throws InterruptedException {
+        int last = -1;
+        int stableChecks = 0;
+        for (int i = 0; i < 100 && stableChecks < 4; i++) {
+            Thread.sleep(50);
+            int current = counter.get();
+            stableChecks = current == last ? stableChecks + 1 : 0;
+            last = current;
+        }
+        return last;
     }
 
     @Test
@@ -61,7 +61,16 @@ public class LuceneSnapshotSourceEndToEndTest {
     }
 
     private SnapshotExtractor createSnapshot(ContainerVersion sourceVersion) throws Exception {
-        String cacheKey = sourceVersion.getVersion() + "-pipeline-source";
+        return createSnapshot(sourceVersion, false);
+    }
+
+    /**
+     * Snapshots docs 1-3; with {@code segmentPerDocument} the index is refreshed after each one, so each
+     * document is flushed into a segment of its own.
+     */
+    private SnapshotExtractor createSnapshot(ContainerVersion sourceVersion, boolean segmentPerDocument)
+        throws Exception {
+        String cacheKey = sourceVersion.getVersion() + (segmentPerDocument ? "-pipeline-source-segments" : "-pipeline-source");
         Path snapshotDir = localDirectory.toPath();
 
         if (fixtureCache.restoreIfCached(cacheKey, snapshotDir)) {
@@ -79,7 +88,13 @@ public class LuceneSnapshotSourceEndToEndTest {
                 + "}"
                 + "}");
             ops.createDocument(INDEX_NAME, "doc1", "{\"title\": \"First\", \"value\": 1}");
+            if (segmentPerDocument) {
+                ops.post("/" + INDEX_NAME + "/_refresh", null);
+            }
             ops.createDocument(INDEX_NAME, "doc2", "{\"title\": \"Second\", \"value\": 2}");
+            if (segmentPerDocument) {
+                ops.post("/" + INDEX_NAME + "/_refresh", null);
+            }
             ops.createDocument(INDEX_NAME, "doc3", "{\"title\": \"Third\", \"value\": 3}");
             ops.post("/" + INDEX_NAME + "/_refresh", null);
 
@@ -192,6 +207,33 @@ public class LuceneSnapshotSourceEndToEndTest {
         }
     }
 
+    @ParameterizedTest(name = "split into segment ranges on {0}")
+    @MethodSource("supportedSources")
+    void splitPartitionReadsEveryDocumentOnceOnRealSnapshot(ContainerVersion sourceVersion) throws Exception {
+        var extractor = createSnapshot(sourceVersion, true);
+        Path workDir = Files.createTempDirectory("pipeline_source_split");
+        try {
+            var source = LuceneSnapshotSource.builder(extractor, SNAPSHOT_NAME, workDir).build();
+            var partition = source.listPartitions(INDEX_NAME).get(0);
+
+            // A 1-byte target puts every segment in a range of its own
+            var ranges = source.splitPartition(partition, 1);
+            assertThat(ranges.size(), greaterThan(1));
+            assertThat(source.splitPartition(partition, 0), equalTo(List.of(partition)));
+
+            var ids = ranges.stream()
+                .flatMap(range -> source.readDocuments(range, 0).collectList().block().stream())
+                .map(Document::id)
+                .sorted()
+                .toList();
+            // sorted, so a document read by two ranges would show up twice
+            assertThat(ids, equalTo(List.of("doc1", "doc2", "doc3")));
+            log.info("Read {} documents across {} segment ranges from {} snapshot", ids.size(), ranges.size(), sourceVersion);
+        } finally {
+            deleteDir(workDir);
+        }
+    }
+
     /**
      * Creates two snapshots in the same repo: v1 with docs 1-3, then v2 after adding docs 4-5.
      * A delta read of v2-relative-to-v1 therefore yields the additions (docs 4-5), which is what
@@ -0,0 +1,71 @@
+package org.opensearch.migrations.bulkload.pipeline.adapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.SnapshotExtractor;
+import org.opensearch.migrations.bulkload.SnapshotManifest;
+import org.opensearch.migrations.bulkload.models.ShardMetadata;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LuceneSnapshotSourceManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static SnapshotExtractor.ShardEntry shard(String indexName, String indexId) {
+        var meta = mock(ShardMetadata.class);
+        when(meta.getIndexVersion()).thenReturn(3);
+        when(meta.getFiles()).thenReturn(List.of());
+        return new SnapshotExtractor.ShardEntry("snap-1", indexName, indexId, 0, meta);
+    }
+
+    @Test
+    void shardWhoseSliceFailsItsChecksumIsReadFromTheRepository() throws IOException {
+        var path = tempDir.resolve("snap-1.manifest");
+        var shards = new LinkedHashMap<String, List<SnapshotExtractor.ShardEntry>>();
+        shards.put("logs", List.of(shard("logs", "id-logs")));
+        shards.put("metrics", List.of(shard("metrics", "id-metrics")));
+        SnapshotManifest.write(path, "snap-1", shards);
+        // the last slice is that of metrics' only shard
+        var bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(path, bytes);
+
+        var extractor = mock(SnapshotExtractor.class);
+        var repositoryEntry = shard("metrics", "repo-metrics");
+        when(extractor.listShards("snap-1", "metrics")).thenReturn(List.of(repositoryEntry));
+        when(extractor.readDocuments(any(), any(), anyInt(), any(), anyBoolean())).thenReturn(Flux.empty());
+
+        try (var source = LuceneSnapshotSource.builder(extractor, "snap-1", tempDir.resolve("work"))
+                .manifestPath(path)
+                .build()) {
+            var metrics = source.listPartitions("metrics");
+            assertEquals(1, metrics.size());
+            source.readDocuments(metrics.get(0), 0).blockLast();
+            source.readDocuments(source.listPartitions("logs").get(0), 0).blockLast();
+        }
+
+        verify(extractor).readDocuments(eq(repositoryEntry), any(), eq(0), any(), eq(false));
+        verify(extractor).readDocuments(argThat(entry -> "id-logs".equals(entry.indexId())), any(), eq(0), any(),
+            eq(false));
+        verify(extractor, never()).listShards("snap-1", "logs");
+    }
+}
@@ -0,0 +1,189 @@
+package org.opensearch.migrations.bulkload.pipeline.adapter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.opensearch.migrations.Version;
+import org.opensearch.migrations.bulkload.SnapshotExtractor;
+import org.opensearch.migrations.bulkload.common.TestResources;
+import org.opensearch.migrations.bulkload.models.ShardMetadata;
+import org.opensearch.migrations.bulkload.pipeline.model.Document;
+import org.opensearch.migrations.bulkload.pipeline.model.Partition;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LuceneSnapshotSourceSegmentRangeTest {
+    private static final String INDEX = "test_updates_deletes";
+
+    @TempDir
+    Path tempDir;
+
+    private static SnapshotExtractor extractorWithSegments(Map<String, Long> bytesBySegment) {
+        var meta = mock(ShardMetadata.class);
+        when(meta.getBytesBySegment()).thenReturn(new TreeMap<>(bytesBySegment));
+        when(meta.getTotalSizeBytes()).thenReturn(bytesBySegment.values().stream().mapToLong(Long::longValue).sum());
+        var extractor = mock(SnapshotExtractor.class);
+        when(extractor.listShards("snap-1", "logs"))
+            .thenReturn(List.of(new SnapshotExtractor.ShardEntry("snap-1", "logs", "id-logs", 0, meta)));
+        return extractor;
+    }
+
+    private static EsSegmentRangePartition range(Partition shard, String first, String last) {
+        return new EsSegmentRangePartition((EsShardPartition) shard, first, last);
+    }
+
+    @Test
+    void rangesAreCutBeforeTheSegmentThatWouldTakeThemOverTheTarget() {
+        var extractor = extractorWithSegments(Map.of("_0", 100L, "_1", 50L, "_2", 60L, "_3", 300L, "_4", 10L));
+        try (var source = LuceneSnapshotSource.builder(extractor, "snap-1", tempDir).build()) {
+            var shard = source.listPartitions("logs").get(0);
+
+            var ranges = source.splitPartition(shard, 150);
+
+            // a range may fill the target exactly, and a segment over it gets a range of its own
+            assertEquals(List.of(range(shard, "_0", "_1"), range(shard, "_2", "_2"), range(shard, "_3", "_3"),
+                range(shard, "_4", "_4")), ranges);
+            assertEquals(List.of(150L, 60L, 300L, 10L),
+                ranges.stream().map(source::partitionSizeBytes).toList());
+            assertEquals(520L, source.partitionSizeBytes(shard));
+        }
+    }
+
+    @Test
+    void shardsThatNeedNoSplittingAreReturnedWhole() {
+        var extractor = extractorWithSegments(Map.of("_0", 100L, "_1", 50L));
+        try (var source = LuceneSnapshotSource.builder(extractor, "snap-1", tempDir).build()) {
+            var shard = source.listPartitions("logs").get(0);
+
+            assertEquals(List.of(shard), source.splitPartition(shard, 0));
+            assertEquals(List.of(shard), source.splitPartition(shard, 150));
+            assertEquals(List.of(shard), source.splitPartition(shard, 1_000));
+        }
+        var single = extractorWithSegments(Map.of("_0", 500L));
+        try (var source = LuceneSnapshotSource.builder(single, "snap-1", tempDir).build()) {
+            var shard = source.listPartitions("logs").get(0);
+            assertEquals(List.of(shard), source.splitPartition(shard, 100));
+        }
+        var unrecognised = extractorWithSegments(Map.of("_0", 100L, "_Z", 100L));
+        try (var source = LuceneSnapshotSource.builder(unrecognised, "snap-1", tempDir).build()) {
+            var shard = source.listPartitions("logs").get(0);
+            assertEquals(List.of(shard), source.splitPartition(shard, 100));
+        }
+    }
+
+    @Test
+    void theSizeLimitAppliesToARangesOwnSegments() {
+        var extractor = extractorWithSegments(Map.of("_0", 100L, "_1", 50L, "_2", 300L));
+        when(extractor.readSegmentRange(any(), any(), anyInt(), any(), anyBoolean(), any())).thenReturn(Flux.empty());
+        try (var source = LuceneSnapshotSource.builder(extractor, "snap-1", tempDir).maxShardSizeBytes(200).build()) {
+            var shard = source.listPartitions("logs").get(0);
+
+            source.readDocuments(range(shard, "_0", "_1"), 0).blockLast();
+            var tooLarge = assertThrows(ShardTooLargeException.class,
+                () -> source.readDocuments(range(shard, "_2", "_2"), 0).blockLast());
+            assertEquals(300L, tooLarge.getActualBytes());
+            assertThrows(ShardTooLargeException.class, () -> source.readDocuments(shard, 0).blockLast());
+        }
+        verify(extractor).readSegmentRange(any(), eq(tempDir), eq(0), any(), eq(false), any());
+        verify(extractor, never()).readDocuments(any(), any(), anyInt(), any(), anyBoolean());
+    }
+
+    static Stream<Arguments> multiSegmentSnapshots() {
+        return Stream.of(
+            Arguments.of(TestResources.SNAPSHOT_ES_6_8, Version.fromString("ES 6.8")),
+            Arguments.of(TestResources.SNAPSHOT_ES_7_10_W_SOFT, Version.fromString("ES 7.10"))
+        );
+    }
+
+    private static int docNumber(Document doc) {
+        return ((Number) doc.sourceMetadata().get(Document.SOURCE_META_LUCENE_DOC_NUMBER)).intValue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("multiSegmentSnapshots")
+    void everyLiveDocumentIsReadOnceAcrossTheRanges(TestResources.Snapshot snapshot, Version version) {
+        var extractor = SnapshotExtractor.forLocalSnapshot(snapshot.dir, version);
+        try (var source = LuceneSnapshotSource.builder(extractor, snapshot.name, tempDir.resolve("whole")).build()) {
+            var shard = source.listPartitions(INDEX).get(0);
+            var expected = source.readDocuments(shard, 0).map(Document::id).sort().collectList().block();
+
+            var ranges = source.splitPartition(shard, 1);
+            assertTrue(ranges.size() > 1, "split into " + ranges);
+            var workDir = tempDir.resolve("ranges");
+            try (var rangeSource = LuceneSnapshotSource.builder(extractor, snapshot.name, workDir).build()) {
+                var ids = Flux.fromIterable(ranges)
+                    .concatMap(range -> rangeSource.readDocuments(range, 0))
+                    .map(Document::id)
+                    .sort()
+                    .collectList()
+                    .block();
+                assertEquals(expected, ids);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("multiSegmentSnapshots")
+    void aRangeUnpacksOnlyItsOwnSegmentsAndResumesFromAnOffset(TestResources.Snapshot snapshot, Version version)
+        throws IOException {
+        var extractor = SnapshotExtractor.forLocalSnapshot(snapshot.dir, version);
+        List<Partition> ranges;
+        try (var source = LuceneSnapshotSource.builder(extractor, snapshot.name, tempDir.resolve("split")).build()) {
+            ranges = source.splitPartition(source.listPartitions(INDEX).get(0), 1);
+        }
+
+        var readWithDocs = 0;
+        for (var partition : ranges) {
+            var range = (EsSegmentRangePartition) partition;
+            var workDir = tempDir.resolve(range.firstSegment());
+            try (var source = LuceneSnapshotSource.builder(extractor, snapshot.name, workDir).build()) {
+                source.listPartitions(INDEX);
+                var docs = source.readDocuments(range, 0).collectList().block();
+                try (var files = Files.list(workDir.resolve(INDEX).resolve("0"))) {
+                    var otherSegmentsFiles = files.map(file -> file.getFileName().toString())
+                        .filter(name -> {
+                            var segment = ShardMetadata.segmentNameOf(name);
+                            return segment != null && !range.containsSegment(segment);
+                        })
+                        .toList();
+                    // opening the snapshot's commit point reads every segment's .si, but nothing else
+                    assertTrue(otherSegmentsFiles.stream().allMatch(name -> name.endsWith(".si")),
+                        "unpacked for " + range + ": " + otherSegmentsFiles);
+                }
+                if (docs.isEmpty()) {
+                    continue;
+                }
+                readWithDocs++;
+
+                var resumeAt = docNumber(docs.get(docs.size() - 1));
+                var resumed = source.readDocuments(range, resumeAt).collectList().block();
+                assertEquals(docs.stream().filter(doc -> docNumber(doc) >= resumeAt).map(Document::id).toList(),
+                    resumed.stream().map(Document::id).toList());
+                assertEquals(List.of(), source.readDocuments(range, resumeAt + 1L).collectList().block());
+            }
+        }
+        assertTrue(readWithDocs > 0);
+    }
+}
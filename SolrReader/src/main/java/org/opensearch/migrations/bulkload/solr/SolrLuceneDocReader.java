@@ -42,8 +42,8 @@ final class SolrLuceneDocReader {
         }
 
         // Solr has no _source field — use flat mode since Solr field names with dots are literal, not nested
-        String sourceJson = SourceReconstructor.reconstructSourceFlat(reader, luceneDocId, document, mappingContext);
-        if (sourceJson == null || sourceJson.isEmpty()) {
+        byte[] sourceJson = SourceReconstructor.reconstructSourceFlatBytes(reader, luceneDocId, document, mappingContext);
+        if (sourceJson == null || sourceJson.length == 0) {
             log.atWarn()
                 .setMessage("Solr document {} has no reconstructable fields, skipping")
                 .addArgument(docId)
@@ -53,7 +53,7 @@ final class SolrLuceneDocReader {
 
         return new LuceneDocumentChange(
             segmentDocBase + luceneDocId, docId, null,
-            sourceJson.getBytes(java.nio.charset.StandardCharsets.UTF_8), null, operation);
+            sourceJson, null, operation);
     }
 
     private static org.opensearch.migrations.bulkload.lucene.LuceneDocument readDocument(
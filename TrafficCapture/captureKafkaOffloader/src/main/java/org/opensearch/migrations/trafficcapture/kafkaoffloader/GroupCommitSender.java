@@ -0,0 +1,186 @@
+package org.opensearch.migrations.trafficcapture.kafkaoffloader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+/**
+ * Sends capture records to Kafka in groups, so that many connections waiting on blocking (reliable)
+ * flushes share produce requests instead of each paying for a round trip with a tiny record.
+ * <p>
+ * When no group is in flight, a record is sent straight away, so a lightly loaded proxy sees no
+ * added latency.  While a group is in flight, newly arriving records queue up and are sent together
+ * as soon as that group has been acknowledged, once {@code maxGroupBytes} have queued, or once the
+ * oldest of them has waited {@code maxWait} - whichever comes first.  A group's records are handed
+ * to the producer back to back from one thread, so they share producer batches and produce requests
+ * and are acknowledged together; each record's future completes with its own acknowledgement.
+ * <p>
+ * Per-connection ordering is unaffected: a connection only sends its next record once the previous
+ * one has completed (see {@link org.opensearch.migrations.trafficcapture.OrderedStreamLifecyleManager}),
+ * and records within a group are sent in arrival order.
+ * <p>
+ * {@link #close()} hands every queued record to the producer before returning; records sent after
+ * that go to the producer straight away from the caller's thread.
+ */
+@Slf4j
+public class GroupCommitSender implements AutoCloseable {
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Producer<String, byte[]> producer;
+    private final long maxWaitNanos;
+    private final long maxGroupBytes;
+    /** Sends groups off the caller's (event loop) thread and runs the max-wait timer. */
+    private final ScheduledExecutorService sendThread;
+
+    private final Object lock = new Object();
+    private List<PendingRecord> pending = new ArrayList<>();
+    private long pendingBytes;
+    private int groupsInFlight;
+    private ScheduledFuture<?> maxWaitTimer;
+
+    private record PendingRecord(ProducerRecord<String, byte[]> record, CompletableFuture<RecordMetadata> future) {}
+
+    public GroupCommitSender(Producer<String, byte[]> producer, Duration maxWait, long maxGroupBytes) {
+        if (maxWait.isNegative() || maxWait.isZero()) {
+            throw new IllegalArgumentException("maxWait must be positive, but was " + maxWait);
+        }
+        if (maxGroupBytes <= 0) {
+            throw new IllegalArgumentException("maxGroupBytes must be positive, but was " + maxGroupBytes);
+        }
+        this.producer = producer;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxGroupBytes = maxGroupBytes;
+        this.sendThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "kafkaGroupCommitSender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<RecordMetadata> send(ProducerRecord<String, byte[]> record) {
+        var pendingRecord = new PendingRecord(record, new CompletableFuture<>());
+        List<PendingRecord> group = null;
+        synchronized (lock) {
+            pending.add(pendingRecord);
+            pendingBytes += record.value() == null ? 0 : record.value().length;
+            if (groupsInFlight == 0 || pendingBytes >= maxGroupBytes || sendThread.isShutdown()) {
+                group = takePendingGroup();
+            } else if (maxWaitTimer == null) {
+                maxWaitTimer = sendThread.schedule(this::sendAfterMaxWait, maxWaitNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (group != null) {
+            dispatch(group);
+        }
+        return pendingRecord.future;
+    }
+
+    /** Caller must hold {@link #lock}. */
+    private List<PendingRecord> takePendingGroup() {
+        var group = pending;
+        pending = new ArrayList<>();
+        pendingBytes = 0;
+        groupsInFlight++;
+        if (maxWaitTimer != null) {
+            maxWaitTimer.cancel(false);
+            maxWaitTimer = null;
+        }
+        return group;
+    }
+
+    private void sendAfterMaxWait() {
+        List<PendingRecord> group = null;
+        synchronized (lock) {
+            maxWaitTimer = null;
+            if (!pending.isEmpty()) {
+                group = takePendingGroup();
+            }
+        }
+        if (group != null) {
+            sendGroup(group);
+        }
+    }
+
+    private void dispatch(List<PendingRecord> group) {
+        try {
+            sendThread.execute(() -> sendGroup(group));
+        } catch (RejectedExecutionException e) {
+            // closed: there is no send thread left to hand the group to
+            sendGroup(group);
+        }
+    }
+
+    private void sendGroup(List<PendingRecord> group) {
+        log.atTrace().setMessage("Sending a group of {} records").addArgument(group::size).log();
+        var unacknowledged = new AtomicInteger(group.size());
+        for (var pendingRecord : group) {
+            try {
+                producer.send(pendingRecord.record, (metadata, exception) -> {
+                    if (exception != null) {
+                        pendingRecord.future.completeExceptionally(exception);
+                    } else {
+                        pendingRecord.future.complete(metadata);
+                    }
+                    if (unacknowledged.decrementAndGet() == 0) {
+                        onGroupAcknowledged();
+                    }
+                });
+            } catch (Exception e) {
+                pendingRecord.future.completeExceptionally(e);
+                if (unacknowledged.decrementAndGet() == 0) {
+                    onGroupAcknowledged();
+                }
+            }
+        }
+    }
+
+    private void onGroupAcknowledged() {
+        List<PendingRecord> group = null;
+        synchronized (lock) {
+            groupsInFlight--;
+            if (groupsInFlight == 0 && !pending.isEmpty()) {
+                group = takePendingGroup();
+            }
+        }
+        if (group != null) {
+            dispatch(group);
+        }
+    }
+
+    /**
+     * Stops the send thread and hands whatever is still queued to the producer, returning once the groups
+     * already given to the send thread have been handed over too.  Acknowledgements may still be outstanding.
+     */
+    @Override
+    public void close() {
+        List<PendingRecord> group = null;
+        synchronized (lock) {
+            sendThread.shutdown();
+            if (!pending.isEmpty()) {
+                group = takePendingGroup();
+            }
+        }
+        if (group != null) {
+            sendGroup(group);
+        }
+        try {
+            if (!sendThread.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.atWarn().setMessage("Groups were still being sent {} after closing").addArgument(CLOSE_TIMEOUT).log();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.opensearch.migrations.trafficcapture.kafkaoffloader;
 
 import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Objects;
@@ -24,7 +25,7 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 @Slf4j
-public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMetadata> {
+public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMetadata>, AutoCloseable {
 
     public static final String DEFAULT_TOPIC_NAME_FOR_TRAFFIC = "logging-traffic-topic";
     // This value encapsulates overhead we should reserve for a given Producer record to account for record key bytes
@@ -38,19 +39,42 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
     private final Producer<String, byte[]> producer;
     private final String topicNameForTraffic;
     private final int bufferSize;
-
+    // When non-null, records that a request is waiting on are sent through it so that concurrent blocking
+    // flushes share produce requests.  Other records are never waited on, so they go straight to the producer.
+    private final GroupCommitSender groupCommitSender;
+
+    /**
+     * @param groupCommitMaxWait when non-null, records that a request is waiting on are sent in groups (see
+     *                           {@link GroupCommitSender}), each waiting no longer than this to join one
+     * @param groupCommitMaxBytes a group is sent as soon as this many bytes are waiting to join it
+     */
     public KafkaCaptureFactory(
         IRootKafkaOffloaderContext rootScope,
         String nodeId,
         Producer<String, byte[]> producer,
         String topicNameForTraffic,
-        int messageSize
+        int messageSize,
+        Duration groupCommitMaxWait,
+        long groupCommitMaxBytes
     ) {
         this.rootScope = rootScope;
         this.nodeId = nodeId;
         this.producer = producer;
         this.topicNameForTraffic = topicNameForTraffic;
         this.bufferSize = messageSize - KAFKA_MESSAGE_OVERHEAD_BYTES;
+        this.groupCommitSender = groupCommitMaxWait == null
+            ? null
+            : new GroupCommitSender(producer, groupCommitMaxWait, groupCommitMaxBytes);
+    }
+
+    public KafkaCaptureFactory(
+        IRootKafkaOffloaderContext rootScope,
+        String nodeId,
+        Producer<String, byte[]> producer,
+        String topicNameForTraffic,
+        int messageSize
+    ) {
+        this(rootScope, nodeId, producer, topicNameForTraffic, messageSize, null, 0);
     }
 
     public KafkaCaptureFactory(
@@ -115,6 +139,15 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         public CompletableFuture<RecordMetadata> kickoffCloseStream(
             CodedOutputStreamHolder outputStreamHolder,
             int index
+        ) {
+            return kickoffCloseStream(outputStreamHolder, index, false);
+        }
+
+        @Override
+        public CompletableFuture<RecordMetadata> kickoffCloseStream(
+            CodedOutputStreamHolder outputStreamHolder,
+            int index,
+            boolean requestIsWaiting
         ) {
             if (!(outputStreamHolder instanceof CodedOutputStreamWrapper)) {
                 throw new IllegalArgumentException(
@@ -148,7 +181,10 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
              * retried or not retried at all: https://kafka.apache.org/35/javadoc/org/apache/kafka/common/errors/RetriableException.html
              * as well as basic retry backoff
              */
-            return sendFullyAsync(producer, kafkaRecord).whenComplete(((recordMetadata, throwable) -> {
+            var sendFuture = groupCommitSender != null && requestIsWaiting
+                ? groupCommitSender.send(kafkaRecord)
+                : sendFullyAsync(producer, kafkaRecord);
+            return sendFuture.whenComplete(((recordMetadata, throwable) -> {
                 if (throwable != null) {
                     flushContext.addTraceException(throwable, true);
                     log.error("Error sending producer record: {}", recordId, throwable);
@@ -165,6 +201,18 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         }
     }
 
+    /**
+     * Hands any records still waiting to join a group to the producer and waits for the producer to finish
+     * sending what it has.  The producer itself is left open for whoever created it to close.
+     */
+    @Override
+    public void close() {
+        if (groupCommitSender != null) {
+            groupCommitSender.close();
+        }
+        producer.flush();
+    }
+
     // Producer Send will block on actions such as retrieving cluster metadata, allows running fully async
     public static <K, V> CompletableFuture<RecordMetadata> sendFullyAsync(
         Producer<K, V> producer,
@@ -0,0 +1,157 @@
+package org.opensearch.migrations.trafficcapture.kafkaoffloader;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares per-record flush latency and produce-request counts at several write rates, sending each
+ * record on its own versus through a {@link GroupCommitSender}.  The broker is simulated: a produce
+ * request takes a fixed round trip plus a per-record cost, at most {@link #MAX_IN_FLIGHT} requests
+ * are outstanding, and a new request drains everything that queued up meanwhile - roughly what the
+ * real producer does with {@code linger.ms=0}.  The numbers are only meaningful relative to each other.
+ */
+@Slf4j
+@Tag("longTest")
+public class GroupCommitSenderLatencyTest {
+    private static final int MAX_IN_FLIGHT = 5;
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+    private static final long PER_RECORD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final Duration RUN_TIME = Duration.ofSeconds(2);
+    private static final byte[] PAYLOAD = new byte[512];
+
+    @Test
+    void compareLatencyAcrossWriteRates() throws Exception {
+        for (int recordsPerSecond : new int[] { 200, 1_000, 5_000, 20_000 }) {
+            var ungrouped = run(recordsPerSecond, broker -> broker::sendAsFuture);
+            var grouped = run(recordsPerSecond, broker -> {
+                var sender = new GroupCommitSender(broker, Duration.ofMillis(5), 1024 * 1024);
+                return sender::send;
+            });
+            log.atInfo().setMessage("{} records/s: ungrouped {} | grouped {}")
+                .addArgument(recordsPerSecond)
+                .addArgument(ungrouped)
+                .addArgument(grouped)
+                .log();
+        }
+    }
+
+    private record Result(int records, int requests, long p50Micros, long p99Micros) {
+        @Override
+        public String toString() {
+            return String.format("p50=%dus p99=%dus requests=%d (%.1f records/request)",
+                p50Micros, p99Micros, requests, (double) records / requests);
+        }
+    }
+
+    private Result run(
+        int recordsPerSecond,
+        Function<SimulatedBroker, Function<ProducerRecord<String, byte[]>, CompletableFuture<RecordMetadata>>> senderFactory
+    ) throws Exception {
+        var broker = new SimulatedBroker();
+        var send = senderFactory.apply(broker);
+        var latencies = new ConcurrentLinkedQueue<Long>();
+        var futures = new ArrayList<CompletableFuture<RecordMetadata>>();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / recordsPerSecond;
+        long start = System.nanoTime();
+        long end = start + RUN_TIME.toNanos();
+        for (long next = start; next < end; next += intervalNanos) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            long sentAt = System.nanoTime();
+            var record = new ProducerRecord<>("topic", "connection" + futures.size(), PAYLOAD);
+            futures.add(send.apply(record).whenComplete((m, t) -> latencies.add(System.nanoTime() - sentAt)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        broker.close();
+
+        Assertions.assertEquals(futures.size(), latencies.size());
+        List<Long> sorted = new ArrayList<>(latencies);
+        sorted.sort(null);
+        return new Result(sorted.size(), broker.requests.get(),
+            TimeUnit.NANOSECONDS.toMicros(percentile(sorted, 0.50)),
+            TimeUnit.NANOSECONDS.toMicros(percentile(sorted, 0.99)));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * p)));
+    }
+
+    private static class SimulatedBroker extends MockProducer<String, byte[]> {
+        private static final TopicPartition PARTITION = new TopicPartition("topic", 0);
+
+        private final ScheduledExecutorService network = Executors.newSingleThreadScheduledExecutor();
+        private final List<Callback> accumulator = new ArrayList<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private int inFlight;
+
+        SimulatedBroker() {
+            super(true, null, new StringSerializer(), new ByteArraySerializer());
+        }
+
+        CompletableFuture<RecordMetadata> sendAsFuture(ProducerRecord<String, byte[]> record) {
+            var future = new CompletableFuture<RecordMetadata>();
+            send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    future.completeExceptionally(exception);
+                } else {
+                    future.complete(metadata);
+                }
+            });
+            return future;
+        }
+
+        @Override
+        public synchronized Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+            accumulator.add(callback);
+            startRequests();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private synchronized void startRequests() {
+            while (inFlight < MAX_IN_FLIGHT && !accumulator.isEmpty()) {
+                var batch = new ArrayList<>(accumulator);
+                accumulator.clear();
+                inFlight++;
+                requests.incrementAndGet();
+                network.schedule(() -> acknowledge(batch),
+                    ROUND_TRIP_NANOS + PER_RECORD_NANOS * batch.size(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void acknowledge(List<Callback> batch) {
+            var metadata = new RecordMetadata(PARTITION, 0, 0, 0, 0, 0);
+            batch.forEach(callback -> callback.onCompletion(metadata, null));
+            synchronized (this) {
+                inFlight--;
+                startRequests();
+            }
+        }
+
+        @Override
+        public void close() {
+            network.shutdown();
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.opensearch.migrations.trafficcapture.kafkaoffloader;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GroupCommitSenderTest {
+
+    private final MockProducer<String, byte[]> producer =
+        new MockProducer<>(false, null, new StringSerializer(), new ByteArraySerializer());
+    private GroupCommitSender sender;
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null) {
+            sender.close();
+        }
+        producer.close();
+    }
+
+    private static ProducerRecord<String, byte[]> record(String connectionId, String value) {
+        return new ProducerRecord<>("topic", connectionId, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (producer.history().size() < count) {
+            Assertions.assertTrue(System.nanoTime() < deadline,
+                "expected " + count + " records sent but saw " + producer.history().size());
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void recordIsSentImmediatelyWhenNothingIsInFlight() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofSeconds(10), 1024 * 1024);
+
+        var future = sender.send(record("c1", "a"));
+        awaitSent(1);
+        Assertions.assertFalse(future.isDone());
+
+        producer.completeNext();
+        Assertions.assertNotNull(future.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void recordsArrivingWhileAGroupIsInFlightAreSentTogetherOnceItIsAcknowledged() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofSeconds(10), 1024 * 1024);
+
+        var first = sender.send(record("c1", "a"));
+        awaitSent(1);
+        var second = sender.send(record("c2", "b"));
+        var third = sender.send(record("c3", "c"));
+        Thread.sleep(100);
+        Assertions.assertEquals(1, producer.history().size());
+
+        producer.completeNext();
+        first.get(10, TimeUnit.SECONDS);
+        awaitSent(3);
+        Assertions.assertEquals("c2", producer.history().get(1).key());
+        Assertions.assertEquals("c3", producer.history().get(2).key());
+
+        producer.completeNext();
+        producer.completeNext();
+        second.get(10, TimeUnit.SECONDS);
+        third.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void groupIsSentEarlyOnceMaxGroupBytesAreWaiting() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofSeconds(10), 10);
+
+        sender.send(record("c1", "a"));
+        awaitSent(1);
+        sender.send(record("c2", "123456"));
+        Thread.sleep(100);
+        Assertions.assertEquals(1, producer.history().size());
+
+        sender.send(record("c3", "123456"));
+        awaitSent(3);
+    }
+
+    @Test
+    void noRecordWaitsLongerThanMaxWait() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofMillis(50), 1024 * 1024);
+
+        sender.send(record("c1", "a"));
+        awaitSent(1);
+        sender.send(record("c2", "b"));
+        awaitSent(2);
+        Assertions.assertEquals(0, producer.completions().size());
+    }
+
+    @Test
+    void aFailedSendOnlyFailsItsOwnRecord() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofSeconds(10), 1024 * 1024);
+
+        var first = sender.send(record("c1", "a"));
+        awaitSent(1);
+        var second = sender.send(record("c2", "b"));
+        var third = sender.send(record("c3", "c"));
+        producer.completeNext();
+        first.get(10, TimeUnit.SECONDS);
+        awaitSent(3);
+
+        producer.errorNext(new RuntimeException("boom"));
+        producer.completeNext();
+        Assertions.assertTrue(second.isCompletedExceptionally());
+        Assertions.assertNotNull(third.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closeHandsQueuedRecordsToTheProducer() throws Exception {
+        sender = new GroupCommitSender(producer, Duration.ofSeconds(10), 1024 * 1024);
+
+        var first = sender.send(record("c1", "a"));
+        awaitSent(1);
+        var second = sender.send(record("c2", "b"));
+        sender.close();
+        Assertions.assertEquals(2, producer.history().size());
+
+        var third = sender.send(record("c3", "c"));
+        Assertions.assertEquals(3, producer.history().size());
+
+        producer.completeNext();
+        producer.completeNext();
+        producer.completeNext();
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        third.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new GroupCommitSender(producer, Duration.ZERO, 1024));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new GroupCommitSender(producer, Duration.ofMillis(5), 0));
+    }
+}
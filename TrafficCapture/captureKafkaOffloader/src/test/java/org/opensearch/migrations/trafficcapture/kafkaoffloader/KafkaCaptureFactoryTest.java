@@ -3,6 +3,7 @@ package org.opensearch.migrations.trafficcapture.kafkaoffloader;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +17,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
+import org.opensearch.migrations.trafficcapture.IChannelConnectionCaptureSerializer;
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.tracing.TestRootKafkaOffloaderContext;
 import org.opensearch.migrations.trafficcapture.tracing.ConnectionContext;
 
@@ -475,6 +477,61 @@ public class KafkaCaptureFactoryTest {
         producer.close();
     }
 
+    @Test
+    public void testOnlyFlushesARequestWaitsOnAreGroupedAndCloseSendsTheRest() throws Exception {
+        final var referenceTimestamp = Instant.now(Clock.systemUTC());
+
+        MockProducer<String, byte[]> producer = new MockProducer<>(
+            false, null, new StringSerializer(), new ByteArraySerializer()
+        );
+        KafkaCaptureFactory kafkaCaptureFactory = new KafkaCaptureFactory(
+            TestRootKafkaOffloaderContext.noTracking(),
+            TEST_NODE_ID_STRING,
+            producer,
+            topic,
+            1024 * 1024,
+            Duration.ofSeconds(10),
+            1024 * 1024
+        );
+        var offloaders = new ArrayList<IChannelConnectionCaptureSerializer<RecordMetadata>>();
+        for (var connection : List.of("conn-waiting-1", "conn-waiting-2", "conn-async")) {
+            var offloader = kafkaCaptureFactory.createOffloader(
+                new ConnectionContext(new TestRootKafkaOffloaderContext(), connection, "node1"));
+            var bb = Unpooled.wrappedBuffer("payload".getBytes(StandardCharsets.UTF_8));
+            offloader.addReadEvent(referenceTimestamp, bb);
+            bb.release();
+            offloaders.add(offloader);
+        }
+
+        var first = offloaders.get(0).flushCommitAndResetStream(false, true);
+        awaitHistorySize(producer, 1);
+        // joins a group behind the first record, which is still unacknowledged
+        var second = offloaders.get(1).flushCommitAndResetStream(false, true);
+        // nothing waits on this one, so it doesn't wait for a group either
+        var third = offloaders.get(2).flushCommitAndResetStream(false);
+        awaitHistorySize(producer, 2);
+        Assertions.assertEquals("conn-async", producer.history().get(1).key());
+
+        kafkaCaptureFactory.close();
+        Assertions.assertEquals(3, producer.history().size());
+        Assertions.assertEquals("conn-waiting-2", producer.history().get(2).key());
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        third.get(10, TimeUnit.SECONDS);
+
+        producer.close();
+    }
+
+    @SneakyThrows
+    private static void awaitHistorySize(MockProducer<String, byte[]> producer, int size) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (producer.history().size() < size) {
+            Assertions.assertTrue(System.nanoTime() < deadline,
+                "expected " + size + " records sent but saw " + producer.history().size());
+            Thread.sleep(5);
+        }
+    }
+
     @Test
     public void testNullConnectionIdFailsFastAtCreation() {
         MockProducer<String, byte[]> producer = new MockProducer<>(
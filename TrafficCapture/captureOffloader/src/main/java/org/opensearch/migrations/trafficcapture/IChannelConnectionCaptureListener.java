@@ -22,6 +22,21 @@ public interface IChannelConnectionCaptureListener<T> {
 
     default void addWriteEvent(Instant timestamp, ByteBuf buffer) throws IOException {}
 
+    /**
+     * Records that the rest of the current response was written but not captured.
+     *
+     * @param capturedBodyByteLength how many body bytes were captured (via write events) before eliding
+     * @param elidedByteLength how many bytes of the response were not captured
+     * @param crc32c a CRC32C of the elided bytes, or null if they weren't fingerprinted
+     * @throws IOException
+     */
+    default void addWriteElidedEvent(
+        Instant timestamp,
+        long capturedBodyByteLength,
+        long elidedByteLength,
+        Integer crc32c
+    ) throws IOException {}
+
     default void addFlushEvent(Instant timestamp) throws IOException {}
 
     default void addChannelRegisteredEvent(Instant timestamp) throws IOException {}
@@ -59,5 +74,14 @@ public interface IChannelConnectionCaptureListener<T> {
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Like {@link #flushCommitAndResetStream(boolean)}, where {@code requestIsWaiting} says whether the request
+     * is being held back until the returned future completes.
+     */
+    default CompletableFuture<T> flushCommitAndResetStream(boolean isFinal, boolean requestIsWaiting)
+        throws IOException {
+        return flushCommitAndResetStream(isFinal);
+    }
+
     default void cancelCaptureForCurrentRequest(Instant timestamp) throws IOException {}
 }
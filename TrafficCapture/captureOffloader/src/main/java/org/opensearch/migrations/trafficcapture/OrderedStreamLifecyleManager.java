@@ -6,9 +6,29 @@ public abstract class OrderedStreamLifecyleManager<T> implements StreamLifecycle
     CompletableFuture<T> futureForLastClose = CompletableFuture.completedFuture(null);
 
     public CompletableFuture<T> closeStream(CodedOutputStreamHolder outputStreamHolder, int index) {
-        futureForLastClose = futureForLastClose.thenCompose(v -> kickoffCloseStream(outputStreamHolder, index));
+        return closeStream(outputStreamHolder, index, false);
+    }
+
+    @Override
+    public CompletableFuture<T> closeStream(
+        CodedOutputStreamHolder outputStreamHolder,
+        int index,
+        boolean requestIsWaiting
+    ) {
+        futureForLastClose = futureForLastClose.thenCompose(
+            v -> kickoffCloseStream(outputStreamHolder, index, requestIsWaiting)
+        );
         return futureForLastClose;
     }
 
     protected abstract CompletableFuture<T> kickoffCloseStream(CodedOutputStreamHolder outputStreamHolder, int index);
+
+    /** Override to treat streams that a request is waiting on differently from the rest. */
+    protected CompletableFuture<T> kickoffCloseStream(
+        CodedOutputStreamHolder outputStreamHolder,
+        int index,
+        boolean requestIsWaiting
+    ) {
+        return kickoffCloseStream(outputStreamHolder, index);
+    }
 }
@@ -18,6 +18,7 @@ import org.opensearch.migrations.trafficcapture.protos.ReadSegmentObservation;
 import org.opensearch.migrations.trafficcapture.protos.RequestIntentionallyDropped;
 import org.opensearch.migrations.trafficcapture.protos.TrafficObservation;
 import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+import org.opensearch.migrations.trafficcapture.protos.WriteElidedObservation;
 import org.opensearch.migrations.trafficcapture.protos.WriteObservation;
 import org.opensearch.migrations.trafficcapture.protos.WriteSegmentObservation;
 
@@ -297,6 +298,12 @@ public class StreamChannelConnectionCaptureSerializer<T> implements IChannelConn
 
     @Override
     public CompletableFuture<T> flushCommitAndResetStream(boolean isFinal) throws IOException {
+        return flushCommitAndResetStream(isFinal, false);
+    }
+
+    @Override
+    public CompletableFuture<T> flushCommitAndResetStream(boolean isFinal, boolean requestIsWaiting)
+        throws IOException {
         if (streamHasBeenClosed || (currentCodedOutputStreamHolderOrNull == null && !isFinal)) {
             return CompletableFuture.completedFuture(null);
         }
@@ -311,7 +318,11 @@ public class StreamChannelConnectionCaptureSerializer<T> implements IChannelConn
             currentStream.flush();
             assert currentStream == currentCodedOutputStreamHolderOrNull.getOutputStream() : "Expected the stream that "
                 + "is being finalized to be the same stream contained by currentCodedOutputStreamHolderOrNull";
-            return streamManager.closeStream(currentCodedOutputStreamHolderOrNull, numFlushesSoFar);
+            return streamManager.closeStream(
+                currentCodedOutputStreamHolderOrNull,
+                numFlushesSoFar,
+                requestIsWaiting
+            );
         } finally {
             currentCodedOutputStreamHolderOrNull = null;
             if (isFinal) {
@@ -493,6 +504,28 @@ public class StreamChannelConnectionCaptureSerializer<T> implements IChannelConn
         addDataMessage(TrafficObservation.WRITE_FIELD_NUMBER, WriteObservation.DATA_FIELD_NUMBER, timestamp, buffer);
     }
 
+    @Override
+    public void addWriteElidedEvent(
+        Instant timestamp,
+        long capturedBodyByteLength,
+        long elidedByteLength,
+        Integer crc32c
+    ) throws IOException {
+        var builder = WriteElidedObservation.newBuilder()
+            .setCapturedBodyByteLength(capturedBodyByteLength)
+            .setElidedByteLength(elidedByteLength);
+        if (crc32c != null) {
+            builder.setCrc32C(crc32c);
+        }
+        var observation = builder.build();
+        beginSubstreamObservation(
+            timestamp,
+            TrafficObservation.WRITEELIDED_FIELD_NUMBER,
+            CodedOutputStream.computeMessageSizeNoTag(observation)
+        );
+        getOrCreateCodedOutputStream().writeMessage(TrafficObservation.WRITEELIDED_FIELD_NUMBER, observation);
+    }
+
     @Override
     public void addFlushEvent(Instant timestamp) throws IOException {
         // not implemented for this serializer. The v1.0 version of the replayer will ignore this type of observation
@@ -6,4 +6,16 @@ public interface StreamLifecycleManager<T> {
     CodedOutputStreamHolder createStream();
 
     CompletableFuture<T> closeStream(CodedOutputStreamHolder outputStreamHolder, int index);
+
+    /**
+     * Like {@link #closeStream(CodedOutputStreamHolder, int)}, where {@code requestIsWaiting} says whether a
+     * request is being held back until the returned future completes.
+     */
+    default CompletableFuture<T> closeStream(
+        CodedOutputStreamHolder outputStreamHolder,
+        int index,
+        boolean requestIsWaiting
+    ) {
+        return closeStream(outputStreamHolder, index);
+    }
 }
@@ -25,7 +25,21 @@ public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandl
         @NonNull RequestCapturePredicate requestCapturePredicate,
         @NonNull Predicate<HttpRequest> headerPredicateForWhenToBlock
     ) throws IOException {
-        super(rootContext, nodeId, connectionId, trafficOffloaderFactory, requestCapturePredicate);
+        this(rootContext, nodeId, connectionId, trafficOffloaderFactory, requestCapturePredicate,
+            headerPredicateForWhenToBlock, ResponseCapturePolicy.CAPTURE_ALL);
+    }
+
+    public ConditionallyReliableLoggingHttpHandler(
+        @NonNull IRootWireLoggingContext rootContext,
+        @NonNull String nodeId,
+        String connectionId,
+        @NonNull IConnectionCaptureFactory<T> trafficOffloaderFactory,
+        @NonNull RequestCapturePredicate requestCapturePredicate,
+        @NonNull Predicate<HttpRequest> headerPredicateForWhenToBlock,
+        @NonNull ResponseCapturePolicy responseCapturePolicy
+    ) throws IOException {
+        super(rootContext, nodeId, connectionId, trafficOffloaderFactory, requestCapturePredicate,
+            responseCapturePolicy);
         this.shouldBlockPredicate = headerPredicateForWhenToBlock;
     }
 
@@ -39,7 +53,7 @@ public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandl
         if (shouldCapture && shouldBlockPredicate.test(httpRequest)) {
             ((IWireCaptureContexts.IRequestContext) messageContext).onBlockingRequest();
             messageContext = messageContext.createBlockingContext();
-            trafficOffloader.flushCommitAndResetStream(false).whenComplete((result, t) -> {
+            trafficOffloader.flushCommitAndResetStream(false, true).whenComplete((result, t) -> {
                 log.atInfo().setMessage("Done flushing").log();
 
                 if (t != null) {
@@ -139,6 +139,11 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
 
     protected IWireCaptureContexts.IHttpMessageContext messageContext;
 
+    private final ResponseCapturePolicy responseCapturePolicy;
+
+    /** Non-null while the response being written has a policy that may elide some of its body. */
+    private ResponseBodyElider responseBodyElider;
+
     public LoggingHttpHandler(
         @NonNull IRootWireLoggingContext rootContext,
         String nodeId,
@@ -146,6 +151,19 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
         @NonNull IConnectionCaptureFactory<T> trafficOffloaderFactory,
         @NonNull RequestCapturePredicate httpHeadersCapturePredicate
     ) throws IOException {
+        this(rootContext, nodeId, channelKey, trafficOffloaderFactory, httpHeadersCapturePredicate,
+            ResponseCapturePolicy.CAPTURE_ALL);
+    }
+
+    public LoggingHttpHandler(
+        @NonNull IRootWireLoggingContext rootContext,
+        String nodeId,
+        String channelKey,
+        @NonNull IConnectionCaptureFactory<T> trafficOffloaderFactory,
+        @NonNull RequestCapturePredicate httpHeadersCapturePredicate,
+        @NonNull ResponseCapturePolicy responseCapturePolicy
+    ) throws IOException {
+        this.responseCapturePolicy = responseCapturePolicy;
         var parentContext = rootContext.createConnectionContext(channelKey, nodeId);
         this.messageContext = parentContext.createInitialRequestContext();
 
@@ -167,7 +185,9 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
 
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
-        trafficOffloader.addCloseEvent(Instant.now());
+        var timestamp = Instant.now();
+        commitElidedResponseBytes(timestamp);
+        trafficOffloader.addCloseEvent(timestamp);
         getConnectionContext().onUnregistered();
         trafficOffloader.flushCommitAndResetStream(true).whenComplete((result, t) -> {
             if (t != null) {
@@ -231,6 +251,7 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
         }
 
         var timestamp = Instant.now();
+        commitElidedResponseBytes(timestamp);
         var requestParsingHandler = getHandlerThatHoldsParsedHttpRequest();
         var bb = ((ByteBuf) msg);
         httpDecoderChannel.writeInbound(bb.retainedDuplicate()); // the ByteBuf is consumed/release by this method
@@ -268,6 +289,7 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
                         .log();
                 }
                 trafficOffloader.commitEndOfHttpMessageIndicator(timestamp);
+                responseBodyElider = responseCapturePolicy.eliderFor(httpRequest);
             }
             channelFinishedReadingAnHttpMessage(ctx, msg, shouldCapture, httpRequest);
         } else {
@@ -286,13 +308,33 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
 
         var bb = (ByteBuf) msg;
         if (getHandlerThatHoldsParsedHttpRequest().captureState.shouldCapture()) {
-            trafficOffloader.addWriteEvent(Instant.now(), bb);
+            var bytesToCapture = responseBodyElider == null ? bb : responseBodyElider.sliceToCapture(bb);
+            if (bytesToCapture.isReadable() || bytesToCapture == bb) {
+                trafficOffloader.addWriteEvent(Instant.now(), bytesToCapture);
+            }
         }
         responseContext.onBytesWritten(bb.readableBytes());
 
         super.write(ctx, msg, promise);
     }
 
+    /**
+     * Called once the response that the elider was following is over (the next request has started or the
+     * connection is closing) to record what wasn't captured from it.
+     */
+    private void commitElidedResponseBytes(Instant timestamp) throws IOException {
+        var elider = responseBodyElider;
+        responseBodyElider = null;
+        if (elider != null && elider.hasElidedBytes()) {
+            trafficOffloader.addWriteElidedEvent(
+                timestamp,
+                elider.getCapturedBodyBytes(),
+                elider.getElidedBytes(),
+                elider.getCrc32c()
+            );
+        }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         trafficOffloader.addExceptionCaughtEvent(Instant.now(), cause);
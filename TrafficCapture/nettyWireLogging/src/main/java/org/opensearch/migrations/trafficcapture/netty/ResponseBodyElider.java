@@ -0,0 +1,73 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.util.zip.CRC32C;
+
+import io.netty.buffer.ByteBuf;
+import lombok.Getter;
+
+/**
+ * Follows the bytes of one response as they're written and picks out which of them to capture: all
+ * of the headers (up to and including the blank line) and then at most {@code maxBodyBytes} of what
+ * follows.  Everything after that is only counted and, when fingerprinting, fed to a CRC32C.  The body
+ * is taken as the raw bytes after the headers, so a chunked response's chunk framing is included.
+ */
+class ResponseBodyElider {
+    private static final int HEADER_TERMINATOR_LENGTH = 4; // CR LF CR LF
+
+    private final long maxBodyBytes;
+    private final CRC32C crc32c;
+    private int headerTerminatorBytesMatched;
+    @Getter
+    private long capturedBodyBytes;
+    @Getter
+    private long elidedBytes;
+
+    ResponseBodyElider(long maxBodyBytes, boolean fingerprint) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.crc32c = fingerprint ? new CRC32C() : null;
+    }
+
+    /**
+     * @return the part of {@code buf} to capture, which is {@code buf} itself when nothing is elided from it
+     * and may be empty.  The returned buffer shares {@code buf}'s content and reference count.
+     */
+    ByteBuf sliceToCapture(ByteBuf buf) {
+        final int start = buf.readerIndex();
+        final int end = buf.writerIndex();
+        int bodyStart = start;
+        while (headerTerminatorBytesMatched < HEADER_TERMINATOR_LENGTH && bodyStart < end) {
+            advanceHeaderTerminatorMatch(buf.getByte(bodyStart++));
+        }
+        int bytesToKeep = (int) Math.min(end - bodyStart, maxBodyBytes - capturedBodyBytes);
+        capturedBodyBytes += bytesToKeep;
+        int elideFrom = bodyStart + bytesToKeep;
+        if (elideFrom == end) {
+            return buf;
+        }
+        elidedBytes += end - elideFrom;
+        if (crc32c != null) {
+            for (var nioBuffer : buf.nioBuffers(elideFrom, end - elideFrom)) {
+                crc32c.update(nioBuffer);
+            }
+        }
+        return buf.slice(start, elideFrom - start);
+    }
+
+    private void advanceHeaderTerminatorMatch(byte b) {
+        var expected = (headerTerminatorBytesMatched % 2 == 0) ? '\r' : '\n';
+        if (b == expected) {
+            headerTerminatorBytesMatched++;
+        } else {
+            headerTerminatorBytesMatched = (b == '\r') ? 1 : 0;
+        }
+    }
+
+    boolean hasElidedBytes() {
+        return elidedBytes > 0;
+    }
+
+    /** The CRC32C of the elided bytes, or null when this elider doesn't fingerprint. */
+    Integer getCrc32c() {
+        return crc32c == null ? null : (int) crc32c.getValue();
+    }
+}
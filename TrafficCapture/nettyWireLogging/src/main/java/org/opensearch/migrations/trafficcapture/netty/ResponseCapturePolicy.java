@@ -0,0 +1,111 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import io.netty.handler.codec.http.HttpRequest;
+
+/**
+ * Decides how much of each response body is captured, by matching the request's "METHOD path"
+ * against an ordered list of rules.  The first matching rule wins and unmatched responses are
+ * captured in full.  Headers are always captured; a rule either keeps the body, keeps only its
+ * first N bytes ({@code truncate:N}) or keeps its first N bytes plus a length and CRC32C of the
+ * rest ({@code fingerprint} or {@code fingerprint:N}).  A rule may end with {@code @rate} so that
+ * that fraction of its matching responses are captured in full anyway, e.g.
+ * {@code truncate:4096@0.01}.
+ */
+public class ResponseCapturePolicy {
+    public static final ResponseCapturePolicy CAPTURE_ALL = new ResponseCapturePolicy(List.of());
+
+    private static final String FULL = "full";
+    private static final String TRUNCATE = "truncate";
+    private static final String FINGERPRINT = "fingerprint";
+
+    private record Rule(Pattern methodAndPath, long maxBodyBytes, boolean fingerprint, double fullCaptureRate) {}
+
+    private final List<Rule> rules;
+
+    private ResponseCapturePolicy(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * @param methodAndPathRegexToPolicy ordered map of "METHOD path" regexes to policy strings
+     * @throws IllegalArgumentException if a policy string can't be parsed
+     */
+    public static ResponseCapturePolicy parse(Map<String, String> methodAndPathRegexToPolicy) {
+        var rules = new ArrayList<Rule>();
+        for (var kvp : methodAndPathRegexToPolicy.entrySet()) {
+            rules.add(parseRule(Pattern.compile(kvp.getKey()), kvp.getValue()));
+        }
+        return new ResponseCapturePolicy(List.copyOf(rules));
+    }
+
+    private static Rule parseRule(Pattern methodAndPath, String policy) {
+        var policyAndRate = policy.trim().split("@", 2);
+        double fullCaptureRate = 0;
+        if (policyAndRate.length == 2) {
+            fullCaptureRate = parseNumber(policy, policyAndRate[1], Double::parseDouble);
+            if (!(fullCaptureRate >= 0 && fullCaptureRate <= 1)) {
+                throw new IllegalArgumentException("Sample rate in response capture policy '" + policy
+                    + "' must be between 0 and 1");
+            }
+        }
+        var modeAndSize = policyAndRate[0].split(":", 2);
+        var mode = modeAndSize[0].toLowerCase();
+        long maxBodyBytes = modeAndSize.length == 2 ? parseNumber(policy, modeAndSize[1], Long::parseLong) : 0;
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("Byte count in response capture policy '" + policy
+                + "' must not be negative");
+        }
+        switch (mode) {
+            case FULL:
+                return new Rule(methodAndPath, Long.MAX_VALUE, false, 1);
+            case TRUNCATE:
+                if (modeAndSize.length != 2) {
+                    throw new IllegalArgumentException("Response capture policy '" + policy
+                        + "' must specify how many body bytes to keep, e.g. truncate:4096");
+                }
+                return new Rule(methodAndPath, maxBodyBytes, false, fullCaptureRate);
+            case FINGERPRINT:
+                return new Rule(methodAndPath, maxBodyBytes, true, fullCaptureRate);
+            default:
+                throw new IllegalArgumentException("Unknown response capture policy '" + policy
+                    + "'.  Expected one of full, truncate:<bytes> or fingerprint[:<bytes>], "
+                    + "optionally followed by @<fullCaptureSampleRate>");
+        }
+    }
+
+    private static <N> N parseNumber(String policy, String value, Function<String, N> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Couldn't parse '" + value + "' in response capture policy '"
+                + policy + "'", e);
+        }
+    }
+
+    /**
+     * @return the elider to run over the response to {@code request}, or null to capture it in full
+     */
+    ResponseBodyElider eliderFor(HttpRequest request) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        var methodAndPath = request.method().name() + " " + request.uri();
+        for (var rule : rules) {
+            if (rule.methodAndPath.matcher(methodAndPath).matches()) {
+                if (rule.maxBodyBytes == Long.MAX_VALUE
+                    || (rule.fullCaptureRate > 0 && ThreadLocalRandom.current().nextDouble() < rule.fullCaptureRate)) {
+                    return null;
+                }
+                return new ResponseBodyElider(rule.maxBodyBytes, rule.fingerprint);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,187 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32C;
+
+import org.opensearch.migrations.trafficcapture.CodedOutputStreamAndByteBufferWrapper;
+import org.opensearch.migrations.trafficcapture.CodedOutputStreamHolder;
+import org.opensearch.migrations.trafficcapture.OrderedStreamLifecyleManager;
+import org.opensearch.migrations.trafficcapture.StreamChannelConnectionCaptureSerializer;
+import org.opensearch.migrations.trafficcapture.protos.TrafficObservation;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@Slf4j
+public class ResponseCapturePolicyTest {
+    private static final String RESPONSE_HEADERS = "HTTP/1.1 200 OK\r\n"
+        + "Content-Type: application/json\r\n"
+        + "Content-Length: %d\r\n"
+        + "\r\n";
+    private static final String GET_SEARCH = "GET /index/_search HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private static ByteBuf utf8(String s) {
+        return Unpooled.wrappedBuffer(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String captured(ResponseBodyElider elider, String... packets) {
+        var sb = new StringBuilder();
+        for (var packet : packets) {
+            sb.append(elider.sliceToCapture(utf8(packet)).toString(StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private static ResponseBodyElider eliderFor(String policy, String methodAndPath) {
+        var parts = methodAndPath.split(" ", 2);
+        return ResponseCapturePolicy.parse(Map.of(".*", policy))
+            .eliderFor(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.valueOf(parts[0]), parts[1]));
+    }
+
+    @Test
+    void truncateKeepsHeadersAndTheFirstBodyBytes() {
+        var elider = eliderFor("truncate:4", "GET /");
+        // the blank line that ends the headers is split across packets
+        var result = captured(elider, "HTTP/1.1 200 OK\r\nA: b\r", "\n\r", "\nabcdefgh", "ijk");
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\nA: b\r\n\r\nabcd", result);
+        Assertions.assertEquals(4, elider.getCapturedBodyBytes());
+        Assertions.assertEquals(7, elider.getElidedBytes());
+        Assertions.assertNull(elider.getCrc32c());
+    }
+
+    @Test
+    void fingerprintIsTheCrc32cOfTheElidedBytes() {
+        var elider = eliderFor("fingerprint", "GET /");
+        var result = captured(elider, "HTTP/1.1 200 OK\r\n\r\n{\"a\":", "1}");
+        Assertions.assertEquals("HTTP/1.1 200 OK\r\n\r\n", result);
+        var crc = new CRC32C();
+        crc.update("{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals((int) crc.getValue(), elider.getCrc32c());
+        Assertions.assertEquals(7, elider.getElidedBytes());
+    }
+
+    @Test
+    void firstMatchingRuleWinsAndOtherResponsesAreCapturedInFull() {
+        var rules = new LinkedHashMap<String, String>();
+        rules.put("GET /_cat/.*", "full");
+        rules.put("GET .*", "truncate:10");
+        var policy = ResponseCapturePolicy.parse(rules);
+        Assertions.assertNull(policy.eliderFor(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/_cat/indices")));
+        Assertions.assertNotNull(policy.eliderFor(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/a/_search")));
+        Assertions.assertNull(policy.eliderFor(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.PUT, "/a/_doc/1")));
+        Assertions.assertNull(eliderFor("truncate:10@1", "GET /"));
+    }
+
+    @Test
+    void invalidPoliciesAreRejected() {
+        for (var policy : List.of("truncate", "truncate:x", "fingerprint:-1", "sample", "truncate:1@2")) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ResponseCapturePolicy.parse(Map.of(".*", policy)), policy);
+        }
+    }
+
+    /**
+     * Runs many search round trips with large responses through the handler and compares how many bytes
+     * end up in the capture stream with and without a fingerprint policy.  This stands in for the bytes
+     * that would have been sent to Kafka.
+     */
+    @Test
+    void fingerprintPolicyShrinksTheCaptureStream() throws Exception {
+        var body = "x".repeat(256 * 1024);
+        var response = String.format(RESPONSE_HEADERS, body.length()) + body;
+        int roundTrips = 50;
+
+        var fullCapture = captureRoundTrips(ResponseCapturePolicy.CAPTURE_ALL, response, roundTrips);
+        var fingerprinted = captureRoundTrips(
+            ResponseCapturePolicy.parse(Map.of("GET .*_search.*", "fingerprint:128")), response, roundTrips);
+        log.atInfo().setMessage("Captured {} bytes in {}ms with full responses and {} bytes in {}ms with "
+                + "fingerprinted responses ({}x fewer bytes)")
+            .addArgument(fullCapture.bytes)
+            .addArgument(fullCapture.millis)
+            .addArgument(fingerprinted.bytes)
+            .addArgument(fingerprinted.millis)
+            .addArgument(() -> fullCapture.bytes / fingerprinted.bytes)
+            .log();
+
+        Assertions.assertTrue(fingerprinted.bytes * 100 < fullCapture.bytes);
+        var elided = fingerprinted.observations.stream()
+            .filter(TrafficObservation::hasWriteElided)
+            .map(TrafficObservation::getWriteElided)
+            .toList();
+        Assertions.assertEquals(roundTrips, elided.size());
+        var crc = new CRC32C();
+        crc.update(body.substring(128).getBytes(StandardCharsets.UTF_8));
+        for (var e : elided) {
+            Assertions.assertEquals(128, e.getCapturedBodyByteLength());
+            Assertions.assertEquals(body.length() - 128, e.getElidedByteLength());
+            Assertions.assertEquals((int) crc.getValue(), e.getCrc32C());
+        }
+        Assertions.assertTrue(fullCapture.observations.stream().noneMatch(TrafficObservation::hasWriteElided));
+    }
+
+    private record CaptureResult(long bytes, long millis, List<TrafficObservation> observations) {}
+
+    private static CaptureResult captureRoundTrips(ResponseCapturePolicy policy, String response, int roundTrips)
+        throws Exception {
+        try (var rootContext = new TestRootContext()) {
+            var streamManager = new CollectingStreamManager();
+            var offloader = new StreamChannelConnectionCaptureSerializer<>("Test", "c", streamManager);
+            var channel = new EmbeddedChannel(
+                new LoggingHttpHandler<>(rootContext, "n", "c", ctx -> offloader, new RequestCapturePredicate(), policy)
+            );
+            var responseBytes = response.getBytes(StandardCharsets.UTF_8);
+            long start = System.nanoTime();
+            for (int i = 0; i < roundTrips; i++) {
+                channel.writeInbound(utf8(GET_SEARCH));
+                for (int offset = 0; offset < responseBytes.length; offset += 16 * 1024) {
+                    int length = Math.min(16 * 1024, responseBytes.length - offset);
+                    channel.writeOutbound(Unpooled.wrappedBuffer(responseBytes, offset, length));
+                }
+            }
+            channel.close();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            channel.finishAndReleaseAll();
+
+            long bytes = 0;
+            var observations = new ArrayList<TrafficObservation>();
+            for (var buffer : streamManager.flushedStreams) {
+                bytes += buffer.remaining();
+                observations.addAll(TrafficStream.parseFrom(buffer).getSubStreamList());
+            }
+            return new CaptureResult(bytes, millis, observations);
+        }
+    }
+
+    private static class CollectingStreamManager extends OrderedStreamLifecyleManager<Object> {
+        final List<ByteBuffer> flushedStreams = new ArrayList<>();
+
+        @Override
+        public CodedOutputStreamAndByteBufferWrapper createStream() {
+            return new CodedOutputStreamAndByteBufferWrapper(1024 * 1024);
+        }
+
+        @SneakyThrows
+        @Override
+        public CompletableFuture<Object> kickoffCloseStream(CodedOutputStreamHolder outputStreamHolder, int index) {
+            var osh = (CodedOutputStreamAndByteBufferWrapper) outputStreamHolder;
+            osh.getOutputStream().flush();
+            flushedStreams.add(osh.getByteBuffer().flip().asReadOnlyBuffer());
+            return CompletableFuture.completedFuture(index);
+        }
+    }
+}
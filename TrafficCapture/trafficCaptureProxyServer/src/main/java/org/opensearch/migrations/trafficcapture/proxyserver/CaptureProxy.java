@@ -38,6 +38,7 @@ import org.opensearch.migrations.trafficcapture.kafkaoffloader.KafkaConfig;
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.KafkaConfig.KafkaParameters;
 import org.opensearch.migrations.trafficcapture.netty.HeaderValueFilteringCapturePredicate;
 import org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate;
+import org.opensearch.migrations.trafficcapture.netty.ResponseCapturePolicy;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.BacksideConnectionPool;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.HeaderAdderHandler;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.HeaderRemoverHandler;
@@ -194,11 +195,34 @@ public class CaptureProxy {
                 "E.g. '(.* /ephemeral/*|GET /_cat/.*)' to ignore capturing all traffic for '/ephemeral' AND " +
                 "all GET requests to /_cat/.*")
         public String suppressMethodAndPath;
+        @Parameter(required = false,
+            names = "--responseCapturePolicy",
+            splitter = NoSplitter.class,
+            arity = 2,
+            description = "[method-and-path-regex policy] How much of the body to capture for responses to requests "
+                + "whose 'METHOD path' matches the regex.  Headers are always captured.  The policy is 'full', "
+                + "'truncate:<bytes>' to keep only the first bytes of the body, or 'fingerprint[:<bytes>]' to also "
+                + "record the length and CRC32C of the rest.  Append '@<rate>' to capture that fraction of matching "
+                + "responses in full anyway.  May be repeated; the first matching regex wins and other responses "
+                + "are captured in full.  E.g. 'GET /.*_search.*' 'truncate:4096@0.01'")
+        public List<String> responseCapturePolicies = new ArrayList<>();
         @Parameter(required = false,
             names = { "--kafkaTopic" },
             arity = 1,
             description = "Name of the topic to write captured traffic to.")
         public String kafakTopicName = KafkaCaptureFactory.DEFAULT_TOPIC_NAME_FOR_TRAFFIC;
+        @Parameter(required = false,
+            names = { "--kafkaGroupCommitMaxWaitMillis" },
+            arity = 1,
+            description = "When greater than 0, Kafka records that blocking requests are held back on and that are "
+                + "flushed while earlier ones are still being acknowledged are sent together as a group.  This is "
+                + "the longest that such a record will wait to join a group.  Default: 0 (disabled)")
+        public int kafkaGroupCommitMaxWaitMillis = 0;
+        @Parameter(required = false,
+            names = { "--kafkaGroupCommitMaxBytes" },
+            arity = 1,
+            description = "When group commit is enabled, send a group as soon as this many bytes are waiting.")
+        public int kafkaGroupCommitMaxBytes = 1024 * 1024;
         @ParametersDelegate
         public KafkaParameters kafkaParameters = new KafkaParameters();
     }
@@ -275,12 +299,17 @@ public class CaptureProxy {
         if (params.traceDirectory != null) {
             return new FileConnectionCaptureFactory(nodeId, params.traceDirectory, params.maximumTrafficStreamSize);
         } else if (params.kafkaParameters.kafkaBrokers != null) {
+            var producer = new KafkaProducer<String, byte[]>(KafkaConfig.buildKafkaProperties(params.kafkaParameters));
             return new KafkaCaptureFactory(
                 rootContext,
                 nodeId,
-                new KafkaProducer<>(KafkaConfig.buildKafkaProperties(params.kafkaParameters)),
+                producer,
                 params.kafakTopicName,
-                params.maximumTrafficStreamSize
+                params.maximumTrafficStreamSize,
+                params.kafkaGroupCommitMaxWaitMillis > 0
+                    ? Duration.ofMillis(params.kafkaGroupCommitMaxWaitMillis)
+                    : null,
+                params.kafkaGroupCommitMaxBytes
             );
         } else if (params.noCapture) {
             return getNullConnectionCaptureFactory();
@@ -414,6 +443,7 @@ public class CaptureProxy {
 
         var sslEngineSupplier = buildSslEngineSupplier(params);
         var proxy = new NettyScanningHttpProxy(params.frontsidePort);
+        final IConnectionCaptureFactory<?> connectionCaptureFactory;
         try {
             var pooledConnectionTimeout = params.destinationConnectionPoolSize == 0
                 ? Duration.ZERO
@@ -431,9 +461,10 @@ public class CaptureProxy {
                 .protocolPattern("HTTP/2.*")
                 .suppressCaptureHeaderPairs(convertPairListToMap(params.suppressCaptureHeaderPairs))
                 .build();
+            connectionCaptureFactory = getConnectionCaptureFactory(params, ctx);
             var proxyChannelInitializer =
                 buildProxyChannelInitializer(ctx, backsideConnectionPool, sslEngineSupplier, headerCapturePredicate,
-                    params.headerOverrides, getConnectionCaptureFactory(params, ctx));
+                    buildResponseCapturePolicy(params), params.headerOverrides, connectionCaptureFactory);
             proxy.start(proxyChannelInitializer, params.numThreads);
         } catch (Exception e) {
             log.atError().setCause(e).setMessage("Caught exception while setting up the server and rethrowing").log();
@@ -444,9 +475,15 @@ public class CaptureProxy {
                 System.err.println("Received shutdown signal.  Trying to shutdown cleanly");
                 proxy.stop();
                 System.err.println("Done stopping the proxy.");
+                if (connectionCaptureFactory instanceof AutoCloseable closeable) {
+                    closeable.close();
+                    System.err.println("Done closing the capture offloader.");
+                }
             } catch (InterruptedException e) {
                 System.err.println("Caught InterruptedException while shutting down, resetting interrupt status: " + e);
                 Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("Caught exception while closing the capture offloader: " + e);
             }
         }));
         // This loop just gives the main() function something to do while the netty event loops
@@ -454,11 +491,20 @@ public class CaptureProxy {
         proxy.waitForClose();
     }
 
+    static ResponseCapturePolicy buildResponseCapturePolicy(Parameters params) {
+        try {
+            return ResponseCapturePolicy.parse(convertPairListToMap(params.responseCapturePolicies));
+        } catch (IllegalArgumentException e) {
+            throw new ParameterException("Invalid --responseCapturePolicy: " + e.getMessage(), e);
+        }
+    }
+
     @SuppressWarnings("java:S4030") // Collections removeStrings and addBufs are incorrectly reported as being unused
     static <T> ProxyChannelInitializer<T> buildProxyChannelInitializer(RootCaptureContext rootContext,
                                                                 BacksideConnectionPool backsideConnectionPool,
                                                                 Supplier<SSLEngine> sslEngineSupplier,
                                                                 @NonNull RequestCapturePredicate headerCapturePredicate,
+                                                                @NonNull ResponseCapturePolicy responseCapturePolicy,
                                                                 List<String> headerOverridesArgs,
                                                                 IConnectionCaptureFactory<T> connectionFactory)
     {
@@ -480,7 +526,8 @@ public class CaptureProxy {
             backsideConnectionPool,
             sslEngineSupplier,
             connectionFactory,
-            headerCapturePredicate
+            headerCapturePredicate,
+            responseCapturePolicy
         ) {
             @Override
             protected void initChannel(@NonNull SocketChannel ch) throws IOException {
@@ -10,6 +10,7 @@ import java.util.function.Supplier;
 import org.opensearch.migrations.trafficcapture.IConnectionCaptureFactory;
 import org.opensearch.migrations.trafficcapture.netty.ConditionallyReliableLoggingHttpHandler;
 import org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate;
+import org.opensearch.migrations.trafficcapture.netty.ResponseCapturePolicy;
 import org.opensearch.migrations.trafficcapture.netty.tracing.IRootWireLoggingContext;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.UnauthenticatedClientLogDeduper.KnownEvent;
 
@@ -34,6 +35,7 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
     protected final IRootWireLoggingContext rootContext;
     protected final BacksideConnectionPool backsideConnectionPool;
     protected final RequestCapturePredicate requestCapturePredicate;
+    protected final ResponseCapturePolicy responseCapturePolicy;
     private final UnauthenticatedClientLogDeduper unauthenticatedClientLogDeduper;
 
     public ProxyChannelInitializer(
@@ -42,12 +44,25 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
         Supplier<SSLEngine> sslEngineSupplier,
         IConnectionCaptureFactory<T> connectionCaptureFactory,
         @NonNull RequestCapturePredicate requestCapturePredicate
+    ) {
+        this(rootContext, backsideConnectionPool, sslEngineSupplier, connectionCaptureFactory, requestCapturePredicate,
+            ResponseCapturePolicy.CAPTURE_ALL);
+    }
+
+    public ProxyChannelInitializer(
+        IRootWireLoggingContext rootContext,
+        BacksideConnectionPool backsideConnectionPool,
+        Supplier<SSLEngine> sslEngineSupplier,
+        IConnectionCaptureFactory<T> connectionCaptureFactory,
+        @NonNull RequestCapturePredicate requestCapturePredicate,
+        @NonNull ResponseCapturePolicy responseCapturePolicy
     ) {
         this.rootContext = rootContext;
         this.backsideConnectionPool = backsideConnectionPool;
         this.sslEngineProvider = sslEngineSupplier;
         this.connectionCaptureFactory = connectionCaptureFactory;
         this.requestCapturePredicate = requestCapturePredicate;
+        this.responseCapturePolicy = responseCapturePolicy;
         this.unauthenticatedClientLogDeduper =
             new UnauthenticatedClientLogDeduper(UNAUTHENTICATED_CLIENT_LOG_DEDUPE_WINDOW);
     }
@@ -77,7 +92,8 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
                     connectionId,
                     connectionCaptureFactory,
                     requestCapturePredicate,
-                    this::shouldGuaranteeMessageOffloading
+                    this::shouldGuaranteeMessageOffloading,
+                    responseCapturePolicy
                 )
             );
         ch.pipeline().addLast(new FrontsideHandler(backsideConnectionPool));
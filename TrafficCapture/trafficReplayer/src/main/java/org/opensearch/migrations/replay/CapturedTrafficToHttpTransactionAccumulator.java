@@ -10,6 +10,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.opensearch.migrations.Utils;
+import org.opensearch.migrations.replay.datatypes.ElidedResponseBody;
 import org.opensearch.migrations.replay.datatypes.ITrafficStreamKey;
 import org.opensearch.migrations.replay.kafka.TrafficSourceReaderInterruptedClose;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
@@ -480,7 +481,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             log.atTrace().setMessage("Adding request data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum).log();
-            rrPair.addRequestData(timestamp, observation.getRead().getData().toByteArray());
+            rrPair.addRequestData(timestamp, observation.getRead().getData());
             log.atTrace().setMessage("Added request data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum)
@@ -498,7 +499,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                 rrPair.requestData = new HttpMessageAndTimestamp.Request(timestamp);
                 requestCounter.incrementAndGet();
             }
-            rrPair.requestData.addSegment(observation.getReadSegment().getData().toByteArray());
+            rrPair.requestData.addSegment(observation.getReadSegment().getData());
             log.atTrace().setMessage("Added request segment for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum)
@@ -533,7 +534,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                 .addArgument(connectionId)
                 .addArgument(accum)
                 .log();
-            rrPair.addResponseData(timestamp, observation.getWrite().getData().toByteArray());
+            rrPair.addResponseData(timestamp, observation.getWrite().getData());
             log.atTrace().setMessage("Added response data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum)
@@ -547,7 +548,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             if (rrPair.responseData == null) {
                 rrPair.responseData = new HttpMessageAndTimestamp.Response(timestamp);
             }
-            rrPair.responseData.addSegment(observation.getWriteSegment().getData().toByteArray());
+            rrPair.responseData.addSegment(observation.getWriteSegment().getData());
             rrPair.responseData.setLastPacketTimestamp(timestamp);
             log.atTrace().setMessage("Added response segment for accum[{}]={}")
                 .addArgument(connectionId)
@@ -557,6 +558,11 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             var rrPair = accum.getRrPair();
             assert rrPair.responseData.hasInProgressSegment();
             rrPair.responseData.finalizeRequestSegments(timestamp);
+        } else if (observation.hasWriteElided()) {
+            var rrPair = accum.getRrPair();
+            if (rrPair.responseData != null) {
+                rrPair.responseData.setElidedBody(ElidedResponseBody.fromObservation(observation.getWriteElided()));
+            }
         } else if (observation.hasRead() || observation.hasReadSegment()) {
             rotateAccumulationOnReadIfNecessary(connectionId, accum);
             return handleObservationForReadState(accum, observation, trafficStreamKey, timestamp);
@@ -614,7 +620,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             .addArgument(accumulation.trafficChannelKey)
             .addArgument(accumulation::getIndexOfCurrentRequest)
             .addArgument(isResumedConnection)
-            .addArgument(() -> httpMessage.packetBytes.stream().mapToLong(b -> b.length).sum())
+            .addArgument(httpMessage.packetBytes::totalBytes)
             .log();
         var requestCtx = rrPair.getRequestContext();
         rrPair.rotateRequestGatheringToResponse();
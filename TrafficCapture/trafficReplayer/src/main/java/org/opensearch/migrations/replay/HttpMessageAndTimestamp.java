@@ -1,19 +1,17 @@
 package org.opensearch.migrations.replay;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.opensearch.migrations.replay.datatypes.ElidedResponseBody;
 import org.opensearch.migrations.replay.datatypes.RawPackets;
-import org.opensearch.migrations.replay.util.NettyUtils;
 
+import com.google.protobuf.ByteString;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.Lombok;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,7 +48,12 @@ public class HttpMessageAndTimestamp {
     private Instant lastPacketTimestamp;
 
     public final RawPackets packetBytes;
-    ByteArrayOutputStream currentSegmentBytes;
+    /** Set for a response whose body the capture proxy only partially captured. */
+    @Getter
+    @Setter
+    private ElidedResponseBody elidedBody;
+    /** Segments received so far for the packet in progress, concatenated without copying. */
+    ByteString currentSegmentBytes;
 
     public HttpMessageAndTimestamp(Instant firstPacketTimestamp) {
         this.firstPacketTimestamp = firstPacketTimestamp;
@@ -59,8 +62,8 @@ public class HttpMessageAndTimestamp {
 
     public ByteBuf asByteBuf() {
         var compositeBuf = Unpooled.compositeBuffer();
-        packetBytes.stream()
-            .map(Unpooled::wrappedBuffer)
+        packetBytes.byteStrings().stream()
+            .map(RawPackets::toReadOnlyByteBuf)
             .forEach(buffer -> compositeBuf.addComponent(true, buffer));
         return compositeBuf.asReadOnly();
     }
@@ -73,16 +76,20 @@ public class HttpMessageAndTimestamp {
         packetBytes.add(b);
     }
 
+    public void add(ByteString b) {
+        packetBytes.addPacket(b);
+    }
+
     public Stream<byte[]> stream() {
         return packetBytes.stream();
     }
 
     public String format(Optional<HttpByteBufFormatter.HttpMessageType> messageTypeOp) {
-        try (var bufStream = NettyUtils.createRefCntNeutralCloseableByteBufStream(packetBytes)) {
+        try (var bufStream = packetBytes.asByteBufStream()) {
             var packetBytesAsStr = messageTypeOp.map(
-                mt -> HttpByteBufFormatter.httpPacketBytesToString(
+                mt -> HttpByteBufFormatter.httpPacketBufsToString(
                     mt,
-                    packetBytes,
+                    bufStream,
                     HttpByteBufFormatter.LF_LINE_DELIMITER
                 )
             ).orElseGet(() -> HttpByteBufFormatter.httpPacketBufsToString(bufStream, Utils.MAX_PAYLOAD_BYTES_TO_PRINT));
@@ -96,18 +103,15 @@ public class HttpMessageAndTimestamp {
     }
 
     public void addSegment(byte[] data) {
-        if (currentSegmentBytes == null) {
-            currentSegmentBytes = new ByteArrayOutputStream();
-        }
-        try {
-            currentSegmentBytes.write(data);
-        } catch (IOException e) {
-            throw Lombok.sneakyThrow(e);
-        }
+        addSegment(ByteString.copyFrom(data));
+    }
+
+    public void addSegment(ByteString data) {
+        currentSegmentBytes = currentSegmentBytes == null ? data : currentSegmentBytes.concat(data);
     }
 
     public void finalizeRequestSegments(Instant timestamp) {
-        packetBytes.add(currentSegmentBytes.toByteArray());
+        packetBytes.addPacket(currentSegmentBytes);
         this.lastPacketTimestamp = timestamp;
         currentSegmentBytes = null;
     }
@@ -7,7 +7,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.opensearch.migrations.replay.HttpByteBufFormatter.HttpMessageType;
 import org.opensearch.migrations.replay.datahandlers.http.HttpJsonMessageWithFaultingPayload;
@@ -17,6 +19,8 @@ import org.opensearch.migrations.replay.datahandlers.http.NettyDecodedHttpReques
 import org.opensearch.migrations.replay.datahandlers.http.NettyDecodedHttpResponseConvertHandler;
 import org.opensearch.migrations.replay.datahandlers.http.NettyJsonBodyAccumulateHandler;
 import org.opensearch.migrations.replay.datatypes.ByteBufList;
+import org.opensearch.migrations.replay.datatypes.ElidedResponseBody;
+import org.opensearch.migrations.replay.datatypes.RawPackets;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
 import org.opensearch.migrations.replay.util.RefSafeHolder;
 import org.opensearch.migrations.replay.util.RefSafeStreamUtils;
@@ -24,7 +28,12 @@ import org.opensearch.migrations.transform.JsonKeysForHttpMessage;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import io.netty.handler.codec.base64.Base64Dialect;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseDecoder;
+import io.netty.util.ReferenceCountUtil;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -71,11 +80,37 @@ public class ParsedHttpMessagesAsDicts {
     }
 
     private static List<Map<String, Object>> getTargetResponseOp(SourceTargetCaptureTuple tuple) {
+        var sourceElidedBodyOp = Optional.ofNullable(tuple.sourcePair)
+            .map(p -> p.responseData)
+            .map(HttpMessageAndTimestamp::getElidedBody);
         return tuple.responseList.stream()
-            .map(r -> convertResponse(tuple.context, r.targetResponseData, r.targetResponseDuration))
+            .map(r -> {
+                var map = convertResponse(tuple.context, r.targetResponseData, r.targetResponseDuration);
+                if (sourceElidedBodyOp.isPresent() && r.targetResponseData != null) {
+                    return withElidedBodyComparison(map, sourceElidedBodyOp.get(), r.targetResponseData);
+                }
+                return map;
+            })
             .collect(Collectors.toList());
     }
 
+    /**
+     * The source response's body was only partially captured, so alongside the full target response, show
+     * the target's body cut the same way, and whether its length and fingerprint match the source's.
+     */
+    private static Map<String, Object> withElidedBodyComparison(
+        Map<String, Object> targetResponse,
+        ElidedResponseBody sourceElidedBody,
+        List<byte[]> targetResponseData
+    ) {
+        var targetElidedBody = sourceElidedBody.measure(targetResponseData);
+        var elidedBodyMap = targetElidedBody.toMap();
+        elidedBodyMap.put("matchesSource", targetElidedBody.equals(sourceElidedBody));
+        var map = new LinkedHashMap<>(targetResponse);
+        map.put(ElidedResponseBody.ELIDED_BODY_KEY, elidedBodyMap);
+        return map;
+    }
+
     private static Optional<Map<String, Object>> getTargetRequestOp(SourceTargetCaptureTuple tuple) {
         return Optional.ofNullable(tuple.targetRequestData)
             .map(ByteBufList::asByteArrayStream)
@@ -88,18 +123,17 @@ public class ParsedHttpMessagesAsDicts {
     ) {
         return sourcePairOp.flatMap(
             p -> Optional.ofNullable(p.responseData)
-                .flatMap(d -> Optional.ofNullable(d.packetBytes))
-                .map(
-                    d -> convertResponse(
-                        tuple.context,
-                        d,
-                        // TODO: These durations are not measuring the same values!
-                        Duration.between(
-                            tuple.sourcePair.requestData.getLastPacketTimestamp(),
-                            tuple.sourcePair.responseData.getLastPacketTimestamp()
-                        )
-                    )
-                )
+                .filter(d -> d.packetBytes != null)
+                .map(d -> {
+                    // TODO: These durations are not measuring the same values!
+                    var latency = Duration.between(
+                        tuple.sourcePair.requestData.getLastPacketTimestamp(),
+                        tuple.sourcePair.responseData.getLastPacketTimestamp()
+                    );
+                    return d.getElidedBody() == null
+                        ? convertResponse(tuple.context, d.packetBytes, latency)
+                        : convertElidedResponse(tuple.context, d.packetBytes, d.getElidedBody(), latency);
+                })
         );
     }
 
@@ -183,6 +217,15 @@ public class ParsedHttpMessagesAsDicts {
         }
     }
 
+    /** Captured source packets are wrapped in place rather than copied out through the List view. */
+    private static <U> U transformPackets(List<byte[]> data, Function<Stream<ByteBuf>, U> streamApplication) {
+        if (data instanceof RawPackets rawPackets) {
+            return RefSafeStreamUtils.refSafeTransform(
+                rawPackets.byteStrings().stream(), RawPackets::toReadOnlyByteBuf, streamApplication);
+        }
+        return RefSafeStreamUtils.refSafeTransform(data.stream(), Unpooled::wrappedBuffer, streamApplication);
+    }
+
     private static Map<String, Object> convertRequest(
         @NonNull IReplayContexts.ITupleHandlingContext context,
         @NonNull List<byte[]> data
@@ -190,9 +233,8 @@ public class ParsedHttpMessagesAsDicts {
         return makeSafeMap(context, () -> {
             try (var transformationCtx = context.getLogicalEnclosingScope().createTransformationContext();
                 var messageHolder = RefSafeHolder.create(
-                    RefSafeStreamUtils.refSafeTransform(
-                    data.stream(),
-                    Unpooled::wrappedBuffer,
+                    transformPackets(
+                    data,
                     byteBufStream ->
                         HttpByteBufFormatter.processHttpMessageFromBufs(
                             HttpMessageType.REQUEST,
@@ -230,9 +272,8 @@ public class ParsedHttpMessagesAsDicts {
         return makeSafeMap(context, () -> {
             try (var transformationCtx = context.getLogicalEnclosingScope().createTransformationContext();
                 var messageHolder = RefSafeHolder.create(
-                    RefSafeStreamUtils.refSafeTransform(
-                        data.stream(),
-                        Unpooled::wrappedBuffer,
+                    transformPackets(
+                        data,
                         byteBufStream ->
                             HttpByteBufFormatter.processHttpMessageFromBufs(
                                 HttpMessageType.RESPONSE,
@@ -261,6 +302,54 @@ public class ParsedHttpMessagesAsDicts {
         });
     }
 
+    /**
+     * A response whose body was elided can't be parsed as a full message, so only its headers are parsed and
+     * whatever part of the body was captured is included as base64, since it's unlikely to be valid JSON.
+     */
+    private static Map<String, Object> convertElidedResponse(
+        @NonNull IReplayContexts.ITupleHandlingContext context,
+        @NonNull RawPackets data,
+        @NonNull ElidedResponseBody elidedBody,
+        Duration latency
+    ) {
+        return makeSafeMap(context, () -> {
+            var decoderChannel = new EmbeddedChannel(new HttpResponseDecoder());
+            var capturedBody = Unpooled.compositeBuffer();
+            try {
+                data.byteStrings().forEach(b -> decoderChannel.writeInbound(RawPackets.toReadOnlyByteBuf(b)));
+                HttpResponse response = null;
+                for (Object msg = decoderChannel.readInbound(); msg != null; msg = decoderChannel.readInbound()) {
+                    if (msg instanceof HttpResponse) {
+                        response = (HttpResponse) msg;
+                    }
+                    if (msg instanceof HttpContent) {
+                        capturedBody.addComponent(true, ((HttpContent) msg).content().retain());
+                    }
+                    ReferenceCountUtil.release(msg);
+                }
+                if (response == null) {
+                    return Map.of(EXCEPTION_KEY_STRING, "Headers of the partially captured response couldn't be parsed");
+                }
+                var message = NettyDecodedHttpResponseConvertHandler.parseHeadersIntoMessage(response);
+                var map = new LinkedHashMap<String, Object>(message.headers());
+                map.put(HTTP_VERSION_KEY, message.protocol());
+                map.put(STATUS_CODE_KEY, Integer.parseInt(message.code()));
+                map.put("Reason-Phrase", message.reason());
+                map.put(RESPONSE_TIME_MS_KEY, latency.toMillis());
+                context.setHttpVersion(message.protocol());
+                if (capturedBody.isReadable()) {
+                    map.put(PAYLOAD_KEY, Map.of(JsonKeysForHttpMessage.INLINED_BASE64_BODY_DOCUMENT_KEY,
+                        byteBufToBase64String(capturedBody)));
+                }
+                map.put(ElidedResponseBody.ELIDED_BODY_KEY, elidedBody.toMap());
+                return map;
+            } finally {
+                capturedBody.release();
+                decoderChannel.finishAndReleaseAll();
+            }
+        });
+    }
+
     private static void encodeBinaryPayloadIfExists(HttpJsonMessageWithFaultingPayload message) {
         if (message.payload() != null &&
                 message.payload().containsKey(JsonKeysForHttpMessage.INLINED_BINARY_BODY_DOCUMENT_KEY)) {
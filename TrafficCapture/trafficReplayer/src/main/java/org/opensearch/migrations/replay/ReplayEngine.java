@@ -27,6 +27,7 @@ public class ReplayEngine {
     public static final int BACKPRESSURE_UPDATE_FREQUENCY = 8;
     public static final TimeUnit TIME_UNIT_MILLIS = TimeUnit.MILLISECONDS;
     public static final Duration EXPECTED_TRANSFORMATION_DURATION = Duration.ofSeconds(1);
+    public static final Duration CATCH_UP_ADJUSTMENT_PERIOD = Duration.ofSeconds(1);
     private final RequestSenderOrchestrator networkSendOrchestrator;
     private final BufferedFlowController contentTimeController;
     private final AtomicLong lastCompletedSourceTimeEpochMs;
@@ -39,6 +40,7 @@ public class ReplayEngine {
      */
     private final AtomicLong totalCountOfScheduledTasksOutstanding;
     ScheduledFuture<?> updateContentTimeControllerScheduledFuture;
+    ScheduledFuture<?> adjustCatchUpRateScheduledFuture;
     // Heartbeat: response status code counters (reset each heartbeat)
     private final java.util.concurrent.ConcurrentHashMap<Integer, AtomicLong> responseCodeCounters =
         new java.util.concurrent.ConcurrentHashMap<>();
@@ -71,6 +73,14 @@ public class ReplayEngine {
             bufferPeriodMs,
             TIME_UNIT_MILLIS
         );
+        if (timeShifter.isCatchUpEnabled()) {
+            adjustCatchUpRateScheduledFuture = networkSendOrchestrator.scheduleAtFixedRate(
+                this::adjustCatchUpRate,
+                CATCH_UP_ADJUSTMENT_PERIOD.toMillis(),
+                CATCH_UP_ADJUSTMENT_PERIOD.toMillis(),
+                TIME_UNIT_MILLIS
+            );
+        }
     }
 
     private long getUpdatePeriodMs() {
@@ -110,6 +120,28 @@ public class ReplayEngine {
         contentTimeController.stopReadsPast(Instant.ofEpochMilli(lastIdleUpdatedTimestampEpochMs.get()));
     }
 
+    private void adjustCatchUpRate() {
+        timeShifter.adjustCatchUpRate(CATCH_UP_ADJUSTMENT_PERIOD, isTargetBackedUp());
+    }
+
+    /**
+     * The target is considered backed up when work is outstanding and the last completed task is more than
+     * half of the buffer window behind the source time that should be running now.  Past that point, the
+     * traffic source will soon stop reading, so speeding up the schedule would only lengthen the queue.
+     */
+    boolean isTargetBackedUp() {
+        if (!isWorkOutstanding()) {
+            return false;
+        }
+        var lastCompletedMs = lastCompletedSourceTimeEpochMs.get();
+        var currentSourceTimeOp = timeShifter.transformRealTimeToSourceTime(Instant.now());
+        if (lastCompletedMs == 0 || currentSourceTimeOp.isEmpty()) {
+            return true;
+        }
+        var schedulingLag = Duration.between(Instant.ofEpochMilli(lastCompletedMs), currentSourceTimeOp.get());
+        return schedulingLag.compareTo(contentTimeController.getBufferTimeWindow().dividedBy(2)) > 0;
+    }
+
     // See the comment on totalCountOfScheduledTasksOutstanding. We could do this on a per-thread basis and
     // join the results all via `networkSendOrchestrator.clientConnectionPool.eventLoopGroup`
     public boolean isWorkOutstanding() {
@@ -271,6 +303,12 @@ public class ReplayEngine {
             sb.append(" lastCompletedSourceTime=").append(lastCompleted);
         }
 
+        if (timeShifter.isCatchUpEnabled()) {
+            sb.append(" rateMultiplier=").append(timeShifter.getCurrentRateMultiplier());
+            timeShifter.getLagBehindRealTime().ifPresent(lag ->
+                sb.append(" lagBehindRealTime=").append(org.opensearch.migrations.Utils.formatDurationInSeconds(lag)));
+        }
+
         sb.append(" bufferWindow=").append(org.opensearch.migrations.Utils.formatDurationInSeconds(contentTimeController.getBufferTimeWindow()));
 
         // Response codes since last heartbeat
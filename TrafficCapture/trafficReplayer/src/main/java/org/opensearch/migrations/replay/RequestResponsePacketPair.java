@@ -1,6 +1,5 @@
 package org.opensearch.migrations.replay;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -14,6 +13,8 @@ import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 import org.opensearch.migrations.tracing.IWithTypedEnclosingScope;
 
 import com.google.common.base.Objects;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -92,8 +93,12 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
     }
 
     public void addRequestData(Instant packetTimeStamp, byte[] data) {
+        addRequestData(packetTimeStamp, UnsafeByteOperations.unsafeWrap(data));
+    }
+
+    public void addRequestData(Instant packetTimeStamp, ByteString data) {
         if (log.isTraceEnabled()) {
-            log.trace(this + " Adding request data: " + new String(data, StandardCharsets.UTF_8));
+            log.trace(this + " Adding request data: " + data.toStringUtf8());
         }
         if (requestData == null) {
             requestData = new HttpMessageAndTimestamp.Request(packetTimeStamp);
@@ -103,8 +108,12 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
     }
 
     public void addResponseData(Instant packetTimeStamp, byte[] data) {
+        addResponseData(packetTimeStamp, UnsafeByteOperations.unsafeWrap(data));
+    }
+
+    public void addResponseData(Instant packetTimeStamp, ByteString data) {
         if (log.isTraceEnabled()) {
-            log.trace(this + " Adding response data: " + new String(data, StandardCharsets.UTF_8));
+            log.trace(this + " Adding response data: " + data.toStringUtf8());
         }
         if (responseData == null) {
             responseData = new HttpMessageAndTimestamp.Response(packetTimeStamp);
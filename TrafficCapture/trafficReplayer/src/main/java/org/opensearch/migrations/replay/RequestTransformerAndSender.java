@@ -9,12 +9,14 @@ import java.util.stream.Stream;
 import org.opensearch.migrations.replay.datahandlers.IPacketFinalizingConsumer;
 import org.opensearch.migrations.replay.datatypes.ByteBufListProducer;
 import org.opensearch.migrations.replay.datatypes.HttpRequestTransformationStatus;
+import org.opensearch.migrations.replay.datatypes.RawPackets;
 import org.opensearch.migrations.replay.datatypes.TransformedOutputAndResult;
 import org.opensearch.migrations.replay.http.retries.IRetryVisitorFactory;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
 import org.opensearch.migrations.utils.TextTrackedFuture;
 import org.opensearch.migrations.utils.TrackedFuture;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
@@ -110,11 +112,46 @@ public class RequestTransformerAndSender<T> {
         @NonNull Instant end,
         Supplier<Stream<byte[]>> packetsSupplier,
         Duration quiescentDurationForRequest) {
+        return transformAndSendPackets(inputRequestTransformerFactory, replayEngine,
+            finishedAccumulatingResponseFuture, ctx, start, end,
+            () -> packetsSupplier.get().map(Unpooled::wrappedBuffer), packetsSupplier, quiescentDurationForRequest);
+    }
+
+    /**
+     * Same as the Supplier overload, but hands the transformation read-only views over the captured
+     * packets instead of copying each one out into a byte[].
+     */
+    public TrackedFuture<String, T> transformAndSendRequest(
+        PacketToTransformingHttpHandlerFactory inputRequestTransformerFactory,
+        ReplayEngine replayEngine,
+        TrackedFuture<String, RequestResponsePacketPair> finishedAccumulatingResponseFuture,
+        IReplayContexts.IReplayerHttpTransactionContext ctx,
+        @NonNull Instant start,
+        @NonNull Instant end,
+        RawPackets packets,
+        Duration quiescentDurationForRequest) {
+        return transformAndSendPackets(inputRequestTransformerFactory, replayEngine,
+            finishedAccumulatingResponseFuture, ctx, start, end,
+            () -> packets.byteStrings().stream().map(RawPackets::toReadOnlyByteBuf), packets::stream,
+            quiescentDurationForRequest);
+    }
+
+    private TrackedFuture<String, T> transformAndSendPackets(
+        PacketToTransformingHttpHandlerFactory inputRequestTransformerFactory,
+        ReplayEngine replayEngine,
+        TrackedFuture<String, RequestResponsePacketPair> finishedAccumulatingResponseFuture,
+        IReplayContexts.IReplayerHttpTransactionContext ctx,
+        @NonNull Instant start,
+        @NonNull Instant end,
+        Supplier<Stream<ByteBuf>> packetBufsSupplier,
+        Supplier<Stream<byte[]>> packetsSupplierForDiagnostics,
+        Duration quiescentDurationForRequest) {
         try {
             var requestReadyFuture = replayEngine.scheduleTransformationWork(
                 ctx,
                 start,
-                () -> transformAllData(inputRequestTransformerFactory.create(ctx), packetsSupplier)
+                () -> transformAllData(inputRequestTransformerFactory.create(ctx),
+                    packetBufsSupplier, packetsSupplierForDiagnostics)
             );
             log.atDebug().setMessage("request transform future for {} = {}")
                 .addArgument(ctx)
@@ -156,11 +193,12 @@ public class RequestTransformerAndSender<T> {
 
     private static <R> TrackedFuture<String, R> transformAllData(
         IPacketFinalizingConsumer<R> packetHandler,
+        Supplier<Stream<ByteBuf>> packetBufsSupplier,
         Supplier<Stream<byte[]>> packetSupplier
     ) {
         try {
             var logLabel = packetHandler.getClass().getSimpleName();
-            var packets = packetSupplier.get().map(Unpooled::wrappedBuffer);
+            var packets = packetBufsSupplier.get();
             packets.forEach(packetData -> {
                 log.atDebug()
                     .setMessage("{} sending {} bytes to the packetHandler")
@@ -197,7 +197,7 @@ public class ResultsToLogsConsumer implements BiConsumer<SourceTargetCaptureTupl
             // SOURCE/TARGET REQUEST_SIZE_BYTES
             .add(
                 Optional.ofNullable(tuple.sourcePair)
-                    .map(sp -> sp.requestData.stream().mapToInt(bArr -> bArr.length).sum() + "")
+                    .map(sp -> sp.requestData.packetBytes.totalBytes() + "")
                     .orElse(MISSING_STR)
                     + "/"
                     + Optional.ofNullable(tuple.targetRequestData)
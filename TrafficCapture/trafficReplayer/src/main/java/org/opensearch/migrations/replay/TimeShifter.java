@@ -1,22 +1,48 @@
 package org.opensearch.migrations.replay;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.event.Level;
 
-// TODO - Reconsider how time shifting is done
+/**
+ * Maps source (capture) timestamps onto the real times that the replayer should act on them.
+ * <p>
+ * The mapping is piecewise linear.  It starts as a single segment that runs at rateMultiplier from the
+ * first source timestamp.  When catch-up pacing is enabled (see {@link #adjustCatchUpRate}), each change to
+ * the effective multiplier starts a new segment at the latest source time that has already been mapped.
+ * Times that were already handed out keep their real times and later source times never map to earlier
+ * real times, so each connection's requests stay in order.
+ */
 @Slf4j
 public class TimeShifter {
+    /** How much the catch-up multiplier is scaled up (or down) on each adjustment. */
+    public static final double CATCH_UP_RAMP_FACTOR = 1.25;
+    /**
+     * Segments that start this much (source) time before the newest one are dropped.  Anything that old
+     * is far outside of the replayer's lookahead window and would be sent immediately anyway.
+     */
+    static final Duration SEGMENT_RETENTION = Duration.ofHours(1);
+
+    private record Segment(long realStartEpochMs, double rateMultiplier) {}
 
     private final AtomicReference<Instant> sourceTimeStart = new AtomicReference<>();
-    private AtomicReference<Instant> systemTimeStart = new AtomicReference<>();
+    /** source start time (epoch ms) to the real start time and rate of the segment beginning there */
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicLong latestMappedSourceTimeEpochMs = new AtomicLong(Long.MIN_VALUE);
 
     private final double rateMultiplier;
+    private final double maxCatchUpRateMultiplier;
+    private final Duration catchUpLagThreshold;
     private final Duration realtimeOffset;
+    private final Clock clock;
 
     public TimeShifter() {
         this(1.0);
@@ -27,15 +53,32 @@ public class TimeShifter {
     }
 
     public TimeShifter(double rateMultiplier, Duration realtimeOffset) {
+        this(rateMultiplier, realtimeOffset, rateMultiplier, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxCatchUpRateMultiplier the ceiling for the effective multiplier while catching up.  Catch-up
+     *                                 pacing is disabled when this isn't greater than rateMultiplier.
+     * @param catchUpLagThreshold how far behind real time the replay may fall before pacing ramps up
+     */
+    public TimeShifter(
+        double rateMultiplier,
+        Duration realtimeOffset,
+        double maxCatchUpRateMultiplier,
+        Duration catchUpLagThreshold,
+        Clock clock
+    ) {
         this.rateMultiplier = rateMultiplier;
         this.realtimeOffset = realtimeOffset;
+        this.maxCatchUpRateMultiplier = Math.max(rateMultiplier, maxCatchUpRateMultiplier);
+        this.catchUpLagThreshold = catchUpLagThreshold;
+        this.clock = clock;
     }
 
-    public void setFirstTimestamp(Instant sourceTime) {
+    public synchronized void setFirstTimestamp(Instant sourceTime) {
         var didSet = sourceTimeStart.compareAndSet(null, sourceTime);
         if (didSet) {
-            var didSetSystemStart = systemTimeStart.compareAndSet(null, Instant.now());
-            assert didSetSystemStart : "expected to always start systemTimeStart immediately after sourceTimeStart ";
+            segments.put(sourceTime.toEpochMilli(), new Segment(clock.millis(), rateMultiplier));
         }
         log.atLevel(didSet ? Level.INFO : Level.TRACE)
             .setMessage("Set baseline source timestamp for all future interactions to {}")
@@ -43,32 +86,129 @@ public class TimeShifter {
             .log();
     }
 
-    Instant transformSourceTimeToRealTime(Instant sourceTime) {
-        if (sourceTimeStart.get() == null) {
+    private Map.Entry<Long, Segment> segmentForSourceTime(long sourceEpochMs) {
+        var entry = segments.floorEntry(sourceEpochMs);
+        return entry != null ? entry : segments.firstEntry();
+    }
+
+    private static long toRealTimeEpochMs(Map.Entry<Long, Segment> segment, long sourceEpochMs) {
+        return segment.getValue().realStartEpochMs
+            + (long) ((sourceEpochMs - segment.getKey()) / segment.getValue().rateMultiplier);
+    }
+
+    synchronized Instant transformSourceTimeToRealTime(Instant sourceTime) {
+        if (segments.isEmpty()) {
             throw new IllegalStateException("setFirstTimestamp has not yet been called");
         }
-        // realtime = systemTimeStart + ((sourceTime-sourceTimeStart) / rateMultiplier) + targetOffset
-        return systemTimeStart.get()
-            .plus(
-                Duration.ofMillis(
-                    (long) (Duration.between(sourceTimeStart.get(), sourceTime).toMillis() / rateMultiplier)
-                )
-            )
+        // realtime = segmentRealStart + ((sourceTime-segmentSourceStart) / segmentRate) + targetOffset
+        var sourceEpochMs = sourceTime.toEpochMilli();
+        Utils.setIfLater(latestMappedSourceTimeEpochMs, sourceEpochMs);
+        return Instant.ofEpochMilli(toRealTimeEpochMs(segmentForSourceTime(sourceEpochMs), sourceEpochMs))
             .plus(realtimeOffset);
     }
 
     Optional<Instant> transformRealTimeToSourceTime(Instant realTime) {
-        return Optional.ofNullable(sourceTimeStart.get()).map(start ->
-        // sourceTime = sourceTimeStart + (realTime-systemTimeStart-targetOffset) * rateMultiplier
-        start.plus(
-            Duration.ofMillis(
-                (long) (Duration.between(systemTimeStart.get(), realTime.minus(realtimeOffset)).toMillis()
-                    * rateMultiplier)
-            )
-        ));
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        // sourceTime = segmentSourceStart + (realTime-segmentRealStart-targetOffset) * segmentRate
+        var realEpochMs = realTime.minus(realtimeOffset).toEpochMilli();
+        var segment = segments.lastEntry();
+        for (var e : segments.descendingMap().entrySet()) {
+            segment = e;
+            if (e.getValue().realStartEpochMs <= realEpochMs) {
+                break;
+            }
+        }
+        return Optional.of(Instant.ofEpochMilli(segment.getKey()
+            + (long) ((realEpochMs - segment.getValue().realStartEpochMs) * segment.getValue().rateMultiplier)));
     }
 
+    /** The highest multiplier that this may ever run at, which bounds how quickly source time can advance. */
     public double maxRateMultiplier() {
-        return rateMultiplier;
+        return maxCatchUpRateMultiplier;
+    }
+
+    /** The multiplier currently being applied to source times beyond those that were already mapped. */
+    public double getCurrentRateMultiplier() {
+        var last = segments.lastEntry();
+        return last == null ? rateMultiplier : last.getValue().rateMultiplier;
+    }
+
+    public boolean isCatchUpEnabled() {
+        return maxCatchUpRateMultiplier > rateMultiplier;
+    }
+
+    /**
+     * How far the source time that's being replayed now trails real time.  This assumes that the capture
+     * and replayer clocks roughly agree, which is what makes it a measure of lag against a live capture.
+     */
+    public Optional<Duration> getLagBehindRealTime() {
+        var now = clock.instant();
+        return transformRealTimeToSourceTime(now).map(sourceNow -> Duration.between(sourceNow, now));
+    }
+
+    /**
+     * Called periodically (every adjustmentPeriod) to move the effective multiplier toward what's needed
+     * to catch up with real time.  While the lag is over the threshold the multiplier is ramped up toward
+     * maxCatchUpRateMultiplier, leaving enough room to glide back down without overshooting real time.
+     * Once the lag falls under half of the threshold the multiplier glides back to rateMultiplier.  It
+     * also glides down whenever the target is backed up so that pacing never adds to the pressure that
+     * the ReplayEngine is already under.
+     */
+    public synchronized void adjustCatchUpRate(Duration adjustmentPeriod, boolean targetIsBackedUp) {
+        if (!isCatchUpEnabled()) {
+            return;
+        }
+        var lagOp = getLagBehindRealTime();
+        if (lagOp.isEmpty()) {
+            return;
+        }
+        var lag = lagOp.get();
+        var current = getCurrentRateMultiplier();
+        var rampedUp = Math.min(maxCatchUpRateMultiplier, current * CATCH_UP_RAMP_FACTOR);
+        var glidedDown = Math.max(rateMultiplier, current / CATCH_UP_RAMP_FACTOR);
+        double next;
+        if (targetIsBackedUp) {
+            next = glidedDown;
+        } else if (lag.compareTo(catchUpLagThreshold.plus(lagRecoveredWhileGliding(rampedUp, adjustmentPeriod))) > 0) {
+            next = rampedUp;
+        } else if (lag.compareTo(catchUpLagThreshold.dividedBy(2)
+            .plus(lagRecoveredWhileGliding(current, adjustmentPeriod))) < 0) {
+            next = glidedDown;
+        } else {
+            next = current;
+        }
+        if (next != current) {
+            setCurrentRateMultiplier(next);
+            log.atInfo().setMessage("Replay is {} behind real time, changed the rate multiplier from {} to {}{}")
+                .addArgument(lag)
+                .addArgument(current)
+                .addArgument(next)
+                .addArgument(targetIsBackedUp ? " because the target is backed up" : "")
+                .log();
+        }
+    }
+
+    /** How much lag will be recovered by gliding from the given multiplier back down to rateMultiplier. */
+    private Duration lagRecoveredWhileGliding(double multiplier, Duration adjustmentPeriod) {
+        double periods = 0;
+        for (var r = multiplier; r > rateMultiplier; r /= CATCH_UP_RAMP_FACTOR) {
+            periods += Math.max(0, r - 1.0);
+        }
+        return Duration.ofMillis((long) (adjustmentPeriod.toMillis() * periods));
+    }
+
+    private void setCurrentRateMultiplier(double newRateMultiplier) {
+        var nowSourceEpochMs = transformRealTimeToSourceTime(clock.instant().plus(realtimeOffset))
+            .orElseThrow()
+            .toEpochMilli();
+        var anchorSourceEpochMs = Math.max(nowSourceEpochMs, latestMappedSourceTimeEpochMs.get());
+        var anchorRealEpochMs = toRealTimeEpochMs(segmentForSourceTime(anchorSourceEpochMs), anchorSourceEpochMs);
+        segments.put(anchorSourceEpochMs, new Segment(anchorRealEpochMs, newRateMultiplier));
+        var oldestSegmentToKeep = segments.floorKey(anchorSourceEpochMs - SEGMENT_RETENTION.toMillis());
+        if (oldestSegmentToKeep != null) {
+            segments.headMap(oldestSegmentToKeep).clear();
+        }
     }
 }
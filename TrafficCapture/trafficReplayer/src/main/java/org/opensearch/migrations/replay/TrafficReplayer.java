@@ -18,6 +18,7 @@ import org.opensearch.migrations.arguments.ArgLogUtils;
 import org.opensearch.migrations.arguments.ArgNameConstants;
 import org.opensearch.migrations.jcommander.EnvVarParameterPuller;
 import org.opensearch.migrations.jcommander.JsonCommandLineParser;
+import org.opensearch.migrations.replay.analytics.TupleAnalytics;
 import org.opensearch.migrations.replay.http.retries.BulkItemErrorClassifier;
 import org.opensearch.migrations.replay.kafka.KafkaTopicDumper;
 import org.opensearch.migrations.replay.sink.S3TupleSink;
@@ -26,6 +27,7 @@ import org.opensearch.migrations.replay.tracing.RootReplayerContext;
 import org.opensearch.migrations.replay.traffic.source.TrafficStreamLimiter;
 import org.opensearch.migrations.replay.util.ActiveContextMonitor;
 import org.opensearch.migrations.replay.util.OrderedWorkerTracker;
+import org.opensearch.migrations.s3sink.CompressionCodec;
 import org.opensearch.migrations.tracing.ActiveContextTracker;
 import org.opensearch.migrations.tracing.ActiveContextTrackerByActivityType;
 import org.opensearch.migrations.tracing.CompositeContextTracker;
@@ -41,6 +43,8 @@ import org.opensearch.migrations.transform.TransformationLoader;
 import org.opensearch.migrations.transform.TransformerConfigUtils;
 import org.opensearch.migrations.transform.TransformerParams;
 import org.opensearch.migrations.utils.ProcessHelpers;
+import org.opensearch.migrations.utils.TrackedFuture;
+import org.opensearch.migrations.utils.TrackedFutureDiagnosticsPolicy;
 import org.opensearch.migrations.utils.TrackedFutureJsonFormatter;
 import org.opensearch.migrations.utils.URIHelper;
 
@@ -238,6 +242,20 @@ public class TrafficReplayer {
                 + "This means that between each interaction will be replayed at this rate faster "
                 + "than the original observations, provided that the replayer and target are able to keep up.")
         double speedupFactor = 1.0;
+        @Parameter(
+            required = false,
+            names = { "--catch-up-max-speedup-factor", "--catchUpMaxSpeedupFactor" },
+            arity = 1, description = "When greater than the speedup factor, the replayer will automatically "
+                + "speed up (to at most this factor) whenever it falls further behind real time than the "
+                + "catch-up lag threshold, provided that the target is keeping up.  Once caught up, the "
+                + "replayer glides back to the speedup factor.")
+        double catchUpMaxSpeedupFactor = 1.0;
+        @Parameter(
+            required = false,
+            names = { "--catch-up-lag-threshold-seconds", "--catchUpLagThresholdSeconds" },
+            arity = 1, description = "How many seconds behind real time the replay can fall before the "
+                + "replayer starts to catch up.  Only used when --catch-up-max-speedup-factor is set.")
+        int catchUpLagThresholdSeconds = 60;
         @Parameter(
             required = false,
             names = { LOOKAHEAD_TIME_WINDOW_PARAMETER_NAME,  "--lookaheadTimeWindow", "--lookaheadTimeSeconds" },
@@ -404,6 +422,59 @@ public class TrafficReplayer {
                 + "0 (default) means no count limit — rotation is controlled by size and age thresholds only.")
         int tupleMaxPerFile = 0;
 
+        @Parameter(
+            required = false,
+            names = { "--tuple-compression", "--tupleCompression" },
+            arity = 1,
+            description = "Compression format for S3 tuple objects: GZIP (default, '.log.gz') or ZSTD ('.log.zst').")
+        CompressionCodec.Format tupleCompression = CompressionCodec.Format.GZIP;
+
+        @Parameter(
+            required = false,
+            names = { "--tuple-compression-level", "--tupleCompressionLevel" },
+            arity = 1,
+            description = "Compression level for S3 tuple objects (0-9 for gzip, 1-22 for zstd). "
+                + "-1 (default) uses the format's default level.")
+        int tupleCompressionLevel = CompressionCodec.DEFAULT_LEVEL;
+
+        @Parameter(
+            required = false,
+            names = { "--tuple-compression-threads", "--tupleCompressionThreads" },
+            arity = 1,
+            description = "When greater than 1, each S3 tuple sink compresses independent 1MiB blocks on this many "
+                + "threads instead of on its worker thread.  Objects are then sequences of gzip members or zstd "
+                + "frames, which standard gzip/zstd tools decompress as one stream.")
+        int tupleCompressionThreads = 1;
+
+        @Parameter(
+            required = false,
+            names = { "--tuple-analytics-interval-seconds", "--tupleAnalyticsIntervalSeconds" },
+            arity = 1,
+            description = "When greater than 0, source/target comparisons are aggregated in memory (latency "
+                + "histograms and status codes per endpoint, bulk item errors, response structure differences) and "
+                + "logged to the " + TupleAnalytics.TUPLE_ANALYTICS_LOGGER + " at this interval.  Full tuples are "
+                + "then only written for mismatched transactions and a sample of the rest "
+                + "(see --full-tuple-sample-rate).")
+        int tupleAnalyticsIntervalSeconds = 0;
+
+        @Parameter(
+            required = false,
+            names = { "--full-tuple-sample-rate", "--fullTupleSampleRate" },
+            arity = 1,
+            description = "The fraction (0.0-1.0) of matching transactions whose full tuples are still written "
+                + "when --tuple-analytics-interval-seconds is set.  Mismatched transactions are always written.")
+        double fullTupleSampleRate = 0.01;
+
+        @Parameter(
+            required = false,
+            names = { "--ignored-structure-diffs", "--ignoredStructureDiffs" },
+            description = "Optional. Comma-separated list of response structure differences that tuple analytics "
+                + "still counts but that don't make a transaction mismatched, written the way they are logged "
+                + "with '*' matching any characters.  Defaults to the differences expected between Elasticsearch "
+                + "6/7 and OpenSearch ('*._type onlyInSource', '*.hits.total typeChanged:number->object'). "
+                + "Example: --ignored-structure-diffs '*._type onlyInSource,*.took typeChanged:number->string'")
+        List<String> ignoredStructureDiffs;
+
         @Parameter(
             required = false,
             names = { "--non-retryable-doc-exception-types", "--nonRetryableDocExceptionTypes" },
@@ -415,6 +486,46 @@ public class TrafficReplayer {
                 + "Example: --non-retryable-doc-exception-types version_conflict_engine_exception")
         List<String> nonRetryableDocExceptionTypes;
 
+        @Parameter(
+            required = false,
+            names = { "--tracked-future-diagnostics", "--trackedFutureDiagnostics" },
+            arity = 1,
+            description = "How much diagnostic state to retain for the chains of asynchronous work behind each "
+                + "replayed request.  'full' (default) keeps every chain so that the active work monitor can "
+                + "print it.  'lightweight' keeps chains only for a sample of requests and for requests that "
+                + "exceed --tracked-future-diagnostics-latency-threshold-ms, reducing per-request allocations.")
+        TrackedFutureDiagnosticsPolicy.Mode trackedFutureDiagnosticsMode = TrackedFutureDiagnosticsPolicy.Mode.FULL;
+
+        @Parameter(
+            required = false,
+            names = { "--tracked-future-diagnostics-sample-rate", "--trackedFutureDiagnosticsSampleRate" },
+            arity = 1,
+            description = "With --tracked-future-diagnostics=lightweight, the fraction (0.0-1.0) of asynchronous "
+                + "work chains that are still fully tracked.")
+        double trackedFutureDiagnosticsSampleRate = 0.01;
+
+        @Parameter(
+            required = false,
+            names = { "--tracked-future-diagnostics-latency-threshold-ms",
+                "--trackedFutureDiagnosticsLatencyThresholdMs" },
+            arity = 1,
+            description = "With --tracked-future-diagnostics=lightweight, untracked chains that are still being "
+                + "extended after this many milliseconds start tracking diagnostics.  A negative value disables "
+                + "this.")
+        long trackedFutureDiagnosticsLatencyThresholdMs = 10_000;
+
+        TrackedFutureDiagnosticsPolicy getTrackedFutureDiagnosticsPolicy() {
+            if (trackedFutureDiagnosticsMode == TrackedFutureDiagnosticsPolicy.Mode.FULL) {
+                return TrackedFutureDiagnosticsPolicy.FULL;
+            }
+            return TrackedFutureDiagnosticsPolicy.lightweight(
+                trackedFutureDiagnosticsSampleRate,
+                trackedFutureDiagnosticsLatencyThresholdMs < 0
+                    ? null
+                    : Duration.ofMillis(trackedFutureDiagnosticsLatencyThresholdMs)
+            );
+        }
+
         void validateKafkaAuthFlags() {
             if (kafkaTrafficAuthType != null && !kafkaTrafficAuthType.isBlank()) {
                 if (Boolean.TRUE.equals(kafkaTrafficEnableMSKAuth)
@@ -646,6 +757,7 @@ public class TrafficReplayer {
         if (uri == null) {
             return;
         }
+        TrackedFuture.setDiagnosticsPolicy(params.getTrackedFutureDiagnosticsPolicy());
         var globalContextTracker = new ActiveContextTracker();
         var perContextTracker = new ActiveContextTrackerByActivityType();
         var scheduledExecutorService = Executors.newScheduledThreadPool(
@@ -663,6 +775,7 @@ public class TrafficReplayer {
 
         ActiveContextMonitor activeContextMonitor = null;
         ThreadLocalTupleWriter tupleWriter = null;
+        TupleAnalytics tupleAnalytics = null;
         try (
             var blockingTrafficSource = TrafficCaptureSourceFactory.createTrafficCaptureSource(
                 topContext,
@@ -672,7 +785,19 @@ public class TrafficReplayer {
             var authTransformer = buildAuthTransformerFactory(params);
             var trafficStreamLimiter = new TrafficStreamLimiter(params.maxConcurrentRequests)
         ) {
-            var timeShifter = new TimeShifter(params.speedupFactor);
+            var timeShifter = new TimeShifter(
+                params.speedupFactor,
+                Duration.ZERO,
+                params.catchUpMaxSpeedupFactor,
+                Duration.ofSeconds(params.catchUpLagThresholdSeconds),
+                Clock.systemUTC()
+            );
+            if (timeShifter.isCatchUpEnabled()) {
+                topContext.registerReplayPacingGauges(
+                    timeShifter::getLagBehindRealTime,
+                    timeShifter::getCurrentRateMultiplier
+                );
+            }
             var serverTimeout = Duration.ofSeconds(params.targetServerResponseTimeoutSeconds);
 
             String requestTransformerConfig = TransformerConfigUtils.getTransformerConfig(params.requestTransformationParams);
@@ -712,11 +837,13 @@ public class TrafficReplayer {
                 errorClassifier
             );
             configureResponsePostProcessor(tr, transformationLoader, params.responsePostProcessorConfig);
-            log.atInfo().setMessage("ReplayerConfig - lookahead={}s speedup={} maxConcurrent={}" +
+            log.atInfo().setMessage("ReplayerConfig - lookahead={}s speedup={} catchUpMaxSpeedup={}" +
+                    " maxConcurrent={}" +
                     " serverResponseTimeout={}s observedPacketConnectionTimeout={}s" +
                     " targetUri={} numClientThreads={}")
                 .addArgument(params.lookaheadTimeSeconds)
                 .addArgument(params.speedupFactor)
+                .addArgument(timeShifter.maxRateMultiplier())
                 .addArgument(params.maxConcurrentRequests)
                 .addArgument(params.targetServerResponseTimeoutSeconds)
                 .addArgument(params.observedPacketConnectionTimeout)
@@ -752,9 +879,19 @@ public class TrafficReplayer {
             }, ACTIVE_WORK_MONITOR_CADENCE_MS, ACTIVE_WORK_MONITOR_CADENCE_MS, TimeUnit.MILLISECONDS);
 
             setupShutdownHookForReplayer(tr);
+            if (params.tupleAnalyticsIntervalSeconds > 0) {
+                tupleAnalytics = new TupleAnalytics(params.fullTupleSampleRate,
+                    params.ignoredStructureDiffs != null
+                        ? params.ignoredStructureDiffs
+                        : TupleAnalytics.DEFAULT_IGNORED_STRUCTURE_DIFFS,
+                    null);
+                scheduledExecutorService.scheduleAtFixedRate(tupleAnalytics::publish,
+                    params.tupleAnalyticsIntervalSeconds, params.tupleAnalyticsIntervalSeconds, TimeUnit.SECONDS);
+            }
             tupleWriter = createS3TupleWriterIfConfigured(
                 params,
-                () -> transformationLoader.getTransformerFactoryLoader(tupleTransformerConfig)
+                () -> transformationLoader.getTransformerFactoryLoader(tupleTransformerConfig),
+                tupleAnalytics
             );
             if (tupleWriter != null) {
                 tr.setupRunAndWaitForReplayWithShutdownChecks(
@@ -768,7 +905,7 @@ public class TrafficReplayer {
             } else {
                 var resultsToLogsConsumer = new ResultsToLogsConsumer(null, null,
                         () -> transformationLoader.getTransformerFactoryLoader(tupleTransformerConfig));
-                var tupleLogConsumer = new TupleParserChainConsumer(resultsToLogsConsumer);
+                var tupleLogConsumer = new TupleParserChainConsumer(resultsToLogsConsumer, tupleAnalytics);
                 tr.setupRunAndWaitForReplayWithShutdownChecks(
                     Duration.ofSeconds(params.observedPacketConnectionTimeout),
                     serverTimeout,
@@ -784,6 +921,9 @@ public class TrafficReplayer {
                 tupleWriter.close();
             }
             scheduledExecutorService.shutdown();
+            if (tupleAnalytics != null) {
+                tupleAnalytics.publish();
+            }
             if (activeContextMonitor != null) {
                 var acmLevel = globalContextTracker.getActiveScopesByAge().findAny().isPresent()
                     ? Level.ERROR
@@ -823,7 +963,8 @@ public class TrafficReplayer {
 
     private static ThreadLocalTupleWriter createS3TupleWriterIfConfigured(
         Parameters params,
-        Supplier<IJsonTransformer> tupleTransformerSupplier
+        Supplier<IJsonTransformer> tupleTransformerSupplier,
+        TupleAnalytics tupleAnalytics
     ) {
         if (params.tupleS3Bucket == null || params.tupleS3Bucket.isEmpty()) {
             return null;
@@ -850,9 +991,12 @@ public class TrafficReplayer {
                 sinkIndex,
                 params.tupleMaxFileSizeMb * 1024L * 1024L,
                 Duration.ofSeconds(params.tupleMaxBufferSeconds),
-                params.tupleMaxPerFile
+                params.tupleMaxPerFile,
+                CompressionCodec.of(params.tupleCompression, params.tupleCompressionLevel,
+                    params.tupleCompressionThreads)
             ),
-            tupleTransformerSupplier
+            tupleTransformerSupplier,
+            tupleAnalytics
         );
     }
 
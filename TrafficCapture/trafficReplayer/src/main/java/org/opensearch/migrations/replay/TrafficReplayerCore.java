@@ -528,7 +528,7 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
             ctx,
             request.getFirstPacketTimestamp(),
             request.getLastPacketTimestamp(),
-            request.packetBytes::stream,
+            request.packetBytes,
             quiescentDurationForRequest);
     }
 
@@ -3,18 +3,35 @@ package org.opensearch.migrations.replay;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import org.opensearch.migrations.replay.analytics.TupleAnalytics;
+
 import lombok.NonNull;
 
 public class TupleParserChainConsumer implements Consumer<SourceTargetCaptureTuple> {
     private final BiConsumer<SourceTargetCaptureTuple, ParsedHttpMessagesAsDicts> innerConsumer;
+    private final TupleAnalytics tupleAnalytics;
 
     public TupleParserChainConsumer(@NonNull BiConsumer<SourceTargetCaptureTuple, ParsedHttpMessagesAsDicts> innerConsumer) {
+        this(innerConsumer, null);
+    }
+
+    /**
+     * @param tupleAnalytics when set, every tuple is folded into these analytics and only the tuples that
+     *                       they ask for are passed to innerConsumer
+     */
+    public TupleParserChainConsumer(
+        @NonNull BiConsumer<SourceTargetCaptureTuple, ParsedHttpMessagesAsDicts> innerConsumer,
+        TupleAnalytics tupleAnalytics
+    ) {
         this.innerConsumer = innerConsumer;
+        this.tupleAnalytics = tupleAnalytics;
     }
 
     @Override
     public void accept(SourceTargetCaptureTuple tuple) {
         var parsedMsgs = new ParsedHttpMessagesAsDicts(tuple);
-        innerConsumer.accept(tuple, parsedMsgs);
+        if (tupleAnalytics == null || tupleAnalytics.recordAndCheckIfFullTupleIsNeeded(tuple, parsedMsgs)) {
+            innerConsumer.accept(tuple, parsedMsgs);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package org.opensearch.migrations.replay.analytics;
+
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Collapses request paths into low-cardinality templates so that statistics can be grouped by the kind of
+ * request rather than by the specific index or document that was addressed.  For example,
+ * {@code GET /logs-2024.01.01/_doc/abc?routing=x} becomes {@code GET /{index}/_doc/{id}}.
+ * <p>
+ * Segments that start with an underscore are API names and are kept.  The first segment is an index
+ * (or index pattern) unless it's an API name, in which case the segment after it is kept too since that's
+ * usually a sub-command, as in {@code /_cat/indices} or {@code /_cluster/health}.  Anything else is
+ * treated as an identifier.
+ */
+public class EndpointTemplates {
+    public static final String UNKNOWN_ENDPOINT = "(unknown)";
+
+    private static final Set<String> ROOT_LEVEL_GETS = Set.of("", "/");
+
+    private EndpointTemplates() {}
+
+    public static String templateOf(String method, String uri) {
+        if (method == null || uri == null) {
+            return UNKNOWN_ENDPOINT;
+        }
+        var queryStart = uri.indexOf('?');
+        var path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+        if (ROOT_LEVEL_GETS.contains(path)) {
+            return method + " /";
+        }
+        var template = new StringJoiner("/", "/", "");
+        int position = 0;
+        boolean startsWithApi = false;
+        for (var segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("_")) {
+                template.add(segment);
+                startsWithApi |= position == 0;
+            } else if (position == 0) {
+                template.add("{index}");
+            } else if (position == 1 && startsWithApi) {
+                template.add(segment);
+            } else {
+                template.add("{id}");
+            }
+            position++;
+        }
+        return method + " " + template;
+    }
+}
@@ -0,0 +1,85 @@
+package org.opensearch.migrations.replay.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds where two parsed JSON documents differ in shape: fields present on only one side, values whose
+ * JSON types differ, and arrays of different lengths.  Leaf values themselves aren't compared since they
+ * routinely differ between clusters (took, _seq_no, scores, etc.) without indicating a problem.
+ * <p>
+ * Array elements are compared position by position and reported under a single {@code []} path so that
+ * a difference in every hit of a search response counts once per response rather than once per hit.
+ */
+public class JsonStructureDiff {
+    static final int MAX_DIFFS_PER_DOCUMENT = 16;
+    static final int MAX_ARRAY_ELEMENTS_COMPARED = 100;
+
+    private JsonStructureDiff() {}
+
+    /** Returns descriptions like {@code "$.hits.hits[]._source.title onlyInSource"}, at most a few per call. */
+    public static List<String> diffPaths(Object source, Object target) {
+        var diffs = new ArrayList<String>();
+        diff("$", source, target, diffs);
+        return diffs;
+    }
+
+    private static void diff(String path, Object source, Object target, List<String> diffs) {
+        if (diffs.size() >= MAX_DIFFS_PER_DOCUMENT) {
+            return;
+        }
+        var sourceType = typeOf(source);
+        var targetType = typeOf(target);
+        if (!sourceType.equals(targetType)) {
+            addOnce(diffs, path + " typeChanged:" + sourceType + "->" + targetType);
+        } else if (source instanceof Map<?, ?> sourceMap) {
+            var targetMap = (Map<?, ?>) target;
+            for (var e : sourceMap.entrySet()) {
+                var childPath = path + "." + e.getKey();
+                if (!targetMap.containsKey(e.getKey())) {
+                    addOnce(diffs, childPath + " onlyInSource");
+                } else {
+                    diff(childPath, e.getValue(), targetMap.get(e.getKey()), diffs);
+                }
+            }
+            for (var key : targetMap.keySet()) {
+                if (!sourceMap.containsKey(key)) {
+                    addOnce(diffs, path + "." + key + " onlyInTarget");
+                }
+            }
+        } else if (source instanceof List<?> sourceList) {
+            var targetList = (List<?>) target;
+            if (sourceList.size() != targetList.size()) {
+                addOnce(diffs, path + " lengthChanged");
+            }
+            var elementPath = path + "[]";
+            var toCompare = Math.min(MAX_ARRAY_ELEMENTS_COMPARED, Math.min(sourceList.size(), targetList.size()));
+            for (int i = 0; i < toCompare; i++) {
+                diff(elementPath, sourceList.get(i), targetList.get(i), diffs);
+            }
+        }
+    }
+
+    private static void addOnce(List<String> diffs, String diff) {
+        if (diffs.size() < MAX_DIFFS_PER_DOCUMENT && !diffs.contains(diff)) {
+            diffs.add(diff);
+        }
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return "null";
+        } else if (value instanceof Map) {
+            return "object";
+        } else if (value instanceof List) {
+            return "array";
+        } else if (value instanceof Number) {
+            return "number";
+        } else if (value instanceof Boolean) {
+            return "boolean";
+        } else {
+            return "string";
+        }
+    }
+}
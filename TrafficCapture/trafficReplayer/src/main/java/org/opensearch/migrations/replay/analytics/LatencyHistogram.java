@@ -0,0 +1,74 @@
+package org.opensearch.migrations.replay.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free histogram of non-negative millisecond latencies.  Values under 16 are counted
+ * exactly and every power of two above that is split into 16 buckets, so reported percentiles are within
+ * about 6% of the recorded values while the histogram never grows past ~1000 counters.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double[] REPORTED_PERCENTILES = { 50, 90, 99 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong maxValue = new AtomicLong();
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        var shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** The largest value that lands in the given bucket. */
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var shift = index / SUB_BUCKETS - 1;
+        var lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public void record(long valueMs) {
+        counts.incrementAndGet(bucketIndex(valueMs));
+        maxValue.accumulateAndGet(valueMs, Math::max);
+    }
+
+    /**
+     * Returns the count, max, and p50/p90/p99 of what was recorded since the last call and starts over.
+     * Values recorded while this runs may land in either this snapshot or the next one.
+     */
+    public Map<String, Object> snapshotAndReset() {
+        var snapshot = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            snapshot[i] = counts.getAndSet(i, 0);
+            total += snapshot[i];
+        }
+        var max = maxValue.getAndSet(0);
+        var map = new LinkedHashMap<String, Object>();
+        map.put("count", total);
+        if (total == 0) {
+            return map;
+        }
+        int bucket = 0;
+        long seen = 0;
+        for (var percentile : REPORTED_PERCENTILES) {
+            var rank = (long) Math.ceil(total * percentile / 100.0);
+            while (seen + snapshot[bucket] < rank) {
+                seen += snapshot[bucket++];
+            }
+            map.put("p" + (int) percentile, Math.min(max, highestValueInBucket(bucket)));
+        }
+        map.put("max", max);
+        return map;
+    }
+}
@@ -0,0 +1,308 @@
+package org.opensearch.migrations.replay.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.replay.ParsedHttpMessagesAsDicts;
+import org.opensearch.migrations.replay.SourceTargetCaptureTuple;
+import org.opensearch.migrations.replay.datatypes.ElidedResponseBody;
+import org.opensearch.migrations.transform.JsonKeysForHttpMessage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates source/target comparisons in memory so that only a fraction of the full tuples needs to be
+ * written out.  For every tuple this records, per endpoint template (see {@link EndpointTemplates}),
+ * source and target latencies, the pair of status codes, the error types of failed bulk items, and where
+ * the response bodies differ structurally (see {@link JsonStructureDiff}).  {@link #publish()} logs what
+ * was accumulated since the last call as one JSON object and is meant to be called periodically.
+ * <p>
+ * {@link #recordAndCheckIfFullTupleIsNeeded} returns true for every mismatched transaction (different
+ * status codes, structural differences, differing bulk errors, elided bodies that don't match, or
+ * errors while replaying) and for a random sample of the others.  Structural differences that every
+ * transaction between the two clusters is expected to show (see {@link #DEFAULT_IGNORED_STRUCTURE_DIFFS})
+ * are still counted but don't make a transaction mismatched.  Every breakdown is capped in size so
+ * that unusual traffic can't grow memory without bound; keys beyond the cap are counted under
+ * {@link #OVERFLOW_KEY}.
+ */
+@Slf4j
+public class TupleAnalytics {
+    public static final String TUPLE_ANALYTICS_LOGGER = "TupleAnalyticsLogger";
+    public static final String OVERFLOW_KEY = "(other)";
+    static final int MAX_ENDPOINT_TEMPLATES = 200;
+    static final int MAX_KEYS_PER_BREAKDOWN = 1000;
+    private static final String MISSING_STR = "-";
+    private static final ObjectMapper PLAIN_MAPPER = new ObjectMapper();
+
+    /**
+     * Patterns for the {@link JsonStructureDiff} descriptions that come from Elasticsearch 6/7 sources and
+     * OpenSearch targets returning differently shaped responses rather than from a replay problem: only the
+     * source returns {@code _type} (in documents, search hits and bulk items), and ES 6 returns
+     * {@code hits.total} as a number where OpenSearch returns an object.  {@code *} matches any characters.
+     */
+    public static final List<String> DEFAULT_IGNORED_STRUCTURE_DIFFS = List.of(
+        "*._type onlyInSource",
+        "*.hits.total typeChanged:number->object"
+    );
+
+    private final double fullTupleSampleRate;
+    private final List<Pattern> ignoredStructureDiffs;
+    private final Logger analyticsLogger;
+
+    private final ConcurrentHashMap<String, EndpointStats> endpointStats = new ConcurrentHashMap<>();
+    private final KeyedCounters statusCodePairs = new KeyedCounters(MAX_KEYS_PER_BREAKDOWN);
+    private final KeyedCounters sourceBulkItemErrors = new KeyedCounters(MAX_KEYS_PER_BREAKDOWN);
+    private final KeyedCounters targetBulkItemErrors = new KeyedCounters(MAX_KEYS_PER_BREAKDOWN);
+    private final KeyedCounters bodyStructureDiffs = new KeyedCounters(MAX_KEYS_PER_BREAKDOWN);
+    private final LongAdder tuplesSeen = new LongAdder();
+    private final LongAdder mismatchedTuples = new LongAdder();
+    private final LongAdder fullTuplesEmitted = new LongAdder();
+
+    private static class EndpointStats {
+        final LongAdder count = new LongAdder();
+        final LatencyHistogram sourceLatencies = new LatencyHistogram();
+        final LatencyHistogram targetLatencies = new LatencyHistogram();
+    }
+
+    private static class KeyedCounters {
+        private final int maxKeys;
+        private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+        KeyedCounters(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        void increment(String key) {
+            var counter = counters.get(key);
+            if (counter == null) {
+                counter = counters.computeIfAbsent(counters.size() < maxKeys ? key : OVERFLOW_KEY,
+                    k -> new LongAdder());
+            }
+            counter.increment();
+        }
+
+        Map<String, Long> snapshotAndReset() {
+            var snapshot = new TreeMap<String, Long>();
+            counters.forEach((k, v) -> {
+                var count = v.sumThenReset();
+                if (count > 0) {
+                    snapshot.put(k, count);
+                }
+            });
+            return snapshot;
+        }
+    }
+
+    /**
+     * @param fullTupleSampleRate the fraction (0.0-1.0) of tuples without any mismatch that should still be
+     *                            written out in full
+     */
+    public TupleAnalytics(double fullTupleSampleRate) {
+        this(fullTupleSampleRate, null);
+    }
+
+    public TupleAnalytics(double fullTupleSampleRate, Logger analyticsLogger) {
+        this(fullTupleSampleRate, DEFAULT_IGNORED_STRUCTURE_DIFFS, analyticsLogger);
+    }
+
+    /**
+     * @param ignoredStructureDiffs patterns (see {@link #DEFAULT_IGNORED_STRUCTURE_DIFFS}) for structural
+     *                              differences that are counted but don't make a transaction mismatched
+     */
+    public TupleAnalytics(double fullTupleSampleRate, List<String> ignoredStructureDiffs, Logger analyticsLogger) {
+        if (fullTupleSampleRate < 0 || fullTupleSampleRate > 1) {
+            throw new IllegalArgumentException("fullTupleSampleRate must be between 0 and 1, was "
+                + fullTupleSampleRate);
+        }
+        this.fullTupleSampleRate = fullTupleSampleRate;
+        this.ignoredStructureDiffs = ignoredStructureDiffs.stream().map(TupleAnalytics::globToPattern).toList();
+        this.analyticsLogger = analyticsLogger != null
+            ? analyticsLogger
+            : LoggerFactory.getLogger(TUPLE_ANALYTICS_LOGGER);
+    }
+
+    /**
+     * Folds the tuple into the running statistics.
+     * @return true when the full tuple should still be written out
+     */
+    public boolean recordAndCheckIfFullTupleIsNeeded(
+        SourceTargetCaptureTuple tuple,
+        ParsedHttpMessagesAsDicts parsed
+    ) {
+        var hadErrors = tuple.topLevelErrorCause != null
+            || tuple.responseList.stream().anyMatch(r -> r.getErrorCause() != null);
+        return record(parsed, hadErrors);
+    }
+
+    boolean record(ParsedHttpMessagesAsDicts parsed, boolean hadErrors) {
+        tuplesSeen.increment();
+        var endpoint = parsed.sourceRequestOp
+            .map(r -> EndpointTemplates.templateOf(
+                (String) r.get(ParsedHttpMessagesAsDicts.METHOD_KEY),
+                (String) r.get(ParsedHttpMessagesAsDicts.REQUEST_URI_KEY)))
+            .orElse(EndpointTemplates.UNKNOWN_ENDPOINT);
+        var sourceResponse = parsed.sourceResponseOp.orElse(null);
+        var targetResponse = parsed.targetResponseList.isEmpty()
+            ? null
+            : parsed.targetResponseList.get(parsed.targetResponseList.size() - 1);
+
+        var stats = statsFor(endpoint);
+        stats.count.increment();
+        latencyOf(sourceResponse).ifPresent(stats.sourceLatencies::record);
+        latencyOf(targetResponse).ifPresent(stats.targetLatencies::record);
+
+        var sourceStatus = valueOf(sourceResponse, ParsedHttpMessagesAsDicts.STATUS_CODE_KEY);
+        var targetStatus = valueOf(targetResponse, ParsedHttpMessagesAsDicts.STATUS_CODE_KEY);
+        statusCodePairs.increment(Objects.toString(sourceStatus, MISSING_STR) + "->"
+            + Objects.toString(targetStatus, MISSING_STR));
+        var mismatched = hadErrors || !Objects.equals(sourceStatus, targetStatus);
+
+        var sourceBody = jsonBodyOf(sourceResponse);
+        var targetBody = jsonBodyOf(targetResponse);
+        if (endpoint.endsWith("/_bulk")) {
+            var sourceErrors = bulkItemErrorTypes(sourceBody);
+            var targetErrors = bulkItemErrorTypes(targetBody);
+            sourceErrors.forEach(sourceBulkItemErrors::increment);
+            targetErrors.forEach(targetBulkItemErrors::increment);
+            mismatched |= !countsOf(sourceErrors).equals(countsOf(targetErrors));
+        }
+        if (sourceBody != null && targetBody != null) {
+            var diffs = JsonStructureDiff.diffPaths(sourceBody, targetBody);
+            diffs.forEach(d -> bodyStructureDiffs.increment(endpoint + " " + d));
+            mismatched |= diffs.stream().anyMatch(d -> !isIgnoredStructureDiff(d));
+        }
+        var elidedBody = valueOf(targetResponse, ElidedResponseBody.ELIDED_BODY_KEY);
+        if (elidedBody instanceof Map<?, ?> elidedBodyMap) {
+            mismatched |= Boolean.FALSE.equals(elidedBodyMap.get("matchesSource"));
+        }
+
+        if (mismatched) {
+            mismatchedTuples.increment();
+        }
+        var emitFullTuple = mismatched
+            || fullTupleSampleRate >= 1.0
+            || ThreadLocalRandom.current().nextDouble() < fullTupleSampleRate;
+        if (emitFullTuple) {
+            fullTuplesEmitted.increment();
+        }
+        return emitFullTuple;
+    }
+
+    private boolean isIgnoredStructureDiff(String diff) {
+        return ignoredStructureDiffs.stream().anyMatch(p -> p.matcher(diff).matches());
+    }
+
+    private static Pattern globToPattern(String glob) {
+        var regex = new StringBuilder();
+        var literals = glob.split("\\*", -1);
+        for (int i = 0; i < literals.length; i++) {
+            if (i > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(literals[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private EndpointStats statsFor(String endpoint) {
+        var stats = endpointStats.get(endpoint);
+        if (stats != null) {
+            return stats;
+        }
+        var key = endpointStats.size() < MAX_ENDPOINT_TEMPLATES ? endpoint : OVERFLOW_KEY;
+        return endpointStats.computeIfAbsent(key, k -> new EndpointStats());
+    }
+
+    private static Object valueOf(Map<String, Object> response, String key) {
+        return response == null ? null : response.get(key);
+    }
+
+    private static Optional<Long> latencyOf(Map<String, Object> response) {
+        return Optional.ofNullable(valueOf(response, ParsedHttpMessagesAsDicts.RESPONSE_TIME_MS_KEY))
+            .filter(Number.class::isInstance)
+            .map(v -> ((Number) v).longValue());
+    }
+
+    private static Object jsonBodyOf(Map<String, Object> response) {
+        var payload = valueOf(response, ParsedHttpMessagesAsDicts.PAYLOAD_KEY);
+        return payload instanceof Map<?, ?> payloadMap
+            ? payloadMap.get(JsonKeysForHttpMessage.INLINED_JSON_BODY_DOCUMENT_KEY)
+            : null;
+    }
+
+    /** The error type of every failed item in a bulk response, e.g. version_conflict_engine_exception. */
+    static List<String> bulkItemErrorTypes(Object bulkResponseBody) {
+        if (!(bulkResponseBody instanceof Map<?, ?> body) || !(body.get("items") instanceof List<?> items)) {
+            return List.of();
+        }
+        return items.stream()
+            .filter(Map.class::isInstance)
+            .flatMap(item -> ((Map<?, ?>) item).values().stream())
+            .filter(Map.class::isInstance)
+            .map(result -> ((Map<?, ?>) result).get("error"))
+            .filter(Objects::nonNull)
+            .map(error -> error instanceof Map<?, ?> errorMap
+                ? Objects.toString(errorMap.get("type"), MISSING_STR)
+                : error.toString())
+            .collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> countsOf(List<String> values) {
+        return values.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    /** Returns everything recorded since the last call and starts over. */
+    public Map<String, Object> snapshotAndReset() {
+        var snapshot = new LinkedHashMap<String, Object>();
+        snapshot.put("tuples", tuplesSeen.sumThenReset());
+        snapshot.put("mismatchedTuples", mismatchedTuples.sumThenReset());
+        snapshot.put("fullTuplesEmitted", fullTuplesEmitted.sumThenReset());
+        var endpoints = new TreeMap<String, Object>();
+        endpointStats.forEach((endpoint, stats) -> {
+            var count = stats.count.sumThenReset();
+            var sourceLatencies = stats.sourceLatencies.snapshotAndReset();
+            var targetLatencies = stats.targetLatencies.snapshotAndReset();
+            if (count > 0) {
+                var endpointMap = new LinkedHashMap<String, Object>();
+                endpointMap.put("count", count);
+                endpointMap.put("sourceLatencyMs", sourceLatencies);
+                endpointMap.put("targetLatencyMs", targetLatencies);
+                endpoints.put(endpoint, endpointMap);
+            }
+        });
+        snapshot.put("endpoints", endpoints);
+        snapshot.put("statusCodes", statusCodePairs.snapshotAndReset());
+        snapshot.put("bulkItemErrors", Map.of(
+            "source", sourceBulkItemErrors.snapshotAndReset(),
+            "target", targetBulkItemErrors.snapshotAndReset()));
+        snapshot.put("bodyStructureDiffs", bodyStructureDiffs.snapshotAndReset());
+        return snapshot;
+    }
+
+    /** Logs everything recorded since the last call to {@link #TUPLE_ANALYTICS_LOGGER} and starts over. */
+    public void publish() {
+        var snapshot = snapshotAndReset();
+        if (!analyticsLogger.isInfoEnabled()) {
+            return;
+        }
+        try {
+            analyticsLogger.atInfo().setMessage("{}").addArgument(PLAIN_MAPPER.writeValueAsString(snapshot)).log();
+        } catch (JsonProcessingException e) {
+            log.atError().setCause(e).setMessage("Unable to serialize tuple analytics").log();
+        }
+    }
+}
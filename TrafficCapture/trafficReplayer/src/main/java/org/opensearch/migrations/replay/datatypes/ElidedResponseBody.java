@@ -0,0 +1,68 @@
+package org.opensearch.migrations.replay.datatypes;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import org.opensearch.migrations.trafficcapture.protos.WriteElidedObservation;
+
+/**
+ * What the capture proxy left out of a source response (see the proxy's --responseCapturePolicy).  The
+ * captured packets hold the full headers plus {@code capturedBodyByteLength} bytes of the body; the
+ * remaining {@code elidedByteLength} bytes were only measured and, when fingerprinted, checksummed.
+ * <p>
+ * {@link #measure} applies the same cut to a target response so that the two can be compared.  Both
+ * sides treat the body as the raw bytes after the headers, so responses that were chunked differently
+ * won't have matching fingerprints even when their content matches.
+ */
+public record ElidedResponseBody(long capturedBodyByteLength, long elidedByteLength, Integer crc32c) {
+    public static final String ELIDED_BODY_KEY = "Elided-Body";
+    private static final int HEADER_TERMINATOR_LENGTH = 4; // CR LF CR LF
+
+    public static ElidedResponseBody fromObservation(WriteElidedObservation observation) {
+        return new ElidedResponseBody(
+            observation.getCapturedBodyByteLength(),
+            observation.getElidedByteLength(),
+            observation.hasCrc32C() ? observation.getCrc32C() : null
+        );
+    }
+
+    /** Cuts {@code responsePackets} the same way that the proxy cut the response this was created for. */
+    public ElidedResponseBody measure(List<byte[]> responsePackets) {
+        var crc = crc32c == null ? null : new CRC32C();
+        int headerTerminatorBytesMatched = 0;
+        long bodyBytesSkipped = 0;
+        long elided = 0;
+        for (var packet : responsePackets) {
+            int i = 0;
+            while (headerTerminatorBytesMatched < HEADER_TERMINATOR_LENGTH && i < packet.length) {
+                var expected = (headerTerminatorBytesMatched % 2 == 0) ? '\r' : '\n';
+                var b = packet[i++];
+                if (b == expected) {
+                    headerTerminatorBytesMatched++;
+                } else {
+                    headerTerminatorBytesMatched = (b == '\r') ? 1 : 0;
+                }
+            }
+            int toSkip = (int) Math.min(packet.length - i, capturedBodyByteLength - bodyBytesSkipped);
+            bodyBytesSkipped += toSkip;
+            i += toSkip;
+            elided += packet.length - i;
+            if (crc != null) {
+                crc.update(packet, i, packet.length - i);
+            }
+        }
+        return new ElidedResponseBody(bodyBytesSkipped, elided, crc == null ? null : (int) crc.getValue());
+    }
+
+    public Map<String, Object> toMap() {
+        var map = new LinkedHashMap<String, Object>();
+        map.put("capturedBodyBytes", capturedBodyByteLength);
+        map.put("elidedBytes", elidedByteLength);
+        if (crc32c != null) {
+            map.put("crc32c", Integer.toUnsignedString(crc32c, 16));
+        }
+        return map;
+    }
+}
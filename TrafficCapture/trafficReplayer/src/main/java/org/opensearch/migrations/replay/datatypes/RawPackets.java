@@ -1,34 +1,94 @@
 package org.opensearch.migrations.replay.datatypes;
 
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.opensearch.migrations.replay.util.RefSafeStreamUtils;
+
+import com.google.errorprone.annotations.MustBeClosed;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The captured packets of one HTTP message.  Packets are kept as the {@link ByteString}s that the
+ * TrafficStream protobufs were parsed into, so accumulating them doesn't copy the captured bytes,
+ * and {@link #asByteBufStream()} exposes them to Netty as read-only views over the same memory.
+ *
+ * <p>The {@code List<byte[]>} view is kept for callers that want arrays; each {@link #get(int)}
+ * copies the packet out, so hot paths should use {@link #asByteBufStream()} or {@link #byteStrings()}.
+ */
+public class RawPackets extends AbstractList<byte[]> {
+    private final ArrayList<ByteString> packets = new ArrayList<>();
+
+    /** Adds a packet without copying it. */
+    public void addPacket(ByteString packet) {
+        packets.add(packet);
+    }
+
+    /** Adds a packet without copying it - the caller must not modify {@code packet} afterwards. */
+    @Override
+    public boolean add(byte[] packet) {
+        packets.add(UnsafeByteOperations.unsafeWrap(packet));
+        return true;
+    }
+
+    @Override
+    public byte[] get(int index) {
+        return packets.get(index).toByteArray();
+    }
+
+    @Override
+    public int size() {
+        return packets.size();
+    }
+
+    public List<ByteString> byteStrings() {
+        return Collections.unmodifiableList(packets);
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (var packet : packets) {
+            total += packet.size();
+        }
+        return total;
+    }
+
+    /** Read-only, zero-copy ByteBufs over each packet, released when the stream is closed. */
+    @MustBeClosed
+    public Stream<ByteBuf> asByteBufStream() {
+        return RefSafeStreamUtils.refSafeMap(packets.stream(), RawPackets::toReadOnlyByteBuf);
+    }
+
+    /**
+     * Wraps {@code packet} in a read-only ByteBuf without copying.  A packet that was concatenated
+     * from segments is made of several buffers and comes back as a composite over all of them.
+     */
+    public static ByteBuf toReadOnlyByteBuf(ByteString packet) {
+        var buffers = packet.asReadOnlyByteBufferList();
+        if (buffers.size() == 1) {
+            return Unpooled.wrappedBuffer(buffers.get(0));
+        }
+        return Unpooled.wrappedBuffer(buffers.toArray(new ByteBuffer[0])).asReadOnly();
+    }
 
-public class RawPackets extends ArrayList<byte[]> {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof RawPackets)) {
             return false;
         }
-        RawPackets that = (RawPackets) o;
-        if (size() != that.size()) {
-            return false;
-        }
-
-        for (int i = 0; i < size(); i++) {
-            if (!Arrays.equals(get(i), that.get(i))) {
-                return false;
-            }
-        }
-        return true;
+        return packets.equals(((RawPackets) o).packets);
     }
 
     @Override
     public int hashCode() {
-        int result = 29;
-        for (byte[] array : this) {
-            result = 31 * result + Arrays.hashCode(array);
-        }
-        return result;
+        return packets.hashCode();
     }
 }
@@ -188,16 +188,15 @@ public class HttpTransactionDumper implements AccumulationCallbacks {
 
     private static long messageSize(HttpMessageAndTimestamp msg) {
         if (msg == null || msg.packetBytes == null) return 0;
-        return msg.packetBytes.stream().mapToLong(b -> b.length).sum();
+        return msg.packetBytes.totalBytes();
     }
 
     static String extractFirstLine(HttpMessageAndTimestamp msg) {
         if (msg == null || msg.packetBytes == null) return "<empty>";
-        var iter = msg.packetBytes.stream().iterator();
         var sb = new StringBuilder();
-        while (iter.hasNext()) {
-            var chunk = iter.next();
-            for (byte b : chunk) {
+        for (var chunk : msg.packetBytes.byteStrings()) {
+            for (var bytes = chunk.iterator(); bytes.hasNext();) {
+                byte b = bytes.nextByte();
                 if (b == '\r' || b == '\n') {
                     return sb.toString();
                 }
@@ -10,6 +10,7 @@ import java.util.function.Supplier;
 
 import org.opensearch.migrations.replay.ParsedHttpMessagesAsDicts;
 import org.opensearch.migrations.replay.SourceTargetCaptureTuple;
+import org.opensearch.migrations.replay.analytics.TupleAnalytics;
 import org.opensearch.migrations.transform.IJsonTransformer;
 import org.opensearch.migrations.transform.ThreadSafeTransformerWrapper;
 
@@ -30,6 +31,7 @@ public class ThreadLocalTupleWriter implements AutoCloseable {
     private final AtomicInteger sinkIndexCounter = new AtomicInteger();
     private final IntFunction<TupleSink> sinkFactory;
     private final ThreadSafeTransformerWrapper tupleTransformer;
+    private final TupleAnalytics tupleAnalytics;
 
     private final FastThreadLocal<TupleSink> threadLocalSink = new FastThreadLocal<>() {
         @Override
@@ -54,8 +56,23 @@ public class ThreadLocalTupleWriter implements AutoCloseable {
     public ThreadLocalTupleWriter(
         IntFunction<TupleSink> sinkFactory,
         Supplier<IJsonTransformer> tupleTransformerSupplier
+    ) {
+        this(sinkFactory, tupleTransformerSupplier, null);
+    }
+
+    /**
+     * @param sinkFactory creates a new sink for each thread, given a sink index
+     * @param tupleTransformerSupplier creates a tuple transformer per thread
+     * @param tupleAnalytics when set, every tuple is folded into these analytics and only the tuples that
+     *                       they ask for are written to a sink
+     */
+    public ThreadLocalTupleWriter(
+        IntFunction<TupleSink> sinkFactory,
+        Supplier<IJsonTransformer> tupleTransformerSupplier,
+        TupleAnalytics tupleAnalytics
     ) {
         this.sinkFactory = sinkFactory;
+        this.tupleAnalytics = tupleAnalytics;
         var transformerSupplier = tupleTransformerSupplier != null
             ? tupleTransformerSupplier
             : NOOP_TRANSFORMER_SUPPLIER;
@@ -63,10 +80,14 @@ public class ThreadLocalTupleWriter implements AutoCloseable {
     }
 
     /**
-     * Write a tuple. Called on a Netty event loop thread.
+     * Write a tuple. Called on a Netty event loop thread.  Tuples that the analytics don't need written in
+     * full are only recorded there and the returned future is already complete.
      */
     @SuppressWarnings("unchecked")
     public CompletableFuture<Void> writeTuple(SourceTargetCaptureTuple tuple, ParsedHttpMessagesAsDicts parsed) {
+        if (tupleAnalytics != null && !tupleAnalytics.recordAndCheckIfFullTupleIsNeeded(tuple, parsed)) {
+            return CompletableFuture.completedFuture(null);
+        }
         var future = new CompletableFuture<Void>();
         try {
             var transformedTuple = tupleTransformer.transformJson(parsed.toTupleMap(tuple));
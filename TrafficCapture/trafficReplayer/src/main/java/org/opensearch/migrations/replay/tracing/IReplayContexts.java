@@ -69,6 +69,8 @@ public interface IReplayContexts {
         public static final String BYTES_WRITTEN_TO_TARGET = "bytesWrittenToTarget";
         public static final String BYTES_READ_FROM_TARGET = "bytesReadFromTarget";
         public static final String TUPLE_COMPARISON = "tupleComparison";
+        public static final String REPLAY_LAG_BEHIND_REAL_TIME = "replayLagBehindRealTime";
+        public static final String REPLAY_RATE_MULTIPLIER = "replayRateMultiplier";
     }
 
     interface IAccumulationScope extends IScopedInstrumentationAttributes {}
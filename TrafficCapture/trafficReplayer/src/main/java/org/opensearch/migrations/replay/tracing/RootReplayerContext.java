@@ -1,5 +1,10 @@
 package org.opensearch.migrations.replay.tracing;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
 import org.opensearch.migrations.replay.datatypes.ISourceTrafficChannelKey;
 import org.opensearch.migrations.replay.datatypes.ITrafficStreamKey;
 import org.opensearch.migrations.replay.traffic.source.InputStreamOfTraffic;
@@ -70,6 +75,23 @@ public class RootReplayerContext extends RootOtelContext implements IRootReplaye
         tupleHandlingInstruments = ReplayContexts.TupleHandlingContext.makeMetrics(meter);
     }
 
+    /**
+     * Publish how far the replay trails real time and the rate multiplier being used to catch up as
+     * observable gauges.  The lag isn't recorded until the first source timestamp has been seen.
+     */
+    public void registerReplayPacingGauges(
+        Supplier<Optional<Duration>> lagBehindRealTimeSupplier,
+        DoubleSupplier rateMultiplierSupplier
+    ) {
+        var meter = getMeterProvider().get(SCOPE_NAME);
+        meter.gaugeBuilder(IReplayContexts.MetricNames.REPLAY_LAG_BEHIND_REAL_TIME)
+            .ofLongs()
+            .setUnit("ms")
+            .buildWithCallback(m -> lagBehindRealTimeSupplier.get().ifPresent(lag -> m.record(lag.toMillis())));
+        meter.gaugeBuilder(IReplayContexts.MetricNames.REPLAY_RATE_MULTIPLIER)
+            .buildWithCallback(m -> m.record(rateMultiplierSupplier.getAsDouble()));
+    }
+
     @Override
     public TrafficSourceContexts.ReadChunkContext createReadChunkContext() {
         return new TrafficSourceContexts.ReadChunkContext(this, null);
@@ -1,10 +1,10 @@
 package org.opensearch.migrations.trafficcapture.protos;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Timestamp;
 
 public class TrafficStreamUtils {
@@ -36,20 +36,20 @@ public class TrafficStreamUtils {
     }
 
     private static String getOptionalContext(TrafficObservation tso) {
-        return Optional.ofNullable(getByteArrayForDataOf(tso))
-            .map(b -> " " + new String(b, 0, Math.min(3, b.length), StandardCharsets.UTF_8))
+        return Optional.ofNullable(getDataOf(tso))
+            .map(b -> " " + b.substring(0, Math.min(3, b.size())).toStringUtf8())
             .orElse("");
     }
 
-    private static byte[] getByteArrayForDataOf(TrafficObservation tso) {
+    private static ByteString getDataOf(TrafficObservation tso) {
         if (tso.hasRead()) {
-            return tso.getRead().getData().toByteArray();
+            return tso.getRead().getData();
         } else if (tso.hasReadSegment()) {
-            return tso.getReadSegment().getData().toByteArray();
+            return tso.getReadSegment().getData();
         } else if (tso.hasWrite()) {
-            return tso.getWrite().getData().toByteArray();
+            return tso.getWrite().getData();
         } else if (tso.hasWriteSegment()) {
-            return tso.getWriteSegment().getData().toByteArray();
+            return tso.getWriteSegment().getData();
         } else {
             return null;
         }
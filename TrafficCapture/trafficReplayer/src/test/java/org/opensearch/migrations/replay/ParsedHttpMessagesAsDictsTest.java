@@ -1,14 +1,31 @@
 package org.opensearch.migrations.replay;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.zip.CRC32C;
 
+import org.opensearch.migrations.replay.datatypes.ByteBufList;
+import org.opensearch.migrations.replay.datatypes.ElidedResponseBody;
+import org.opensearch.migrations.replay.datatypes.HttpRequestTransformationStatus;
+import org.opensearch.migrations.replay.datatypes.PojoTrafficStreamKeyAndContext;
 import org.opensearch.migrations.tracing.InstrumentationTest;
 import org.opensearch.migrations.tracing.TestContext;
 
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
 class ParsedHttpMessagesAsDictsTest extends InstrumentationTest {
 
+    private static final String REQUEST = "GET /index/_search HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    private static final String RESPONSE_HEADERS = "HTTP/1.1 200 OK\r\nContent-Length: 20\r\n\r\n";
+
     @Override
     protected TestContext makeInstrumentationContext() {
         return TestContext.withTracking(false, true);
@@ -24,4 +41,64 @@ class ParsedHttpMessagesAsDictsTest extends InstrumentationTest {
         );
     }
 
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> elidedBodyOf(Map<String, Object> response) {
+        return (Map<String, Object>) response.get(ElidedResponseBody.ELIDED_BODY_KEY);
+    }
+
+    private ParsedHttpMessagesAsDicts parseTupleWithElidedSource(String sourceBody, String targetBody) {
+        var trafficStreamKey = PojoTrafficStreamKeyAndContext.build(
+            "n",
+            "c",
+            0,
+            rootContext::createTrafficStreamContextForTest
+        );
+        var sourcePair = new RequestResponsePacketPair(trafficStreamKey, Instant.EPOCH, 0, 0);
+        sourcePair.addRequestData(Instant.EPOCH, utf8(REQUEST));
+        // the proxy kept the headers and 5 body bytes and fingerprinted the rest
+        sourcePair.addResponseData(Instant.EPOCH, utf8(RESPONSE_HEADERS + sourceBody.substring(0, 5)));
+        var crc = new CRC32C();
+        crc.update(utf8(sourceBody.substring(5)));
+        sourcePair.responseData.setElidedBody(new ElidedResponseBody(5, 15, (int) crc.getValue()));
+
+        var targetRequest = new ByteBufList();
+        targetRequest.add(Unpooled.wrappedBuffer(utf8(REQUEST)));
+        var targetResponse = new ArrayList<AbstractMap.SimpleEntry<Instant, byte[]>>();
+        targetResponse.add(new AbstractMap.SimpleEntry<>(Instant.EPOCH, utf8(RESPONSE_HEADERS + targetBody)));
+        var targetResponses = new TransformedTargetRequestAndResponseList(
+            targetRequest,
+            HttpRequestTransformationStatus.skipped(),
+            new AggregatedRawResponse(null, 0, Duration.ZERO, targetResponse, null)
+        );
+        try (var tupleContext = rootContext.getTestTupleContext()) {
+            return new ParsedHttpMessagesAsDicts(new SourceTargetCaptureTuple(tupleContext, sourcePair, targetResponses, null));
+        } finally {
+            targetRequest.release();
+        }
+    }
+
+    @Test
+    void elidedSourceResponseIsParsedFromItsHeadersAndComparedWithTheTarget() {
+        var body = "{\"hits\":[1,2,3,4,5]}";
+        var parsed = parseTupleWithElidedSource(body, body);
+
+        var sourceResponse = parsed.sourceResponseOp.orElseThrow();
+        Assertions.assertEquals(200, sourceResponse.get(ParsedHttpMessagesAsDicts.STATUS_CODE_KEY));
+        Assertions.assertEquals(15L, elidedBodyOf(sourceResponse).get("elidedBytes"));
+
+        var targetElidedBody = elidedBodyOf(parsed.targetResponseList.get(0));
+        Assertions.assertEquals(15L, targetElidedBody.get("elidedBytes"));
+        Assertions.assertEquals(elidedBodyOf(sourceResponse).get("crc32c"), targetElidedBody.get("crc32c"));
+        Assertions.assertEquals(true, targetElidedBody.get("matchesSource"));
+    }
+
+    @Test
+    void elidedBodyComparisonDetectsADifferentTargetBody() {
+        var parsed = parseTupleWithElidedSource("{\"hits\":[1,2,3,4,5]}", "{\"hits\":[1,2,3,4,6]}");
+        Assertions.assertEquals(false, elidedBodyOf(parsed.targetResponseList.get(0)).get("matchesSource"));
+    }
 }
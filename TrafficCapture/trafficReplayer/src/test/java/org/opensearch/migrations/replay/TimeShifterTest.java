@@ -1,7 +1,10 @@
 package org.opensearch.migrations.replay;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Optional;
 
 import org.opensearch.migrations.testutils.WrapWithNettyLeakDetection;
@@ -37,4 +40,115 @@ class TimeShifterTest {
             shifter.transformRealTimeToSourceTime(shifter.transformSourceTimeToRealTime(sourceTime2)).get()
         );
     }
+
+    private static class SimulatedClock extends Clock {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static TimeShifter makeCatchUpShifter(SimulatedClock clock, Duration initialLag) {
+        var shifter = new TimeShifter(1.0, Duration.ZERO, 8.0, Duration.ofSeconds(30), clock);
+        shifter.setFirstTimestamp(clock.now.minus(initialLag));
+        return shifter;
+    }
+
+    @Test
+    public void testCatchesUpAndGlidesBackWithoutOvershooting() {
+        var clock = new SimulatedClock();
+        var shifter = makeCatchUpShifter(clock, Duration.ofMinutes(10));
+        var tick = Duration.ofSeconds(1);
+        var lookahead = Duration.ofSeconds(5);
+        double highestRate = 0;
+        var lastMappedRealTime = Instant.MIN;
+        for (int i = 0; i < 600; i++) {
+            // like the ReplayEngine, schedule work a little ahead of the current source time
+            var sourceTimeToSchedule = shifter.transformRealTimeToSourceTime(clock.now).orElseThrow().plus(lookahead);
+            var realTime = shifter.transformSourceTimeToRealTime(sourceTimeToSchedule);
+            Assertions.assertFalse(realTime.isBefore(lastMappedRealTime), "real times went backwards at tick " + i);
+            lastMappedRealTime = realTime;
+
+            clock.advance(tick);
+            shifter.adjustCatchUpRate(tick, false);
+            highestRate = Math.max(highestRate, shifter.getCurrentRateMultiplier());
+            var lag = shifter.getLagBehindRealTime().orElseThrow();
+            Assertions.assertFalse(lag.isNegative(), "overshot real time at tick " + i + " with lag " + lag);
+        }
+        Assertions.assertEquals(8.0, highestRate);
+        Assertions.assertEquals(1.0, shifter.getCurrentRateMultiplier());
+        var finalLag = shifter.getLagBehindRealTime().orElseThrow();
+        Assertions.assertTrue(finalLag.compareTo(Duration.ofSeconds(30)) < 0, "final lag was " + finalLag);
+    }
+
+    @Test
+    public void testRateDoesNotRampWhileTheTargetIsBackedUp() {
+        var clock = new SimulatedClock();
+        var shifter = makeCatchUpShifter(clock, Duration.ofMinutes(10));
+        var tick = Duration.ofSeconds(1);
+        for (int i = 0; i < 5; i++) {
+            clock.advance(tick);
+            shifter.adjustCatchUpRate(tick, false);
+        }
+        var rampedRate = shifter.getCurrentRateMultiplier();
+        Assertions.assertTrue(rampedRate > 1.0);
+        for (int i = 0; i < 5; i++) {
+            clock.advance(tick);
+            shifter.adjustCatchUpRate(tick, true);
+            var rate = shifter.getCurrentRateMultiplier();
+            Assertions.assertTrue(rate < rampedRate);
+            rampedRate = rate;
+        }
+        Assertions.assertEquals(Duration.ofMinutes(10).toMillis(),
+            shifter.getLagBehindRealTime().orElseThrow().toMillis(), Duration.ofMinutes(1).toMillis());
+    }
+
+    @Test
+    public void testAlreadyMappedTimesKeepTheirRealTimesWhenTheRateChanges() {
+        var clock = new SimulatedClock();
+        var shifter = makeCatchUpShifter(clock, Duration.ofMinutes(10));
+        var sourceNow = shifter.transformRealTimeToSourceTime(clock.now).orElseThrow();
+        var scheduledSourceTime = sourceNow.plus(Duration.ofSeconds(20));
+        var scheduledRealTime = shifter.transformSourceTimeToRealTime(scheduledSourceTime);
+
+        clock.advance(Duration.ofSeconds(1));
+        shifter.adjustCatchUpRate(Duration.ofSeconds(1), false);
+        Assertions.assertEquals(TimeShifter.CATCH_UP_RAMP_FACTOR, shifter.getCurrentRateMultiplier());
+
+        Assertions.assertEquals(scheduledRealTime, shifter.transformSourceTimeToRealTime(scheduledSourceTime));
+        Assertions.assertEquals(sourceNow.plus(Duration.ofSeconds(1)),
+            shifter.transformRealTimeToSourceTime(clock.now).orElseThrow());
+        // only source times beyond what was already scheduled are sped up
+        var later = scheduledSourceTime.plus(Duration.ofSeconds(10));
+        Assertions.assertEquals(scheduledRealTime.plus(Duration.ofSeconds(8)),
+            shifter.transformSourceTimeToRealTime(later));
+    }
+
+    @Test
+    public void testCatchUpIsDisabledWithoutAHigherCeiling() {
+        var clock = new SimulatedClock();
+        var shifter = new TimeShifter(2.0, Duration.ZERO, 1.0, Duration.ofSeconds(30), clock);
+        shifter.setFirstTimestamp(clock.now.minus(Duration.ofHours(1)));
+        Assertions.assertFalse(shifter.isCatchUpEnabled());
+        clock.advance(Duration.ofSeconds(1));
+        shifter.adjustCatchUpRate(Duration.ofSeconds(1), false);
+        Assertions.assertEquals(2.0, shifter.getCurrentRateMultiplier());
+        Assertions.assertEquals(2.0, shifter.maxRateMultiplier());
+    }
 }
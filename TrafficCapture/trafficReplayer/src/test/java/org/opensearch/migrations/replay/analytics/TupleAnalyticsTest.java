@@ -0,0 +1,246 @@
+package org.opensearch.migrations.replay.analytics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.opensearch.migrations.replay.ParsedHttpMessagesAsDicts;
+import org.opensearch.migrations.tracing.InstrumentationTest;
+import org.opensearch.migrations.tracing.TestContext;
+import org.opensearch.migrations.transform.JsonKeysForHttpMessage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TupleAnalyticsTest extends InstrumentationTest {
+
+    @Override
+    protected TestContext makeInstrumentationContext() {
+        return TestContext.withTracking(false, true);
+    }
+
+    private static Map<String, Object> request(String method, String uri) {
+        return Map.of(ParsedHttpMessagesAsDicts.METHOD_KEY, method, ParsedHttpMessagesAsDicts.REQUEST_URI_KEY, uri);
+    }
+
+    private static Map<String, Object> response(int status, long latencyMs, Object jsonBody) {
+        var map = new LinkedHashMap<String, Object>();
+        map.put(ParsedHttpMessagesAsDicts.STATUS_CODE_KEY, status);
+        map.put(ParsedHttpMessagesAsDicts.RESPONSE_TIME_MS_KEY, latencyMs);
+        if (jsonBody != null) {
+            map.put(ParsedHttpMessagesAsDicts.PAYLOAD_KEY,
+                Map.of(JsonKeysForHttpMessage.INLINED_JSON_BODY_DOCUMENT_KEY, jsonBody));
+        }
+        return map;
+    }
+
+    private ParsedHttpMessagesAsDicts parsed(
+        Map<String, Object> request,
+        Map<String, Object> sourceResponse,
+        Map<String, Object> targetResponse
+    ) {
+        return new ParsedHttpMessagesAsDicts(
+            rootContext.getTestTupleContext(),
+            Optional.of(request),
+            Optional.of(sourceResponse),
+            Optional.empty(),
+            List.of(targetResponse)
+        );
+    }
+
+    private static Map<String, Object> bulkResponse(String... errorTypes) {
+        var items = new ArrayList<Object>();
+        for (var errorType : errorTypes) {
+            var result = new LinkedHashMap<String, Object>();
+            result.put("status", errorType == null ? 201 : 400);
+            if (errorType != null) {
+                result.put("error", Map.of("type", errorType, "reason", "..."));
+            }
+            items.add(Map.of("index", result));
+        }
+        return Map.of("took", 3, "errors", true, "items", items);
+    }
+
+    @Test
+    void endpointTemplatesCollapseIndicesAndIds() {
+        Assertions.assertEquals("GET /{index}/_doc/{id}", EndpointTemplates.templateOf("GET", "/logs-1/_doc/a?x=1"));
+        Assertions.assertEquals("POST /{index}/_search", EndpointTemplates.templateOf("POST", "/a,b*/_search"));
+        Assertions.assertEquals("GET /_cat/indices", EndpointTemplates.templateOf("GET", "/_cat/indices?v"));
+        Assertions.assertEquals("POST /_bulk", EndpointTemplates.templateOf("POST", "/_bulk"));
+        Assertions.assertEquals("GET /", EndpointTemplates.templateOf("GET", "/"));
+    }
+
+    @Test
+    void structuralDiffsIgnoreValuesButReportShapeChanges() {
+        var source = Map.of("took", 5, "hits", Map.of("hits", List.of(Map.of("_id", "1", "_source", Map.of("a", 1)))));
+        var sameShape = Map.of("took", 9, "hits", Map.of("hits", List.of(Map.of("_id", "2", "_source", Map.of("a", 2)))));
+        Assertions.assertEquals(List.of(), JsonStructureDiff.diffPaths(source, sameShape));
+
+        var target = Map.of("took", "9", "hits", Map.of("hits", List.of(Map.of("_id", "1", "_source", Map.of("b", 1)))));
+        var diffs = JsonStructureDiff.diffPaths(source, target);
+        Assertions.assertTrue(diffs.contains("$.took typeChanged:number->string"), diffs::toString);
+        Assertions.assertTrue(diffs.contains("$.hits.hits[]._source.a onlyInSource"), diffs::toString);
+        Assertions.assertTrue(diffs.contains("$.hits.hits[]._source.b onlyInTarget"), diffs::toString);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aggregatesPerEndpointAndOnlyAsksForMismatchedTuples() {
+        var analytics = new TupleAnalytics(0.0);
+        var search = request("GET", "/idx/_search");
+        var body = Map.of("hits", Map.of("total", 1));
+        for (int i = 1; i <= 100; i++) {
+            Assertions.assertFalse(analytics.record(parsed(search, response(200, i, body), response(200, 2L * i, body)),
+                false));
+        }
+        Assertions.assertTrue(analytics.record(parsed(search, response(200, 1, body), response(404, 1, body)), false));
+        Assertions.assertTrue(analytics.record(
+            parsed(search, response(200, 1, body), response(200, 1, Map.of("hits", List.of()))), false));
+        Assertions.assertTrue(analytics.record(parsed(search, response(200, 1, body), response(200, 1, body)), true));
+
+        var bulk = request("POST", "/_bulk");
+        Assertions.assertFalse(analytics.record(parsed(bulk,
+            response(200, 1, bulkResponse(null, "version_conflict_engine_exception")),
+            response(200, 1, bulkResponse(null, "version_conflict_engine_exception"))), false));
+        Assertions.assertTrue(analytics.record(parsed(bulk,
+            response(200, 1, bulkResponse(null, null)),
+            response(200, 1, bulkResponse("mapper_parsing_exception", null))), false));
+
+        var snapshot = analytics.snapshotAndReset();
+        Assertions.assertEquals(105L, snapshot.get("tuples"));
+        Assertions.assertEquals(4L, snapshot.get("mismatchedTuples"));
+        Assertions.assertEquals(4L, snapshot.get("fullTuplesEmitted"));
+
+        var searchStats = (Map<String, Object>) ((Map<String, Object>) snapshot.get("endpoints"))
+            .get("GET /{index}/_search");
+        Assertions.assertEquals(103L, searchStats.get("count"));
+        var targetLatencies = (Map<String, Object>) searchStats.get("targetLatencyMs");
+        Assertions.assertEquals(200L, targetLatencies.get("max"));
+        var p50 = (Long) targetLatencies.get("p50");
+        Assertions.assertTrue(p50 >= 96 && p50 <= 106, "p50 was " + p50);
+
+        var statusCodes = (Map<String, Long>) snapshot.get("statusCodes");
+        Assertions.assertEquals(1L, statusCodes.get("200->404"));
+        Assertions.assertEquals(104L, statusCodes.get("200->200"));
+
+        var bulkErrors = (Map<String, Map<String, Long>>) snapshot.get("bulkItemErrors");
+        Assertions.assertEquals(Map.of("version_conflict_engine_exception", 1L), bulkErrors.get("source"));
+        Assertions.assertEquals(Map.of("version_conflict_engine_exception", 1L, "mapper_parsing_exception", 1L),
+            bulkErrors.get("target"));
+
+        var structureDiffs = (Map<String, Long>) snapshot.get("bodyStructureDiffs");
+        Assertions.assertEquals(1L, structureDiffs.get("GET /{index}/_search $.hits typeChanged:object->array"));
+
+        Assertions.assertEquals(0L, analytics.snapshotAndReset().get("tuples"));
+    }
+
+    private static Map<String, Object> bulkItem(String typeOrNull) {
+        var result = new LinkedHashMap<String, Object>();
+        result.put("_index", "logs");
+        if (typeOrNull != null) {
+            result.put("_type", typeOrNull);
+        }
+        result.put("_id", "1");
+        result.put("_version", 1);
+        result.put("result", "created");
+        result.put("_seq_no", 0);
+        result.put("status", 201);
+        return Map.of("index", result);
+    }
+
+    private static Map<String, Object> searchResponse(Object total, String typeOrNull) {
+        var hit = new LinkedHashMap<String, Object>();
+        hit.put("_index", "logs");
+        if (typeOrNull != null) {
+            hit.put("_type", typeOrNull);
+        }
+        hit.put("_id", "1");
+        hit.put("_score", 1.0);
+        hit.put("_source", Map.of("title", "a"));
+        return Map.of("took", 2, "timed_out", false,
+            "hits", Map.of("total", total, "max_score", 1.0, "hits", List.of(hit)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void elasticsearchToOpenSearchShapeChangesAreCountedButNotMismatches() {
+        var analytics = new TupleAnalytics(0.0);
+        var bulk = request("POST", "/_bulk");
+        var es7Bulk = Map.of("took", 3, "errors", false, "items", List.of(bulkItem("_doc"), bulkItem("_doc")));
+        var os2Bulk = Map.of("took", 5, "errors", false, "items", List.of(bulkItem(null), bulkItem(null)));
+        Assertions.assertFalse(analytics.record(parsed(bulk, response(200, 1, es7Bulk), response(200, 1, os2Bulk)),
+            false));
+
+        var search = request("POST", "/logs/_search");
+        var objectTotal = Map.of("value", 1, "relation", "eq");
+        Assertions.assertFalse(analytics.record(parsed(search,
+            response(200, 1, searchResponse(objectTotal, "_doc")),
+            response(200, 1, searchResponse(objectTotal, null))), false));
+        // ES 6 returns hits.total as a number
+        Assertions.assertFalse(analytics.record(parsed(search,
+            response(200, 1, searchResponse(1, "doc")),
+            response(200, 1, searchResponse(objectTotal, null))), false));
+
+        // a difference outside the expected ones is still a mismatch
+        var os2SearchWithoutSource = searchResponse(objectTotal, null);
+        ((Map<String, Object>) ((List<Object>) ((Map<String, Object>) os2SearchWithoutSource.get("hits"))
+            .get("hits")).get(0)).remove("_source");
+        Assertions.assertTrue(analytics.record(parsed(search,
+            response(200, 1, searchResponse(objectTotal, "_doc")),
+            response(200, 1, os2SearchWithoutSource)), false));
+
+        var snapshot = analytics.snapshotAndReset();
+        Assertions.assertEquals(1L, snapshot.get("mismatchedTuples"));
+        var structureDiffs = (Map<String, Long>) snapshot.get("bodyStructureDiffs");
+        Assertions.assertEquals(1L, structureDiffs.get("POST /_bulk $.items[].index._type onlyInSource"));
+        Assertions.assertEquals(3L, structureDiffs.get("POST /{index}/_search $.hits.hits[]._type onlyInSource"));
+        Assertions.assertEquals(1L,
+            structureDiffs.get("POST /{index}/_search $.hits.total typeChanged:number->object"));
+
+        var strict = new TupleAnalytics(0.0, List.of(), null);
+        Assertions.assertTrue(strict.record(parsed(bulk, response(200, 1, es7Bulk), response(200, 1, os2Bulk)),
+            false));
+    }
+
+    @Test
+    void samplingKeepsOnlyASmallFractionOfMatchingTuples() {
+        var analytics = new TupleAnalytics(0.01);
+        var search = request("GET", "/idx/_search");
+        var body = Map.of("hits", Map.of("total", 1));
+        int emitted = 0;
+        int total = 10_000;
+        for (int i = 0; i < total; i++) {
+            // one transaction in 50 is mismatched
+            var targetStatus = i % 50 == 0 ? 500 : 200;
+            if (analytics.record(parsed(search, response(200, 1, body), response(targetStatus, 1, body)), false)) {
+                emitted++;
+            }
+        }
+        Assertions.assertTrue(emitted >= total / 50, "emitted " + emitted);
+        Assertions.assertTrue(emitted < total / 10, "emitted " + emitted + " of " + total);
+    }
+
+    @Test
+    void histogramPercentilesAreWithinABucketOfTheRecordedValues() {
+        var histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.record(v);
+        }
+        var snapshot = histogram.snapshotAndReset();
+        Assertions.assertEquals(10_000L, snapshot.get("count"));
+        Assertions.assertEquals(10_000L, snapshot.get("max"));
+        for (var e : Map.of("p50", 5_000L, "p90", 9_000L, "p99", 9_900L).entrySet()) {
+            var reported = (Long) snapshot.get(e.getKey());
+            Assertions.assertTrue(Math.abs(reported - e.getValue()) <= e.getValue() / 16,
+                e.getKey() + " was " + reported);
+        }
+        for (long v : new long[] { 0, 15, 16, 17, 1000, Long.MAX_VALUE }) {
+            var index = LatencyHistogram.bucketIndex(v);
+            Assertions.assertTrue(LatencyHistogram.highestValueInBucket(index) >= v);
+            Assertions.assertTrue(index == 0 || LatencyHistogram.highestValueInBucket(index - 1) < v);
+        }
+        Assertions.assertEquals(Map.of("count", 0L), histogram.snapshotAndReset());
+    }
+}
@@ -0,0 +1,70 @@
+package org.opensearch.migrations.replay.datatypes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.replay.HttpMessageAndTimestamp;
+
+import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RawPacketsTest {
+
+    private static ByteString utf8(String s) {
+        return ByteString.copyFromUtf8(s);
+    }
+
+    private static String toString(ByteBuf buf) {
+        return buf.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void byteBufsShareTheCapturedBytes() {
+        var packet = utf8("GET / HTTP/1.1\r\n");
+        var packets = new RawPackets();
+        packets.addPacket(packet);
+
+        try (var bufs = packets.asByteBufStream()) {
+            var buf = bufs.findFirst().orElseThrow();
+            Assertions.assertTrue(buf.isReadOnly());
+            Assertions.assertEquals(packet.asReadOnlyByteBuffer(), buf.nioBuffer());
+            Assertions.assertEquals("GET / HTTP/1.1\r\n", toString(buf));
+        }
+        Assertions.assertSame(packet, packets.byteStrings().get(0));
+    }
+
+    @Test
+    void segmentsAreConcatenatedIntoOnePacket() {
+        var message = new HttpMessageAndTimestamp(Instant.EPOCH);
+        message.addSegment(utf8("GET / HT"));
+        message.addSegment(utf8("TP/1.1\r\n"));
+        message.addSegment(new byte[0]);
+        message.finalizeRequestSegments(Instant.EPOCH);
+
+        Assertions.assertEquals(1, message.packetBytes.size());
+        Assertions.assertEquals(16, message.packetBytes.totalBytes());
+        Assertions.assertEquals("GET / HTTP/1.1\r\n", toString(message.asByteBuf()));
+        try (var bufs = message.packetBytes.asByteBufStream()) {
+            Assertions.assertEquals("GET / HTTP/1.1\r\n",
+                bufs.map(RawPacketsTest::toString).collect(Collectors.joining()));
+        }
+    }
+
+    @Test
+    void listViewAndEqualityMatchTheByteContents() {
+        var fromByteStrings = new RawPackets();
+        fromByteStrings.addPacket(utf8("ab"));
+        fromByteStrings.addPacket(utf8("cd"));
+        var fromArrays = new RawPackets();
+        fromArrays.add("ab".getBytes(StandardCharsets.UTF_8));
+        fromArrays.add("cd".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(fromByteStrings, fromArrays);
+        Assertions.assertEquals(fromByteStrings.hashCode(), fromArrays.hashCode());
+        Assertions.assertArrayEquals("cd".getBytes(StandardCharsets.UTF_8), fromByteStrings.get(1));
+        Assertions.assertEquals(4, fromArrays.totalBytes());
+    }
+}
@@ -0,0 +1,377 @@
+package org.opensearch.migrations.transform.shim;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.opensearch.migrations.transform.IJsonTransformer;
+import org.opensearch.migrations.transform.JsonKeysForHttpMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An {@link IJsonTransformer} for requests that remembers the output of its delegate for
+ * recently seen request shapes.  Front-end Solr traffic repeats the same handler, params and
+ * filter queries over and over, so skipping the JS transform for a repeated request saves both
+ * the transform itself and the deep copies around it.
+ * <p>
+ * Entries are keyed on a normalized fingerprint of the incoming request: the method, the path
+ * with its query params sorted by name, the headers (case-insensitively, minus hop-by-hop
+ * headers), any other top-level keys (e.g. {@code _targetName}) and a SHA-256 hash of the
+ * payload.  Requests that only differ in the order of their query params, or in the headers left
+ * out of the fingerprint, share an entry.  Those parts are not the cached request's to give away, so
+ * on a hit, wherever the cached result still holds the first request's URI or one of its unfingerprinted
+ * headers unchanged, the live request's value is put back in its place.
+ * <p>
+ * Transforms can write side-channel values (like {@code _metrics}) onto the incoming map, so
+ * each entry stores the incoming map as it was left by the transform as well as the output, and
+ * a hit restores both.  The cache is bounded by an estimate of retained bytes and evicts the
+ * least recently used entries.  When the delegate is a {@link ReloadableTransformer}, every
+ * reload clears the cache, and transforms that were already running with the previous script
+ * don't get stored.
+ */
+@Slf4j
+public class CachingRequestTransformer implements IJsonTransformer {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String HEADERS_KEY = JsonKeysForHttpMessage.HEADERS_KEY;
+    private static final String URI_KEY = JsonKeysForHttpMessage.URI_KEY;
+    private static final String PAYLOAD_KEY = JsonKeysForHttpMessage.PAYLOAD_KEY;
+    private static final List<String> UNCACHEABLE_HEADER_NAMES = List.of(
+        "host", "content-length", "transfer-encoding", "connection", "keep-alive");
+    /** Rough per-object overhead used when estimating the retained size of a cached map. */
+    private static final int OBJECT_OVERHEAD_BYTES = 32;
+
+    private final IJsonTransformer delegate;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    /** Bumped on every invalidation so that transforms started before it aren't stored after it. */
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param originalUri       the URI of the request the entry was made from
+     * @param unkeyedHeaders    that request's headers that aren't part of the fingerprint
+     */
+    private record Entry(Map<String, Object> inputAfterTransform, Object output, boolean outputIsInput,
+                         String originalUri, Map<String, Object> unkeyedHeaders, long weight) {}
+
+    public CachingRequestTransformer(IJsonTransformer delegate, long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive, but was " + maxBytes);
+        }
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        if (delegate instanceof ReloadableTransformer reloadable) {
+            reloadable.addReloadListener(this::invalidateAll);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object transformJson(Object input) {
+        if (!(input instanceof Map)) {
+            return delegate.transformJson(input);
+        }
+        var inputMap = (Map<String, Object>) input;
+        var key = fingerprint(inputMap);
+        if (key == null) {
+            return delegate.transformJson(input);
+        }
+
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hitCount.incrementAndGet();
+            var liveUri = inputMap.get(URI_KEY);
+            var liveHeaders = unkeyedHeaders(inputMap);
+            inputMap.clear();
+            inputMap.putAll(deepCopyMap(cached.inputAfterTransform()));
+            rebase(inputMap, cached, liveUri, liveHeaders, true);
+            if (cached.outputIsInput()) {
+                return inputMap;
+            }
+            var output = deepCopyValue(cached.output());
+            rebase(output, cached, liveUri, liveHeaders, false);
+            return output;
+        }
+
+        missCount.incrementAndGet();
+        long epochAtStart = epoch.get();
+        var originalUri = inputMap.get(URI_KEY) instanceof String uri ? uri : null;
+        var originalHeaders = unkeyedHeaders(inputMap);
+        var output = delegate.transformJson(input);
+        store(key, epochAtStart, inputMap, output, originalUri, originalHeaders);
+        return output;
+    }
+
+    private void store(String key, long epochAtStart, Map<String, Object> inputMap, Object output,
+                       String originalUri, Map<String, Object> originalHeaders) {
+        boolean outputIsInput = output == inputMap;
+        var inputSnapshot = deepCopyMap(inputMap);
+        var outputSnapshot = outputIsInput ? null : deepCopyValue(output);
+        long weight = 2L * key.length() + estimateBytes(inputSnapshot) + estimateBytes(outputSnapshot)
+            + estimateBytes(originalHeaders);
+        if (weight > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            if (epoch.get() != epochAtStart) {
+                return;
+            }
+            var previous = entries.put(key,
+                new Entry(inputSnapshot, outputSnapshot, outputIsInput, originalUri, originalHeaders, weight));
+            if (previous != null) {
+                currentBytes -= previous.weight();
+            }
+            currentBytes += weight;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                currentBytes -= eldest.next().weight();
+                eldest.remove();
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Store a request's URI at the original request's URI and its unfingerprinted headers in the
+     * places of the original's, wherever {@code value} (a request map or a list of them) still holds
+     * the original's values.  The live request's own map also gets back the unfingerprinted headers
+     * that the original request didn't have.
+     */
+    @SuppressWarnings("unchecked")
+    private static void rebase(Object value, Entry cached, Object liveUri, Map<String, Object> liveHeaders,
+                               boolean isLiveRequest) {
+        if (value instanceof List<?> list) {
+            list.forEach(item -> rebase(item, cached, liveUri, liveHeaders, false));
+            return;
+        }
+        if (!(value instanceof Map)) {
+            return;
+        }
+        var request = (Map<String, Object>) value;
+        if (cached.originalUri() != null && cached.originalUri().equals(request.get(URI_KEY))) {
+            request.put(URI_KEY, liveUri);
+        }
+        if (!(request.get(HEADERS_KEY) instanceof Map)) {
+            return;
+        }
+        var headers = (Map<String, Object>) request.get(HEADERS_KEY);
+        var names = new ArrayList<>(headers.keySet());
+        for (var name : names) {
+            var originalName = findName(cached.unkeyedHeaders(), name);
+            if (originalName != null && Objects.equals(cached.unkeyedHeaders().get(originalName), headers.get(name))) {
+                var liveName = findName(liveHeaders, name);
+                if (liveName != null) {
+                    headers.put(name, deepCopyValue(liveHeaders.get(liveName)));
+                } else {
+                    headers.remove(name);
+                }
+            }
+        }
+        if (isLiveRequest) {
+            liveHeaders.forEach((liveName, liveValue) -> {
+                if (findName(cached.unkeyedHeaders(), liveName) == null && findName(headers, liveName) == null) {
+                    headers.put(liveName, deepCopyValue(liveValue));
+                }
+            });
+        }
+    }
+
+    /** A request's headers that aren't part of its fingerprint. */
+    private static Map<String, Object> unkeyedHeaders(Map<String, Object> requestMap) {
+        var unkeyed = new LinkedHashMap<String, Object>();
+        if (requestMap.get(HEADERS_KEY) instanceof Map<?, ?> headers) {
+            for (var entry : headers.entrySet()) {
+                var name = String.valueOf(entry.getKey());
+                if (UNCACHEABLE_HEADER_NAMES.contains(name.toLowerCase())) {
+                    unkeyed.put(name, deepCopyValue(entry.getValue()));
+                }
+            }
+        }
+        return unkeyed;
+    }
+
+    /** The key of {@code headers} that is {@code name} ignoring case, or null. */
+    private static String findName(Map<String, Object> headers, String name) {
+        for (var key : headers.keySet()) {
+            if (key.equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /** Drop every entry.  Called whenever the underlying transform script is reloaded. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            epoch.incrementAndGet();
+            entries.clear();
+            currentBytes = 0;
+        }
+        log.info("Transformed-request cache invalidated");
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /** Fraction of lookups that were served from the cache, or 0 if nothing was looked up yet. */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getEstimatedBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        log.info("Transformed-request cache closing: hits={}, misses={}, hitRate={}, evictions={}",
+            getHitCount(), getMissCount(), String.format("%.3f", getHitRate()), getEvictionCount());
+        delegate.close();
+    }
+
+    /**
+     * Build the cache key for a request, or return null when the request can't be fingerprinted
+     * (in which case it is transformed without caching).
+     */
+    static String fingerprint(Map<String, Object> requestMap) {
+        try {
+            var canonical = new TreeMap<String, Object>();
+            for (var entry : requestMap.entrySet()) {
+                var name = entry.getKey();
+                var value = entry.getValue();
+                if (URI_KEY.equals(name) && value instanceof String uri) {
+                    canonical.put(name, normalizeUri(uri));
+                } else if (HEADERS_KEY.equals(name) && value instanceof Map<?, ?> headers) {
+                    canonical.put(name, normalizeHeaders(headers));
+                } else if (PAYLOAD_KEY.equals(name)) {
+                    canonical.put(name, sha256(MAPPER.writeValueAsBytes(value)));
+                } else {
+                    canonical.put(name, value);
+                }
+            }
+            return MAPPER.writeValueAsString(canonical);
+        } catch (Exception e) {
+            log.atDebug().setMessage("Could not fingerprint request, skipping transform cache")
+                .setCause(e).log();
+            return null;
+        }
+    }
+
+    /**
+     * Sort query params by decoded name, keeping the relative order of repeated params (e.g. several
+     * {@code fq} values) because a stable sort is used.
+     */
+    static String normalizeUri(String uri) {
+        int q = uri.indexOf('?');
+        if (q < 0) {
+            return uri;
+        }
+        var params = new ArrayList<>(List.of(uri.substring(q + 1).split("&")));
+        params.removeIf(String::isEmpty);
+        params.sort(Comparator.comparing(CachingRequestTransformer::paramName));
+        return uri.substring(0, q) + "?" + String.join("&", params);
+    }
+
+    private static String paramName(String param) {
+        int eq = param.indexOf('=');
+        return URLDecoder.decode(eq < 0 ? param : param.substring(0, eq), StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> normalizeHeaders(Map<?, ?> headers) {
+        var normalized = new TreeMap<String, Object>();
+        for (var entry : headers.entrySet()) {
+            var name = String.valueOf(entry.getKey()).toLowerCase();
+            if (!UNCACHEABLE_HEADER_NAMES.contains(name)) {
+                normalized.put(name, entry.getValue());
+            }
+        }
+        return normalized;
+    }
+
+    private static String sha256(byte[] bytes) throws NoSuchAlgorithmException {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deepCopyMap(Map<String, Object> original) {
+        var copy = new LinkedHashMap<String, Object>();
+        for (var entry : original.entrySet()) {
+            copy.put(entry.getKey(), deepCopyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object deepCopyValue(Object value) {
+        if (value instanceof Map) {
+            return deepCopyMap((Map<String, Object>) value);
+        } else if (value instanceof List<?> list) {
+            var copy = new ArrayList<>(list.size());
+            for (var item : list) {
+                copy.add(deepCopyValue(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static long estimateBytes(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            long total = OBJECT_OVERHEAD_BYTES;
+            for (var entry : map.entrySet()) {
+                total += OBJECT_OVERHEAD_BYTES + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return total;
+        } else if (value instanceof List<?> list) {
+            long total = OBJECT_OVERHEAD_BYTES;
+            for (var item : list) {
+                total += estimateBytes(item);
+            }
+            return total;
+        } else if (value instanceof CharSequence s) {
+            return OBJECT_OVERHEAD_BYTES + 2L * s.length();
+        } else if (value == null) {
+            return 0;
+        }
+        return OBJECT_OVERHEAD_BYTES;
+    }
+}
@@ -7,7 +7,9 @@
  */
 package org.opensearch.migrations.transform.shim;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Supplier;
 
 import org.opensearch.migrations.transform.IJsonTransformer;
@@ -26,6 +28,7 @@ public class ReloadableTransformer implements IJsonTransformer {
     /** Original bindings (including solrConfig) preserved for hot-reload. */
     @Getter
     private final Map<String, Object> bindings;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
 
     public ReloadableTransformer(Supplier<IJsonTransformer> supplier, Map<String, Object> bindings) {
         this.delegate = new ThreadSafeTransformerWrapper(supplier);
@@ -43,6 +46,12 @@ public class ReloadableTransformer implements IJsonTransformer {
     public void reload(Supplier<IJsonTransformer> newSupplier) {
         this.delegate = new ThreadSafeTransformerWrapper(newSupplier);
         log.info("Transformer reloaded");
+        reloadListeners.forEach(Runnable::run);
+    }
+
+    /** Register a callback that runs after every reload, e.g. to drop results cached from the old script. */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
     }
 
     @Override
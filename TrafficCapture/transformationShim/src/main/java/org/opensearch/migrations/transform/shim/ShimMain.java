@@ -31,6 +31,7 @@ import org.opensearch.migrations.transform.shim.reporting.MetricsReceiver;
 import org.opensearch.migrations.transform.shim.reporting.ReportingSink;
 import org.opensearch.migrations.transform.shim.reporting.SolrMetricsExtractor;
 import org.opensearch.migrations.transform.shim.tracing.RootShimProxyContext;
+import org.opensearch.migrations.transform.shim.validation.AsyncValidationExecutor;
 import org.opensearch.migrations.transform.shim.validation.DocCountValidator;
 import org.opensearch.migrations.transform.shim.validation.DocIdValidator;
 import org.opensearch.migrations.transform.shim.validation.FieldIgnoringEquality;
@@ -180,6 +181,31 @@ public class ShimMain {
                 "If not set, metric export is disabled.")
         public String otelMetricsCollectorEndpoint;
 
+        @Parameter(names = {"--asyncValidation"},
+            description = "Return the primary target's response as soon as it arrives. Secondary dispatch, "
+                + "validation and reporting run on a bounded background executor and are dropped when it "
+                + "falls behind. Validation headers are not added to client responses in this mode.")
+        public boolean asyncValidation;
+
+        @Parameter(names = {"--asyncValidationThreads"},
+            description = "Number of threads for --asyncValidation work.")
+        public int asyncValidationThreads = AsyncValidationExecutor.DEFAULT_THREADS;
+
+        @Parameter(names = {"--asyncValidationQueueSize"},
+            description = "Maximum number of queued --asyncValidation tasks before new ones are dropped.")
+        public int asyncValidationQueueSize = AsyncValidationExecutor.DEFAULT_QUEUE_CAPACITY;
+
+        @Parameter(names = {"--asyncValidationSampleRate"},
+            description = "Fraction (0.0-1.0) of requests whose responses are compared in --asyncValidation "
+                + "mode. Secondary targets still receive every request that isn't dropped.")
+        public double asyncValidationSampleRate = 1.0;
+
+        @Parameter(names = {"--transformCacheMaxBytes"},
+            description = "Cache transformed requests for repeated request shapes, keeping roughly this many "
+                + "bytes of entries. The cache is cleared whenever --watchTransforms reloads a script. "
+                + "0 (the default) disables the cache.")
+        public long transformCacheMaxBytes;
+
         @Parameter(names = {"--watchTransforms"},
             description = "Watch transform JS files for changes and hot-reload them.")
         public boolean watchTransforms;
@@ -247,10 +273,25 @@ public class ShimMain {
         // Build reporting components if configured
         var reporting = buildReporting(params.reportingParams.reportingConfig);
 
+        var asyncValidation = params.asyncValidation
+            ? new AsyncValidationExecutor(params.asyncValidationThreads, params.asyncValidationQueueSize,
+                params.asyncValidationSampleRate)
+            : null;
+
+        // a cache shared by several targets is reported once, named after all of them
+        var targetNamesByCache = new LinkedHashMap<CachingRequestTransformer, List<String>>();
+        targets.forEach((name, target) -> {
+            if (target.requestTransform() instanceof CachingRequestTransformer cache) {
+                targetNamesByCache.computeIfAbsent(cache, c -> new ArrayList<>()).add(name);
+            }
+        });
+        targetNamesByCache.forEach((cache, names) -> rootContext.registerTransformCacheCounters(
+            String.join(",", names), cache::getHitCount, cache::getMissCount));
+
         var proxy = new ShimProxy(
             params.listenPort, targets, params.primary, activeTargets, validators,
             null, params.insecureBackend, Duration.ofMillis(params.timeoutMs), params.maxContentLength,
-            rootContext, reporting.metricsReceiver, reporting.reportingSink);
+            rootContext, reporting.metricsReceiver, reporting.reportingSink, asyncValidation);
 
         TransformFileWatcher watcher = null;
         if (params.watchTransforms && !watchedTransforms.isEmpty()) {
@@ -450,6 +491,9 @@ public class ShimMain {
         // Create transformers via TransformationLoader (same as replayer)
         IJsonTransformer reqTransform = createTransformer(
             params.requestTransformationParams, params.watchTransforms, watchedTransforms);
+        if (reqTransform != null && params.transformCacheMaxBytes > 0) {
+            reqTransform = new CachingRequestTransformer(reqTransform, params.transformCacheMaxBytes);
+        }
         IJsonTransformer respTransform = createTransformer(
             params.responseTransformationParams, params.watchTransforms, watchedTransforms);
 
@@ -15,6 +15,7 @@ import org.opensearch.migrations.transform.shim.netty.MultiTargetRoutingHandler;
 import org.opensearch.migrations.transform.shim.reporting.MetricsReceiver;
 import org.opensearch.migrations.transform.shim.reporting.ReportingSink;
 import org.opensearch.migrations.transform.shim.tracing.RootShimProxyContext;
+import org.opensearch.migrations.transform.shim.validation.AsyncValidationExecutor;
 import org.opensearch.migrations.transform.shim.validation.Target;
 import org.opensearch.migrations.transform.shim.validation.ValidationRule;
 
@@ -54,7 +55,8 @@ import lombok.extern.slf4j.Slf4j;
  * with per-target and validation headers.
  * <p>
  * Supports single-target passthrough (1 target, no validators) through
- * multi-target validation (N targets with validators).
+ * multi-target validation (N targets with validators).  With an {@link AsyncValidationExecutor},
+ * the primary's response is returned without waiting for secondaries or validation.
  */
 @Slf4j
 public class ShimProxy {
@@ -77,6 +79,7 @@ public class ShimProxy {
     private final RootShimProxyContext rootShimProxyContext;
     private final MetricsReceiver metricsReceiver;
     private final ReportingSink reportingSink;
+    private final AsyncValidationExecutor asyncValidation;
 
     private Channel serverChannel;
     private Channel healthChannel;
@@ -113,6 +116,26 @@ public class ShimProxy {
         RootShimProxyContext rootShimProxyContext,
         MetricsReceiver metricsReceiver,
         ReportingSink reportingSink
+    ) {
+        this(port, targets, primaryTarget, activeTargets, validators, sslEngineSupplier,
+            allowInsecureBackend, secondaryTimeout, maxContentLength, rootShimProxyContext,
+            metricsReceiver, reportingSink, null);
+    }
+
+    public ShimProxy(
+        int port,
+        Map<String, Target> targets,
+        String primaryTarget,
+        Set<String> activeTargets,
+        List<ValidationRule> validators,
+        java.util.function.Supplier<SSLEngine> sslEngineSupplier,
+        boolean allowInsecureBackend,
+        Duration secondaryTimeout,
+        int maxContentLength,
+        RootShimProxyContext rootShimProxyContext,
+        MetricsReceiver metricsReceiver,
+        ReportingSink reportingSink,
+        AsyncValidationExecutor asyncValidation
     ) {
         this.port = port;
         this.targets = new LinkedHashMap<>(targets);
@@ -126,6 +149,10 @@ public class ShimProxy {
         this.rootShimProxyContext = rootShimProxyContext;
         this.metricsReceiver = metricsReceiver;
         this.reportingSink = reportingSink;
+        this.asyncValidation = asyncValidation;
+        if (asyncValidation != null && rootShimProxyContext != null) {
+            rootShimProxyContext.registerAsyncValidationQueueDepthGauge(asyncValidation::getQueueDepth);
+        }
 
         if (!this.targets.containsKey(primaryTarget)) {
             throw new IllegalArgumentException("Primary target '" + primaryTarget + "' not in targets");
@@ -191,8 +218,9 @@ public class ShimProxy {
 
         try {
             serverChannel = bootstrap.bind(port).sync().channel();
-            log.info("ShimProxy started on port {}, primary={}, targets={}, validators={}, maxContentLength={}",
-                port, primaryTarget, activeTargets, validators.size(), maxContentLength);
+            log.info("ShimProxy started on port {}, primary={}, targets={}, validators={}, maxContentLength={}, "
+                    + "asyncValidation={}",
+                port, primaryTarget, activeTargets, validators.size(), maxContentLength, asyncValidation != null);
         } catch (Exception e) {
             shutdownEventLoopGroups();
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -246,7 +274,8 @@ public class ShimProxy {
 
         pipeline.addLast("multiTargetRouter", new MultiTargetRoutingHandler(
             targets, primaryTarget, activeTargets, validators, secondaryTimeout,
-            backendSslContext, maxContentLength, activeRequests, rootShimProxyContext, metricsReceiver));
+            backendSslContext, maxContentLength, activeRequests, rootShimProxyContext, metricsReceiver,
+            asyncValidation));
         addLoggingHandler(pipeline, "E");
     }
 
@@ -279,6 +308,11 @@ public class ShimProxy {
             log.warn("Drain timeout reached with {} in-flight requests, forcing shutdown", activeRequests.get());
         }
 
+        // Finish (bounded) any queued async comparisons so that their reports reach the sink
+        if (asyncValidation != null) {
+            asyncValidation.close();
+        }
+
         // Close ReportingSink to flush buffered validation documents
         if (reportingSink != null) {
             try {
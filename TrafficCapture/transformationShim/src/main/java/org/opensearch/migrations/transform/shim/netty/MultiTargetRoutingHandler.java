@@ -6,6 +6,7 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -21,6 +23,7 @@ import org.opensearch.migrations.transform.shim.reporting.MetricsReceiver;
 import org.opensearch.migrations.transform.shim.tracing.RootShimProxyContext;
 import org.opensearch.migrations.transform.shim.tracing.ShimRequestContext;
 import org.opensearch.migrations.transform.shim.tracing.TargetDispatchContext;
+import org.opensearch.migrations.transform.shim.validation.AsyncValidationExecutor;
 import org.opensearch.migrations.transform.shim.validation.Target;
 import org.opensearch.migrations.transform.shim.validation.TargetResponse;
 import org.opensearch.migrations.transform.shim.validation.ValidationResult;
@@ -60,6 +63,9 @@ import org.slf4j.LoggerFactory;
  * Netty handler that dispatches a request to N named targets in parallel,
  * collects responses, runs validators, and returns the primary target's response
  * with per-target and validation headers.
+ * <p>
+ * When an {@link AsyncValidationExecutor} is configured, the primary's response is returned as
+ * soon as it arrives and secondary dispatch, validation and reporting run on that executor instead.
  */
 @Slf4j
 public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
@@ -73,6 +79,8 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
     private static final String RESPONSE_KEY = "response";
     private static final String CURSOR_MARK_PARAM = "cursorMark";
     private static final String OPENSEARCH_TARGET = "opensearch";
+    private static final String VALIDATION_STATUS_HEADER = "X-Validation-Status";
+    private static final String ASYNC_VALIDATION_STATUS = "ASYNC";
 
 
 
@@ -94,6 +102,7 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
     private final AtomicLong requestCounter = new AtomicLong(0);
     private final RootShimProxyContext rootContext;
     private final MetricsReceiver metricsReceiver;
+    private final AsyncValidationExecutor asyncValidation;
 
     /** Connection pools keyed by target name. Lazily initialized on first use. */
     private volatile AbstractChannelPoolMap<String, FixedChannelPool> poolMap;
@@ -108,7 +117,8 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
         int maxContentLength,
         AtomicInteger activeRequests,
         RootShimProxyContext rootContext,
-        MetricsReceiver metricsReceiver
+        MetricsReceiver metricsReceiver,
+        AsyncValidationExecutor asyncValidation
     ) {
         super(false);
         this.targets = targets;
@@ -121,6 +131,24 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
         this.activeRequests = activeRequests;
         this.rootContext = rootContext;
         this.metricsReceiver = metricsReceiver;
+        this.asyncValidation = asyncValidation;
+    }
+
+    /** Backward-compatible constructor without AsyncValidationExecutor. */
+    public MultiTargetRoutingHandler(
+        Map<String, Target> targets,
+        String primaryTarget,
+        Set<String> activeTargets,
+        List<ValidationRule> validators,
+        Duration secondaryTimeout,
+        SslContext backendSslContext,
+        int maxContentLength,
+        AtomicInteger activeRequests,
+        RootShimProxyContext rootContext,
+        MetricsReceiver metricsReceiver
+    ) {
+        this(targets, primaryTarget, activeTargets, validators, secondaryTimeout,
+            backendSslContext, maxContentLength, activeRequests, rootContext, metricsReceiver, null);
     }
 
     /** Backward-compatible constructor without MetricsReceiver. */
@@ -204,43 +232,51 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
         request.release();
 
         long requestId = requestCounter.getAndIncrement();
+        // Merging cursor tokens needs every target's response, so cursor requests stay synchronous
+        if (asyncValidation != null && activeTargets.size() > 1 && !hasCursorMark(requestMap)) {
+            handleWithAsyncValidation(ctx, requestMap, keepAlive, requestId, requestCtx);
+            return;
+        }
         var dispatchResult = dispatchAll(requestMap, requestCtx);
         handlePrimaryCompletion(ctx, dispatchResult,
             keepAlive, requestMap, requestId, requestCtx);
     }
 
     private static class DispatchResult {
-        final Map<String, CompletableFuture<TargetResponse>> futures;
-        final Map<String, Map<String, Object>> perTargetTransformedRequests;
-        final Map<String, Map<String, Object>> perTargetTransformMetrics;
-
-        DispatchResult(
-            Map<String, CompletableFuture<TargetResponse>> futures,
-            Map<String, Map<String, Object>> perTargetTransformedRequests,
-            Map<String, Map<String, Object>> perTargetTransformMetrics
-        ) {
-            this.futures = futures;
-            this.perTargetTransformedRequests = perTargetTransformedRequests;
-            this.perTargetTransformMetrics = perTargetTransformMetrics;
-        }
+        final Map<String, CompletableFuture<TargetResponse>> futures = new LinkedHashMap<>();
+        final Map<String, Map<String, Object>> perTargetTransformedRequests = new LinkedHashMap<>();
+        final Map<String, Map<String, Object>> perTargetTransformMetrics = new LinkedHashMap<>();
     }
 
     private DispatchResult dispatchAll(
         Map<String, Object> requestMap,
         ShimRequestContext requestCtx
     ) {
-        Map<String, CompletableFuture<TargetResponse>> futures = new LinkedHashMap<>();
-        Map<String, Map<String, Object>> perTargetTransformedRequests = new LinkedHashMap<>();
-        Map<String, Map<String, Object>> perTargetTransformMetrics = new LinkedHashMap<>();
-        boolean dualMode = activeTargets.size() > 1;
+        var dispatchResult = new DispatchResult();
+        dispatchTargets(activeTargets, requestMap, requestCtx, dispatchResult);
+        return dispatchResult;
+    }
+
+    private static boolean hasCursorMark(Map<String, Object> requestMap) {
         String uri = (String) requestMap.get("URI");
         // Check for cursorMark in both URL params and JSON request body (P1)
-        boolean hasCursorMark = dualMode && (
-            (uri != null && uri.contains("cursorMark=")) ||
-            requestMap.containsKey(CURSOR_MARK_PARAM)
-        );
+        return (uri != null && uri.contains("cursorMark=")) || requestMap.containsKey(CURSOR_MARK_PARAM);
+    }
 
-        for (String name : activeTargets) {
+    /** Dispatch to the named targets, adding their futures and transform data to dispatchResult. */
+    private void dispatchTargets(
+        Collection<String> targetNames,
+        Map<String, Object> requestMap,
+        ShimRequestContext requestCtx,
+        DispatchResult dispatchResult
+    ) {
+        var futures = dispatchResult.futures;
+        var perTargetTransformedRequests = dispatchResult.perTargetTransformedRequests;
+        var perTargetTransformMetrics = dispatchResult.perTargetTransformMetrics;
+        boolean dualMode = activeTargets.size() > 1;
+        boolean hasCursorMark = dualMode && hasCursorMark(requestMap);
+
+        for (String name : targetNames) {
             Target target = targets.get(name);
             Map<String, Object> targetRequestMap = (dualMode || target.requestTransform() != null)
                 ? deepCopyMap(requestMap) : requestMap;
@@ -265,7 +301,6 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
             collectTransformData(target, name, targetRequestMap,
                 perTargetTransformedRequests, perTargetTransformMetrics);
         }
-        return new DispatchResult(futures, perTargetTransformedRequests, perTargetTransformMetrics);
     }
 
     /** Extract per-target transformed request and _metrics side-channel after dispatch. */
@@ -333,6 +368,134 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
         );
     }
 
+    /**
+     * Async validation mode: only the primary is dispatched on the event loop and its response is
+     * written as soon as it arrives.  Secondary dispatch (including its request transforms) and,
+     * once the secondaries respond or time out, validation, metrics and tuple logging are each run
+     * as a separate task on the bounded {@link AsyncValidationExecutor}.  Either task may be dropped
+     * when that executor has fallen behind.  The request stays active (for drain on shutdown) and
+     * its context stays open until both the client response and the background work are done.
+     */
+    private void handleWithAsyncValidation(
+        ChannelHandlerContext ctx,
+        Map<String, Object> requestMap,
+        boolean keepAlive,
+        long requestId,
+        ShimRequestContext requestCtx
+    ) {
+        var dispatchResult = new DispatchResult();
+        dispatchTargets(List.of(primaryTarget), requestMap, requestCtx, dispatchResult);
+        List<String> secondaryNames = activeTargets.stream()
+            .filter(n -> !n.equals(primaryTarget))
+            .collect(Collectors.toList());
+
+        var outstandingParts = new AtomicInteger(2);
+        Runnable finishPart = () -> {
+            if (outstandingParts.decrementAndGet() == 0) {
+                activeRequests.decrementAndGet();
+                if (requestCtx != null) {
+                    requestCtx.close();
+                }
+            }
+        };
+
+        dispatchResult.futures.get(primaryTarget).whenComplete((primaryResp, primaryEx) ->
+            ctx.channel().eventLoop().execute(() -> {
+                try {
+                    TargetResponse primary = primaryEx != null
+                        ? TargetResponse.error(primaryTarget, Duration.ZERO, primaryEx)
+                        : primaryResp;
+                    HttpMessageUtil.writeResponse(ctx, buildAsyncPrimaryResponse(primary), keepAlive);
+                } catch (Exception e) {
+                    log.error("Error building primary response", e);
+                    if (requestCtx != null) {
+                        requestCtx.addTraceException(e, true);
+                    }
+                    HttpMessageUtil.writeResponse(ctx, HttpMessageUtil.errorResponse(
+                        HttpResponseStatus.INTERNAL_SERVER_ERROR, "Validation shim error"), keepAlive);
+                } finally {
+                    finishPart.run();
+                }
+            })
+        );
+
+        boolean compare = asyncValidation.shouldCompare();
+        if (!compare && requestCtx != null) {
+            requestCtx.addAsyncValidationSampledOut();
+        }
+        boolean accepted = asyncValidation.tryExecute(lag -> {
+            recordAsyncValidationLag(requestCtx, lag);
+            try {
+                dispatchTargets(secondaryNames, requestMap, requestCtx, dispatchResult);
+            } catch (Exception e) {
+                log.error("Error dispatching to secondary targets", e);
+                finishPart.run();
+                return;
+            }
+            var pendingFutures = secondaryNames.stream()
+                .map(name -> dispatchResult.futures.get(name).completeOnTimeout(
+                    TargetResponse.error(name, secondaryTimeout, new TimeoutException(
+                        "No response from " + name + " within " + secondaryTimeout)),
+                    secondaryTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(pendingFutures).whenComplete((v, t) -> {
+                if (!compare) {
+                    finishPart.run();
+                    return;
+                }
+                boolean comparisonAccepted = asyncValidation.tryExecute(compareLag -> {
+                    try {
+                        recordAsyncValidationLag(requestCtx, compareLag);
+                        compareAndReport(requestMap, requestId, dispatchResult);
+                    } finally {
+                        finishPart.run();
+                    }
+                });
+                if (!comparisonAccepted) {
+                    recordAsyncValidationDropped(requestCtx);
+                    finishPart.run();
+                }
+            });
+        });
+        if (!accepted) {
+            recordAsyncValidationDropped(requestCtx);
+            finishPart.run();
+        }
+    }
+
+    private void compareAndReport(Map<String, Object> requestMap, long requestId, DispatchResult dispatchResult) {
+        try {
+            Map<String, TargetResponse> allResponses = collectResponses(dispatchResult.futures);
+            List<ValidationResult> results = runValidators(allResponses);
+            collectMetrics(requestMap, dispatchResult, allResponses);
+            logTuple(requestId, requestMap, allResponses, results);
+        } catch (Exception e) {
+            log.error("Error running async validation", e);
+        }
+    }
+
+    private FullHttpResponse buildAsyncPrimaryResponse(TargetResponse primary) {
+        FullHttpResponse response = buildPrimaryResponse(primary);
+        addShimHeaders(response);
+        addTargetHeaders(response, Map.of(primaryTarget, primary));
+        if (!validators.isEmpty()) {
+            response.headers().set(VALIDATION_STATUS_HEADER, ASYNC_VALIDATION_STATUS);
+        }
+        return response;
+    }
+
+    private static void recordAsyncValidationLag(ShimRequestContext requestCtx, Duration lag) {
+        if (requestCtx != null) {
+            requestCtx.recordAsyncValidationLag(lag);
+        }
+    }
+
+    private static void recordAsyncValidationDropped(ShimRequestContext requestCtx) {
+        if (requestCtx != null) {
+            requestCtx.addAsyncValidationDropped();
+        }
+    }
+
     /**
      * Invoke MetricsReceiver if configured and in dual-target mode.
      * Exceptions are caught and logged so they never affect the client response.
@@ -837,7 +1000,7 @@ public class MultiTargetRoutingHandler extends SimpleChannelInboundHandler<FullH
         boolean anyError = validationResults.stream()
             .anyMatch(r -> r.detail() != null && r.detail().startsWith("ERROR:"));
         String status = computeValidationStatus(allPassed, anyError);
-        response.headers().set("X-Validation-Status", status);
+        response.headers().set(VALIDATION_STATUS_HEADER, status);
         response.headers().set("X-Validation-Details",
             validationResults.stream()
                 .map(MultiTargetRoutingHandler::formatValidationResult)
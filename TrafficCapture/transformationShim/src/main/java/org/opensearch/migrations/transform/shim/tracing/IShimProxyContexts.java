@@ -1,5 +1,7 @@
 package org.opensearch.migrations.transform.shim.tracing;
 
+import java.time.Duration;
+
 import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 
 public interface IShimProxyContexts {
@@ -15,12 +17,27 @@ public interface IShimProxyContexts {
         private MetricNames() {}
         public static final String TARGET_BYTES_SENT = "targetBytesSent";
         public static final String TARGET_BYTES_RECEIVED = "targetBytesReceived";
+        public static final String ASYNC_VALIDATION_LAG = "asyncValidationLag";
+        public static final String ASYNC_VALIDATION_DROPPED = "asyncValidationDropped";
+        public static final String ASYNC_VALIDATION_SAMPLED_OUT = "asyncValidationSampledOut";
+        public static final String ASYNC_VALIDATION_QUEUE_DEPTH = "asyncValidationQueueDepth";
+        public static final String TRANSFORM_CACHE_HITS = "transformCacheHits";
+        public static final String TRANSFORM_CACHE_MISSES = "transformCacheMisses";
     }
 
     interface IRequestContext extends IScopedInstrumentationAttributes {
         String ACTIVITY_NAME = ActivityNames.SHIM_REQUEST;
 
         ITargetDispatchContext createTargetDispatchContext(String targetName);
+
+        /** Time that this request's async validation work waited for the bounded executor. */
+        void recordAsyncValidationLag(Duration lag);
+
+        /** This request's async validation work was dropped because the executor fell behind. */
+        void addAsyncValidationDropped();
+
+        /** This request's responses weren't compared because it fell outside of the sample. */
+        void addAsyncValidationSampledOut();
     }
 
     interface ITargetDispatchContext extends IScopedInstrumentationAttributes {
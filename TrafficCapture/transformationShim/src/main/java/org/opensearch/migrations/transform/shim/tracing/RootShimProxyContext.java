@@ -1,18 +1,30 @@
 package org.opensearch.migrations.transform.shim.tracing;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
 import org.opensearch.migrations.tracing.IContextTracker;
 import org.opensearch.migrations.tracing.RootOtelContext;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import lombok.NonNull;
 
 public class RootShimProxyContext extends RootOtelContext {
     public static final String SCOPE_NAME = "shimProxy";
+    public static final AttributeKey<String> TRANSFORM_CACHE_ATTR = AttributeKey.stringKey("transform.cache");
 
     public final ShimRequestContext.MetricInstruments shimRequestInstruments;
     public final TargetDispatchContext.MetricInstruments targetDispatchInstruments;
     public final TransformContext.MetricInstruments transformInstruments;
 
+    private record TransformCacheCounters(Attributes attributes, LongSupplier hitCountSupplier,
+                                          LongSupplier missCountSupplier) {}
+
+    private final List<TransformCacheCounters> transformCaches = new CopyOnWriteArrayList<>();
+
     public RootShimProxyContext(@NonNull OpenTelemetry sdk, IContextTracker contextTracker) {
         super(SCOPE_NAME, contextTracker, sdk);
         var meter = this.getMeterProvider().get(SCOPE_NAME);
@@ -20,4 +32,32 @@ public class RootShimProxyContext extends RootOtelContext {
         targetDispatchInstruments = TargetDispatchContext.makeMetrics(meter);
         transformInstruments = TransformContext.makeMetrics(meter);
     }
+
+    /** Publish the async validation backlog as an observable gauge. */
+    public void registerAsyncValidationQueueDepthGauge(LongSupplier queueDepthSupplier) {
+        getMeterProvider().get(SCOPE_NAME)
+            .gaugeBuilder(IShimProxyContexts.MetricNames.ASYNC_VALIDATION_QUEUE_DEPTH)
+            .ofLongs()
+            .buildWithCallback(m -> m.record(queueDepthSupplier.getAsLong()));
+    }
+
+    /**
+     * Publish a transformed-request cache's running hit and miss totals as observable counters.  The
+     * counters are registered once, with the first cache, and report every cache registered since under
+     * its own {@link #TRANSFORM_CACHE_ATTR}.
+     */
+    public synchronized void registerTransformCacheCounters(String cacheName, LongSupplier hitCountSupplier,
+                                                            LongSupplier missCountSupplier) {
+        if (transformCaches.isEmpty()) {
+            var meter = getMeterProvider().get(SCOPE_NAME);
+            meter.counterBuilder(IShimProxyContexts.MetricNames.TRANSFORM_CACHE_HITS)
+                .buildWithCallback(m -> transformCaches.forEach(
+                    cache -> m.record(cache.hitCountSupplier().getAsLong(), cache.attributes())));
+            meter.counterBuilder(IShimProxyContexts.MetricNames.TRANSFORM_CACHE_MISSES)
+                .buildWithCallback(m -> transformCaches.forEach(
+                    cache -> m.record(cache.missCountSupplier().getAsLong(), cache.attributes())));
+        }
+        transformCaches.add(new TransformCacheCounters(Attributes.of(TRANSFORM_CACHE_ATTR, cacheName),
+            hitCountSupplier, missCountSupplier));
+    }
 }
@@ -1,11 +1,15 @@
 package org.opensearch.migrations.transform.shim.tracing;
 
+import java.time.Duration;
+
 import org.opensearch.migrations.tracing.BaseSpanContext;
 import org.opensearch.migrations.tracing.CommonScopedMetricInstruments;
 import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import lombok.NonNull;
 
@@ -36,8 +40,18 @@ public class ShimRequestContext extends BaseSpanContext<RootShimProxyContext>
     }
 
     public static class MetricInstruments extends CommonScopedMetricInstruments {
+        public final DoubleHistogram asyncValidationLag;
+        public final LongCounter asyncValidationDropped;
+        public final LongCounter asyncValidationSampledOut;
+
         private MetricInstruments(Meter meter, String activityName) {
             super(meter, activityName);
+            asyncValidationLag = meter.histogramBuilder(
+                IShimProxyContexts.MetricNames.ASYNC_VALIDATION_LAG).setUnit("ms").build();
+            asyncValidationDropped = meter.counterBuilder(
+                IShimProxyContexts.MetricNames.ASYNC_VALIDATION_DROPPED).build();
+            asyncValidationSampledOut = meter.counterBuilder(
+                IShimProxyContexts.MetricNames.ASYNC_VALIDATION_SAMPLED_OUT).build();
         }
     }
 
@@ -66,4 +80,19 @@ public class ShimRequestContext extends BaseSpanContext<RootShimProxyContext>
     public IShimProxyContexts.ITargetDispatchContext createTargetDispatchContext(String targetName) {
         return new TargetDispatchContext(this, targetName);
     }
+
+    @Override
+    public void recordAsyncValidationLag(Duration lag) {
+        meterHistogramMillis(getMetrics().asyncValidationLag, lag);
+    }
+
+    @Override
+    public void addAsyncValidationDropped() {
+        meterIncrementEvent(getMetrics().asyncValidationDropped);
+    }
+
+    @Override
+    public void addAsyncValidationSampledOut() {
+        meterIncrementEvent(getMetrics().asyncValidationSampledOut);
+    }
 }
@@ -0,0 +1,128 @@
+package org.opensearch.migrations.transform.shim.validation;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded executor for the off-path work of the shim's async validation mode: secondary dispatch,
+ * response comparison, and reporting.  When the queue is full, new work is dropped rather than
+ * queued without bound, so a slow secondary or validator can never back up into client latency
+ * or memory.  A sample rate can further reduce how many requests are compared.
+ */
+@Slf4j
+public class AsyncValidationExecutor implements AutoCloseable {
+    public static final int DEFAULT_THREADS = 2;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ThreadPoolExecutor executor;
+    @Getter
+    private final double sampleRate;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong sampledOutCount = new AtomicLong();
+    private final AtomicLong lastLagNanos = new AtomicLong();
+
+    public AsyncValidationExecutor(int threads, int queueCapacity, double sampleRate) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive, but was " + threads);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive, but was " + queueCapacity);
+        }
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0, but was " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.executor = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new DefaultThreadFactory("asyncValidation"),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Decide whether a request's responses should be compared.  Secondary dispatch still happens
+     * for requests that aren't sampled so that secondary targets see the full traffic.
+     */
+    public boolean shouldCompare() {
+        if (sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            return true;
+        }
+        sampledOutCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Run the task on the bounded pool, passing it how long it waited in the queue.
+     *
+     * @return false if the task was dropped because the executor has fallen behind (or is shut down)
+     */
+    public boolean tryExecute(Consumer<Duration> task) {
+        final long submitNanos = System.nanoTime();
+        queued.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                queued.decrementAndGet();
+                var lagNanos = System.nanoTime() - submitNanos;
+                lastLagNanos.set(lagNanos);
+                task.accept(Duration.ofNanos(lagNanos));
+            });
+            submittedCount.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            var dropped = droppedCount.incrementAndGet();
+            log.atDebug().setMessage("Async validation queue is full, dropping work (dropped so far={})")
+                .addArgument(dropped).log();
+            return false;
+        }
+    }
+
+    /** Number of tasks waiting to start. */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getSampledOutCount() {
+        return sampledOutCount.get();
+    }
+
+    /** How long the most recently started task waited in the queue. */
+    public Duration getLastLag() {
+        return Duration.ofNanos(lastLagNanos.get());
+    }
+
+    /** Stop accepting work and wait (bounded) for queued comparisons to finish. */
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Async validation executor did not drain within {}, {} tasks abandoned",
+                SHUTDOWN_TIMEOUT, executor.shutdownNow().size());
+        }
+        log.info("Async validation executor closed: submitted={}, dropped={}, sampledOut={}",
+            getSubmittedCount(), getDroppedCount(), getSampledOutCount());
+    }
+}
@@ -0,0 +1,186 @@
+package org.opensearch.migrations.transform.shim;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opensearch.migrations.transform.IJsonTransformer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingRequestTransformerTest {
+
+    /** Rewrites the URI like the Solr request transform does and records a _metrics side-channel. */
+    private static class CountingTransformer implements IJsonTransformer {
+        final AtomicInteger calls = new AtomicInteger();
+        final String suffix;
+
+        CountingTransformer(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object transformJson(Object input) {
+            calls.incrementAndGet();
+            var map = (Map<String, Object>) input;
+            map.put("_metrics", new LinkedHashMap<>(Map.of("calls", calls.get())));
+            var out = new LinkedHashMap<String, Object>(map);
+            out.put("URI", "/collection/_search" + suffix);
+            return out;
+        }
+    }
+
+    private static Map<String, Object> request(String uri, String body) {
+        var map = new LinkedHashMap<String, Object>();
+        map.put("method", "GET");
+        map.put("URI", uri);
+        map.put("protocol", "HTTP/1.1");
+        var headers = new LinkedHashMap<String, Object>();
+        headers.put("Host", "solr:8983");
+        headers.put("Accept", "application/json");
+        map.put("headers", headers);
+        if (body != null) {
+            map.put("payload", new LinkedHashMap<>(Map.of("inlinedJsonBody", Map.of("query", body))));
+        }
+        map.put("_targetName", "opensearch");
+        return map;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatedRequestsAreServedFromTheCache() {
+        var delegate = new CountingTransformer("");
+        var cache = new CachingRequestTransformer(delegate, 1_000_000);
+
+        var firstInput = request("/solr/c/select?q=*:*&fq=a&rows=10", null);
+        var first = (Map<String, Object>) cache.transformJson(firstInput);
+        var secondInput = request("/solr/c/select?rows=10&q=*:*&fq=a", null);
+        var second = (Map<String, Object>) cache.transformJson(secondInput);
+
+        assertEquals(1, delegate.calls.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(Map.of("calls", 1), secondInput.get("_metrics"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        ((Map<String, Object>) second.get("headers")).put("X-Mutated", "true");
+        var third = (Map<String, Object>) cache.transformJson(request("/solr/c/select?q=*:*&fq=a&rows=10", null));
+        assertEquals(first, third);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hitsKeepTheLiveRequestsUriAndUnfingerprintedHeaders() {
+        var calls = new AtomicInteger();
+        IJsonTransformer passThrough = input -> {
+            calls.incrementAndGet();
+            var map = (Map<String, Object>) input;
+            var out = new LinkedHashMap<String, Object>(map);
+            var headers = new LinkedHashMap<String, Object>((Map<String, Object>) map.get("headers"));
+            headers.put("X-Transformed", "true");
+            out.put("headers", headers);
+            return out;
+        };
+        var cache = new CachingRequestTransformer(passThrough, 1_000_000);
+
+        cache.transformJson(request("/solr/c/select?q=*:*&rows=10", null));
+        var secondInput = request("/solr/c/select?rows=10&q=*:*", null);
+        var secondHeaders = (Map<String, Object>) secondInput.get("headers");
+        secondHeaders.put("Host", "solr-2:8983");
+        secondHeaders.put("Connection", "close");
+        var second = (Map<String, Object>) cache.transformJson(secondInput);
+
+        assertEquals(1, calls.get());
+        assertEquals("/solr/c/select?rows=10&q=*:*", second.get("URI"));
+        var outputHeaders = (Map<String, Object>) second.get("headers");
+        assertEquals("solr-2:8983", outputHeaders.get("Host"));
+        assertEquals("true", outputHeaders.get("X-Transformed"));
+        assertEquals("application/json", outputHeaders.get("Accept"));
+        assertEquals("/solr/c/select?rows=10&q=*:*", secondInput.get("URI"));
+        assertEquals("close", ((Map<String, Object>) secondInput.get("headers")).get("Connection"));
+    }
+
+    @Test
+    void differentShapesMiss() {
+        var delegate = new CountingTransformer("");
+        var cache = new CachingRequestTransformer(delegate, 1_000_000);
+
+        cache.transformJson(request("/solr/c/select?q=a", null));
+        cache.transformJson(request("/solr/c/select?q=b", null));
+        cache.transformJson(request("/solr/c/select?q=a", "x"));
+        cache.transformJson(request("/solr/c/select?q=a", "y"));
+        cache.transformJson(request("/solr/c/select?fq=1&fq=2", null));
+        cache.transformJson(request("/solr/c/select?fq=2&fq=1", null));
+
+        assertEquals(6, delegate.calls.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    void reloadInvalidatesEntries() throws Exception {
+        var original = new CountingTransformer("?v=1");
+        var reloaded = new CountingTransformer("?v=2");
+        var reloadable = new ReloadableTransformer(() -> original, Map.of());
+        try (var cache = new CachingRequestTransformer(reloadable, 1_000_000)) {
+            assertEquals("/collection/_search?v=1", uriOf(cache.transformJson(request("/solr/c/select?q=a", null))));
+            assertEquals("/collection/_search?v=1", uriOf(cache.transformJson(request("/solr/c/select?q=a", null))));
+            assertEquals(1, cache.size());
+
+            reloadable.reload(() -> reloaded);
+            assertEquals(0, cache.size());
+            assertEquals("/collection/_search?v=2", uriOf(cache.transformJson(request("/solr/c/select?q=a", null))));
+            assertEquals(1, reloaded.calls.get());
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesToStayUnderTheByteBound() {
+        var delegate = new CountingTransformer("");
+        var probe = new CachingRequestTransformer(delegate, Long.MAX_VALUE);
+        probe.transformJson(request("/solr/c/select?q=0", null));
+        long entryBytes = probe.getEstimatedBytes();
+
+        var cache = new CachingRequestTransformer(new CountingTransformer(""), entryBytes * 3);
+        for (int i = 0; i < 10; i++) {
+            cache.transformJson(request("/solr/c/select?q=" + i, null));
+        }
+        assertTrue(cache.getEstimatedBytes() <= entryBytes * 3);
+        assertEquals(3, cache.size());
+        assertEquals(7, cache.getEvictionCount());
+    }
+
+    @Test
+    void replayedQueryLogHasHighHitRate() {
+        var shapes = List.of(
+            "/solr/products/select?q=shoes&fq=brand:acme&rows=20",
+            "/solr/products/select?q=shirts&fq=size:m&rows=20",
+            "/solr/products/select?q=*:*&facet=true&facet.field=brand",
+            "/solr/products/select?q=hats&sort=price+asc");
+        var delegate = new CountingTransformer("");
+        var cache = new CachingRequestTransformer(delegate, 1_000_000);
+        for (int i = 0; i < 1000; i++) {
+            cache.transformJson(request(shapes.get(i % shapes.size()), null));
+        }
+        assertEquals(shapes.size(), delegate.calls.get());
+        assertTrue(cache.getHitRate() > 0.99, "hit rate was " + cache.getHitRate());
+    }
+
+    @Test
+    void rejectsNonPositiveBound() {
+        var delegate = new CountingTransformer("");
+        assertThrows(IllegalArgumentException.class, () -> new CachingRequestTransformer(delegate, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String uriOf(Object transformed) {
+        return (String) ((Map<String, Object>) transformed).get("URI");
+    }
+}
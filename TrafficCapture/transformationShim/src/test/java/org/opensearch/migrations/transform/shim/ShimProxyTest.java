@@ -11,10 +11,12 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.opensearch.migrations.transform.IJsonTransformer;
 import org.opensearch.migrations.transform.shim.netty.TransformException;
 import org.opensearch.migrations.transform.shim.reporting.ReportingSink;
+import org.opensearch.migrations.transform.shim.validation.AsyncValidationExecutor;
 import org.opensearch.migrations.transform.shim.validation.DocCountValidator;
 import org.opensearch.migrations.transform.shim.validation.FieldIgnoringEquality;
 import org.opensearch.migrations.transform.shim.validation.Target;
@@ -290,9 +292,47 @@ class ShimProxyTest {
             "Unreachable primary should return 502, not 500");
     }
 
+    @Test
+    void asyncValidation_primaryReturnsWithoutWaitingForSlowSecondary() throws Exception {
+        String body = "{\"response\":{\"numFound\":10}}";
+        startBackend("A", backendPortA, body);
+        startBackend("B", backendPortB, body, Duration.ofSeconds(3));
+
+        Map<String, Target> targets = new LinkedHashMap<>();
+        targets.put("alpha", new Target("alpha", URI.create("http://localhost:" + backendPortA)));
+        targets.put("beta", new Target("beta", URI.create("http://localhost:" + backendPortB)));
+
+        var validators = List.of(
+            new ValidationRule("field-equality", List.of("alpha", "beta"),
+                new FieldIgnoringEquality("alpha", "beta", Set.of())));
+        var mockSink = mock(ReportingSink.class);
+        var asyncValidation = new AsyncValidationExecutor(1, 10, 1.0);
+
+        proxy = new ShimProxy(proxyPort, targets, "alpha", null, validators,
+            null, false, Duration.ofSeconds(10), ShimProxy.DEFAULT_MAX_CONTENT_LENGTH,
+            null, null, mockSink, asyncValidation);
+        proxy.start();
+
+        long start = System.nanoTime();
+        var resp = httpGet("http://localhost:" + proxyPort + "/test");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(200, resp.statusCode());
+        assertEquals("ASYNC", resp.headers().firstValue("X-Validation-Status").orElse(null));
+        assertNotNull(resp.headers().firstValue("X-Target-alpha-StatusCode").orElse(null));
+        assertTrue(resp.headers().firstValue("X-Target-beta-StatusCode").isEmpty());
+        assertTrue(elapsedMs < 2000, "Primary response took " + elapsedMs + "ms");
+        assertEquals(1, asyncValidation.getSubmittedCount());
+    }
+
     // --- Mock backends ---
 
     private void startBackend(String label, int port, String responseBody) throws InterruptedException {
+        startBackend(label, port, responseBody, Duration.ZERO);
+    }
+
+    private void startBackend(String label, int port, String responseBody, Duration delay)
+        throws InterruptedException {
         NioEventLoopGroup group = new NioEventLoopGroup(1);
         Channel channel = new ServerBootstrap()
             .group(group)
@@ -303,7 +343,7 @@ class ShimProxyTest {
                     ch.pipeline()
                         .addLast(new HttpServerCodec())
                         .addLast(new HttpObjectAggregator(1024 * 1024))
-                        .addLast(new StaticResponseHandler(responseBody));
+                        .addLast(new StaticResponseHandler(responseBody, delay));
                 }
             })
             .bind(port).sync().channel();
@@ -320,13 +360,27 @@ class ShimProxyTest {
     /** Returns a fixed JSON response for every request. */
     static class StaticResponseHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         private final String responseBody;
+        private final Duration delay;
 
         StaticResponseHandler(String responseBody) {
+            this(responseBody, Duration.ZERO);
+        }
+
+        StaticResponseHandler(String responseBody, Duration delay) {
             this.responseBody = responseBody;
+            this.delay = delay;
         }
 
         @Override
         protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+            if (delay.isZero()) {
+                respond(ctx);
+            } else {
+                ctx.executor().schedule(() -> respond(ctx), delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void respond(ChannelHandlerContext ctx) {
             byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
             var response = new DefaultFullHttpResponse(
                 HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(body));
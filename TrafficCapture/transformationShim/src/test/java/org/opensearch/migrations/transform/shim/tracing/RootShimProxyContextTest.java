@@ -0,0 +1,55 @@
+package org.opensearch.migrations.transform.shim.tracing;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.tracing.IContextTracker;
+import org.opensearch.migrations.tracing.InMemoryInstrumentationBundle;
+
+import io.opentelemetry.sdk.metrics.data.LongPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RootShimProxyContextTest {
+
+    private InMemoryInstrumentationBundle bundle;
+    private RootShimProxyContext rootContext;
+
+    @BeforeEach
+    void setUp() {
+        bundle = new InMemoryInstrumentationBundle(true, true);
+        rootContext = new RootShimProxyContext(bundle.openTelemetrySdk, IContextTracker.DO_NOTHING_TRACKER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bundle.close();
+    }
+
+    private Map<String, Long> valuesByCache(String metricName) {
+        var metrics = bundle.getFinishedMetrics().stream()
+            .filter(metric -> metric.getName().equals(metricName))
+            .toList();
+        assertEquals(1, metrics.size(), "instruments named " + metricName);
+        MetricData metric = metrics.get(0);
+        return metric.getLongSumData().getPoints().stream()
+            .collect(Collectors.toMap(
+                point -> point.getAttributes().get(RootShimProxyContext.TRANSFORM_CACHE_ATTR),
+                LongPointData::getValue));
+    }
+
+    @Test
+    void transformCacheCounters_reportEachCacheUnderItsOwnAttribute() {
+        rootContext.registerTransformCacheCounters("solr", () -> 7, () -> 3);
+        rootContext.registerTransformCacheCounters("os-a,os-b", () -> 11, () -> 0);
+
+        assertEquals(Map.of("solr", 7L, "os-a,os-b", 11L),
+            valuesByCache(IShimProxyContexts.MetricNames.TRANSFORM_CACHE_HITS));
+        assertEquals(Map.of("solr", 3L, "os-a,os-b", 0L),
+            valuesByCache(IShimProxyContexts.MetricNames.TRANSFORM_CACHE_MISSES));
+    }
+}
@@ -0,0 +1,84 @@
+package org.opensearch.migrations.transform.shim.validation;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncValidationExecutorTest {
+
+    @Test
+    void dropsWorkWhenQueueIsFull() throws Exception {
+        var blocker = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        try (var executor = new AsyncValidationExecutor(1, 1, 1.0)) {
+            assertTrue(executor.tryExecute(lag -> {
+                started.countDown();
+                awaitQuietly(blocker);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(executor.tryExecute(lag -> {}));
+            assertEquals(1, executor.getQueueDepth());
+
+            assertFalse(executor.tryExecute(lag -> {}));
+            assertEquals(1, executor.getDroppedCount());
+            assertEquals(2, executor.getSubmittedCount());
+            blocker.countDown();
+        }
+    }
+
+    @Test
+    void reportsQueueLag() throws Exception {
+        var blocker = new CountDownLatch(1);
+        var observedLag = new AtomicReference<Duration>();
+        var done = new CountDownLatch(1);
+        try (var executor = new AsyncValidationExecutor(1, 10, 1.0)) {
+            executor.tryExecute(lag -> awaitQuietly(blocker));
+            executor.tryExecute(lag -> {
+                observedLag.set(lag);
+                done.countDown();
+            });
+            Thread.sleep(100);
+            blocker.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        assertNotNull(observedLag.get());
+        assertTrue(observedLag.get().toMillis() >= 100, "lag was " + observedLag.get());
+    }
+
+    @Test
+    void sampleRateControlsComparisons() throws Exception {
+        try (var never = new AsyncValidationExecutor(1, 1, 0.0);
+             var always = new AsyncValidationExecutor(1, 1, 1.0)) {
+            for (int i = 0; i < 10; i++) {
+                assertFalse(never.shouldCompare());
+                assertTrue(always.shouldCompare());
+            }
+            assertEquals(10, never.getSampledOutCount());
+            assertEquals(0, always.getSampledOutCount());
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncValidationExecutor(0, 1, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncValidationExecutor(1, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncValidationExecutor(1, 1, 2.0));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.opensearch.migrations.s3sink.CompressionCodec;
 import org.opensearch.migrations.s3sink.RotatingGzipS3ObjectWriter;
 import org.opensearch.migrations.s3sink.RotationPolicy;
 
@@ -21,7 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 /**
- * Writes tuples as gzip-compressed JSON lines to S3.
+ * Writes tuples as compressed JSON lines to S3 (gzip unless another {@link CompressionCodec} is given).
  *
  * <p>The durability-sensitive mechanics — temp-file staging, gzip close, size/age/count rotation,
  * same-key upload retries, and upload-completion-tied flush/close — live in the shared
@@ -30,7 +31,8 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
  * drives Kafka offset commits, and a single worker thread that both serializes writer access and
  * self-schedules an age-based flush of trailing tuples.</p>
  *
- * <p>S3 key format: {@code {prefix}{replayerId}/{yyyy/MM/dd/HH}/tuples-{sinkIndex}-{timestamp}-{seq}.log.gz}</p>
+ * <p>S3 key format: {@code {prefix}{replayerId}/{yyyy/MM/dd/HH}/tuples-{sinkIndex}-{timestamp}-{seq}.log.gz}
+ * ({@code .log.zst} when zstd is used)</p>
  *
  * <p>Each instance is single-threaded (one per Netty event loop). The {@code sinkIndex}
  * is embedded in keys to avoid collisions between concurrent writers.</p>
@@ -76,7 +78,32 @@ public class S3TupleSink implements TupleSink {
             rotateAfterBytes,
             rotateAfterAge,
             rotateAfterTuples,
-            DEFAULT_UPLOAD_RETRY_DELAY
+            CompressionCodec.GZIP
+        );
+    }
+
+    public S3TupleSink(
+        S3AsyncClient s3Client,
+        String bucket,
+        String prefix,
+        String replayerId,
+        int sinkIndex,
+        long rotateAfterBytes,
+        Duration rotateAfterAge,
+        int rotateAfterTuples,
+        CompressionCodec codec
+    ) {
+        this(
+            s3Client,
+            bucket,
+            prefix,
+            replayerId,
+            sinkIndex,
+            rotateAfterBytes,
+            rotateAfterAge,
+            rotateAfterTuples,
+            DEFAULT_UPLOAD_RETRY_DELAY,
+            codec
         );
     }
 
@@ -90,20 +117,48 @@ public class S3TupleSink implements TupleSink {
         Duration rotateAfterAge,
         int rotateAfterTuples,
         Duration uploadRetryDelay
+    ) {
+        this(
+            s3Client,
+            bucket,
+            prefix,
+            replayerId,
+            sinkIndex,
+            rotateAfterBytes,
+            rotateAfterAge,
+            rotateAfterTuples,
+            uploadRetryDelay,
+            CompressionCodec.GZIP
+        );
+    }
+
+    S3TupleSink(
+        S3AsyncClient s3Client,
+        String bucket,
+        String prefix,
+        String replayerId,
+        int sinkIndex,
+        long rotateAfterBytes,
+        Duration rotateAfterAge,
+        int rotateAfterTuples,
+        Duration uploadRetryDelay,
+        CompressionCodec codec
     ) {
         this.sinkIndex = sinkIndex;
+        var keySuffix = ".log" + codec.format().fileExtension;
         RotatingGzipS3ObjectWriter.KeyFactory keyFactory = (now, seq) ->
             prefix + replayerId + "/" + SHARD_FORMAT.format(now) + "/"
-                + String.format("tuples-%d-%s-%d.log.gz", sinkIndex, TIMESTAMP_FORMAT.format(now), seq);
+                + String.format("tuples-%d-%s-%d", sinkIndex, TIMESTAMP_FORMAT.format(now), seq) + keySuffix;
         this.writer = new RotatingGzipS3ObjectWriter<>(
-            RotatingGzipS3ObjectWriter.s3ObjectUploader(s3Client),
+            RotatingGzipS3ObjectWriter.s3ObjectUploader(s3Client, codec.format().contentType),
             bucket,
             keyFactory,
             bytes -> bytes,   // tuples are already serialized on the calling thread
             new RotationPolicy(rotateAfterBytes, rotateAfterAge, rotateAfterTuples),
             uploadRetryDelay,
             0,                // retry the same key indefinitely: the replayer has no other durability net
-            "tuple-sink-" + sinkIndex + "-"
+            "tuple-sink-" + sinkIndex + "-",
+            codec
         );
         this.executor = Executors.newSingleThreadScheduledExecutor(makeWorkerThreadFactory());
         // Self-scheduled age flush: re-checks file age on its own thread so a sink that stops
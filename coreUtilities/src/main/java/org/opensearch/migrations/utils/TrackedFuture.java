@@ -27,17 +27,28 @@ import lombok.extern.slf4j.Slf4j;
  *
  * This is adding a great amount of clarity, though using it may still be a challenge.  Much
  * more work is expected to improve the UX for developers.
+ *
+ * How much of that diagnostic state is retained is controlled by a process-wide
+ * {@link TrackedFutureDiagnosticsPolicy}.  When a chain isn't being tracked, its TrackedFutures
+ * keep neither their diagnostic suppliers nor their parents and compose exactly like the
+ * underlying CompletableFutures would.
  * @param <D> The type of object that will be returned to represent diagnostic information
  * @param <T> The type of value of the underlying (internal) CompletableFuture's result
  */
 @Slf4j
 public class TrackedFuture<D, T> {
 
+    private static final Supplier<?> UNTRACKED_DIAGNOSTIC_SUPPLIER = () -> null;
+
+    private static volatile TrackedFutureDiagnosticsPolicy diagnosticsPolicy = TrackedFutureDiagnosticsPolicy.FULL;
+
     public final CompletableFuture<T> future;
     protected AtomicReference<TrackedFuture<D, T>> innerComposedPendingCompletableFutureReference;
     @Getter
     public final Supplier<D> diagnosticSupplier;
+    /** null when this future was created while its chain was not being tracked */
     protected final AtomicReference<TrackedFuture<D, ?>> parentDiagnosticFutureRef;
+    private final TrackedFutureDiagnosticsPolicy.Scope diagnosticsScope;
 
     private TrackedFuture() {
         throw new IllegalCallerException();
@@ -54,27 +65,59 @@ public class TrackedFuture<D, T> {
             @NonNull Throwable e,
             @NonNull Supplier<D> diagnosticSupplier
         ) {
-            return new TrackedFuture<>(CompletableFuture.failedFuture(e), diagnosticSupplier, null);
+            return new TrackedFuture<>(CompletableFuture.failedFuture(e), diagnosticSupplier);
         }
 
         public static <U, D> TrackedFuture<D, U> completedFuture(U v, @NonNull Supplier<D> diagnosticSupplier) {
-            return new TrackedFuture<>(CompletableFuture.completedFuture(v), diagnosticSupplier, null);
+            return new TrackedFuture<>(CompletableFuture.completedFuture(v), diagnosticSupplier);
         }
     }
 
+    @SuppressWarnings("unchecked")
     private TrackedFuture(
         @NonNull CompletableFuture<T> future,
         @NonNull Supplier<D> diagnosticSupplier,
-        TrackedFuture<D, ?> parentFuture
+        TrackedFuture<D, ?> parentFuture,
+        @NonNull TrackedFutureDiagnosticsPolicy.Scope diagnosticsScope
     ) {
         this.future = future;
-        this.diagnosticSupplier = diagnosticSupplier;
-        this.parentDiagnosticFutureRef = new AtomicReference<>();
-        setParentDiagnosticFuture(parentFuture);
+        this.diagnosticsScope = diagnosticsScope;
+        if (diagnosticsScope.isTracked()) {
+            this.diagnosticSupplier = diagnosticSupplier;
+            this.parentDiagnosticFutureRef = new AtomicReference<>();
+            setParentDiagnosticFuture(parentFuture);
+        } else {
+            this.diagnosticSupplier = (Supplier<D>) UNTRACKED_DIAGNOSTIC_SUPPLIER;
+            this.parentDiagnosticFutureRef = null;
+        }
     }
 
     public TrackedFuture(@NonNull CompletableFuture<T> future, @NonNull Supplier<D> diagnosticSupplier) {
-        this(future, diagnosticSupplier, null);
+        this(future, diagnosticSupplier, null, diagnosticsPolicy.newRootScope());
+    }
+
+    /**
+     * Set the policy that determines how much diagnostic state newly created root futures (and
+     * everything composed from them) will retain.  Chains that already exist are unaffected.
+     */
+    public static void setDiagnosticsPolicy(@NonNull TrackedFutureDiagnosticsPolicy policy) {
+        log.atInfo().setMessage("Setting TrackedFuture diagnostics policy to {}").addArgument(policy).log();
+        diagnosticsPolicy = policy;
+    }
+
+    public static TrackedFutureDiagnosticsPolicy getDiagnosticsPolicy() {
+        return diagnosticsPolicy;
+    }
+
+    /**
+     * @return true iff this future retained its diagnostic supplier and parent when it was created
+     */
+    public boolean isDiagnosticsTracked() {
+        return parentDiagnosticFutureRef != null;
+    }
+
+    private <U> TrackedFuture<D, U> newChild(CompletableFuture<U> newCf, Supplier<D> diagnosticSupplier) {
+        return new TrackedFuture<>(newCf, diagnosticSupplier, this, diagnosticsScope);
     }
 
     public static Throwable unwindPossibleCompletionException(Throwable t) {
@@ -85,6 +128,9 @@ public class TrackedFuture<D, T> {
     }
 
     public TrackedFuture<D, ?> getParentDiagnosticFuture() {
+        if (parentDiagnosticFutureRef == null) {
+            return null;
+        }
         var p = parentDiagnosticFutureRef.get();
         if (future.isDone() && p != null) {
             p.setParentDiagnosticFuture(null);
@@ -93,6 +139,9 @@ public class TrackedFuture<D, T> {
     }
 
     protected void setParentDiagnosticFuture(TrackedFuture<D, ?> parent) {
+        if (parentDiagnosticFutureRef == null) {
+            return;
+        }
         if (parent == null) {
             parentDiagnosticFutureRef.set(null);
             return;
@@ -134,7 +183,7 @@ public class TrackedFuture<D, T> {
         @NonNull Supplier<D> diagnosticSupplier
     ) {
         var newCf = fn.apply(future);
-        return new TrackedFuture<>(newCf, diagnosticSupplier, this);
+        return newChild(newCf, diagnosticSupplier);
     }
 
     public TrackedFuture<D, Void> thenAccept(Consumer<T> fn, @NonNull Supplier<D> diagnosticSupplier) {
@@ -160,13 +209,16 @@ public class TrackedFuture<D, T> {
         @NonNull Function<? super T, ? extends TrackedFuture<D, U>> fn,
         @NonNull Supplier<D> diagnosticSupplier
     ) {
+        if (!diagnosticsScope.isTracked()) {
+            return newChild(this.future.thenCompose(v -> fn.apply(v).future), diagnosticSupplier);
+        }
         var innerComposedCompletableFutureReference = new AtomicReference<TrackedFuture<D, U>>();
         var newCf = this.future.thenCompose(v -> {
             var innerFuture = fn.apply(v);
             innerComposedCompletableFutureReference.set(innerFuture);
             return innerFuture.future;
         });
-        var wrappedDiagnosticFuture = new TrackedFuture<>(newCf, diagnosticSupplier, this);
+        var wrappedDiagnosticFuture = this.<U>newChild(newCf, diagnosticSupplier);
         wrappedDiagnosticFuture.innerComposedPendingCompletableFutureReference =
             innerComposedCompletableFutureReference;
         wrappedDiagnosticFuture.future.whenComplete((v2, t2) -> innerComposedCompletableFutureReference.set(null));
@@ -190,6 +242,10 @@ public class TrackedFuture<D, T> {
         @NonNull BiFunction<? super T, Throwable, ? extends TrackedFuture<D, U>> fn,
         @NonNull Supplier<D> diagnosticSupplier
     ) {
+        if (!diagnosticsScope.isTracked()) {
+            CompletableFuture<TrackedFuture<D, U>> handledFuture = this.future.handle(fn::apply);
+            return newChild(handledFuture.thenCompose(wcf -> wcf.future), diagnosticSupplier);
+        }
         var innerComposedCompletableFutureReference = new AtomicReference<TrackedFuture<D, U>>();
         CompletableFuture<? extends TrackedFuture<D, U>> handledFuture = this.future.handle((v, t) -> {
             var innerFuture = fn.apply(v, t);
@@ -197,7 +253,7 @@ public class TrackedFuture<D, T> {
             return innerFuture;
         });
         var newCf = handledFuture.thenCompose(wcf -> wcf.future);
-        var wrappedDiagnosticFuture = new TrackedFuture<>(newCf, diagnosticSupplier, this);
+        var wrappedDiagnosticFuture = this.<U>newChild(newCf, diagnosticSupplier);
         wrappedDiagnosticFuture.innerComposedPendingCompletableFutureReference =
             innerComposedCompletableFutureReference;
         // TODO: Add a count to how many futures have been completed and are falling away?
@@ -210,7 +266,7 @@ public class TrackedFuture<D, T> {
         @NonNull Supplier<D> diagnosticSupplier
     ) {
         CompletableFuture<U> newCf = this.future.handle(fn);
-        return new TrackedFuture<>(newCf, diagnosticSupplier, this);
+        return newChild(newCf, diagnosticSupplier);
     }
 
     public T get() throws ExecutionException, InterruptedException {
@@ -0,0 +1,109 @@
+package org.opensearch.migrations.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Controls how much diagnostic state {@link TrackedFuture} chains retain.
+ *
+ * In FULL mode (the default) every composed TrackedFuture keeps its diagnostic supplier and a pointer to
+ * its parent so that {@link TrackedFutureStringFormatter} and {@link TrackedFutureMapConverter} can walk
+ * the chain.  In LIGHTWEIGHT mode, compositions collapse to plain CompletableFuture composition and
+ * nothing is retained for diagnostics, except for a sampled fraction of chains and for any chain that
+ * is still being extended after it has been alive for longer than the latency threshold.  Sampling
+ * decisions are made once, when a root TrackedFuture is created, and are inherited by everything that
+ * is composed from it.
+ */
+@Getter
+public class TrackedFutureDiagnosticsPolicy {
+    public enum Mode {
+        FULL,
+        LIGHTWEIGHT
+    }
+
+    public static final TrackedFutureDiagnosticsPolicy FULL = new TrackedFutureDiagnosticsPolicy(Mode.FULL, 1.0, null);
+
+    private final Mode mode;
+    /** Fraction (0.0 - 1.0) of root futures whose chains are tracked in full while in LIGHTWEIGHT mode */
+    private final double sampleRate;
+    /**
+     * When non-null, untracked chains that are still composing new stages after this much time has
+     * elapsed since their root was created will start tracking diagnostics for those new stages.
+     */
+    private final Duration latencyThreshold;
+
+    public TrackedFutureDiagnosticsPolicy(@NonNull Mode mode, double sampleRate, Duration latencyThreshold) {
+        if (sampleRate < 0.0 || sampleRate > 1.0) {
+            throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0, but was " + sampleRate);
+        }
+        if (latencyThreshold != null && latencyThreshold.isNegative()) {
+            throw new IllegalArgumentException("latencyThreshold must not be negative");
+        }
+        this.mode = mode;
+        this.sampleRate = sampleRate;
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public static TrackedFutureDiagnosticsPolicy lightweight(double sampleRate, Duration latencyThreshold) {
+        return new TrackedFutureDiagnosticsPolicy(Mode.LIGHTWEIGHT, sampleRate, latencyThreshold);
+    }
+
+    /**
+     * Decide how a newly created root future (and everything composed from it) will be tracked.
+     * Shared scopes are returned whenever the decision can't change so that only unsampled chains
+     * subject to a latency threshold allocate anything extra.
+     */
+    Scope newRootScope() {
+        if (mode == Mode.FULL) {
+            return Scope.ALWAYS_TRACKED;
+        }
+        if (sampleRate > 0.0 && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            return Scope.ALWAYS_TRACKED;
+        }
+        if (latencyThreshold == null) {
+            return Scope.NEVER_TRACKED;
+        }
+        return new Scope(System.nanoTime() + latencyThreshold.toNanos());
+    }
+
+    @Override
+    public String toString() {
+        return "TrackedFutureDiagnosticsPolicy{mode=" + mode
+            + ", sampleRate=" + sampleRate
+            + ", latencyThreshold=" + latencyThreshold + "}";
+    }
+
+    /**
+     * Per-chain tracking state.  Every TrackedFuture composed from a root shares the root's scope.
+     */
+    static class Scope {
+        static final Scope ALWAYS_TRACKED = new Scope(true);
+        static final Scope NEVER_TRACKED = new Scope(false);
+
+        private final long promoteAtNanos;
+        private final boolean canPromote;
+        private volatile boolean tracked;
+
+        private Scope(boolean tracked) {
+            this.tracked = tracked;
+            this.canPromote = false;
+            this.promoteAtNanos = 0;
+        }
+
+        private Scope(long promoteAtNanos) {
+            this.tracked = false;
+            this.canPromote = true;
+            this.promoteAtNanos = promoteAtNanos;
+        }
+
+        boolean isTracked() {
+            if (!tracked && canPromote && System.nanoTime() - promoteAtNanos >= 0) {
+                tracked = true;
+            }
+            return tracked;
+        }
+    }
+}
@@ -28,7 +28,9 @@ public class TrackedFutureMapConverter {
         @NonNull TrackedFuture<D, ?> tf,
         @NonNull Function<TrackedFuture<D, ?>, String> resultFormatter
     ) {
-        var diagnosticInfo = tf.diagnosticSupplier.get();
+        var diagnosticInfo = tf.isDiagnosticsTracked()
+            ? tf.diagnosticSupplier.get()
+            : TrackedFutureStringFormatter.UNTRACKED_LABEL;
         var isDone = tf.isDone();
         var map = new LinkedHashMap<String, Object>();
         map.put("idHash", System.identityHashCode(tf));
@@ -9,6 +9,8 @@ import lombok.SneakyThrows;
 
 public class TrackedFutureStringFormatter {
 
+    static final String UNTRACKED_LABEL = "<untracked>";
+
     private TrackedFutureStringFormatter() {}
 
     public static <D> String format(TrackedFuture<D, ?> f) {
@@ -30,7 +32,7 @@ public class TrackedFutureStringFormatter {
         @NonNull TrackedFuture<D, ?> tf,
         @NonNull Function<TrackedFuture<D, ?>, String> resultFormatter
     ) {
-        var diagnosticInfo = tf.diagnosticSupplier.get();
+        var diagnosticInfo = tf.isDiagnosticsTracked() ? tf.diagnosticSupplier.get() : UNTRACKED_LABEL;
         var isDone = tf.isDone();
         return "["
             + System.identityHashCode(tf)
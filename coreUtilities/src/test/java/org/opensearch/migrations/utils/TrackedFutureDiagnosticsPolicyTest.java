@@ -0,0 +1,138 @@
+package org.opensearch.migrations.utils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+@Slf4j
+class TrackedFutureDiagnosticsPolicyTest {
+
+    @AfterEach
+    void restoreDefaultPolicy() {
+        TrackedFuture.setDiagnosticsPolicy(TrackedFutureDiagnosticsPolicy.FULL);
+    }
+
+    private static TrackedFuture<String, Integer> makeChain(TextTrackedFuture<Integer> root, int length) {
+        TrackedFuture<String, Integer> tf = root;
+        for (int i = 0; i < length; ++i) {
+            tf = tf.thenApply(v -> v + 1, () -> "apply")
+                .thenCompose(v -> TextTrackedFuture.completedFuture(v, () -> "inner"), () -> "compose");
+        }
+        return tf;
+    }
+
+    @Test
+    public void lightweightChainsRetainNoDiagnostics() throws Exception {
+        TrackedFuture.setDiagnosticsPolicy(TrackedFutureDiagnosticsPolicy.lightweight(0.0, null));
+        var root = new TextTrackedFuture<Integer>("root");
+        var tf = makeChain(root, 3);
+        Assertions.assertFalse(tf.isDiagnosticsTracked());
+        Assertions.assertNull(tf.getParentDiagnosticFuture());
+        Assertions.assertEquals(1, tf.walkParentsAsStream().count());
+        Assertions.assertTrue(tf.formatAsString(x -> null).contains("<untracked>"));
+
+        root.future.complete(0);
+        Assertions.assertEquals(3, tf.get());
+    }
+
+    @Test
+    public void sampledChainsRetainFullDiagnostics() throws Exception {
+        TrackedFuture.setDiagnosticsPolicy(TrackedFutureDiagnosticsPolicy.lightweight(1.0, null));
+        var root = new TextTrackedFuture<Integer>("root");
+        var tf = root.thenApply(v -> v + 1, () -> "B").thenApply(v -> v + 1, () -> "C");
+        Assertions.assertTrue(tf.isDiagnosticsTracked());
+        Assertions.assertEquals(3, tf.walkParentsAsStream().count());
+        Assertions.assertEquals("C", tf.diagnosticSupplier.get());
+
+        root.future.complete(0);
+        Assertions.assertEquals(2, tf.get());
+    }
+
+    @Test
+    public void slowChainsStartTrackingAfterLatencyThreshold() throws Exception {
+        TrackedFuture.setDiagnosticsPolicy(TrackedFutureDiagnosticsPolicy.lightweight(0.0, Duration.ofMillis(50)));
+        var root = new TextTrackedFuture<Integer>("root");
+        var fastStage = root.thenApply(v -> v + 1, () -> "fast");
+        Assertions.assertFalse(fastStage.isDiagnosticsTracked());
+
+        Thread.sleep(100);
+        var slowStage = fastStage.thenApply(v -> v + 1, () -> "slow");
+        Assertions.assertTrue(slowStage.isDiagnosticsTracked());
+        Assertions.assertEquals("slow", slowStage.diagnosticSupplier.get());
+        Assertions.assertSame(fastStage, slowStage.getParentDiagnosticFuture());
+
+        root.future.complete(0);
+        Assertions.assertEquals(2, slowStage.get());
+    }
+
+    @Test
+    public void fullModeIsTheDefault() {
+        Assertions.assertEquals(TrackedFutureDiagnosticsPolicy.Mode.FULL, TrackedFuture.getDiagnosticsPolicy().getMode());
+        var tf = new TextTrackedFuture<Integer>("root").thenApply(v -> v, () -> "B");
+        Assertions.assertTrue(tf.isDiagnosticsTracked());
+    }
+
+    @Test
+    public void invalidSampleRateIsRejected() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> TrackedFutureDiagnosticsPolicy.lightweight(1.5, null)
+        );
+    }
+
+    /**
+     * Measures the bytes allocated to build and complete chains in each mode.  The chain is shaped
+     * like the per-request work in the replayer (a mix of thenApply and thenCompose stages).
+     */
+    @Test
+    public void lightweightChainsAllocateLess() {
+        var threadMxBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadMxBean instanceof com.sun.management.ThreadMXBean);
+        var allocationBean = (com.sun.management.ThreadMXBean) threadMxBean;
+        Assumptions.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        final int chains = 20_000;
+        final int stagesPerChain = 8;
+        var fullBytes = measureAllocatedBytesPerChain(allocationBean, chains, stagesPerChain,
+            TrackedFutureDiagnosticsPolicy.FULL);
+        var lightweightBytes = measureAllocatedBytesPerChain(allocationBean, chains, stagesPerChain,
+            TrackedFutureDiagnosticsPolicy.lightweight(0.0, null));
+        log.atInfo().setMessage("Allocated bytes per chain: full={} lightweight={}")
+            .addArgument(fullBytes)
+            .addArgument(lightweightBytes)
+            .log();
+        Assertions.assertTrue(lightweightBytes < fullBytes,
+            "lightweight=" + lightweightBytes + " should be less than full=" + fullBytes);
+    }
+
+    private static long measureAllocatedBytesPerChain(
+        com.sun.management.ThreadMXBean allocationBean,
+        int chains,
+        int stagesPerChain,
+        TrackedFutureDiagnosticsPolicy policy
+    ) {
+        TrackedFuture.setDiagnosticsPolicy(policy);
+        // warm up so that class loading and JIT compilation aren't included in the measurement
+        runChains(chains, stagesPerChain);
+        var threadId = Thread.currentThread().getId();
+        var before = allocationBean.getThreadAllocatedBytes(threadId);
+        runChains(chains, stagesPerChain);
+        return (allocationBean.getThreadAllocatedBytes(threadId) - before) / chains;
+    }
+
+    private static void runChains(int chains, int stagesPerChain) {
+        for (int i = 0; i < chains; ++i) {
+            var root = new TextTrackedFuture<Integer>(new CompletableFuture<>(), () -> "root");
+            var tf = makeChain(root, stagesPerChain);
+            root.future.complete(0);
+            tf.future.join();
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package org.opensearch.migrations.utils.kafka;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * Loads Kafka export files ({@code <key>|<base64 TrafficStream>} per line) into a topic.
+ * <p>
+ * Each source is read, split into chunks of lines and decoded on its own pipeline:
+ * <ol>
+ *   <li>a reader thread decompresses the source and cuts it into chunks of raw line bytes,</li>
+ *   <li>a shared pool decodes each chunk into ProducerRecords (and applies the optional time filter), and</li>
+ *   <li>the calling thread sends the decoded chunks in their original order.</li>
+ * </ol>
+ * Up to {@code readerThreads} sources are read ahead at once, each with at most {@code chunksInFlightPerSource}
+ * decoded-but-unsent chunks, so memory stays bounded no matter how large the files are.  Records are sent
+ * strictly in source order and then line order from a single thread with the original record key (the
+ * capture's connection id), so with an idempotent producer every connection's streams land on the same
+ * partition in the same order as when they were captured.  Sources should therefore be given in capture order.
+ */
+@Slf4j
+public class KafkaLoadPipeline {
+    private static final byte DELIMITER = '|';
+    private static final Chunk END_OF_SOURCE = new Chunk(List.of(), 0, 0);
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @FunctionalInterface
+    public interface StreamOpener {
+        InputStream open() throws IOException;
+    }
+
+    /** A named stream of export lines.  The stream is opened on a reader thread and closed by the pipeline. */
+    public record InputSource(String name, StreamOpener opener) {}
+
+    @Value
+    @Builder
+    public static class Options {
+        String topicName;
+        /** How many lines are decoded together; also how often the sender checks for failed sends. */
+        @Builder.Default
+        int linesPerChunk = 500;
+        @Builder.Default
+        int readerThreads = 2;
+        @Builder.Default
+        int decoderThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        @Builder.Default
+        int chunksInFlightPerSource = 16;
+        /** When set, streams whose first observation is before this are skipped. */
+        Instant startTime;
+        /** When set, streams whose first observation is at or after this are skipped. */
+        Instant endTime;
+        /** 0 or less sends as fast as the producer accepts records. */
+        @Builder.Default
+        double maxRecordsPerSecond = 0;
+    }
+
+    public record LoadResult(long recordsRead, long recordsSent, long recordsFilteredOut, long bytesSent) {}
+
+    private record Chunk(List<ProducerRecord<String, byte[]>> records, int linesRead, long bytes) {}
+
+    private final Options options;
+
+    public KafkaLoadPipeline(Options options) {
+        if (options.getTopicName() == null) {
+            throw new IllegalArgumentException("topicName must be set");
+        }
+        if (options.getLinesPerChunk() <= 0 || options.getReaderThreads() <= 0
+            || options.getDecoderThreads() <= 0 || options.getChunksInFlightPerSource() <= 0) {
+            throw new IllegalArgumentException("Chunk sizes and thread counts must be positive: " + options);
+        }
+        this.options = options;
+    }
+
+    /**
+     * Sends every record from the sources, in order, and flushes the producer.  Throws the first failure
+     * from reading, decoding (e.g. {@link KafkaLoader.InvalidKafkaExportFormat}), or sending; records already
+     * handed to the producer by then may or may not have been written.
+     */
+    public LoadResult load(List<InputSource> sources, Producer<String, byte[]> producer) throws Exception {
+        var readerPool = Executors.newFixedThreadPool(options.getReaderThreads(),
+            makeThreadFactory("kafka-loader-reader-"));
+        var decoderPool = Executors.newFixedThreadPool(options.getDecoderThreads(),
+            makeThreadFactory("kafka-loader-decoder-"));
+        try {
+            var chunkQueues = new ArrayList<BlockingQueue<Future<Chunk>>>();
+            for (var source : sources) {
+                var queue = new ArrayBlockingQueue<Future<Chunk>>(options.getChunksInFlightPerSource());
+                chunkQueues.add(queue);
+                // the reader pool is FIFO, so the source being sent is always one that's being read
+                readerPool.execute(() -> readSource(source, queue, decoderPool));
+            }
+            var sender = new OrderedSender(producer);
+            for (int i = 0; i < sources.size(); i++) {
+                log.atInfo().setMessage("Loading {} into topic {}")
+                    .addArgument(sources.get(i).name()).addArgument(options.getTopicName()).log();
+                sender.sendAll(chunkQueues.get(i));
+            }
+            producer.flush();
+            sender.throwIfAnySendFailed();
+            var result = sender.result();
+            log.atInfo().setMessage("Finished loading topic {}: {}")
+                .addArgument(options.getTopicName()).addArgument(result).log();
+            return result;
+        } finally {
+            readerPool.shutdownNow();
+            decoderPool.shutdownNow();
+        }
+    }
+
+    private void readSource(InputSource source, BlockingQueue<Future<Chunk>> queue, ExecutorService decoderPool) {
+        try (var in = source.opener().open()) {
+            var splitter = new LineSplitter(in);
+            long firstLineNumber = 1;
+            var lines = new ArrayList<byte[]>(options.getLinesPerChunk());
+            byte[] line;
+            while ((line = splitter.nextLine()) != null) {
+                lines.add(line);
+                if (lines.size() == options.getLinesPerChunk()) {
+                    queue.put(submitDecode(decoderPool, source.name(), firstLineNumber, lines));
+                    firstLineNumber += lines.size();
+                    lines = new ArrayList<>(options.getLinesPerChunk());
+                }
+            }
+            if (!lines.isEmpty()) {
+                queue.put(submitDecode(decoderPool, source.name(), firstLineNumber, lines));
+            }
+            queue.put(CompletableFuture.completedFuture(END_OF_SOURCE));
+        } catch (InterruptedException e) {
+            // the load was abandoned; nothing is waiting on this queue anymore
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // hand the failure to the sender, which will reach it after the chunks that were read before it
+            try {
+                queue.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Future<Chunk> submitDecode(ExecutorService decoderPool, String sourceName, long firstLineNumber,
+                                       List<byte[]> lines) {
+        return decoderPool.submit(() -> decode(sourceName, firstLineNumber, lines));
+    }
+
+    private Chunk decode(String sourceName, long firstLineNumber, List<byte[]> lines) throws Exception {
+        var records = new ArrayList<ProducerRecord<String, byte[]>>(lines.size());
+        long bytes = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i);
+            int delimiter = indexOf(line, 0);
+            if (delimiter < 0 || indexOf(line, delimiter + 1) >= 0) {
+                throw new KafkaLoader.InvalidKafkaExportFormat("Expected record in format '<key>|<value>' but did "
+                    + "not find the correct number of delimiters on line " + (firstLineNumber + i) + " of "
+                    + sourceName);
+            }
+            var key = new String(line, 0, delimiter, StandardCharsets.UTF_8);
+            // decoding straight from the line's bytes avoids building a String for each (large) value
+            var value = Base64.getDecoder()
+                .decode(ByteBuffer.wrap(line, delimiter + 1, line.length - delimiter - 1))
+                .array();
+            if (isInTimeRange(value)) {
+                records.add(new ProducerRecord<>(options.getTopicName(), key, value));
+                bytes += value.length;
+            }
+        }
+        return new Chunk(records, lines.size(), bytes);
+    }
+
+    private static int indexOf(byte[] line, int from) {
+        for (int i = from; i < line.length; i++) {
+            if (line[i] == DELIMITER) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isInTimeRange(byte[] trafficStreamBytes) throws IOException {
+        if (options.getStartTime() == null && options.getEndTime() == null) {
+            return true;
+        }
+        var trafficStream = TrafficStream.parseFrom(trafficStreamBytes);
+        if (trafficStream.getSubStreamCount() == 0) {
+            return true;
+        }
+        var ts = trafficStream.getSubStream(0).getTs();
+        var firstObservationTime = Instant.ofEpochSecond(ts.getSeconds(), ts.getNanos());
+        return (options.getStartTime() == null || !firstObservationTime.isBefore(options.getStartTime()))
+            && (options.getEndTime() == null || firstObservationTime.isBefore(options.getEndTime()));
+    }
+
+    /** Sends chunks in order from the calling thread, pacing to maxRecordsPerSecond. */
+    private class OrderedSender {
+        private final Producer<String, byte[]> producer;
+        private final AtomicReference<Exception> firstSendFailure = new AtomicReference<>();
+        private final long nanosPerRecord = options.getMaxRecordsPerSecond() > 0
+            ? (long) (TimeUnit.SECONDS.toNanos(1) / options.getMaxRecordsPerSecond())
+            : 0;
+        private long nextSendNanos;
+        private long lastProgressLogNanos = System.nanoTime();
+        private long recordsRead;
+        private long recordsSent;
+        private long bytesSent;
+
+        OrderedSender(Producer<String, byte[]> producer) {
+            this.producer = producer;
+        }
+
+        void sendAll(BlockingQueue<Future<Chunk>> chunkQueue) throws Exception {
+            while (true) {
+                var chunk = awaitChunk(chunkQueue.take());
+                if (chunk == END_OF_SOURCE) {
+                    return;
+                }
+                for (var kafkaRecord : chunk.records()) {
+                    pace();
+                    producer.send(kafkaRecord, (metadata, e) -> {
+                        if (e != null) {
+                            firstSendFailure.compareAndSet(null, e);
+                        }
+                    });
+                }
+                recordsRead += chunk.linesRead();
+                recordsSent += chunk.records().size();
+                bytesSent += chunk.bytes();
+                throwIfAnySendFailed();
+                logProgress();
+            }
+        }
+
+        private Chunk awaitChunk(Future<Chunk> chunkFuture) throws Exception {
+            try {
+                return chunkFuture.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        private void pace() throws InterruptedException {
+            if (nanosPerRecord == 0) {
+                return;
+            }
+            var now = System.nanoTime();
+            // don't bank more than a second of unused sends, or a stall would be followed by a burst
+            if (nextSendNanos - now < -TimeUnit.SECONDS.toNanos(1)) {
+                nextSendNanos = now;
+            } else if (nextSendNanos - now > 0) {
+                TimeUnit.NANOSECONDS.sleep(nextSendNanos - now);
+            }
+            nextSendNanos += nanosPerRecord;
+        }
+
+        void throwIfAnySendFailed() throws Exception {
+            var failure = firstSendFailure.get();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private void logProgress() {
+            var now = System.nanoTime();
+            if (now - lastProgressLogNanos >= PROGRESS_LOG_INTERVAL_NANOS) {
+                lastProgressLogNanos = now;
+                log.atInfo().setMessage("Sent {} of {} records ({} bytes) to kafka topic {}")
+                    .addArgument(recordsSent).addArgument(recordsRead).addArgument(bytesSent)
+                    .addArgument(options.getTopicName()).log();
+            }
+        }
+
+        LoadResult result() {
+            return new LoadResult(recordsRead, recordsSent, recordsRead - recordsSent, bytesSent);
+        }
+    }
+
+    /** Splits a stream into lines of raw bytes (without the {@code \n} or {@code \r\n} terminator). */
+    static class LineSplitter {
+        private final InputStream in;
+        private byte[] buffer = new byte[64 * 1024];
+        private int position;
+        private int limit;
+        private boolean endOfStream;
+
+        LineSplitter(InputStream in) {
+            this.in = in;
+        }
+
+        byte[] nextLine() throws IOException {
+            int scanFrom = position;
+            while (true) {
+                for (int i = scanFrom; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        var end = (i > position && buffer[i - 1] == '\r') ? i - 1 : i;
+                        var line = Arrays.copyOfRange(buffer, position, end);
+                        position = i + 1;
+                        return line;
+                    }
+                }
+                scanFrom = limit;
+                if (endOfStream) {
+                    if (position == limit) {
+                        return null;
+                    }
+                    var line = Arrays.copyOfRange(buffer, position, limit);
+                    position = limit;
+                    return line;
+                }
+                scanFrom -= position;
+                fill();
+            }
+        }
+
+        /** Moves the partial line to the front of the buffer (growing it if needed) and reads more. */
+        private void fill() throws IOException {
+            var partialLength = limit - position;
+            if (partialLength == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            } else if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, partialLength);
+            }
+            position = 0;
+            limit = partialLength;
+            var read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfStream = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    private static ThreadFactory makeThreadFactory(String namePrefix) {
+        var counter = new AtomicInteger();
+        return runnable -> {
+            var thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
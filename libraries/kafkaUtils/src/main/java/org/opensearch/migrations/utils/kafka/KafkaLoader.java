@@ -1,26 +1,24 @@
 package org.opensearch.migrations.utils.kafka;
 
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.Base64;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Properties;
 import java.util.zip.GZIPInputStream;
 
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.KafkaConfig;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.Producer;
-import org.apache.kafka.clients.producer.ProducerRecord;
-import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
 
 @Slf4j
 public class KafkaLoader {
-    private static final String DELIMITER = "\\|";
+    public static final String DEFAULT_COMPRESSION_TYPE = "lz4";
+
     private String kafkaPropertiesFile;
     private String kafkaConnection;
     private String kafkaClientId;
@@ -40,22 +38,18 @@ public class KafkaLoader {
     }
 
     public void loadRecordsToKafkaFromCompressedFile(String fileName, String topicName, int batchSize) throws Exception {
-        var kafkaProperties =
-            KafkaConfig.buildKafkaProperties(
-                kafkaPropertiesFile,
-                kafkaConnection,
-                kafkaClientId,
-                mskAuthEnabled ? KafkaConfig.AUTH_TYPE_MSK_IAM : KafkaConfig.AUTH_TYPE_NONE,
-                null,
-                null
-            );
-        try (var kafkaProducer = new KafkaProducer<String, byte[]>(kafkaProperties)) {
-            BufferedReader bufferedReader = createBufferedReaderFromFile(fileName);
-            readLinesAndSendToKafka(bufferedReader, kafkaProducer, topicName, batchSize);
-        }
+        loadRecordsToKafka(
+            List.of(fileSource(Path.of(fileName))),
+            KafkaLoadPipeline.Options.builder().topicName(topicName).linesPerChunk(batchSize).build(),
+            DEFAULT_COMPRESSION_TYPE
+        );
     }
 
-    public void loadRecordsToKafkaFromReader(BufferedReader reader, String topicName, int batchSize) throws Exception {
+    public KafkaLoadPipeline.LoadResult loadRecordsToKafka(
+        List<KafkaLoadPipeline.InputSource> sources,
+        KafkaLoadPipeline.Options options,
+        String compressionType
+    ) throws Exception {
         var kafkaProperties =
             KafkaConfig.buildKafkaProperties(
                 kafkaPropertiesFile,
@@ -65,58 +59,38 @@ public class KafkaLoader {
                 null,
                 null
             );
+        applyBulkLoadProducerDefaults(kafkaProperties, compressionType);
         try (var kafkaProducer = new KafkaProducer<String, byte[]>(kafkaProperties)) {
-            readLinesAndSendToKafka(reader, kafkaProducer, topicName, batchSize);
+            return new KafkaLoadPipeline(options).load(sources, kafkaProducer);
         }
     }
 
-    public void readLinesAndSendToKafka(BufferedReader reader, Producer<String, byte[]> producer, String topicName, int batchSize) throws Exception {
-        List<Future<RecordMetadata>> futures = new ArrayList<>();
-        int i = 0;
-        String line;
-        while ((line = reader.readLine()) != null) {
-            String[] splitString = line.split(DELIMITER);
-            if (splitString.length != 2) {
-                throw new InvalidKafkaExportFormat("Expected record in format '<key>|<value>' but did not find the correct number of delimiters");
-            }
-            var recordId = splitString[0];
-            var byteArray = Base64.getDecoder().decode(splitString[1]);
-            futures.add(producer.send(new ProducerRecord<>(topicName, recordId, byteArray)));
-            i++;
-
-            // Flush batch
-            if (i % batchSize == 0) {
-                waitForFutures(futures);
-                log.info("Sent " + i + " messages to kafka topic " + topicName);
-                futures.clear();
-            }
-        }
-        log.info("End of stream reached");
-        waitForFutures(futures);
-        log.info("Sent total of " + i + " messages to kafka topic " + topicName);
+    /**
+     * Tunes the producer for throughput without giving up ordering.  Idempotence (which implies acks=all and
+     * at most 5 in-flight requests) keeps retried batches from being duplicated or reordered within a
+     * partition.  Anything set in the kafka properties file takes precedence.
+     */
+    static void applyBulkLoadProducerDefaults(Properties kafkaProperties, String compressionType) {
+        kafkaProperties.putIfAbsent(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        kafkaProperties.putIfAbsent(ProducerConfig.ACKS_CONFIG, "all");
+        kafkaProperties.putIfAbsent(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+        kafkaProperties.putIfAbsent(ProducerConfig.LINGER_MS_CONFIG, "50");
+        kafkaProperties.putIfAbsent(ProducerConfig.BATCH_SIZE_CONFIG, String.valueOf(1024 * 1024));
+        kafkaProperties.putIfAbsent(ProducerConfig.BUFFER_MEMORY_CONFIG, String.valueOf(64L * 1024 * 1024));
+        kafkaProperties.putIfAbsent(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
     }
 
-    private void waitForFutures(List<Future<RecordMetadata>> futures) throws ExecutionException, InterruptedException {
-        for (var future : futures) {
-            future.get();
-        }
+    /** A file source that's gunzipped if it starts with the gzip magic number and read as-is otherwise. */
+    public static KafkaLoadPipeline.InputSource fileSource(Path path) {
+        return new KafkaLoadPipeline.InputSource(path.toString(),
+            () -> maybeDecompress(Files.newInputStream(path)));
     }
 
-    private BufferedReader createBufferedReaderFromFile(String filename) throws Exception {
-        var compressedIs = new FileInputStream(filename);
-        var is = new GZIPInputStream(compressedIs);
-        var isr = new InputStreamReader(is);
-        try {
-            return new BufferedReader(isr);
-        } catch (Exception e) {
-            try {
-                isr.close();
-            } catch (Exception e2) {
-                log.atError().setCause(e2).setMessage("Caught exception while closing InputStreamReader that " +
-                        "was in response to an earlier thrown exception.  Swallowing the inner exception and " +
-                        "throwing the original one.").log();
-            }
-            throw e;
-        }
+    static InputStream maybeDecompress(InputStream rawStream) throws IOException {
+        var in = new BufferedInputStream(rawStream, 64 * 1024);
+        in.mark(2);
+        var isGzip = in.read() == 0x1f && in.read() == 0x8b;
+        in.reset();
+        return isGzip ? new GZIPInputStream(in, 64 * 1024) : in;
     }
 }
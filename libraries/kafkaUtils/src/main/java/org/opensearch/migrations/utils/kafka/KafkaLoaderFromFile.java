@@ -1,7 +1,10 @@
 package org.opensearch.migrations.utils.kafka;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.KafkaConfig;
 
@@ -19,12 +22,12 @@ public class KafkaLoaderFromFile {
     public static class Parameters {
         @Parameter(required = false,
                 names = { "--inputFile", "input-file" },
-                arity = 1,
-                description = "The gzip compressed file containing Capture Proxy produced traffic streams.")
-        public String inputFile;
+                description = "A file containing Capture Proxy produced traffic streams, gzip compressed or not.  "
+                    + "May be repeated; files are loaded in the order given, so list them in capture order.")
+        public List<String> inputFiles = new ArrayList<>();
         @Parameter(required = false,
                 names = { "--stdin" },
-                description = "Read uncompressed records from stdin instead of a file.")
+                description = "Read records from stdin instead of a file.")
         public boolean stdin = false;
         @Parameter(required = false,
                 names = { "--topicName", "topic-name" },
@@ -34,8 +37,39 @@ public class KafkaLoaderFromFile {
         @Parameter(required = false,
                 names = { "--batchSize", "batch-size" },
                 arity = 1,
-                description = "The number of records to batch when sending to Kafka.")
+                description = "The number of lines that are decoded together before being sent to Kafka.")
         public int batchSize = DEFAULT_BATCH_SIZE;
+        @Parameter(required = false,
+                names = { "--readerThreads", "reader-threads" },
+                arity = 1,
+                description = "How many input files are decompressed and read ahead at once.")
+        public int readerThreads = 2;
+        @Parameter(required = false,
+                names = { "--decoderThreads", "decoder-threads" },
+                arity = 1,
+                description = "How many threads decode records.  Defaults to one less than the number of cores.")
+        public int decoderThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        @Parameter(required = false,
+                names = { "--compressionType", "compression-type" },
+                arity = 1,
+                description = "The producer's compression.type (none, gzip, snappy, lz4, zstd).")
+        public String compressionType = KafkaLoader.DEFAULT_COMPRESSION_TYPE;
+        @Parameter(required = false,
+                names = { "--startTime", "start-time" },
+                arity = 1,
+                description = "Only load traffic streams whose first observation is at or after this ISO-8601 "
+                    + "instant (e.g. 2024-01-01T00:00:00Z).")
+        public String startTime;
+        @Parameter(required = false,
+                names = { "--endTime", "end-time" },
+                arity = 1,
+                description = "Only load traffic streams whose first observation is before this ISO-8601 instant.")
+        public String endTime;
+        @Parameter(required = false,
+                names = { "--maxRecordsPerSecond", "max-records-per-second" },
+                arity = 1,
+                description = "Cap on how many records are sent per second.  0 (default) sends without a cap.")
+        public double maxRecordsPerSecond = 0;
         @ParametersDelegate
         public KafkaConfig.KafkaParameters kafkaParameters = new KafkaConfig.KafkaParameters();
     }
@@ -48,12 +82,14 @@ public class KafkaLoaderFromFile {
             if (p.kafkaParameters.kafkaBrokers == null) {
                 throw new ParameterException("Missing required parameter: --kafkaBrokers");
             }
-            if (!p.stdin && p.inputFile == null) {
+            if (!p.stdin && p.inputFiles.isEmpty()) {
                 throw new ParameterException("Must specify either --inputFile or --stdin");
             }
-            if (p.stdin && p.inputFile != null) {
+            if (p.stdin && !p.inputFiles.isEmpty()) {
                 throw new ParameterException("Cannot specify both --inputFile and --stdin");
             }
+            parseInstant("--startTime", p.startTime);
+            parseInstant("--endTime", p.endTime);
             return p;
         } catch (ParameterException e) {
             log.error(e.getMessage());
@@ -64,6 +100,29 @@ public class KafkaLoaderFromFile {
         }
     }
 
+    static Instant parseInstant(String parameterName, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ParameterException(parameterName + " must be an ISO-8601 instant but was " + value);
+        }
+    }
+
+    static KafkaLoadPipeline.Options toLoadOptions(Parameters params) {
+        return KafkaLoadPipeline.Options.builder()
+            .topicName(params.topicName)
+            .linesPerChunk(params.batchSize)
+            .readerThreads(params.readerThreads)
+            .decoderThreads(params.decoderThreads)
+            .startTime(parseInstant("--startTime", params.startTime))
+            .endTime(parseInstant("--endTime", params.endTime))
+            .maxRecordsPerSecond(params.maxRecordsPerSecond)
+            .build();
+    }
+
     public static void main(String[] args) throws Exception {
         var params = parseArgs(args);
         var kafkaLoader = new KafkaLoader(
@@ -72,18 +131,9 @@ public class KafkaLoaderFromFile {
                 params.kafkaParameters.kafkaClientId,
                 Boolean.TRUE.equals(params.kafkaParameters.legacyEnableMSKAuth)
         );
-        if (params.stdin) {
-            kafkaLoader.loadRecordsToKafkaFromReader(
-                    new BufferedReader(new InputStreamReader(System.in)),
-                    params.topicName,
-                    params.batchSize
-            );
-        } else {
-            kafkaLoader.loadRecordsToKafkaFromCompressedFile(
-                    params.inputFile,
-                    params.topicName,
-                    params.batchSize
-            );
-        }
+        var sources = params.stdin
+            ? List.of(new KafkaLoadPipeline.InputSource("stdin", () -> KafkaLoader.maybeDecompress(System.in)))
+            : params.inputFiles.stream().map(f -> KafkaLoader.fileSource(Path.of(f))).toList();
+        kafkaLoader.loadRecordsToKafka(sources, toLoadOptions(params), params.compressionType);
     }
 }
@@ -0,0 +1,201 @@
+package org.opensearch.migrations.utils.kafka;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.opensearch.migrations.trafficcapture.protos.ReadObservation;
+import org.opensearch.migrations.trafficcapture.protos.TrafficObservation;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KafkaLoadPipelineTest {
+    private static final Instant BASE_TIME = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private static TrafficStream trafficStream(String connectionId, int index, Instant firstObservation) {
+        return TrafficStream.newBuilder()
+            .setNodeId("node")
+            .setConnectionId(connectionId)
+            .setNumberOfThisLastChunk(index)
+            .addSubStream(TrafficObservation.newBuilder()
+                .setTs(Timestamp.newBuilder()
+                    .setSeconds(firstObservation.getEpochSecond())
+                    .setNanos(firstObservation.getNano()))
+                .setRead(ReadObservation.newBuilder()
+                    .setData(ByteString.copyFrom("GET / HTTP/1.1\r\n\r\n", StandardCharsets.UTF_8))))
+            .build();
+    }
+
+    private static String exportLine(TrafficStream stream) {
+        return stream.getConnectionId() + "|" + Base64.getEncoder().encodeToString(stream.toByteArray());
+    }
+
+    /** Streams for 4 connections, interleaved, one second apart starting at startSecond. */
+    private static List<TrafficStream> streams(int count, int startSecond) {
+        var streams = new ArrayList<TrafficStream>();
+        for (int i = 0; i < count; i++) {
+            streams.add(trafficStream("conn-" + (i % 4), i, BASE_TIME.plusSeconds(startSecond + i)));
+        }
+        return streams;
+    }
+
+    private Path writeGzippedExport(String name, List<TrafficStream> streams) throws IOException {
+        var path = tempDir.resolve(name);
+        try (var writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(path)),
+            StandardCharsets.UTF_8)) {
+            for (var stream : streams) {
+                writer.write(exportLine(stream));
+                writer.write("\n");
+            }
+        }
+        return path;
+    }
+
+    private static MockProducer<String, byte[]> mockProducer() {
+        return new MockProducer<>(true, null, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    private static KafkaLoadPipeline.Options.OptionsBuilder smallChunks() {
+        return KafkaLoadPipeline.Options.builder()
+            .topicName("topic")
+            .linesPerChunk(7)
+            .readerThreads(2)
+            .decoderThreads(3)
+            .chunksInFlightPerSource(2);
+    }
+
+    private static List<TrafficStream> parseSent(MockProducer<String, byte[]> producer) throws IOException {
+        var sent = new ArrayList<TrafficStream>();
+        for (var kafkaRecord : producer.history()) {
+            var stream = TrafficStream.parseFrom(kafkaRecord.value());
+            Assertions.assertEquals(stream.getConnectionId(), kafkaRecord.key());
+            sent.add(stream);
+        }
+        return sent;
+    }
+
+    @Test
+    void filesAreSentInOrderWithTheirConnectionKeys() throws Exception {
+        var first = streams(50, 0);
+        var second = streams(30, 50);
+        var producer = mockProducer();
+        var result = new KafkaLoadPipeline(smallChunks().build()).load(List.of(
+            KafkaLoader.fileSource(writeGzippedExport("first.proto.gz", first)),
+            KafkaLoader.fileSource(writeGzippedExport("second.proto.gz", second))
+        ), producer);
+
+        var expected = new ArrayList<>(first);
+        expected.addAll(second);
+        Assertions.assertEquals(expected, parseSent(producer));
+        Assertions.assertEquals(new KafkaLoadPipeline.LoadResult(80, 80, 0,
+            expected.stream().mapToLong(s -> s.toByteArray().length).sum()), result);
+        Assertions.assertTrue(producer.flushed());
+    }
+
+    @Test
+    void perConnectionOrderIsPreserved() throws Exception {
+        var producer = mockProducer();
+        new KafkaLoadPipeline(smallChunks().build()).load(
+            List.of(KafkaLoader.fileSource(writeGzippedExport("export.proto.gz", streams(200, 0)))), producer);
+
+        Map<String, List<Integer>> indicesByKey = producer.history().stream().collect(Collectors.groupingBy(
+            ProducerRecord::key,
+            Collectors.mapping(r -> parseUnchecked(r.value()).getNumberOfThisLastChunk(), Collectors.toList())));
+        Assertions.assertEquals(4, indicesByKey.size());
+        indicesByKey.values().forEach(indices ->
+            Assertions.assertEquals(indices.stream().sorted().toList(), indices));
+    }
+
+    @Test
+    void timeRangeFilterKeepsOnlyStreamsThatStartedInRange() throws Exception {
+        var producer = mockProducer();
+        var result = new KafkaLoadPipeline(smallChunks()
+            .startTime(BASE_TIME.plusSeconds(10))
+            .endTime(BASE_TIME.plusSeconds(20))
+            .build()
+        ).load(List.of(KafkaLoader.fileSource(writeGzippedExport("export.proto.gz", streams(40, 0)))), producer);
+
+        Assertions.assertEquals(streams(40, 0).subList(10, 20), parseSent(producer));
+        Assertions.assertEquals(40, result.recordsRead());
+        Assertions.assertEquals(30, result.recordsFilteredOut());
+    }
+
+    @Test
+    void uncompressedStdinStyleSourcesAreReadAsIs() throws Exception {
+        var streams = streams(5, 0);
+        var text = streams.stream().map(KafkaLoadPipelineTest::exportLine).collect(Collectors.joining("\r\n"));
+        var producer = mockProducer();
+        new KafkaLoadPipeline(smallChunks().build()).load(List.of(new KafkaLoadPipeline.InputSource("stdin",
+            () -> KafkaLoader.maybeDecompress(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))))),
+            producer);
+        Assertions.assertEquals(streams, parseSent(producer));
+    }
+
+    @Test
+    void malformedLinesFailTheLoadWithTheirLocation() throws Exception {
+        var path = tempDir.resolve("bad.txt");
+        Files.writeString(path, exportLine(streams(1, 0).get(0)) + "\nno-delimiter-here\n");
+        var producer = mockProducer();
+        var pipeline = new KafkaLoadPipeline(smallChunks().build());
+        var sources = List.of(KafkaLoader.fileSource(path));
+        var e = Assertions.assertThrows(KafkaLoader.InvalidKafkaExportFormat.class,
+            () -> pipeline.load(sources, producer));
+        Assertions.assertTrue(e.getMessage().contains("line 2 of " + path), e.getMessage());
+    }
+
+    @Test
+    void sendFailuresFailTheLoad() throws Exception {
+        var producer = new MockProducer<>(false, null, new StringSerializer(), new ByteArraySerializer()) {
+            @Override
+            public synchronized void flush() {
+                errorNext(new IllegalStateException("broker unavailable"));
+            }
+        };
+        var pipeline = new KafkaLoadPipeline(smallChunks().build());
+        var sources = List.of(KafkaLoader.fileSource(writeGzippedExport("export.proto.gz", streams(3, 0))));
+        var e = Assertions.assertThrows(IllegalStateException.class, () -> pipeline.load(sources, producer));
+        Assertions.assertEquals("broker unavailable", e.getMessage());
+    }
+
+    @Test
+    void rateCapSpreadsSendsOut() throws Exception {
+        var producer = mockProducer();
+        var startNanos = System.nanoTime();
+        new KafkaLoadPipeline(smallChunks().maxRecordsPerSecond(100).build()).load(
+            List.of(KafkaLoader.fileSource(writeGzippedExport("export.proto.gz", streams(21, 0)))), producer);
+        var elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        Assertions.assertEquals(21, producer.history().size());
+        // 21 records at 100/s can't take less than the 200ms between the first and the last send
+        Assertions.assertTrue(elapsedMs >= 200, "took " + elapsedMs + "ms");
+    }
+
+    private static TrafficStream parseUnchecked(byte[] bytes) {
+        try {
+            return TrafficStream.parseFrom(bytes);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -14,6 +14,9 @@ input_uri=""
 input_file=""
 topic=""
 batch_size=500
+start_time=""
+end_time=""
+max_records_per_second=""
 endpoint_url=""
 auth_type=""
 
@@ -40,7 +43,10 @@ usage() {
   echo ""
   echo "Optional:"
   echo "  --bootstrap-server <list>  Override broker list (defaults to \$MIGRATION_KAFKA_BROKER_ENDPOINTS)."
-  echo "  --batch-size <n>         Producer batch size (default 500)."
+  echo "  --batch-size <n>         Lines decoded together before being sent (default 500)."
+  echo "  --start-time <instant>   Skip streams that started before this ISO-8601 instant."
+  echo "  --end-time <instant>     Skip streams that started at or after this ISO-8601 instant."
+  echo "  --max-records-per-second <n>  Cap the rate that records are sent at."
   echo "  --endpoint-url <url>     S3 endpoint override (e.g. for LocalStack)."
   echo "  --auth-type <kind>       Override Kafka auth: none|msk-iam|scram-sha-512."
   echo "  --kafka-property-file <p>  Override kafka client properties file."
@@ -55,6 +61,9 @@ while [[ $# -gt 0 ]]; do
     --topic)             topic="$2"; shift 2;;
     --bootstrap-server)  broker_endpoints="$2"; shift 2;;
     --batch-size)        batch_size="$2"; shift 2;;
+    --start-time)        start_time="$2"; shift 2;;
+    --end-time)          end_time="$2"; shift 2;;
+    --max-records-per-second) max_records_per_second="$2"; shift 2;;
     --endpoint-url)      endpoint_url="$2"; shift 2;;
     --auth-type)         auth_type="$2"; shift 2;;
     --kafka-property-file) kafka_property_file="$2"; shift 2;;
@@ -86,7 +95,6 @@ if [[ ! -x "$kafka_utils_bin" ]]; then
 fi
 
 loader_args=(
-  --stdin
   --topicName "$topic"
   --kafkaBrokers "$broker_endpoints"
   --batchSize "$batch_size"
@@ -97,6 +105,15 @@ fi
 if [[ -n "$kafka_property_file" ]]; then
   loader_args+=(--kafkaPropertyFile "$kafka_property_file")
 fi
+if [[ -n "$start_time" ]]; then
+  loader_args+=(--startTime "$start_time")
+fi
+if [[ -n "$end_time" ]]; then
+  loader_args+=(--endTime "$end_time")
+fi
+if [[ -n "$max_records_per_second" ]]; then
+  loader_args+=(--maxRecordsPerSecond "$max_records_per_second")
+fi
 
 if [[ -n "$input_uri" ]]; then
   s3_args=()
@@ -104,8 +121,9 @@ if [[ -n "$input_uri" ]]; then
     s3_args+=(--endpoint-url "$endpoint_url")
   fi
   echo "Importing $input_uri -> kafka://$broker_endpoints/$topic"
-  aws "${s3_args[@]}" s3 cp "$input_uri" - | gunzip | "$kafka_utils_bin" "${loader_args[@]}"
+  # the loader gunzips stdin itself, off of the thread that's sending to kafka
+  aws "${s3_args[@]}" s3 cp "$input_uri" - | "$kafka_utils_bin" --stdin "${loader_args[@]}"
 else
   echo "Importing $input_file -> kafka://$broker_endpoints/$topic"
-  gunzip -c "$input_file" | "$kafka_utils_bin" "${loader_args[@]}"
+  "$kafka_utils_bin" --inputFile "$input_file" "${loader_args[@]}"
 fi
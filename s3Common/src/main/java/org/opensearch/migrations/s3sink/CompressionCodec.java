@@ -0,0 +1,135 @@
+package org.opensearch.migrations.s3sink;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * How {@link RotatingGzipS3ObjectWriter} compresses the objects that it stages and uploads.
+ * <p>
+ * With {@code parallelism <= 1} records are compressed on the caller's thread into a single gzip member or
+ * zstd frame, exactly as before.  With a higher parallelism, records are cut into {@code blockSizeBytes}
+ * blocks that are each compressed as an <em>independent</em> gzip member or zstd frame on a small pool and
+ * written out in order (see {@link ParallelBlockCompressingOutputStream}).  Both formats define a stream of
+ * concatenated members/frames to decompress to the concatenation of their contents, so {@code gzip -d},
+ * Python's {@code gzip} module, {@code zstd -d}, and {@link #openDecompressingStream} all read either layout.
+ *
+ * @param level gzip (0-9) or zstd (1-22) compression level; {@link #DEFAULT_LEVEL} uses the format's default
+ */
+public record CompressionCodec(Format format, int level, int parallelism, int blockSizeBytes) {
+    public static final int DEFAULT_LEVEL = -1;
+    public static final int DEFAULT_BLOCK_SIZE_BYTES = 1024 * 1024;
+    static final int DEFAULT_ZSTD_LEVEL = 3;
+
+    /** Single-threaded gzip at the default level, which is what every writer used before codecs existed. */
+    public static final CompressionCodec GZIP = new CompressionCodec(Format.GZIP, DEFAULT_LEVEL, 1,
+        DEFAULT_BLOCK_SIZE_BYTES);
+
+    public enum Format {
+        GZIP(".gz", "application/gzip"),
+        ZSTD(".zst", "application/zstd");
+
+        public final String fileExtension;
+        public final String contentType;
+
+        Format(String fileExtension, String contentType) {
+            this.fileExtension = fileExtension;
+            this.contentType = contentType;
+        }
+    }
+
+    public CompressionCodec {
+        if (format == null) {
+            throw new IllegalArgumentException("format must be set");
+        }
+        if (level != DEFAULT_LEVEL) {
+            var maxLevel = format == Format.GZIP ? Deflater.BEST_COMPRESSION : Zstd.maxCompressionLevel();
+            if (level < 0 || level > maxLevel) {
+                throw new IllegalArgumentException("Compression level for " + format + " must be between 0 and "
+                    + maxLevel + " but was " + level);
+            }
+        }
+        if (blockSizeBytes <= 0) {
+            throw new IllegalArgumentException("blockSizeBytes must be positive but was " + blockSizeBytes);
+        }
+    }
+
+    public static CompressionCodec of(Format format, int level, int parallelism) {
+        return new CompressionCodec(format, level, parallelism, DEFAULT_BLOCK_SIZE_BYTES);
+    }
+
+    public boolean isParallel() {
+        return parallelism > 1;
+    }
+
+    /**
+     * Wraps a raw output stream.  Closing the returned stream finishes the compressed data and closes
+     * {@code out}.  compressionPool must be non-null when {@link #isParallel()}.
+     */
+    public OutputStream wrap(OutputStream out, ExecutorService compressionPool) throws IOException {
+        if (isParallel()) {
+            return new ParallelBlockCompressingOutputStream(out, this, compressionPool);
+        }
+        if (format == Format.ZSTD) {
+            return new ZstdOutputStream(out, zstdLevel());
+        }
+        return new GZIPOutputStream(out, true) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+
+    /** Compresses one block as a complete, self-contained gzip member or zstd frame. */
+    byte[] compressBlock(byte[] block, int length) throws IOException {
+        if (format == Format.ZSTD) {
+            var compressed = new byte[(int) Zstd.compressBound(length)];
+            var compressedSize = Zstd.compressByteArray(compressed, 0, compressed.length, block, 0, length,
+                zstdLevel());
+            if (Zstd.isError(compressedSize)) {
+                throw new IOException("zstd compression failed: " + Zstd.getErrorName(compressedSize));
+            }
+            return Arrays.copyOf(compressed, (int) compressedSize);
+        }
+        var bytesOut = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (var gzipOut = new GZIPOutputStream(bytesOut) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzipOut.write(block, 0, length);
+        }
+        return bytesOut.toByteArray();
+    }
+
+    private int zstdLevel() {
+        return level == DEFAULT_LEVEL ? DEFAULT_ZSTD_LEVEL : level;
+    }
+
+    /**
+     * Opens an object written with any codec, choosing the decompressor from the stream's magic bytes.
+     * Concatenated gzip members and zstd frames (the parallel layout) are read through to the end.
+     */
+    public static InputStream openDecompressingStream(InputStream compressed) throws IOException {
+        var in = compressed.markSupported() ? compressed : new BufferedInputStream(compressed);
+        in.mark(4);
+        var magic = in.readNBytes(4);
+        in.reset();
+        if (magic.length == 4 && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+            && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return new ZstdInputStream(in);
+        }
+        return new GZIPInputStream(in);
+    }
+}
@@ -0,0 +1,133 @@
+package org.opensearch.migrations.s3sink;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Cuts what's written into fixed-size blocks, compresses each block as an independent gzip member or zstd
+ * frame on a shared pool, and writes the compressed blocks to the underlying stream in their original order.
+ * <p>
+ * At most {@code 2 * parallelism} blocks are in flight; a writer that gets further ahead than that waits
+ * for the oldest block to finish, which bounds memory to a few megabytes per stream.  The compressed output
+ * is only appended from the writing thread, so the underlying stream needs no synchronization.
+ * <p>
+ * Like the other streams that the writer uses, this is not thread-safe: callers must serialize writes.
+ */
+class ParallelBlockCompressingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private final CompressionCodec codec;
+    private final ExecutorService compressionPool;
+    private final int maxBlocksInFlight;
+    private final ArrayDeque<Future<byte[]>> blocksInFlight = new ArrayDeque<>();
+
+    private byte[] currentBlock;
+    private int currentBlockLength;
+    private boolean wroteAnyBlock;
+    private boolean closed;
+
+    ParallelBlockCompressingOutputStream(OutputStream out, CompressionCodec codec, ExecutorService compressionPool) {
+        if (compressionPool == null) {
+            throw new IllegalArgumentException("A compression pool is required for parallel compression");
+        }
+        this.out = out;
+        this.codec = codec;
+        this.compressionPool = compressionPool;
+        this.maxBlocksInFlight = Math.max(2, 2 * codec.parallelism());
+        this.currentBlock = new byte[codec.blockSizeBytes()];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        currentBlock[currentBlockLength++] = (byte) b;
+        if (currentBlockLength == currentBlock.length) {
+            submitCurrentBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            var toCopy = Math.min(length, currentBlock.length - currentBlockLength);
+            System.arraycopy(bytes, offset, currentBlock, currentBlockLength, toCopy);
+            currentBlockLength += toCopy;
+            offset += toCopy;
+            length -= toCopy;
+            if (currentBlockLength == currentBlock.length) {
+                submitCurrentBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes out whichever blocks have already been compressed.  The partially filled block stays buffered
+     * since emitting it early would only make the object larger; close() is what makes the object complete.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while (!blocksInFlight.isEmpty() && blocksInFlight.peekFirst().isDone()) {
+            writeOldestBlock();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            // an object with no data still gets one (empty) member/frame so that every reader accepts it
+            if (currentBlockLength > 0 || !wroteAnyBlock) {
+                submitCurrentBlock();
+            }
+            while (!blocksInFlight.isEmpty()) {
+                writeOldestBlock();
+            }
+        } finally {
+            blocksInFlight.forEach(f -> f.cancel(false));
+            blocksInFlight.clear();
+        }
+    }
+
+    private void submitCurrentBlock() throws IOException {
+        var block = currentBlock;
+        var length = currentBlockLength;
+        blocksInFlight.addLast(compressionPool.submit(() -> codec.compressBlock(block, length)));
+        wroteAnyBlock = true;
+        // the submitted block is now owned by the compression task, so start a fresh buffer
+        currentBlock = new byte[codec.blockSizeBytes()];
+        currentBlockLength = 0;
+        while (blocksInFlight.size() >= maxBlocksInFlight) {
+            writeOldestBlock();
+        }
+    }
+
+    private void writeOldestBlock() throws IOException {
+        var oldest = blocksInFlight.removeFirst();
+        try {
+            out.write(oldest.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block to be compressed");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ioe
+                ? ioe
+                : new IOException("Failed to compress block", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -12,13 +12,13 @@ import java.util.ArrayList;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.GZIPOutputStream;
 
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.async.AsyncRequestBody;
@@ -30,8 +30,8 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
  * used to be duplicated between the replayer's tuple sink and the RFS failed-document-stream sink:
  *
  * <ul>
- *   <li>gzip JSONL output staged to a <em>local temp file</em> (never buffering the whole compressed
- *       object in memory),</li>
+ *   <li>compressed JSONL output staged to a <em>local temp file</em> (never buffering the whole
+ *       compressed object in memory), gzip by default or any other {@link CompressionCodec},</li>
  *   <li>rotation by size / age / record count (see {@link RotationPolicy}),</li>
  *   <li>same-key retry on upload failure (so a transient S3 error doesn't change the object key),</li>
  *   <li>flush/close semantics tied to durable upload completion.</li>
@@ -56,6 +56,12 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
  * failed-document-stream sink relies on this so a failed upload blocks its gating flush and a
  * successor work item reprocesses the partition.
  *
+ * <h2>Compression</h2>
+ * A parallel {@link CompressionCodec} moves compression off of the caller's thread onto a small pool owned by
+ * this writer, so the caller only pays for copying records into a block buffer.  Everything above is
+ * unchanged: the pool only produces bytes for the current temp file, and an object is still finished (all of
+ * its blocks written) before it's uploaded.
+ *
  * @param <T> the in-memory record type; serialized to bytes by {@link RecordSerializer}
  */
 @Slf4j
@@ -63,7 +69,7 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 // local-append-failure durability path deterministically (see RotatingGzipS3ObjectWriterTest).
 public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
 
-    /** Serializes one record to the bytes appended (followed by a newline) to the gzip stream. */
+    /** Serializes one record to the bytes appended (followed by a newline) to the compressed stream. */
     @FunctionalInterface
     public interface RecordSerializer<T> {
         byte[] serialize(T item) throws IOException;
@@ -75,10 +81,10 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         String nextKey(Instant now, long sequence);
     }
 
-    /** Uploads a staged gzip temp file to {@code s3://bucket/key}. May throw synchronously. */
+    /** Uploads a staged compressed temp file to {@code s3://bucket/key}. May throw synchronously. */
     @FunctionalInterface
     public interface ObjectUploader {
-        CompletableFuture<Void> upload(String bucket, String key, Path gzipFile);
+        CompletableFuture<Void> upload(String bucket, String key, Path compressedFile);
     }
 
     private final ObjectUploader uploader;
@@ -89,6 +95,9 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
     private final Duration uploadRetryDelay;
     private final int maxUploadAttempts;
     private final String tempFilePrefix;
+    private final CompressionCodec codec;
+    // Only set for parallel codecs; shared by every object this writer produces.
+    private final ExecutorService compressionPool;
     // Time source for rotation-age decisions; overridable so tests can drive aging deterministically
     // instead of racing wall-clock sleeps against a tight max-age.
     private final Clock clock;
@@ -103,7 +112,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
 
     // Stream state — caller-serialized.
     private OutputStream fileOutputStream;
-    private GZIPOutputStream gzipOut;
+    private OutputStream compressedOut;
     private String currentKey;
     private Path currentFile;
     private long uncompressedBytes;
@@ -123,7 +132,22 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         String tempFilePrefix
     ) {
         this(uploader, bucket, keyFactory, serializer, rotationPolicy, uploadRetryDelay,
-            maxUploadAttempts, tempFilePrefix, Clock.systemUTC());
+            maxUploadAttempts, tempFilePrefix, CompressionCodec.GZIP);
+    }
+
+    public RotatingGzipS3ObjectWriter(
+        ObjectUploader uploader,
+        String bucket,
+        KeyFactory keyFactory,
+        RecordSerializer<T> serializer,
+        RotationPolicy rotationPolicy,
+        Duration uploadRetryDelay,
+        int maxUploadAttempts,
+        String tempFilePrefix,
+        CompressionCodec codec
+    ) {
+        this(uploader, bucket, keyFactory, serializer, rotationPolicy, uploadRetryDelay,
+            maxUploadAttempts, tempFilePrefix, codec, Clock.systemUTC());
     }
 
     // Package-private: lets tests supply a controllable Clock to exercise age-based rotation
@@ -138,8 +162,25 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         int maxUploadAttempts,
         String tempFilePrefix,
         Clock clock
+    ) {
+        this(uploader, bucket, keyFactory, serializer, rotationPolicy, uploadRetryDelay,
+            maxUploadAttempts, tempFilePrefix, CompressionCodec.GZIP, clock);
+    }
+
+    RotatingGzipS3ObjectWriter(
+        ObjectUploader uploader,
+        String bucket,
+        KeyFactory keyFactory,
+        RecordSerializer<T> serializer,
+        RotationPolicy rotationPolicy,
+        Duration uploadRetryDelay,
+        int maxUploadAttempts,
+        String tempFilePrefix,
+        CompressionCodec codec,
+        Clock clock
     ) {
         this.clock = clock;
+        this.codec = codec;
         this.uploader = uploader;
         this.bucket = bucket;
         this.keyFactory = keyFactory;
@@ -154,6 +195,10 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         this.uploadScheduler = (maxUploadAttempts == 1) ? null
             : Executors.newSingleThreadScheduledExecutor(
                 makeThreadFactory("s3-object-writer-upload-" + tempFilePrefix));
+        this.compressionPool = codec.isParallel()
+            ? Executors.newFixedThreadPool(codec.parallelism(),
+                makeThreadFactory("s3-object-writer-compress-" + tempFilePrefix))
+            : null;
         openNewStream();
     }
 
@@ -190,7 +235,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
             // reprocesses). Discard the corrupt stream and open a fresh one so later writes in the same
             // batch can still be attempted.
             log.atError().setCause(e)
-                .setMessage("Failed to append to gzip stream for s3://{}/{}; retaining failure so the "
+                .setMessage("Failed to append to compressed stream for s3://{}/{}; retaining failure so the "
                     + "next flush surfaces it").addArgument(bucket).addArgument(currentKey).log();
             discardCurrentStream();
             objectFuture.completeExceptionally(e);
@@ -246,7 +291,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         }
         closed = true;
         try {
-            if (gzipOut != null) {
+            if (compressedOut != null) {
                 if (recordCount > 0) {
                     rotate(false);
                 } else {
@@ -260,6 +305,9 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
             if (uploadScheduler != null) {
                 uploadScheduler.shutdown();
             }
+            if (compressionPool != null) {
+                compressionPool.shutdown();
+            }
         }
     }
 
@@ -283,7 +331,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
     }
 
     /**
-     * Finish the current gzip object and start its (retrying) upload, optionally opening a fresh
+     * Finish the current compressed object and start its (retrying) upload, optionally opening a fresh
      * object. Returns the durability future for the object that was just closed.
      */
     private CompletableFuture<Void> rotate(boolean openNextStream) {
@@ -294,7 +342,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
         if (!closeCurrentStream()) {
             deleteFile(file);
             objectFuture.completeExceptionally(
-                new IOException("Failed to finish gzip stream for s3://" + bucket + "/" + key));
+                new IOException("Failed to finish compressed stream for s3://" + bucket + "/" + key));
             if (openNextStream) {
                 openNewStream();
             } else {
@@ -366,19 +414,21 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
             ? error.getCause() : error;
     }
 
-    // Append one already-serialized record (plus a record separator) to the current gzip stream.
+    // Append one already-serialized record (plus a record separator) to the current compressed stream.
     // Package-private and overridable purely as a test seam for the local-append-failure path;
-    // production behavior is exactly the two gzipOut writes.
+    // production behavior is exactly the two compressedOut writes.
     void appendBytes(byte[] bytes) throws IOException {
-        gzipOut.write(bytes);
-        gzipOut.write('\n');
+        compressedOut.write(bytes);
+        compressedOut.write('\n');
     }
 
-    /** Finish gzip and close the local temp file before upload. Returns true on success. */
+    /**
+     * Finish the compressed data and close the local temp file before upload (closing the codec's stream
+     * closes the file too). Returns true on success.
+     */
     private boolean closeCurrentStream() {
         try {
-            gzipOut.finish();
-            fileOutputStream.close();
+            compressedOut.close();
             return true;
         } catch (IOException e) {
             log.atError().setCause(e).setMessage("Failed to close S3 upload stream").log();
@@ -389,11 +439,11 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
     private void openNewStream() {
         currentKey = keyFactory.nextKey(clock.instant(), sequenceCounter.getAndIncrement());
         try {
-            currentFile = Files.createTempFile(tempFilePrefix, ".gz");
+            currentFile = Files.createTempFile(tempFilePrefix, codec.format().fileExtension);
             fileOutputStream = Files.newOutputStream(currentFile);
-            gzipOut = new GZIPOutputStream(fileOutputStream, true);
+            compressedOut = codec.wrap(fileOutputStream, compressionPool);
         } catch (IOException e) {
-            throw new UncheckedIOException("Failed to create gzip temp file for S3 upload", e);
+            throw new UncheckedIOException("Failed to create compressed temp file for S3 upload", e);
         }
         uncompressedBytes = 0;
         recordCount = 0;
@@ -402,7 +452,7 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
     }
 
     private void clearCurrentStream() {
-        gzipOut = null;
+        compressedOut = null;
         fileOutputStream = null;
         currentFile = null;
         currentKey = null;
@@ -419,13 +469,13 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
     private void discardCurrentStream() {
         var file = currentFile;
         try {
-            if (gzipOut != null) {
-                gzipOut.close();
+            if (compressedOut != null) {
+                compressedOut.close();
             } else if (fileOutputStream != null) {
                 fileOutputStream.close();
             }
         } catch (IOException e) {
-            log.atWarn().setCause(e).setMessage("Failed to close corrupt gzip stream during discard").log();
+            log.atWarn().setCause(e).setMessage("Failed to close corrupt compressed stream during discard").log();
         }
         deleteFile(file);
     }
@@ -454,11 +504,16 @@ public class RotatingGzipS3ObjectWriter<T> implements AutoCloseable {
      * with {@code AsyncRequestBody.fromFile} (no in-memory copy of the compressed object).
      */
     public static ObjectUploader s3ObjectUploader(S3AsyncClient s3Client) {
+        return s3ObjectUploader(s3Client, CompressionCodec.Format.GZIP.contentType);
+    }
+
+    /** As {@link #s3ObjectUploader(S3AsyncClient)}, labelling objects with the codec's content type. */
+    public static ObjectUploader s3ObjectUploader(S3AsyncClient s3Client, String contentType) {
         return (bucket, key, file) -> {
             var request = PutObjectRequest.builder()
                 .bucket(bucket)
                 .key(key)
-                .contentType("application/gzip")
+                .contentType(contentType)
                 .build();
             return s3Client.putObject(request, AsyncRequestBody.fromFile(file)).thenApply(r -> null);
         };
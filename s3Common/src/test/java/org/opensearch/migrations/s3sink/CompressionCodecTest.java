@@ -0,0 +1,179 @@
+package org.opensearch.migrations.s3sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionCodecTest {
+    // small blocks so that a handful of records spans many independent members/frames
+    private static final int SMALL_BLOCK = 64;
+
+    static List<CompressionCodec> codecs() {
+        return List.of(
+            CompressionCodec.GZIP,
+            CompressionCodec.of(CompressionCodec.Format.GZIP, 1, 1),
+            CompressionCodec.of(CompressionCodec.Format.ZSTD, CompressionCodec.DEFAULT_LEVEL, 1),
+            CompressionCodec.of(CompressionCodec.Format.ZSTD, 19, 1),
+            new CompressionCodec(CompressionCodec.Format.GZIP, 6, 3, SMALL_BLOCK),
+            new CompressionCodec(CompressionCodec.Format.ZSTD, 3, 3, SMALL_BLOCK)
+        );
+    }
+
+    private static String sampleRecords(int count) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("{\"connectionId\":\"conn-").append(i % 7).append("\",\"numRequests\":").append(i)
+                .append(",\"body\":\"").append("x".repeat(i % 50)).append("\"}\n");
+        }
+        return sb.toString();
+    }
+
+    private static byte[] compress(CompressionCodec codec, byte[] data) throws IOException {
+        var pool = codec.isParallel() ? Executors.newFixedThreadPool(codec.parallelism()) : null;
+        try {
+            var bytesOut = new ByteArrayOutputStream();
+            try (OutputStream out = codec.wrap(bytesOut, pool)) {
+                // uneven writes so that records straddle block boundaries
+                for (int offset = 0; offset < data.length; offset += 37) {
+                    out.write(data, offset, Math.min(37, data.length - offset));
+                }
+            }
+            return bytesOut.toByteArray();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static String decompress(byte[] compressed) throws IOException {
+        try (var in = CompressionCodec.openDecompressingStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void roundTripsThroughTheSniffingReader(CompressionCodec codec) throws IOException {
+        var records = sampleRecords(200);
+        assertEquals(records, decompress(compress(codec, records.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void parallelGzipIsReadableByThePlainJdkReader() throws IOException {
+        var records = sampleRecords(200);
+        var compressed = compress(new CompressionCodec(CompressionCodec.Format.GZIP, 6, 4, SMALL_BLOCK),
+            records.getBytes(StandardCharsets.UTF_8));
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(records, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void parallelZstdIsReadableByThePlainZstdReader() throws IOException {
+        var records = sampleRecords(200);
+        var compressed = compress(new CompressionCodec(CompressionCodec.Format.ZSTD, 3, 4, SMALL_BLOCK),
+            records.getBytes(StandardCharsets.UTF_8));
+        try (var in = new ZstdInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(records, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("codecs")
+    void emptyStreamsAreStillValidObjects(CompressionCodec codec) throws IOException {
+        assertEquals("", decompress(compress(codec, new byte[0])));
+    }
+
+    @Test
+    void levelsOutsideOfTheFormatsRangeAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CompressionCodec.of(CompressionCodec.Format.GZIP, 10, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> CompressionCodec.of(CompressionCodec.Format.ZSTD, 23, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new CompressionCodec(CompressionCodec.Format.ZSTD, 3, 2, 0));
+    }
+
+    @Test
+    void writerUsesTheCodecsExtensionContentAndKeepsRotation() throws Exception {
+        var codec = new CompressionCodec(CompressionCodec.Format.ZSTD, 3, 2, SMALL_BLOCK);
+        var captured = new CopyOnWriteArrayList<byte[]>();
+        var stagedFiles = new CopyOnWriteArrayList<String>();
+        RotatingGzipS3ObjectWriter.ObjectUploader uploader = (bucket, key, file) -> {
+            try {
+                stagedFiles.add(file.getFileName().toString());
+                captured.add(Files.readAllBytes(file));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return CompletableFuture.completedFuture(null);
+        };
+        var records = sampleRecords(40).split("\n");
+        try (var w = new RotatingGzipS3ObjectWriter<byte[]>(uploader, "bucket", (now, seq) -> "obj-" + seq,
+            bytes -> bytes, new RotationPolicy(0, null, 25), Duration.ofMillis(10), 1, "codec-test-", codec)) {
+            for (var r : records) {
+                w.write(r.getBytes(StandardCharsets.UTF_8));
+            }
+            w.flush().get(2, TimeUnit.SECONDS);
+        }
+        assertEquals(2, captured.size());
+        assertTrue(stagedFiles.stream().allMatch(f -> f.endsWith(".zst")), stagedFiles::toString);
+        var expectedFirst = String.join("\n", List.of(records).subList(0, 25)) + "\n";
+        var expectedSecond = String.join("\n", List.of(records).subList(25, 40)) + "\n";
+        assertEquals(expectedFirst, decompress(captured.get(0)));
+        assertEquals(expectedSecond, decompress(captured.get(1)));
+    }
+
+    @Test
+    void compressionFailuresSurfaceWhenTheStreamIsClosed() {
+        var pool = Executors.newSingleThreadExecutor();
+        try {
+            var codec = new CompressionCodec(CompressionCodec.Format.GZIP, 6, 2, SMALL_BLOCK);
+            var failingOut = new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("disk full");
+                }
+            };
+            var ex = assertThrows(IOException.class, () -> {
+                try (var out = codec.wrap(failingOut, pool)) {
+                    out.write(new byte[SMALL_BLOCK * 3]);
+                }
+            });
+            assertEquals("disk full", ex.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void singleThreadedGzipLevelIsApplied() throws IOException {
+        var data = sampleRecords(500).getBytes(StandardCharsets.UTF_8);
+        var stored = compress(CompressionCodec.of(CompressionCodec.Format.GZIP, 0, 1), data);
+        var best = compress(CompressionCodec.of(CompressionCodec.Format.GZIP, 9, 1), data);
+        assertTrue(stored.length > data.length, "level 0 should only store the data");
+        assertTrue(best.length < data.length / 4, "level 9 should compress repetitive records well");
+        assertArrayEquals(data, decompress(best).getBytes(StandardCharsets.UTF_8));
+    }
+}
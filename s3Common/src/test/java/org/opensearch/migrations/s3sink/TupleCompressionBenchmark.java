@@ -0,0 +1,236 @@
+package org.opensearch.migrations.s3sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link CompressionCodec}s on tuple lines shaped like the replayer's S3 tuple output: a source
+ * request/response and target request/response per line, with headers as fields and bodies base64-encoded,
+ * where most of the bytes are in _bulk requests and search responses.
+ * <p>
+ * The {@code uncompressedBytes} and {@code compressedBytes} counters are reported as rates, so throughput in
+ * MB/s is {@code uncompressedBytes / 1e6} and the compression ratio is
+ * {@code uncompressedBytes / compressedBytes}.
+ * <p>
+ * Run with {@code ./gradlew :s3Common:jmh -Pjmh.includes=TupleCompressionBenchmark}.
+ */
+@State(Scope.Benchmark)
+public class TupleCompressionBenchmark {
+    private static final int CORPUS_BYTES = 16 * 1024 * 1024;
+
+    /** format:level:threads */
+    @Param({ "GZIP:-1:1", "GZIP:1:1", "GZIP:6:4", "ZSTD:3:1", "ZSTD:3:4", "ZSTD:9:4" })
+    public String codecSpec;
+
+    private byte[][] tupleLines;
+    private CompressionCodec codec;
+    private ExecutorService pool;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ByteCounters {
+        public long uncompressedBytes;
+        public long compressedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            uncompressedBytes = 0;
+            compressedBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        createCodec();
+        tupleLines = generateTupleLines(new Random(1), CORPUS_BYTES);
+    }
+
+    private void createCodec() {
+        var parts = codecSpec.split(":");
+        codec = CompressionCodec.of(CompressionCodec.Format.valueOf(parts[0]), Integer.parseInt(parts[1]),
+            Integer.parseInt(parts[2]));
+        pool = codec.isParallel() ? Executors.newFixedThreadPool(codec.parallelism()) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long compressTuples(ByteCounters counters) throws IOException {
+        var sink = new CountingOutputStream();
+        try (var out = codec.wrap(sink, pool)) {
+            for (var line : tupleLines) {
+                out.write(line);
+                out.write('\n');
+                counters.uncompressedBytes += line.length + 1;
+            }
+        }
+        counters.compressedBytes += sink.count;
+        return sink.count;
+    }
+
+    static byte[][] generateTupleLines(Random random, int totalBytes) {
+        var lines = new ArrayList<byte[]>();
+        int size = 0;
+        for (int i = 0; size < totalBytes; i++) {
+            var line = tupleLine(random, i).getBytes(StandardCharsets.UTF_8);
+            lines.add(line);
+            size += line.length + 1;
+        }
+        return lines.toArray(new byte[0][]);
+    }
+
+    private static String tupleLine(Random random, int i) {
+        var isBulk = i % 3 != 0;
+        var requestBody = isBulk ? bulkBody(random, 20 + random.nextInt(80)) : "{\"query\":{\"match\":{\"message\":\""
+            + word(random) + "\"}}}";
+        var responseBody = isBulk ? bulkResponse(random, 50) : searchResponse(random, 10);
+        var uri = isBulk ? "/_bulk" : "/logs-" + (i % 5) + "/_search";
+        var method = isBulk ? "POST" : "GET";
+        return "{\"sourceRequest\":" + message(method, uri, requestBody)
+            + ",\"sourceResponse\":" + response(responseBody, 5 + random.nextInt(200))
+            + ",\"targetRequest\":" + message(method, uri, requestBody)
+            + ",\"targetResponses\":[" + response(responseBody, 5 + random.nextInt(200)) + "]"
+            + ",\"connectionId\":\"" + Long.toHexString(random.nextLong()) + "." + (i % 16) + "\""
+            + ",\"numRequests\":" + i + ",\"numErrors\":0}";
+    }
+
+    private static String message(String method, String uri, String body) {
+        return "{\"Request-URI\":\"" + uri + "\",\"Method\":\"" + method + "\",\"HTTP-Version\":\"HTTP/1.1\","
+            + "\"Host\":\"capture-proxy:9200\",\"Content-Type\":\"application/json\","
+            + "\"Content-Length\":\"" + body.length() + "\",\"body\":\"" + base64(body) + "\"}";
+    }
+
+    private static String response(String body, int latencyMs) {
+        return "{\"HTTP-Version\":\"HTTP/1.1\",\"Status-Code\":200,\"Reason-Phrase\":\"OK\","
+            + "\"response_time_ms\":" + latencyMs + ",\"content-type\":\"application/json; charset=UTF-8\","
+            + "\"body\":\"" + base64(body) + "\"}";
+    }
+
+    private static String bulkBody(Random random, int docs) {
+        var sb = new StringBuilder();
+        for (int d = 0; d < docs; d++) {
+            sb.append("{\"index\":{\"_index\":\"logs-").append(random.nextInt(5)).append("\",\"_id\":\"")
+                .append(Long.toHexString(random.nextLong())).append("\"}}\n")
+                .append("{\"@timestamp\":").append(1_700_000_000_000L + random.nextInt(1_000_000_000))
+                .append(",\"host\":\"web-").append(random.nextInt(40)).append("\",\"status\":")
+                .append(random.nextBoolean() ? 200 : 404).append(",\"bytes\":").append(random.nextInt(100_000))
+                .append(",\"message\":\"").append(word(random)).append(' ').append(word(random)).append(' ')
+                .append(word(random)).append("\"}\n");
+        }
+        return sb.toString();
+    }
+
+    private static String bulkResponse(Random random, int items) {
+        var sb = new StringBuilder("{\"took\":").append(random.nextInt(300)).append(",\"errors\":false,\"items\":[");
+        for (int d = 0; d < items; d++) {
+            sb.append(d == 0 ? "" : ",").append("{\"index\":{\"_index\":\"logs-").append(random.nextInt(5))
+                .append("\",\"_id\":\"").append(Long.toHexString(random.nextLong()))
+                .append("\",\"_version\":1,\"result\":\"created\",\"_shards\":{\"total\":2,\"successful\":2,"
+                    + "\"failed\":0},\"_seq_no\":").append(random.nextInt(1_000_000))
+                .append(",\"_primary_term\":1,\"status\":201}}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String searchResponse(Random random, int hits) {
+        var sb = new StringBuilder("{\"took\":").append(random.nextInt(50))
+            .append(",\"timed_out\":false,\"hits\":{\"total\":{\"value\":").append(random.nextInt(10_000))
+            .append(",\"relation\":\"eq\"},\"hits\":[");
+        for (int h = 0; h < hits; h++) {
+            sb.append(h == 0 ? "" : ",").append("{\"_index\":\"logs-").append(random.nextInt(5))
+                .append("\",\"_id\":\"").append(Long.toHexString(random.nextLong())).append("\",\"_score\":")
+                .append(random.nextDouble()).append(",\"_source\":{\"message\":\"").append(word(random))
+                .append(' ').append(word(random)).append("\"}}");
+        }
+        return sb.append("]}}").toString();
+    }
+
+    private static final String[] WORDS = { "GET", "index.html", "timeout", "connection", "reset", "user",
+        "login", "failed", "succeeded", "cache", "miss", "upstream", "shard", "replica", "error", "warning" };
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String base64(String s) {
+        return Base64.getEncoder().encodeToString(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Test
+    void everyBenchmarkedCodecRoundTripsTheSampleTuples() throws IOException {
+        var lines = generateTupleLines(new Random(1), 256 * 1024);
+        var expected = new ByteArrayOutputStream();
+        for (var line : lines) {
+            expected.write(line);
+            expected.write('\n');
+        }
+        for (var field : TupleCompressionBenchmark.class.getDeclaredFields()) {
+            var param = field.getAnnotation(Param.class);
+            if (param == null) {
+                continue;
+            }
+            for (var value : param.value()) {
+                var benchmark = new TupleCompressionBenchmark();
+                benchmark.codecSpec = value;
+                benchmark.createCodec();
+                try {
+                    var compressed = new ByteArrayOutputStream();
+                    try (var out = benchmark.codec.wrap(compressed, benchmark.pool)) {
+                        out.write(expected.toByteArray());
+                    }
+                    try (var in = CompressionCodec.openDecompressingStream(
+                        new ByteArrayInputStream(compressed.toByteArray()))) {
+                        Assertions.assertArrayEquals(expected.toByteArray(), in.readAllBytes(), value);
+                    }
+                } finally {
+                    benchmark.tearDown();
+                }
+            }
+        }
+    }
+}